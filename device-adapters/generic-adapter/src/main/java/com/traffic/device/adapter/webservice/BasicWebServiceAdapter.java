@@ -8,6 +8,7 @@ import com.traffic.device.adapter.common.converter.impl.DataConverter;
 import com.traffic.device.adapter.common.utils.SignalGroupUtil;
 import com.traffic.device.adapter.webservice.deviceprotocol.u5.BasicPhaseTable;
 import com.traffic.device.adapter.webservice.deviceprotocol.u5.SchemeData5U;
+import com.traffic.device.adapter.webservice.transport.SoapTransport;
 import com.traffic.gat1049.device.adapter.annotation.AdapterComponent;
 import com.traffic.gat1049.device.adapter.annotation.DeviceBrand;
 import com.traffic.gat1049.device.adapter.annotation.ProtocolVersion;
@@ -23,15 +24,12 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 
 import javax.annotation.PostConstruct;
-import javax.xml.soap.*;
-import javax.xml.transform.Source;
-import javax.xml.transform.Transformer;
-import javax.xml.transform.TransformerFactory;
-import javax.xml.transform.stream.StreamResult;
-import java.io.StringWriter;
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
 
 /**
  * 基础WebService信号机适配器
@@ -58,6 +56,9 @@ public class BasicWebServiceAdapter extends BaseSignalControllerAdapter<JsonNode
     @Autowired
     private DataConverter dataConverter;
 
+    @Autowired
+    private SoapTransport soapTransport;
+
     @PostConstruct
     public void autoRegister() {
         // 适配器初始化后自动注册到注册表
@@ -239,6 +240,44 @@ public class BasicWebServiceAdapter extends BaseSignalControllerAdapter<JsonNode
         return connectionStatus.getOrDefault(controllerId, false);
     }
 
+    /**
+     * SayHello 固定发往服务端地址的默认端口，与设备端口无关
+     */
+    @Override
+    public String getProbeAddress(DeviceConnectionInfo device) {
+        String serverIP = device.getIpServer() != null && !device.getIpServer().equals("")
+                ? device.getIpServer() : device.getIpAddress();
+        return serverIP + ":" + defaultPort;
+    }
+
+    /**
+     * 批量健康检查
+     * 协议只提供网关级的 SayHello，同一服务端下的设备共用一次探测结果；
+     * 只返回探测结果，不改变连接状态，连接状态由 connect/disconnect 维护
+     */
+    @Override
+    public CompletionStage<Map<String, Boolean>> checkDevicesHealthAsync(List<DeviceConnectionInfo> devices,
+                                                                      Executor blockingExecutor) {
+        Map<String, List<String>> devicesByGateway = new HashMap<>();
+        for (DeviceConnectionInfo device : devices) {
+            String serverIP = device.getIpServer() != null && !device.getIpServer().equals("")
+                    ? device.getIpServer() : device.getIpAddress();
+            devicesByGateway.computeIfAbsent(serverIP, key -> new ArrayList<>()).add(device.getDeviceId());
+        }
+
+        Map<String, Boolean> result = new ConcurrentHashMap<>();
+        CompletableFuture<?>[] futures = devicesByGateway.entrySet().stream()
+                .map(entry -> CompletableFuture.runAsync(() -> {
+                    boolean healthy = testHelloWorld(entry.getKey());
+                    for (String controllerId : entry.getValue()) {
+                        result.put(controllerId, healthy);
+                    }
+                }, blockingExecutor))
+                .toArray(CompletableFuture[]::new);
+
+        return CompletableFuture.allOf(futures).thenApply(v -> result);
+    }
+
     /**
      * 获取配时方案数据
      * @param param 传入参数对象
@@ -545,80 +584,11 @@ public class BasicWebServiceAdapter extends BaseSignalControllerAdapter<JsonNode
 
         logger.debug("调用WebService: URL={}, Method={}, Params={}", url, methodName, params);
 
-        // Create SOAP Connection
-        SOAPConnectionFactory soapConnectionFactory = SOAPConnectionFactory.newInstance();
-        SOAPConnection soapConnection = soapConnectionFactory.createConnection();
-
-        try {
-            // Send SOAP Message to SOAP Server
-            SOAPMessage soapResponse = soapConnection.call(createSOAPRequest(methodName, params), url);
-
-            // Process the SOAP Response
-            String result = extractResponseValue(soapResponse);
-
-            logger.debug("WebService响应: {}", result);
+        String result = soapTransport.call(url, nameSpace, methodName, params);
 
-            return result;
+        logger.debug("WebService响应: {}", result);
 
-        } finally {
-            soapConnection.close();
-        }
-    }
-
-    /**
-     * 创建SOAP请求
-     */
-    private SOAPMessage createSOAPRequest(String methodName, HashMap<String, String> params) throws Exception {
-        MessageFactory messageFactory = MessageFactory.newInstance();
-        SOAPMessage soapMessage = messageFactory.createMessage();
-        SOAPPart soapPart = soapMessage.getSOAPPart();
-
-        // SOAP Envelope
-        SOAPEnvelope envelope = soapPart.getEnvelope();
-        envelope.addNamespaceDeclaration("web", nameSpace);
-
-        SOAPBody soapBody = envelope.getBody();
-        SOAPElement soapBodyElement = soapBody.addChildElement("web:" + methodName);
-
-        // 添加参数
-        for (String key : params.keySet()) {
-            soapBodyElement.addChildElement(key).addTextNode(params.get(key));
-        }
-
-        MimeHeaders headers = soapMessage.getMimeHeaders();
-        headers.addHeader(methodName, nameSpace + methodName);
-
-        soapMessage.saveChanges();
-        return soapMessage;
-    }
-
-    /**
-     * 提取响应值
-     */
-    private String extractResponseValue(SOAPMessage soapResponse) throws Exception {
-        TransformerFactory transformerFactory = TransformerFactory.newInstance();
-        Transformer transformer = transformerFactory.newTransformer();
-        Source sourceContent = soapResponse.getSOAPPart().getContent();
-        StringWriter stringWriter = new StringWriter();
-        StreamResult result = new StreamResult(stringWriter);
-        transformer.transform(sourceContent, result);
-
-        String xmlStr = stringWriter.toString();
-        return getValueByTag(xmlStr, "return");
-    }
-
-    /**
-     * 从XML中提取指定标签的值
-     */
-    private String getValueByTag(String xmlStr, String tag) {
-        try {
-            int iStart = xmlStr.indexOf("<" + tag + ">") + tag.length() + 2;
-            int iEnd = xmlStr.indexOf("</" + tag + ">");
-            return xmlStr.substring(iStart, iEnd);
-        } catch (Exception e) {
-            logger.error("解析XML响应失败", e);
-            return "";
-        }
+        return result;
     }
 
     // ================================================================
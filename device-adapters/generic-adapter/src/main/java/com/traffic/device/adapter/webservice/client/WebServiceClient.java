@@ -5,14 +5,10 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import com.traffic.device.adapter.webservice.transport.SoapTransport;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
-import javax.xml.soap.*;
-import javax.xml.transform.Source;
-import javax.xml.transform.Transformer;
-import javax.xml.transform.TransformerFactory;
-import javax.xml.transform.stream.StreamResult;
-import java.io.StringWriter;
 import java.util.HashMap;
 
 /**
@@ -27,6 +23,9 @@ public class WebServiceClient {
     private String serverUrl = "localhost:8080"; // 默认地址
     private String nameSpace = "http://webservice/";
 
+    @Autowired
+    private SoapTransport soapTransport;
+
     public void updateServerUrl(String serverIp) {
         this.serverUrl = serverIp + ":8080"; // 假设端口为8080
     }
@@ -209,64 +208,6 @@ public class WebServiceClient {
     // 核心WebService调用方法
     private String callWebService(String methodName, HashMap<String, String> params) throws Exception {
         String url = "http://" + serverUrl + "/SignalListenServer/SignalListenDelegate?wsdl";
-
-        // Create SOAP Connection
-        SOAPConnectionFactory soapConnectionFactory = SOAPConnectionFactory.newInstance();
-        SOAPConnection soapConnection = soapConnectionFactory.createConnection();
-
-        // Send SOAP Message to SOAP Server
-        SOAPMessage soapResponse = soapConnection.call(createSOAPRequest(methodName, params), url);
-
-        // Process the SOAP Response
-        String result = extractResponseValue(soapResponse);
-        soapConnection.close();
-
-        return result;
-    }
-
-    private SOAPMessage createSOAPRequest(String methodName, HashMap<String, String> params) throws Exception {
-        MessageFactory messageFactory = MessageFactory.newInstance();
-        SOAPMessage soapMessage = messageFactory.createMessage();
-        SOAPPart soapPart = soapMessage.getSOAPPart();
-
-        // SOAP Envelope
-        SOAPEnvelope envelope = soapPart.getEnvelope();
-        envelope.addNamespaceDeclaration("web", nameSpace);
-
-        SOAPBody soapBody = envelope.getBody();
-        SOAPElement soapBodyElement = soapBody.addChildElement("web:" + methodName);
-
-        for (String key : params.keySet()) {
-            soapBodyElement.addChildElement(key).addTextNode(params.get(key));
-        }
-
-        MimeHeaders headers = soapMessage.getMimeHeaders();
-        headers.addHeader(methodName, nameSpace + methodName);
-
-        soapMessage.saveChanges();
-        return soapMessage;
-    }
-
-    private String extractResponseValue(SOAPMessage soapResponse) throws Exception {
-        TransformerFactory transformerFactory = TransformerFactory.newInstance();
-        Transformer transformer = transformerFactory.newTransformer();
-        Source sourceContent = soapResponse.getSOAPPart().getContent();
-        StringWriter stringWriter = new StringWriter();
-        StreamResult result = new StreamResult(stringWriter);
-        transformer.transform(sourceContent, result);
-
-        String xmlStr = stringWriter.toString();
-        return getValueByTag(xmlStr, "return");
-    }
-
-    private String getValueByTag(String xmlStr, String tag) {
-        try {
-            int iStart = xmlStr.indexOf("<" + tag + ">") + tag.length() + 2;
-            int iEnd = xmlStr.indexOf("</" + tag + ">");
-            return xmlStr.substring(iStart, iEnd);
-        } catch (Exception e) {
-            logger.error("解析XML响应失败", e);
-            return "";
-        }
+        return soapTransport.call(url, nameSpace, methodName, params);
     }
 }
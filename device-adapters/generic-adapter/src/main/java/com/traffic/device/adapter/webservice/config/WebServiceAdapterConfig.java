@@ -16,6 +16,8 @@ public class WebServiceAdapterConfig {
     private int connectionTimeout = 30000; // 30秒
     private int readTimeout = 60000; // 60秒
     private boolean enableLogging = true;
+    private int maxConcurrentPerDevice = 4; // 单台设备同时进行的请求数
+    private long acquireTimeout = 5000; // 等待设备并发许可的时间（毫秒）
 
     // Getters and Setters
 
@@ -66,4 +68,20 @@ public class WebServiceAdapterConfig {
     public void setEnableLogging(boolean enableLogging) {
         this.enableLogging = enableLogging;
     }
+
+    public int getMaxConcurrentPerDevice() {
+        return maxConcurrentPerDevice;
+    }
+
+    public void setMaxConcurrentPerDevice(int maxConcurrentPerDevice) {
+        this.maxConcurrentPerDevice = maxConcurrentPerDevice;
+    }
+
+    public long getAcquireTimeout() {
+        return acquireTimeout;
+    }
+
+    public void setAcquireTimeout(long acquireTimeout) {
+        this.acquireTimeout = acquireTimeout;
+    }
 }
@@ -0,0 +1,60 @@
+package com.traffic.device.adapter.webservice.transport;
+
+import java.util.Map;
+
+/**
+ * SOAP 1.1 请求报文模板
+ * 信封前后缀按命名空间预先拼好，每次请求只追加方法名和参数，输出与原 SAAJ 生成的报文结构一致
+ */
+public class SoapEnvelopeWriter {
+
+    private static final String ENVELOPE_NS = "http://schemas.xmlsoap.org/soap/envelope/";
+
+    private final String prefix;
+    private final String suffix = "</SOAP-ENV:Body></SOAP-ENV:Envelope>";
+
+    public SoapEnvelopeWriter(String nameSpace) {
+        this.prefix = "<SOAP-ENV:Envelope xmlns:SOAP-ENV=\"" + ENVELOPE_NS + "\" xmlns:web=\""
+                + nameSpace.replace("&", "&amp;").replace("\"", "&quot;") + "\"><SOAP-ENV:Header/><SOAP-ENV:Body>";
+    }
+
+    /**
+     * 生成请求报文
+     *
+     * @param methodName WebService方法名
+     * @param params     参数名 -> 参数值，按迭代顺序写入
+     */
+    public String write(String methodName, Map<String, String> params) {
+        StringBuilder builder = new StringBuilder(prefix.length() + suffix.length() + 128);
+        builder.append(prefix).append("<web:").append(methodName).append('>');
+        for (Map.Entry<String, String> param : params.entrySet()) {
+            builder.append('<').append(param.getKey()).append('>');
+            appendEscaped(builder, param.getValue());
+            builder.append("</").append(param.getKey()).append('>');
+        }
+        builder.append("</web:").append(methodName).append('>').append(suffix);
+        return builder.toString();
+    }
+
+    private static void appendEscaped(StringBuilder builder, String value) {
+        if (value == null) {
+            return;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '&':
+                    builder.append("&amp;");
+                    break;
+                case '<':
+                    builder.append("&lt;");
+                    break;
+                case '>':
+                    builder.append("&gt;");
+                    break;
+                default:
+                    builder.append(c);
+            }
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.traffic.device.adapter.webservice.transport;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * SOAP 响应解析
+ * 用 StAX 顺序读取，找到第一个指定元素即返回其文本，不构建 DOM，也不把整个报文转成字符串
+ */
+public class SoapResponseReader {
+
+    private static final XMLInputFactory INPUT_FACTORY = createInputFactory();
+
+    private static XMLInputFactory createInputFactory() {
+        XMLInputFactory factory = XMLInputFactory.newInstance();
+        factory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, true);
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        return factory;
+    }
+
+    /**
+     * 读取指定元素的文本
+     *
+     * @param in          响应报文
+     * @param elementName 元素本地名，如 return
+     * @return 元素文本，报文中没有该元素时返回 null
+     * @throws IOException 报文不是合法XML，或响应为 SOAP Fault
+     */
+    public String readElementText(InputStream in, String elementName) throws IOException {
+        XMLStreamReader reader = null;
+        try {
+            reader = INPUT_FACTORY.createXMLStreamReader(in);
+            while (reader.hasNext()) {
+                if (reader.next() != XMLStreamConstants.START_ELEMENT) {
+                    continue;
+                }
+                String localName = reader.getLocalName();
+                if (elementName.equals(localName)) {
+                    return reader.getElementText();
+                }
+                if ("faultstring".equals(localName)) {
+                    throw new IOException("SOAP Fault: " + reader.getElementText());
+                }
+            }
+            return null;
+        } catch (XMLStreamException e) {
+            throw new IOException("解析SOAP响应失败: " + e.getMessage(), e);
+        } finally {
+            if (reader != null) {
+                try {
+                    reader.close();
+                } catch (XMLStreamException ignored) {
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package com.traffic.device.adapter.webservice.transport;
+
+import com.traffic.device.adapter.webservice.config.WebServiceAdapterConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * WebService调用传输层
+ * 所有设备共用一个 HttpClient，按设备地址保持 HTTP keep-alive 连接；
+ * 每个设备限制同时进行的请求数，避免轮询时压垮单台信号机
+ */
+@Component
+public class SoapTransport {
+
+    private static final Logger logger = LoggerFactory.getLogger(SoapTransport.class);
+
+    private static final String RETURN_ELEMENT = "return";
+
+    private final HttpClient httpClient;
+    private final Duration readTimeout;
+    private final int maxConcurrentPerDevice;
+    private final long acquireTimeoutMs;
+
+    private final ConcurrentMap<String, SoapEnvelopeWriter> writers = new ConcurrentHashMap<>();
+    private final SoapResponseReader responseReader = new SoapResponseReader();
+
+    /**
+     * 设备地址(host:port) -> 并发许可
+     */
+    private final ConcurrentMap<String, Semaphore> devicePermits = new ConcurrentHashMap<>();
+
+    private final LongAdder totalCalls = new LongAdder();
+    private final LongAdder failedCalls = new LongAdder();
+    private final LongAdder permitTimeouts = new LongAdder();
+    private final LongAdder totalCallNanos = new LongAdder();
+
+    public SoapTransport(WebServiceAdapterConfig config) {
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofMillis(config.getConnectionTimeout()))
+                .build();
+        this.readTimeout = Duration.ofMillis(config.getReadTimeout());
+        this.maxConcurrentPerDevice = Math.max(1, config.getMaxConcurrentPerDevice());
+        this.acquireTimeoutMs = config.getAcquireTimeout();
+    }
+
+    /**
+     * 调用WebService方法
+     *
+     * @param url        服务地址
+     * @param nameSpace  方法命名空间
+     * @param methodName 方法名
+     * @param params     参数名 -> 参数值
+     * @return 响应中 return 元素的文本，没有该元素时返回空串
+     */
+    public String call(String url, String nameSpace, String methodName, Map<String, String> params)
+            throws IOException, InterruptedException {
+        URI uri = URI.create(url);
+        String body = writers.computeIfAbsent(nameSpace, SoapEnvelopeWriter::new).write(methodName, params);
+
+        HttpRequest request = HttpRequest.newBuilder(uri)
+                .timeout(readTimeout)
+                .header("Content-Type", "text/xml; charset=utf-8")
+                .header("SOAPAction", "\"\"")
+                .header(methodName, nameSpace + methodName)
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+
+        String deviceKey = uri.getHost() + ":" + uri.getPort();
+        Semaphore permits = devicePermits.computeIfAbsent(deviceKey, k -> new Semaphore(maxConcurrentPerDevice));
+        if (!permits.tryAcquire(acquireTimeoutMs, TimeUnit.MILLISECONDS)) {
+            permitTimeouts.increment();
+            failedCalls.increment();
+            throw new IOException("设备并发请求已满，等待超时: " + deviceKey);
+        }
+
+        long startNanos = System.nanoTime();
+        totalCalls.increment();
+        try {
+            HttpResponse<byte[]> response = httpClient.send(request, HttpResponse.BodyHandlers.ofByteArray());
+            int status = response.statusCode();
+            // SOAP Fault 以 500 返回，由解析器转换为异常
+            if (status != 200 && status != 500) {
+                throw new IOException("WebService响应状态异常: HTTP " + status + ", url=" + url);
+            }
+            String value = responseReader.readElementText(new ByteArrayInputStream(response.body()), RETURN_ELEMENT);
+            if (value == null) {
+                logger.warn("WebService响应中没有{}元素: method={}, url={}", RETURN_ELEMENT, methodName, url);
+                return "";
+            }
+            return value;
+        } catch (IOException | InterruptedException | RuntimeException e) {
+            failedCalls.increment();
+            throw e;
+        } finally {
+            totalCallNanos.add(System.nanoTime() - startNanos);
+            permits.release();
+        }
+    }
+
+    public Stats getStats() {
+        Stats stats = new Stats();
+        stats.setTotalCalls(totalCalls.sum());
+        stats.setFailedCalls(failedCalls.sum());
+        stats.setPermitTimeouts(permitTimeouts.sum());
+        long calls = totalCalls.sum();
+        stats.setAvgCallMillis(calls == 0 ? 0.0 : totalCallNanos.sum() / 1_000_000.0 / calls);
+        stats.setDevices(devicePermits.size());
+        return stats;
+    }
+
+    /**
+     * 传输层统计
+     */
+    public static class Stats {
+        private long totalCalls;
+        private long failedCalls;
+        private long permitTimeouts;
+        private double avgCallMillis;
+        private int devices;
+
+        public long getTotalCalls() { return totalCalls; }
+        public void setTotalCalls(long totalCalls) { this.totalCalls = totalCalls; }
+
+        public long getFailedCalls() { return failedCalls; }
+        public void setFailedCalls(long failedCalls) { this.failedCalls = failedCalls; }
+
+        public long getPermitTimeouts() { return permitTimeouts; }
+        public void setPermitTimeouts(long permitTimeouts) { this.permitTimeouts = permitTimeouts; }
+
+        public double getAvgCallMillis() { return avgCallMillis; }
+        public void setAvgCallMillis(double avgCallMillis) { this.avgCallMillis = avgCallMillis; }
+
+        public int getDevices() { return devices; }
+        public void setDevices(int devices) { this.devices = devices; }
+
+        @Override
+        public String toString() {
+            return String.format("SoapTransport.Stats{calls=%d, failed=%d, permitTimeouts=%d, avgCallMs=%.2f, devices=%d}",
+                    totalCalls, failedCalls, permitTimeouts, avgCallMillis, devices);
+        }
+    }
+}
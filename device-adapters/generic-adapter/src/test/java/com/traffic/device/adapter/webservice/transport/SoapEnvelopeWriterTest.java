@@ -0,0 +1,60 @@
+package com.traffic.device.adapter.webservice.transport;
+
+import org.junit.jupiter.api.*;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * SOAP请求报文模板测试：报文结构与参数转义
+ */
+@DisplayName("SOAP请求报文模板测试")
+class SoapEnvelopeWriterTest {
+
+    @Test
+    @DisplayName("按参数顺序生成方法元素")
+    void testWrite() {
+        Map<String, String> params = new LinkedHashMap<>();
+        params.put("arg0", "1");
+        params.put("arg1", "abc");
+
+        String envelope = new SoapEnvelopeWriter("http://webservice/").write("SayHello", params);
+
+        assertEquals("<SOAP-ENV:Envelope xmlns:SOAP-ENV=\"http://schemas.xmlsoap.org/soap/envelope/\""
+                + " xmlns:web=\"http://webservice/\"><SOAP-ENV:Header/><SOAP-ENV:Body>"
+                + "<web:SayHello><arg0>1</arg0><arg1>abc</arg1></web:SayHello>"
+                + "</SOAP-ENV:Body></SOAP-ENV:Envelope>", envelope);
+    }
+
+    @Test
+    @DisplayName("参数值中的 & < > 被转义")
+    void testEscapeParamValue() {
+        Map<String, String> params = new LinkedHashMap<>();
+        params.put("arg0", "{\"a\":\"x<y&z>w\"}");
+
+        String envelope = new SoapEnvelopeWriter("http://webservice/").write("Query", params);
+
+        assertTrue(envelope.contains("<arg0>{\"a\":\"x&lt;y&amp;z&gt;w\"}</arg0>"), envelope);
+    }
+
+    @Test
+    @DisplayName("命名空间中的 & 和引号被转义")
+    void testEscapeNameSpace() {
+        String envelope = new SoapEnvelopeWriter("http://host/?a=1&b=\"2\"").write("M", new LinkedHashMap<>());
+
+        assertTrue(envelope.contains("xmlns:web=\"http://host/?a=1&amp;b=&quot;2&quot;\""), envelope);
+    }
+
+    @Test
+    @DisplayName("参数值为 null 时写出空元素")
+    void testNullParamValue() {
+        Map<String, String> params = new LinkedHashMap<>();
+        params.put("arg0", null);
+
+        String envelope = new SoapEnvelopeWriter("http://webservice/").write("M", params);
+
+        assertTrue(envelope.contains("<web:M><arg0></arg0></web:M>"), envelope);
+    }
+}
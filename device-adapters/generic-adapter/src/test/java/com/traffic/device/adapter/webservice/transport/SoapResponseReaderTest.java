@@ -0,0 +1,63 @@
+package com.traffic.device.adapter.webservice.transport;
+
+import org.junit.jupiter.api.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * SOAP响应解析测试：return 文本、SOAP Fault、缺少 return 元素
+ */
+@DisplayName("SOAP响应解析测试")
+class SoapResponseReaderTest {
+
+    private final SoapResponseReader reader = new SoapResponseReader();
+
+    @Test
+    @DisplayName("读取第一个 return 元素的文本，实体已还原")
+    void testReadReturn() throws IOException {
+        String response = "<?xml version=\"1.0\" ?>"
+                + "<S:Envelope xmlns:S=\"http://schemas.xmlsoap.org/soap/envelope/\"><S:Body>"
+                + "<ns2:SayHelloResponse xmlns:ns2=\"http://webservice/\">"
+                + "<return>{\"rows\":[],\"msg\":\"a&amp;b &lt;ok&gt;\"}</return>"
+                + "<return>second</return>"
+                + "</ns2:SayHelloResponse></S:Body></S:Envelope>";
+
+        assertEquals("{\"rows\":[],\"msg\":\"a&b <ok>\"}", reader.readElementText(stream(response), "return"));
+    }
+
+    @Test
+    @DisplayName("SOAP Fault 以异常返回，异常信息包含 faultstring")
+    void testFault() {
+        String response = "<S:Envelope xmlns:S=\"http://schemas.xmlsoap.org/soap/envelope/\"><S:Body>"
+                + "<S:Fault><faultcode>S:Server</faultcode><faultstring>信号机不存在</faultstring></S:Fault>"
+                + "</S:Body></S:Envelope>";
+
+        IOException e = assertThrows(IOException.class, () -> reader.readElementText(stream(response), "return"));
+        assertTrue(e.getMessage().contains("信号机不存在"), e.getMessage());
+    }
+
+    @Test
+    @DisplayName("响应中没有 return 元素时返回 null")
+    void testMissingReturn() throws IOException {
+        String response = "<S:Envelope xmlns:S=\"http://schemas.xmlsoap.org/soap/envelope/\"><S:Body>"
+                + "<ns2:SayHelloResponse xmlns:ns2=\"http://webservice/\"/>"
+                + "</S:Body></S:Envelope>";
+
+        assertNull(reader.readElementText(stream(response), "return"));
+    }
+
+    @Test
+    @DisplayName("非XML响应以异常返回")
+    void testMalformedResponse() {
+        assertThrows(IOException.class, () -> reader.readElementText(stream("<html><body>502"), "return"));
+    }
+
+    private static InputStream stream(String text) {
+        return new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8));
+    }
+}
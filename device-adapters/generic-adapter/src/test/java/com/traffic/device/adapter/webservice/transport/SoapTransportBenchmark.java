@@ -0,0 +1,187 @@
+package com.traffic.device.adapter.webservice.transport;
+
+import com.traffic.device.adapter.webservice.config.WebServiceAdapterConfig;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import javax.xml.soap.MessageFactory;
+import javax.xml.soap.MimeHeaders;
+import javax.xml.soap.SOAPBody;
+import javax.xml.soap.SOAPConnection;
+import javax.xml.soap.SOAPConnectionFactory;
+import javax.xml.soap.SOAPElement;
+import javax.xml.soap.SOAPEnvelope;
+import javax.xml.soap.SOAPMessage;
+import javax.xml.transform.Transformer;
+import javax.xml.transform.TransformerFactory;
+import javax.xml.transform.stream.StreamResult;
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.StringWriter;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * WebService传输层基准测试
+ * 在本机启动一个桩SOAP服务，比较共用连接池的 SoapTransport 与替换前的 SAAJ 实现的吞吐。
+ * SAAJ 实现按原 BasicWebServiceAdapter 的调用方式保留在本类中：每次调用新建连接和消息工厂，
+ * 响应经 Transformer 转成字符串后按标签截取 return；直接运行 main 即可
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(8)
+@State(Scope.Benchmark)
+public class SoapTransportBenchmark {
+
+    private static final String NAME_SPACE = "http://webservice/";
+
+    private static final String RESPONSE = "<?xml version=\"1.0\" ?>"
+            + "<S:Envelope xmlns:S=\"http://schemas.xmlsoap.org/soap/envelope/\"><S:Body>"
+            + "<ns2:SayHelloResponse xmlns:ns2=\"http://webservice/\">"
+            + "<return>{\"rows\":[{\"SIGID\":1,\"ip\":\"192.168.1.10\"}],\"success\":\"ok\"}</return>"
+            + "</ns2:SayHelloResponse></S:Body></S:Envelope>";
+
+    private ServerSocket server;
+    private String url;
+    private SoapTransport transport;
+    private HashMap<String, String> params;
+
+    @Setup
+    public void setUp() throws IOException {
+        server = startStubServer();
+        url = "http://127.0.0.1:" + server.getLocalPort() + "/SignalListenServer/SignalListenDelegate?wsdl";
+
+        WebServiceAdapterConfig config = new WebServiceAdapterConfig();
+        config.setMaxConcurrentPerDevice(8);
+        transport = new SoapTransport(config);
+
+        params = new HashMap<>();
+        params.put("arg0", "");
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        server.close();
+    }
+
+    @Benchmark
+    public String saaj() throws Exception {
+        return saajCall(url, "SayHello", params);
+    }
+
+    @Benchmark
+    public String soapTransport() throws Exception {
+        return transport.call(url, NAME_SPACE, "SayHello", params);
+    }
+
+    /**
+     * 原 SAAJ 实现：每次调用新建连接、消息工厂和 Transformer
+     */
+    private static String saajCall(String url, String methodName, HashMap<String, String> params) throws Exception {
+        SOAPConnection soapConnection = SOAPConnectionFactory.newInstance().createConnection();
+        try {
+            MessageFactory messageFactory = MessageFactory.newInstance();
+            SOAPMessage request = messageFactory.createMessage();
+            SOAPEnvelope envelope = request.getSOAPPart().getEnvelope();
+            envelope.addNamespaceDeclaration("web", NAME_SPACE);
+            SOAPBody soapBody = envelope.getBody();
+            SOAPElement soapBodyElement = soapBody.addChildElement("web:" + methodName);
+            for (String key : params.keySet()) {
+                soapBodyElement.addChildElement(key).addTextNode(params.get(key));
+            }
+            MimeHeaders headers = request.getMimeHeaders();
+            headers.addHeader(methodName, NAME_SPACE + methodName);
+            request.saveChanges();
+
+            SOAPMessage response = soapConnection.call(request, url);
+            Transformer transformer = TransformerFactory.newInstance().newTransformer();
+            StringWriter writer = new StringWriter();
+            transformer.transform(response.getSOAPPart().getContent(), new StreamResult(writer));
+            String xml = writer.toString();
+            return xml.substring(xml.indexOf("<return>") + "<return>".length(), xml.indexOf("</return>"));
+        } finally {
+            soapConnection.close();
+        }
+    }
+
+    /**
+     * 桩SOAP服务：每个连接一个线程，支持 keep-alive，响应一次写出
+     */
+    private static ServerSocket startStubServer() throws IOException {
+        byte[] body = RESPONSE.getBytes(StandardCharsets.UTF_8);
+        byte[] response = ("HTTP/1.1 200 OK\r\nContent-Type: text/xml; charset=utf-8\r\nContent-Length: " + body.length + "\r\n\r\n"
+                + RESPONSE).getBytes(StandardCharsets.UTF_8);
+        ServerSocket serverSocket = new ServerSocket(0, 512, InetAddress.getLoopbackAddress());
+        Thread acceptor = new Thread(() -> {
+            while (!serverSocket.isClosed()) {
+                try {
+                    Socket socket = serverSocket.accept();
+                    Thread worker = new Thread(() -> serve(socket, response), "soap-stub");
+                    worker.setDaemon(true);
+                    worker.start();
+                } catch (IOException e) {
+                    return;
+                }
+            }
+        }, "soap-stub-acceptor");
+        acceptor.setDaemon(true);
+        acceptor.start();
+        return serverSocket;
+    }
+
+    private static void serve(Socket socket, byte[] response) {
+        try (Socket s = socket;
+             BufferedInputStream in = new BufferedInputStream(s.getInputStream());
+             OutputStream out = s.getOutputStream()) {
+            s.setTcpNoDelay(true);
+            while (true) {
+                int contentLength = -1;
+                String line;
+                boolean first = true;
+                while ((line = readLine(in)) != null && !line.isEmpty()) {
+                    first = false;
+                    if (line.regionMatches(true, 0, "Content-Length:", 0, 15)) {
+                        contentLength = Integer.parseInt(line.substring(15).trim());
+                    }
+                }
+                if (line == null || first) {
+                    return;
+                }
+                in.readNBytes(Math.max(0, contentLength));
+                out.write(response);
+                out.flush();
+            }
+        } catch (IOException ignored) {
+        }
+    }
+
+    private static String readLine(InputStream in) throws IOException {
+        StringBuilder line = new StringBuilder();
+        int c;
+        while ((c = in.read()) != -1) {
+            if (c == '\n') {
+                int length = line.length();
+                return length > 0 && line.charAt(length - 1) == '\r' ? line.substring(0, length - 1) : line.toString();
+            }
+            line.append((char) c);
+        }
+        return line.length() == 0 ? null : line.toString();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(SoapTransportBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -2,6 +2,7 @@ package com.traffic.gat1049.application.connection;
 
 import com.traffic.gat1049.application.session.SessionManager;
 
+import java.util.Objects;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
@@ -23,6 +24,9 @@ public class ConnectionManager {
     // 连接状态存储
     private final ConcurrentHashMap<String, ConnectionStatus> connections = new ConcurrentHashMap<>();
 
+    // 令牌索引：token -> clientId，用于按订阅令牌定位连接
+    private final ConcurrentHashMap<String, String> tokenIndex = new ConcurrentHashMap<>();
+
     // 心跳间隔（秒）
     private static final int HEARTBEAT_INTERVAL = 30;
 
@@ -39,12 +43,27 @@ public class ConnectionManager {
 
     /**
      * 注册连接
+     * 同一连接重新登录时替换为新Token，旧Token不再指向该连接
      */
     public void registerConnection(String clientId, String token) {
-        if(connections.containsKey(clientId)) return;
+        ConnectionStatus previous = connections.get(clientId);
+        if (previous != null && Objects.equals(previous.getToken(), token)) {
+            previous.updateLastHeartbeat();
+            return;
+        }
         ConnectionStatus status = new ConnectionStatus(clientId, token);
-        connections.put(clientId, status);
-        logger.info("注册连接: clientId={}, token={}", clientId, token);
+        previous = connections.put(clientId, status);
+        if (previous != null) {
+            removeTokenIndex(previous);
+        }
+        if (token != null) {
+            tokenIndex.put(token, clientId);
+        }
+        if (previous != null) {
+            logger.info("连接重新登录: clientId={}, oldToken={}, token={}", clientId, previous.getToken(), token);
+        } else {
+            logger.info("注册连接: clientId={}, token={}", clientId, token);
+        }
     }
 
     /**
@@ -53,6 +72,7 @@ public class ConnectionManager {
     public void unregisterConnection(String clientId) {
         ConnectionStatus removed = connections.remove(clientId);
         if (removed != null) {
+            removeTokenIndex(removed);
             logger.info("注销连接: clientId={}", clientId);
         }
     }
@@ -75,6 +95,15 @@ public class ConnectionManager {
         String token = connections.get(clientId).getToken();
         return token;
     }
+    /**
+     * 根据Token获取clientId
+     *
+     * @return clientId，未找到返回null
+     */
+    public String getClientId(String token) {
+        return token != null ? tokenIndex.get(token) : null;
+    }
+
     /**
      * 检查连接是否在线
      */
@@ -98,6 +127,7 @@ public class ConnectionManager {
     public void shutdown() {
         heartbeatExecutor.shutdown();
         connections.clear();
+        tokenIndex.clear();
         logger.info("连接管理器已关闭");
     }
 
@@ -120,10 +150,17 @@ public class ConnectionManager {
 
                 // 移除连接
                 connections.remove(clientId);
+                removeTokenIndex(status);
             }
         }
     }
 
+    private void removeTokenIndex(ConnectionStatus status) {
+        if (status.getToken() != null) {
+            tokenIndex.remove(status.getToken(), status.getClientId());
+        }
+    }
+
     /**
      * 连接状态
      */
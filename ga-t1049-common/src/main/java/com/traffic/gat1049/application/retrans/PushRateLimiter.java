@@ -0,0 +1,39 @@
+package com.traffic.gat1049.application.retrans;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 推送限速
+ * 按固定间隔发放许可，调用方在许可时刻到来前休眠；所有重传任务共用一个实例
+ */
+public class PushRateLimiter {
+
+    private final long intervalNanos;
+    private long nextFreeNanos = System.nanoTime();
+
+    /**
+     * @param permitsPerSecond 每秒许可数，不大于0时不限速
+     */
+    public PushRateLimiter(double permitsPerSecond) {
+        this.intervalNanos = permitsPerSecond > 0 ? (long) (TimeUnit.SECONDS.toNanos(1) / permitsPerSecond) : 0;
+    }
+
+    /**
+     * 获取一个许可，必要时阻塞等待
+     */
+    public void acquire() throws InterruptedException {
+        if (intervalNanos == 0) {
+            return;
+        }
+        long waitNanos;
+        synchronized (this) {
+            long now = System.nanoTime();
+            long slot = Math.max(now, nextFreeNanos);
+            nextFreeNanos = slot + intervalNanos;
+            waitNanos = slot - now;
+        }
+        if (waitNanos > 0) {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.traffic.gat1049.application.retrans;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 重传任务检查点
+ * 记录任务参数和每个路口的发送进度，服务重启后据此继续未完成的路口
+ */
+public class RetransCheckpoint {
+
+    private String taskId;
+    private String objName;
+    private String startTime;
+    private String endTime;
+    private List<String> crossIds = new ArrayList<>();
+    private String createTime;
+
+    // 已全部发送的路口
+    private Set<String> completedCrossIds = new LinkedHashSet<>();
+
+    // 路口编号 -> 已发送分片的截止时间 (yyyyMMddHHmmss)
+    private Map<String, String> cursors = new HashMap<>();
+
+    private long pushedCount;
+
+    // 以 FAILED 结束的次数，达到上限后检查点不再恢复
+    private int failedRuns;
+
+    public String getTaskId() { return taskId; }
+    public void setTaskId(String taskId) { this.taskId = taskId; }
+
+    public String getObjName() { return objName; }
+    public void setObjName(String objName) { this.objName = objName; }
+
+    public String getStartTime() { return startTime; }
+    public void setStartTime(String startTime) { this.startTime = startTime; }
+
+    public String getEndTime() { return endTime; }
+    public void setEndTime(String endTime) { this.endTime = endTime; }
+
+    public List<String> getCrossIds() { return crossIds; }
+    public void setCrossIds(List<String> crossIds) { this.crossIds = crossIds; }
+
+    public String getCreateTime() { return createTime; }
+    public void setCreateTime(String createTime) { this.createTime = createTime; }
+
+    public Set<String> getCompletedCrossIds() { return completedCrossIds; }
+    public void setCompletedCrossIds(Set<String> completedCrossIds) { this.completedCrossIds = completedCrossIds; }
+
+    public Map<String, String> getCursors() { return cursors; }
+    public void setCursors(Map<String, String> cursors) { this.cursors = cursors; }
+
+    public long getPushedCount() { return pushedCount; }
+    public void setPushedCount(long pushedCount) { this.pushedCount = pushedCount; }
+
+    public int getFailedRuns() { return failedRuns; }
+    public void setFailedRuns(int failedRuns) { this.failedRuns = failedRuns; }
+
+    @Override
+    public String toString() {
+        return "RetransCheckpoint{" +
+                "taskId='" + taskId + '\'' +
+                ", objName='" + objName + '\'' +
+                ", completed=" + completedCrossIds.size() + "/" + crossIds.size() +
+                ", pushedCount=" + pushedCount +
+                ", failedRuns=" + failedRuns +
+                '}';
+    }
+}
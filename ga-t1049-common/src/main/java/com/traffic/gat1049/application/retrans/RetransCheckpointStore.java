@@ -0,0 +1,80 @@
+package com.traffic.gat1049.application.retrans;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 重传检查点文件存储
+ * 每个任务一个 taskId.checkpoint 文件，先写临时文件再原子替换，进程在写入中途退出也不会留下残缺的检查点
+ */
+public class RetransCheckpointStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(RetransCheckpointStore.class);
+
+    private static final String SUFFIX = ".checkpoint";
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper()
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+
+    private final Path directory;
+
+    public RetransCheckpointStore(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        this.directory = directory;
+    }
+
+    /**
+     * 保存检查点
+     *
+     * @return 是否保存成功
+     */
+    public boolean save(RetransCheckpoint checkpoint) {
+        Path file = directory.resolve(checkpoint.getTaskId() + SUFFIX);
+        Path tempFile = directory.resolve(checkpoint.getTaskId() + SUFFIX + ".tmp");
+        try {
+            OBJECT_MAPPER.writeValue(tempFile.toFile(), checkpoint);
+            Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            return true;
+        } catch (IOException e) {
+            logger.error("保存重传检查点失败: taskId={}", checkpoint.getTaskId(), e);
+            return false;
+        }
+    }
+
+    /**
+     * 读取全部检查点，无法解析的文件跳过
+     */
+    public List<RetransCheckpoint> loadAll() {
+        List<RetransCheckpoint> checkpoints = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + SUFFIX)) {
+            for (Path file : files) {
+                try {
+                    checkpoints.add(OBJECT_MAPPER.readValue(file.toFile(), RetransCheckpoint.class));
+                } catch (IOException e) {
+                    logger.warn("重传检查点无法解析，已跳过: {}", file, e);
+                }
+            }
+        } catch (IOException e) {
+            logger.error("读取重传检查点目录失败: {}", directory, e);
+        }
+        return checkpoints;
+    }
+
+    public void delete(String taskId) {
+        try {
+            Files.deleteIfExists(directory.resolve(taskId + SUFFIX));
+        } catch (IOException e) {
+            logger.warn("删除重传检查点失败: taskId={}", taskId, e);
+        }
+    }
+}
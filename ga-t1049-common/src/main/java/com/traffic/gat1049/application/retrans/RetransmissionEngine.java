@@ -0,0 +1,511 @@
+package com.traffic.gat1049.application.retrans;
+
+import com.traffic.gat1049.exception.BusinessException;
+import com.traffic.gat1049.service.interfaces.RunInfoRetransService.RetransTaskInfo;
+import com.traffic.gat1049.service.interfaces.RunInfoRetransService.RetransTaskStatus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 运行信息重传引擎
+ * 重传任务在专用线程池中执行，按路口并行、按时间分片读取和发送：
+ *
+ * 1. 线程池大小限制所有任务的总并发，每个任务同时处理的路口数不超过 task-parallelism
+ * 2. 每个路口的时间范围按 chunk-minutes 切分，逐片读取历史数据并推送，读完一片才读下一片
+ * 3. 所有推送共用一个限速器，避免重传挤占实时推送
+ * 4. 每片发送完成后更新检查点（按间隔落盘），重启后从检查点继续，
+ *    中断时正在发送的分片会整片重发
+ * 5. 路口读取或发送异常时从已发送的分片之后重试，推送失败的分片不推进进度；
+ *    超过 max-cross-attempts 次仍失败的路口保留在检查点中，任务以 FAILED 结束，下次启动时重试这些路口，
+ *    累计 max-failed-runs 次以 FAILED 结束的任务删除检查点，不再恢复
+ */
+@Component
+public class RetransmissionEngine {
+
+    private static final Logger logger = LoggerFactory.getLogger(RetransmissionEngine.class);
+
+    private static final DateTimeFormatter TIME_FORMATTER = DateTimeFormatter.ofPattern("yyyyMMddHHmmss");
+
+    @Value("${gat1049.retrans.threads:4}")
+    private int threads = 4;
+
+    @Value("${gat1049.retrans.task-parallelism:2}")
+    private int taskParallelism = 2;
+
+    @Value("${gat1049.retrans.chunk-minutes:60}")
+    private int chunkMinutes = 60;
+
+    @Value("${gat1049.retrans.max-push-per-second:200}")
+    private double maxPushPerSecond = 200;
+
+    @Value("${gat1049.retrans.max-cross-attempts:3}")
+    private int maxCrossAttempts = 3;
+
+    @Value("${gat1049.retrans.max-failed-runs:3}")
+    private int maxFailedRuns = 3;
+
+    @Value("${gat1049.retrans.checkpoint.enabled:true}")
+    private boolean checkpointEnabled = true;
+
+    @Value("${gat1049.retrans.checkpoint.dir:./data/retrans}")
+    private String checkpointDir = "./data/retrans";
+
+    @Value("${gat1049.retrans.checkpoint.interval-ms:1000}")
+    private long checkpointIntervalMillis = 1000;
+
+    private ThreadPoolExecutor executor;
+    private PushRateLimiter rateLimiter;
+    private RetransCheckpointStore checkpointStore;
+    private volatile boolean stopping;
+
+    private final Map<String, TaskRun> runs = new ConcurrentHashMap<>();
+
+    // 统计数据
+    private final LongAdder pushedRecords = new LongAdder();
+    private final LongAdder failedPushes = new LongAdder();
+    private final LongAdder chunkReads = new LongAdder();
+    private final LongAdder resumedTasks = new LongAdder();
+    private final LongAdder retriedCrosses = new LongAdder();
+    private final LongAdder failedCrosses = new LongAdder();
+    private final LongAdder retiredTasks = new LongAdder();
+
+    /**
+     * 读取一个路口一个时间分片的历史数据
+     */
+    @FunctionalInterface
+    public interface ChunkReader {
+        List<?> read(String objName, String crossId, String startTime, String endTime) throws BusinessException;
+    }
+
+    /**
+     * 推送一条历史数据
+     */
+    @FunctionalInterface
+    public interface RecordPusher {
+        void push(String objName, Object record) throws BusinessException;
+    }
+
+    @PostConstruct
+    public void initialize() throws IOException {
+        AtomicInteger threadIndex = new AtomicInteger();
+        executor = new ThreadPoolExecutor(Math.max(1, threads), Math.max(1, threads),
+                0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(), r -> {
+            Thread thread = new Thread(r, "retrans-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        rateLimiter = new PushRateLimiter(maxPushPerSecond);
+        if (checkpointEnabled) {
+            checkpointStore = new RetransCheckpointStore(Paths.get(checkpointDir));
+        }
+        logger.info("重传引擎已启动: threads={}, taskParallelism={}, chunkMinutes={}, maxPushPerSecond={}, checkpoint={}",
+                threads, taskParallelism, chunkMinutes, maxPushPerSecond, checkpointEnabled ? checkpointDir : "disabled");
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        stopping = true;
+        if (executor == null) {
+            return;
+        }
+        executor.shutdownNow();
+        try {
+            executor.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // 未完成的任务保留检查点，下次启动继续
+        for (TaskRun run : runs.values()) {
+            run.saveCheckpoint();
+        }
+        logger.info("重传引擎已停止: unfinishedTasks={}", runs.size());
+    }
+
+    /**
+     * 提交重传任务
+     */
+    public void submit(RetransTaskInfo taskInfo, ChunkReader reader, RecordPusher pusher) {
+        RetransCheckpoint checkpoint = new RetransCheckpoint();
+        checkpoint.setTaskId(taskInfo.getTaskId());
+        checkpoint.setObjName(taskInfo.getObjName());
+        checkpoint.setStartTime(taskInfo.getStartTime());
+        checkpoint.setEndTime(taskInfo.getEndTime());
+        checkpoint.setCrossIds(new ArrayList<>(taskInfo.getCrossIds()));
+        checkpoint.setCreateTime(taskInfo.getCreateTime());
+
+        TaskRun run = new TaskRun(taskInfo, checkpoint, reader, pusher);
+        run.saveCheckpoint();
+        start(run);
+    }
+
+    /**
+     * 从检查点恢复上次未完成的任务
+     *
+     * @return 恢复的任务信息
+     */
+    public List<RetransTaskInfo> resume(ChunkReader reader, RecordPusher pusher) {
+        List<RetransTaskInfo> restored = new ArrayList<>();
+        if (checkpointStore == null) {
+            return restored;
+        }
+        for (RetransCheckpoint checkpoint : checkpointStore.loadAll()) {
+            RetransTaskInfo taskInfo = new RetransTaskInfo(checkpoint.getTaskId(), checkpoint.getObjName(),
+                    RetransTaskStatus.PENDING);
+            taskInfo.setStartTime(checkpoint.getStartTime());
+            taskInfo.setEndTime(checkpoint.getEndTime());
+            taskInfo.setCrossIds(new ArrayList<>(checkpoint.getCrossIds()));
+            taskInfo.setCreateTime(checkpoint.getCreateTime());
+            taskInfo.setUpdateTime(LocalDateTime.now().format(TIME_FORMATTER));
+            taskInfo.setTotalCount(checkpoint.getCrossIds().size());
+            taskInfo.setCompletedCount(checkpoint.getCompletedCrossIds().size());
+
+            restored.add(taskInfo);
+            resumedTasks.increment();
+            logger.info("恢复重传任务: {}", checkpoint);
+            start(new TaskRun(taskInfo, checkpoint, reader, pusher));
+        }
+        return restored;
+    }
+
+    /**
+     * 取消任务，正在发送的分片发送到下一条记录前停止
+     */
+    public void cancel(String taskId) {
+        TaskRun run = runs.get(taskId);
+        if (run != null) {
+            run.taskInfo.setStatus(RetransTaskStatus.CANCELLED);
+        } else if (checkpointStore != null) {
+            checkpointStore.delete(taskId);
+        }
+    }
+
+    /**
+     * 获取统计信息快照
+     */
+    public Stats getStats() {
+        Stats stats = new Stats();
+        stats.setRunningTasks(runs.size());
+        stats.setActiveThreads(executor != null ? executor.getActiveCount() : 0);
+        stats.setQueuedWorkers(executor != null ? executor.getQueue().size() : 0);
+        stats.setPushedRecords(pushedRecords.sum());
+        stats.setFailedPushes(failedPushes.sum());
+        stats.setChunkReads(chunkReads.sum());
+        stats.setResumedTasks(resumedTasks.sum());
+        stats.setRetriedCrosses(retriedCrosses.sum());
+        stats.setFailedCrosses(failedCrosses.sum());
+        stats.setRetiredTasks(retiredTasks.sum());
+        return stats;
+    }
+
+    private void start(TaskRun run) {
+        runs.put(run.taskInfo.getTaskId(), run);
+        run.taskInfo.setStatus(RetransTaskStatus.RUNNING);
+        run.taskInfo.setUpdateTime(LocalDateTime.now().format(TIME_FORMATTER));
+
+        int workers = Math.min(Math.max(1, taskParallelism), run.pending.size());
+        if (workers == 0) {
+            run.finish();
+            return;
+        }
+        run.activeWorkers.set(workers);
+        try {
+            for (int i = 0; i < workers; i++) {
+                executor.execute(run::work);
+            }
+        } catch (RejectedExecutionException e) {
+            // 引擎已关闭，保留检查点
+            logger.warn("重传引擎已关闭，任务未启动: taskId={}", run.taskInfo.getTaskId());
+            runs.remove(run.taskInfo.getTaskId());
+        }
+    }
+
+    /**
+     * 一个执行中的重传任务，多个工作线程从 pending 中领取路口
+     */
+    private final class TaskRun {
+        private final RetransTaskInfo taskInfo;
+        private final RetransCheckpoint checkpoint;
+        private final ChunkReader reader;
+        private final RecordPusher pusher;
+        private final Queue<String> pending = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger activeWorkers = new AtomicInteger();
+        // 路口编号 -> 已失败次数
+        private final Map<String, Integer> attempts = new ConcurrentHashMap<>();
+        // 重试次数用尽的路口，保留在检查点中
+        private final Set<String> failedCrossIds = ConcurrentHashMap.newKeySet();
+        private long lastSaveTime;
+
+        TaskRun(RetransTaskInfo taskInfo, RetransCheckpoint checkpoint, ChunkReader reader, RecordPusher pusher) {
+            this.taskInfo = taskInfo;
+            this.checkpoint = checkpoint;
+            this.reader = reader;
+            this.pusher = pusher;
+            for (String crossId : checkpoint.getCrossIds()) {
+                if (!checkpoint.getCompletedCrossIds().contains(crossId)) {
+                    pending.add(crossId);
+                }
+            }
+        }
+
+        void work() {
+            try {
+                String crossId;
+                while (isActive() && (crossId = pending.poll()) != null) {
+                    try {
+                        if (retransmitCross(crossId)) {
+                            markCompleted(crossId);
+                        }
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    } catch (Exception e) {
+                        // 继续处理其他路口，不中断整个任务
+                        onCrossFailed(crossId, e);
+                    }
+                }
+            } finally {
+                if (activeWorkers.decrementAndGet() == 0) {
+                    finish();
+                }
+            }
+        }
+
+        /**
+         * 路口失败后放回队尾，从已发送的分片之后重试；重试次数用尽时记为失败，进度保留在检查点中
+         */
+        private void onCrossFailed(String crossId, Exception e) {
+            int attempt = attempts.merge(crossId, 1, Integer::sum);
+            if (attempt < Math.max(1, maxCrossAttempts)) {
+                retriedCrosses.increment();
+                logger.warn("重传路口失败，稍后重试: taskId={}, crossId={}, attempt={}, error={}",
+                        taskInfo.getTaskId(), crossId, attempt, e.getMessage());
+                pending.add(crossId);
+                return;
+            }
+            failedCrosses.increment();
+            failedCrossIds.add(crossId);
+            logger.error("Failed to retransmit data for cross {} after {} attempts: {}",
+                    crossId, attempt, e.getMessage());
+        }
+
+        /**
+         * 按分片发送一个路口的数据
+         *
+         * @return 全部分片发送完成返回true，任务取消或引擎关闭时返回false
+         */
+        private boolean retransmitCross(String crossId) throws BusinessException, InterruptedException {
+            LocalDateTime end = LocalDateTime.parse(checkpoint.getEndTime(), TIME_FORMATTER);
+            String cursor = getCursor(crossId);
+            LocalDateTime chunkStart = cursor != null
+                    ? LocalDateTime.parse(cursor, TIME_FORMATTER).plusSeconds(1)
+                    : LocalDateTime.parse(checkpoint.getStartTime(), TIME_FORMATTER);
+
+            while (!chunkStart.isAfter(end)) {
+                LocalDateTime chunkEnd = chunkStart.plusMinutes(Math.max(1, chunkMinutes)).minusSeconds(1);
+                if (chunkEnd.isAfter(end)) {
+                    chunkEnd = end;
+                }
+                String chunkEndText = chunkEnd.format(TIME_FORMATTER);
+
+                List<?> records = reader.read(checkpoint.getObjName(), crossId,
+                        chunkStart.format(TIME_FORMATTER), chunkEndText);
+                chunkReads.increment();
+                int pushed = 0;
+                for (Object record : records) {
+                    if (!isActive()) {
+                        return false;
+                    }
+                    rateLimiter.acquire();
+                    try {
+                        pusher.push(checkpoint.getObjName(), record);
+                        pushed++;
+                    } catch (BusinessException e) {
+                        // 不推进游标，路口重试时从该分片开始整片重发
+                        failedPushes.increment();
+                        pushedRecords.add(pushed);
+                        logger.warn("重传推送失败: taskId={}, crossId={}, chunkEnd={}, error={}",
+                                taskInfo.getTaskId(), crossId, chunkEndText, e.getMessage());
+                        throw e;
+                    }
+                }
+                pushedRecords.add(pushed);
+                advanceCursor(crossId, chunkEndText, pushed);
+                chunkStart = chunkEnd.plusSeconds(1);
+            }
+            return true;
+        }
+
+        private boolean isActive() {
+            return !stopping && taskInfo.getStatus() != RetransTaskStatus.CANCELLED
+                    && !Thread.currentThread().isInterrupted();
+        }
+
+        private synchronized String getCursor(String crossId) {
+            return checkpoint.getCursors().get(crossId);
+        }
+
+        private void advanceCursor(String crossId, String chunkEnd, int pushed) {
+            synchronized (this) {
+                checkpoint.getCursors().put(crossId, chunkEnd);
+                checkpoint.setPushedCount(checkpoint.getPushedCount() + pushed);
+            }
+            taskInfo.setUpdateTime(LocalDateTime.now().format(TIME_FORMATTER));
+            saveCheckpointIfDue();
+        }
+
+        private void markCompleted(String crossId) {
+            synchronized (this) {
+                checkpoint.getCursors().remove(crossId);
+                checkpoint.getCompletedCrossIds().add(crossId);
+            }
+            int completed = taskInfo.incrementCompletedCount();
+            taskInfo.setUpdateTime(LocalDateTime.now().format(TIME_FORMATTER));
+            logger.debug("Completed retransmission for cross {}: progress {}/{}",
+                    crossId, completed, taskInfo.getTotalCount());
+            saveCheckpointIfDue();
+        }
+
+        private void saveCheckpointIfDue() {
+            long now = System.currentTimeMillis();
+            synchronized (this) {
+                if (now - lastSaveTime < checkpointIntervalMillis) {
+                    return;
+                }
+                lastSaveTime = now;
+            }
+            saveCheckpoint();
+        }
+
+        synchronized void saveCheckpoint() {
+            if (checkpointStore != null) {
+                checkpointStore.save(checkpoint);
+            }
+        }
+
+        void finish() {
+            String taskId = taskInfo.getTaskId();
+            runs.remove(taskId);
+            if (stopping) {
+                saveCheckpoint();
+                return;
+            }
+            if (taskInfo.getStatus() == RetransTaskStatus.CANCELLED) {
+                if (checkpointStore != null) {
+                    checkpointStore.delete(taskId);
+                }
+                logger.info("Retransmission task cancelled: taskId={}", taskId);
+                return;
+            }
+
+            taskInfo.setUpdateTime(LocalDateTime.now().format(TIME_FORMATTER));
+            if (!failedCrossIds.isEmpty()) {
+                taskInfo.setStatus(RetransTaskStatus.FAILED);
+                taskInfo.setErrorMessage(failedCrossIds.size() + " crosses failed: " + failedCrossIds);
+                int failedRuns;
+                synchronized (this) {
+                    failedRuns = checkpoint.getFailedRuns() + 1;
+                    checkpoint.setFailedRuns(failedRuns);
+                }
+                if (failedRuns >= Math.max(1, maxFailedRuns)) {
+                    // 多次重启后仍失败，放弃这些路口
+                    if (checkpointStore != null) {
+                        checkpointStore.delete(taskId);
+                    }
+                    retiredTasks.increment();
+                    taskInfo.setErrorMessage(taskInfo.getErrorMessage() + ", retired after " + failedRuns + " failed runs");
+                    logger.error("Retransmission task retired after {} failed runs: taskId={}, completedCount={}/{}, failedCrosses={}",
+                            failedRuns, taskId, taskInfo.getCompletedCount(), taskInfo.getTotalCount(), failedCrossIds);
+                    return;
+                }
+                // 部分完成：失败路口的进度保留在检查点中，重启后重试，取消任务时删除
+                saveCheckpoint();
+                logger.warn("Retransmission task partially failed: taskId={}, completedCount={}/{}, failedCrosses={}, failedRuns={}/{}",
+                        taskId, taskInfo.getCompletedCount(), taskInfo.getTotalCount(), failedCrossIds,
+                        failedRuns, maxFailedRuns);
+                return;
+            }
+
+            if (checkpointStore != null) {
+                checkpointStore.delete(taskId);
+            }
+            taskInfo.setStatus(RetransTaskStatus.COMPLETED);
+            logger.info("Retransmission task completed: taskId={}, totalCount={}, completedCount={}, pushedCount={}",
+                    taskId, taskInfo.getTotalCount(), taskInfo.getCompletedCount(), checkpoint.getPushedCount());
+        }
+    }
+
+    /**
+     * 重传引擎统计信息
+     */
+    public static class Stats {
+        private int runningTasks;
+        private int activeThreads;
+        private int queuedWorkers;
+        private long pushedRecords;
+        private long failedPushes;
+        private long chunkReads;
+        private long resumedTasks;
+        private long retriedCrosses;
+        private long failedCrosses;
+        private long retiredTasks;
+
+        public int getRunningTasks() { return runningTasks; }
+        public void setRunningTasks(int runningTasks) { this.runningTasks = runningTasks; }
+
+        public int getActiveThreads() { return activeThreads; }
+        public void setActiveThreads(int activeThreads) { this.activeThreads = activeThreads; }
+
+        public int getQueuedWorkers() { return queuedWorkers; }
+        public void setQueuedWorkers(int queuedWorkers) { this.queuedWorkers = queuedWorkers; }
+
+        public long getPushedRecords() { return pushedRecords; }
+        public void setPushedRecords(long pushedRecords) { this.pushedRecords = pushedRecords; }
+
+        public long getFailedPushes() { return failedPushes; }
+        public void setFailedPushes(long failedPushes) { this.failedPushes = failedPushes; }
+
+        public long getChunkReads() { return chunkReads; }
+        public void setChunkReads(long chunkReads) { this.chunkReads = chunkReads; }
+
+        public long getResumedTasks() { return resumedTasks; }
+        public void setResumedTasks(long resumedTasks) { this.resumedTasks = resumedTasks; }
+
+        public long getRetriedCrosses() { return retriedCrosses; }
+        public void setRetriedCrosses(long retriedCrosses) { this.retriedCrosses = retriedCrosses; }
+
+        public long getFailedCrosses() { return failedCrosses; }
+        public void setFailedCrosses(long failedCrosses) { this.failedCrosses = failedCrosses; }
+
+        public long getRetiredTasks() { return retiredTasks; }
+        public void setRetiredTasks(long retiredTasks) { this.retiredTasks = retiredTasks; }
+
+        @Override
+        public String toString() {
+            return String.format("RetransmissionEngine.Stats{running=%d, activeThreads=%d, queuedWorkers=%d, pushed=%d, failedPushes=%d, chunkReads=%d, resumed=%d, retriedCrosses=%d, failedCrosses=%d, retired=%d}",
+                    runningTasks, activeThreads, queuedWorkers, pushedRecords, failedPushes, chunkReads, resumedTasks,
+                    retriedCrosses, failedCrosses, retiredTasks);
+        }
+    }
+}
@@ -0,0 +1,447 @@
+package com.traffic.gat1049.application.state;
+
+import com.traffic.gat1049.protocol.model.runtime.CrossCycle;
+import com.traffic.gat1049.protocol.model.runtime.CrossSignalGroupStatus;
+import com.traffic.gat1049.protocol.model.runtime.CrossStage;
+import com.traffic.gat1049.protocol.model.runtime.CrossState;
+import com.traffic.gat1049.protocol.model.runtime.PackedCrossSignalGroupStatus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+
+/**
+ * 路口实时状态存储
+ * 保存推送收到的每个路口最新的路口状态、周期、阶段和信号组灯态，供 TSCCmd 查询直接返回：
+ *
+ * 1. 每个路口对应一个不可变快照，推送更新时复制快照并以 CAS 替换，不加锁
+ * 2. 查询一次读取整个快照，同一路口的各项数据来自同一时刻
+ * 3. 信号组灯态以 {@link PackedCrossSignalGroupStatus} 保存，查询时再生成协议对象；
+ *    其余协议对象即推送对象本身，写入后不应再修改
+ * 4. 超过存活时间未更新的路口（设备离线、路口撤销）视为过期，查询时不再返回并定期清理；
+ *    路口数超过上限时先清理过期快照，仍超出则淘汰最久未更新的路口
+ */
+@Component
+public class LiveStateStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(LiveStateStore.class);
+
+    @Value("${gat1049.live-state.enabled:true}")
+    private boolean enabled = true;
+
+    @Value("${gat1049.live-state.ttl-seconds:300}")
+    private long ttlSeconds = 300;
+
+    @Value("${gat1049.live-state.max-crosses:20000}")
+    private int maxCrosses = 20000;
+
+    private final Map<String, Snapshot> snapshots = new ConcurrentHashMap<>();
+
+    private ScheduledExecutorService cleanupExecutor;
+
+    // 统计数据
+    private final LongAdder updateCount = new LongAdder();
+    private final LongAdder casRetryCount = new LongAdder();
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+    private final LongAdder expiredCount = new LongAdder();
+    private final LongAdder evictionCount = new LongAdder();
+
+    @PostConstruct
+    public void initialize() {
+        if (!enabled || ttlSeconds <= 0) {
+            return;
+        }
+        cleanupExecutor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "LiveStateStore-Cleanup");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long period = Math.max(1, Math.min(60, ttlSeconds));
+        cleanupExecutor.scheduleWithFixedDelay(this::removeExpired, period, period, TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (cleanupExecutor != null) {
+            cleanupExecutor.shutdownNow();
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 更新路口状态
+     */
+    public void updateCrossState(CrossState crossState) {
+        if (crossState != null) {
+            update(crossState.getCrossId(), s -> s.withCrossState(crossState));
+        }
+    }
+
+    /**
+     * 更新路口周期
+     */
+    public void updateCrossCycle(CrossCycle crossCycle) {
+        if (crossCycle != null) {
+            update(crossCycle.getCrossId(), s -> s.withCrossCycle(crossCycle));
+        }
+    }
+
+    /**
+     * 更新路口阶段
+     */
+    public void updateCrossStage(CrossStage crossStage) {
+        if (crossStage != null) {
+            update(crossStage.getCrossId(), s -> s.withCrossStage(crossStage));
+        }
+    }
+
+    /**
+     * 更新路口信号组灯态
+     * 无法打包的灯态（如格式不规范）按原对象保存
+     */
+    public void updateSignalGroupStatus(CrossSignalGroupStatus status) {
+        if (status == null) {
+            return;
+        }
+        PackedCrossSignalGroupStatus packed = PackedCrossSignalGroupStatus.pack(status);
+        if (packed != null) {
+            updateSignalGroupStatus(packed);
+        } else {
+            update(status.getCrossId(), s -> s.withSignalGroupStatus(null, status));
+        }
+    }
+
+    /**
+     * 更新路口信号组灯态（已打包）
+     */
+    public void updateSignalGroupStatus(PackedCrossSignalGroupStatus packed) {
+        if (packed != null) {
+            update(packed.getCrossId(), s -> s.withSignalGroupStatus(packed, null));
+        }
+    }
+
+    /**
+     * 获取路口的当前快照
+     *
+     * @return 快照，未收到过该路口推送或存储未启用时返回null
+     */
+    public Snapshot getSnapshot(String crossId) {
+        if (!enabled || crossId == null) {
+            return null;
+        }
+        Snapshot snapshot = snapshots.get(crossId);
+        if (snapshot != null && isExpired(snapshot, System.currentTimeMillis())) {
+            if (snapshots.remove(crossId, snapshot)) {
+                expiredCount.increment();
+            }
+            return null;
+        }
+        return snapshot;
+    }
+
+    /**
+     * 读取路口快照中的某项数据
+     *
+     * @return 数据，无快照或该项尚未推送时返回null
+     */
+    public <T> T get(String crossId, Function<Snapshot, T> field) {
+        Snapshot snapshot = getSnapshot(crossId);
+        T value = snapshot != null ? field.apply(snapshot) : null;
+        if (value != null) {
+            hitCount.increment();
+        } else {
+            missCount.increment();
+        }
+        return value;
+    }
+
+    /**
+     * 用实时数据覆盖全量查询结果
+     * fallback 中已有实时数据的路口替换为实时数据，仅存在于实时存储中的路口追加在末尾
+     *
+     * @param fallback  原有数据源的全量结果
+     * @param crossIdOf 取数据所属路口编号
+     * @param field     快照中对应的数据项
+     */
+    public <T> List<T> overlay(List<T> fallback, Function<T, String> crossIdOf, Function<Snapshot, T> field) {
+        if (!enabled || snapshots.isEmpty()) {
+            return fallback;
+        }
+
+        long now = System.currentTimeMillis();
+        List<T> result = new ArrayList<>(Math.max(snapshots.size(), fallback != null ? fallback.size() : 0));
+        Set<String> seen = new HashSet<>();
+        if (fallback != null) {
+            for (T item : fallback) {
+                String crossId = crossIdOf.apply(item);
+                Snapshot snapshot = crossId != null ? snapshots.get(crossId) : null;
+                if (snapshot != null && isExpired(snapshot, now)) {
+                    snapshot = null;
+                }
+                T live = snapshot != null ? field.apply(snapshot) : null;
+                result.add(live != null ? live : item);
+                if (crossId != null) {
+                    seen.add(crossId);
+                }
+            }
+        }
+        for (Snapshot snapshot : snapshots.values()) {
+            if (isExpired(snapshot, now)) {
+                continue;
+            }
+            T live = field.apply(snapshot);
+            if (live != null && !seen.contains(snapshot.getCrossId())) {
+                result.add(live);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 移除路口的实时状态
+     */
+    public void remove(String crossId) {
+        if (crossId != null) {
+            snapshots.remove(crossId);
+        }
+    }
+
+    public void clear() {
+        snapshots.clear();
+        logger.info("路口实时状态已清空");
+    }
+
+    public int size() {
+        return snapshots.size();
+    }
+
+    /**
+     * 清理超过存活时间未更新的路口
+     *
+     * @return 清理的路口数
+     */
+    public int removeExpired() {
+        long now = System.currentTimeMillis();
+        int removed = 0;
+        for (Map.Entry<String, Snapshot> entry : snapshots.entrySet()) {
+            if (isExpired(entry.getValue(), now) && snapshots.remove(entry.getKey(), entry.getValue())) {
+                removed++;
+            }
+        }
+        if (removed > 0) {
+            expiredCount.add(removed);
+            logger.debug("清理过期路口实时状态: {}", removed);
+        }
+        return removed;
+    }
+
+    private boolean isExpired(Snapshot snapshot, long now) {
+        return ttlSeconds > 0 && now - snapshot.getUpdateTime() > TimeUnit.SECONDS.toMillis(ttlSeconds);
+    }
+
+    /**
+     * 路口数超过上限时先清理过期快照，仍超出则淘汰最久未更新的路口
+     */
+    private void enforceMaxCrosses() {
+        if (maxCrosses <= 0 || snapshots.size() <= maxCrosses) {
+            return;
+        }
+        removeExpired();
+        while (snapshots.size() > maxCrosses) {
+            Snapshot oldest = null;
+            for (Snapshot snapshot : snapshots.values()) {
+                if (oldest == null || snapshot.getUpdateTime() < oldest.getUpdateTime()) {
+                    oldest = snapshot;
+                }
+            }
+            if (oldest == null) {
+                return;
+            }
+            if (snapshots.remove(oldest.getCrossId(), oldest)) {
+                evictionCount.increment();
+            }
+        }
+    }
+
+    /**
+     * 获取统计信息快照
+     */
+    public Stats getStats() {
+        Stats stats = new Stats();
+        stats.setEnabled(enabled);
+        stats.setCrossCount(snapshots.size());
+        stats.setUpdateCount(updateCount.sum());
+        stats.setCasRetryCount(casRetryCount.sum());
+        stats.setHitCount(hitCount.sum());
+        stats.setMissCount(missCount.sum());
+        stats.setExpiredCount(expiredCount.sum());
+        stats.setEvictionCount(evictionCount.sum());
+        return stats;
+    }
+
+    private void update(String crossId, UnaryOperator<Snapshot> mutator) {
+        if (!enabled || crossId == null) {
+            return;
+        }
+        while (true) {
+            Snapshot current = snapshots.get(crossId);
+            Snapshot next = mutator.apply(current != null ? current : new Snapshot(crossId));
+            boolean replaced = current == null
+                    ? snapshots.putIfAbsent(crossId, next) == null
+                    : snapshots.replace(crossId, current, next);
+            if (replaced) {
+                updateCount.increment();
+                if (current == null) {
+                    enforceMaxCrosses();
+                }
+                return;
+            }
+            // 同一路口并发更新，基于最新快照重试
+            casRetryCount.increment();
+        }
+    }
+
+    /**
+     * 路口实时状态快照（不可变）
+     */
+    public static final class Snapshot {
+        private final String crossId;
+        private final CrossState crossState;
+        private final CrossCycle crossCycle;
+        private final CrossStage crossStage;
+        private final PackedCrossSignalGroupStatus packedSignalGroupStatus;
+        // 仅在灯态无法打包时使用
+        private final CrossSignalGroupStatus signalGroupStatus;
+        private final long version;
+        private final long updateTime;
+
+        private Snapshot(String crossId) {
+            this(crossId, null, null, null, null, null, 0, 0);
+        }
+
+        private Snapshot(String crossId, CrossState crossState, CrossCycle crossCycle, CrossStage crossStage,
+                         PackedCrossSignalGroupStatus packedSignalGroupStatus, CrossSignalGroupStatus signalGroupStatus,
+                         long version, long updateTime) {
+            this.crossId = crossId;
+            this.crossState = crossState;
+            this.crossCycle = crossCycle;
+            this.crossStage = crossStage;
+            this.packedSignalGroupStatus = packedSignalGroupStatus;
+            this.signalGroupStatus = signalGroupStatus;
+            this.version = version;
+            this.updateTime = updateTime;
+        }
+
+        private Snapshot withCrossState(CrossState value) {
+            return new Snapshot(crossId, value, crossCycle, crossStage, packedSignalGroupStatus, signalGroupStatus,
+                    version + 1, System.currentTimeMillis());
+        }
+
+        private Snapshot withCrossCycle(CrossCycle value) {
+            return new Snapshot(crossId, crossState, value, crossStage, packedSignalGroupStatus, signalGroupStatus,
+                    version + 1, System.currentTimeMillis());
+        }
+
+        private Snapshot withCrossStage(CrossStage value) {
+            return new Snapshot(crossId, crossState, crossCycle, value, packedSignalGroupStatus, signalGroupStatus,
+                    version + 1, System.currentTimeMillis());
+        }
+
+        private Snapshot withSignalGroupStatus(PackedCrossSignalGroupStatus packed, CrossSignalGroupStatus value) {
+            return new Snapshot(crossId, crossState, crossCycle, crossStage, packed, value,
+                    version + 1, System.currentTimeMillis());
+        }
+
+        public String getCrossId() { return crossId; }
+
+        public CrossState getCrossState() { return crossState; }
+
+        public CrossCycle getCrossCycle() { return crossCycle; }
+
+        public CrossStage getCrossStage() { return crossStage; }
+
+        /**
+         * 信号组灯态协议对象，由打包数据生成，每次调用返回新的对象
+         */
+        public CrossSignalGroupStatus getSignalGroupStatus() {
+            return packedSignalGroupStatus != null
+                    ? packedSignalGroupStatus.toCrossSignalGroupStatus()
+                    : signalGroupStatus;
+        }
+
+        /**
+         * 打包的信号组灯态，灯态无法打包或尚未推送时返回null
+         */
+        public PackedCrossSignalGroupStatus getPackedSignalGroupStatus() { return packedSignalGroupStatus; }
+
+        /** 快照版本，每次更新加1 */
+        public long getVersion() { return version; }
+
+        /** 最后更新时间（毫秒） */
+        public long getUpdateTime() { return updateTime; }
+    }
+
+    /**
+     * 实时状态存储统计信息
+     */
+    public static class Stats {
+        private boolean enabled;
+        private int crossCount;
+        private long updateCount;
+        private long casRetryCount;
+        private long hitCount;
+        private long missCount;
+        private long expiredCount;
+        private long evictionCount;
+
+        public boolean isEnabled() { return enabled; }
+        public void setEnabled(boolean enabled) { this.enabled = enabled; }
+
+        public int getCrossCount() { return crossCount; }
+        public void setCrossCount(int crossCount) { this.crossCount = crossCount; }
+
+        public long getUpdateCount() { return updateCount; }
+        public void setUpdateCount(long updateCount) { this.updateCount = updateCount; }
+
+        public long getCasRetryCount() { return casRetryCount; }
+        public void setCasRetryCount(long casRetryCount) { this.casRetryCount = casRetryCount; }
+
+        public long getHitCount() { return hitCount; }
+        public void setHitCount(long hitCount) { this.hitCount = hitCount; }
+
+        public long getMissCount() { return missCount; }
+        public void setMissCount(long missCount) { this.missCount = missCount; }
+
+        public long getExpiredCount() { return expiredCount; }
+        public void setExpiredCount(long expiredCount) { this.expiredCount = expiredCount; }
+
+        public long getEvictionCount() { return evictionCount; }
+        public void setEvictionCount(long evictionCount) { this.evictionCount = evictionCount; }
+
+        @Override
+        public String toString() {
+            return String.format("LiveStateStore.Stats{enabled=%s, crosses=%d, updates=%d, casRetries=%d, hits=%d, misses=%d, expired=%d, evicted=%d}",
+                    enabled, crossCount, updateCount, casRetryCount, hitCount, missCount, expiredCount, evictionCount);
+        }
+    }
+}
@@ -0,0 +1,539 @@
+package com.traffic.gat1049.application.statistics;
+
+import com.traffic.gat1049.data.timeseries.AggregateResolution;
+import com.traffic.gat1049.model.vo.LaneStatisticsVo;
+import com.traffic.gat1049.model.vo.TrafficStatisticsVo;
+import com.traffic.gat1049.protocol.model.traffic.CrossTrafficData;
+import com.traffic.gat1049.protocol.model.traffic.LaneTrafficData;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 交通流滚动统计
+ * 推送的路口交通流数据到达时即累加到所在统计窗口，查询直接读取窗口累计值，不再遍历原始数据：
+ *
+ * 1. 按统计截止时间划分固定窗口（滚动窗口，默认5分钟），每个路口每个车道保留最近若干个窗口的环形数组
+ * 2. 每个窗口累计流量、样本数、速度/占有率/饱和度之和、最大排队长度和速度直方图（用于85%位车速）
+ * 3. 滑动窗口由最近若干个固定窗口合并得到，合并开销只与窗口数、车道数有关
+ * 4. 窗口只包含启动（或清空）后收到的推送，查询区间早于此时或超出保留范围时返回null，由调用方改用原始数据
+ *
+ * 早于保留范围的迟到数据直接丢弃；截止时间超前本机时间过多的数据视为时钟错误丢弃，避免把窗口整体推向未来。
+ */
+@Component
+public class RollingTrafficStatistics {
+
+    private static final Logger logger = LoggerFactory.getLogger(RollingTrafficStatistics.class);
+
+    // 速度直方图：每格2km/h，共64格，超过128km/h计入最后一格
+    private static final double SPEED_BIN_WIDTH = 2.0;
+    private static final int SPEED_BINS = 64;
+    private static final double PERCENTILE_85 = 0.85;
+
+    @Value("${gat1049.rolling-stats.enabled:true}")
+    private boolean enabled = true;
+
+    @Value("${gat1049.rolling-stats.window:FIVE_MINUTES}")
+    private AggregateResolution window = AggregateResolution.FIVE_MINUTES;
+
+    @Value("${gat1049.rolling-stats.sliding-windows:12}")
+    private int slidingWindows = 12;
+
+    @Value("${gat1049.rolling-stats.retained-windows:24}")
+    private int retainedWindows = 24;
+
+    @Value("${gat1049.rolling-stats.max-future-seconds:300}")
+    private long maxFutureSeconds = 300;
+
+    private final Map<String, CrossWindows> crosses = new ConcurrentHashMap<>();
+
+    // 开始累计的时间，所在窗口不完整，之后的窗口才包含全部推送
+    private volatile LocalDateTime coveredSince = LocalDateTime.now();
+
+    // 统计数据
+    private final LongAdder recordedSamples = new LongAdder();
+    private final LongAdder lateDrops = new LongAdder();
+    private final LongAdder futureDrops = new LongAdder();
+    private final LongAdder queryCount = new LongAdder();
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public AggregateResolution getWindow() {
+        return window;
+    }
+
+    /**
+     * 累加一次路口交通流推送
+     */
+    public void record(CrossTrafficData trafficData) {
+        if (!enabled || trafficData == null || trafficData.getCrossId() == null
+                || trafficData.getDataList() == null || trafficData.getDataList().isEmpty()) {
+            return;
+        }
+
+        LocalDateTime endTime;
+        try {
+            endTime = trafficData.getEndTimeAsLocalDateTime();
+        } catch (DateTimeParseException e) {
+            return;
+        }
+        if (endTime == null) {
+            return;
+        }
+        if (endTime.isAfter(LocalDateTime.now().plusSeconds(maxFutureSeconds))) {
+            futureDrops.add(trafficData.getDataList().size());
+            logger.debug("交通流统计截止时间超前本机时间，不计入滚动统计: crossId={}, endTime={}",
+                    trafficData.getCrossId(), trafficData.getEndTime());
+            return;
+        }
+
+        long index = windowIndex(endTime);
+        CrossWindows cross = crosses.computeIfAbsent(trafficData.getCrossId(), k -> new CrossWindows());
+        synchronized (cross) {
+            if (index <= cross.latestIndex - ringSize()) {
+                lateDrops.add(trafficData.getDataList().size());
+                return;
+            }
+            for (LaneTrafficData lane : trafficData.getDataList()) {
+                if (lane == null || lane.getLaneNo() == null) {
+                    continue;
+                }
+                Bucket[] ring = cross.lanes.computeIfAbsent(lane.getLaneNo(), k -> new Bucket[ringSize()]);
+                bucketFor(ring, index).add(lane);
+                recordedSamples.increment();
+            }
+            cross.latestIndex = Math.max(cross.latestIndex, index);
+        }
+    }
+
+    /**
+     * 按固定窗口返回 [startTime, endTime] 内的统计，每个有数据的窗口一条，按时间升序
+     *
+     * @param startTime 起始时间，必填
+     * @param laneNos   车道序号，为空时统计全部车道
+     * @return 统计结果；起始时间为空、早于启动后的首个完整窗口或早于保留范围时返回null，由调用方改用原始数据计算
+     */
+    public List<TrafficStatisticsVo> getWindowStatistics(String crossId, LocalDateTime startTime,
+                                                         LocalDateTime endTime, Collection<Integer> laneNos) {
+        if (!enabled || crossId == null || startTime == null) {
+            return null;
+        }
+        queryCount.increment();
+
+        long fromIndex = windowIndex(startTime);
+        if (fromIndex <= windowIndex(coveredSince)) {
+            return null;
+        }
+
+        CrossWindows cross = crosses.get(crossId);
+        if (cross == null) {
+            // 启动后未收到该路口的推送
+            return new ArrayList<>();
+        }
+
+        List<TrafficStatisticsVo> result = new ArrayList<>();
+        synchronized (cross) {
+            long oldestIndex = cross.latestIndex - ringSize() + 1;
+            long toIndex = endTime != null ? windowIndex(endTime) : cross.latestIndex;
+            if (fromIndex < oldestIndex) {
+                return null;
+            }
+            for (long index = fromIndex; index <= Math.min(toIndex, cross.latestIndex); index++) {
+                TrafficStatisticsVo vo = summarize(crossId, cross, index, index, laneNos);
+                if (vo != null) {
+                    result.add(vo);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 按与滚动统计相同的固定窗口汇总原始数据，用于滚动统计未覆盖的查询区间，不计入滚动统计
+     *
+     * @param dataList 路口的交通流数据，调用方已按时间范围过滤
+     * @param laneNos  车道序号，为空时统计全部车道
+     * @return 每个有数据的窗口一条，按时间升序
+     */
+    public List<TrafficStatisticsVo> computeWindowStatistics(String crossId, Collection<CrossTrafficData> dataList,
+                                                             Collection<Integer> laneNos) {
+        // 窗口序号 -> 车道序号 -> 累计值
+        TreeMap<Long, Map<Integer, Bucket>> windows = new TreeMap<>();
+        for (CrossTrafficData data : dataList) {
+            if (data == null || data.getDataList() == null) {
+                continue;
+            }
+            LocalDateTime endTime;
+            try {
+                endTime = data.getEndTimeAsLocalDateTime();
+            } catch (DateTimeParseException e) {
+                continue;
+            }
+            if (endTime == null) {
+                continue;
+            }
+            long index = windowIndex(endTime);
+            Map<Integer, Bucket> lanes = windows.computeIfAbsent(index, k -> new TreeMap<>());
+            for (LaneTrafficData lane : data.getDataList()) {
+                if (lane == null || lane.getLaneNo() == null || !selected(laneNos, lane.getLaneNo())) {
+                    continue;
+                }
+                lanes.computeIfAbsent(lane.getLaneNo(), k -> new Bucket()).add(lane);
+            }
+        }
+
+        List<TrafficStatisticsVo> result = new ArrayList<>();
+        for (Map.Entry<Long, Map<Integer, Bucket>> entry : windows.entrySet()) {
+            TrafficStatisticsVo vo = toStatistics(crossId, windowEnd(entry.getKey()), entry.getValue());
+            if (vo != null) {
+                result.add(vo);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 路口最近的滑动窗口统计，由截至最新数据的若干个固定窗口合并
+     *
+     * @return 统计结果，无数据时返回null
+     */
+    public TrafficStatisticsVo getSlidingStatistics(String crossId) {
+        if (!enabled || crossId == null) {
+            return null;
+        }
+        queryCount.increment();
+
+        CrossWindows cross = crosses.get(crossId);
+        if (cross == null) {
+            return null;
+        }
+        synchronized (cross) {
+            int windows = Math.min(slidingWindows, ringSize());
+            return summarize(crossId, cross, cross.latestIndex - windows + 1, cross.latestIndex, null);
+        }
+    }
+
+    public void remove(String crossId) {
+        if (crossId != null) {
+            crosses.remove(crossId);
+        }
+    }
+
+    public void clear() {
+        crosses.clear();
+        coveredSince = LocalDateTime.now();
+        logger.info("交通流滚动统计已清空");
+    }
+
+    /**
+     * 获取统计信息快照
+     */
+    public Stats getStats() {
+        Stats stats = new Stats();
+        stats.setEnabled(enabled);
+        stats.setWindowSeconds(window.getSeconds());
+        stats.setSlidingWindows(slidingWindows);
+        stats.setCrossCount(crosses.size());
+        stats.setRecordedSamples(recordedSamples.sum());
+        stats.setLateDrops(lateDrops.sum());
+        stats.setFutureDrops(futureDrops.sum());
+        stats.setQueryCount(queryCount.sum());
+        return stats;
+    }
+
+    /**
+     * 合并 [fromIndex, toIndex] 内的窗口，调用方持有路口锁
+     *
+     * @return 统计结果，区间内无数据时返回null
+     */
+    private TrafficStatisticsVo summarize(String crossId, CrossWindows cross, long fromIndex, long toIndex,
+                                          Collection<Integer> laneNos) {
+        Map<Integer, Bucket> lanes = new TreeMap<>();
+        for (Map.Entry<Integer, Bucket[]> entry : cross.lanes.entrySet()) {
+            if (!selected(laneNos, entry.getKey())) {
+                continue;
+            }
+            Bucket lane = new Bucket();
+            for (long index = fromIndex; index <= toIndex; index++) {
+                Bucket bucket = entry.getValue()[slot(index)];
+                if (bucket != null && bucket.index == index) {
+                    lane.merge(bucket);
+                }
+            }
+            lanes.put(entry.getKey(), lane);
+        }
+        return toStatistics(crossId, windowEnd(toIndex), lanes);
+    }
+
+    /**
+     * 由各车道的累计值生成统计结果
+     *
+     * @return 统计结果，无数据时返回null
+     */
+    private static TrafficStatisticsVo toStatistics(String crossId, LocalDateTime statisticsTime,
+                                                    Map<Integer, Bucket> lanes) {
+        Bucket total = new Bucket();
+        List<LaneStatisticsVo> laneStatistics = new ArrayList<>();
+        for (Map.Entry<Integer, Bucket> entry : lanes.entrySet()) {
+            Bucket lane = entry.getValue();
+            if (lane.samples > 0) {
+                laneStatistics.add(lane.toLaneStatistics(entry.getKey()));
+                total.merge(lane);
+            }
+        }
+        if (total.samples == 0) {
+            return null;
+        }
+
+        TrafficStatisticsVo vo = new TrafficStatisticsVo();
+        vo.setCrossId(crossId);
+        vo.setStatisticsTime(statisticsTime);
+        vo.setTotalVolume((int) total.volume);
+        vo.setAvgSpeed(total.speed.value());
+        vo.setAvgOccupancy(total.occupancy.value());
+        vo.setAvgSaturation(total.saturation.value());
+        vo.setP85Speed(total.percentileSpeed(PERCENTILE_85));
+        vo.setMaxQueueLength(Double.isNaN(total.maxQueueLength) ? null : total.maxQueueLength);
+        vo.setLaneStatistics(laneStatistics);
+        return vo;
+    }
+
+    private static boolean selected(Collection<Integer> laneNos, Integer laneNo) {
+        return laneNos == null || laneNos.isEmpty() || laneNos.contains(laneNo);
+    }
+
+    private Bucket bucketFor(Bucket[] ring, long index) {
+        int slot = slot(index);
+        Bucket bucket = ring[slot];
+        if (bucket == null) {
+            bucket = new Bucket();
+            ring[slot] = bucket;
+        }
+        if (bucket.index != index) {
+            // 环形数组复用已过期的窗口
+            bucket.reset(index);
+        }
+        return bucket;
+    }
+
+    private int ringSize() {
+        return Math.max(retainedWindows, slidingWindows);
+    }
+
+    private int slot(long index) {
+        return (int) Math.floorMod(index, (long) ringSize());
+    }
+
+    private long windowIndex(LocalDateTime time) {
+        return Math.floorDiv(time.toEpochSecond(ZoneOffset.UTC), window.getSeconds());
+    }
+
+    private LocalDateTime windowEnd(long index) {
+        return LocalDateTime.ofEpochSecond((index + 1) * window.getSeconds(), 0, ZoneOffset.UTC);
+    }
+
+    /**
+     * 单个路口的窗口数据，读写均在路口对象上同步
+     */
+    private static final class CrossWindows {
+        // 车道序号 -> 环形窗口数组
+        private final Map<Integer, Bucket[]> lanes = new TreeMap<>();
+        private long latestIndex = Long.MIN_VALUE / 2;
+    }
+
+    /**
+     * 一个窗口的累计值，也用于合并多个窗口
+     */
+    private static final class Bucket {
+        private long index = Long.MIN_VALUE;
+        private int samples;
+        private long volume;
+        private final Mean speed = new Mean();
+        private final Mean occupancy = new Mean();
+        private final Mean saturation = new Mean();
+        private double maxQueueLength = Double.NaN;
+        private int[] speedHistogram;
+
+        void reset(long newIndex) {
+            index = newIndex;
+            samples = 0;
+            volume = 0;
+            speed.reset();
+            occupancy.reset();
+            saturation.reset();
+            maxQueueLength = Double.NaN;
+            speedHistogram = null;
+        }
+
+        void add(LaneTrafficData lane) {
+            samples++;
+            if (lane.getVolume() != null) {
+                volume += lane.getVolume();
+            }
+            if (lane.getSpeed() != null) {
+                double value = lane.getSpeed().doubleValue();
+                speed.add(value);
+                if (speedHistogram == null) {
+                    speedHistogram = new int[SPEED_BINS];
+                }
+                speedHistogram[speedBin(value)]++;
+            }
+            if (lane.getOccupancy() != null) {
+                occupancy.add(lane.getOccupancy());
+            }
+            if (lane.getSaturation() != null) {
+                saturation.add(lane.getSaturation().doubleValue());
+            }
+            BigDecimal queue = lane.getMaxQueueLength() != null ? lane.getMaxQueueLength() : lane.getQueueLength();
+            if (queue != null) {
+                updateMaxQueue(queue.doubleValue());
+            }
+        }
+
+        void merge(Bucket other) {
+            samples += other.samples;
+            volume += other.volume;
+            speed.merge(other.speed);
+            occupancy.merge(other.occupancy);
+            saturation.merge(other.saturation);
+            if (!Double.isNaN(other.maxQueueLength)) {
+                updateMaxQueue(other.maxQueueLength);
+            }
+            if (other.speedHistogram != null) {
+                if (speedHistogram == null) {
+                    speedHistogram = new int[SPEED_BINS];
+                }
+                for (int i = 0; i < SPEED_BINS; i++) {
+                    speedHistogram[i] += other.speedHistogram[i];
+                }
+            }
+        }
+
+        /**
+         * 由直方图估算速度百分位数，格内线性插值
+         */
+        Double percentileSpeed(double percentile) {
+            if (speedHistogram == null || speed.count == 0) {
+                return null;
+            }
+            double rank = percentile * speed.count;
+            int cumulative = 0;
+            for (int i = 0; i < SPEED_BINS; i++) {
+                int count = speedHistogram[i];
+                if (count > 0 && cumulative + count >= rank) {
+                    return (i + (rank - cumulative) / count) * SPEED_BIN_WIDTH;
+                }
+                cumulative += count;
+            }
+            return SPEED_BINS * SPEED_BIN_WIDTH;
+        }
+
+        LaneStatisticsVo toLaneStatistics(Integer laneNo) {
+            LaneStatisticsVo vo = new LaneStatisticsVo();
+            vo.setLaneNo(laneNo);
+            vo.setVolume((int) volume);
+            vo.setSpeed(speed.value());
+            vo.setOccupancy(occupancy.value());
+            vo.setSaturation(saturation.value());
+            vo.setP85Speed(percentileSpeed(PERCENTILE_85));
+            vo.setQueueLength(Double.isNaN(maxQueueLength) ? null : maxQueueLength);
+            return vo;
+        }
+
+        private void updateMaxQueue(double value) {
+            if (Double.isNaN(maxQueueLength) || value > maxQueueLength) {
+                maxQueueLength = value;
+            }
+        }
+
+        private static int speedBin(double value) {
+            if (value <= 0) {
+                return 0;
+            }
+            return (int) Math.min(SPEED_BINS - 1, value / SPEED_BIN_WIDTH);
+        }
+    }
+
+    private static final class Mean {
+        private double sum;
+        private int count;
+
+        void add(double value) {
+            sum += value;
+            count++;
+        }
+
+        void merge(Mean other) {
+            sum += other.sum;
+            count += other.count;
+        }
+
+        void reset() {
+            sum = 0;
+            count = 0;
+        }
+
+        Double value() {
+            return count > 0 ? sum / count : null;
+        }
+    }
+
+    /**
+     * 滚动统计信息
+     */
+    public static class Stats {
+        private boolean enabled;
+        private int windowSeconds;
+        private int slidingWindows;
+        private int crossCount;
+        private long recordedSamples;
+        private long lateDrops;
+        private long futureDrops;
+        private long queryCount;
+
+        public boolean isEnabled() { return enabled; }
+        public void setEnabled(boolean enabled) { this.enabled = enabled; }
+
+        public int getWindowSeconds() { return windowSeconds; }
+        public void setWindowSeconds(int windowSeconds) { this.windowSeconds = windowSeconds; }
+
+        public int getSlidingWindows() { return slidingWindows; }
+        public void setSlidingWindows(int slidingWindows) { this.slidingWindows = slidingWindows; }
+
+        public int getCrossCount() { return crossCount; }
+        public void setCrossCount(int crossCount) { this.crossCount = crossCount; }
+
+        public long getRecordedSamples() { return recordedSamples; }
+        public void setRecordedSamples(long recordedSamples) { this.recordedSamples = recordedSamples; }
+
+        public long getLateDrops() { return lateDrops; }
+        public void setLateDrops(long lateDrops) { this.lateDrops = lateDrops; }
+
+        public long getFutureDrops() { return futureDrops; }
+        public void setFutureDrops(long futureDrops) { this.futureDrops = futureDrops; }
+
+        public long getQueryCount() { return queryCount; }
+        public void setQueryCount(long queryCount) { this.queryCount = queryCount; }
+
+        @Override
+        public String toString() {
+            return String.format("RollingTrafficStatistics.Stats{enabled=%s, windowSeconds=%d, slidingWindows=%d, crosses=%d, samples=%d, lateDrops=%d, futureDrops=%d, queries=%d}",
+                    enabled, windowSeconds, slidingWindows, crossCount, recordedSamples, lateDrops, futureDrops, queryCount);
+        }
+    }
+}
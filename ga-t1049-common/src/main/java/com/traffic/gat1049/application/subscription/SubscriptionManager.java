@@ -1,17 +1,26 @@
 package com.traffic.gat1049.application.subscription;
 
+import com.traffic.gat1049.protocol.model.command.TSCCmd;
 import com.traffic.gat1049.protocol.model.sdo.SdoMsgEntity;
 import com.traffic.gat1049.protocol.model.core.Message;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.xml.bind.annotation.XmlRootElement;
+import java.util.Collections;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
  * 订阅管理器
  * 负责管理客户端的消息订阅
+ *
+ * 除按令牌保存的订阅列表外，维护 (msgType, operName, objName) -> 令牌集合 的倒排索引，
+ * 通配符"*"作为独立取值建桶，推送时只需查找最多8个桶，与订阅总数无关。
+ * 索引在订阅/取消订阅时增量维护。
  */
 public class SubscriptionManager {
 
@@ -20,15 +29,40 @@ public class SubscriptionManager {
     // 订阅存储：token -> 订阅列表
     private final ConcurrentHashMap<String, List<SdoMsgEntity>> subscriptions = new ConcurrentHashMap<>();
 
+    // 倒排索引：订阅键 -> 令牌集合
+    private final ConcurrentHashMap<IndexKey, Set<String>> subscriberIndex = new ConcurrentHashMap<>();
+
+    // 数据对象类型 -> 对象名称
+    private static final ConcurrentHashMap<Class<?>, String> OBJECT_NAME_CACHE = new ConcurrentHashMap<>();
+
+    private static final String WILDCARD = "*";
+
     // 消息推送回调接口
     private MessagePushCallback pushCallback;
 
+    // 批量推送回调，设置后同一消息的所有订阅者一次交给回调，便于只编码一次
+    private FanoutPushCallback fanoutCallback;
+
+    // 新增订阅时通知的监听器，在订阅锁之外调用
+    private final List<Runnable> subscribeListeners = new CopyOnWriteArrayList<>();
+
     public SubscriptionManager() {}
 
     public void setPushCallback(MessagePushCallback pushCallback) {
         this.pushCallback = pushCallback;
     }
 
+    public void setFanoutCallback(FanoutPushCallback fanoutCallback) {
+        this.fanoutCallback = fanoutCallback;
+    }
+
+    /**
+     * 注册新增订阅监听器，每次新增订阅后调用
+     */
+    public void addSubscribeListener(Runnable listener) {
+        subscribeListeners.add(listener);
+    }
+
     /**
      * 添加订阅
      */
@@ -37,26 +71,37 @@ public class SubscriptionManager {
             return false;
         }
 
-        List<SdoMsgEntity> userSubscriptions = subscriptions.computeIfAbsent(
-                token, k -> new CopyOnWriteArrayList<>());
+        synchronized (this) {
+            List<SdoMsgEntity> userSubscriptions = subscriptions.computeIfAbsent(
+                    token, k -> new CopyOnWriteArrayList<>());
 
-        // 检查是否已存在相同订阅
-        for (SdoMsgEntity existing : userSubscriptions) {
-            if (isMatchingSubscription(existing, subscription)) {
-                logger.debug("订阅已存在: {}", subscription);
-                return true;
+            // 检查是否已存在相同订阅
+            for (SdoMsgEntity existing : userSubscriptions) {
+                if (isMatchingSubscription(existing, subscription)) {
+                    logger.debug("订阅已存在: {}", subscription);
+                    return true;
+                }
             }
+
+            userSubscriptions.add(subscription);
+            subscriberIndex.computeIfAbsent(IndexKey.of(subscription), k -> ConcurrentHashMap.newKeySet()).add(token);
+            logger.info("添加订阅: token={}, subscription={}", token, subscription);
         }
 
-        userSubscriptions.add(subscription);
-        logger.info("添加订阅: token={}, subscription={}", token, subscription);
+        for (Runnable listener : subscribeListeners) {
+            try {
+                listener.run();
+            } catch (Exception e) {
+                logger.error("订阅监听器执行失败", e);
+            }
+        }
         return true;
     }
 
     /**
      * 取消订阅
      */
-    public boolean unsubscribe(String token, SdoMsgEntity subscription) {
+    public synchronized boolean unsubscribe(String token, SdoMsgEntity subscription) {
         if (token == null || subscription == null) {
             return false;
         }
@@ -70,6 +115,7 @@ public class SubscriptionManager {
                 isMatchingSubscription(existing, subscription));
 
         if (removed) {
+            removeFromIndex(token, subscription);
             logger.info("取消订阅: token={}, subscription={}", token, subscription);
         }
 
@@ -78,41 +124,79 @@ public class SubscriptionManager {
 
     /**
      * 推送消息给订阅者
+     *
+     * @return 推送的订阅者数量
      */
-    public void pushMessage(Message message) {
-        if (message == null || pushCallback == null) {
-            return;
+    public int pushMessage(Message message) {
+        if (message == null || (pushCallback == null && fanoutCallback == null)) {
+            return 0;
         }
 
-        String msgType = message.getType();
-        String operName = getOperationName(message);
-        String objName = getObjectName(message);
+        Set<String> tokens = findSubscribers(message);
+        if (tokens.isEmpty()) {
+            return 0;
+        }
 
-        for (String token : subscriptions.keySet()) {
-            List<SdoMsgEntity> userSubscriptions = subscriptions.get(token);
-            if (userSubscriptions == null) {
-                continue;
+        if (fanoutCallback != null) {
+            try {
+                fanoutCallback.pushMessage(tokens, message);
+                logger.debug("批量推送消息给订阅者: count={}, message={}", tokens.size(), message.getSeq());
+            } catch (Exception e) {
+                logger.error("批量推送消息失败: count=" + tokens.size(), e);
             }
+            return tokens.size();
+        }
 
-            for (SdoMsgEntity subscription : userSubscriptions) {
-                if (isMatchingMessage(subscription, msgType, operName, objName)) {
-                    try {
-                        pushCallback.pushMessage(token, message);
-                        logger.debug("推送消息给订阅者: token={}, message={}", token, message.getSeq());
-                    } catch (Exception e) {
-                        logger.error("推送消息失败: token=" + token, e);
+        for (String token : tokens) {
+            try {
+                pushCallback.pushMessage(token, message);
+                logger.debug("推送消息给订阅者: token={}, message={}", token, message.getSeq());
+            } catch (Exception e) {
+                logger.error("推送消息失败: token=" + token, e);
+            }
+        }
+        return tokens.size();
+    }
+
+    /**
+     * 查找订阅了指定消息的令牌，每个令牌只出现一次
+     */
+    public Set<String> findSubscribers(Message message) {
+        if (message == null || subscriberIndex.isEmpty()) {
+            return Collections.emptySet();
+        }
+
+        String msgType = normalize(message.getType());
+        String operName = getOperationName(message);
+        String objName = getObjectName(message);
+
+        Set<String> tokens = new LinkedHashSet<>();
+        for (String t : new String[]{msgType, WILDCARD}) {
+            for (String o : new String[]{operName, WILDCARD}) {
+                for (String n : new String[]{objName, WILDCARD}) {
+                    Set<String> bucket = subscriberIndex.get(new IndexKey(t, o, n));
+                    if (bucket != null) {
+                        tokens.addAll(bucket);
                     }
-                    break; // 找到匹配的订阅后跳出循环
                 }
             }
         }
+        return tokens;
     }
 
     /**
      * 清理用户订阅
      */
-    public void clearSubscriptions(String token) {
+    public synchronized void clearSubscriptions(String token) {
+        if (token == null) {
+            return;
+        }
         List<SdoMsgEntity> removed = subscriptions.remove(token);
+        if (removed != null) {
+            for (SdoMsgEntity subscription : removed) {
+                removeFromIndex(token, subscription);
+            }
+        }
         if (removed != null && !removed.isEmpty()) {
             logger.info("清理用户订阅: token={}, count={}", token, removed.size());
         }
@@ -126,30 +210,99 @@ public class SubscriptionManager {
         return userSubscriptions != null ? new CopyOnWriteArrayList<>(userSubscriptions) : new CopyOnWriteArrayList<>();
     }
 
-    private boolean isMatchingSubscription(SdoMsgEntity existing, SdoMsgEntity subscription) {
-        return existing.getMsgType().equals(subscription.getMsgType()) &&
-                existing.getOperName().equals(subscription.getOperName()) &&
-                existing.getObjName().equals(subscription.getObjName());
+    /**
+     * 获取订阅总数
+     */
+    public int getSubscriptionCount() {
+        return subscriptions.values().stream().mapToInt(List::size).sum();
     }
 
-    private boolean isMatchingMessage(SdoMsgEntity subscription, String msgType, String operName, String objName) {
-        return (subscription.getMsgType().equals("*") || subscription.getMsgType().equals(msgType)) &&
-                (subscription.getOperName().equals("*") || subscription.getOperName().equals(operName)) &&
-                (subscription.getObjName().equals("*") || subscription.getObjName().equals(objName));
+    private void removeFromIndex(String token, SdoMsgEntity subscription) {
+        IndexKey key = IndexKey.of(subscription);
+        subscriberIndex.computeIfPresent(key, (k, tokens) -> {
+            tokens.remove(token);
+            return tokens.isEmpty() ? null : tokens;
+        });
+    }
+
+    private boolean isMatchingSubscription(SdoMsgEntity existing, SdoMsgEntity subscription) {
+        return IndexKey.of(existing).equals(IndexKey.of(subscription));
     }
 
     private String getOperationName(Message message) {
         if (message.getBody() != null && message.getBody().getOperations() != null &&
                 !message.getBody().getOperations().isEmpty()) {
-            return message.getBody().getOperations().get(0).getName();
+            return normalize(message.getBody().getOperations().get(0).getName());
         }
         return "";
     }
 
+    /**
+     * 从操作的数据对象中提取对象名称
+     * TSCCmd 取其查询的对象名称，其他数据对象取 XmlRootElement 名称（即报文中的对象名）
+     */
     private String getObjectName(Message message) {
-        // 这里需要从操作的数据对象中提取对象名称
-        // 简化处理，返回空字符串
-        return "";
+        if (message.getBody() == null || message.getBody().getOperations() == null ||
+                message.getBody().getOperations().isEmpty()) {
+            return "";
+        }
+        Object data = message.getBody().getOperations().get(0).getData();
+        if (data == null) {
+            return "";
+        }
+        if (data instanceof TSCCmd) {
+            return normalize(((TSCCmd) data).getObjName());
+        }
+        return OBJECT_NAME_CACHE.computeIfAbsent(data.getClass(), SubscriptionManager::resolveObjectName);
+    }
+
+    private static String resolveObjectName(Class<?> dataClass) {
+        XmlRootElement root = dataClass.getAnnotation(XmlRootElement.class);
+        if (root != null && !"##default".equals(root.name())) {
+            return root.name();
+        }
+        return dataClass.getSimpleName();
+    }
+
+    private static String normalize(String value) {
+        return value != null ? value : "";
+    }
+
+    /**
+     * 倒排索引键
+     */
+    private static final class IndexKey {
+        private final String msgType;
+        private final String operName;
+        private final String objName;
+
+        private IndexKey(String msgType, String operName, String objName) {
+            this.msgType = msgType;
+            this.operName = operName;
+            this.objName = objName;
+        }
+
+        private static IndexKey of(SdoMsgEntity subscription) {
+            return new IndexKey(normalize(subscription.getMsgType()),
+                    normalize(subscription.getOperName()),
+                    normalize(subscription.getObjName()));
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof IndexKey)) return false;
+            IndexKey that = (IndexKey) o;
+            return msgType.equals(that.msgType) && operName.equals(that.operName) && objName.equals(that.objName);
+        }
+
+        @Override
+        public int hashCode() {
+            int result = msgType.hashCode();
+            result = 31 * result + operName.hashCode();
+            result = 31 * result + objName.hashCode();
+            return result;
+        }
     }
 
     /**
@@ -158,4 +311,12 @@ public class SubscriptionManager {
     public interface MessagePushCallback {
         void pushMessage(String token, Message message);
     }
+
+    /**
+     * 批量推送回调接口
+     * 同一消息的全部订阅者令牌一次传入，实现方可只编码一次后分发
+     */
+    public interface FanoutPushCallback {
+        void pushMessage(Set<String> tokens, Message message);
+    }
 }
@@ -12,7 +12,11 @@ import org.springframework.beans.factory.annotation.Autowired;
 
 import java.lang.reflect.ParameterizedType;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Objects;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
@@ -21,6 +25,11 @@ import java.util.stream.Collectors;
  */
 public abstract class AbstractEntityConverter<E, P> implements EntityConverter<E, P> {
 
+    /**
+     * 批量预取关联数据时单次 IN 查询的最大键数
+     */
+    protected static final int PREFETCH_BATCH_SIZE = 500;
+
     protected final Logger logger = LoggerFactory.getLogger(getClass());
 
     @Autowired
@@ -143,6 +152,35 @@ public abstract class AbstractEntityConverter<E, P> implements EntityConverter<E
         throw new UnsupportedOperationException("部分更新功能需要在具体转换器中实现");
     }
 
+    /**
+     * 按键分批执行 IN 查询并合并结果
+     * 需要关联查询的转换器在 toProtocolList 中用它一次性预取关联数据，再在内存中按键匹配，
+     * 避免每个实体单独查询一次。键去重并忽略null。
+     */
+    protected <K, R> List<R> queryInBatches(Collection<K> keys, Function<List<K>, List<R>> query) {
+        List<K> distinctKeys = keys.stream()
+                .filter(Objects::nonNull)
+                .distinct()
+                .collect(Collectors.toList());
+
+        List<R> results = new ArrayList<>();
+        for (int from = 0; from < distinctKeys.size(); from += PREFETCH_BATCH_SIZE) {
+            int to = Math.min(from + PREFETCH_BATCH_SIZE, distinctKeys.size());
+            List<R> batch = query.apply(new ArrayList<>(distinctKeys.subList(from, to)));
+            if (batch != null) {
+                results.addAll(batch);
+            }
+        }
+        return results;
+    }
+
+    /**
+     * 路口内对象的关联键：路口编号#对象编号
+     */
+    protected static String crossObjectKey(String crossId, Integer no) {
+        return crossId + "#" + no;
+    }
+
     /**
      * 验证转换结果
      */
@@ -42,10 +42,8 @@ public class CrossCycleConverter extends AbstractEntityConverter<CrossCycleEntit
             // 注意：实体中是 cycleLen，协议中是 lastCycleLen
             protocol.setLastCycleLen(entity.getCycleLen());
 
-            // 从数据库字段映射到协议字段
-            // 根据数据库表结构，可能需要从其他相关表获取 adjustFlag
-            // 这里设置默认值，实际应用中可能需要查询相关表或计算得出
-            protocol.setAdjustFlag(CrossCycle.ADJUST_FLAG_NO); // 默认不处于过渡调整
+            // 未记录过渡标志时默认不处于过渡调整
+            protocol.setAdjustFlag(entity.getAdjustFlag() != null ? entity.getAdjustFlag() : CrossCycle.ADJUST_FLAG_NO);
 
             validateConversion(entity, protocol);
 
@@ -84,6 +82,7 @@ public class CrossCycleConverter extends AbstractEntityConverter<CrossCycleEntit
 
             // 注意：协议中是 lastCycleLen，实体中是 cycleLen
             entity.setCycleLen(protocol.getLastCycleLen());
+            entity.setAdjustFlag(protocol.getAdjustFlag());
 
             // 设置其他字段的默认值
             // 根据实际业务需求设置
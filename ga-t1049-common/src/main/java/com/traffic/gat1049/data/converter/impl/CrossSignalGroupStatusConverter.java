@@ -6,6 +6,7 @@ package com.traffic.gat1049.data.converter.impl;
 import com.traffic.gat1049.data.converter.base.AbstractEntityConverter;
 import com.traffic.gat1049.exception.DataConversionException;
 import com.traffic.gat1049.protocol.model.runtime.CrossSignalGroupStatus;
+import com.traffic.gat1049.protocol.model.runtime.PackedCrossSignalGroupStatus;
 import com.traffic.gat1049.protocol.model.signal.SignalGroupStatus;
 import com.traffic.gat1049.repository.entity.CrossSignalGroupStatusEntity;
 import com.traffic.gat1049.repository.interfaces.CrossSignalGroupStatusRepository;
@@ -110,6 +111,32 @@ public class CrossSignalGroupStatusConverter extends AbstractEntityConverter<Cro
         return entities;
     }
 
+    /**
+     * 打包的信号组灯态转实体列表，不经过协议对象
+     */
+    public List<CrossSignalGroupStatusEntity> toEntityList(PackedCrossSignalGroupStatus packed) {
+        if (packed == null || packed.size() == 0) {
+            return new ArrayList<>();
+        }
+
+        LocalDateTime lampStatusTime = StringUtils.hasText(packed.getLampStatusTime())
+                ? LocalDateTime.parse(packed.getLampStatusTime(), DATETIME_FORMATTER)
+                : null;
+        LocalDateTime now = LocalDateTime.now();
+
+        List<CrossSignalGroupStatusEntity> entities = new ArrayList<>(packed.size());
+        for (int i = 0; i < packed.size(); i++) {
+            CrossSignalGroupStatusEntity entity = new CrossSignalGroupStatusEntity();
+            entity.setCrossId(packed.getCrossId());
+            entity.setSignalGroupNo(packed.getSignalGroupNo(i));
+            entity.setLampStatus(packed.getLampStatus(i));
+            entity.setLampStatusTime(lampStatusTime);
+            entity.setCreatedTime(now);
+            entities.add(entity);
+        }
+        return entities;
+    }
+
     @Override
     public void updateEntity(CrossSignalGroupStatus protocol, CrossSignalGroupStatusEntity entity) {
         if (protocol == null || entity == null) {
@@ -37,13 +37,9 @@ public class CrossStageConverter extends AbstractEntityConverter<CrossStageEntit
             // 根据数据库字段映射到协议字段
             // 注意：数据库结构与协议结构的字段对应关系
 
-            // 从实体的字段映射（需要根据实际数据库表结构调整）
-            // 假设数据库表结构包含这些字段，如果没有则需要从其他相关查询获取
-
-            // 上个阶段信息 - 可能需要从历史记录或其他表获取
-            // 这里先设置为null，实际应用中可能需要额外查询
-            protocol.setLastStageNo(null);
-            protocol.setLastStageLen(null);
+            // 上个阶段信息
+            protocol.setLastStageNo(entity.getLastStageNo());
+            protocol.setLastStageLen(entity.getLastStageLen());
 
             // 当前阶段信息
             protocol.setCurStageNo(entity.getStageNo());
@@ -79,6 +75,10 @@ public class CrossStageConverter extends AbstractEntityConverter<CrossStageEntit
             // 基础字段映射
             entity.setCrossId(protocol.getCrossId());
 
+            // 上个阶段
+            entity.setLastStageNo(protocol.getLastStageNo());
+            entity.setLastStageLen(protocol.getLastStageLen());
+
             // 当前阶段号
             entity.setStageNo(protocol.getCurStageNo());
 
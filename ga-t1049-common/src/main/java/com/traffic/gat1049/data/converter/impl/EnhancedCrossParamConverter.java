@@ -9,6 +9,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
 
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -30,6 +31,39 @@ public class EnhancedCrossParamConverter extends AbstractEntityConverter<CrossPa
             return null;
         }
 
+        // 查询完整视图信息（如果视图仓库可用）
+        Map<String, Object> completeInfo = viewRepository != null
+                ? viewRepository.findCrossCompleteInfo(entity.getCrossId())
+                : null;
+        return toProtocol(entity, completeInfo);
+    }
+
+    /**
+     * 批量转换
+     * 一次 IN 查询预取所有路口的视图数据，避免逐个路口查询 v_cross_param_complete
+     */
+    @Override
+    public List<CrossParam> toProtocolList(List<CrossParamEntity> entities) {
+        if (entities == null || entities.isEmpty()) {
+            return List.of();
+        }
+
+        Map<String, Map<String, Object>> completeInfoMap = new HashMap<>();
+        if (viewRepository != null) {
+            List<Map<String, Object>> rows = queryInBatches(
+                    entities.stream().map(CrossParamEntity::getCrossId).collect(Collectors.toList()),
+                    viewRepository::findCrossCompleteInfoByIds);
+            for (Map<String, Object> row : rows) {
+                completeInfoMap.putIfAbsent((String) row.get("cross_id"), row);
+            }
+        }
+
+        return entities.stream()
+                .map(entity -> entity != null ? toProtocol(entity, completeInfoMap.get(entity.getCrossId())) : null)
+                .collect(Collectors.toList());
+    }
+
+    private CrossParam toProtocol(CrossParamEntity entity, Map<String, Object> completeInfo) {
         try {
             CrossParam protocol = new CrossParam();
 
@@ -40,13 +74,9 @@ public class EnhancedCrossParamConverter extends AbstractEntityConverter<CrossPa
             protocol.setLatitude(entity.getLatitude());
             //protocol.setDescription(entity.getDescription());
 
-            // 查询完整视图信息（如果视图仓库可用）
-            if (viewRepository != null) {
-                Map<String, Object> completeInfo = viewRepository.findCrossCompleteInfo(entity.getCrossId());
-                if (completeInfo != null) {
-                    // 从视图获取关联的ID列表
-                    populateIdListsFromView(protocol, completeInfo);
-                }
+            if (completeInfo != null) {
+                // 从视图获取关联的ID列表
+                populateIdListsFromView(protocol, completeInfo);
             }
 
             validateConversion(entity, protocol);
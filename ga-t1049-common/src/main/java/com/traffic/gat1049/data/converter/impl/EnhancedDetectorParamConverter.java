@@ -10,8 +10,12 @@ import com.traffic.gat1049.model.enums.DetectorPosition;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
 
 /**
  * 增强的检测器参数转换器
@@ -29,6 +33,13 @@ public class EnhancedDetectorParamConverter extends AbstractEntityConverter<Dete
             return null;
         }
 
+        RelatedData relatedData = detectorParamRepository != null
+                ? loadRelatedData(List.of(entity.getCrossId()))
+                : null;
+        return toProtocol(entity, relatedData);
+    }
+
+    private DetectorParam toProtocol(DetectorParamEntity entity, RelatedData relatedData) {
         try {
             DetectorParam protocol = new DetectorParam();
 
@@ -49,9 +60,9 @@ public class EnhancedDetectorParamConverter extends AbstractEntityConverter<Dete
             protocol.setTarget(entity.getTarget());
             protocol.setDistance(entity.getDistance());
 
-            // 查询关联的车道和人行横道信息
+            // 关联的车道和人行横道信息
             if (detectorParamRepository != null) {
-                populateRelatedData(protocol, entity);
+                populateRelatedData(protocol, entity, relatedData);
             }
 
             validateConversion(entity, protocol);
@@ -117,29 +128,78 @@ public class EnhancedDetectorParamConverter extends AbstractEntityConverter<Dete
     }
 
     /**
-     * 填充关联数据（车道和人行横道信息）
+     * 批量转换
+     * 一次 IN 查询预取所有涉及路口的车道、人行横道关联，避免每个检测器单独查询关联表
      */
-    private void populateRelatedData(DetectorParam protocol, DetectorParamEntity entity) {
-        try {
-            // 查询关联的车道信息
-            List<DetectorParamEntity> laneDetectors = detectorParamRepository.findByLane(
-                    entity.getCrossId(), null); // 需要实现具体的查询逻辑
+    @Override
+    public List<DetectorParam> toProtocolList(List<DetectorParamEntity> entities) {
+        if (entities == null || entities.isEmpty()) {
+            return List.of();
+        }
 
-            // 查询关联的人行横道信息
-            List<DetectorParamEntity> pedestrianDetectors = detectorParamRepository.findByPedestrian(
-                    entity.getCrossId(), null); // 需要实现具体的查询逻辑
+        RelatedData relatedData = detectorParamRepository != null
+                ? loadRelatedData(entities.stream()
+                        .filter(Objects::nonNull)
+                        .map(DetectorParamEntity::getCrossId)
+                        .collect(Collectors.toList()))
+                : null;
 
-            // 这里需要根据实际的关联表结构来实现
-            // 暂时使用空列表
-            protocol.setLaneNoList(List.of());
-            protocol.setPedestrianNoList(List.of());
+        return entities.stream()
+                .map(entity -> entity != null ? toProtocol(entity, relatedData) : null)
+                .collect(Collectors.toList());
+    }
 
+    /**
+     * 查询路口的车道和人行横道关联，查询失败时返回null
+     */
+    private RelatedData loadRelatedData(List<String> crossIds) {
+        try {
+            RelatedData relatedData = new RelatedData();
+            groupAssociations(queryInBatches(crossIds, detectorParamRepository::findLaneAssociationsByCrossIds),
+                    "lane_no", relatedData.laneNos);
+            groupAssociations(queryInBatches(crossIds, detectorParamRepository::findPedestrianAssociationsByCrossIds),
+                    "pedestrian_no", relatedData.pedestrianNos);
+            return relatedData;
         } catch (Exception e) {
-            logger.warn("查询检测器关联数据失败: crossId={}, detectorNo={}",
-                    entity.getCrossId(), entity.getDetectorNo(), e);
+            logger.warn("查询检测器关联数据失败: crossIds={}", crossIds, e);
+            return null;
+        }
+    }
+
+    private void groupAssociations(List<Map<String, Object>> rows, String noColumn,
+                                   Map<String, List<Integer>> target) {
+        for (Map<String, Object> row : rows) {
+            Object detectorNo = row.get("detector_no");
+            Object no = row.get(noColumn);
+            if (detectorNo instanceof Number && no instanceof Number) {
+                target.computeIfAbsent(
+                        crossObjectKey((String) row.get("cross_id"), ((Number) detectorNo).intValue()),
+                        k -> new ArrayList<>()).add(((Number) no).intValue());
+            }
+        }
+    }
+
+    /**
+     * 填充关联数据（车道和人行横道信息）
+     */
+    private void populateRelatedData(DetectorParam protocol, DetectorParamEntity entity, RelatedData relatedData) {
+        if (relatedData == null) {
             // 设置空列表作为默认值
             protocol.setLaneNoList(List.of());
             protocol.setPedestrianNoList(List.of());
+            return;
         }
+
+        String key = crossObjectKey(entity.getCrossId(), entity.getDetectorNo());
+        protocol.setLaneNoList(relatedData.laneNos.getOrDefault(key, List.of()));
+        protocol.setPedestrianNoList(relatedData.pedestrianNos.getOrDefault(key, List.of()));
+    }
+
+    /**
+     * 按 路口编号#检测器序号 分组的关联编号
+     */
+    private static final class RelatedData {
+        private final Map<String, List<Integer>> laneNos = new HashMap<>();
+        private final Map<String, List<Integer>> pedestrianNos = new HashMap<>();
     }
 }
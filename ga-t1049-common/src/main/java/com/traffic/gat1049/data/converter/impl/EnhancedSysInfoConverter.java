@@ -35,8 +35,10 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
 
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Collectors;
 
 /**
  * 支持视图的系统信息转换器
@@ -54,6 +56,34 @@ public class EnhancedSysInfoConverter extends AbstractEntityConverter<SysInfoEnt
             return null;
         }
 
+        // 查询完整视图信息
+        return toProtocol(entity, viewRepository.findSystemCompleteInfo(entity.getSystemId()));
+    }
+
+    /**
+     * 批量转换
+     * 一次 IN 查询预取所有系统的视图数据，避免逐个系统查询 v_protocol_sys_info_complete
+     */
+    @Override
+    public List<SysInfo> toProtocolList(List<SysInfoEntity> entities) {
+        if (entities == null || entities.isEmpty()) {
+            return List.of();
+        }
+
+        Map<String, Map<String, Object>> completeInfoMap = new HashMap<>();
+        List<Map<String, Object>> rows = queryInBatches(
+                entities.stream().map(SysInfoEntity::getSystemId).collect(Collectors.toList()),
+                viewRepository::findSystemCompleteInfoByIds);
+        for (Map<String, Object> row : rows) {
+            completeInfoMap.putIfAbsent((String) row.get("system_id"), row);
+        }
+
+        return entities.stream()
+                .map(entity -> entity != null ? toProtocol(entity, completeInfoMap.get(entity.getSystemId())) : null)
+                .collect(Collectors.toList());
+    }
+
+    private SysInfo toProtocol(SysInfoEntity entity, Map<String, Object> completeInfo) {
         try {
             SysInfo protocol = new SysInfo();
 
@@ -64,8 +94,6 @@ public class EnhancedSysInfoConverter extends AbstractEntityConverter<SysInfoEnt
             protocol.setSupplier(entity.getSupplier());
             //protocol.setDescription(entity.getDescription());
 
-            // 查询完整视图信息
-            Map<String, Object> completeInfo = viewRepository.findSystemCompleteInfo(entity.getSystemId());
             if (completeInfo != null) {
                 // 从视图获取关联的ID列表
                 populateIdListsFromView(protocol, completeInfo);
@@ -3,6 +3,7 @@ package com.traffic.gat1049.data.converter.impl;
 import com.traffic.gat1049.data.converter.base.AbstractEntityConverter;
 import com.traffic.gat1049.exception.DataConversionException;
 import com.traffic.gat1049.protocol.model.signal.SignalGroupParam;
+import com.traffic.gat1049.repository.entity.SignalGroupLampGroupEntity;
 import com.traffic.gat1049.repository.entity.SignalGroupParamEntity;
 import com.traffic.gat1049.repository.interfaces.SignalGroupLampGroupRepository;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -11,6 +12,8 @@ import org.springframework.util.StringUtils;
 
 import java.util.List;
 import java.util.ArrayList;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 /**
  * 信号组参数转换器实现
@@ -19,9 +22,8 @@ import java.util.ArrayList;
 @Component
 public class SignalGroupParamConverter extends AbstractEntityConverter<SignalGroupParamEntity, SignalGroupParam> {
 
-    // 注入关联表Repository（需要创建）
-    // @Autowired
-    // private SignalGroupLampGroupRepository signalGroupLampGroupRepository;
+    @Autowired(required = false)
+    private SignalGroupLampGroupRepository signalGroupLampGroupRepository;
 
     @Override
     public SignalGroupParam toProtocol(SignalGroupParamEntity entity) {
@@ -29,6 +31,45 @@ public class SignalGroupParamConverter extends AbstractEntityConverter<SignalGro
             return null;
         }
 
+        List<SignalGroupLampGroupEntity> associations = null;
+        if (signalGroupLampGroupRepository != null) {
+            associations = signalGroupLampGroupRepository.findByCrossIdAndSignalGroupNo(
+                    entity.getCrossId(), entity.getSignalGroupNo());
+        }
+        return toProtocol(entity, associations);
+    }
+
+    /**
+     * 批量转换
+     * 一次 IN 查询预取所有涉及路口的灯组关联，避免每个信号组单独查询关联表
+     */
+    @Override
+    public List<SignalGroupParam> toProtocolList(List<SignalGroupParamEntity> entities) {
+        if (entities == null || entities.isEmpty()) {
+            return List.of();
+        }
+        if (signalGroupLampGroupRepository == null) {
+            return super.toProtocolList(entities);
+        }
+
+        Map<String, List<SignalGroupLampGroupEntity>> associationMap = queryInBatches(
+                entities.stream().filter(e -> e != null).map(SignalGroupParamEntity::getCrossId).collect(Collectors.toList()),
+                signalGroupLampGroupRepository::findByCrossIds)
+                .stream()
+                .collect(Collectors.groupingBy(a -> crossObjectKey(a.getCrossId(), a.getSignalGroupNo())));
+
+        return entities.stream()
+                .map(entity -> entity != null
+                        ? toProtocol(entity, associationMap.getOrDefault(
+                                crossObjectKey(entity.getCrossId(), entity.getSignalGroupNo()), List.of()))
+                        : null)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * @param associations 信号组的灯组关联，null表示关联表不可用
+     */
+    private SignalGroupParam toProtocol(SignalGroupParamEntity entity, List<SignalGroupLampGroupEntity> associations) {
         try {
             SignalGroupParam protocol = new SignalGroupParam();
 
@@ -49,7 +90,7 @@ public class SignalGroupParamConverter extends AbstractEntityConverter<SignalGro
             }
 
             // 获取关联的信号灯组列表
-            List<Integer> lampGroupNoList = getLampGroupNoList(entity);
+            List<Integer> lampGroupNoList = getLampGroupNoList(entity, associations);
             protocol.setLampGroupNoList(lampGroupNoList);
 
             validateConversion(entity, protocol);
@@ -104,25 +145,19 @@ public class SignalGroupParamConverter extends AbstractEntityConverter<SignalGro
 
     /**
      * 获取信号组关联的信号灯组列表
-     * 查询 signal_group_lamp_group 关联表
+     * 来自 signal_group_lamp_group 关联表
      */
-    private List<Integer> getLampGroupNoList(SignalGroupParamEntity entity) {
+    private List<Integer> getLampGroupNoList(SignalGroupParamEntity entity,
+                                             List<SignalGroupLampGroupEntity> associations) {
         List<Integer> lampGroupNoList = new ArrayList<>();
 
         try {
-            // 实际实现需要查询关联表
-            // if (signalGroupLampGroupRepository != null) {
-            //     List<SignalGroupLampGroupEntity> associations =
-            //         signalGroupLampGroupRepository.findByCrossIdAndSignalGroupNo(
-            //             entity.getCrossId(), entity.getSignalGroupNo());
-            //
-            //     for (SignalGroupLampGroupEntity association : associations) {
-            //         lampGroupNoList.add(association.getLampGroupNo());
-            //     }
-            // }
-
-            // 临时示例：返回与信号组号相同的灯组号
-            if (entity.getSignalGroupNo() != null) {
+            if (associations != null) {
+                for (SignalGroupLampGroupEntity association : associations) {
+                    lampGroupNoList.add(association.getLampGroupNo());
+                }
+            } else if (entity.getSignalGroupNo() != null) {
+                // 关联表不可用时：返回与信号组号相同的灯组号
                 lampGroupNoList.add(entity.getSignalGroupNo());
             }
 
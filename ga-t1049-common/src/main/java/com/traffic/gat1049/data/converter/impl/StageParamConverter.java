@@ -13,6 +13,8 @@ import org.springframework.util.StringUtils;
 
 import java.util.List;
 import java.util.ArrayList;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 /**
  * 阶段参数转换器实现
@@ -21,9 +23,8 @@ import java.util.ArrayList;
 @Component
 public class StageParamConverter extends AbstractEntityConverter<StageParamEntity, StageParam> {
 
-    // 注入关联表Repository（需要创建）
-    // @Autowired
-    // private StageSignalGroupStatusRepository stageSignalGroupStatusRepository;
+    @Autowired(required = false)
+    private StageSignalGroupStatusRepository stageSignalGroupStatusRepository;
 
     @Override
     public StageParam toProtocol(StageParamEntity entity) {
@@ -31,6 +32,45 @@ public class StageParamConverter extends AbstractEntityConverter<StageParamEntit
             return null;
         }
 
+        List<StageSignalGroupStatusEntity> statusEntities = null;
+        if (stageSignalGroupStatusRepository != null) {
+            statusEntities = stageSignalGroupStatusRepository.findByCrossIdAndStageNo(
+                    entity.getCrossId(), entity.getStageNo());
+        }
+        return toProtocol(entity, statusEntities);
+    }
+
+    /**
+     * 批量转换
+     * 一次 IN 查询预取所有涉及路口的阶段信号组状态，避免每个阶段单独查询关联表
+     */
+    @Override
+    public List<StageParam> toProtocolList(List<StageParamEntity> entities) {
+        if (entities == null || entities.isEmpty()) {
+            return List.of();
+        }
+        if (stageSignalGroupStatusRepository == null) {
+            return super.toProtocolList(entities);
+        }
+
+        Map<String, List<StageSignalGroupStatusEntity>> statusMap = queryInBatches(
+                entities.stream().filter(e -> e != null).map(StageParamEntity::getCrossId).collect(Collectors.toList()),
+                stageSignalGroupStatusRepository::findByCrossIds)
+                .stream()
+                .collect(Collectors.groupingBy(s -> crossObjectKey(s.getCrossId(), s.getStageNo())));
+
+        return entities.stream()
+                .map(entity -> entity != null
+                        ? toProtocol(entity, statusMap.getOrDefault(
+                                crossObjectKey(entity.getCrossId(), entity.getStageNo()), List.of()))
+                        : null)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * @param statusEntities 阶段的信号组状态，null表示关联表不可用
+     */
+    private StageParam toProtocol(StageParamEntity entity, List<StageSignalGroupStatusEntity> statusEntities) {
         try {
             StageParam protocol = new StageParam();
 
@@ -41,7 +81,7 @@ public class StageParamConverter extends AbstractEntityConverter<StageParamEntit
             protocol.setAttribute(entity.getAttribute());
 
             // 获取信号组状态列表
-            List<SignalGroupStatus> signalGroupStatusList = getSignalGroupStatusList(entity);
+            List<SignalGroupStatus> signalGroupStatusList = getSignalGroupStatusList(entity, statusEntities);
             protocol.setSignalGroupStatusList(signalGroupStatusList);
 
             validateConversion(entity, protocol);
@@ -121,34 +161,25 @@ public class StageParamConverter extends AbstractEntityConverter<StageParamEntit
      * 获取阶段的信号组状态列表
      * 查询 stage_signal_group_status 表
      */
-    private List<SignalGroupStatus> getSignalGroupStatusList(StageParamEntity entity) {
+    private List<SignalGroupStatus> getSignalGroupStatusList(StageParamEntity entity,
+                                                             List<StageSignalGroupStatusEntity> statusEntities) {
         List<SignalGroupStatus> statusList = new ArrayList<>();
 
         try {
-            // 实际实现需要查询关联表
-            // if (stageSignalGroupStatusRepository != null) {
-            //     List<StageSignalGroupStatusEntity> statusEntities =
-            //         stageSignalGroupStatusRepository.findByCrossIdAndStageNo(
-            //             entity.getCrossId(), entity.getStageNo());
-            //
-            //     for (StageSignalGroupStatusEntity statusEntity : statusEntities) {
-            //         SignalGroupStatus status = new SignalGroupStatus();
-            //         status.setSignalGroupNo(statusEntity.getSignalGroupNo());
-            //         status.setLampStatus(LampStatus.fromCode(statusEntity.getLampStatus()));
-            //         statusList.add(status);
-            //     }
-            // }
-
-            // 临时示例数据
-            SignalGroupStatus status1 = new SignalGroupStatus();
-            status1.setSignalGroupNo(1);
-            // status1.setLampStatus(LampStatus.GREEN);
-            statusList.add(status1);
-
-            SignalGroupStatus status2 = new SignalGroupStatus();
-            status2.setSignalGroupNo(2);
-            // status2.setLampStatus(LampStatus.RED);
-            statusList.add(status2);
+            if (statusEntities != null) {
+                for (StageSignalGroupStatusEntity statusEntity : statusEntities) {
+                    statusList.add(new SignalGroupStatus(statusEntity.getSignalGroupNo(), statusEntity.getLampStatus()));
+                }
+            } else {
+                // 关联表不可用时的示例数据
+                SignalGroupStatus status1 = new SignalGroupStatus();
+                status1.setSignalGroupNo(1);
+                statusList.add(status1);
+
+                SignalGroupStatus status2 = new SignalGroupStatus();
+                status2.setSignalGroupNo(2);
+                statusList.add(status2);
+            }
 
         } catch (Exception e) {
             logger.warn("获取阶段信号组状态失败: crossId={}, stageNo={}",
@@ -2,9 +2,11 @@ package com.traffic.gat1049.data.converter.service;
 
 import com.traffic.gat1049.data.converter.impl.SignalGroupParamConverter;
 import com.traffic.gat1049.data.converter.impl.StageParamConverter;
+import com.traffic.gat1049.protocol.constants.GatConstants;
 import com.traffic.gat1049.protocol.model.signal.SignalGroupParam;
 import com.traffic.gat1049.protocol.model.signal.SignalGroupStatus;
 import com.traffic.gat1049.protocol.model.signal.StageParam;
+import com.traffic.gat1049.repository.cache.ParamCache;
 import com.traffic.gat1049.repository.entity.SignalGroupLampGroupEntity;
 import com.traffic.gat1049.repository.entity.SignalGroupParamEntity;
 import com.traffic.gat1049.repository.entity.StageParamEntity;
@@ -45,6 +47,9 @@ public class ParamConverterService {
     @Autowired
     private StageSignalGroupStatusRepository stageSignalGroupStatusRepository;
 
+    @Autowired
+    private ParamCache paramCache;
+
     /**
      * 完整保存信号组参数（包含关联表）
      */
@@ -56,6 +61,7 @@ public class ParamConverterService {
 
         // 2. 保存关联表
         saveSignalGroupLampGroupAssociations(protocol);
+        paramCache.invalidate(GatConstants.ObjectName.SIGNAL_GROUP_PARAM, protocol.getCrossId());
 
         return protocol;
     }
@@ -79,6 +85,7 @@ public class ParamConverterService {
 
         // 3. 更新关联表
         updateSignalGroupLampGroupAssociations(protocol);
+        paramCache.invalidate(GatConstants.ObjectName.SIGNAL_GROUP_PARAM, protocol.getCrossId());
 
         return protocol;
     }
@@ -94,6 +101,7 @@ public class ParamConverterService {
 
         // 2. 保存关联表
         saveStageSignalGroupStatusAssociations(protocol);
+        paramCache.invalidate(GatConstants.ObjectName.STAGE_PARAM, protocol.getCrossId());
 
         return protocol;
     }
@@ -117,6 +125,7 @@ public class ParamConverterService {
 
         // 3. 更新关联表
         updateStageSignalGroupStatusAssociations(protocol);
+        paramCache.invalidate(GatConstants.ObjectName.STAGE_PARAM, protocol.getCrossId());
 
         return protocol;
     }
@@ -134,6 +143,7 @@ public class ParamConverterService {
         if (entity != null) {
             signalGroupParamRepository.deleteById(entity.getId());
         }
+        paramCache.invalidate(GatConstants.ObjectName.SIGNAL_GROUP_PARAM, crossId);
     }
 
     /**
@@ -149,6 +159,7 @@ public class ParamConverterService {
         if (entity != null) {
             stageParamRepository.deleteById(entity.getId());
         }
+        paramCache.invalidate(GatConstants.ObjectName.STAGE_PARAM, crossId);
     }
 
     // ================================================================
@@ -260,7 +271,8 @@ public class ParamConverterService {
      * 批量获取路口的所有信号组（包含关联数据）
      */
     public List<SignalGroupParam> getSignalGroupsByCrossId(String crossId) {
-        List<SignalGroupParamEntity> entities = signalGroupParamRepository.findByCrossId(crossId);
+        List<SignalGroupParamEntity> entities = paramCache.getList(GatConstants.ObjectName.SIGNAL_GROUP_PARAM, crossId, null,
+                () -> signalGroupParamRepository.findByCrossId(crossId), SignalGroupParamEntity::copy);
         return signalGroupParamConverter.toProtocolList(entities);
     }
 
@@ -268,7 +280,8 @@ public class ParamConverterService {
      * 批量获取路口的所有阶段（包含关联数据）
      */
     public List<StageParam> getStagesByCrossId(String crossId) {
-        List<StageParamEntity> entities = stageParamRepository.findByCrossId(crossId);
+        List<StageParamEntity> entities = paramCache.getList(GatConstants.ObjectName.STAGE_PARAM, crossId, null,
+                () -> stageParamRepository.findByCrossId(crossId), StageParamEntity::copy);
         return stageParamConverter.toProtocolList(entities);
     }
 
@@ -23,7 +23,8 @@ import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.stream.Collectors;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 /**
  * 综合测试数据提供者实现 - 更新版
@@ -35,11 +36,9 @@ public class ComprehensiveTestDataProviderImpl implements ComprehensiveTestDataP
     private static final Logger logger = LoggerFactory.getLogger(ComprehensiveTestDataProviderImpl.class);
 
     private final ObjectMapper objectMapper = new ObjectMapper();
-    private JsonNode testDataRoot;
-    private boolean initialized = false;
 
-    // 缓存解析后的数据，提高访问性能
-    private final Map<String, Object> dataCache = new ConcurrentHashMap<>();
+    // 当前数据快照，初始化和重新加载时在旁边构建完整后一次写入发布，查询方法每次只读取一次
+    private volatile DataSnapshot snapshot;
 
     // 单例模式
     private static ComprehensiveTestDataProviderImpl instance;
@@ -62,39 +61,52 @@ public class ComprehensiveTestDataProviderImpl implements ComprehensiveTestDataP
     }
 
     @Override
-    public void initialize() throws BusinessException {
-        if (initialized) {
+    public synchronized void initialize() throws BusinessException {
+        if (snapshot != null) {
             return;
         }
+        snapshot = loadSnapshot();
+    }
+
+    @Override
+    public boolean isDataAvailable() {
+        return snapshot != null;
+    }
+
+    /**
+     * 重新加载测试数据
+     * 新数据在旁边解析并构建索引，完成后整体替换当前快照；重新加载期间查询继续读取旧快照，
+     * 加载失败时保留旧快照
+     */
+    @Override
+    public synchronized void reloadData() throws BusinessException {
+        logger.info("重新加载测试数据...");
+        snapshot = loadSnapshot();
+    }
+
+    /**
+     * 加载测试数据并构建完整快照
+     * 在一个未发布的实例上解析预加载数据和构建索引，查询方法读到的快照始终完整
+     */
+    private DataSnapshot loadSnapshot() throws BusinessException {
         try {
             logger.info("初始化综合测试数据提供者...");
-            loadTestDataFromJson();
-            if (testDataRoot == null) {
+            JsonNode root = loadTestDataFromJson();
+            if (root == null) {
                 throw new BusinessException("INIT_ERROR", "无法加载测试数据");
             }
-            initialized = true;
-            preloadCommonData();
+            ComprehensiveTestDataProviderImpl builder = new ComprehensiveTestDataProviderImpl();
+            builder.snapshot = new DataSnapshot(root, new ConcurrentHashMap<>(), null);
+            builder.preloadCommonData();
+            DataIndex index = builder.buildIndex();
             logger.info("综合测试数据提供者初始化完成");
+            return new DataSnapshot(root, builder.snapshot.cache, index);
         } catch (Exception e) {
             logger.error("综合测试数据提供者初始化失败", e);
-            initialized = false;
             throw new BusinessException("INIT_ERROR", "初始化失败: " + e.getMessage());
         }
     }
 
-    @Override
-    public boolean isDataAvailable() {
-        return initialized && testDataRoot != null;
-    }
-
-    @Override
-    public void reloadData() throws BusinessException {
-        logger.info("重新加载测试数据...");
-        dataCache.clear();
-        initialized = false;
-        initialize();
-    }
-
     @Override
     public String getDataStatistics() {
         return "";
@@ -119,21 +131,21 @@ public class ComprehensiveTestDataProviderImpl implements ComprehensiveTestDataP
 
     @Override
     public SysInfo getSystemInfo() throws BusinessException {
-        ensureInitialized();
+        DataSnapshot data = currentSnapshot();
 
         String cacheKey = "SysInfo";
-        if (dataCache.containsKey(cacheKey)) {
-            return (SysInfo) dataCache.get(cacheKey);
+        if (data.cache.containsKey(cacheKey)) {
+            return (SysInfo) data.cache.get(cacheKey);
         }
 
         try {
-            JsonNode sysParamNode = testDataRoot.get("SysParam");
+            JsonNode sysParamNode = data.root.get("SysParam");
             if (sysParamNode == null) {
                 throw new DataNotFoundException("测试数据中未找到SysParam节点");
             }
 
             SysInfo sysInfo = parseSystemInfo(sysParamNode);
-            dataCache.put(cacheKey, sysInfo);
+            data.cache.put(cacheKey, sysInfo);
 
             return sysInfo;
         } catch (Exception e) {
@@ -143,20 +155,20 @@ public class ComprehensiveTestDataProviderImpl implements ComprehensiveTestDataP
 
     @Override
     public SysState getSystemState() throws BusinessException {
-        ensureInitialized();
+        DataSnapshot data = currentSnapshot();
 
         String cacheKey = "SysState";
-        if (dataCache.containsKey(cacheKey)) {
-            return (SysState) dataCache.get(cacheKey);
+        if (data.cache.containsKey(cacheKey)) {
+            return (SysState) data.cache.get(cacheKey);
         }
 
         try {
-            JsonNode runStatusNode = testDataRoot.get("RunStatus");
+            JsonNode runStatusNode = data.root.get("RunStatus");
             if (runStatusNode != null) {
                 JsonNode sysStateNode = runStatusNode.get("SysState");
                 if (sysStateNode != null) {
                     SysState sysState = parseSysState(sysStateNode);
-                    dataCache.put(cacheKey, sysState);
+                    data.cache.put(cacheKey, sysState);
                     return sysState;
                 }
             }
@@ -165,7 +177,7 @@ public class ComprehensiveTestDataProviderImpl implements ComprehensiveTestDataP
             SysState defaultState = new SysState();
             defaultState.setValue(SystemState.ONLINE);
             defaultState.setTime(LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss")));
-            dataCache.put(cacheKey, defaultState);
+            data.cache.put(cacheKey, defaultState);
             return defaultState;
 
         } catch (Exception e) {
@@ -178,16 +190,16 @@ public class ComprehensiveTestDataProviderImpl implements ComprehensiveTestDataP
     @Override
     @SuppressWarnings("unchecked")
     public List<RegionParam> getAllRegions() throws BusinessException {
-        ensureInitialized();
+        DataSnapshot data = currentSnapshot();
 
         String cacheKey = "AllRegions";
-        if (dataCache.containsKey(cacheKey)) {
-            return (List<RegionParam>) dataCache.get(cacheKey);
+        if (data.cache.containsKey(cacheKey)) {
+            return (List<RegionParam>) data.cache.get(cacheKey);
         }
 
         try {
             List<RegionParam> regions = new ArrayList<>();
-            JsonNode regionArray = testDataRoot.get("Region");
+            JsonNode regionArray = data.root.get("Region");
 
             if (regionArray != null && regionArray.isArray()) {
                 for (JsonNode regionNode : regionArray) {
@@ -196,7 +208,7 @@ public class ComprehensiveTestDataProviderImpl implements ComprehensiveTestDataP
                 }
             }
 
-            dataCache.put(cacheKey, regions);
+            data.cache.put(cacheKey, regions);
             return regions;
         } catch (Exception e) {
             throw new BusinessException("PARSE_ERROR", "解析区域参数失败: " + e.getMessage());
@@ -209,26 +221,22 @@ public class ComprehensiveTestDataProviderImpl implements ComprehensiveTestDataP
             throw new BusinessException("INVALID_PARAMETER", "区域ID不能为空");
         }
 
-        List<RegionParam> regions = getAllRegions();
-        return regions.stream()
-                .filter(region -> regionId.equals(region.getRegionId()))
-                .findFirst()
-                .orElseThrow(() -> new DataNotFoundException("未找到区域ID: " + regionId));
+        return found(currentIndex().regionById.get(regionId), () -> "未找到区域ID: " + regionId);
     }
 
     @Override
     @SuppressWarnings("unchecked")
     public List<SubRegionParam> getAllSubRegions() throws BusinessException {
-        ensureInitialized();
+        DataSnapshot data = currentSnapshot();
 
         String cacheKey = "AllSubRegions";
-        if (dataCache.containsKey(cacheKey)) {
-            return (List<SubRegionParam>) dataCache.get(cacheKey);
+        if (data.cache.containsKey(cacheKey)) {
+            return (List<SubRegionParam>) data.cache.get(cacheKey);
         }
 
         try {
             List<SubRegionParam> subRegions = new ArrayList<>();
-            JsonNode subRegionArray = testDataRoot.get("SubRegion");
+            JsonNode subRegionArray = data.root.get("SubRegion");
 
             if (subRegionArray != null && subRegionArray.isArray()) {
                 for (JsonNode subRegionNode : subRegionArray) {
@@ -237,7 +245,7 @@ public class ComprehensiveTestDataProviderImpl implements ComprehensiveTestDataP
                 }
             }
 
-            dataCache.put(cacheKey, subRegions);
+            data.cache.put(cacheKey, subRegions);
             return subRegions;
         } catch (Exception e) {
             throw new BusinessException("PARSE_ERROR", "解析子区参数失败: " + e.getMessage());
@@ -250,11 +258,7 @@ public class ComprehensiveTestDataProviderImpl implements ComprehensiveTestDataP
             throw new BusinessException("INVALID_PARAMETER", "子区ID不能为空");
         }
 
-        List<SubRegionParam> subRegions = getAllSubRegions();
-        return subRegions.stream()
-                .filter(subRegion -> subRegionId.equals(subRegion.getSubRegionId()))
-                .findFirst()
-                .orElseThrow(() -> new DataNotFoundException("未找到子区ID: " + subRegionId));
+        return found(currentIndex().subRegionById.get(subRegionId), () -> "未找到子区ID: " + subRegionId);
     }
 
     @Override
@@ -263,13 +267,8 @@ public class ComprehensiveTestDataProviderImpl implements ComprehensiveTestDataP
             throw new BusinessException("INVALID_PARAMETER", "区域ID不能为空");
         }
 
-        RegionParam region = getRegionById(regionId);
-        List<SubRegionParam> allSubRegions = getAllSubRegions();
-
-        return allSubRegions.stream()
-                .filter(subRegion -> region.getSubRegionIdList() != null &&
-                        region.getSubRegionIdList().contains(subRegion.getSubRegionId()))
-                .collect(Collectors.toList());
+        getRegionById(regionId);
+        return listOf(currentIndex().subRegionsByRegionId, regionId);
     }
 
     // ==================== 线路管理相关实现 ====================
@@ -277,16 +276,16 @@ public class ComprehensiveTestDataProviderImpl implements ComprehensiveTestDataP
     @Override
     @SuppressWarnings("unchecked")
     public List<RouteParam> getAllRoutes() throws BusinessException {
-        ensureInitialized();
+        DataSnapshot data = currentSnapshot();
 
         String cacheKey = "AllRoutes";
-        if (dataCache.containsKey(cacheKey)) {
-            return (List<RouteParam>) dataCache.get(cacheKey);
+        if (data.cache.containsKey(cacheKey)) {
+            return (List<RouteParam>) data.cache.get(cacheKey);
         }
 
         try {
             List<RouteParam> routes = new ArrayList<>();
-            JsonNode routeArray = testDataRoot.get("Route");
+            JsonNode routeArray = data.root.get("Route");
 
             if (routeArray != null && routeArray.isArray()) {
                 for (JsonNode routeNode : routeArray) {
@@ -295,7 +294,7 @@ public class ComprehensiveTestDataProviderImpl implements ComprehensiveTestDataP
                 }
             }
 
-            dataCache.put(cacheKey, routes);
+            data.cache.put(cacheKey, routes);
             return routes;
         } catch (Exception e) {
             throw new BusinessException("PARSE_ERROR", "解析线路参数失败: " + e.getMessage());
@@ -308,11 +307,7 @@ public class ComprehensiveTestDataProviderImpl implements ComprehensiveTestDataP
             throw new BusinessException("INVALID_PARAMETER", "线路ID不能为空");
         }
 
-        List<RouteParam> routes = getAllRoutes();
-        return routes.stream()
-                .filter(route -> routeId.equals(route.getRouteId()))
-                .findFirst()
-                .orElseThrow(() -> new DataNotFoundException("未找到线路ID: " + routeId));
+        return found(currentIndex().routeById.get(routeId), () -> "未找到线路ID: " + routeId);
     }
 
     // ==================== 路口管理相关实现 ====================
@@ -320,16 +315,16 @@ public class ComprehensiveTestDataProviderImpl implements ComprehensiveTestDataP
     @Override
     @SuppressWarnings("unchecked")
     public List<CrossParam> getAllCrosses() throws BusinessException {
-        ensureInitialized();
+        DataSnapshot data = currentSnapshot();
 
         String cacheKey = "AllCrosses";
-        if (dataCache.containsKey(cacheKey)) {
-            return (List<CrossParam>) dataCache.get(cacheKey);
+        if (data.cache.containsKey(cacheKey)) {
+            return (List<CrossParam>) data.cache.get(cacheKey);
         }
 
         try {
             List<CrossParam> crosses = new ArrayList<>();
-            JsonNode crossArray = testDataRoot.get("CrossParam");
+            JsonNode crossArray = data.root.get("CrossParam");
 
             if (crossArray != null && crossArray.isArray()) {
                 for (JsonNode crossNode : crossArray) {
@@ -338,7 +333,7 @@ public class ComprehensiveTestDataProviderImpl implements ComprehensiveTestDataP
                 }
             }
 
-            dataCache.put(cacheKey, crosses);
+            data.cache.put(cacheKey, crosses);
             return crosses;
         } catch (Exception e) {
             throw new BusinessException("PARSE_ERROR", "解析路口参数失败: " + e.getMessage());
@@ -351,11 +346,7 @@ public class ComprehensiveTestDataProviderImpl implements ComprehensiveTestDataP
             throw new BusinessException("INVALID_PARAMETER", "路口ID不能为空");
         }
 
-        List<CrossParam> crosses = getAllCrosses();
-        return crosses.stream()
-                .filter(cross -> crossId.equals(cross.getCrossId()))
-                .findFirst()
-                .orElseThrow(() -> new DataNotFoundException("未找到路口ID: " + crossId));
+        return found(currentIndex().crossById.get(crossId), () -> "未找到路口ID: " + crossId);
     }
 
     @Override
@@ -364,13 +355,8 @@ public class ComprehensiveTestDataProviderImpl implements ComprehensiveTestDataP
             throw new BusinessException("INVALID_PARAMETER", "区域ID不能为空");
         }
 
-        RegionParam region = getRegionById(regionId);
-        List<CrossParam> allCrosses = getAllCrosses();
-
-        return allCrosses.stream()
-                .filter(cross -> region.getCrossIdList() != null &&
-                        region.getCrossIdList().contains(cross.getCrossId()))
-                .collect(Collectors.toList());
+        getRegionById(regionId);
+        return listOf(currentIndex().crossesByRegionId, regionId);
     }
 
     @Override
@@ -379,13 +365,8 @@ public class ComprehensiveTestDataProviderImpl implements ComprehensiveTestDataP
             throw new BusinessException("INVALID_PARAMETER", "子区ID不能为空");
         }
 
-        SubRegionParam subRegion = getSubRegionById(subRegionId);
-        List<CrossParam> allCrosses = getAllCrosses();
-
-        return allCrosses.stream()
-                .filter(cross -> subRegion.getCrossIdList() != null &&
-                        subRegion.getCrossIdList().contains(cross.getCrossId()))
-                .collect(Collectors.toList());
+        getSubRegionById(subRegionId);
+        return listOf(currentIndex().crossesBySubRegionId, subRegionId);
     }
 
     // ==================== 信号机管理相关实现 ====================
@@ -393,16 +374,16 @@ public class ComprehensiveTestDataProviderImpl implements ComprehensiveTestDataP
     @Override
     @SuppressWarnings("unchecked")
     public List<SignalController> getAllSignalControllers() throws BusinessException {
-        ensureInitialized();
+        DataSnapshot data = currentSnapshot();
 
         String cacheKey = "AllSignalControllers";
-        if (dataCache.containsKey(cacheKey)) {
-            return (List<SignalController>) dataCache.get(cacheKey);
+        if (data.cache.containsKey(cacheKey)) {
+            return (List<SignalController>) data.cache.get(cacheKey);
         }
 
         try {
             List<SignalController> controllers = new ArrayList<>();
-            JsonNode controllerArray = testDataRoot.get("SignalParam");
+            JsonNode controllerArray = data.root.get("SignalParam");
 
             if (controllerArray != null && controllerArray.isArray()) {
                 for (JsonNode controllerNode : controllerArray) {
@@ -411,7 +392,7 @@ public class ComprehensiveTestDataProviderImpl implements ComprehensiveTestDataP
                 }
             }
 
-            dataCache.put(cacheKey, controllers);
+            data.cache.put(cacheKey, controllers);
             return controllers;
         } catch (Exception e) {
             throw new BusinessException("PARSE_ERROR", "解析信号机参数失败: " + e.getMessage());
@@ -424,11 +405,7 @@ public class ComprehensiveTestDataProviderImpl implements ComprehensiveTestDataP
             throw new BusinessException("INVALID_PARAMETER", "信号机ID不能为空");
         }
 
-        List<SignalController> controllers = getAllSignalControllers();
-        return controllers.stream()
-                .filter(controller -> signalControllerId.equals(controller.getSignalControllerID()))
-                .findFirst()
-                .orElseThrow(() -> new DataNotFoundException("未找到信号机ID: " + signalControllerId));
+        return found(currentIndex().signalControllerById.get(signalControllerId), () -> "未找到信号机ID: " + signalControllerId);
     }
 
     @Override
@@ -437,10 +414,7 @@ public class ComprehensiveTestDataProviderImpl implements ComprehensiveTestDataP
             throw new BusinessException("INVALID_PARAMETER", "信号机ID不能为空");
         }
 
-        List<SignalController> controllers = getAllSignalControllers();
-        return controllers.stream()
-                .filter(controller -> signalControllerId.equals(controller.getSignalControllerID()))
-                .collect(Collectors.toList());
+        return listOf(currentIndex().signalControllersById, signalControllerId);
     }
 
     @Override
@@ -449,11 +423,7 @@ public class ComprehensiveTestDataProviderImpl implements ComprehensiveTestDataP
             throw new BusinessException("INVALID_PARAMETER", "路口ID不能为空");
         }
 
-        List<SignalController> allControllers = getAllSignalControllers();
-        return allControllers.stream()
-                .filter(controller -> controller.getCrossIDList() != null &&
-                        controller.getCrossIDList().contains(crossId))
-                .collect(Collectors.toList());
+        return listOf(currentIndex().signalControllersByCrossId, crossId);
     }
 
     // ==================== 灯组管理相关实现 ====================
@@ -461,16 +431,16 @@ public class ComprehensiveTestDataProviderImpl implements ComprehensiveTestDataP
     @Override
     @SuppressWarnings("unchecked")
     public List<LampGroupParam> getAllLampGroups() throws BusinessException {
-        ensureInitialized();
+        DataSnapshot data = currentSnapshot();
 
         String cacheKey = "AllLampGroups";
-        if (dataCache.containsKey(cacheKey)) {
-            return (List<LampGroupParam>) dataCache.get(cacheKey);
+        if (data.cache.containsKey(cacheKey)) {
+            return (List<LampGroupParam>) data.cache.get(cacheKey);
         }
 
         try {
             List<LampGroupParam> lampGroups = new ArrayList<>();
-            JsonNode lampGroupArray = testDataRoot.get("LightGroup");
+            JsonNode lampGroupArray = data.root.get("LightGroup");
 
             if (lampGroupArray != null && lampGroupArray.isArray()) {
                 for (JsonNode lampGroupNode : lampGroupArray) {
@@ -479,7 +449,7 @@ public class ComprehensiveTestDataProviderImpl implements ComprehensiveTestDataP
                 }
             }
 
-            dataCache.put(cacheKey, lampGroups);
+            data.cache.put(cacheKey, lampGroups);
             return lampGroups;
         } catch (Exception e) {
             throw new BusinessException("PARSE_ERROR", "解析灯组参数失败: " + e.getMessage());
@@ -492,10 +462,7 @@ public class ComprehensiveTestDataProviderImpl implements ComprehensiveTestDataP
             throw new BusinessException("INVALID_PARAMETER", "路口ID不能为空");
         }
 
-        List<LampGroupParam> allLampGroups = getAllLampGroups();
-        return allLampGroups.stream()
-                .filter(lampGroup -> crossId.equals(lampGroup.getCrossId()))
-                .collect(Collectors.toList());
+        return listOf(currentIndex().lampGroupsByCrossId, crossId);
     }
 
     @Override
@@ -507,12 +474,8 @@ public class ComprehensiveTestDataProviderImpl implements ComprehensiveTestDataP
             throw new BusinessException("INVALID_PARAMETER", "灯组编号不能为空");
         }
 
-        List<LampGroupParam> lampGroups = getLampGroupsByCrossId(crossId);
-        return lampGroups.stream()
-                .filter(lampGroup -> lampGroupNo.equals(String.valueOf(lampGroup.getLampGroupNo())))
-                .findFirst()
-                .orElseThrow(() -> new DataNotFoundException(
-                        String.format("未找到路口%s的灯组%s", crossId, lampGroupNo)));
+        return found(currentIndex().lampGroupByCrossIdAndNo.get(DataIndex.key(crossId, lampGroupNo)),
+                () -> String.format("未找到路口%s的灯组%s", crossId, lampGroupNo));
     }
 
     // ==================== 检测器管理相关实现 ====================
@@ -520,16 +483,16 @@ public class ComprehensiveTestDataProviderImpl implements ComprehensiveTestDataP
     @Override
     @SuppressWarnings("unchecked")
     public List<DetectorParam> getAllDetectors() throws BusinessException {
-        ensureInitialized();
+        DataSnapshot data = currentSnapshot();
 
         String cacheKey = "AllDetectors";
-        if (dataCache.containsKey(cacheKey)) {
-            return (List<DetectorParam>) dataCache.get(cacheKey);
+        if (data.cache.containsKey(cacheKey)) {
+            return (List<DetectorParam>) data.cache.get(cacheKey);
         }
 
         try {
             List<DetectorParam> detectors = new ArrayList<>();
-            JsonNode detectorArray = testDataRoot.get("DetectorParam");
+            JsonNode detectorArray = data.root.get("DetectorParam");
 
             if (detectorArray != null && detectorArray.isArray()) {
                 for (JsonNode detectorNode : detectorArray) {
@@ -538,7 +501,7 @@ public class ComprehensiveTestDataProviderImpl implements ComprehensiveTestDataP
                 }
             }
 
-            dataCache.put(cacheKey, detectors);
+            data.cache.put(cacheKey, detectors);
             return detectors;
         } catch (Exception e) {
             throw new BusinessException("PARSE_ERROR", "解析检测器参数失败: " + e.getMessage());
@@ -551,10 +514,7 @@ public class ComprehensiveTestDataProviderImpl implements ComprehensiveTestDataP
             throw new BusinessException("INVALID_PARAMETER", "路口ID不能为空");
         }
 
-        List<DetectorParam> allDetectors = getAllDetectors();
-        return allDetectors.stream()
-                .filter(detector -> crossId.equals(detector.getCrossId()))
-                .collect(Collectors.toList());
+        return listOf(currentIndex().detectorsByCrossId, crossId);
     }
 
     @Override
@@ -566,12 +526,8 @@ public class ComprehensiveTestDataProviderImpl implements ComprehensiveTestDataP
             throw new BusinessException("INVALID_PARAMETER", "检测器编号不能为空");
         }
 
-        List<DetectorParam> detectors = getDetectorsByCrossId(crossId);
-        return detectors.stream()
-                .filter(detector -> detectorNo.equals(String.valueOf(detector.getDetectorNo())))
-                .findFirst()
-                .orElseThrow(() -> new DataNotFoundException(
-                        String.format("未找到路口%s的检测器%s", crossId, detectorNo)));
+        return found(currentIndex().detectorByCrossIdAndNo.get(DataIndex.key(crossId, detectorNo)),
+                () -> String.format("未找到路口%s的检测器%s", crossId, detectorNo));
     }
 
     // ==================== 车道管理相关实现 ====================
@@ -579,16 +535,16 @@ public class ComprehensiveTestDataProviderImpl implements ComprehensiveTestDataP
     @Override
     @SuppressWarnings("unchecked")
     public List<LaneParam> getAllLanes() throws BusinessException {
-        ensureInitialized();
+        DataSnapshot data = currentSnapshot();
 
         String cacheKey = "AllLanes";
-        if (dataCache.containsKey(cacheKey)) {
-            return (List<LaneParam>) dataCache.get(cacheKey);
+        if (data.cache.containsKey(cacheKey)) {
+            return (List<LaneParam>) data.cache.get(cacheKey);
         }
 
         try {
             List<LaneParam> lanes = new ArrayList<>();
-            JsonNode laneArray = testDataRoot.get("LaneParam");
+            JsonNode laneArray = data.root.get("LaneParam");
 
             if (laneArray != null && laneArray.isArray()) {
                 for (JsonNode laneNode : laneArray) {
@@ -597,7 +553,7 @@ public class ComprehensiveTestDataProviderImpl implements ComprehensiveTestDataP
                 }
             }
 
-            dataCache.put(cacheKey, lanes);
+            data.cache.put(cacheKey, lanes);
             return lanes;
         } catch (Exception e) {
             throw new BusinessException("PARSE_ERROR", "解析车道参数失败: " + e.getMessage());
@@ -610,10 +566,7 @@ public class ComprehensiveTestDataProviderImpl implements ComprehensiveTestDataP
             throw new BusinessException("INVALID_PARAMETER", "路口ID不能为空");
         }
 
-        List<LaneParam> allLanes = getAllLanes();
-        return allLanes.stream()
-                .filter(lane -> crossId.equals(lane.getCrossId()))
-                .collect(Collectors.toList());
+        return listOf(currentIndex().lanesByCrossId, crossId);
     }
 
     @Override
@@ -625,12 +578,8 @@ public class ComprehensiveTestDataProviderImpl implements ComprehensiveTestDataP
             throw new BusinessException("INVALID_PARAMETER", "车道编号不能为空");
         }
 
-        List<LaneParam> lanes = getLanesByCrossId(crossId);
-        return lanes.stream()
-                .filter(lane -> laneNo.equals(String.valueOf(lane.getLaneNo())))
-                .findFirst()
-                .orElseThrow(() -> new DataNotFoundException(
-                        String.format("未找到路口%s的车道%s", crossId, laneNo)));
+        return found(currentIndex().laneByCrossIdAndNo.get(DataIndex.key(crossId, laneNo)),
+                () -> String.format("未找到路口%s的车道%s", crossId, laneNo));
     }
 
     // ==================== 行人管理相关实现 ====================
@@ -638,16 +587,16 @@ public class ComprehensiveTestDataProviderImpl implements ComprehensiveTestDataP
     @Override
     @SuppressWarnings("unchecked")
     public List<PedestrianParam> getAllPedestrians() throws BusinessException {
-        ensureInitialized();
+        DataSnapshot data = currentSnapshot();
 
         String cacheKey = "AllPedestrians";
-        if (dataCache.containsKey(cacheKey)) {
-            return (List<PedestrianParam>) dataCache.get(cacheKey);
+        if (data.cache.containsKey(cacheKey)) {
+            return (List<PedestrianParam>) data.cache.get(cacheKey);
         }
 
         try {
             List<PedestrianParam> pedestrians = new ArrayList<>();
-            JsonNode pedestrianArray = testDataRoot.get("PedestrianParam");
+            JsonNode pedestrianArray = data.root.get("PedestrianParam");
 
             if (pedestrianArray != null && pedestrianArray.isArray()) {
                 for (JsonNode pedestrianNode : pedestrianArray) {
@@ -656,7 +605,7 @@ public class ComprehensiveTestDataProviderImpl implements ComprehensiveTestDataP
                 }
             }
 
-            dataCache.put(cacheKey, pedestrians);
+            data.cache.put(cacheKey, pedestrians);
             return pedestrians;
         } catch (Exception e) {
             throw new BusinessException("PARSE_ERROR", "解析行人参数失败: " + e.getMessage());
@@ -669,10 +618,7 @@ public class ComprehensiveTestDataProviderImpl implements ComprehensiveTestDataP
             throw new BusinessException("INVALID_PARAMETER", "路口ID不能为空");
         }
 
-        List<PedestrianParam> allPedestrians = getAllPedestrians();
-        return allPedestrians.stream()
-                .filter(pedestrian -> crossId.equals(pedestrian.getCrossId()))
-                .collect(Collectors.toList());
+        return listOf(currentIndex().pedestriansByCrossId, crossId);
     }
 
     @Override
@@ -684,12 +630,8 @@ public class ComprehensiveTestDataProviderImpl implements ComprehensiveTestDataP
             throw new BusinessException("INVALID_PARAMETER", "行人编号不能为空");
         }
 
-        List<PedestrianParam> pedestrians = getPedestriansByCrossId(crossId);
-        return pedestrians.stream()
-                .filter(pedestrian -> pedestrianNo.equals(String.valueOf(pedestrian.getPedestrianNo())))
-                .findFirst()
-                .orElseThrow(() -> new DataNotFoundException(
-                        String.format("未找到路口%s的行人%s", crossId, pedestrianNo)));
+        return found(currentIndex().pedestrianByCrossIdAndNo.get(DataIndex.key(crossId, pedestrianNo)),
+                () -> String.format("未找到路口%s的行人%s", crossId, pedestrianNo));
     }
 
     // ==================== 信号组管理相关实现 ====================
@@ -697,16 +639,16 @@ public class ComprehensiveTestDataProviderImpl implements ComprehensiveTestDataP
     @Override
     @SuppressWarnings("unchecked")
     public List<SignalGroupParam> getAllSignalGroups() throws BusinessException {
-        ensureInitialized();
+        DataSnapshot data = currentSnapshot();
 
         String cacheKey = "AllSignalGroups";
-        if (dataCache.containsKey(cacheKey)) {
-            return (List<SignalGroupParam>) dataCache.get(cacheKey);
+        if (data.cache.containsKey(cacheKey)) {
+            return (List<SignalGroupParam>) data.cache.get(cacheKey);
         }
 
         try {
             List<SignalGroupParam> signalGroups = new ArrayList<>();
-            JsonNode signalGroupArray = testDataRoot.get("SignalGroupParam");
+            JsonNode signalGroupArray = data.root.get("SignalGroupParam");
 
             if (signalGroupArray != null && signalGroupArray.isArray()) {
                 for (JsonNode signalGroupNode : signalGroupArray) {
@@ -715,7 +657,7 @@ public class ComprehensiveTestDataProviderImpl implements ComprehensiveTestDataP
                 }
             }
 
-            dataCache.put(cacheKey, signalGroups);
+            data.cache.put(cacheKey, signalGroups);
             return signalGroups;
         } catch (Exception e) {
             throw new BusinessException("PARSE_ERROR", "解析信号组参数失败: " + e.getMessage());
@@ -728,10 +670,7 @@ public class ComprehensiveTestDataProviderImpl implements ComprehensiveTestDataP
             throw new BusinessException("INVALID_PARAMETER", "路口ID不能为空");
         }
 
-        List<SignalGroupParam> allSignalGroups = getAllSignalGroups();
-        return allSignalGroups.stream()
-                .filter(signalGroup -> crossId.equals(signalGroup.getCrossId()))
-                .collect(Collectors.toList());
+        return listOf(currentIndex().signalGroupsByCrossId, crossId);
     }
 
     @Override
@@ -743,12 +682,8 @@ public class ComprehensiveTestDataProviderImpl implements ComprehensiveTestDataP
             throw new BusinessException("INVALID_PARAMETER", "信号组编号不能为空");
         }
 
-        List<SignalGroupParam> signalGroups = getSignalGroupsByCrossId(crossId);
-        return signalGroups.stream()
-                .filter(signalGroup -> signalGroupNo.equals(String.valueOf(signalGroup.getSignalGroupNo())))
-                .findFirst()
-                .orElseThrow(() -> new DataNotFoundException(
-                        String.format("未找到路口%s的信号组%s", crossId, signalGroupNo)));
+        return found(currentIndex().signalGroupByCrossIdAndNo.get(DataIndex.key(crossId, signalGroupNo)),
+                () -> String.format("未找到路口%s的信号组%s", crossId, signalGroupNo));
     }
 
     // ==================== 阶段管理相关实现 ====================
@@ -756,16 +691,16 @@ public class ComprehensiveTestDataProviderImpl implements ComprehensiveTestDataP
     @Override
     @SuppressWarnings("unchecked")
     public List<StageParam> getAllStages() throws BusinessException {
-        ensureInitialized();
+        DataSnapshot data = currentSnapshot();
 
         String cacheKey = "AllStages";
-        if (dataCache.containsKey(cacheKey)) {
-            return (List<StageParam>) dataCache.get(cacheKey);
+        if (data.cache.containsKey(cacheKey)) {
+            return (List<StageParam>) data.cache.get(cacheKey);
         }
 
         try {
             List<StageParam> stages = new ArrayList<>();
-            JsonNode stageArray = testDataRoot.get("StageParam");
+            JsonNode stageArray = data.root.get("StageParam");
 
             if (stageArray != null && stageArray.isArray()) {
                 for (JsonNode stageNode : stageArray) {
@@ -774,7 +709,7 @@ public class ComprehensiveTestDataProviderImpl implements ComprehensiveTestDataP
                 }
             }
 
-            dataCache.put(cacheKey, stages);
+            data.cache.put(cacheKey, stages);
             return stages;
         } catch (Exception e) {
             throw new BusinessException("PARSE_ERROR", "解析阶段参数失败: " + e.getMessage());
@@ -787,10 +722,7 @@ public class ComprehensiveTestDataProviderImpl implements ComprehensiveTestDataP
             throw new BusinessException("INVALID_PARAMETER", "路口ID不能为空");
         }
 
-        List<StageParam> allStages = getAllStages();
-        return allStages.stream()
-                .filter(stage -> crossId.equals(stage.getCrossId()))
-                .collect(Collectors.toList());
+        return listOf(currentIndex().stagesByCrossId, crossId);
     }
 
     @Override
@@ -802,12 +734,8 @@ public class ComprehensiveTestDataProviderImpl implements ComprehensiveTestDataP
             throw new BusinessException("INVALID_PARAMETER", "阶段编号不能为空");
         }
 
-        List<StageParam> stages = getStagesByCrossId(crossId);
-        return stages.stream()
-                .filter(stage -> stageNo.equals(String.valueOf(stage.getStageNo())))
-                .findFirst()
-                .orElseThrow(() -> new DataNotFoundException(
-                        String.format("未找到路口%s的阶段%s", crossId, stageNo)));
+        return found(currentIndex().stageByCrossIdAndNo.get(DataIndex.key(crossId, stageNo)),
+                () -> String.format("未找到路口%s的阶段%s", crossId, stageNo));
     }
 
     // ==================== 配时方案管理相关实现 ====================
@@ -815,16 +743,16 @@ public class ComprehensiveTestDataProviderImpl implements ComprehensiveTestDataP
     @Override
     @SuppressWarnings("unchecked")
     public List<PlanParam> getAllPlans() throws BusinessException {
-        ensureInitialized();
+        DataSnapshot data = currentSnapshot();
 
         String cacheKey = "AllPlans";
-        if (dataCache.containsKey(cacheKey)) {
-            return (List<PlanParam>) dataCache.get(cacheKey);
+        if (data.cache.containsKey(cacheKey)) {
+            return (List<PlanParam>) data.cache.get(cacheKey);
         }
 
         try {
             List<PlanParam> plans = new ArrayList<>();
-            JsonNode planArray = testDataRoot.get("PlanParam");
+            JsonNode planArray = data.root.get("PlanParam");
 
             if (planArray != null && planArray.isArray()) {
                 for (JsonNode planNode : planArray) {
@@ -833,7 +761,7 @@ public class ComprehensiveTestDataProviderImpl implements ComprehensiveTestDataP
                 }
             }
 
-            dataCache.put(cacheKey, plans);
+            data.cache.put(cacheKey, plans);
             return plans;
         } catch (Exception e) {
             throw new BusinessException("PARSE_ERROR", "解析配时方案参数失败: " + e.getMessage());
@@ -846,10 +774,7 @@ public class ComprehensiveTestDataProviderImpl implements ComprehensiveTestDataP
             throw new BusinessException("INVALID_PARAMETER", "路口ID不能为空");
         }
 
-        List<PlanParam> allPlans = getAllPlans();
-        return allPlans.stream()
-                .filter(plan -> crossId.equals(plan.getCrossId()))
-                .collect(Collectors.toList());
+        return listOf(currentIndex().plansByCrossId, crossId);
     }
 
     @Override
@@ -861,12 +786,8 @@ public class ComprehensiveTestDataProviderImpl implements ComprehensiveTestDataP
             throw new BusinessException("INVALID_PARAMETER", "配时方案编号不能为空");
         }
 
-        List<PlanParam> plans = getPlansByCrossId(crossId);
-        return plans.stream()
-                .filter(plan -> planNo.equals(String.valueOf(plan.getPlanNo())))
-                .findFirst()
-                .orElseThrow(() -> new DataNotFoundException(
-                        String.format("未找到路口%s的配时方案%s", crossId, planNo)));
+        return found(currentIndex().planByCrossIdAndNo.get(DataIndex.key(crossId, planNo)),
+                () -> String.format("未找到路口%s的配时方案%s", crossId, planNo));
     }
 
     // ==================== 日计划管理相关实现 ====================
@@ -874,16 +795,16 @@ public class ComprehensiveTestDataProviderImpl implements ComprehensiveTestDataP
     @Override
     @SuppressWarnings("unchecked")
     public List<DayPlanParam> getAllDayPlans() throws BusinessException {
-        ensureInitialized();
+        DataSnapshot data = currentSnapshot();
 
         String cacheKey = "AllDayPlans";
-        if (dataCache.containsKey(cacheKey)) {
-            return (List<DayPlanParam>) dataCache.get(cacheKey);
+        if (data.cache.containsKey(cacheKey)) {
+            return (List<DayPlanParam>) data.cache.get(cacheKey);
         }
 
         try {
             List<DayPlanParam> dayPlans = new ArrayList<>();
-            JsonNode dayPlanArray = testDataRoot.get("DayPlan");
+            JsonNode dayPlanArray = data.root.get("DayPlan");
 
             if (dayPlanArray != null && dayPlanArray.isArray()) {
                 for (JsonNode dayPlanNode : dayPlanArray) {
@@ -892,7 +813,7 @@ public class ComprehensiveTestDataProviderImpl implements ComprehensiveTestDataP
                 }
             }
 
-            dataCache.put(cacheKey, dayPlans);
+            data.cache.put(cacheKey, dayPlans);
             return dayPlans;
         } catch (Exception e) {
             throw new BusinessException("PARSE_ERROR", "解析日计划参数失败: " + e.getMessage());
@@ -905,10 +826,7 @@ public class ComprehensiveTestDataProviderImpl implements ComprehensiveTestDataP
             throw new BusinessException("INVALID_PARAMETER", "路口ID不能为空");
         }
 
-        List<DayPlanParam> allDayPlans = getAllDayPlans();
-        return allDayPlans.stream()
-                .filter(dayPlan -> crossId.equals(dayPlan.getCrossId()))
-                .collect(Collectors.toList());
+        return listOf(currentIndex().dayPlansByCrossId, crossId);
     }
 
     @Override
@@ -920,12 +838,8 @@ public class ComprehensiveTestDataProviderImpl implements ComprehensiveTestDataP
             throw new BusinessException("INVALID_PARAMETER", "日计划编号不能为空");
         }
 
-        List<DayPlanParam> dayPlans = getDayPlansByCrossId(crossId);
-        return dayPlans.stream()
-                .filter(dayPlan -> dayPlanNo.equals(String.valueOf(dayPlan.getDayPlanNo())))
-                .findFirst()
-                .orElseThrow(() -> new DataNotFoundException(
-                        String.format("未找到路口%s的日计划%s", crossId, dayPlanNo)));
+        return found(currentIndex().dayPlanByCrossIdAndNo.get(DataIndex.key(crossId, dayPlanNo)),
+                () -> String.format("未找到路口%s的日计划%s", crossId, dayPlanNo));
     }
 
     // ==================== 调度管理相关实现 ====================
@@ -933,16 +847,16 @@ public class ComprehensiveTestDataProviderImpl implements ComprehensiveTestDataP
     @Override
     @SuppressWarnings("unchecked")
     public List<ScheduleParam> getAllSchedules() throws BusinessException {
-        ensureInitialized();
+        DataSnapshot data = currentSnapshot();
 
         String cacheKey = "AllSchedules";
-        if (dataCache.containsKey(cacheKey)) {
-            return (List<ScheduleParam>) dataCache.get(cacheKey);
+        if (data.cache.containsKey(cacheKey)) {
+            return (List<ScheduleParam>) data.cache.get(cacheKey);
         }
 
         try {
             List<ScheduleParam> schedules = new ArrayList<>();
-            JsonNode scheduleArray = testDataRoot.get("Schedule");
+            JsonNode scheduleArray = data.root.get("Schedule");
 
             if (scheduleArray != null && scheduleArray.isArray()) {
                 for (JsonNode scheduleNode : scheduleArray) {
@@ -951,7 +865,7 @@ public class ComprehensiveTestDataProviderImpl implements ComprehensiveTestDataP
                 }
             }
 
-            dataCache.put(cacheKey, schedules);
+            data.cache.put(cacheKey, schedules);
             return schedules;
         } catch (Exception e) {
             throw new BusinessException("PARSE_ERROR", "解析调度参数失败: " + e.getMessage());
@@ -964,10 +878,7 @@ public class ComprehensiveTestDataProviderImpl implements ComprehensiveTestDataP
             throw new BusinessException("INVALID_PARAMETER", "路口ID不能为空");
         }
 
-        List<ScheduleParam> allSchedules = getAllSchedules();
-        return allSchedules.stream()
-                .filter(schedule -> crossId.equals(schedule.getCrossId()))
-                .collect(Collectors.toList());
+        return listOf(currentIndex().schedulesByCrossId, crossId);
     }
 
     @Override
@@ -979,27 +890,23 @@ public class ComprehensiveTestDataProviderImpl implements ComprehensiveTestDataP
             throw new BusinessException("INVALID_PARAMETER", "调度编号不能为空");
         }
 
-        List<ScheduleParam> schedules = getSchedulesByCrossId(crossId);
-        return schedules.stream()
-                .filter(schedule -> scheduleNo.equals(String.valueOf(schedule.getScheduleNo())))
-                .findFirst()
-                .orElseThrow(() -> new DataNotFoundException(
-                        String.format("未找到路口%s的调度%s", crossId, scheduleNo)));
+        return found(currentIndex().scheduleByCrossIdAndNo.get(DataIndex.key(crossId, scheduleNo)),
+                () -> String.format("未找到路口%s的调度%s", crossId, scheduleNo));
     }
 
     @Override
     @SuppressWarnings("unchecked")
     public List<CrossState> getAllCrossStates() throws BusinessException {
-        ensureInitialized();
+        DataSnapshot data = currentSnapshot();
 
         String cacheKey = "AllCrossStates";
-        if (dataCache.containsKey(cacheKey)) {
-            return (List<CrossState>) dataCache.get(cacheKey);
+        if (data.cache.containsKey(cacheKey)) {
+            return (List<CrossState>) data.cache.get(cacheKey);
         }
 
         try {
             List<CrossState> crossStates = new ArrayList<>();
-            JsonNode runStatusNode = testDataRoot.get("RunStatus");
+            JsonNode runStatusNode = data.root.get("RunStatus");
             if (runStatusNode != null) {
                 JsonNode crossStateArray = runStatusNode.get("CrossState");
                 if (crossStateArray != null && crossStateArray.isArray()) {
@@ -1010,7 +917,7 @@ public class ComprehensiveTestDataProviderImpl implements ComprehensiveTestDataP
                 }
             }
 
-            dataCache.put(cacheKey, crossStates);
+            data.cache.put(cacheKey, crossStates);
             return crossStates;
         } catch (Exception e) {
             throw new BusinessException("PARSE_ERROR", "解析路口状态失败: " + e.getMessage());
@@ -1024,26 +931,22 @@ public class ComprehensiveTestDataProviderImpl implements ComprehensiveTestDataP
             throw new BusinessException("INVALID_PARAMETER", "路口ID不能为空");
         }
 
-        List<CrossState> crossStates = getAllCrossStates();
-        return crossStates.stream()
-                .filter(crossState -> crossId.equals(crossState.getCrossId()))
-                .findFirst()
-                .orElseThrow(() -> new DataNotFoundException("未找到路口状态: " + crossId));
+        return found(currentIndex().crossStateById.get(crossId), () -> "未找到路口状态: " + crossId);
     }
 
     @Override
     @SuppressWarnings("unchecked")
     public List<SignalControllerError> getAllSignalControllerErrors() throws BusinessException {
-        ensureInitialized();
+        DataSnapshot data = currentSnapshot();
 
         String cacheKey = "AllSignalControllerErrors";
-        if (dataCache.containsKey(cacheKey)) {
-            return (List<SignalControllerError>) dataCache.get(cacheKey);
+        if (data.cache.containsKey(cacheKey)) {
+            return (List<SignalControllerError>) data.cache.get(cacheKey);
         }
 
         try {
             List<SignalControllerError> errors = new ArrayList<>();
-            JsonNode runStatusNode = testDataRoot.get("RunStatus");
+            JsonNode runStatusNode = data.root.get("RunStatus");
             if (runStatusNode != null) {
                 JsonNode errorArray = runStatusNode.get("SignalControllerError");
                 if (errorArray != null && errorArray.isArray()) {
@@ -1054,7 +957,7 @@ public class ComprehensiveTestDataProviderImpl implements ComprehensiveTestDataP
                 }
             }
 
-            dataCache.put(cacheKey, errors);
+            data.cache.put(cacheKey, errors);
             return errors;
         } catch (Exception e) {
             throw new BusinessException("PARSE_ERROR", "解析信号机故障信息失败: " + e.getMessage());
@@ -1067,25 +970,22 @@ public class ComprehensiveTestDataProviderImpl implements ComprehensiveTestDataP
             throw new BusinessException("INVALID_PARAMETER", "信号机ID不能为空");
         }
 
-        List<SignalControllerError> allErrors = getAllSignalControllerErrors();
-        return allErrors.stream()
-                .filter(error -> signalControllerId.equals(error.getSignalControllerId()))
-                .collect(Collectors.toList());
+        return listOf(currentIndex().signalControllerErrorsByControllerId, signalControllerId);
     }
 
     @Override
     @SuppressWarnings("unchecked")
     public List<CrossCtrlInfo> getAllCrossCtrlInfos() throws BusinessException {
-        ensureInitialized();
+        DataSnapshot data = currentSnapshot();
 
         String cacheKey = "AllCrossCtrlInfos";
-        if (dataCache.containsKey(cacheKey)) {
-            return (List<CrossCtrlInfo>) dataCache.get(cacheKey);
+        if (data.cache.containsKey(cacheKey)) {
+            return (List<CrossCtrlInfo>) data.cache.get(cacheKey);
         }
 
         try {
             List<CrossCtrlInfo> ctrlInfos = new ArrayList<>();
-            JsonNode runStatusNode = testDataRoot.get("RunStatus");
+            JsonNode runStatusNode = data.root.get("RunStatus");
             if (runStatusNode != null) {
                 JsonNode ctrlInfoArray = runStatusNode.get("CrossCtrlInfo");
                 if (ctrlInfoArray != null && ctrlInfoArray.isArray()) {
@@ -1096,7 +996,7 @@ public class ComprehensiveTestDataProviderImpl implements ComprehensiveTestDataP
                 }
             }
 
-            dataCache.put(cacheKey, ctrlInfos);
+            data.cache.put(cacheKey, ctrlInfos);
             return ctrlInfos;
         } catch (Exception e) {
             throw new BusinessException("PARSE_ERROR", "解析路口控制信息失败: " + e.getMessage());
@@ -1109,26 +1009,22 @@ public class ComprehensiveTestDataProviderImpl implements ComprehensiveTestDataP
             throw new BusinessException("INVALID_PARAMETER", "路口ID不能为空");
         }
 
-        List<CrossCtrlInfo> ctrlInfos = getAllCrossCtrlInfos();
-        return ctrlInfos.stream()
-                .filter(ctrlInfo -> crossId.equals(ctrlInfo.getCrossId()))
-                .findFirst()
-                .orElseThrow(() -> new DataNotFoundException("未找到路口控制信息: " + crossId));
+        return found(currentIndex().crossCtrlInfoById.get(crossId), () -> "未找到路口控制信息: " + crossId);
     }
 
     @Override
     @SuppressWarnings("unchecked")
     public List<CrossCycle> getAllCrossCycles() throws BusinessException {
-        ensureInitialized();
+        DataSnapshot data = currentSnapshot();
 
         String cacheKey = "AllCrossCycles";
-        if (dataCache.containsKey(cacheKey)) {
-            return (List<CrossCycle>) dataCache.get(cacheKey);
+        if (data.cache.containsKey(cacheKey)) {
+            return (List<CrossCycle>) data.cache.get(cacheKey);
         }
 
         try {
             List<CrossCycle> cycles = new ArrayList<>();
-            JsonNode runStatusNode = testDataRoot.get("RunStatus");
+            JsonNode runStatusNode = data.root.get("RunStatus");
             if (runStatusNode != null) {
                 JsonNode cycleArray = runStatusNode.get("CrossCycle");
                 if (cycleArray != null && cycleArray.isArray()) {
@@ -1139,7 +1035,7 @@ public class ComprehensiveTestDataProviderImpl implements ComprehensiveTestDataP
                 }
             }
 
-            dataCache.put(cacheKey, cycles);
+            data.cache.put(cacheKey, cycles);
             return cycles;
         } catch (Exception e) {
             throw new BusinessException("PARSE_ERROR", "解析路口周期信息失败: " + e.getMessage());
@@ -1152,25 +1048,21 @@ public class ComprehensiveTestDataProviderImpl implements ComprehensiveTestDataP
             throw new BusinessException("INVALID_PARAMETER", "路口ID不能为空");
         }
 
-        List<CrossCycle> cycles = getAllCrossCycles();
-        return cycles.stream()
-                .filter(cycle -> crossId.equals(cycle.getCrossId()))
-                .findFirst()
-                .orElseThrow(() -> new DataNotFoundException("未找到路口周期信息: " + crossId));
+        return found(currentIndex().crossCycleById.get(crossId), () -> "未找到路口周期信息: " + crossId);
     }
 
     @Override
     public List<CrossStage> getAllCrossStages() throws BusinessException {
-        ensureInitialized();
+        DataSnapshot data = currentSnapshot();
 
         String cacheKey = "AllCrossStages";
-        if (dataCache.containsKey(cacheKey)) {
-            return (List<CrossStage>) dataCache.get(cacheKey);
+        if (data.cache.containsKey(cacheKey)) {
+            return (List<CrossStage>) data.cache.get(cacheKey);
         }
 
         try {
             List<CrossStage> stages = new ArrayList<>();
-            JsonNode runStatusNode = testDataRoot.get("RunStatus");
+            JsonNode runStatusNode = data.root.get("RunStatus");
             if (runStatusNode != null) {
                 JsonNode stageArray = runStatusNode.get("CrossStage");
                 if (stageArray != null && stageArray.isArray()) {
@@ -1181,7 +1073,7 @@ public class ComprehensiveTestDataProviderImpl implements ComprehensiveTestDataP
                 }
             }
 
-            dataCache.put(cacheKey, stages);
+            data.cache.put(cacheKey, stages);
             return stages;
         } catch (Exception e) {
             throw new BusinessException("PARSE_ERROR", "解析路口阶段信息失败: " + e.getMessage());
@@ -1194,26 +1086,22 @@ public class ComprehensiveTestDataProviderImpl implements ComprehensiveTestDataP
             throw new BusinessException("INVALID_PARAMETER", "路口ID不能为空");
         }
 
-        List<CrossStage> stages = getAllCrossStages();
-        return stages.stream()
-                .filter(stage -> crossId.equals(stage.getCrossId()))
-                .findFirst()
-                .orElseThrow(() -> new DataNotFoundException("未找到路口阶段信息: " + crossId));
+        return found(currentIndex().crossStageById.get(crossId), () -> "未找到路口阶段信息: " + crossId);
     }
 
     @Override
     @SuppressWarnings("unchecked")
     public List<CrossSignalGroupStatus> getAllCrossSignalGroupStatus() throws BusinessException {
-        ensureInitialized();
+        DataSnapshot data = currentSnapshot();
 
         String cacheKey = "AllCrossSignalGroupStatus";
-        if (dataCache.containsKey(cacheKey)) {
-            return (List<CrossSignalGroupStatus>) dataCache.get(cacheKey);
+        if (data.cache.containsKey(cacheKey)) {
+            return (List<CrossSignalGroupStatus>) data.cache.get(cacheKey);
         }
 
         try {
             List<CrossSignalGroupStatus> statusList = new ArrayList<>();
-            JsonNode runStatusNode = testDataRoot.get("RunStatus");
+            JsonNode runStatusNode = data.root.get("RunStatus");
             if (runStatusNode != null) {
                 JsonNode statusArray = runStatusNode.get("CrossSignalGroupStatus");
                 if (statusArray != null && statusArray.isArray()) {
@@ -1224,7 +1112,7 @@ public class ComprehensiveTestDataProviderImpl implements ComprehensiveTestDataP
                 }
             }
 
-            dataCache.put(cacheKey, statusList);
+            data.cache.put(cacheKey, statusList);
             return statusList;
         } catch (Exception e) {
             throw new BusinessException("PARSE_ERROR", "解析路口信号组状态失败: " + e.getMessage());
@@ -1237,26 +1125,22 @@ public class ComprehensiveTestDataProviderImpl implements ComprehensiveTestDataP
             throw new BusinessException("INVALID_PARAMETER", "路口ID不能为空");
         }
 
-        List<CrossSignalGroupStatus> statusList = getAllCrossSignalGroupStatus();
-        return statusList.stream()
-                .filter(status -> crossId.equals(status.getCrossId()))
-                .findFirst()
-                .orElseThrow(() -> new DataNotFoundException("未找到路口信号组状态: " + crossId));
+        return found(currentIndex().crossSignalGroupStatusById.get(crossId), () -> "未找到路口信号组状态: " + crossId);
     }
 
     @Override
     @SuppressWarnings("unchecked")
     public List<CrossTrafficData> getAllCrossTrafficData() throws BusinessException {
-        ensureInitialized();
+        DataSnapshot data = currentSnapshot();
 
         String cacheKey = "AllCrossTrafficData";
-        if (dataCache.containsKey(cacheKey)) {
-            return (List<CrossTrafficData>) dataCache.get(cacheKey);
+        if (data.cache.containsKey(cacheKey)) {
+            return (List<CrossTrafficData>) data.cache.get(cacheKey);
         }
 
         try {
             List<CrossTrafficData> trafficDataList = new ArrayList<>();
-            JsonNode runStatusNode = testDataRoot.get("RunStatus");
+            JsonNode runStatusNode = data.root.get("RunStatus");
             if (runStatusNode != null) {
                 JsonNode trafficDataArray = runStatusNode.get("CrossTrafficData");
                 if (trafficDataArray != null && trafficDataArray.isArray()) {
@@ -1267,7 +1151,7 @@ public class ComprehensiveTestDataProviderImpl implements ComprehensiveTestDataP
                 }
             }
 
-            dataCache.put(cacheKey, trafficDataList);
+            data.cache.put(cacheKey, trafficDataList);
             return trafficDataList;
         } catch (Exception e) {
             throw new BusinessException("PARSE_ERROR", "解析路口交通流数据失败: " + e.getMessage());
@@ -1280,11 +1164,7 @@ public class ComprehensiveTestDataProviderImpl implements ComprehensiveTestDataP
             throw new BusinessException("INVALID_PARAMETER", "路口ID不能为空");
         }
 
-        List<CrossTrafficData> trafficDataList = getAllCrossTrafficData();
-        return trafficDataList.stream()
-                .filter(trafficData -> crossId.equals(trafficData.getCrossId()))
-                .findFirst()
-                .orElseThrow(() -> new DataNotFoundException("未找到路口交通流数据: " + crossId));
+        return found(currentIndex().crossTrafficDataById.get(crossId), () -> "未找到路口交通流数据: " + crossId);
     }
 
     @Override
@@ -1292,25 +1172,22 @@ public class ComprehensiveTestDataProviderImpl implements ComprehensiveTestDataP
         if (crossId == null || crossId.trim().isEmpty()) {
             throw new BusinessException("INVALID_PARAMETER", "路口ID不能为空");
         }
-        List<CrossTrafficData> trafficDataList = getAllCrossTrafficData();
-        return trafficDataList.stream()
-                .filter(trafficData -> crossId.equals(trafficData.getCrossId()))
-                .collect(Collectors.toList());
+        return listOf(currentIndex().crossTrafficDataByCrossId, crossId);
     }
 
     @Override
     @SuppressWarnings("unchecked")
     public List<StageTrafficData> getAllStageTrafficData() throws BusinessException {
-        ensureInitialized();
+        DataSnapshot data = currentSnapshot();
 
         String cacheKey = "AllStageTrafficData";
-        if (dataCache.containsKey(cacheKey)) {
-            return (List<StageTrafficData>) dataCache.get(cacheKey);
+        if (data.cache.containsKey(cacheKey)) {
+            return (List<StageTrafficData>) data.cache.get(cacheKey);
         }
 
         try {
             List<StageTrafficData> stageTrafficDataList = new ArrayList<>();
-            JsonNode runStatusNode = testDataRoot.get("RunStatus");
+            JsonNode runStatusNode = data.root.get("RunStatus");
             if (runStatusNode != null) {
                 JsonNode stageTrafficDataArray = runStatusNode.get("StageTrafficData");
                 if (stageTrafficDataArray != null && stageTrafficDataArray.isArray()) {
@@ -1321,7 +1198,7 @@ public class ComprehensiveTestDataProviderImpl implements ComprehensiveTestDataP
                 }
             }
 
-            dataCache.put(cacheKey, stageTrafficDataList);
+            data.cache.put(cacheKey, stageTrafficDataList);
             return stageTrafficDataList;
         } catch (Exception e) {
             throw new BusinessException("PARSE_ERROR", "解析阶段交通流数据失败: " + e.getMessage());
@@ -1334,25 +1211,22 @@ public class ComprehensiveTestDataProviderImpl implements ComprehensiveTestDataP
             throw new BusinessException("INVALID_PARAMETER", "路口ID不能为空");
         }
 
-        List<StageTrafficData> allStageTrafficData = getAllStageTrafficData();
-        return allStageTrafficData.stream()
-                .filter(stageTrafficData -> crossId.equals(stageTrafficData.getCrossId()))
-                .collect(Collectors.toList());
+        return listOf(currentIndex().stageTrafficDataByCrossId, crossId);
     }
 
     @Override
     @SuppressWarnings("unchecked")
     public List<VarLaneStatus> getAllVarLaneStatus() throws BusinessException {
-        ensureInitialized();
+        DataSnapshot data = currentSnapshot();
 
         String cacheKey = "AllVarLaneStatus";
-        if (dataCache.containsKey(cacheKey)) {
-            return (List<VarLaneStatus>) dataCache.get(cacheKey);
+        if (data.cache.containsKey(cacheKey)) {
+            return (List<VarLaneStatus>) data.cache.get(cacheKey);
         }
 
         try {
             List<VarLaneStatus> varLaneStatusList = new ArrayList<>();
-            JsonNode runStatusNode = testDataRoot.get("RunStatus");
+            JsonNode runStatusNode = data.root.get("RunStatus");
             if (runStatusNode != null) {
                 JsonNode varLaneStatusArray = runStatusNode.get("VarLaneStatus");
                 if (varLaneStatusArray != null && varLaneStatusArray.isArray()) {
@@ -1363,7 +1237,7 @@ public class ComprehensiveTestDataProviderImpl implements ComprehensiveTestDataP
                 }
             }
 
-            dataCache.put(cacheKey, varLaneStatusList);
+            data.cache.put(cacheKey, varLaneStatusList);
             return varLaneStatusList;
         } catch (Exception e) {
             throw new BusinessException("PARSE_ERROR", "解析可变车道状态失败: " + e.getMessage());
@@ -1376,28 +1250,25 @@ public class ComprehensiveTestDataProviderImpl implements ComprehensiveTestDataP
             throw new BusinessException("INVALID_PARAMETER", "路口ID不能为空");
         }
 
-        List<VarLaneStatus> allVarLaneStatus = getAllVarLaneStatus();
-        return allVarLaneStatus.stream()
-                .filter(varLaneStatus -> crossId.equals(varLaneStatus.getCrossId()))
-                .collect(Collectors.toList());
+        return listOf(currentIndex().varLaneStatusByCrossId, crossId);
     }
 
     @Override
     public RouteCtrlInfo getRouteCtrlInfo() throws BusinessException {
-        ensureInitialized();
+        DataSnapshot data = currentSnapshot();
 
         String cacheKey = "RouteCtrlInfo";
-        if (dataCache.containsKey(cacheKey)) {
-            return (RouteCtrlInfo) dataCache.get(cacheKey);
+        if (data.cache.containsKey(cacheKey)) {
+            return (RouteCtrlInfo) data.cache.get(cacheKey);
         }
 
         try {
-            JsonNode runStatusNode = testDataRoot.get("RunStatus");
+            JsonNode runStatusNode = data.root.get("RunStatus");
             if (runStatusNode != null) {
                 JsonNode routeCtrlInfoNode = runStatusNode.get("RouteCtrlInfo");
                 if (routeCtrlInfoNode != null) {
                     RouteCtrlInfo routeCtrlInfo = parseRouteCtrlInfo(routeCtrlInfoNode);
-                    dataCache.put(cacheKey, routeCtrlInfo);
+                    data.cache.put(cacheKey, routeCtrlInfo);
                     return routeCtrlInfo;
                 }
             }
@@ -1424,20 +1295,20 @@ public class ComprehensiveTestDataProviderImpl implements ComprehensiveTestDataP
 
     @Override
     public RouteSpeed getRouteSpeed() throws BusinessException {
-        ensureInitialized();
+        DataSnapshot data = currentSnapshot();
 
         String cacheKey = "RouteSpeed";
-        if (dataCache.containsKey(cacheKey)) {
-            return (RouteSpeed) dataCache.get(cacheKey);
+        if (data.cache.containsKey(cacheKey)) {
+            return (RouteSpeed) data.cache.get(cacheKey);
         }
 
         try {
-            JsonNode runStatusNode = testDataRoot.get("RunStatus");
+            JsonNode runStatusNode = data.root.get("RunStatus");
             if (runStatusNode != null) {
                 JsonNode routeSpeedNode = runStatusNode.get("RouteSpeed");
                 if (routeSpeedNode != null) {
                     RouteSpeed routeSpeed = parseRouteSpeed(routeSpeedNode);
-                    dataCache.put(cacheKey, routeSpeed);
+                    data.cache.put(cacheKey, routeSpeed);
                     return routeSpeed;
                 }
             }
@@ -1465,16 +1336,16 @@ public class ComprehensiveTestDataProviderImpl implements ComprehensiveTestDataP
     @Override
     @SuppressWarnings("unchecked")
     public List<SCDoorStatus> getAllSCDoorStatus() throws BusinessException {
-        ensureInitialized();
+        DataSnapshot data = currentSnapshot();
 
         String cacheKey = "AllSCDoorStatus";
-        if (dataCache.containsKey(cacheKey)) {
-            return (List<SCDoorStatus>) dataCache.get(cacheKey);
+        if (data.cache.containsKey(cacheKey)) {
+            return (List<SCDoorStatus>) data.cache.get(cacheKey);
         }
 
         try {
             List<SCDoorStatus> doorStatusList = new ArrayList<>();
-            JsonNode runStatusNode = testDataRoot.get("RunStatus");
+            JsonNode runStatusNode = data.root.get("RunStatus");
             if (runStatusNode != null) {
                 JsonNode doorStatusArray = runStatusNode.get("SCDoorStatus");
                 if (doorStatusArray != null && doorStatusArray.isArray()) {
@@ -1485,7 +1356,7 @@ public class ComprehensiveTestDataProviderImpl implements ComprehensiveTestDataP
                 }
             }
 
-            dataCache.put(cacheKey, doorStatusList);
+            data.cache.put(cacheKey, doorStatusList);
             return doorStatusList;
         } catch (Exception e) {
             throw new BusinessException("PARSE_ERROR", "解析信号机柜门状态失败: " + e.getMessage());
@@ -1498,34 +1369,157 @@ public class ComprehensiveTestDataProviderImpl implements ComprehensiveTestDataP
             throw new BusinessException("INVALID_PARAMETER", "信号机ID不能为空");
         }
 
-        List<SCDoorStatus> doorStatusList = getAllSCDoorStatus();
-        return doorStatusList.stream()
-                .filter(doorStatus -> signalControllerId.equals(doorStatus.getSignalControllerId()))
-                .findFirst()
-                .orElseThrow(() -> new DataNotFoundException("未找到信号机柜门状态: " + signalControllerId));
+        return found(currentIndex().scDoorStatusByControllerId.get(signalControllerId), () -> "未找到信号机柜门状态: " + signalControllerId);
     }
     // ==================== 通用方法实现 ====================
 
     // ==================== 私有辅助方法 ====================
 
-    private void ensureInitialized() throws BusinessException {
-        if (!initialized) {
+    private DataSnapshot currentSnapshot() throws BusinessException {
+        DataSnapshot current = snapshot;
+        if (current == null) {
             throw new BusinessException("NOT_INITIALIZED", "数据提供者未初始化");
         }
+        return current;
+    }
+
+    private DataIndex currentIndex() throws BusinessException {
+        DataIndex current = currentSnapshot().index;
+        if (current == null) {
+            throw new BusinessException("NOT_INITIALIZED", "数据提供者未初始化");
+        }
+        return current;
+    }
+
+    private static <T> T found(T value, Supplier<String> message) throws DataNotFoundException {
+        if (value == null) {
+            throw new DataNotFoundException(message.get());
+        }
+        return value;
+    }
+
+    /**
+     * 返回索引中列表的副本，调用方可自由修改
+     */
+    private static <T> List<T> listOf(Map<String, List<T>> map, String key) {
+        List<T> values = map.get(key);
+        return values != null ? new ArrayList<>(values) : new ArrayList<>();
+    }
+
+    /**
+     * 构建查询索引
+     * 某类数据解析失败时该类索引为空，并记录警告，不影响其它数据的查询
+     */
+    private DataIndex buildIndex() {
+        DataIndex newIndex = new DataIndex();
+
+        List<RegionParam> regions = loadForIndex("Region", this::getAllRegions);
+        List<SubRegionParam> subRegions = loadForIndex("SubRegion", this::getAllSubRegions);
+        List<CrossParam> crosses = loadForIndex("CrossParam", this::getAllCrosses);
+        newIndex.regionById = DataIndex.byId(regions, RegionParam::getRegionId);
+        newIndex.subRegionById = DataIndex.byId(subRegions, SubRegionParam::getSubRegionId);
+        newIndex.routeById = DataIndex.byId(loadForIndex("Route", this::getAllRoutes), RouteParam::getRouteId);
+        newIndex.crossById = DataIndex.byId(crosses, CrossParam::getCrossId);
+        for (RegionParam region : regions) {
+            newIndex.subRegionsByRegionId.put(region.getRegionId(),
+                    DataIndex.members(subRegions, SubRegionParam::getSubRegionId, region.getSubRegionIdList()));
+            newIndex.crossesByRegionId.put(region.getRegionId(),
+                    DataIndex.members(crosses, CrossParam::getCrossId, region.getCrossIdList()));
+        }
+        for (SubRegionParam subRegion : subRegions) {
+            newIndex.crossesBySubRegionId.put(subRegion.getSubRegionId(),
+                    DataIndex.members(crosses, CrossParam::getCrossId, subRegion.getCrossIdList()));
+        }
+
+        List<SignalController> controllers = loadForIndex("SignalController", this::getAllSignalControllers);
+        newIndex.signalControllerById = DataIndex.byId(controllers, SignalController::getSignalControllerID);
+        newIndex.signalControllersById = DataIndex.groupById(controllers, SignalController::getSignalControllerID);
+        for (SignalController controller : controllers) {
+            if (controller.getCrossIDList() != null) {
+                for (String crossId : new LinkedHashSet<>(controller.getCrossIDList())) {
+                    newIndex.signalControllersByCrossId.computeIfAbsent(crossId, k -> new ArrayList<>()).add(controller);
+                }
+            }
+        }
+
+        List<LampGroupParam> lampGroups = loadForIndex("LampGroup", this::getAllLampGroups);
+        newIndex.lampGroupsByCrossId = DataIndex.groupById(lampGroups, LampGroupParam::getCrossId);
+        newIndex.lampGroupByCrossIdAndNo = DataIndex.byIdAndNo(lampGroups, LampGroupParam::getCrossId, LampGroupParam::getLampGroupNo);
+        List<DetectorParam> detectors = loadForIndex("Detector", this::getAllDetectors);
+        newIndex.detectorsByCrossId = DataIndex.groupById(detectors, DetectorParam::getCrossId);
+        newIndex.detectorByCrossIdAndNo = DataIndex.byIdAndNo(detectors, DetectorParam::getCrossId, DetectorParam::getDetectorNo);
+        List<LaneParam> lanes = loadForIndex("Lane", this::getAllLanes);
+        newIndex.lanesByCrossId = DataIndex.groupById(lanes, LaneParam::getCrossId);
+        newIndex.laneByCrossIdAndNo = DataIndex.byIdAndNo(lanes, LaneParam::getCrossId, LaneParam::getLaneNo);
+        List<PedestrianParam> pedestrians = loadForIndex("Pedestrian", this::getAllPedestrians);
+        newIndex.pedestriansByCrossId = DataIndex.groupById(pedestrians, PedestrianParam::getCrossId);
+        newIndex.pedestrianByCrossIdAndNo = DataIndex.byIdAndNo(pedestrians, PedestrianParam::getCrossId, PedestrianParam::getPedestrianNo);
+        List<SignalGroupParam> signalGroups = loadForIndex("SignalGroup", this::getAllSignalGroups);
+        newIndex.signalGroupsByCrossId = DataIndex.groupById(signalGroups, SignalGroupParam::getCrossId);
+        newIndex.signalGroupByCrossIdAndNo = DataIndex.byIdAndNo(signalGroups, SignalGroupParam::getCrossId, SignalGroupParam::getSignalGroupNo);
+        List<StageParam> stages = loadForIndex("Stage", this::getAllStages);
+        newIndex.stagesByCrossId = DataIndex.groupById(stages, StageParam::getCrossId);
+        newIndex.stageByCrossIdAndNo = DataIndex.byIdAndNo(stages, StageParam::getCrossId, StageParam::getStageNo);
+        List<PlanParam> plans = loadForIndex("Plan", this::getAllPlans);
+        newIndex.plansByCrossId = DataIndex.groupById(plans, PlanParam::getCrossId);
+        newIndex.planByCrossIdAndNo = DataIndex.byIdAndNo(plans, PlanParam::getCrossId, PlanParam::getPlanNo);
+        List<DayPlanParam> dayPlans = loadForIndex("DayPlan", this::getAllDayPlans);
+        newIndex.dayPlansByCrossId = DataIndex.groupById(dayPlans, DayPlanParam::getCrossId);
+        newIndex.dayPlanByCrossIdAndNo = DataIndex.byIdAndNo(dayPlans, DayPlanParam::getCrossId, DayPlanParam::getDayPlanNo);
+        List<ScheduleParam> schedules = loadForIndex("Schedule", this::getAllSchedules);
+        newIndex.schedulesByCrossId = DataIndex.groupById(schedules, ScheduleParam::getCrossId);
+        newIndex.scheduleByCrossIdAndNo = DataIndex.byIdAndNo(schedules, ScheduleParam::getCrossId, ScheduleParam::getScheduleNo);
+
+        newIndex.crossStateById = DataIndex.byId(loadForIndex("CrossState", this::getAllCrossStates), CrossState::getCrossId);
+        newIndex.signalControllerErrorsByControllerId = DataIndex.groupById(
+                loadForIndex("SignalControllerError", this::getAllSignalControllerErrors), SignalControllerError::getSignalControllerId);
+        newIndex.crossCtrlInfoById = DataIndex.byId(loadForIndex("CrossCtrlInfo", this::getAllCrossCtrlInfos), CrossCtrlInfo::getCrossId);
+        newIndex.crossCycleById = DataIndex.byId(loadForIndex("CrossCycle", this::getAllCrossCycles), CrossCycle::getCrossId);
+        newIndex.crossStageById = DataIndex.byId(loadForIndex("CrossStage", this::getAllCrossStages), CrossStage::getCrossId);
+        newIndex.crossSignalGroupStatusById = DataIndex.byId(
+                loadForIndex("CrossSignalGroupStatus", this::getAllCrossSignalGroupStatus), CrossSignalGroupStatus::getCrossId);
+        List<CrossTrafficData> crossTrafficData = loadForIndex("CrossTrafficData", this::getAllCrossTrafficData);
+        newIndex.crossTrafficDataById = DataIndex.byId(crossTrafficData, CrossTrafficData::getCrossId);
+        newIndex.crossTrafficDataByCrossId = DataIndex.groupById(crossTrafficData, CrossTrafficData::getCrossId);
+        newIndex.stageTrafficDataByCrossId = DataIndex.groupById(
+                loadForIndex("StageTrafficData", this::getAllStageTrafficData), StageTrafficData::getCrossId);
+        newIndex.varLaneStatusByCrossId = DataIndex.groupById(
+                loadForIndex("VarLaneStatus", this::getAllVarLaneStatus), VarLaneStatus::getCrossId);
+        newIndex.scDoorStatusByControllerId = DataIndex.byId(
+                loadForIndex("SCDoorStatus", this::getAllSCDoorStatus), SCDoorStatus::getSignalControllerId);
+
+        logger.debug("测试数据索引构建完成: 路口{}个", newIndex.crossById.size());
+        return newIndex;
+    }
+
+    private <T> List<T> loadForIndex(String dataType, DataLoader<T> loader) {
+        try {
+            return loader.load();
+        } catch (BusinessException e) {
+            logger.warn("构建{}索引失败，该类数据按编号查询将返回未找到: {}", dataType, e.getMessage());
+            return Collections.emptyList();
+        }
+    }
+
+    @FunctionalInterface
+    private interface DataLoader<T> {
+        List<T> load() throws BusinessException;
     }
-    private void loadTestDataFromJson() throws BusinessException {
+    private JsonNode loadTestDataFromJson() throws BusinessException {
         try {
             InputStream inputStream = getClass().getClassLoader()
                     .getResourceAsStream("testdata.json");
 
             if (inputStream != null) {
-                testDataRoot = objectMapper.readTree(inputStream);
+                JsonNode root = objectMapper.readTree(inputStream);
                 inputStream.close();
                 logger.info("从文件加载测试数据成功");
+                return root;
             } else {
 //                String builtInData = getBuiltInTestData();
-//                testDataRoot = objectMapper.readTree(builtInData);
+//                return objectMapper.readTree(builtInData);
                 logger.info("使用内置测试数据");
+                return null;
             }
         } catch (Exception e) {
             throw new BusinessException("DATA_LOAD_ERROR", "加载测试数据失败: " + e.getMessage());
@@ -2026,4 +2020,126 @@ public class ComprehensiveTestDataProviderImpl implements ComprehensiveTestDataP
 
         return result;
     }
-}
\ No newline at end of file
+
+    /**
+     * 测试数据快照：JSON 根节点、解析结果缓存和查询索引
+     * 根节点和索引构建完成后只读；缓存只保存由本快照根节点解析出的结果，不与其它快照混用
+     */
+    private static final class DataSnapshot {
+        final JsonNode root;
+        final Map<String, Object> cache;
+        final DataIndex index;
+
+        DataSnapshot(JsonNode root, Map<String, Object> cache, DataIndex index) {
+            this.root = root;
+            this.cache = cache;
+            this.index = index;
+        }
+    }
+
+    /**
+     * 测试数据查询索引
+     * 构建完成后只读，随数据快照整体发布；同键多条数据时按编号查询取首条，与原顺序查找一致
+     */
+    private static final class DataIndex {
+        Map<String, RegionParam> regionById;
+        Map<String, SubRegionParam> subRegionById;
+        Map<String, RouteParam> routeById;
+        Map<String, CrossParam> crossById;
+        final Map<String, List<SubRegionParam>> subRegionsByRegionId = new HashMap<>();
+        final Map<String, List<CrossParam>> crossesByRegionId = new HashMap<>();
+        final Map<String, List<CrossParam>> crossesBySubRegionId = new HashMap<>();
+
+        Map<String, SignalController> signalControllerById;
+        Map<String, List<SignalController>> signalControllersById;
+        final Map<String, List<SignalController>> signalControllersByCrossId = new HashMap<>();
+
+        Map<String, List<LampGroupParam>> lampGroupsByCrossId;
+        Map<String, LampGroupParam> lampGroupByCrossIdAndNo;
+        Map<String, List<DetectorParam>> detectorsByCrossId;
+        Map<String, DetectorParam> detectorByCrossIdAndNo;
+        Map<String, List<LaneParam>> lanesByCrossId;
+        Map<String, LaneParam> laneByCrossIdAndNo;
+        Map<String, List<PedestrianParam>> pedestriansByCrossId;
+        Map<String, PedestrianParam> pedestrianByCrossIdAndNo;
+        Map<String, List<SignalGroupParam>> signalGroupsByCrossId;
+        Map<String, SignalGroupParam> signalGroupByCrossIdAndNo;
+        Map<String, List<StageParam>> stagesByCrossId;
+        Map<String, StageParam> stageByCrossIdAndNo;
+        Map<String, List<PlanParam>> plansByCrossId;
+        Map<String, PlanParam> planByCrossIdAndNo;
+        Map<String, List<DayPlanParam>> dayPlansByCrossId;
+        Map<String, DayPlanParam> dayPlanByCrossIdAndNo;
+        Map<String, List<ScheduleParam>> schedulesByCrossId;
+        Map<String, ScheduleParam> scheduleByCrossIdAndNo;
+
+        Map<String, CrossState> crossStateById;
+        Map<String, List<SignalControllerError>> signalControllerErrorsByControllerId;
+        Map<String, CrossCtrlInfo> crossCtrlInfoById;
+        Map<String, CrossCycle> crossCycleById;
+        Map<String, CrossStage> crossStageById;
+        Map<String, CrossSignalGroupStatus> crossSignalGroupStatusById;
+        Map<String, CrossTrafficData> crossTrafficDataById;
+        Map<String, List<CrossTrafficData>> crossTrafficDataByCrossId;
+        Map<String, List<StageTrafficData>> stageTrafficDataByCrossId;
+        Map<String, List<VarLaneStatus>> varLaneStatusByCrossId;
+        Map<String, SCDoorStatus> scDoorStatusByControllerId;
+
+        /**
+         * (路口编号, 序号) 组合键，序号按 String.valueOf 比较
+         */
+        static String key(String crossId, Object no) {
+            return crossId + '#' + no;
+        }
+
+        static <T> Map<String, T> byId(List<T> items, Function<T, String> idGetter) {
+            Map<String, T> map = new HashMap<>(items.size() * 2);
+            for (T item : items) {
+                String id = idGetter.apply(item);
+                if (id != null) {
+                    map.putIfAbsent(id, item);
+                }
+            }
+            return map;
+        }
+
+        static <T> Map<String, List<T>> groupById(List<T> items, Function<T, String> idGetter) {
+            Map<String, List<T>> map = new HashMap<>();
+            for (T item : items) {
+                String id = idGetter.apply(item);
+                if (id != null) {
+                    map.computeIfAbsent(id, k -> new ArrayList<>()).add(item);
+                }
+            }
+            return map;
+        }
+
+        static <T> Map<String, T> byIdAndNo(List<T> items, Function<T, String> idGetter, Function<T, Object> noGetter) {
+            Map<String, T> map = new HashMap<>(items.size() * 2);
+            for (T item : items) {
+                String id = idGetter.apply(item);
+                if (id != null) {
+                    map.putIfAbsent(key(id, noGetter.apply(item)), item);
+                }
+            }
+            return map;
+        }
+
+        /**
+         * 按成员编号列表筛选，保持原数据顺序
+         */
+        static <T> List<T> members(List<T> items, Function<T, String> idGetter, List<String> memberIds) {
+            List<T> result = new ArrayList<>();
+            if (memberIds == null || memberIds.isEmpty()) {
+                return result;
+            }
+            Set<String> idSet = new HashSet<>(memberIds);
+            for (T item : items) {
+                if (idSet.contains(idGetter.apply(item))) {
+                    result.add(item);
+                }
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.traffic.gat1049.data.timeseries;
+
+/**
+ * 交通流降采样粒度
+ */
+public enum AggregateResolution {
+    FIVE_MINUTES(300, "5分钟"),
+    FIFTEEN_MINUTES(900, "15分钟"),
+    HOUR(3600, "1小时");
+
+    private final int seconds;
+    private final String description;
+
+    AggregateResolution(int seconds, String description) {
+        this.seconds = seconds;
+        this.description = description;
+    }
+
+    public int getSeconds() {
+        return seconds;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    /**
+     * 时刻（当日秒数）所在时间桶的起始秒数
+     */
+    public int bucketOf(int secondOfDay) {
+        return secondOfDay - secondOfDay % seconds;
+    }
+}
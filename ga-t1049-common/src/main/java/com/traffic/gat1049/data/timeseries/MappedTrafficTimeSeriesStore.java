@@ -0,0 +1,599 @@
+package com.traffic.gat1049.data.timeseries;
+
+import com.traffic.gat1049.protocol.model.traffic.CrossTrafficData;
+import com.traffic.gat1049.protocol.model.traffic.LaneTrafficData;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+/**
+ * 基于内存映射段文件的车道交通流时序存储
+ * 数据按 日期/路口 分段，目录结构为 root/yyyyMMdd/路口编号.seg（路口编号中的特殊字符编码为 %XX），段文件格式见 {@link TrafficSegment}：
+ *
+ * 1. 写入追加到当日段，段按块增长，不改写已有数据
+ * 2. 已结束日期的段在维护时压缩为单块有序文件，去掉块尾空闲空间
+ * 3. 超过保留天数的日期目录整体删除
+ * 4. 长时间未访问的段关闭文件通道，再次访问时重新打开
+ *
+ * 删除或替换仍被映射的文件依赖操作系统支持（Linux 可以，Windows 不行）。
+ */
+public class MappedTrafficTimeSeriesStore implements TrafficTimeSeriesStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(MappedTrafficTimeSeriesStore.class);
+
+    private static final DateTimeFormatter DAY_FORMATTER = DateTimeFormatter.BASIC_ISO_DATE;
+    private static final String SEGMENT_SUFFIX = ".seg";
+    private static final int LAST_SECOND_OF_DAY = 86399;
+
+    private final boolean enabled;
+    private final Path rootDir;
+    private final int blockRows;
+    private final int retentionDays;
+    private final long maintenanceIntervalMinutes;
+    private final long idleCloseMillis;
+
+    // "yyyyMMdd/路口编号" -> 已打开的段
+    private final Map<String, TrafficSegment> segments = new ConcurrentHashMap<>();
+    private ScheduledExecutorService maintenanceExecutor;
+
+    // 统计数据
+    private final LongAdder appendedRows = new LongAdder();
+    private final LongAdder expiredRows = new LongAdder();
+    private final LongAdder queryCount = new LongAdder();
+    private final LongAdder compactedSegments = new LongAdder();
+    private final LongAdder deletedDays = new LongAdder();
+    private volatile long diskBytes;
+
+    /**
+     * @param enabled                    false时写入忽略、查询返回空
+     * @param rootDir                    数据目录
+     * @param blockRows                  每个数据块的行数
+     * @param retentionDays              保留天数，0表示不删除
+     * @param maintenanceIntervalMinutes 维护任务间隔（分钟），0表示不自动维护
+     * @param idleCloseMinutes           段空闲多久后关闭（分钟）
+     */
+    public MappedTrafficTimeSeriesStore(boolean enabled, String rootDir, int blockRows, int retentionDays,
+                                        long maintenanceIntervalMinutes, long idleCloseMinutes) {
+        if (blockRows <= 0) {
+            throw new IllegalArgumentException("blockRows must be positive");
+        }
+        this.enabled = enabled;
+        this.rootDir = Paths.get(rootDir);
+        this.blockRows = blockRows;
+        this.retentionDays = retentionDays;
+        this.maintenanceIntervalMinutes = maintenanceIntervalMinutes;
+        this.idleCloseMillis = TimeUnit.MINUTES.toMillis(idleCloseMinutes);
+    }
+
+    /**
+     * 创建数据目录并启动定时维护
+     */
+    public void start() throws IOException {
+        if (!enabled) {
+            logger.info("交通流时序存储未启用");
+            return;
+        }
+        Files.createDirectories(rootDir);
+        if (maintenanceIntervalMinutes > 0) {
+            maintenanceExecutor = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "traffic-timeseries-maintenance");
+                thread.setDaemon(true);
+                return thread;
+            });
+            maintenanceExecutor.scheduleWithFixedDelay(this::runMaintenanceQuietly,
+                    1, maintenanceIntervalMinutes, TimeUnit.MINUTES);
+        }
+        logger.info("交通流时序存储已启动: dir={}, blockRows={}, retentionDays={}",
+                rootDir.toAbsolutePath(), blockRows, retentionDays);
+    }
+
+    @Override
+    public void close() {
+        if (maintenanceExecutor != null) {
+            maintenanceExecutor.shutdownNow();
+        }
+        for (TrafficSegment segment : segments.values()) {
+            closeSegment(segment);
+        }
+        segments.clear();
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Override
+    public void append(CrossTrafficData trafficData) {
+        if (!enabled || trafficData == null || trafficData.getCrossId() == null
+                || trafficData.getDataList() == null || trafficData.getDataList().isEmpty()) {
+            return;
+        }
+
+        LocalDateTime endTime;
+        try {
+            endTime = trafficData.getEndTimeAsLocalDateTime();
+        } catch (DateTimeParseException e) {
+            logger.warn("交通流统计截止时间格式无效，未写入时序存储: crossId={}, endTime={}",
+                    trafficData.getCrossId(), trafficData.getEndTime());
+            return;
+        }
+        if (endTime == null) {
+            return;
+        }
+
+        LocalDate day = endTime.toLocalDate();
+        if (retentionDays > 0 && day.isBefore(LocalDate.now().minusDays(retentionDays))) {
+            expiredRows.add(trafficData.getDataList().size());
+            return;
+        }
+
+        int secondOfDay = endTime.toLocalTime().toSecondOfDay();
+        int interval = trafficData.getInterval() != null ? trafficData.getInterval() : TrafficSegment.NULL_INT;
+        String key = segmentKey(day, trafficData.getCrossId());
+        try {
+            while (true) {
+                TrafficSegment segment = segments.computeIfAbsent(key,
+                        k -> openSegment(day, trafficData.getCrossId()));
+                int before = segment.getRowCount();
+                if (segment.append(secondOfDay, interval, trafficData.getDataList())) {
+                    appendedRows.add(segment.getRowCount() - before);
+                    return;
+                }
+                // 段已被压缩替换，重新打开
+                segments.remove(key, segment);
+            }
+        } catch (IOException | UncheckedIOException e) {
+            logger.error("写入交通流时序存储失败: crossId={}, endTime={}",
+                    trafficData.getCrossId(), trafficData.getEndTime(), e);
+        }
+    }
+
+    @Override
+    public List<CrossTrafficData> query(String crossId, LocalDateTime from, LocalDateTime to) {
+        List<CrossTrafficData> result = new ArrayList<>();
+        if (!enabled || crossId == null || from == null || to == null || from.isAfter(to)) {
+            return result;
+        }
+        queryCount.increment();
+
+        for (LocalDate day = from.toLocalDate(); !day.isAfter(to.toLocalDate()); day = day.plusDays(1)) {
+            TrafficSegment segment = getExistingSegment(day, crossId);
+            if (segment == null) {
+                continue;
+            }
+
+            // (时刻, 间隔) -> 该时刻的路口数据
+            TreeMap<Long, CrossTrafficData> byTime = new TreeMap<>();
+            LocalDate segmentDay = day;
+            segment.scan(fromSecond(day, from), toSecond(day, to), row -> {
+                int second = segment.getInt(row, TrafficSegment.COL_SECOND_OF_DAY);
+                int interval = segment.getInt(row, TrafficSegment.COL_INTERVAL);
+                CrossTrafficData data = byTime.computeIfAbsent(((long) second << 32) | (interval & 0xFFFFFFFFL), k -> {
+                    CrossTrafficData created = new CrossTrafficData();
+                    created.setCrossId(crossId);
+                    created.setEndTimeFromLocalDateTime(segmentDay.atTime(LocalTime.ofSecondOfDay(second)));
+                    created.setInterval(interval != TrafficSegment.NULL_INT ? interval : null);
+                    return created;
+                });
+                data.getDataList().add(toLaneTrafficData(segment, row));
+            });
+            result.addAll(byTime.values());
+        }
+        return result;
+    }
+
+    @Override
+    public List<TrafficAggregate> aggregate(String crossId, LocalDateTime from, LocalDateTime to,
+                                            AggregateResolution resolution, Integer laneNo) {
+        List<TrafficAggregate> result = new ArrayList<>();
+        if (!enabled || crossId == null || from == null || to == null || resolution == null || from.isAfter(to)) {
+            return result;
+        }
+        queryCount.increment();
+
+        for (LocalDate day = from.toLocalDate(); !day.isAfter(to.toLocalDate()); day = day.plusDays(1)) {
+            TrafficSegment segment = getExistingSegment(day, crossId);
+            if (segment == null) {
+                continue;
+            }
+
+            TreeMap<Integer, Accumulator> buckets = new TreeMap<>();
+            segment.scan(fromSecond(day, from), toSecond(day, to), row -> {
+                if (laneNo != null && segment.getInt(row, TrafficSegment.COL_LANE_NO) != laneNo) {
+                    return;
+                }
+                int bucket = resolution.bucketOf(segment.getInt(row, TrafficSegment.COL_SECOND_OF_DAY));
+                buckets.computeIfAbsent(bucket, k -> new Accumulator()).add(segment, row);
+            });
+
+            for (Map.Entry<Integer, Accumulator> entry : buckets.entrySet()) {
+                TrafficAggregate aggregate = entry.getValue().toAggregate();
+                aggregate.setCrossId(crossId);
+                aggregate.setLaneNo(laneNo);
+                aggregate.setResolution(resolution);
+                aggregate.setBucketStart(day.atTime(LocalTime.ofSecondOfDay(entry.getKey())));
+                result.add(aggregate);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public int deleteBefore(LocalDateTime beforeTime) {
+        if (!enabled || beforeTime == null) {
+            return 0;
+        }
+        LocalDate beforeDay = beforeTime.toLocalDate();
+        int deleted = 0;
+        for (LocalDate day : listDays()) {
+            if (!day.isBefore(beforeDay)) {
+                continue;
+            }
+            String prefix = day.format(DAY_FORMATTER) + "/";
+            segments.entrySet().removeIf(entry -> {
+                if (entry.getKey().startsWith(prefix)) {
+                    closeSegment(entry.getValue());
+                    return true;
+                }
+                return false;
+            });
+            try {
+                deleteDirectory(dayDir(day));
+                deleted++;
+            } catch (IOException e) {
+                logger.error("删除过期交通流数据失败: day={}", day, e);
+            }
+        }
+        if (deleted > 0) {
+            deletedDays.add(deleted);
+            logger.info("删除过期交通流时序数据: before={}, days={}", beforeDay, deleted);
+        }
+        return deleted;
+    }
+
+    @Override
+    public void runMaintenance() {
+        if (!enabled) {
+            return;
+        }
+        if (retentionDays > 0) {
+            deleteBefore(LocalDate.now().minusDays(retentionDays).atStartOfDay());
+        }
+
+        LocalDate today = LocalDate.now();
+        long totalBytes = 0;
+        for (LocalDate day : listDays()) {
+            for (Path file : listSegmentFiles(day)) {
+                if (day.isBefore(today)) {
+                    compact(day, file);
+                }
+                try {
+                    totalBytes += Files.exists(file) ? Files.size(file) : 0;
+                } catch (IOException e) {
+                    // 文件可能刚被删除
+                }
+            }
+        }
+        diskBytes = totalBytes;
+
+        closeIdleSegments();
+    }
+
+    @Override
+    public Stats getStats() {
+        Stats stats = new Stats();
+        stats.setEnabled(enabled);
+        stats.setOpenSegments(segments.size());
+        stats.setAppendedRows(appendedRows.sum());
+        stats.setQueryCount(queryCount.sum());
+        stats.setCompactedSegments(compactedSegments.sum());
+        stats.setDeletedDays(deletedDays.sum());
+        stats.setDiskBytes(diskBytes);
+        return stats;
+    }
+
+    private void runMaintenanceQuietly() {
+        try {
+            runMaintenance();
+        } catch (Exception e) {
+            logger.error("交通流时序存储维护异常", e);
+        }
+    }
+
+    /**
+     * 压缩已结束日期的段，已有序的段跳过
+     */
+    private void compact(LocalDate day, Path file) {
+        if ((TrafficSegment.readFlags(file) & TrafficSegment.FLAG_SORTED) != 0) {
+            return;
+        }
+        String crossId = crossIdOf(file);
+        String key = segmentKey(day, crossId);
+        try {
+            TrafficSegment segment = segments.computeIfAbsent(key, k -> openSegment(day, crossId));
+            int rows = segment.compactTo(file.resolveSibling(file.getFileName() + ".tmp"));
+            segments.remove(key, segment);
+            if (rows < 0) {
+                // 段已关闭，下次维护时重新打开后压缩
+                return;
+            }
+            compactedSegments.increment();
+            logger.debug("压缩交通流时序段: day={}, crossId={}, rows={}", day, crossId, rows);
+        } catch (IOException | UncheckedIOException e) {
+            logger.error("压缩交通流时序段失败: {}", file, e);
+        }
+    }
+
+    private void closeIdleSegments() {
+        long threshold = System.currentTimeMillis() - idleCloseMillis;
+        segments.entrySet().removeIf(entry -> {
+            TrafficSegment segment = entry.getValue();
+            if (segment.getLastAccessTime() < threshold) {
+                closeSegment(segment);
+                return true;
+            }
+            return false;
+        });
+    }
+
+    private TrafficSegment getExistingSegment(LocalDate day, String crossId) {
+        String key = segmentKey(day, crossId);
+        TrafficSegment segment = segments.get(key);
+        if (segment != null) {
+            return segment;
+        }
+        if (!Files.exists(segmentFile(day, crossId))) {
+            return null;
+        }
+        try {
+            return segments.computeIfAbsent(key, k -> openSegment(day, crossId));
+        } catch (UncheckedIOException e) {
+            logger.error("打开交通流时序段失败: day={}, crossId={}", day, crossId, e);
+            return null;
+        }
+    }
+
+    private TrafficSegment openSegment(LocalDate day, String crossId) {
+        try {
+            return TrafficSegment.open(segmentFile(day, crossId), day, crossId, blockRows);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void closeSegment(TrafficSegment segment) {
+        try {
+            segment.force();
+            segment.close();
+        } catch (IOException e) {
+            logger.warn("关闭交通流时序段失败: {}", segment.getFile(), e);
+        }
+    }
+
+    private List<LocalDate> listDays() {
+        List<LocalDate> days = new ArrayList<>();
+        if (!Files.isDirectory(rootDir)) {
+            return days;
+        }
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(rootDir, Files::isDirectory)) {
+            for (Path dir : stream) {
+                try {
+                    days.add(LocalDate.parse(dir.getFileName().toString(), DAY_FORMATTER));
+                } catch (DateTimeParseException e) {
+                    // 非日期目录
+                }
+            }
+        } catch (IOException e) {
+            logger.error("读取交通流时序目录失败: {}", rootDir, e);
+        }
+        days.sort(Comparator.naturalOrder());
+        return days;
+    }
+
+    private List<Path> listSegmentFiles(LocalDate day) {
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(dayDir(day), "*" + SEGMENT_SUFFIX)) {
+            stream.forEach(files::add);
+        } catch (IOException e) {
+            logger.warn("读取交通流时序目录失败: day={}", day, e);
+        }
+        return files;
+    }
+
+    private static void deleteDirectory(Path dir) throws IOException {
+        if (!Files.exists(dir)) {
+            return;
+        }
+        try (Stream<Path> walk = Files.walk(dir)) {
+            List<Path> paths = new ArrayList<>();
+            walk.forEach(paths::add);
+            paths.sort(Comparator.reverseOrder());
+            for (Path path : paths) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+
+    private Path dayDir(LocalDate day) {
+        return rootDir.resolve(day.format(DAY_FORMATTER));
+    }
+
+    private Path segmentFile(LocalDate day, String crossId) {
+        return dayDir(day).resolve(encodeFileName(crossId) + SEGMENT_SUFFIX);
+    }
+
+    private static String segmentKey(LocalDate day, String crossId) {
+        return day.format(DAY_FORMATTER) + "/" + crossId;
+    }
+
+    static String crossIdOf(Path file) {
+        String name = file.getFileName().toString();
+        return decodeFileName(name.substring(0, name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    /**
+     * 路口编号转为文件名：字母、数字、'_'、'-' 原样保留，其余字符按 UTF-8 字节编码为 %XX，
+     * 可由 {@link #decodeFileName(String)} 还原，不同路口编号不会映射到同一文件
+     */
+    static String encodeFileName(String crossId) {
+        StringBuilder sb = new StringBuilder(crossId.length());
+        for (byte b : crossId.getBytes(StandardCharsets.UTF_8)) {
+            if ((b >= 'A' && b <= 'Z') || (b >= 'a' && b <= 'z') || (b >= '0' && b <= '9') || b == '_' || b == '-') {
+                sb.append((char) b);
+            } else {
+                sb.append('%').append(Character.toUpperCase(Character.forDigit((b >> 4) & 0xF, 16)))
+                        .append(Character.toUpperCase(Character.forDigit(b & 0xF, 16)));
+            }
+        }
+        return sb.toString();
+    }
+
+    static String decodeFileName(String name) {
+        if (name.indexOf('%') < 0) {
+            return name;
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(name.length());
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            int high;
+            int low;
+            if (c == '%' && i + 2 < name.length() && (high = Character.digit(name.charAt(i + 1), 16)) >= 0
+                    && (low = Character.digit(name.charAt(i + 2), 16)) >= 0) {
+                bytes.write((high << 4) | low);
+                i += 2;
+            } else {
+                bytes.write(c);
+            }
+        }
+        return new String(bytes.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    private static int fromSecond(LocalDate day, LocalDateTime from) {
+        return day.equals(from.toLocalDate()) ? from.toLocalTime().toSecondOfDay() : 0;
+    }
+
+    private static int toSecond(LocalDate day, LocalDateTime to) {
+        return day.equals(to.toLocalDate()) ? to.toLocalTime().toSecondOfDay() : LAST_SECOND_OF_DAY;
+    }
+
+    private static LaneTrafficData toLaneTrafficData(TrafficSegment segment, int row) {
+        LaneTrafficData lane = new LaneTrafficData();
+        lane.setLaneNo(segment.getInteger(row, TrafficSegment.COL_LANE_NO));
+        lane.setVolume(segment.getInteger(row, TrafficSegment.COL_VOLUME));
+        lane.setPcu(segment.getInteger(row, TrafficSegment.COL_PCU));
+        lane.setDensity(segment.getInteger(row, TrafficSegment.COL_DENSITY));
+        lane.setOccupancy(segment.getInteger(row, TrafficSegment.COL_OCCUPANCY));
+        lane.setAvgVehLen(segment.getDecimal(row, TrafficSegment.COL_AVG_VEH_LEN));
+        lane.setHeadDistance(segment.getDecimal(row, TrafficSegment.COL_HEAD_DISTANCE));
+        lane.setHeadTime(segment.getDecimal(row, TrafficSegment.COL_HEAD_TIME));
+        lane.setSpeed(segment.getDecimal(row, TrafficSegment.COL_SPEED));
+        lane.setSaturation(segment.getDecimal(row, TrafficSegment.COL_SATURATION));
+        lane.setQueueLength(segment.getDecimal(row, TrafficSegment.COL_QUEUE_LENGTH));
+        lane.setMaxQueueLength(segment.getDecimal(row, TrafficSegment.COL_MAX_QUEUE_LENGTH));
+        return lane;
+    }
+
+    /**
+     * 单个时间桶的累加器，直接读取列值，不生成车道对象
+     */
+    private static final class Accumulator {
+        private int samples;
+        private long volume;
+        private long pcu;
+        private final Mean speed = new Mean();
+        private final Mean occupancy = new Mean();
+        private final Mean saturation = new Mean();
+        private final Mean density = new Mean();
+        private final Mean headTime = new Mean();
+        private final Mean queueLength = new Mean();
+        private double maxQueueLength = Double.NaN;
+
+        void add(TrafficSegment segment, int row) {
+            samples++;
+            int v = segment.getInt(row, TrafficSegment.COL_VOLUME);
+            if (v != TrafficSegment.NULL_INT) {
+                volume += v;
+            }
+            int p = segment.getInt(row, TrafficSegment.COL_PCU);
+            if (p != TrafficSegment.NULL_INT) {
+                pcu += p;
+            }
+            speed.add(segment.getFloat(row, TrafficSegment.COL_SPEED));
+            occupancy.add(segment.getInt(row, TrafficSegment.COL_OCCUPANCY));
+            saturation.add(segment.getFloat(row, TrafficSegment.COL_SATURATION));
+            density.add(segment.getInt(row, TrafficSegment.COL_DENSITY));
+            headTime.add(segment.getFloat(row, TrafficSegment.COL_HEAD_TIME));
+            float queue = segment.getFloat(row, TrafficSegment.COL_QUEUE_LENGTH);
+            queueLength.add(queue);
+
+            float maxQueue = segment.getFloat(row, TrafficSegment.COL_MAX_QUEUE_LENGTH);
+            float candidate = Float.isNaN(maxQueue) ? queue : maxQueue;
+            if (!Float.isNaN(candidate) && (Double.isNaN(maxQueueLength) || candidate > maxQueueLength)) {
+                maxQueueLength = candidate;
+            }
+        }
+
+        TrafficAggregate toAggregate() {
+            TrafficAggregate aggregate = new TrafficAggregate();
+            aggregate.setSampleCount(samples);
+            aggregate.setTotalVolume(volume);
+            aggregate.setTotalPcu(pcu);
+            aggregate.setAvgSpeed(speed.value());
+            aggregate.setAvgOccupancy(occupancy.value());
+            aggregate.setAvgSaturation(saturation.value());
+            aggregate.setAvgDensity(density.value());
+            aggregate.setAvgHeadTime(headTime.value());
+            aggregate.setAvgQueueLength(queueLength.value());
+            aggregate.setMaxQueueLength(Double.isNaN(maxQueueLength) ? null : maxQueueLength);
+            return aggregate;
+        }
+    }
+
+    private static final class Mean {
+        private double sum;
+        private int count;
+
+        void add(float value) {
+            if (!Float.isNaN(value)) {
+                sum += value;
+                count++;
+            }
+        }
+
+        void add(int value) {
+            if (value != TrafficSegment.NULL_INT) {
+                sum += value;
+                count++;
+            }
+        }
+
+        Double value() {
+            return count > 0 ? sum / count : null;
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.traffic.gat1049.data.timeseries;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import java.io.IOException;
+
+/**
+ * 交通流时序存储配置
+ */
+@Configuration
+public class TimeSeriesConfig {
+
+    /**
+     * 车道交通流时序存储
+     */
+    @Bean(destroyMethod = "close")
+    public TrafficTimeSeriesStore trafficTimeSeriesStore(Environment env) throws IOException {
+        MappedTrafficTimeSeriesStore store = new MappedTrafficTimeSeriesStore(
+                env.getProperty("gat1049.timeseries.enabled", Boolean.class, true),
+                env.getProperty("gat1049.timeseries.dir", "./data/timeseries"),
+                env.getProperty("gat1049.timeseries.block-rows", Integer.class, 4096),
+                env.getProperty("gat1049.timeseries.retention-days", Integer.class, 90),
+                env.getProperty("gat1049.timeseries.maintenance-interval-minutes", Long.class, 60L),
+                env.getProperty("gat1049.timeseries.idle-close-minutes", Long.class, 30L));
+        store.start();
+        return store;
+    }
+}
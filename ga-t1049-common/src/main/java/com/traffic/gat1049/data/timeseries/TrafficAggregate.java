@@ -0,0 +1,83 @@
+package com.traffic.gat1049.data.timeseries;
+
+import java.time.LocalDateTime;
+
+/**
+ * 交通流降采样统计结果
+ * 流量、当量为时间桶内合计，其余指标为有效样本的平均值，排队长度另给出最大值
+ */
+public class TrafficAggregate {
+
+    private String crossId;
+    /** 车道序号，为null表示路口全部车道 */
+    private Integer laneNo;
+    private LocalDateTime bucketStart;
+    private AggregateResolution resolution;
+    private int sampleCount;
+    private long totalVolume;
+    private long totalPcu;
+    private Double avgSpeed;
+    private Double avgOccupancy;
+    private Double avgSaturation;
+    private Double avgDensity;
+    private Double avgHeadTime;
+    private Double avgQueueLength;
+    private Double maxQueueLength;
+
+    public String getCrossId() { return crossId; }
+    public void setCrossId(String crossId) { this.crossId = crossId; }
+
+    public Integer getLaneNo() { return laneNo; }
+    public void setLaneNo(Integer laneNo) { this.laneNo = laneNo; }
+
+    public LocalDateTime getBucketStart() { return bucketStart; }
+    public void setBucketStart(LocalDateTime bucketStart) { this.bucketStart = bucketStart; }
+
+    public AggregateResolution getResolution() { return resolution; }
+    public void setResolution(AggregateResolution resolution) { this.resolution = resolution; }
+
+    public int getSampleCount() { return sampleCount; }
+    public void setSampleCount(int sampleCount) { this.sampleCount = sampleCount; }
+
+    public long getTotalVolume() { return totalVolume; }
+    public void setTotalVolume(long totalVolume) { this.totalVolume = totalVolume; }
+
+    public long getTotalPcu() { return totalPcu; }
+    public void setTotalPcu(long totalPcu) { this.totalPcu = totalPcu; }
+
+    public Double getAvgSpeed() { return avgSpeed; }
+    public void setAvgSpeed(Double avgSpeed) { this.avgSpeed = avgSpeed; }
+
+    public Double getAvgOccupancy() { return avgOccupancy; }
+    public void setAvgOccupancy(Double avgOccupancy) { this.avgOccupancy = avgOccupancy; }
+
+    public Double getAvgSaturation() { return avgSaturation; }
+    public void setAvgSaturation(Double avgSaturation) { this.avgSaturation = avgSaturation; }
+
+    public Double getAvgDensity() { return avgDensity; }
+    public void setAvgDensity(Double avgDensity) { this.avgDensity = avgDensity; }
+
+    public Double getAvgHeadTime() { return avgHeadTime; }
+    public void setAvgHeadTime(Double avgHeadTime) { this.avgHeadTime = avgHeadTime; }
+
+    public Double getAvgQueueLength() { return avgQueueLength; }
+    public void setAvgQueueLength(Double avgQueueLength) { this.avgQueueLength = avgQueueLength; }
+
+    public Double getMaxQueueLength() { return maxQueueLength; }
+    public void setMaxQueueLength(Double maxQueueLength) { this.maxQueueLength = maxQueueLength; }
+
+    @Override
+    public String toString() {
+        return "TrafficAggregate{" +
+                "crossId='" + crossId + '\'' +
+                ", laneNo=" + laneNo +
+                ", bucketStart=" + bucketStart +
+                ", resolution=" + resolution +
+                ", sampleCount=" + sampleCount +
+                ", totalVolume=" + totalVolume +
+                ", avgSpeed=" + avgSpeed +
+                ", avgOccupancy=" + avgOccupancy +
+                ", maxQueueLength=" + maxQueueLength +
+                '}';
+    }
+}
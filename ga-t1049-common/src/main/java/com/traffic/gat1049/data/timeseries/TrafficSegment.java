@@ -0,0 +1,373 @@
+package com.traffic.gat1049.data.timeseries;
+
+import com.traffic.gat1049.protocol.model.traffic.LaneTrafficData;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.IntConsumer;
+
+/**
+ * 车道交通流时序段文件
+ * 一个路口一天的数据对应一个文件，内存映射、仅追加。文件由32字节文件头和若干数据块组成，
+ * 每块容纳 blockRows 行，块内按列存放（每列连续 blockRows 个4字节值）：
+ *
+ * 1. 文件头：魔数、版本、blockRows、标志位、已提交行数
+ * 2. 追加时先写入各列，再更新已提交行数，读取只看已提交的行
+ * 3. 压缩后的段只有一个块，行按 (时刻, 车道) 排序并置已排序标志，范围扫描可二分查找
+ *
+ * 整数列以 Integer.MIN_VALUE 表示空值，浮点列以 NaN 表示空值。
+ */
+final class TrafficSegment implements Closeable {
+
+    static final int MAGIC = 0x47415453;
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 32;
+    static final int FLAG_SORTED = 1;
+
+    private static final int OFFSET_MAGIC = 0;
+    private static final int OFFSET_VERSION = 4;
+    private static final int OFFSET_BLOCK_ROWS = 8;
+    private static final int OFFSET_FLAGS = 12;
+    private static final int OFFSET_ROW_COUNT = 16;
+
+    // 列定义，每列4字节
+    static final int COL_SECOND_OF_DAY = 0;
+    static final int COL_LANE_NO = 1;
+    static final int COL_INTERVAL = 2;
+    static final int COL_VOLUME = 3;
+    static final int COL_PCU = 4;
+    static final int COL_DENSITY = 5;
+    static final int COL_OCCUPANCY = 6;
+    static final int COL_AVG_VEH_LEN = 7;
+    static final int COL_HEAD_DISTANCE = 8;
+    static final int COL_HEAD_TIME = 9;
+    static final int COL_SPEED = 10;
+    static final int COL_SATURATION = 11;
+    static final int COL_QUEUE_LENGTH = 12;
+    static final int COL_MAX_QUEUE_LENGTH = 13;
+    static final int COLUMN_COUNT = 14;
+    static final int ROW_WIDTH = COLUMN_COUNT * 4;
+
+    static final int NULL_INT = Integer.MIN_VALUE;
+
+    private final Path file;
+    private final LocalDate day;
+    private final String crossId;
+    private final FileChannel channel;
+    private final MappedByteBuffer header;
+    private final int blockRows;
+
+    private volatile MappedByteBuffer[] blocks;
+    private volatile int rowCount;
+    private volatile int flags;
+    private volatile boolean closed;
+    private volatile long lastAccessTime = System.currentTimeMillis();
+
+    private TrafficSegment(Path file, LocalDate day, String crossId, FileChannel channel, MappedByteBuffer header,
+                           int blockRows, int rowCount, int flags, MappedByteBuffer[] blocks) {
+        this.file = file;
+        this.day = day;
+        this.crossId = crossId;
+        this.channel = channel;
+        this.header = header;
+        this.blockRows = blockRows;
+        this.rowCount = rowCount;
+        this.flags = flags;
+        this.blocks = blocks;
+    }
+
+    /**
+     * 打开段文件，不存在时以 defaultBlockRows 创建
+     */
+    static TrafficSegment open(Path file, LocalDate day, String crossId, int defaultBlockRows) throws IOException {
+        Files.createDirectories(file.getParent());
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            boolean created = channel.size() < HEADER_SIZE;
+            MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE);
+            if (created) {
+                header.putInt(OFFSET_MAGIC, MAGIC);
+                header.putInt(OFFSET_VERSION, VERSION);
+                header.putInt(OFFSET_BLOCK_ROWS, defaultBlockRows);
+                header.putInt(OFFSET_FLAGS, 0);
+                header.putLong(OFFSET_ROW_COUNT, 0);
+            } else if (header.getInt(OFFSET_MAGIC) != MAGIC || header.getInt(OFFSET_VERSION) != VERSION) {
+                throw new IOException("Invalid traffic segment file: " + file);
+            }
+
+            int blockRows = header.getInt(OFFSET_BLOCK_ROWS);
+            int rowCount = (int) header.getLong(OFFSET_ROW_COUNT);
+            int flags = header.getInt(OFFSET_FLAGS);
+            if (blockRows <= 0 || rowCount < 0) {
+                throw new IOException("Corrupted traffic segment header: " + file);
+            }
+
+            long blockBytes = (long) blockRows * ROW_WIDTH;
+            int blockCount = (int) Math.max((channel.size() - HEADER_SIZE) / blockBytes,
+                    (rowCount + blockRows - 1) / blockRows);
+            MappedByteBuffer[] blocks = new MappedByteBuffer[blockCount];
+            for (int i = 0; i < blockCount; i++) {
+                blocks[i] = channel.map(FileChannel.MapMode.READ_WRITE, HEADER_SIZE + i * blockBytes, blockBytes);
+            }
+            return new TrafficSegment(file, day, crossId, channel, header, blockRows, rowCount, flags, blocks);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * 读取段文件头中的标志位，文件无效时返回-1
+     */
+    static int readFlags(Path file) {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() < HEADER_SIZE) {
+                return -1;
+            }
+            MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_SIZE);
+            return header.getInt(OFFSET_MAGIC) == MAGIC ? header.getInt(OFFSET_FLAGS) : -1;
+        } catch (IOException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * 追加同一时刻的一组车道数据，全部写入后一次提交
+     *
+     * @return 段已关闭（被压缩替换）时返回false，调用方应重新打开
+     */
+    synchronized boolean append(int secondOfDay, int interval, List<LaneTrafficData> lanes) throws IOException {
+        if (closed) {
+            return false;
+        }
+        int row = rowCount;
+        for (LaneTrafficData lane : lanes) {
+            if (lane == null) {
+                continue;
+            }
+            ensureCapacity(row + 1);
+            putInt(row, COL_SECOND_OF_DAY, secondOfDay);
+            putInt(row, COL_LANE_NO, intValue(lane.getLaneNo()));
+            putInt(row, COL_INTERVAL, interval);
+            putInt(row, COL_VOLUME, intValue(lane.getVolume()));
+            putInt(row, COL_PCU, intValue(lane.getPcu()));
+            putInt(row, COL_DENSITY, intValue(lane.getDensity()));
+            putInt(row, COL_OCCUPANCY, intValue(lane.getOccupancy()));
+            putFloat(row, COL_AVG_VEH_LEN, lane.getAvgVehLen());
+            putFloat(row, COL_HEAD_DISTANCE, lane.getHeadDistance());
+            putFloat(row, COL_HEAD_TIME, lane.getHeadTime());
+            putFloat(row, COL_SPEED, lane.getSpeed());
+            putFloat(row, COL_SATURATION, lane.getSaturation());
+            putFloat(row, COL_QUEUE_LENGTH, lane.getQueueLength());
+            putFloat(row, COL_MAX_QUEUE_LENGTH, lane.getMaxQueueLength());
+            row++;
+        }
+
+        if (row > rowCount) {
+            if ((flags & FLAG_SORTED) != 0) {
+                // 已压缩的段收到迟到数据，不再保证有序，待下次压缩
+                flags &= ~FLAG_SORTED;
+                header.putInt(OFFSET_FLAGS, flags);
+            }
+            header.putLong(OFFSET_ROW_COUNT, row);
+            rowCount = row;
+        }
+        lastAccessTime = System.currentTimeMillis();
+        return true;
+    }
+
+    /**
+     * 遍历时刻在 [fromSecond, toSecond] 内的已提交行
+     */
+    void scan(int fromSecond, int toSecond, IntConsumer rowConsumer) {
+        lastAccessTime = System.currentTimeMillis();
+        int rows = rowCount;
+        if (isSorted()) {
+            for (int row = lowerBound(fromSecond, rows); row < rows; row++) {
+                if (getInt(row, COL_SECOND_OF_DAY) > toSecond) {
+                    break;
+                }
+                rowConsumer.accept(row);
+            }
+            return;
+        }
+        for (int row = 0; row < rows; row++) {
+            int second = getInt(row, COL_SECOND_OF_DAY);
+            if (second >= fromSecond && second <= toSecond) {
+                rowConsumer.accept(row);
+            }
+        }
+    }
+
+    /**
+     * 将段重写为单块、按 (时刻, 车道) 排序的文件并替换原文件，当前实例随即关闭
+     *
+     * @return 压缩后的行数，无数据时删除文件并返回0，段已关闭时返回-1
+     */
+    synchronized int compactTo(Path tempFile) throws IOException {
+        if (closed) {
+            return -1;
+        }
+        int rows = rowCount;
+        if (rows == 0) {
+            close();
+            Files.deleteIfExists(file);
+            return 0;
+        }
+
+        Integer[] order = new Integer[rows];
+        for (int i = 0; i < rows; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, Comparator.<Integer>comparingInt(r -> getInt(r, COL_SECOND_OF_DAY))
+                .thenComparingInt(r -> getInt(r, COL_LANE_NO)));
+
+        try (FileChannel out = FileChannel.open(tempFile, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer buffer = out.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE + (long) rows * ROW_WIDTH);
+            buffer.putInt(OFFSET_MAGIC, MAGIC);
+            buffer.putInt(OFFSET_VERSION, VERSION);
+            buffer.putInt(OFFSET_BLOCK_ROWS, rows);
+            buffer.putInt(OFFSET_FLAGS, FLAG_SORTED);
+            buffer.putLong(OFFSET_ROW_COUNT, rows);
+            for (int column = 0; column < COLUMN_COUNT; column++) {
+                int base = HEADER_SIZE + column * rows * 4;
+                for (int i = 0; i < rows; i++) {
+                    buffer.putInt(base + i * 4, getInt(order[i], column));
+                }
+            }
+            buffer.force();
+        }
+
+        close();
+        Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return rows;
+    }
+
+    /**
+     * 将已写入的数据刷到磁盘
+     */
+    synchronized void force() {
+        if (closed) {
+            return;
+        }
+        for (MappedByteBuffer block : blocks) {
+            block.force();
+        }
+        header.force();
+    }
+
+    /**
+     * 关闭文件通道；已建立的映射在回收前仍可读取
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        channel.close();
+    }
+
+    int getInt(int row, int column) {
+        MappedByteBuffer block = blocks[row / blockRows];
+        return block.getInt((column * blockRows + row % blockRows) * 4);
+    }
+
+    float getFloat(int row, int column) {
+        return Float.intBitsToFloat(getInt(row, column));
+    }
+
+    Integer getInteger(int row, int column) {
+        int value = getInt(row, column);
+        return value != NULL_INT ? value : null;
+    }
+
+    BigDecimal getDecimal(int row, int column) {
+        float value = getFloat(row, column);
+        return Float.isNaN(value) ? null : new BigDecimal(Float.toString(value));
+    }
+
+    int getRowCount() {
+        return rowCount;
+    }
+
+    boolean isSorted() {
+        return (flags & FLAG_SORTED) != 0;
+    }
+
+    boolean isClosed() {
+        return closed;
+    }
+
+    long getLastAccessTime() {
+        return lastAccessTime;
+    }
+
+    long getFileSize() {
+        return HEADER_SIZE + (long) blocks.length * blockRows * ROW_WIDTH;
+    }
+
+    Path getFile() {
+        return file;
+    }
+
+    LocalDate getDay() {
+        return day;
+    }
+
+    String getCrossId() {
+        return crossId;
+    }
+
+    private int lowerBound(int second, int rows) {
+        int low = 0;
+        int high = rows;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (getInt(mid, COL_SECOND_OF_DAY) < second) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private void ensureCapacity(int rows) throws IOException {
+        MappedByteBuffer[] current = blocks;
+        if ((long) current.length * blockRows >= rows) {
+            return;
+        }
+        long blockBytes = (long) blockRows * ROW_WIDTH;
+        MappedByteBuffer[] grown = Arrays.copyOf(current, current.length + 1);
+        grown[current.length] = channel.map(FileChannel.MapMode.READ_WRITE,
+                HEADER_SIZE + current.length * blockBytes, blockBytes);
+        blocks = grown;
+    }
+
+    private void putInt(int row, int column, int value) {
+        MappedByteBuffer block = blocks[row / blockRows];
+        block.putInt((column * blockRows + row % blockRows) * 4, value);
+    }
+
+    private void putFloat(int row, int column, BigDecimal value) {
+        putInt(row, column, Float.floatToRawIntBits(value != null ? value.floatValue() : Float.NaN));
+    }
+
+    private static int intValue(Integer value) {
+        return value != null ? value : NULL_INT;
+    }
+}
@@ -0,0 +1,98 @@
+package com.traffic.gat1049.data.timeseries;
+
+import com.traffic.gat1049.protocol.model.traffic.CrossTrafficData;
+
+import java.io.Closeable;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 车道交通流时序存储
+ * 按路口保存推送的车道交通流数据，支持时间范围查询和降采样统计，不经过数据库
+ */
+public interface TrafficTimeSeriesStore extends Closeable {
+
+    /**
+     * 是否启用，未启用时写入忽略、查询返回空
+     */
+    boolean isEnabled();
+
+    /**
+     * 追加一次路口交通流数据
+     */
+    void append(CrossTrafficData trafficData);
+
+    /**
+     * 查询统计截止时间在 [from, to] 内的路口交通流数据，按时间升序
+     */
+    List<CrossTrafficData> query(String crossId, LocalDateTime from, LocalDateTime to);
+
+    /**
+     * 按粒度统计 [from, to] 内的车道交通流数据，按时间桶升序
+     *
+     * @param laneNo 车道序号，为null时统计路口全部车道
+     */
+    List<TrafficAggregate> aggregate(String crossId, LocalDateTime from, LocalDateTime to,
+                                     AggregateResolution resolution, Integer laneNo);
+
+    /**
+     * 删除指定日期之前的全部数据
+     *
+     * @return 删除的天数
+     */
+    int deleteBefore(LocalDateTime beforeTime);
+
+    /**
+     * 执行一次维护：按保留期删除过期数据，压缩已结束的日期
+     */
+    void runMaintenance();
+
+    /**
+     * 获取统计信息
+     */
+    Stats getStats();
+
+    @Override
+    void close();
+
+    /**
+     * 时序存储统计信息
+     */
+    class Stats {
+        private boolean enabled;
+        private int openSegments;
+        private long appendedRows;
+        private long queryCount;
+        private long compactedSegments;
+        private long deletedDays;
+        private long diskBytes;
+
+        public boolean isEnabled() { return enabled; }
+        public void setEnabled(boolean enabled) { this.enabled = enabled; }
+
+        public int getOpenSegments() { return openSegments; }
+        public void setOpenSegments(int openSegments) { this.openSegments = openSegments; }
+
+        public long getAppendedRows() { return appendedRows; }
+        public void setAppendedRows(long appendedRows) { this.appendedRows = appendedRows; }
+
+        public long getQueryCount() { return queryCount; }
+        public void setQueryCount(long queryCount) { this.queryCount = queryCount; }
+
+        public long getCompactedSegments() { return compactedSegments; }
+        public void setCompactedSegments(long compactedSegments) { this.compactedSegments = compactedSegments; }
+
+        public long getDeletedDays() { return deletedDays; }
+        public void setDeletedDays(long deletedDays) { this.deletedDays = deletedDays; }
+
+        public long getDiskBytes() { return diskBytes; }
+        public void setDiskBytes(long diskBytes) { this.diskBytes = diskBytes; }
+
+        @Override
+        public String toString() {
+            return String.format("TrafficTimeSeriesStore.Stats{enabled=%s, openSegments=%d, appendedRows=%d, " +
+                            "queries=%d, compacted=%d, deletedDays=%d, diskBytes=%d}",
+                    enabled, openSegments, appendedRows, queryCount, compactedSegments, deletedDays, diskBytes);
+        }
+    }
+}
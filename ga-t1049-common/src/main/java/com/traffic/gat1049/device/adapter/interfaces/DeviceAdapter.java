@@ -3,6 +3,10 @@ package com.traffic.gat1049.device.adapter.interfaces;
 import com.traffic.gat1049.device.adapter.registry.AdapterInfo;
 import com.traffic.gat1049.device.adapter.model.AdapterStatus;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+
 /**
  * 通用设备适配器接口
  * 所有设备适配器的基础接口
@@ -50,6 +54,15 @@ public interface DeviceAdapter {
      */
     boolean healthCheck();
 
+    /**
+     * 异步检查适配器健康状态，默认在给定执行器上调用 healthCheck
+     * @param blockingExecutor 执行同步方法的执行器，非阻塞实现可忽略
+     * @return 健康检查结果
+     */
+    default CompletionStage<Boolean> healthCheckAsync(Executor blockingExecutor) {
+        return CompletableFuture.supplyAsync(this::healthCheck, blockingExecutor);
+    }
+
     /**
      * 获取支持的设备类型列表
      * @return 设备类型列表
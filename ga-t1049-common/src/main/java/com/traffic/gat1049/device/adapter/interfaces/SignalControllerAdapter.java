@@ -1,11 +1,18 @@
 package com.traffic.gat1049.device.adapter.interfaces;
 
 import com.traffic.gat1049.device.adapter.model.*;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
 
 /**
  * 信号机适配器接口
  * 定义了与信号机设备通信的标准接口
+ * 设备读写另有返回 CompletionStage 的异步方法，默认在调用方提供的阻塞执行器上调用同步方法；
+ * 基于非阻塞I/O的适配器可重写异步方法，此时不占用执行器线程
  */
 public interface SignalControllerAdapter<P> extends DeviceAdapter {
 
@@ -101,4 +108,84 @@ public interface SignalControllerAdapter<P> extends DeviceAdapter {
      * @return 下发结果
      */
     SyncResult execToControllerPlan(DevicePlanData plan);
+
+    // =================================================================
+    // 异步设备读写
+    // =================================================================
+
+    /**
+     * 异步同步配置到设备
+     * @param controllerId 信号机ID
+     * @param configData 配置数据
+     * @param blockingExecutor 执行同步方法的执行器，非阻塞实现可忽略
+     * @return 同步结果
+     */
+    default CompletionStage<SyncResult> syncConfigToDeviceAsync(String controllerId, DeviceConfigData configData,
+                                                                Executor blockingExecutor) {
+        return CompletableFuture.supplyAsync(() -> syncConfigToDevice(controllerId, configData), blockingExecutor);
+    }
+
+    /**
+     * 异步读取设备状态
+     * @param controllerId 信号机ID
+     * @param blockingExecutor 执行同步方法的执行器，非阻塞实现可忽略
+     * @return 设备状态数据
+     */
+    default CompletionStage<DeviceStatusData> readDeviceStatusAsync(String controllerId, Executor blockingExecutor) {
+        return CompletableFuture.supplyAsync(() -> readDeviceStatus(controllerId), blockingExecutor);
+    }
+
+    /**
+     * 异步读取设备运行数据
+     * @param controllerId 信号机ID
+     * @param blockingExecutor 执行同步方法的执行器，非阻塞实现可忽略
+     * @return 运行数据
+     */
+    default CompletionStage<DeviceRuntimeData> readRuntimeDataAsync(String controllerId, Executor blockingExecutor) {
+        return CompletableFuture.supplyAsync(() -> readRuntimeData(controllerId), blockingExecutor);
+    }
+
+    /**
+     * 异步发送控制命令
+     * @param controllerId 信号机ID
+     * @param command 控制命令
+     * @param blockingExecutor 执行同步方法的执行器，非阻塞实现可忽略
+     * @return 命令执行结果
+     */
+    default CompletionStage<CommandResult> sendCommandAsync(String controllerId, DeviceCommand command,
+                                                            Executor blockingExecutor) {
+        return CompletableFuture.supplyAsync(() -> sendCommand(controllerId, command), blockingExecutor);
+    }
+
+    /**
+     * 健康检查实际探测的地址，地址相同的设备归为一组，每组只探测一次
+     * 默认为转发服务端地址（无转发时为设备地址）加设备端口；探测端口与设备端口不同的适配器应重写
+     * @param device 设备连接信息
+     * @return 探测地址
+     */
+    default String getProbeAddress(DeviceConnectionInfo device) {
+        String host = device.getIpServer() != null && !device.getIpServer().isEmpty()
+                ? device.getIpServer() : device.getIpAddress();
+        return device.getPort() != null ? host + ":" + device.getPort() : String.valueOf(host);
+    }
+
+    /**
+     * 批量检查同一网关下多台设备的健康状态
+     * 默认对整组执行一次适配器健康检查，再结合各设备连接状态；
+     * 协议支持网关级探测的适配器可重写，一次请求覆盖网关下全部设备
+     * @param devices 同一网关下的设备连接信息
+     * @param blockingExecutor 执行同步方法的执行器，非阻塞实现可忽略
+     * @return 设备ID到健康状态的映射，缺失的设备视为不健康
+     */
+    default CompletionStage<Map<String, Boolean>> checkDevicesHealthAsync(List<DeviceConnectionInfo> devices,
+                                                                      Executor blockingExecutor) {
+        return CompletableFuture.supplyAsync(() -> {
+            boolean adapterHealthy = healthCheck();
+            Map<String, Boolean> result = new HashMap<>();
+            for (DeviceConnectionInfo device : devices) {
+                result.put(device.getDeviceId(), adapterHealthy && isConnected(device.getDeviceId()));
+            }
+            return result;
+        }, blockingExecutor);
+    }
 }
@@ -0,0 +1,327 @@
+package com.traffic.gat1049.device.management;
+
+import com.traffic.gat1049.device.adapter.interfaces.SignalControllerAdapter;
+import com.traffic.gat1049.device.adapter.model.DeviceConnectionInfo;
+import com.traffic.gat1049.device.adapter.model.HealthCheckReport;
+import com.traffic.gat1049.device.adapter.registry.AdapterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * 批量设备健康检查器
+ * 按适配器品牌和网关地址对设备分组，每组只发起一次批量探测，各组经设备调用调度器并发执行，
+ * 在截止时间内未返回的组按不健康处理；检查结果写入设备熔断器，并保留最近一次结果供健康报告使用
+ */
+@Component
+public class BatchDeviceHealthChecker implements DeviceHealthChecker {
+
+    private static final Logger logger = LoggerFactory.getLogger(BatchDeviceHealthChecker.class);
+
+    @Autowired
+    private AdapterRegistry adapterRegistry;
+
+    @Autowired
+    private DeviceIoScheduler deviceIoScheduler;
+
+    @Autowired
+    private DeviceCircuitBreaker deviceCircuitBreaker;
+
+    /**
+     * 设备管理服务依赖本检查器，延迟获取以避免循环依赖
+     */
+    @Autowired
+    private ObjectProvider<DeviceManagementService> deviceManagementServiceProvider;
+
+    @Value("${gat1049.device-health.deadline-ms:5000}")
+    private long deadlineMs;
+
+    /**
+     * 当前探测分组 (品牌@网关 -> 分组)，由轮询调度器定期刷新
+     */
+    private volatile Map<String, ProbeGroup> probeGroups = Collections.emptyMap();
+
+    /**
+     * 最近一次检查结果
+     */
+    private final ConcurrentMap<String, Boolean> lastHealthStatus = new ConcurrentHashMap<>();
+
+    private final LongAdder probes = new LongAdder();
+    private final LongAdder failedProbes = new LongAdder();
+    private final LongAdder devicesChecked = new LongAdder();
+    private final LongAdder unhealthyResults = new LongAdder();
+
+    @Override
+    public boolean checkDeviceHealth(String controllerId) {
+        return Boolean.TRUE.equals(batchCheckHealth(Collections.singletonList(controllerId)).get(controllerId));
+    }
+
+    @Override
+    public Map<String, Boolean> batchCheckHealth(List<String> controllerIds) {
+        return batchCheckHealthAsync(controllerIds).join();
+    }
+
+    /**
+     * 异步批量检查设备健康状态，结果在截止时间内返回，不以异常结束
+     */
+    public CompletableFuture<Map<String, Boolean>> batchCheckHealthAsync(Collection<String> controllerIds) {
+        DeviceManagementService deviceManagementService = deviceManagementServiceProvider.getObject();
+        Map<String, ProbeGroup> groups = groupDevices(controllerIds,
+                deviceManagementService.getDeviceConnections(), deviceManagementService.getDeviceBrandMapping());
+
+        Map<String, Boolean> results = new ConcurrentHashMap<>();
+        for (String controllerId : controllerIds) {
+            results.put(controllerId, false);
+        }
+
+        CompletableFuture<?>[] futures = groups.values().stream()
+                .map(group -> probe(group, false).thenAccept(results::putAll))
+                .toArray(CompletableFuture[]::new);
+
+        return CompletableFuture.allOf(futures).thenApply(v -> {
+            Map<String, Boolean> ordered = new LinkedHashMap<>();
+            for (String controllerId : controllerIds) {
+                ordered.put(controllerId, results.get(controllerId));
+            }
+            return ordered;
+        });
+    }
+
+    @Override
+    public HealthCheckReport getHealthReport() {
+        long startTime = System.currentTimeMillis();
+        List<String> connectedDevices = deviceManagementServiceProvider.getObject().getConnectedDevices();
+
+        // 尚无检查结果的设备立即检查一次，其余使用轮询得到的最近结果
+        List<String> unchecked = new ArrayList<>();
+        for (String controllerId : connectedDevices) {
+            if (!lastHealthStatus.containsKey(controllerId)) {
+                unchecked.add(controllerId);
+            }
+        }
+        if (!unchecked.isEmpty()) {
+            batchCheckHealth(unchecked);
+        }
+
+        Map<String, Boolean> deviceHealthStatus = new LinkedHashMap<>();
+        int healthyDevices = 0;
+        for (String controllerId : connectedDevices) {
+            boolean healthy = Boolean.TRUE.equals(lastHealthStatus.get(controllerId));
+            deviceHealthStatus.put(controllerId, healthy);
+            if (healthy) {
+                healthyDevices++;
+            }
+        }
+
+        return HealthCheckReport.builder()
+                .deviceHealthStatus(deviceHealthStatus)
+                .totalDevices(connectedDevices.size())
+                .healthyDevices(healthyDevices)
+                .unhealthyDevices(connectedDevices.size() - healthyDevices)
+                .checkTime(LocalDateTime.now())
+                .checkDurationMs(System.currentTimeMillis() - startTime)
+                .build();
+    }
+
+    /**
+     * 刷新并返回当前探测分组，供轮询调度器按分组错开探测
+     */
+    public Collection<String> getProbeGroups() {
+        DeviceManagementService deviceManagementService = deviceManagementServiceProvider.getObject();
+        List<String> connectedDevices = deviceManagementService.getConnectedDevices();
+        Map<String, ProbeGroup> groups = groupDevices(connectedDevices,
+                deviceManagementService.getDeviceConnections(), deviceManagementService.getDeviceBrandMapping());
+        probeGroups = groups;
+
+        // 清除已断开设备的结果
+        Set<String> connected = new HashSet<>(connectedDevices);
+        lastHealthStatus.keySet().retainAll(connected);
+        return groups.keySet();
+    }
+
+    /**
+     * 探测一个分组，返回网关是否可达（至少一台设备健康）
+     */
+    public CompletableFuture<Boolean> checkGroupAsync(String groupKey) {
+        ProbeGroup group = probeGroups.get(groupKey);
+        if (group == null) {
+            return CompletableFuture.completedFuture(true);
+        }
+        return probe(group, true).thenApply(result -> result.containsValue(true));
+    }
+
+    /**
+     * 按品牌和适配器实际探测的地址分组，探测同一地址的设备只发起一次探测
+     */
+    Map<String, ProbeGroup> groupDevices(Collection<String> controllerIds,
+                                         Map<String, DeviceConnectionInfo> connections,
+                                         Map<String, String> brands) {
+        Map<String, ProbeGroup> groups = new HashMap<>();
+        Map<String, SignalControllerAdapter<?>> adapters = new HashMap<>();
+        for (String controllerId : controllerIds) {
+            String brand = brands.get(controllerId);
+            DeviceConnectionInfo connection = connections.get(controllerId);
+            if (brand == null || connection == null) {
+                continue;
+            }
+            SignalControllerAdapter<?> adapter = adapters.computeIfAbsent(brand,
+                    adapterRegistry::getSignalControllerAdapter);
+            String gateway = adapter != null ? adapter.getProbeAddress(connection) : defaultProbeAddress(connection);
+            groups.computeIfAbsent(brand + "@" + gateway, key -> new ProbeGroup(brand, gateway))
+                    .devices.add(connection);
+        }
+        return groups;
+    }
+
+    /**
+     * 无适配器时的分组地址：设备经服务端转发时为服务端地址，否则为设备自身地址
+     */
+    private static String defaultProbeAddress(DeviceConnectionInfo connection) {
+        String host = connection.getIpServer() != null && !connection.getIpServer().isEmpty()
+                ? connection.getIpServer() : connection.getIpAddress();
+        return connection.getPort() != null ? host + ":" + connection.getPort() : String.valueOf(host);
+    }
+
+    /**
+     * @param untilReleased 为 true 时返回结果在设备调用真正结束后才完成，供轮询使用；
+     *                      健康结果仍在截止时间内记录
+     */
+    private CompletableFuture<Map<String, Boolean>> probe(ProbeGroup group, boolean untilReleased) {
+        SignalControllerAdapter<?> adapter = adapterRegistry.getSignalControllerAdapter(group.brand);
+        if (adapter == null) {
+            return CompletableFuture.completedFuture(applyResults(group, null));
+        }
+
+        probes.increment();
+        Function<Executor, CompletionStage<Map<String, Boolean>>> check =
+                executor -> adapter.checkDevicesHealthAsync(group.devices, executor);
+        CompletableFuture<Map<String, Boolean>> call = untilReleased
+                ? deviceIoScheduler.submitUntilReleased(check, deadlineMs)
+                : deviceIoScheduler.submit(check, deadlineMs);
+        CompletableFuture<Map<String, Boolean>> applied = call.copy()
+                // 排队等待的时间也计入截止时间
+                .completeOnTimeout(null, deadlineMs, TimeUnit.MILLISECONDS)
+                .handle((result, e) -> {
+                    if (e != null || result == null) {
+                        failedProbes.increment();
+                        logger.warn("网关健康检查失败: brand={}, gateway={}, devices={}, error={}",
+                                group.brand, group.gateway, group.devices.size(),
+                                e != null ? e.getMessage() : "超时或无结果");
+                        return applyResults(group, null);
+                    }
+                    return applyResults(group, result);
+                });
+        if (!untilReleased) {
+            return applied;
+        }
+        // 超过截止时间的探测可能仍在执行，等其结束后再允许下一次探测
+        return applied.thenCombine(call.handle((result, e) -> null), (result, ignored) -> result);
+    }
+
+    /**
+     * 记录分组检查结果并更新熔断器，缺失的设备按不健康处理
+     */
+    private Map<String, Boolean> applyResults(ProbeGroup group, Map<String, Boolean> result) {
+        Map<String, Boolean> applied = new HashMap<>();
+        for (DeviceConnectionInfo device : group.devices) {
+            String controllerId = device.getDeviceId();
+            boolean healthy = result != null && Boolean.TRUE.equals(result.get(controllerId));
+            applied.put(controllerId, healthy);
+            lastHealthStatus.put(controllerId, healthy);
+            devicesChecked.increment();
+            if (healthy) {
+                deviceCircuitBreaker.recordSuccess(controllerId);
+            } else {
+                unhealthyResults.increment();
+                deviceCircuitBreaker.recordFailure(controllerId);
+            }
+        }
+        return applied;
+    }
+
+    public Stats getStats() {
+        int unhealthy = 0;
+        for (Boolean healthy : lastHealthStatus.values()) {
+            if (!healthy) {
+                unhealthy++;
+            }
+        }
+        Stats stats = new Stats();
+        stats.setProbeGroups(probeGroups.size());
+        stats.setUnhealthyDevices(unhealthy);
+        stats.setProbes(probes.sum());
+        stats.setFailedProbes(failedProbes.sum());
+        stats.setDevicesChecked(devicesChecked.sum());
+        stats.setUnhealthyResults(unhealthyResults.sum());
+        return stats;
+    }
+
+    static class ProbeGroup {
+        final String brand;
+        final String gateway;
+        final List<DeviceConnectionInfo> devices = new ArrayList<>();
+
+        ProbeGroup(String brand, String gateway) {
+            this.brand = brand;
+            this.gateway = gateway;
+        }
+    }
+
+    /**
+     * 健康检查统计
+     */
+    public static class Stats {
+        private int probeGroups;
+        private int unhealthyDevices;
+        private long probes;
+        private long failedProbes;
+        private long devicesChecked;
+        private long unhealthyResults;
+
+        public int getProbeGroups() { return probeGroups; }
+        public void setProbeGroups(int probeGroups) { this.probeGroups = probeGroups; }
+
+        public int getUnhealthyDevices() { return unhealthyDevices; }
+        public void setUnhealthyDevices(int unhealthyDevices) { this.unhealthyDevices = unhealthyDevices; }
+
+        public long getProbes() { return probes; }
+        public void setProbes(long probes) { this.probes = probes; }
+
+        public long getFailedProbes() { return failedProbes; }
+        public void setFailedProbes(long failedProbes) { this.failedProbes = failedProbes; }
+
+        public long getDevicesChecked() { return devicesChecked; }
+        public void setDevicesChecked(long devicesChecked) { this.devicesChecked = devicesChecked; }
+
+        public long getUnhealthyResults() { return unhealthyResults; }
+        public void setUnhealthyResults(long unhealthyResults) { this.unhealthyResults = unhealthyResults; }
+
+        @Override
+        public String toString() {
+            return String.format("BatchDeviceHealthChecker.Stats{groups=%d, unhealthy=%d, probes=%d, failedProbes=%d, devicesChecked=%d, unhealthyResults=%d}",
+                    probeGroups, unhealthyDevices, probes, failedProbes, devicesChecked, unhealthyResults);
+        }
+    }
+}
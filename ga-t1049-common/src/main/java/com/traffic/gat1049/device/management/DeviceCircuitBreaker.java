@@ -0,0 +1,216 @@
+package com.traffic.gat1049.device.management;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 设备熔断器
+ * 按信号机记录健康检查结果，连续失败达到阈值后熔断，熔断期间不向该设备下发配置、命令和状态读取；
+ * 熔断时间过后进入半开状态，只放行一个试探请求，其余请求在试探结果上报前仍被拒绝；
+ * 试探请求或健康检查成功则恢复，失败则重新熔断。试探请求在熔断时间内未上报结果时，允许下一个请求重新试探
+ */
+@Component
+public class DeviceCircuitBreaker {
+
+    private static final Logger logger = LoggerFactory.getLogger(DeviceCircuitBreaker.class);
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    @Value("${gat1049.device-health.breaker.failure-threshold:3}")
+    private int failureThreshold;
+
+    @Value("${gat1049.device-health.breaker.open-ms:60000}")
+    private long openMs;
+
+    private final ConcurrentMap<String, Circuit> circuits = new ConcurrentHashMap<>();
+
+    private final LongAdder trips = new LongAdder();
+    private final LongAdder recoveries = new LongAdder();
+    private final LongAdder rejectedRequests = new LongAdder();
+    private final LongAdder trialRequests = new LongAdder();
+
+    /**
+     * 是否允许向设备发送请求
+     * 半开状态下放行的请求即为试探请求，调用方须通过 {@link #recordRequestResult} 上报结果
+     */
+    public boolean allowRequest(String controllerId) {
+        Circuit circuit = circuits.get(controllerId);
+        if (circuit == null || circuit.currentState() == State.CLOSED) {
+            return true;
+        }
+        synchronized (circuit) {
+            long now = System.currentTimeMillis();
+            if (circuit.currentState() == State.CLOSED) {
+                return true;
+            }
+            if (circuit.currentState() == State.HALF_OPEN && circuit.trialUntil <= now) {
+                circuit.trialUntil = now + openMs;
+                trialRequests.increment();
+                return true;
+            }
+        }
+        rejectedRequests.increment();
+        return false;
+    }
+
+    /**
+     * 请求当前是否会被拒绝，不占用半开状态的试探名额，供轮询判断是否跳过本轮
+     */
+    public boolean isRejecting(String controllerId) {
+        Circuit circuit = circuits.get(controllerId);
+        if (circuit == null) {
+            return false;
+        }
+        synchronized (circuit) {
+            State state = circuit.currentState();
+            return state == State.OPEN
+                    || (state == State.HALF_OPEN && circuit.trialUntil > System.currentTimeMillis());
+        }
+    }
+
+    /**
+     * 上报请求结果，只有试探请求的结果影响熔断状态，其余情况以健康检查结果为准
+     *
+     * @param success 设备是否正常响应
+     */
+    public void recordRequestResult(String controllerId, boolean success) {
+        Circuit circuit = circuits.get(controllerId);
+        if (circuit == null) {
+            return;
+        }
+        synchronized (circuit) {
+            if (circuit.trialUntil == 0) {
+                return;
+            }
+            if (success) {
+                recordSuccess(controllerId);
+            } else {
+                recordFailure(controllerId);
+            }
+        }
+    }
+
+    public void recordSuccess(String controllerId) {
+        Circuit circuit = circuits.get(controllerId);
+        if (circuit == null) {
+            return;
+        }
+        synchronized (circuit) {
+            if (circuit.state != State.CLOSED) {
+                recoveries.increment();
+                logger.info("设备恢复，熔断关闭: controllerId={}", controllerId);
+            }
+            circuit.state = State.CLOSED;
+            circuit.consecutiveFailures = 0;
+            circuit.trialUntil = 0;
+        }
+    }
+
+    public void recordFailure(String controllerId) {
+        Circuit circuit = circuits.computeIfAbsent(controllerId, id -> new Circuit());
+        synchronized (circuit) {
+            circuit.consecutiveFailures++;
+            State state = circuit.currentState();
+            boolean trip = state == State.HALF_OPEN
+                    || (state == State.CLOSED && circuit.consecutiveFailures >= Math.max(1, failureThreshold));
+            if (trip) {
+                circuit.state = State.OPEN;
+                circuit.openUntil = System.currentTimeMillis() + openMs;
+                circuit.trialUntil = 0;
+                trips.increment();
+                logger.warn("设备健康检查连续失败，熔断: controllerId={}, failures={}",
+                        controllerId, circuit.consecutiveFailures);
+            }
+        }
+    }
+
+    public State getState(String controllerId) {
+        Circuit circuit = circuits.get(controllerId);
+        return circuit != null ? circuit.currentState() : State.CLOSED;
+    }
+
+    /**
+     * 设备断开后清除记录
+     */
+    public void remove(String controllerId) {
+        circuits.remove(controllerId);
+    }
+
+    public Stats getStats() {
+        int open = 0;
+        int halfOpen = 0;
+        for (Circuit circuit : circuits.values()) {
+            State state = circuit.currentState();
+            if (state == State.OPEN) {
+                open++;
+            } else if (state == State.HALF_OPEN) {
+                halfOpen++;
+            }
+        }
+        Stats stats = new Stats();
+        stats.setOpenCircuits(open);
+        stats.setHalfOpenCircuits(halfOpen);
+        stats.setTrips(trips.sum());
+        stats.setRecoveries(recoveries.sum());
+        stats.setRejectedRequests(rejectedRequests.sum());
+        stats.setTrialRequests(trialRequests.sum());
+        return stats;
+    }
+
+    private static class Circuit {
+        volatile State state = State.CLOSED;
+        volatile long openUntil;
+        // 半开状态下试探请求的有效期，0 表示没有进行中的试探
+        long trialUntil;
+        int consecutiveFailures;
+
+        State currentState() {
+            State current = state;
+            return current == State.OPEN && System.currentTimeMillis() >= openUntil ? State.HALF_OPEN : current;
+        }
+    }
+
+    /**
+     * 熔断统计
+     */
+    public static class Stats {
+        private int openCircuits;
+        private int halfOpenCircuits;
+        private long trips;
+        private long recoveries;
+        private long rejectedRequests;
+        private long trialRequests;
+
+        public int getOpenCircuits() { return openCircuits; }
+        public void setOpenCircuits(int openCircuits) { this.openCircuits = openCircuits; }
+
+        public int getHalfOpenCircuits() { return halfOpenCircuits; }
+        public void setHalfOpenCircuits(int halfOpenCircuits) { this.halfOpenCircuits = halfOpenCircuits; }
+
+        public long getTrips() { return trips; }
+        public void setTrips(long trips) { this.trips = trips; }
+
+        public long getRecoveries() { return recoveries; }
+        public void setRecoveries(long recoveries) { this.recoveries = recoveries; }
+
+        public long getRejectedRequests() { return rejectedRequests; }
+        public void setRejectedRequests(long rejectedRequests) { this.rejectedRequests = rejectedRequests; }
+
+        public long getTrialRequests() { return trialRequests; }
+        public void setTrialRequests(long trialRequests) { this.trialRequests = trialRequests; }
+
+        @Override
+        public String toString() {
+            return String.format("DeviceCircuitBreaker.Stats{open=%d, halfOpen=%d, trips=%d, recoveries=%d, rejected=%d, trials=%d}",
+                    openCircuits, halfOpenCircuits, trips, recoveries, rejectedRequests, trialRequests);
+        }
+    }
+}
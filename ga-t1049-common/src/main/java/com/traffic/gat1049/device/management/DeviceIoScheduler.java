@@ -0,0 +1,539 @@
+package com.traffic.gat1049.device.management;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * 设备调用调度器
+ * 限制同时进行的设备调用数，超出的调用排队等待；调用本身通过适配器的异步方法发起，
+ * 等待设备响应期间不占用调度线程。
+ *
+ * 同步实现的适配器方法在调度器传入的执行器上运行：
+ * 1. 同时交给阻塞线程池的任务不超过阻塞线程数，其余在调度器内排队，不在线程池里堆积
+ * 2. 超时从任务在阻塞线程上开始执行时计算；排队等待阻塞线程超过同样时长的调用以超时结束，任务不再执行
+ * 3. 超时后中断正在执行的任务，任务真正结束后才释放并发许可
+ *
+ * 同步适配器每个调用占用一个阻塞线程，一轮状态轮询至少需要 设备数 × 单次耗时 ÷ 阻塞线程数 的时间，
+ * 阻塞线程数未配置时按预计设备数、单次耗时和轮询周期计算（4000台、1秒、30秒周期时为134）。
+ * 阻塞线程只适合数百个并发调用；要让数千个调用同时进行，适配器需要基于非阻塞I/O实现异步方法。
+ */
+@Component
+public class DeviceIoScheduler {
+
+    private static final Logger logger = LoggerFactory.getLogger(DeviceIoScheduler.class);
+
+    @Value("${gat1049.device-io.max-in-flight:2000}")
+    private int maxInFlight;
+
+    @Value("${gat1049.device-io.max-pending:20000}")
+    private int maxPending;
+
+    /**
+     * 阻塞线程数，0 表示按预计设备数、单次耗时和状态轮询周期计算
+     */
+    @Value("${gat1049.device-io.blocking-threads:0}")
+    private int blockingThreads;
+
+    @Value("${gat1049.device-io.expected-devices:4000}")
+    private int expectedDevices;
+
+    @Value("${gat1049.device-io.expected-latency-ms:1000}")
+    private long expectedLatencyMs;
+
+    @Value("${gat1049.device-poll.status-period-ms:30000}")
+    private long statusPeriodMs;
+
+    @Value("${gat1049.device-io.timeout-ms:10000}")
+    private long timeoutMs;
+
+    /**
+     * 同步适配器方法的执行器
+     */
+    private ThreadPoolExecutor blockingExecutor;
+
+    /**
+     * 调用超时计时器
+     */
+    private ScheduledThreadPoolExecutor timeoutTimer;
+
+    private final Queue<PendingCall<?>> pendingCalls = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pendingCount = new AtomicInteger();
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    /**
+     * 等待阻塞线程的同步任务，与 blockingRunning 一起由 blockingTasks 加锁保护
+     */
+    private final Queue<BlockingTask> blockingTasks = new ArrayDeque<>();
+    private int blockingRunning;
+    private int blockingLimit;
+
+    /**
+     * 分发请求计数，保证同一时刻只有一个线程在分发，调用同步完成时也不会递归
+     */
+    private final AtomicInteger drainRequests = new AtomicInteger();
+
+    private final LongAdder submittedCalls = new LongAdder();
+    private final LongAdder completedCalls = new LongAdder();
+    private final LongAdder failedCalls = new LongAdder();
+    private final LongAdder timedOutCalls = new LongAdder();
+    private final LongAdder expiredBeforeStartCalls = new LongAdder();
+    private final LongAdder rejectedCalls = new LongAdder();
+
+    @PostConstruct
+    public void initialize() {
+        int required = requiredBlockingThreads(expectedDevices, expectedLatencyMs, statusPeriodMs);
+        if (blockingThreads > 0) {
+            blockingLimit = blockingThreads;
+            if (blockingThreads < required) {
+                logger.warn("阻塞线程数 {} 小于一个轮询周期内完成 {} 台设备调用所需的 {}，一轮状态轮询约需 {} 毫秒",
+                        blockingThreads, expectedDevices, required,
+                        (long) Math.ceil((double) expectedDevices * expectedLatencyMs / blockingThreads));
+            }
+        } else {
+            blockingLimit = Math.min(required, Math.max(1, maxInFlight));
+        }
+        AtomicInteger threadIndex = new AtomicInteger();
+        blockingExecutor = new ThreadPoolExecutor(blockingLimit, blockingLimit, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), r -> {
+            Thread thread = new Thread(r, "device-io-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        blockingExecutor.allowCoreThreadTimeOut(true);
+        timeoutTimer = new ScheduledThreadPoolExecutor(1, r -> {
+            Thread thread = new Thread(r, "device-io-timer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        timeoutTimer.setRemoveOnCancelPolicy(true);
+        logger.info("设备调用调度器已启动: maxInFlight={}, blockingThreads={}, timeoutMs={}",
+                maxInFlight, blockingLimit, timeoutMs);
+    }
+
+    /**
+     * 一个轮询周期内以同步方式完成所有设备调用所需的阻塞线程数
+     */
+    static int requiredBlockingThreads(int devices, long latencyMs, long periodMs) {
+        if (devices <= 0 || latencyMs <= 0) {
+            return 1;
+        }
+        long period = Math.max(1, periodMs);
+        long threads = ((long) devices * latencyMs + period - 1) / period;
+        return (int) Math.max(1, Math.min(Integer.MAX_VALUE, threads));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (timeoutTimer != null) {
+            timeoutTimer.shutdownNow();
+        }
+        if (blockingExecutor != null) {
+            blockingExecutor.shutdownNow();
+        }
+        RejectedExecutionException closed = new RejectedExecutionException("设备调用调度器已关闭");
+        PendingCall<?> call;
+        while ((call = pendingCalls.poll()) != null) {
+            call.result.completeExceptionally(closed);
+            call.finished.complete(null);
+        }
+        List<BlockingTask> queued;
+        synchronized (blockingTasks) {
+            queued = new ArrayList<>(blockingTasks);
+            blockingTasks.clear();
+        }
+        for (BlockingTask task : queued) {
+            task.call.result.completeExceptionally(closed);
+            task.call.finished.complete(null);
+        }
+    }
+
+    /**
+     * 提交设备调用，使用默认超时
+     */
+    public <T> CompletableFuture<T> submit(Function<Executor, ? extends CompletionStage<T>> call) {
+        return submit(call, timeoutMs);
+    }
+
+    /**
+     * 提交设备调用
+     *
+     * @param call      发起调用，在取得并发许可后执行；参数为同步方法的执行器，传给适配器的异步方法
+     * @param timeoutMs 超时时间，非阻塞调用从发起时计算，同步方法从在阻塞线程上开始执行时计算；
+     *                  超时后以 TimeoutException 结束
+     * @return 调用结果；排队已满时以 RejectedExecutionException 结束
+     */
+    public <T> CompletableFuture<T> submit(Function<Executor, ? extends CompletionStage<T>> call, long timeoutMs) {
+        return enqueue(call, timeoutMs).result;
+    }
+
+    /**
+     * 提交设备调用，使用默认超时，结果在调用真正结束后才交付
+     */
+    public <T> CompletableFuture<T> submitUntilReleased(Function<Executor, ? extends CompletionStage<T>> call) {
+        return submitUntilReleased(call, timeoutMs);
+    }
+
+    /**
+     * 提交设备调用，结果在调用真正结束、释放并发许可后才交付
+     * 超时的调用同样以 TimeoutException 结束，但要等阻塞任务退出后才完成；
+     * 供轮询等需要避免同一设备调用重叠的场景使用
+     */
+    public <T> CompletableFuture<T> submitUntilReleased(Function<Executor, ? extends CompletionStage<T>> call,
+                                                        long timeoutMs) {
+        PendingCall<T> pending = enqueue(call, timeoutMs);
+        return pending.finished.thenCompose(ignored -> pending.result);
+    }
+
+    private <T> PendingCall<T> enqueue(Function<Executor, ? extends CompletionStage<T>> call, long timeoutMs) {
+        PendingCall<T> pending = new PendingCall<>(call, timeoutMs);
+        if (pendingCount.incrementAndGet() > maxPending) {
+            pendingCount.decrementAndGet();
+            rejectedCalls.increment();
+            pending.result.completeExceptionally(new RejectedExecutionException("设备调用排队已满: " + maxPending));
+            pending.finished.complete(null);
+            return pending;
+        }
+        submittedCalls.increment();
+        pendingCalls.offer(pending);
+        drain();
+        return pending;
+    }
+
+    private void drain() {
+        if (drainRequests.getAndIncrement() != 0) {
+            return;
+        }
+        int missed = 1;
+        do {
+            while (inFlight.get() < maxInFlight) {
+                PendingCall<?> call = pendingCalls.poll();
+                if (call == null) {
+                    break;
+                }
+                pendingCount.decrementAndGet();
+                inFlight.incrementAndGet();
+                start(call);
+            }
+            missed = drainRequests.addAndGet(-missed);
+        } while (missed != 0);
+    }
+
+    private <T> void start(PendingCall<T> call) {
+        CompletableFuture<T> stage;
+        try {
+            stage = call.function.apply(task -> execute(call, task)).toCompletableFuture();
+        } catch (Throwable e) {
+            stage = CompletableFuture.failedFuture(e);
+        }
+
+        synchronized (call) {
+            call.stage = stage;
+            // 同步任务已开始执行时由任务计时；否则从此刻计时，同步任务开始执行时重新计时
+            if (!call.started) {
+                scheduleTimeout(call);
+            }
+        }
+        stage.whenComplete((value, error) -> onStageComplete(call, value, error));
+    }
+
+    private <T> void onStageComplete(PendingCall<T> call, T value, Throwable error) {
+        boolean first;
+        synchronized (call) {
+            first = !call.settled;
+            call.settled = true;
+            if (call.timeout != null) {
+                call.timeout.cancel(false);
+            }
+        }
+        // 已超时的调用不再改写结果
+        if (first) {
+            if (error == null) {
+                completedCalls.increment();
+                call.result.complete(value);
+            } else {
+                Throwable cause = error instanceof CompletionException && error.getCause() != null
+                        ? error.getCause() : error;
+                failedCalls.increment();
+                call.result.completeExceptionally(cause);
+            }
+        }
+        release(call);
+    }
+
+    private void onTimeout(PendingCall<?> call) {
+        CompletableFuture<?> stage;
+        synchronized (call) {
+            if (call.settled) {
+                return;
+            }
+            call.settled = true;
+            if (!call.started && call.blockingTasks > 0) {
+                expiredBeforeStartCalls.increment();
+            }
+            call.runners.forEach(Thread::interrupt);
+            stage = call.stage;
+        }
+        timedOutCalls.increment();
+        call.result.completeExceptionally(new TimeoutException("设备调用超时: " + call.timeoutMs + "ms"));
+        if (stage != null) {
+            stage.cancel(true);
+        }
+        release(call);
+    }
+
+    /**
+     * 调用结果已确定且同步任务全部结束后释放并发许可
+     */
+    private void release(PendingCall<?> call) {
+        synchronized (call) {
+            if (call.released || !call.settled || call.blockingTasks > 0) {
+                return;
+            }
+            call.released = true;
+        }
+        inFlight.decrementAndGet();
+        call.finished.complete(null);
+        drain();
+    }
+
+    /**
+     * 需由调用方持有 call 的锁
+     */
+    private void scheduleTimeout(PendingCall<?> call) {
+        if (call.timeout != null) {
+            call.timeout.cancel(false);
+        }
+        try {
+            call.timeout = timeoutTimer.schedule(() -> onTimeout(call), call.timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            call.result.completeExceptionally(e);
+        }
+    }
+
+    /**
+     * 同步方法的执行入口，任务在调度器内排队，取得阻塞线程后执行
+     */
+    private void execute(PendingCall<?> call, Runnable runnable) {
+        synchronized (call) {
+            call.blockingTasks++;
+        }
+        synchronized (blockingTasks) {
+            blockingTasks.offer(new BlockingTask(call, runnable));
+        }
+        dispatchBlocking();
+    }
+
+    private void dispatchBlocking() {
+        List<BlockingTask> skipped = new ArrayList<>();
+        RejectedExecutionException rejected = null;
+        synchronized (blockingTasks) {
+            while (blockingRunning < blockingLimit) {
+                BlockingTask task = blockingTasks.poll();
+                if (task == null) {
+                    break;
+                }
+                // 排队期间已超时的调用不再执行
+                if (task.call.result.isDone()) {
+                    skipped.add(task);
+                    continue;
+                }
+                blockingRunning++;
+                try {
+                    blockingExecutor.execute(() -> runBlocking(task));
+                } catch (RejectedExecutionException e) {
+                    blockingRunning--;
+                    rejected = e;
+                    skipped.add(task);
+                }
+            }
+        }
+        for (BlockingTask task : skipped) {
+            if (rejected != null) {
+                task.call.result.completeExceptionally(rejected);
+            }
+            finishBlocking(task.call);
+        }
+    }
+
+    private void runBlocking(BlockingTask task) {
+        PendingCall<?> call = task.call;
+        Thread thread = Thread.currentThread();
+        boolean run;
+        synchronized (call) {
+            run = !call.settled && !call.result.isDone();
+            if (run) {
+                if (!call.started) {
+                    call.started = true;
+                    scheduleTimeout(call);
+                }
+                call.runners.add(thread);
+            }
+        }
+        try {
+            if (run) {
+                task.runnable.run();
+            }
+        } finally {
+            synchronized (call) {
+                call.runners.remove(thread);
+            }
+            // 清除超时中断标志，线程复用时不影响下一个任务
+            Thread.interrupted();
+            synchronized (blockingTasks) {
+                blockingRunning--;
+            }
+            finishBlocking(call);
+            dispatchBlocking();
+        }
+    }
+
+    private void finishBlocking(PendingCall<?> call) {
+        synchronized (call) {
+            call.blockingTasks--;
+        }
+        release(call);
+    }
+
+    public Stats getStats() {
+        Stats stats = new Stats();
+        stats.setMaxInFlight(maxInFlight);
+        stats.setBlockingThreads(blockingLimit);
+        stats.setInFlight(inFlight.get());
+        stats.setPending(pendingCount.get());
+        synchronized (blockingTasks) {
+            stats.setBlockingActive(blockingRunning);
+            stats.setBlockingQueued(blockingTasks.size());
+        }
+        stats.setSubmittedCalls(submittedCalls.sum());
+        stats.setCompletedCalls(completedCalls.sum());
+        stats.setFailedCalls(failedCalls.sum());
+        stats.setTimedOutCalls(timedOutCalls.sum());
+        stats.setExpiredBeforeStartCalls(expiredBeforeStartCalls.sum());
+        stats.setRejectedCalls(rejectedCalls.sum());
+        return stats;
+    }
+
+    /**
+     * 已提交的调用，可变字段由调用对象加锁保护
+     */
+    private static class PendingCall<T> {
+        final Function<Executor, ? extends CompletionStage<T>> function;
+        final long timeoutMs;
+        final CompletableFuture<T> result = new CompletableFuture<>();
+        // 调用真正结束、释放并发许可后完成
+        final CompletableFuture<Void> finished = new CompletableFuture<>();
+
+        CompletableFuture<T> stage;
+        ScheduledFuture<?> timeout;
+        // 同步任务已在阻塞线程上开始执行
+        boolean started;
+        // 已提交、尚未结束的同步任务数
+        int blockingTasks;
+        // 调用结果已确定（完成、失败或超时）
+        boolean settled;
+        boolean released;
+        final Set<Thread> runners = new HashSet<>();
+
+        PendingCall(Function<Executor, ? extends CompletionStage<T>> function, long timeoutMs) {
+            this.function = function;
+            this.timeoutMs = timeoutMs;
+        }
+    }
+
+    private static class BlockingTask {
+        final PendingCall<?> call;
+        final Runnable runnable;
+
+        BlockingTask(PendingCall<?> call, Runnable runnable) {
+            this.call = call;
+            this.runnable = runnable;
+        }
+    }
+
+    /**
+     * 调度统计
+     */
+    public static class Stats {
+        private int maxInFlight;
+        private int inFlight;
+        private int pending;
+        private int blockingThreads;
+        private int blockingActive;
+        private int blockingQueued;
+        private long submittedCalls;
+        private long completedCalls;
+        private long failedCalls;
+        private long timedOutCalls;
+        private long expiredBeforeStartCalls;
+        private long rejectedCalls;
+
+        public int getMaxInFlight() { return maxInFlight; }
+        public void setMaxInFlight(int maxInFlight) { this.maxInFlight = maxInFlight; }
+
+        public int getInFlight() { return inFlight; }
+        public void setInFlight(int inFlight) { this.inFlight = inFlight; }
+
+        public int getPending() { return pending; }
+        public void setPending(int pending) { this.pending = pending; }
+
+        public int getBlockingThreads() { return blockingThreads; }
+        public void setBlockingThreads(int blockingThreads) { this.blockingThreads = blockingThreads; }
+
+        public int getBlockingActive() { return blockingActive; }
+        public void setBlockingActive(int blockingActive) { this.blockingActive = blockingActive; }
+
+        public int getBlockingQueued() { return blockingQueued; }
+        public void setBlockingQueued(int blockingQueued) { this.blockingQueued = blockingQueued; }
+
+        public long getSubmittedCalls() { return submittedCalls; }
+        public void setSubmittedCalls(long submittedCalls) { this.submittedCalls = submittedCalls; }
+
+        public long getCompletedCalls() { return completedCalls; }
+        public void setCompletedCalls(long completedCalls) { this.completedCalls = completedCalls; }
+
+        public long getFailedCalls() { return failedCalls; }
+        public void setFailedCalls(long failedCalls) { this.failedCalls = failedCalls; }
+
+        public long getTimedOutCalls() { return timedOutCalls; }
+        public void setTimedOutCalls(long timedOutCalls) { this.timedOutCalls = timedOutCalls; }
+
+        public long getExpiredBeforeStartCalls() { return expiredBeforeStartCalls; }
+        public void setExpiredBeforeStartCalls(long expiredBeforeStartCalls) { this.expiredBeforeStartCalls = expiredBeforeStartCalls; }
+
+        public long getRejectedCalls() { return rejectedCalls; }
+        public void setRejectedCalls(long rejectedCalls) { this.rejectedCalls = rejectedCalls; }
+
+        @Override
+        public String toString() {
+            return String.format("DeviceIoScheduler.Stats{inFlight=%d/%d, pending=%d, blockingActive=%d/%d, blockingQueued=%d, submitted=%d, completed=%d, failed=%d, timedOut=%d, expiredBeforeStart=%d, rejected=%d}",
+                    inFlight, maxInFlight, pending, blockingActive, blockingThreads, blockingQueued,
+                    submittedCalls, completedCalls, failedCalls, timedOutCalls, expiredBeforeStartCalls, rejectedCalls);
+        }
+    }
+}
@@ -10,12 +10,17 @@ import com.traffic.gat1049.device.adapter.event.DeviceConnectionEvent;
 import com.traffic.gat1049.device.adapter.event.DeviceStatusChangeEvent;
 
 import com.traffic.gat1049.device.sync.interfaces.SyncService;
+import com.traffic.gat1049.protocol.model.intersection.LampGroupParam;
+import com.traffic.gat1049.protocol.model.signal.PlanParam;
+import com.traffic.gat1049.protocol.model.signal.SignalGroupParam;
+import com.traffic.gat1049.protocol.model.signal.StageParam;
 import com.traffic.gat1049.device.sync.interfaces.SyncTaskManager;
+import com.traffic.gat1049.repository.cache.ParamCache;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.ApplicationEventPublisher;
-import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
 import javax.annotation.PostConstruct;
@@ -23,6 +28,8 @@ import javax.annotation.PreDestroy;
 import java.time.LocalDateTime;
 import java.util.*;
 import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
@@ -34,6 +41,9 @@ public class DeviceManagementService {
 
     private static final Logger logger = LoggerFactory.getLogger(DeviceManagementService.class);
 
+    private static final String STATUS_POLL_TASK = "status";
+    private static final String HEALTH_CHECK_TASK = "health";
+
     @Autowired
     private AdapterRegistry adapterRegistry;
 
@@ -52,6 +62,24 @@ public class DeviceManagementService {
     @Autowired(required = false)
     private DeviceHealthChecker deviceHealthChecker;
 
+    @Autowired(required = false)
+    private ParamCache paramCache;
+
+    @Autowired
+    private DeviceIoScheduler deviceIoScheduler;
+
+    @Autowired
+    private DevicePollScheduler devicePollScheduler;
+
+    @Autowired
+    private DeviceCircuitBreaker deviceCircuitBreaker;
+
+    @Value("${gat1049.device-poll.status-period-ms:30000}")
+    private long statusPollPeriodMs;
+
+    @Value("${gat1049.device-poll.health-period-ms:60000}")
+    private long healthCheckPeriodMs;
+
     /**
      * 设备连接信息缓存
      */
@@ -63,21 +91,14 @@ public class DeviceManagementService {
     private final ConcurrentMap<String, DeviceStatusData> deviceStatusCache = new ConcurrentHashMap<>();
 
     /**
-     * 同步任务执行器
+     * 设备品牌映射缓存 (controllerId -> brand)
      */
-    private final ExecutorService syncExecutor = Executors.newFixedThreadPool(10,
-            r -> new Thread(r, "device-sync-" + System.currentTimeMillis()));
+    private final ConcurrentMap<String, String> deviceBrandMapping = new ConcurrentHashMap<>();
 
     /**
-     * 状态监控执行器
+     * 手动全量状态同步是否仍在进行
      */
-    private final ScheduledExecutorService monitorExecutor = Executors.newScheduledThreadPool(5,
-            r -> new Thread(r, "device-monitor-" + System.currentTimeMillis()));
-
-    /**
-     * 设备品牌映射缓存 (controllerId -> brand)
-     */
-    private final ConcurrentMap<String, String> deviceBrandMapping = new ConcurrentHashMap<>();
+    private final AtomicBoolean statusPollRunning = new AtomicBoolean(false);
 
     @PostConstruct
     public void initialize() {
@@ -88,8 +109,8 @@ public class DeviceManagementService {
             deviceDiscoveryService.startDiscovery();
         }
 
-        // 启动设备健康检查
-        startDeviceHealthMonitoring();
+        // 启动设备状态轮询和健康检查
+        startDevicePolling();
 
         logger.info("设备管理服务初始化完成");
     }
@@ -98,20 +119,9 @@ public class DeviceManagementService {
     public void shutdown() {
         logger.info("正在关闭设备管理服务...");
 
-        // 关闭执行器
-        syncExecutor.shutdown();
-        monitorExecutor.shutdown();
-
-        try {
-            if (!syncExecutor.awaitTermination(30, TimeUnit.SECONDS)) {
-                syncExecutor.shutdownNow();
-            }
-            if (!monitorExecutor.awaitTermination(30, TimeUnit.SECONDS)) {
-                monitorExecutor.shutdownNow();
-            }
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-        }
+        // 停止轮询
+        devicePollScheduler.unregister(STATUS_POLL_TASK);
+        devicePollScheduler.unregister(HEALTH_CHECK_TASK);
 
         // 断开所有设备连接
         disconnectAllDevices();
@@ -246,6 +256,7 @@ public class DeviceManagementService {
             deviceConnections.remove(controllerId);
             deviceBrandMapping.remove(controllerId);
             deviceStatusCache.remove(controllerId);
+            deviceCircuitBreaker.remove(controllerId);
 
             // 发布断开连接事件
             publishConnectionEvent(controllerId, brand, false, null, "断开连接");
@@ -324,44 +335,95 @@ public class DeviceManagementService {
      * 同步配置到设备
      */
     public CompletableFuture<SyncResult> syncConfigToDevice(String controllerId, DeviceConfigData configData) {
-        return CompletableFuture.supplyAsync(() -> {
-            try {
-                logger.info("开始同步配置到设备: {}", controllerId);
+        try {
+            logger.info("开始同步配置到设备: {}", controllerId);
 
-                String brand = deviceBrandMapping.get(controllerId);
-                if (brand == null) {
-                    return SyncResult.failure(controllerId, "DEVICE_NOT_CONNECTED", "设备未连接");
-                }
+            String brand = deviceBrandMapping.get(controllerId);
+            if (brand == null) {
+                return CompletableFuture.completedFuture(
+                        SyncResult.failure(controllerId, "DEVICE_NOT_CONNECTED", "设备未连接"));
+            }
 
-                SignalControllerAdapter adapter = getAdapter(brand);
-                if (adapter == null) {
-                    return SyncResult.failure(controllerId, "ADAPTER_NOT_FOUND", "适配器未找到");
-                }
+            SignalControllerAdapter<?> adapter = getAdapter(brand);
+            if (adapter == null) {
+                return CompletableFuture.completedFuture(
+                        SyncResult.failure(controllerId, "ADAPTER_NOT_FOUND", "适配器未找到"));
+            }
 
-                // 检查设备连接状态
-                if (!adapter.isConnected(controllerId)) {
-                    return SyncResult.failure(controllerId, "DEVICE_OFFLINE", "设备离线");
-                }
+            // 检查设备连接状态
+            if (!adapter.isConnected(controllerId)) {
+                return CompletableFuture.completedFuture(
+                        SyncResult.failure(controllerId, "DEVICE_OFFLINE", "设备离线"));
+            }
+
+            // 健康检查连续失败的设备暂停下发
+            if (!deviceCircuitBreaker.allowRequest(controllerId)) {
+                return CompletableFuture.completedFuture(
+                        SyncResult.failure(controllerId, "CIRCUIT_OPEN", "设备健康检查未通过，暂停下发"));
+            }
 
-                // 执行同步
-                SyncResult result = adapter.syncConfigToDevice(controllerId, configData);
+            // 执行同步
+            return deviceIoScheduler.submit(executor -> adapter.syncConfigToDeviceAsync(controllerId, configData, executor))
+                    .handle((result, e) -> {
+                        // 半开状态下的试探请求以设备是否正常响应决定熔断器恢复或重新熔断
+                        deviceCircuitBreaker.recordRequestResult(controllerId, e == null);
+                        if (e != null) {
+                            logger.error("配置同步异常: controllerId={}", controllerId, e);
+                            return SyncResult.failure(controllerId, "SYNC_EXCEPTION",
+                                    "同步异常: " + describeError(e));
+                        }
+                        if (result == null) {
+                            return SyncResult.failure(controllerId, "NO_RESULT", "适配器未返回同步结果");
+                        }
 
-                if (result.isSuccess()) {
-                    logger.info("配置同步成功: controllerId={}, affectedRows={}",
-                            controllerId, result.getAffectedRows());
-                } else {
-                    logger.warn("配置同步失败: controllerId={}, error={}",
-                            controllerId, result.getMessage());
-                }
+                        if (result.isSuccess()) {
+                            logger.info("配置同步成功: controllerId={}, affectedRows={}",
+                                    controllerId, result.getAffectedRows());
+                            invalidateParamCache(configData);
+                        } else {
+                            logger.warn("配置同步失败: controllerId={}, error={}",
+                                    controllerId, result.getMessage());
+                        }
 
-                return result;
+                        return result;
+                    });
 
-            } catch (Exception e) {
-                logger.error("配置同步异常: controllerId={}", controllerId, e);
-                return SyncResult.failure(controllerId, "SYNC_EXCEPTION",
-                        "同步异常: " + e.getMessage());
-            }
-        }, syncExecutor);
+        } catch (Exception e) {
+            logger.error("配置同步异常: controllerId={}", controllerId, e);
+            return CompletableFuture.completedFuture(SyncResult.failure(controllerId, "SYNC_EXCEPTION",
+                    "同步异常: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * 配置下发成功后失效涉及路口的参数缓存，无法确定路口时清空缓存
+     */
+    private void invalidateParamCache(DeviceConfigData configData) {
+        if (paramCache == null || configData == null) {
+            return;
+        }
+        Set<String> crossIds = new HashSet<>();
+        if (configData.getCrossParam() != null) {
+            crossIds.add(configData.getCrossParam().getCrossId());
+        }
+        collectCrossIds(configData.getLampGroups(), LampGroupParam::getCrossId, crossIds);
+        collectCrossIds(configData.getSignalGroups(), SignalGroupParam::getCrossId, crossIds);
+        collectCrossIds(configData.getStages(), StageParam::getCrossId, crossIds);
+        collectCrossIds(configData.getPlans(), PlanParam::getCrossId, crossIds);
+        crossIds.remove(null);
+
+        if (crossIds.isEmpty()) {
+            paramCache.invalidateAll();
+        } else {
+            crossIds.forEach(paramCache::invalidate);
+        }
+    }
+
+    private static <T> void collectCrossIds(List<T> params, Function<T, String> getter,
+                                            Set<String> crossIds) {
+        if (params != null) {
+            params.stream().filter(Objects::nonNull).map(getter).forEach(crossIds::add);
+        }
     }
 
     /**
@@ -386,40 +448,69 @@ public class DeviceManagementService {
      * 读取设备状态
      */
     public DeviceStatusData readDeviceStatus(String controllerId) {
+        return readDeviceStatusAsync(controllerId).join();
+    }
+
+    /**
+     * 异步读取设备状态
+     * 读取失败时返回错误状态，不以异常结束
+     */
+    public CompletableFuture<DeviceStatusData> readDeviceStatusAsync(String controllerId) {
+        return readDeviceStatusAsync(controllerId, false);
+    }
+
+    /**
+     * @param untilReleased 为 true 时结果在设备调用真正结束后才交付，供轮询使用
+     */
+    private CompletableFuture<DeviceStatusData> readDeviceStatusAsync(String controllerId, boolean untilReleased) {
         try {
             String brand = deviceBrandMapping.get(controllerId);
             if (brand == null) {
-                return createErrorStatus(controllerId, "设备未连接");
+                return CompletableFuture.completedFuture(createErrorStatus(controllerId, "设备未连接"));
             }
 
-            SignalControllerAdapter adapter = getAdapter(brand);
+            SignalControllerAdapter<?> adapter = getAdapter(brand);
             if (adapter == null) {
-                return createErrorStatus(controllerId, "适配器未找到");
+                return CompletableFuture.completedFuture(createErrorStatus(controllerId, "适配器未找到"));
             }
 
             // 检查设备连接状态
             if (!adapter.isConnected(controllerId)) {
-                return createErrorStatus(controllerId, "设备离线");
+                return CompletableFuture.completedFuture(createErrorStatus(controllerId, "设备离线"));
+            }
+
+            if (!deviceCircuitBreaker.allowRequest(controllerId)) {
+                return CompletableFuture.completedFuture(createErrorStatus(controllerId, "设备健康检查未通过，暂停读取"));
             }
 
             // 读取状态
-            DeviceStatusData statusData = adapter.readDeviceStatus(controllerId);
+            Function<Executor, CompletionStage<DeviceStatusData>> read =
+                    executor -> adapter.readDeviceStatusAsync(controllerId, executor);
+            return (untilReleased ? deviceIoScheduler.submitUntilReleased(read)
+                    : deviceIoScheduler.submit(read))
+                    .handle((statusData, e) -> {
+                        deviceCircuitBreaker.recordRequestResult(controllerId, e == null);
+                        if (e != null) {
+                            logger.error("读取设备状态异常: controllerId={}", controllerId, e);
+                            return createErrorStatus(controllerId, "状态读取异常: " + describeError(e));
+                        }
 
-            if (statusData != null) {
-                // 缓存状态
-                DeviceStatusData oldStatus = deviceStatusCache.put(controllerId, statusData);
+                        if (statusData != null) {
+                            // 缓存状态
+                            DeviceStatusData oldStatus = deviceStatusCache.put(controllerId, statusData);
 
-                // 检查状态是否发生变化，发布事件
-                if (isStatusChanged(oldStatus, statusData)) {
-                    publishStatusChangeEvent(controllerId, brand, oldStatus, statusData);
-                }
-            }
+                            // 检查状态是否发生变化，发布事件
+                            if (isStatusChanged(oldStatus, statusData)) {
+                                publishStatusChangeEvent(controllerId, brand, oldStatus, statusData);
+                            }
+                        }
 
-            return statusData;
+                        return statusData;
+                    });
 
         } catch (Exception e) {
             logger.error("读取设备状态异常: controllerId={}", controllerId, e);
-            return createErrorStatus(controllerId, "状态读取异常: " + e.getMessage());
+            return CompletableFuture.completedFuture(createErrorStatus(controllerId, "状态读取异常: " + e.getMessage()));
         }
     }
 
@@ -430,12 +521,11 @@ public class DeviceManagementService {
         Map<String, DeviceStatusData> results = new ConcurrentHashMap<>();
 
         List<CompletableFuture<Void>> futures = controllerIds.stream()
-                .map(controllerId -> CompletableFuture.runAsync(() -> {
-                    DeviceStatusData status = readDeviceStatus(controllerId);
+                .map(controllerId -> readDeviceStatusAsync(controllerId).thenAccept(status -> {
                     if (status != null) {
                         results.put(controllerId, status);
                     }
-                }, syncExecutor))
+                }))
                 .collect(Collectors.toList());
 
         // 等待所有任务完成
@@ -445,9 +535,10 @@ public class DeviceManagementService {
     }
 
     /**
-     * 定时同步所有在线设备状态
+     * 立即同步所有在线设备状态
+     * 定时同步由轮询调度器按设备错开执行，本方法用于手动触发一轮全量读取；
+     * 全部读取经调度器并发发起，本方法不等待结果，上一轮未结束时跳过
      */
-    @Scheduled(fixedRate = 30000) // 每30秒同步一次
     public void syncAllOnlineDevicesStatus() {
         List<String> connectedDevices = getConnectedDevices();
 
@@ -455,18 +546,23 @@ public class DeviceManagementService {
             return;
         }
 
-        logger.debug("开始定时同步设备状态，设备数量: {}", connectedDevices.size());
+        if (!statusPollRunning.compareAndSet(false, true)) {
+            logger.warn("上一轮设备状态同步尚未完成，跳过本轮，设备数量: {}", connectedDevices.size());
+            return;
+        }
 
-        // 并行读取所有设备状态
-        connectedDevices.parallelStream().forEach(controllerId -> {
-            try {
-                readDeviceStatus(controllerId);
-            } catch (Exception e) {
-                logger.error("定时状态同步失败: controllerId={}", controllerId, e);
-            }
-        });
+        logger.debug("开始全量同步设备状态，设备数量: {}", connectedDevices.size());
+        long startTime = System.currentTimeMillis();
 
-        logger.debug("定时状态同步完成");
+        CompletableFuture<?>[] futures = connectedDevices.stream()
+                .map(this::readDeviceStatusAsync)
+                .toArray(CompletableFuture[]::new);
+
+        CompletableFuture.allOf(futures).whenComplete((v, e) -> {
+            statusPollRunning.set(false);
+            logger.debug("全量状态同步完成，设备数量: {}, 耗时: {}ms",
+                    connectedDevices.size(), System.currentTimeMillis() - startTime);
+        });
     }
 
     // =================================================================
@@ -477,49 +573,65 @@ public class DeviceManagementService {
      * 发送控制命令
      */
     public CompletableFuture<CommandResult> sendCommand(String controllerId, DeviceCommand command) {
-        return CompletableFuture.supplyAsync(() -> {
-            try {
-                logger.info("发送控制命令: controllerId={}, commandType={}",
-                        controllerId, command.getCommandType());
+        try {
+            logger.info("发送控制命令: controllerId={}, commandType={}",
+                    controllerId, command.getCommandType());
 
-                String brand = deviceBrandMapping.get(controllerId);
-                if (brand == null) {
-                    return CommandResult.failure(command.getCommandId(), controllerId,
-                            "DEVICE_NOT_CONNECTED", "设备未连接");
-                }
+            String brand = deviceBrandMapping.get(controllerId);
+            if (brand == null) {
+                return CompletableFuture.completedFuture(CommandResult.failure(command.getCommandId(), controllerId,
+                        "DEVICE_NOT_CONNECTED", "设备未连接"));
+            }
 
-                SignalControllerAdapter adapter = getAdapter(brand);
-                if (adapter == null) {
-                    return CommandResult.failure(command.getCommandId(), controllerId,
-                            "ADAPTER_NOT_FOUND", "适配器未找到");
-                }
+            SignalControllerAdapter<?> adapter = getAdapter(brand);
+            if (adapter == null) {
+                return CompletableFuture.completedFuture(CommandResult.failure(command.getCommandId(), controllerId,
+                        "ADAPTER_NOT_FOUND", "适配器未找到"));
+            }
 
-                // 检查设备连接状态
-                if (!adapter.isConnected(controllerId)) {
-                    return CommandResult.failure(command.getCommandId(), controllerId,
-                            "DEVICE_OFFLINE", "设备离线");
-                }
+            // 检查设备连接状态
+            if (!adapter.isConnected(controllerId)) {
+                return CompletableFuture.completedFuture(CommandResult.failure(command.getCommandId(), controllerId,
+                        "DEVICE_OFFLINE", "设备离线"));
+            }
 
-                // 执行命令
-                CommandResult result = adapter.sendCommand(controllerId, command);
+            if (!deviceCircuitBreaker.allowRequest(controllerId)) {
+                return CompletableFuture.completedFuture(CommandResult.failure(command.getCommandId(), controllerId,
+                        "CIRCUIT_OPEN", "设备健康检查未通过，暂停下发"));
+            }
 
-                if (result.isSuccess()) {
-                    logger.info("命令执行成功: controllerId={}, commandId={}",
-                            controllerId, command.getCommandId());
-                } else {
-                    logger.warn("命令执行失败: controllerId={}, commandId={}, error={}",
-                            controllerId, command.getCommandId(), result.getMessage());
-                }
+            // 执行命令
+            return deviceIoScheduler.submit(executor -> adapter.sendCommandAsync(controllerId, command, executor))
+                    .handle((result, e) -> {
+                        deviceCircuitBreaker.recordRequestResult(controllerId, e == null);
+                        if (e != null) {
+                            logger.error("命令执行异常: controllerId={}, commandId={}",
+                                    controllerId, command.getCommandId(), e);
+                            return CommandResult.failure(command.getCommandId(), controllerId,
+                                    "COMMAND_EXCEPTION", "命令执行异常: " + describeError(e));
+                        }
+                        if (result == null) {
+                            return CommandResult.failure(command.getCommandId(), controllerId,
+                                    "NO_RESULT", "适配器未返回命令结果");
+                        }
 
-                return result;
+                        if (result.isSuccess()) {
+                            logger.info("命令执行成功: controllerId={}, commandId={}",
+                                    controllerId, command.getCommandId());
+                        } else {
+                            logger.warn("命令执行失败: controllerId={}, commandId={}, error={}",
+                                    controllerId, command.getCommandId(), result.getMessage());
+                        }
 
-            } catch (Exception e) {
-                logger.error("命令执行异常: controllerId={}, commandId={}",
-                        controllerId, command.getCommandId(), e);
-                return CommandResult.failure(command.getCommandId(), controllerId,
-                        "COMMAND_EXCEPTION", "命令执行异常: " + e.getMessage());
-            }
-        }, syncExecutor);
+                        return result;
+                    });
+
+        } catch (Exception e) {
+            logger.error("命令执行异常: controllerId={}, commandId={}",
+                    controllerId, command.getCommandId(), e);
+            return CompletableFuture.completedFuture(CommandResult.failure(command.getCommandId(), controllerId,
+                    "COMMAND_EXCEPTION", "命令执行异常: " + e.getMessage()));
+        }
     }
 
     // =================================================================
@@ -559,38 +671,62 @@ public class DeviceManagementService {
     // =================================================================
 
     /**
-     * 启动设备健康监控
+     * 启动设备状态轮询和健康检查
+     * 每台设备的轮询时刻在周期内错开，间隔随设备耗时和失败率调整；
+     * 使用批量健康检查器时按网关分组轮询，每个网关每周期探测一次
      */
-    private void startDeviceHealthMonitoring() {
-        monitorExecutor.scheduleWithFixedDelay(this::performHealthCheck, 60, 60, TimeUnit.SECONDS);
-        logger.info("设备健康监控已启动，检查间隔: 60秒");
+    private void startDevicePolling() {
+        devicePollScheduler.register(STATUS_POLL_TASK, statusPollPeriodMs, this::getConnectedDevices,
+                controllerId -> {
+                    // 熔断中的设备本轮跳过，不按失败放大轮询间隔
+                    if (deviceCircuitBreaker.isRejecting(controllerId)) {
+                        return CompletableFuture.completedFuture(null);
+                    }
+                    return readDeviceStatusAsync(controllerId, true)
+                            .thenApply(status -> status != null && status.getErrorMessage() == null);
+                });
+        if (deviceHealthChecker instanceof BatchDeviceHealthChecker) {
+            BatchDeviceHealthChecker batchHealthChecker = (BatchDeviceHealthChecker) deviceHealthChecker;
+            devicePollScheduler.register(HEALTH_CHECK_TASK, healthCheckPeriodMs, batchHealthChecker::getProbeGroups,
+                    batchHealthChecker::checkGroupAsync);
+        } else {
+            devicePollScheduler.register(HEALTH_CHECK_TASK, healthCheckPeriodMs, this::getConnectedDevices,
+                    this::checkDeviceHealthAsync);
+        }
+        logger.info("设备轮询已启动，状态周期: {}ms, 健康检查周期: {}ms", statusPollPeriodMs, healthCheckPeriodMs);
     }
 
     /**
-     * 执行健康检查
+     * 检查单台设备健康状态
      */
-    private void performHealthCheck() {
+    private CompletableFuture<Boolean> checkDeviceHealthAsync(String controllerId) {
         try {
-            List<String> connectedDevices = getConnectedDevices();
-
-            for (String controllerId : connectedDevices) {
-                try {
-                    String brand = deviceBrandMapping.get(controllerId);
-                    SignalControllerAdapter adapter = getAdapter(brand);
+            String brand = deviceBrandMapping.get(controllerId);
+            SignalControllerAdapter<?> adapter = brand != null ? getAdapter(brand) : null;
+            if (adapter == null) {
+                return CompletableFuture.completedFuture(false);
+            }
 
-                    if (adapter != null) {
-                        boolean healthy = adapter.healthCheck();
-                        if (!healthy) {
+            // 轮询使用，结果在设备调用真正结束后才交付
+            return deviceIoScheduler.submitUntilReleased(adapter::healthCheckAsync)
+                    .handle((healthy, e) -> {
+                        if (e != null) {
+                            logger.error("设备健康检查异常: controllerId={}, error={}", controllerId, describeError(e));
+                            deviceCircuitBreaker.recordFailure(controllerId);
+                            return false;
+                        }
+                        if (!Boolean.TRUE.equals(healthy)) {
                             logger.warn("设备健康检查失败: controllerId={}", controllerId);
                             // 可以在这里实现重连逻辑
+                            deviceCircuitBreaker.recordFailure(controllerId);
+                            return false;
                         }
-                    }
-                } catch (Exception e) {
-                    logger.error("设备健康检查异常: controllerId={}", controllerId, e);
-                }
-            }
+                        deviceCircuitBreaker.recordSuccess(controllerId);
+                        return true;
+                    });
         } catch (Exception e) {
-            logger.error("健康检查任务异常", e);
+            logger.error("设备健康检查异常: controllerId={}", controllerId, e);
+            return CompletableFuture.completedFuture(false);
         }
     }
 
@@ -598,6 +734,10 @@ public class DeviceManagementService {
      * 获取设备健康状态报告
      */
     public Map<String, Boolean> getDeviceHealthReport() {
+        if (deviceHealthChecker != null) {
+            return deviceHealthChecker.getHealthReport().getDeviceHealthStatus();
+        }
+
         Map<String, Boolean> healthReport = new HashMap<>();
 
         List<String> connectedDevices = getConnectedDevices();
@@ -636,6 +776,14 @@ public class DeviceManagementService {
         return brand != null ? getAdapter(brand) : null;
     }
 
+    /**
+     * 设备调用异常描述，超时单独说明
+     */
+    private static String describeError(Throwable e) {
+        Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+        return cause instanceof TimeoutException ? "设备响应超时" : cause.getMessage();
+    }
+
     /**
      * 创建错误状态
      */
@@ -0,0 +1,430 @@
+package com.traffic.gat1049.device.management;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * 设备轮询调度器
+ * 用哈希时间轮把每台设备的轮询时刻按设备编号散列到整个周期内，避免所有设备在同一时刻被轮询；
+ * 上一次轮询未结束的设备本轮跳过（按设备编号判断，设备在轮询中途下线又上线也不会重复轮询），
+ * 并按设备的响应耗时和失败率调整其轮询间隔
+ */
+@Component
+public class DevicePollScheduler {
+
+    private static final Logger logger = LoggerFactory.getLogger(DevicePollScheduler.class);
+
+    /**
+     * 耗时和失败率的指数平均系数
+     */
+    private static final double EWMA_ALPHA = 0.3;
+
+    @Value("${gat1049.device-poll.tick-ms:100}")
+    private long tickMs;
+
+    @Value("${gat1049.device-poll.wheel-size:512}")
+    private int wheelSize;
+
+    @Value("${gat1049.device-poll.refresh-ms:5000}")
+    private long refreshMs;
+
+    /**
+     * 轮询间隔上限，持续失败的设备间隔逐步放大到该值
+     */
+    @Value("${gat1049.device-poll.max-interval-ms:300000}")
+    private long maxIntervalMs;
+
+    /**
+     * 轮询间隔至少为平均耗时的倍数
+     */
+    @Value("${gat1049.device-poll.latency-factor:4}")
+    private double latencyFactor;
+
+    /**
+     * 时间轮线程，时间轮和任务成员只在该线程上修改
+     */
+    private ScheduledExecutorService wheelExecutor;
+
+    private List<PollEntry>[] wheel;
+    private long lastTick;
+    private long lastRefreshMillis;
+
+    private final Map<String, PollTask> tasks = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void initialize() {
+        wheelExecutor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "device-poll-wheel");
+            thread.setDaemon(true);
+            return thread;
+        });
+        initWheel(System.currentTimeMillis());
+        wheelExecutor.scheduleAtFixedRate(this::safeTick, tickMs, tickMs, TimeUnit.MILLISECONDS);
+        logger.info("设备轮询调度器已启动: tickMs={}, wheelSize={}", tickMs, wheel.length);
+    }
+
+    @SuppressWarnings("unchecked")
+    void initWheel(long now) {
+        wheel = (List<PollEntry>[]) new List<?>[Math.max(1, wheelSize)];
+        for (int i = 0; i < wheel.length; i++) {
+            wheel[i] = new ArrayList<>();
+        }
+        lastTick = now / tickMs - 1;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (wheelExecutor != null) {
+            wheelExecutor.shutdownNow();
+        }
+    }
+
+    /**
+     * 注册轮询任务
+     *
+     * @param name     任务名称，如 status、health
+     * @param periodMs 基础轮询周期
+     * @param devices  需要轮询的设备编号，定期重新读取以跟随设备上下线
+     * @param poller   轮询单台设备，结果为 true 表示成功，null 表示本轮跳过（如设备熔断中），
+     *                 跳过不计入耗时和失败率；结果须在设备调用真正结束后才完成，
+     *                 完成前该设备本任务不再轮询，不能以调用超时代替结束
+     */
+    public void register(String name, long periodMs, Supplier<Collection<String>> devices,
+                         Function<String, CompletionStage<Boolean>> poller) {
+        wheelExecutor.execute(() -> {
+            PollTask previous = tasks.get(name);
+            // 重新注册时沿用正在轮询的设备集合，未结束的轮询不会被新任务重复发起
+            Set<String> inFlight = previous != null ? previous.inFlight : ConcurrentHashMap.newKeySet();
+            PollTask task = new PollTask(name, periodMs, devices, poller, inFlight);
+            tasks.put(name, task);
+            if (previous != null) {
+                previous.entries.values().forEach(entry -> entry.removed = true);
+            }
+            refresh(task, System.currentTimeMillis());
+            logger.info("设备轮询任务已注册: name={}, periodMs={}, devices={}", name, periodMs, task.entries.size());
+        });
+    }
+
+    /**
+     * 注销轮询任务
+     */
+    public void unregister(String name) {
+        wheelExecutor.execute(() -> {
+            PollTask task = tasks.remove(name);
+            if (task != null) {
+                task.entries.values().forEach(entry -> entry.removed = true);
+            }
+        });
+    }
+
+    private void safeTick() {
+        try {
+            tick(System.currentTimeMillis());
+        } catch (Exception e) {
+            logger.error("设备轮询时间轮处理异常", e);
+        }
+    }
+
+    void tick(long now) {
+        if (now - lastRefreshMillis >= refreshMs) {
+            lastRefreshMillis = now;
+            tasks.values().forEach(task -> refresh(task, now));
+        }
+
+        long currentTick = now / tickMs;
+        // 线程被延迟时补处理错过的刻度，最多转一圈
+        long fromTick = Math.max(lastTick + 1, currentTick - wheel.length + 1);
+        for (long t = fromTick; t <= currentTick; t++) {
+            List<PollEntry> bucket = wheel[(int) (t % wheel.length)];
+            if (bucket.isEmpty()) {
+                continue;
+            }
+            List<PollEntry> due = new ArrayList<>();
+            Iterator<PollEntry> iterator = bucket.iterator();
+            while (iterator.hasNext()) {
+                PollEntry entry = iterator.next();
+                if (entry.removed) {
+                    iterator.remove();
+                } else if (entry.dueAt / tickMs <= currentTick) {
+                    iterator.remove();
+                    due.add(entry);
+                }
+            }
+            due.forEach(entry -> fire(entry, now));
+        }
+        lastTick = currentTick;
+    }
+
+    /**
+     * 同步任务的设备成员，新设备按散列相位加入时间轮
+     */
+    private void refresh(PollTask task, long now) {
+        Collection<String> current;
+        try {
+            current = task.devices.get();
+        } catch (Exception e) {
+            logger.error("读取轮询设备列表失败: task={}", task.name, e);
+            return;
+        }
+        Set<String> deviceIds = current != null ? new HashSet<>(current) : new HashSet<>();
+
+        Iterator<Map.Entry<String, PollEntry>> iterator = task.entries.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<String, PollEntry> existing = iterator.next();
+            if (!deviceIds.contains(existing.getKey())) {
+                existing.getValue().removed = true;
+                iterator.remove();
+            }
+        }
+
+        for (String deviceId : deviceIds) {
+            if (deviceId == null || task.entries.containsKey(deviceId)) {
+                continue;
+            }
+            PollEntry entry = new PollEntry(task, deviceId);
+            task.entries.put(deviceId, entry);
+            // 同一设备在不同任务中的相位也错开
+            long phase = Math.floorMod(mix((task.name + ":" + deviceId).hashCode()), task.periodMs);
+            schedule(entry, now + phase);
+        }
+    }
+
+    /**
+     * 打散散列值，编号相近的设备(如 C1、C2)也能均匀分布到周期内
+     */
+    private static long mix(int hash) {
+        long h = hash * 0x9E3779B97F4A7C15L;
+        h ^= h >>> 32;
+        h *= 0xBF58476D1CE4E5B9L;
+        return h ^ (h >>> 29);
+    }
+
+    private void schedule(PollEntry entry, long dueAt) {
+        entry.dueAt = dueAt;
+        wheel[(int) ((dueAt / tickMs) % wheel.length)].add(entry);
+    }
+
+    private void fire(PollEntry entry, long now) {
+        PollTask task = entry.task;
+        long lag = Math.max(0, now - entry.dueAt);
+        task.lagTotalMs.add(lag);
+        task.lagSamples.increment();
+        task.maxLagMs.accumulateAndGet(lag, Math::max);
+
+        // 按计划时刻推进，保持设备在周期中的相位
+        long nextDue = entry.dueAt + entry.intervalMs;
+        schedule(entry, nextDue > now ? nextDue : now + entry.intervalMs);
+
+        if (!task.inFlight.add(entry.deviceId)) {
+            task.overruns.increment();
+            logger.debug("设备上一次轮询未结束，跳过: task={}, deviceId={}", task.name, entry.deviceId);
+            return;
+        }
+
+        task.polls.increment();
+        long startNanos = System.nanoTime();
+        CompletionStage<Boolean> stage;
+        try {
+            stage = task.poller.apply(entry.deviceId);
+        } catch (Exception e) {
+            stage = CompletableFuture.failedFuture(e);
+        }
+        stage.whenComplete((success, error) -> {
+            if (error == null && success == null) {
+                task.skipped.increment();
+                task.inFlight.remove(entry.deviceId);
+                return;
+            }
+            long latencyMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+            boolean ok = error == null && Boolean.TRUE.equals(success);
+            if (!ok) {
+                task.errors.increment();
+            }
+            task.latencyTotalMs.add(latencyMs);
+            entry.update(latencyMs, ok);
+            // 轮询结果在设备调用真正结束后才完成，此时才允许下一次轮询
+            task.inFlight.remove(entry.deviceId);
+        });
+    }
+
+    public Map<String, Stats> getStats() {
+        Map<String, Stats> result = new LinkedHashMap<>();
+        tasks.values().forEach(task -> result.put(task.name, task.toStats()));
+        return result;
+    }
+
+    /**
+     * 单台设备在某个任务中的轮询间隔，未注册时返回 null
+     */
+    public Long getDeviceInterval(String name, String deviceId) {
+        PollTask task = tasks.get(name);
+        PollEntry entry = task != null ? task.entries.get(deviceId) : null;
+        return entry != null ? entry.intervalMs : null;
+    }
+
+    private class PollTask {
+        final String name;
+        final long periodMs;
+        final Supplier<Collection<String>> devices;
+        final Function<String, CompletionStage<Boolean>> poller;
+        final Map<String, PollEntry> entries = new ConcurrentHashMap<>();
+        /**
+         * 轮询未结束的设备编号，按设备而不是按 PollEntry 记录，设备移除后重新加入的新 PollEntry 也能看到
+         */
+        final Set<String> inFlight;
+
+        final LongAdder polls = new LongAdder();
+        final LongAdder errors = new LongAdder();
+        final LongAdder overruns = new LongAdder();
+        final LongAdder skipped = new LongAdder();
+        final LongAdder latencyTotalMs = new LongAdder();
+        final LongAdder lagTotalMs = new LongAdder();
+        final LongAdder lagSamples = new LongAdder();
+        final AtomicLong maxLagMs = new AtomicLong();
+
+        PollTask(String name, long periodMs, Supplier<Collection<String>> devices,
+                 Function<String, CompletionStage<Boolean>> poller, Set<String> inFlight) {
+            this.name = name;
+            this.periodMs = Math.max(1, periodMs);
+            this.devices = devices;
+            this.poller = poller;
+            this.inFlight = inFlight;
+        }
+
+        Stats toStats() {
+            Stats stats = new Stats();
+            List<PollEntry> snapshot = new ArrayList<>(entries.values());
+            stats.setPeriodMs(periodMs);
+            stats.setDevices(snapshot.size());
+            stats.setInProgress(inFlight.size());
+            stats.setAvgIntervalMs(snapshot.isEmpty() ? 0 : snapshot.stream().mapToLong(entry -> entry.intervalMs).sum() / snapshot.size());
+            stats.setBackedOffDevices((int) snapshot.stream().filter(entry -> entry.intervalMs > periodMs).count());
+            long pollCount = polls.sum();
+            long lagCount = lagSamples.sum();
+            stats.setPolls(pollCount);
+            stats.setErrors(errors.sum());
+            stats.setOverruns(overruns.sum());
+            stats.setSkipped(skipped.sum());
+            long measured = pollCount - skipped.sum();
+            stats.setAvgLatencyMs(measured <= 0 ? 0.0 : (double) latencyTotalMs.sum() / measured);
+            stats.setAvgLagMs(lagCount == 0 ? 0.0 : (double) lagTotalMs.sum() / lagCount);
+            stats.setMaxLagMs(maxLagMs.get());
+            return stats;
+        }
+    }
+
+    private class PollEntry {
+        final PollTask task;
+        final String deviceId;
+
+        long dueAt;
+        volatile boolean removed;
+        volatile long intervalMs;
+        volatile double latencyEwmaMs;
+        volatile double errorEwma;
+
+        PollEntry(PollTask task, String deviceId) {
+            this.task = task;
+            this.deviceId = deviceId;
+            this.intervalMs = task.periodMs;
+        }
+
+        /**
+         * 按耗时和失败率调整轮询间隔
+         * 间隔不小于平均耗时的 latencyFactor 倍；失败率按平方放大间隔，持续失败时接近 maxIntervalMs
+         */
+        void update(long latencyMs, boolean success) {
+            latencyEwmaMs = latencyEwmaMs == 0 ? latencyMs : latencyEwmaMs * (1 - EWMA_ALPHA) + latencyMs * EWMA_ALPHA;
+            errorEwma = errorEwma * (1 - EWMA_ALPHA) + (success ? 0 : EWMA_ALPHA);
+
+            long maxInterval = Math.max(task.periodMs, maxIntervalMs);
+            double interval = Math.max(task.periodMs, latencyEwmaMs * latencyFactor);
+            interval *= 1 + errorEwma * errorEwma * ((double) maxInterval / task.periodMs - 1);
+            intervalMs = (long) Math.min(interval, maxInterval);
+        }
+    }
+
+    /**
+     * 轮询任务统计
+     */
+    public static class Stats {
+        private long periodMs;
+        private int devices;
+        private int inProgress;
+        private long avgIntervalMs;
+        private int backedOffDevices;
+        private long polls;
+        private long errors;
+        private long overruns;
+        private long skipped;
+        private double avgLatencyMs;
+        private double avgLagMs;
+        private long maxLagMs;
+
+        public long getPeriodMs() { return periodMs; }
+        public void setPeriodMs(long periodMs) { this.periodMs = periodMs; }
+
+        public int getDevices() { return devices; }
+        public void setDevices(int devices) { this.devices = devices; }
+
+        public int getInProgress() { return inProgress; }
+        public void setInProgress(int inProgress) { this.inProgress = inProgress; }
+
+        public long getAvgIntervalMs() { return avgIntervalMs; }
+        public void setAvgIntervalMs(long avgIntervalMs) { this.avgIntervalMs = avgIntervalMs; }
+
+        public int getBackedOffDevices() { return backedOffDevices; }
+        public void setBackedOffDevices(int backedOffDevices) { this.backedOffDevices = backedOffDevices; }
+
+        public long getPolls() { return polls; }
+        public void setPolls(long polls) { this.polls = polls; }
+
+        public long getErrors() { return errors; }
+        public void setErrors(long errors) { this.errors = errors; }
+
+        public long getOverruns() { return overruns; }
+        public void setOverruns(long overruns) { this.overruns = overruns; }
+
+        public long getSkipped() { return skipped; }
+        public void setSkipped(long skipped) { this.skipped = skipped; }
+
+        public double getAvgLatencyMs() { return avgLatencyMs; }
+        public void setAvgLatencyMs(double avgLatencyMs) { this.avgLatencyMs = avgLatencyMs; }
+
+        public double getAvgLagMs() { return avgLagMs; }
+        public void setAvgLagMs(double avgLagMs) { this.avgLagMs = avgLagMs; }
+
+        public long getMaxLagMs() { return maxLagMs; }
+        public void setMaxLagMs(long maxLagMs) { this.maxLagMs = maxLagMs; }
+
+        @Override
+        public String toString() {
+            return String.format("DevicePollScheduler.Stats{periodMs=%d, devices=%d, inProgress=%d, avgIntervalMs=%d, backedOff=%d, polls=%d, errors=%d, overruns=%d, skipped=%d, avgLatencyMs=%.1f, avgLagMs=%.1f, maxLagMs=%d}",
+                    periodMs, devices, inProgress, avgIntervalMs, backedOffDevices, polls, errors, overruns, skipped,
+                    avgLatencyMs, avgLagMs, maxLagMs);
+        }
+    }
+}
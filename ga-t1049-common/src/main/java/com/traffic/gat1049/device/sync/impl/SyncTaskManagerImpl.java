@@ -7,8 +7,8 @@ import com.traffic.gat1049.device.adapter.model.SyncResult;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.context.ApplicationEventPublisher;
 
 import javax.annotation.PostConstruct;
@@ -16,6 +16,7 @@ import javax.annotation.PreDestroy;
 import java.time.LocalDateTime;
 import java.util.*;
 import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.stream.Collectors;
@@ -23,6 +24,8 @@ import java.util.stream.Stream;
 
 /**
  * 同步任务管理器实现
+ * 不同信号机的任务在线程池中并行执行，同一信号机的任务按优先级串行执行；
+ * 提交返回的 CompletableFuture 在任务结束、取消或超时时直接完成
  */
 @Service
 public class SyncTaskManagerImpl implements SyncTaskManager {
@@ -32,7 +35,7 @@ public class SyncTaskManagerImpl implements SyncTaskManager {
     @Autowired
     private SyncService syncService;
 
-//    @Autowired
+    @Autowired(required = false)
     private SyncResultHandler syncResultHandler;
 
     @Autowired
@@ -43,11 +46,29 @@ public class SyncTaskManagerImpl implements SyncTaskManager {
      */
     private final ConcurrentMap<String, SyncTask> tasks = new ConcurrentHashMap<>();
 
+    /**
+     * 任务结果，任务结束时完成
+     */
+    private final ConcurrentMap<String, CompletableFuture<SyncResult>> taskFutures = new ConcurrentHashMap<>();
+
+    @Value("${gat1049.sync.threads:10}")
+    private int threads;
+
     /**
      * 任务执行器
      */
     private ExecutorService taskExecutor;
 
+    /**
+     * 分发线程
+     */
+    private Thread dispatcher;
+
+    /**
+     * 空闲执行线程许可，有空闲线程时才从队列取任务，保证按优先级出队
+     */
+    private Semaphore workerPermits;
+
     /**
      * 调度执行器
      */
@@ -56,9 +77,18 @@ public class SyncTaskManagerImpl implements SyncTaskManager {
     /**
      * 任务队列
      */
-    private final BlockingQueue<SyncTask> taskQueue = new PriorityBlockingQueue<>(1000,
+    private static final Comparator<SyncTask> TASK_ORDER =
             Comparator.comparing(SyncTask::getPriority).reversed()
-                    .thenComparing(SyncTask::getCreateTime));
+                    .thenComparing(SyncTask::getCreateTime);
+
+    private final BlockingQueue<SyncTask> taskQueue = new PriorityBlockingQueue<>(1000, TASK_ORDER);
+
+    /**
+     * 正在执行任务的信号机，以及其后续等待的任务，均由 dispatchLock 保护
+     */
+    private final Object dispatchLock = new Object();
+    private final Set<String> busyControllers = new HashSet<>();
+    private final Map<String, Queue<SyncTask>> waitingTasks = new HashMap<>();
 
     /**
      * 管理器状态
@@ -78,11 +108,23 @@ public class SyncTaskManagerImpl implements SyncTaskManager {
         logger.info("正在初始化同步任务管理器...");
 
         // 创建线程池
-        taskExecutor = Executors.newFixedThreadPool(10,
-                r -> new Thread(r, "sync-task-" + System.currentTimeMillis()));
+        int poolSize = Math.max(1, threads);
+        AtomicInteger threadIndex = new AtomicInteger();
+        taskExecutor = Executors.newFixedThreadPool(poolSize, r -> {
+            Thread thread = new Thread(r, "sync-task-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        workerPermits = new Semaphore(poolSize);
 
-        scheduledExecutor = Executors.newScheduledThreadPool(2,
-                r -> new Thread(r, "sync-scheduler-" + System.currentTimeMillis()));
+        ScheduledThreadPoolExecutor scheduler = new ScheduledThreadPoolExecutor(2, r -> {
+            Thread thread = new Thread(r, "sync-scheduler-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        // 每个任务提交时都登记一次超时检查，关闭时不再等待这些检查到期
+        scheduler.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+        scheduledExecutor = scheduler;
 
         // 启动任务处理器
         startTaskProcessor();
@@ -98,6 +140,9 @@ public class SyncTaskManagerImpl implements SyncTaskManager {
         logger.info("正在关闭同步任务管理器...");
 
         running.set(false);
+        if (dispatcher != null) {
+            dispatcher.interrupt();
+        }
 
         // 关闭执行器
         taskExecutor.shutdown();
@@ -163,22 +208,18 @@ public class SyncTaskManagerImpl implements SyncTaskManager {
             task.setStatus(SyncTaskStatus.PENDING);
             task.setSubmitTime(LocalDateTime.now());
 
+            CompletableFuture<SyncResult> future = taskFutures.computeIfAbsent(taskId, id -> new CompletableFuture<>());
+
             // 添加到队列
             taskQueue.offer(task);
 
+            // 从提交开始计算超时，排队时间也计入
+            int timeoutSeconds = task.getTimeoutSeconds() != null ? task.getTimeoutSeconds() : 300;
+            scheduledExecutor.schedule(() -> expireTask(task), timeoutSeconds, TimeUnit.SECONDS);
+
             logger.info("同步任务已提交: taskId={}, controllerId={}", taskId, task.getControllerId());
 
-            // 返回异步结果
-            return CompletableFuture.supplyAsync(() -> {
-                try {
-                    // 等待任务完成
-                    return waitForTaskCompletion(task);
-                } catch (Exception e) {
-                    logger.error("等待任务完成异常: taskId={}", taskId, e);
-                    return SyncResult.failure(task.getControllerId(), "TASK_WAIT_ERROR",
-                            "等待任务完成异常: " + e.getMessage());
-                }
-            }, taskExecutor);
+            return future;
 
         } catch (Exception e) {
             logger.error("提交同步任务失败: taskId={}", taskId, e);
@@ -196,17 +237,16 @@ public class SyncTaskManagerImpl implements SyncTaskManager {
         }
 
         try {
-            if (task.getStatus() == SyncTaskStatus.RUNNING) {
-                // 正在运行的任务无法取消
-                logger.warn("任务正在运行，无法取消: taskId={}", taskId);
+            if (!task.cancel()) {
+                // 正在运行或已结束的任务无法取消
+                logger.warn("任务正在运行或已结束，无法取消: taskId={}, status={}", taskId, task.getStatus());
                 return false;
             }
-
-            task.setStatus(SyncTaskStatus.CANCELLED);
             task.setCompleteTime(LocalDateTime.now());
 
             // 从队列中移除
-            taskQueue.remove(task);
+            removeQueuedTask(task);
+            completeTask(task, SyncResult.cancelled(task.getControllerId(), "任务已取消"));
 
             logger.info("任务已取消: taskId={}", taskId);
             return true;
@@ -294,7 +334,7 @@ public class SyncTaskManagerImpl implements SyncTaskManager {
                 .failedTasks(failedTasks.get())
                 .pendingTasks((int) pendingTasks)
                 .runningTasks((int) runningTasks)
-                .queueSize(taskQueue.size())
+                .queueSize(taskQueue.size() + waitingTaskCount())
                 .running(!paused.get())
                 .lastUpdateTime(LocalDateTime.now())
                 .build();
@@ -305,10 +345,12 @@ public class SyncTaskManagerImpl implements SyncTaskManager {
     // =================================================================
 
     /**
-     * 启动任务处理器
+     * 启动任务分发线程
+     * 有空闲执行线程时按优先级取出任务；信号机已有任务在执行时放入该信号机的等待队列，
+     * 待前一个任务结束后再放回全局队列
      */
     private void startTaskProcessor() {
-        taskExecutor.submit(() -> {
+        dispatcher = new Thread(() -> {
             logger.info("同步任务处理器已启动");
 
             while (running.get()) {
@@ -318,9 +360,12 @@ public class SyncTaskManagerImpl implements SyncTaskManager {
                         continue;
                     }
 
+                    if (!workerPermits.tryAcquire(1, TimeUnit.SECONDS)) {
+                        continue;
+                    }
                     SyncTask task = taskQueue.poll(1, TimeUnit.SECONDS);
-                    if (task != null) {
-                        processTask(task);
+                    if (task == null || !dispatchTask(task)) {
+                        workerPermits.release();
                     }
 
                 } catch (InterruptedException e) {
@@ -332,7 +377,102 @@ public class SyncTaskManagerImpl implements SyncTaskManager {
             }
 
             logger.info("同步任务处理器已停止");
-        });
+        }, "sync-dispatcher");
+        dispatcher.setDaemon(true);
+        dispatcher.start();
+    }
+
+    /**
+     * 分发任务
+     *
+     * @return 是否已交给执行线程
+     */
+    private boolean dispatchTask(SyncTask task) {
+        if (task.getStatus().isCompleted()) {
+            // 排队期间已取消或超时
+            return false;
+        }
+
+        String controllerKey = String.valueOf(task.getControllerId());
+        synchronized (dispatchLock) {
+            if (!busyControllers.add(controllerKey)) {
+                waitingTasks.computeIfAbsent(controllerKey, k -> new PriorityQueue<>(TASK_ORDER)).offer(task);
+                return false;
+            }
+        }
+
+        try {
+            taskExecutor.execute(() -> {
+                try {
+                    processTask(task);
+                } finally {
+                    releaseController(controllerKey);
+                    workerPermits.release();
+                }
+            });
+            return true;
+        } catch (RejectedExecutionException e) {
+            logger.warn("执行器已关闭，任务未执行: taskId={}", task.getTaskId());
+            releaseController(controllerKey);
+            return false;
+        }
+    }
+
+    /**
+     * 信号机当前任务结束，将其等待队列中优先级最高的任务放回全局队列
+     */
+    private void releaseController(String controllerKey) {
+        synchronized (dispatchLock) {
+            busyControllers.remove(controllerKey);
+
+            Queue<SyncTask> waiting = waitingTasks.get(controllerKey);
+            if (waiting == null) {
+                return;
+            }
+            SyncTask next;
+            do {
+                next = waiting.poll();
+            } while (next != null && next.getStatus().isCompleted());
+
+            if (waiting.isEmpty()) {
+                waitingTasks.remove(controllerKey);
+            }
+            if (next != null) {
+                taskQueue.offer(next);
+            }
+        }
+    }
+
+    /**
+     * 从全局队列或信号机等待队列中移除任务
+     */
+    private void removeQueuedTask(SyncTask task) {
+        if (taskQueue.remove(task)) {
+            return;
+        }
+        String controllerKey = String.valueOf(task.getControllerId());
+        synchronized (dispatchLock) {
+            Queue<SyncTask> waiting = waitingTasks.get(controllerKey);
+            if (waiting != null && waiting.remove(task) && waiting.isEmpty()) {
+                waitingTasks.remove(controllerKey);
+            }
+        }
+    }
+
+    private int waitingTaskCount() {
+        synchronized (dispatchLock) {
+            return waitingTasks.values().stream().mapToInt(Queue::size).sum();
+        }
+    }
+
+    /**
+     * 完成任务结果
+     */
+    private void completeTask(SyncTask task, SyncResult result) {
+        CompletableFuture<SyncResult> future = taskFutures.remove(task.getTaskId());
+        if (future != null) {
+            future.complete(result);
+        }
     }
 
     /**
@@ -352,33 +492,47 @@ public class SyncTaskManagerImpl implements SyncTaskManager {
     /**
      * 处理单个任务
      */
-//    @Async
     private void processTask(SyncTask task) {
+        // 更新任务状态，排队期间已取消或超时的任务不再执行
+        if (!task.updateStatusIfNotCompleted(SyncTaskStatus.RUNNING)) {
+            return;
+        }
+
+        SyncResult result;
         try {
             logger.info("开始处理同步任务: taskId={}, controllerId={}",
                     task.getTaskId(), task.getControllerId());
 
-            // 更新任务状态
-            task.setStatus(SyncTaskStatus.RUNNING);
             task.setStartTime(LocalDateTime.now());
             task.setProgress(0);
 
             // 执行同步
-            SyncResult result = executeSync(task);
+            result = executeSync(task);
 
             // 更新任务结果
             task.setSyncResult(result);
             task.setProgress(100);
+
+            if (!task.updateStatusIfNotCompleted(
+                    result.isSuccess() ? SyncTaskStatus.COMPLETED : SyncTaskStatus.FAILED)) {
+                // 执行期间已超时或取消，调用方已收到对应结果
+                logger.warn("同步任务在结束后完成: taskId={}, status={}, success={}",
+                        task.getTaskId(), task.getStatus(), result.isSuccess());
+                return;
+            }
+
             task.setCompleteTime(LocalDateTime.now());
 
             if (result.isSuccess()) {
-                task.setStatus(SyncTaskStatus.COMPLETED);
                 completedTasks.incrementAndGet();
-                syncResultHandler.handleSuccess(task, result);
+                if (syncResultHandler != null) {
+                    syncResultHandler.handleSuccess(task, result);
+                }
             } else {
-                task.setStatus(SyncTaskStatus.FAILED);
                 failedTasks.incrementAndGet();
-                syncResultHandler.handleFailure(task, result);
+                if (syncResultHandler != null) {
+                    syncResultHandler.handleFailure(task, result);
+                }
             }
 
             logger.info("同步任务处理完成: taskId={}, success={}",
@@ -387,13 +541,21 @@ public class SyncTaskManagerImpl implements SyncTaskManager {
         } catch (Exception e) {
             logger.error("处理同步任务异常: taskId={}", task.getTaskId(), e);
 
-            task.setStatus(SyncTaskStatus.FAILED);
+            if (!task.updateStatusIfNotCompleted(SyncTaskStatus.FAILED)) {
+                return;
+            }
             task.setCompleteTime(LocalDateTime.now());
             task.setMessage("任务执行异常: " + e.getMessage());
 
             failedTasks.incrementAndGet();
-            syncResultHandler.handleException(task, e);
+            if (syncResultHandler != null) {
+                syncResultHandler.handleException(task, e);
+            }
+            result = SyncResult.failure(task.getControllerId(), "TASK_EXECUTE_ERROR",
+                    "任务执行异常: " + e.getMessage());
         }
+
+        completeTask(task, result);
     }
 
     /**
@@ -413,33 +575,37 @@ public class SyncTaskManagerImpl implements SyncTaskManager {
     }
 
     /**
-     * 等待任务完成
+     * 提交后超过超时时间仍未结束的任务判定为超时
      */
-    private SyncResult waitForTaskCompletion(SyncTask task) {
-        try {
-            int timeoutSeconds = task.getTimeoutSeconds() != null ? task.getTimeoutSeconds() : 300;
-            LocalDateTime deadline = LocalDateTime.now().plusSeconds(timeoutSeconds);
-
-            while (LocalDateTime.now().isBefore(deadline)) {
-                if (task.getStatus().isCompleted()) {
-                    return task.getSyncResult() != null ? task.getSyncResult() :
-                            SyncResult.success(task.getControllerId(), "任务完成");
-                }
+    private void expireTask(SyncTask task) {
+        if (!taskFutures.containsKey(task.getTaskId()) || task.getStatus().isCompleted()) {
+            return;
+        }
 
-                Thread.sleep(1000);
-            }
+        int timeoutSeconds = task.getTimeoutSeconds() != null ? task.getTimeoutSeconds() : 300;
+        logger.warn("任务执行超时: taskId={}, controllerId={}, status={}",
+                task.getTaskId(), task.getControllerId(), task.getStatus());
 
-            // 超时
-            task.setStatus(SyncTaskStatus.TIMEOUT);
-            task.setCompleteTime(LocalDateTime.now());
-            syncResultHandler.handleTimeout(task);
+        removeQueuedTask(task);
+        if (markTimeout(task, LocalDateTime.now())) {
+            completeTask(task, SyncResult.timeout(task.getControllerId(), "任务执行超时", timeoutSeconds * 1000L));
+        }
+    }
 
-            return SyncResult.timeout(task.getControllerId(), "任务执行超时", timeoutSeconds * 1000L);
+    /**
+     * @return 是否已置为超时，任务已结束时返回false
+     */
+    private boolean markTimeout(SyncTask task, LocalDateTime now) {
+        if (!task.updateStatusIfNotCompleted(SyncTaskStatus.TIMEOUT)) {
+            return false;
+        }
+        task.setCompleteTime(now);
+        task.setMessage("任务执行超时");
 
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-            return SyncResult.failure(task.getControllerId(), "TASK_INTERRUPTED", "任务被中断");
+        if (syncResultHandler != null) {
+            syncResultHandler.handleTimeout(task);
         }
+        return true;
     }
 
     /**
@@ -459,11 +625,11 @@ public class SyncTaskManagerImpl implements SyncTaskManager {
                     logger.warn("任务执行超时: taskId={}, controllerId={}",
                             task.getTaskId(), task.getControllerId());
 
-                    task.setStatus(SyncTaskStatus.TIMEOUT);
-                    task.setCompleteTime(now);
-                    task.setMessage("任务执行超时");
-
-                    syncResultHandler.handleTimeout(task);
+                    int timeoutSeconds = task.getTimeoutSeconds() != null ? task.getTimeoutSeconds() : 300;
+                    if (markTimeout(task, now)) {
+                        completeTask(task, SyncResult.timeout(task.getControllerId(), "任务执行超时",
+                                timeoutSeconds * 1000L));
+                    }
                 });
     }
 
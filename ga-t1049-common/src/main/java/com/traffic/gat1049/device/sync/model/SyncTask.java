@@ -138,6 +138,32 @@ public class SyncTask {
         return status == SyncTaskStatus.CREATED || status == SyncTaskStatus.PENDING;
     }
 
+    /**
+     * 任务未开始时置为已取消
+     *
+     * @return 是否已取消，任务正在运行或已结束时返回false
+     */
+    public synchronized boolean cancel() {
+        if (!isCancellable()) {
+            return false;
+        }
+        status = SyncTaskStatus.CANCELLED;
+        return true;
+    }
+
+    /**
+     * 任务未结束时更新状态，已完成、失败、取消或超时的任务保持原状态
+     *
+     * @return 是否已更新
+     */
+    public synchronized boolean updateStatusIfNotCompleted(SyncTaskStatus newStatus) {
+        if (status != null && status.isCompleted()) {
+            return false;
+        }
+        status = newStatus;
+        return true;
+    }
+
     /**
      * 检查任务是否正在运行
      */
@@ -55,6 +55,12 @@ public class LaneStatisticsVo implements Serializable {
     @JsonProperty("queueLength")
     private Double queueLength;
 
+    /**
+     * 85%位车速
+     */
+    @JsonProperty("p85Speed")
+    private Double p85Speed;
+
     // Getters and Setters
     public Integer getLaneNo() {
         return laneNo;
@@ -112,6 +118,14 @@ public class LaneStatisticsVo implements Serializable {
         this.queueLength = queueLength;
     }
 
+    public Double getP85Speed() {
+        return p85Speed;
+    }
+
+    public void setP85Speed(Double p85Speed) {
+        this.p85Speed = p85Speed;
+    }
+
     @Override
     public String toString() {
         return "LaneStatisticsVo{" +
@@ -122,6 +136,7 @@ public class LaneStatisticsVo implements Serializable {
                 ", occupancy=" + occupancy +
                 ", saturation=" + saturation +
                 ", queueLength=" + queueLength +
+                ", p85Speed=" + p85Speed +
                 '}';
     }
 }
@@ -59,6 +59,18 @@ public class TrafficStatisticsVo implements Serializable {
     @JsonProperty("avgSaturation")
     private Double avgSaturation;
 
+    /**
+     * 85%位车速
+     */
+    @JsonProperty("p85Speed")
+    private Double p85Speed;
+
+    /**
+     * 最大排队长度
+     */
+    @JsonProperty("maxQueueLength")
+    private Double maxQueueLength;
+
     /**
      * 车道统计详情
      */
@@ -122,6 +134,22 @@ public class TrafficStatisticsVo implements Serializable {
         this.avgSaturation = avgSaturation;
     }
 
+    public Double getP85Speed() {
+        return p85Speed;
+    }
+
+    public void setP85Speed(Double p85Speed) {
+        this.p85Speed = p85Speed;
+    }
+
+    public Double getMaxQueueLength() {
+        return maxQueueLength;
+    }
+
+    public void setMaxQueueLength(Double maxQueueLength) {
+        this.maxQueueLength = maxQueueLength;
+    }
+
     public List<LaneStatisticsVo> getLaneStatistics() {
         return laneStatistics;
     }
@@ -140,6 +168,8 @@ public class TrafficStatisticsVo implements Serializable {
                 ", avgSpeed=" + avgSpeed +
                 ", avgOccupancy=" + avgOccupancy +
                 ", avgSaturation=" + avgSaturation +
+                ", p85Speed=" + p85Speed +
+                ", maxQueueLength=" + maxQueueLength +
                 ", laneStatistics=" + laneStatistics +
                 '}';
     }
@@ -24,6 +24,9 @@ import javax.xml.bind.JAXBContext;
 import javax.xml.bind.JAXBException;
 import javax.xml.bind.Marshaller;
 import javax.xml.bind.Unmarshaller;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.io.StringReader;
 import java.io.StringWriter;
 
@@ -35,6 +38,9 @@ import java.io.StringWriter;
  * 2. 提供静态工厂方法
  * 3. 线程安全的单例模式
  * 4. 更好的错误处理
+ * 5. 池化模式：Marshaller/Unmarshaller按线程复用，属性只设置一次
+ * 6. 可配置紧凑输出（非格式化），减少报文体积
+ * 7. 高频推送对象走StAX快速解码，其余消息回退JAXB
  */
 public class MessageCodec {
 
@@ -47,6 +53,20 @@ public class MessageCodec {
     private final ObjectMapper objectMapper;
     private volatile boolean initialized = false;
 
+    // 是否按线程复用Marshaller/Unmarshaller（默认开启）
+    private volatile boolean pooled = true;
+
+    // 是否格式化输出XML（默认开启，保持与历史报文一致）
+    private volatile boolean formattedOutput = true;
+
+    // 是否启用高频推送对象的快速解码（默认开启）
+    private volatile boolean fastPathEnabled = true;
+    private volatile StaxPushDecoder pushDecoder = new StaxPushDecoder();
+
+    // 线程独享的编解码器，JAXB上下文或输出格式变化时整体替换
+    private volatile ThreadLocal<Marshaller> marshallerHolder = new ThreadLocal<>();
+    private volatile ThreadLocal<Unmarshaller> unmarshallerHolder = new ThreadLocal<>();
+
     // 私有构造函数，不抛异常
     private MessageCodec() {
         this.objectMapper = createObjectMapper();
@@ -165,19 +185,18 @@ public class MessageCodec {
         ensureInitialized();
 
         try {
-            Marshaller marshaller = jaxbContext.createMarshaller();
-            marshaller.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, true);
-            marshaller.setProperty(Marshaller.JAXB_ENCODING, GatConstants.DEFAULT_ENCODING);
-            marshaller.setProperty(Marshaller.JAXB_FRAGMENT, false);
+            Marshaller marshaller = acquireMarshaller();
 
-            StringWriter writer = new StringWriter();
+            StringWriter writer = new StringWriter(1024);
             //writer.write("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
             //logger.info(message.toString());
             marshaller.marshal(message, writer);
 
             String result = writer.toString();
             logger.debug("Encoded message: seq={}, type={}", message.getSeq(), message.getType());
-            logger.info(result);
+            if (logger.isTraceEnabled()) {
+                logger.trace(result);
+            }
             return result;
 
         } catch (JAXBException e) {
@@ -187,6 +206,65 @@ public class MessageCodec {
         }
     }
 
+    /**
+     * 将消息对象直接编码到字节流（UTF-8），省去中间String
+     */
+    public void encode(Message message, OutputStream out) throws MessageEncodingException {
+        if (message == null) {
+            throw new MessageEncodingException("Message cannot be null");
+        }
+
+        ensureInitialized();
+
+        try {
+            acquireMarshaller().marshal(message, out);
+            logger.debug("Encoded message: seq={}, type={}", message.getSeq(), message.getType());
+        } catch (JAXBException e) {
+            logger.error("Failed to encode message: seq={}, type={}",
+                    message.getSeq(), message.getType(), e);
+            throw new MessageEncodingException("Failed to encode message to XML", e);
+        }
+    }
+
+    /**
+     * 从字节流解码消息对象，字符编码由XML声明决定
+     * 流支持mark/reset时才会尝试快速解码
+     */
+    public Message decode(InputStream in) throws MessageDecodingException {
+        if (in == null) {
+            throw new MessageDecodingException("XML content is null or empty");
+        }
+
+        try {
+            ensureInitialized();
+        } catch (MessageEncodingException e) {
+            throw new MessageDecodingException("Failed to initialize codec", e);
+        }
+
+        if (fastPathEnabled && in.markSupported()) {
+            in.mark(Integer.MAX_VALUE);
+            Message fastMessage = pushDecoder.tryDecode(in);
+            if (fastMessage != null) {
+                logger.debug("Decoded message (fast path): seq={}, type={}", fastMessage.getSeq(), fastMessage.getType());
+                return fastMessage;
+            }
+            try {
+                in.reset();
+            } catch (IOException e) {
+                throw new MessageDecodingException("Failed to rewind XML stream", e);
+            }
+        }
+
+        try {
+            Message message = (Message) acquireUnmarshaller().unmarshal(in);
+            logger.debug("Decoded message: seq={}, type={}", message.getSeq(), message.getType());
+            return message;
+        } catch (JAXBException | ClassCastException e) {
+            logger.error("Failed to decode XML stream", e);
+            throw new MessageDecodingException("Failed to decode XML to message object", e);
+        }
+    }
+
     /**
      * 将XML字符串解码为消息对象
      */
@@ -201,9 +279,18 @@ public class MessageCodec {
             throw new MessageDecodingException("Failed to initialize codec", e);
         }
 
+        String trimmed = xmlContent.trim();
+        if (fastPathEnabled) {
+            Message fastMessage = pushDecoder.tryDecode(trimmed);
+            if (fastMessage != null) {
+                logger.debug("Decoded message (fast path): seq={}, type={}", fastMessage.getSeq(), fastMessage.getType());
+                return fastMessage;
+            }
+        }
+
         try {
-            Unmarshaller unmarshaller = jaxbContext.createUnmarshaller();
-            StringReader reader = new StringReader(xmlContent.trim());
+            Unmarshaller unmarshaller = acquireUnmarshaller();
+            StringReader reader = new StringReader(trimmed);
             Message message = (Message) unmarshaller.unmarshal(reader);
 
             logger.debug("Decoded message: seq={}, type={}", message.getSeq(), message.getType());
@@ -216,6 +303,54 @@ public class MessageCodec {
         }
     }
 
+    /**
+     * 获取Marshaller：池化模式下复用当前线程的实例，否则每次新建
+     */
+    private Marshaller acquireMarshaller() throws JAXBException {
+        if (!pooled) {
+            return createMarshaller();
+        }
+        ThreadLocal<Marshaller> holder = marshallerHolder;
+        Marshaller marshaller = holder.get();
+        if (marshaller == null) {
+            marshaller = createMarshaller();
+            holder.set(marshaller);
+        }
+        return marshaller;
+    }
+
+    /**
+     * 获取Unmarshaller：池化模式下复用当前线程的实例，否则每次新建
+     */
+    private Unmarshaller acquireUnmarshaller() throws JAXBException {
+        if (!pooled) {
+            return jaxbContext.createUnmarshaller();
+        }
+        ThreadLocal<Unmarshaller> holder = unmarshallerHolder;
+        Unmarshaller unmarshaller = holder.get();
+        if (unmarshaller == null) {
+            unmarshaller = jaxbContext.createUnmarshaller();
+            holder.set(unmarshaller);
+        }
+        return unmarshaller;
+    }
+
+    private Marshaller createMarshaller() throws JAXBException {
+        Marshaller marshaller = jaxbContext.createMarshaller();
+        marshaller.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, formattedOutput);
+        marshaller.setProperty(Marshaller.JAXB_ENCODING, GatConstants.DEFAULT_ENCODING);
+        marshaller.setProperty(Marshaller.JAXB_FRAGMENT, false);
+        return marshaller;
+    }
+
+    /**
+     * 丢弃所有线程已缓存的编解码器，下次使用时按当前配置重建
+     */
+    private void resetPools() {
+        marshallerHolder = new ThreadLocal<>();
+        unmarshallerHolder = new ThreadLocal<>();
+    }
+
     /**
      * 尝试编码，返回结果而不抛异常
      */
@@ -277,12 +412,72 @@ public class MessageCodec {
         return initialized;
     }
 
+    /**
+     * 是否启用池化（线程复用）编解码模式
+     */
+    public boolean isPooled() {
+        return pooled;
+    }
+
+    /**
+     * 设置池化模式。关闭后每条消息都会新建Marshaller/Unmarshaller
+     */
+    public void setPooled(boolean pooled) {
+        this.pooled = pooled;
+        resetPools();
+    }
+
+    /**
+     * 是否格式化输出XML
+     */
+    public boolean isFormattedOutput() {
+        return formattedOutput;
+    }
+
+    /**
+     * 设置是否格式化输出XML，false时输出紧凑报文
+     */
+    public void setFormattedOutput(boolean formattedOutput) {
+        this.formattedOutput = formattedOutput;
+        resetPools();
+    }
+
+    /**
+     * 是否启用高频推送对象的快速解码
+     */
+    public boolean isFastPathEnabled() {
+        return fastPathEnabled;
+    }
+
+    /**
+     * 设置是否启用高频推送对象的快速解码，关闭后全部消息走JAXB
+     */
+    public void setFastPathEnabled(boolean fastPathEnabled) {
+        this.fastPathEnabled = fastPathEnabled;
+    }
+
+    /**
+     * 快速解码是否将信号组灯态直接解码为 PackedCrossSignalGroupStatus
+     */
+    public boolean isPackSignalGroupStatus() {
+        return pushDecoder.isPackSignalGroupStatus();
+    }
+
+    /**
+     * 设置快速解码是否将信号组灯态直接解码为 PackedCrossSignalGroupStatus，
+     * 开启后消息的数据对象不再是协议对象，只适用于由处理器消费、不再编码转发的入站推送
+     */
+    public void setPackSignalGroupStatus(boolean packSignalGroupStatus) {
+        this.pushDecoder = new StaxPushDecoder(packSignalGroupStatus);
+    }
+
     /**
      * 强制重新初始化
      */
     public synchronized void reinitialize() throws MessageEncodingException {
         initialized = false;
         jaxbContext = null;
+        resetPools();
         ensureInitialized();
     }
 
@@ -0,0 +1,154 @@
+package com.traffic.gat1049.protocol.codec;
+
+import com.traffic.gat1049.exception.MessageEncodingException;
+import com.traffic.gat1049.protocol.model.core.Message;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.ByteBufOutputStream;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.CompositeByteBuf;
+import io.netty.util.CharsetUtil;
+
+/**
+ * 一次编码、多路分发的推送报文
+ *
+ * 推送消息只编码一次到池化的ByteBuf中，并记录报文头中 Token 与 Seq 内容的位置。
+ * 为每个接收方生成报文时只替换这两个字段，其余部分以引用计数切片共享，不再重复编码。
+ *
+ * 使用完毕后必须调用 release()；forRecipient 返回的ByteBuf由写出方负责释放。
+ */
+public final class SharedPushFrame {
+
+    private static final byte[] TOKEN_START = "<Token>".getBytes(CharsetUtil.US_ASCII);
+    private static final byte[] TOKEN_END = "</Token>".getBytes(CharsetUtil.US_ASCII);
+    private static final byte[] SEQ_START = "<Seq>".getBytes(CharsetUtil.US_ASCII);
+    private static final byte[] SEQ_END = "</Seq>".getBytes(CharsetUtil.US_ASCII);
+
+    private final ByteBuf encoded;
+    // Token/Seq 元素内容的起止位置（不含标签），未找到为-1
+    private final int tokenStart;
+    private final int tokenEnd;
+    private final int seqStart;
+    private final int seqEnd;
+
+    private SharedPushFrame(ByteBuf encoded) {
+        this.encoded = encoded;
+        int[] token = findContent(encoded, 0, TOKEN_START, TOKEN_END);
+        int[] seq = findContent(encoded, token != null ? token[1] : 0, SEQ_START, SEQ_END);
+        this.tokenStart = token != null ? token[0] : -1;
+        this.tokenEnd = token != null ? token[1] : -1;
+        this.seqStart = seq != null ? seq[0] : -1;
+        this.seqEnd = seq != null ? seq[1] : -1;
+    }
+
+    /**
+     * 编码推送消息
+     *
+     * @param codec     消息编解码器
+     * @param message   推送消息，其 Token/Seq 作为各接收方未指定时的默认值
+     * @param allocator ByteBuf分配器
+     */
+    public static SharedPushFrame encode(MessageCodec codec, Message message, ByteBufAllocator allocator)
+            throws MessageEncodingException {
+        ByteBuf buf = allocator.buffer();
+        try {
+            codec.encode(message, new ByteBufOutputStream(buf));
+            return new SharedPushFrame(buf);
+        } catch (MessageEncodingException | RuntimeException e) {
+            buf.release();
+            throw e;
+        }
+    }
+
+    /**
+     * 是否可以替换报文头字段
+     * 报文中缺少 Token 或 Seq 元素时只能原样分发
+     */
+    public boolean isSpliceable() {
+        return tokenStart >= 0 && seqStart >= 0;
+    }
+
+    /**
+     * 生成发往指定接收方的报文
+     *
+     * @param allocator ByteBuf分配器
+     * @param token     接收方令牌，null表示沿用原值
+     * @param seq       报文序号，null表示沿用原值
+     * @return 新的ByteBuf引用，由调用方写出或释放
+     */
+    public ByteBuf forRecipient(ByteBufAllocator allocator, String token, String seq) {
+        if ((token == null && seq == null) || !isSpliceable()) {
+            return encoded.retainedDuplicate();
+        }
+
+        int readerIndex = encoded.readerIndex();
+        CompositeByteBuf frame = allocator.compositeBuffer(5);
+        frame.addComponent(true, encoded.retainedSlice(readerIndex, tokenStart - readerIndex));
+        frame.addComponent(true, token != null
+                ? ByteBufUtil.writeUtf8(allocator, escape(token))
+                : encoded.retainedSlice(tokenStart, tokenEnd - tokenStart));
+        frame.addComponent(true, encoded.retainedSlice(tokenEnd, seqStart - tokenEnd));
+        frame.addComponent(true, seq != null
+                ? ByteBufUtil.writeUtf8(allocator, escape(seq))
+                : encoded.retainedSlice(seqStart, seqEnd - seqStart));
+        frame.addComponent(true, encoded.retainedSlice(seqEnd, encoded.writerIndex() - seqEnd));
+        return frame;
+    }
+
+    /**
+     * 编码后的报文字节数
+     */
+    public int size() {
+        return encoded.readableBytes();
+    }
+
+    /**
+     * 释放共享的编码结果，已生成的接收方报文不受影响
+     */
+    public void release() {
+        encoded.release();
+    }
+
+    /**
+     * 查找元素内容的位置
+     *
+     * @return [内容起始, 内容结束]，未找到返回null
+     */
+    private static int[] findContent(ByteBuf buf, int from, byte[] startTag, byte[] endTag) {
+        int start = indexOf(buf, Math.max(from, buf.readerIndex()), startTag);
+        if (start < 0) {
+            return null;
+        }
+        int contentStart = start + startTag.length;
+        int end = indexOf(buf, contentStart, endTag);
+        if (end < 0) {
+            return null;
+        }
+        return new int[]{contentStart, end};
+    }
+
+    private static int indexOf(ByteBuf buf, int from, byte[] pattern) {
+        int last = buf.writerIndex() - pattern.length;
+        for (int i = from; i <= last; i++) {
+            i = buf.indexOf(i, last + 1, pattern[0]);
+            if (i < 0) {
+                return -1;
+            }
+            int j = 1;
+            while (j < pattern.length && buf.getByte(i + j) == pattern[j]) {
+                j++;
+            }
+            if (j == pattern.length) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static String escape(String value) {
+        if (value.indexOf('&') < 0 && value.indexOf('<') < 0 && value.indexOf('>') < 0) {
+            return value;
+        }
+        return value.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;");
+    }
+}
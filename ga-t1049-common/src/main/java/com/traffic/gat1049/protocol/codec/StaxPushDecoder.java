@@ -0,0 +1,565 @@
+package com.traffic.gat1049.protocol.codec;
+
+import com.traffic.gat1049.protocol.model.core.Address;
+import com.traffic.gat1049.protocol.model.core.Message;
+import com.traffic.gat1049.protocol.model.core.MessageBody;
+import com.traffic.gat1049.protocol.model.core.Operation;
+import com.traffic.gat1049.protocol.model.runtime.CrossCycle;
+import com.traffic.gat1049.protocol.model.runtime.CrossSignalGroupStatus;
+import com.traffic.gat1049.protocol.model.runtime.CrossStage;
+import com.traffic.gat1049.protocol.model.runtime.PackedCrossSignalGroupStatus;
+import com.traffic.gat1049.protocol.model.signal.SignalGroupStatus;
+import com.traffic.gat1049.protocol.model.traffic.CrossTrafficData;
+import com.traffic.gat1049.protocol.model.traffic.LaneTrafficData;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.InputStream;
+import java.io.Reader;
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 高频推送对象的StAX快速解码器
+ *
+ * 只处理数据对象全部为 CrossSignalGroupStatus / CrossCycle / CrossStage / CrossTrafficData 的消息，
+ * 直接用 XMLStreamReader 构造对象，绕过 Operation 中庞大的 @XmlElements 联合类型。
+ * 遇到任何不认识的元素、命名空间或格式异常时返回 null，由调用方回退到JAXB完整解码，
+ * 保证结果与JAXB一致。
+ *
+ * 开启打包模式后，CrossSignalGroupStatus 直接解码为 {@link PackedCrossSignalGroupStatus}，
+ * 不创建信号组协议对象；无法打包的灯态回退到JAXB，得到原协议对象。
+ */
+public class StaxPushDecoder {
+
+    private static final Logger logger = LoggerFactory.getLogger(StaxPushDecoder.class);
+
+    private static final XMLInputFactory INPUT_FACTORY = createInputFactory();
+
+    private final boolean packSignalGroupStatus;
+
+    public StaxPushDecoder() {
+        this(false);
+    }
+
+    /**
+     * @param packSignalGroupStatus 是否将 CrossSignalGroupStatus 直接解码为打包形式
+     */
+    public StaxPushDecoder(boolean packSignalGroupStatus) {
+        this.packSignalGroupStatus = packSignalGroupStatus;
+    }
+
+    /**
+     * 放弃快速解码的内部信号，不携带堆栈
+     */
+    private static final class Fallback extends Exception {
+        private static final long serialVersionUID = 1L;
+
+        private static final Fallback INSTANCE = new Fallback();
+
+        private Fallback() {
+            super(null, null, false, false);
+        }
+    }
+
+    public boolean isPackSignalGroupStatus() {
+        return packSignalGroupStatus;
+    }
+
+    /**
+     * 是否为快速解码支持的数据对象
+     */
+    public static boolean isSupportedObject(String elementName) {
+        switch (elementName) {
+            case "CrossSignalGroupStatus":
+            case "CrossCycle":
+            case "CrossStage":
+            case "CrossTrafficData":
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * 尝试快速解码
+     *
+     * @param xmlContent XML消息内容
+     * @return 解码后的消息；不支持或格式异常时返回null
+     */
+    public Message tryDecode(String xmlContent) {
+        return tryDecode(new StringReader(xmlContent));
+    }
+
+    /**
+     * 尝试快速解码
+     *
+     * @param reader 字符流
+     * @return 解码后的消息；不支持或格式异常时返回null
+     */
+    public Message tryDecode(Reader reader) {
+        XMLStreamReader xml = null;
+        try {
+            xml = INPUT_FACTORY.createXMLStreamReader(reader);
+            return decode(xml);
+        } catch (Fallback | XMLStreamException | RuntimeException e) {
+            logger.trace("Fast path declined, falling back to JAXB: {}", e.toString());
+            return null;
+        } finally {
+            closeQuietly(xml);
+        }
+    }
+
+    /**
+     * 尝试快速解码
+     *
+     * @param in 字节流（编码由XML声明决定，默认UTF-8）
+     * @return 解码后的消息；不支持或格式异常时返回null
+     */
+    public Message tryDecode(InputStream in) {
+        XMLStreamReader xml = null;
+        try {
+            xml = INPUT_FACTORY.createXMLStreamReader(in);
+            return decode(xml);
+        } catch (Fallback | XMLStreamException | RuntimeException e) {
+            logger.trace("Fast path declined, falling back to JAXB: {}", e.toString());
+            return null;
+        } finally {
+            closeQuietly(xml);
+        }
+    }
+
+    // ==================== 消息结构 ====================
+
+    private Message decode(XMLStreamReader xml) throws XMLStreamException, Fallback {
+        nextStartElement(xml);
+        expect(xml, "Message");
+
+        Message message = new Message();
+        while (nextChild(xml)) {
+            switch (xml.getLocalName()) {
+                case "Version":
+                    message.setVersion(xml.getElementText());
+                    break;
+                case "Token":
+                    message.setToken(xml.getElementText());
+                    break;
+                case "From":
+                    message.setFrom(readAddressWrapper(xml));
+                    break;
+                case "To":
+                    message.setTo(readAddressWrapper(xml));
+                    break;
+                case "Type":
+                    message.setType(xml.getElementText());
+                    break;
+                case "Seq":
+                    message.setSeq(xml.getElementText());
+                    break;
+                case "Body":
+                    message.setBody(readBody(xml));
+                    break;
+                default:
+                    throw Fallback.INSTANCE;
+            }
+        }
+        return message;
+    }
+
+    private Address readAddressWrapper(XMLStreamReader xml) throws XMLStreamException, Fallback {
+        Address address = null;
+        while (nextChild(xml)) {
+            expect(xml, "Address");
+            address = readAddress(xml);
+        }
+        return address;
+    }
+
+    private Address readAddress(XMLStreamReader xml) throws XMLStreamException, Fallback {
+        Address address = new Address();
+        while (nextChild(xml)) {
+            switch (xml.getLocalName()) {
+                case "Sys":
+                    address.setSys(xml.getElementText());
+                    break;
+                case "SubSys":
+                    address.setSubSys(xml.getElementText());
+                    break;
+                case "Instance":
+                    address.setInstance(xml.getElementText());
+                    break;
+                default:
+                    throw Fallback.INSTANCE;
+            }
+        }
+        return address;
+    }
+
+    private MessageBody readBody(XMLStreamReader xml) throws XMLStreamException, Fallback {
+        MessageBody body = new MessageBody();
+        while (nextChild(xml)) {
+            expect(xml, "Operation");
+            body.addOperation(readOperation(xml));
+        }
+        return body;
+    }
+
+    private Operation readOperation(XMLStreamReader xml) throws XMLStreamException, Fallback {
+        Operation operation = new Operation();
+        String order = xml.getAttributeValue(null, "order");
+        if (order != null) {
+            operation.setOrder(parseInteger(order));
+        }
+        operation.setName(xml.getAttributeValue(null, "name"));
+
+        List<Object> dataList = new ArrayList<>(1);
+        while (nextChild(xml)) {
+            switch (xml.getLocalName()) {
+                case "CrossSignalGroupStatus":
+                    dataList.add(packSignalGroupStatus
+                            ? readPackedCrossSignalGroupStatus(xml)
+                            : readCrossSignalGroupStatus(xml));
+                    break;
+                case "CrossCycle":
+                    dataList.add(readCrossCycle(xml));
+                    break;
+                case "CrossStage":
+                    dataList.add(readCrossStage(xml));
+                    break;
+                case "CrossTrafficData":
+                    dataList.add(readCrossTrafficData(xml));
+                    break;
+                default:
+                    throw Fallback.INSTANCE;
+            }
+        }
+        operation.setDataList(dataList);
+        return operation;
+    }
+
+    // ==================== 推送数据对象 ====================
+
+    private CrossSignalGroupStatus readCrossSignalGroupStatus(XMLStreamReader xml) throws XMLStreamException, Fallback {
+        CrossSignalGroupStatus status = new CrossSignalGroupStatus();
+        while (nextChild(xml)) {
+            switch (xml.getLocalName()) {
+                case "CrossID":
+                    status.setCrossId(xml.getElementText());
+                    break;
+                case "LampStatusTime":
+                    status.setLampStatusTime(xml.getElementText());
+                    break;
+                case "SignalGroupStatusList":
+                    List<SignalGroupStatus> list = status.getSignalGroupStatusList();
+                    list.clear();
+                    while (nextChild(xml)) {
+                        expect(xml, "SignalGroupStatus");
+                        list.add(readSignalGroupStatus(xml));
+                    }
+                    break;
+                default:
+                    throw Fallback.INSTANCE;
+            }
+        }
+        return status;
+    }
+
+    private PackedCrossSignalGroupStatus readPackedCrossSignalGroupStatus(XMLStreamReader xml)
+            throws XMLStreamException, Fallback {
+        PackedCrossSignalGroupStatus.Builder builder = PackedCrossSignalGroupStatus.builder();
+        boolean listSeen = false;
+        while (nextChild(xml)) {
+            switch (xml.getLocalName()) {
+                case "CrossID":
+                    builder.crossId(xml.getElementText());
+                    break;
+                case "LampStatusTime":
+                    builder.lampStatusTime(xml.getElementText());
+                    break;
+                case "SignalGroupStatusList":
+                    // 重复出现的列表交给JAXB处理
+                    if (listSeen) {
+                        throw Fallback.INSTANCE;
+                    }
+                    listSeen = true;
+                    while (nextChild(xml)) {
+                        expect(xml, "SignalGroupStatus");
+                        readPackedSignalGroupStatus(xml, builder);
+                    }
+                    break;
+                default:
+                    throw Fallback.INSTANCE;
+            }
+        }
+        return builder.build();
+    }
+
+    private void readPackedSignalGroupStatus(XMLStreamReader xml, PackedCrossSignalGroupStatus.Builder builder)
+            throws XMLStreamException, Fallback {
+        Integer signalGroupNo = null;
+        String lampStatus = null;
+        Integer remainTime = null;
+        while (nextChild(xml)) {
+            switch (xml.getLocalName()) {
+                case "SignalGroupNo":
+                    signalGroupNo = parseInteger(xml.getElementText());
+                    break;
+                case "LampStatus":
+                    lampStatus = xml.getElementText();
+                    break;
+                case "RemainTime":
+                    remainTime = parseInteger(xml.getElementText());
+                    break;
+                default:
+                    throw Fallback.INSTANCE;
+            }
+        }
+        if (!builder.add(signalGroupNo, lampStatus, remainTime)) {
+            throw Fallback.INSTANCE;
+        }
+    }
+
+    private SignalGroupStatus readSignalGroupStatus(XMLStreamReader xml) throws XMLStreamException, Fallback {
+        SignalGroupStatus status = new SignalGroupStatus();
+        while (nextChild(xml)) {
+            switch (xml.getLocalName()) {
+                case "SignalGroupNo":
+                    status.setSignalGroupNo(parseInteger(xml.getElementText()));
+                    break;
+                case "LampStatus":
+                    status.setLampStatus(xml.getElementText());
+                    break;
+                case "RemainTime":
+                    status.setRemainTime(parseInteger(xml.getElementText()));
+                    break;
+                default:
+                    throw Fallback.INSTANCE;
+            }
+        }
+        return status;
+    }
+
+    private CrossCycle readCrossCycle(XMLStreamReader xml) throws XMLStreamException, Fallback {
+        CrossCycle cycle = new CrossCycle();
+        while (nextChild(xml)) {
+            switch (xml.getLocalName()) {
+                case "CrossID":
+                    cycle.setCrossId(xml.getElementText());
+                    break;
+                case "StartTime":
+                    cycle.setStartTime(xml.getElementText());
+                    break;
+                case "LastCycleLen":
+                    cycle.setLastCycleLen(parseInteger(xml.getElementText()));
+                    break;
+                case "AdjustFlag":
+                    cycle.setAdjustFlag(parseInteger(xml.getElementText()));
+                    break;
+                default:
+                    throw Fallback.INSTANCE;
+            }
+        }
+        return cycle;
+    }
+
+    private CrossStage readCrossStage(XMLStreamReader xml) throws XMLStreamException, Fallback {
+        CrossStage stage = new CrossStage();
+        while (nextChild(xml)) {
+            switch (xml.getLocalName()) {
+                case "CrossID":
+                    stage.setCrossId(xml.getElementText());
+                    break;
+                case "LastStageNo":
+                    stage.setLastStageNo(parseInteger(xml.getElementText()));
+                    break;
+                case "LastStageLen":
+                    stage.setLastStageLen(parseInteger(xml.getElementText()));
+                    break;
+                case "CurStageNo":
+                    stage.setCurStageNo(parseInteger(xml.getElementText()));
+                    break;
+                case "CurStageStartTime":
+                    stage.setCurStageStartTime(xml.getElementText());
+                    break;
+                case "CurStageLen":
+                    stage.setCurStageLen(parseInteger(xml.getElementText()));
+                    break;
+                default:
+                    throw Fallback.INSTANCE;
+            }
+        }
+        return stage;
+    }
+
+    private CrossTrafficData readCrossTrafficData(XMLStreamReader xml) throws XMLStreamException, Fallback {
+        CrossTrafficData data = new CrossTrafficData();
+        while (nextChild(xml)) {
+            switch (xml.getLocalName()) {
+                case "CrossID":
+                    data.setCrossId(xml.getElementText());
+                    break;
+                case "EndTime":
+                    data.setEndTime(xml.getElementText());
+                    break;
+                case "Interval":
+                    data.setInterval(parseInteger(xml.getElementText()));
+                    break;
+                case "DataList":
+                    List<LaneTrafficData> list = data.getDataList();
+                    list.clear();
+                    while (nextChild(xml)) {
+                        expect(xml, "Data");
+                        list.add(readLaneTrafficData(xml));
+                    }
+                    break;
+                default:
+                    throw Fallback.INSTANCE;
+            }
+        }
+        return data;
+    }
+
+    private LaneTrafficData readLaneTrafficData(XMLStreamReader xml) throws XMLStreamException, Fallback {
+        LaneTrafficData lane = new LaneTrafficData();
+        while (nextChild(xml)) {
+            switch (xml.getLocalName()) {
+                case "LaneNo":
+                    lane.setLaneNo(parseInteger(xml.getElementText()));
+                    break;
+                case "Volume":
+                    lane.setVolume(parseInteger(xml.getElementText()));
+                    break;
+                case "AvgVehLen":
+                    lane.setAvgVehLen(parseDecimal(xml.getElementText()));
+                    break;
+                case "Pcu":
+                    lane.setPcu(parseInteger(xml.getElementText()));
+                    break;
+                case "HeadDistance":
+                    lane.setHeadDistance(parseDecimal(xml.getElementText()));
+                    break;
+                case "HeadTime":
+                    lane.setHeadTime(parseDecimal(xml.getElementText()));
+                    break;
+                case "Speed":
+                    lane.setSpeed(parseDecimal(xml.getElementText()));
+                    break;
+                case "Saturation":
+                    lane.setSaturation(parseDecimal(xml.getElementText()));
+                    break;
+                case "Density":
+                    lane.setDensity(parseInteger(xml.getElementText()));
+                    break;
+                case "QueueLength":
+                    lane.setQueueLength(parseDecimal(xml.getElementText()));
+                    break;
+                case "MaxQueueLength":
+                    lane.setMaxQueueLength(parseDecimal(xml.getElementText()));
+                    break;
+                case "Occupancy":
+                    lane.setOccupancy(parseInteger(xml.getElementText()));
+                    break;
+                default:
+                    throw Fallback.INSTANCE;
+            }
+        }
+        return lane;
+    }
+
+    // ==================== 读取工具 ====================
+
+    /**
+     * 移动到当前元素的下一个子元素
+     *
+     * @return true表示停在子元素的START_ELEMENT上，false表示已到达当前元素的END_ELEMENT
+     */
+    private static boolean nextChild(XMLStreamReader xml) throws XMLStreamException, Fallback {
+        while (xml.hasNext()) {
+            int event = xml.next();
+            switch (event) {
+                case XMLStreamConstants.START_ELEMENT:
+                    String ns = xml.getNamespaceURI();
+                    if (ns != null && !ns.isEmpty()) {
+                        throw Fallback.INSTANCE;
+                    }
+                    return true;
+                case XMLStreamConstants.END_ELEMENT:
+                    return false;
+                case XMLStreamConstants.CHARACTERS:
+                case XMLStreamConstants.SPACE:
+                    if (!xml.isWhiteSpace()) {
+                        throw Fallback.INSTANCE;
+                    }
+                    break;
+                case XMLStreamConstants.COMMENT:
+                case XMLStreamConstants.PROCESSING_INSTRUCTION:
+                    break;
+                default:
+                    throw Fallback.INSTANCE;
+            }
+        }
+        throw Fallback.INSTANCE;
+    }
+
+    private static void nextStartElement(XMLStreamReader xml) throws XMLStreamException, Fallback {
+        while (xml.hasNext()) {
+            int event = xml.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                return;
+            }
+            if (event == XMLStreamConstants.DTD) {
+                throw Fallback.INSTANCE;
+            }
+        }
+        throw Fallback.INSTANCE;
+    }
+
+    private static void expect(XMLStreamReader xml, String localName) throws Fallback {
+        if (!localName.equals(xml.getLocalName())) {
+            throw Fallback.INSTANCE;
+        }
+        String ns = xml.getNamespaceURI();
+        if (ns != null && !ns.isEmpty()) {
+            throw Fallback.INSTANCE;
+        }
+    }
+
+    /**
+     * 与JAXB xs:int 解析保持一致：去除首尾空白后解析
+     */
+    private static Integer parseInteger(String text) {
+        return Integer.valueOf(text.trim());
+    }
+
+    /**
+     * 与JAXB xs:decimal 解析保持一致：空内容返回null
+     */
+    private static BigDecimal parseDecimal(String text) {
+        String trimmed = text.trim();
+        return trimmed.isEmpty() ? null : new BigDecimal(trimmed);
+    }
+
+    private static void closeQuietly(XMLStreamReader xml) {
+        if (xml != null) {
+            try {
+                xml.close();
+            } catch (XMLStreamException ignored) {
+                // 关闭失败不影响结果
+            }
+        }
+    }
+
+    private static XMLInputFactory createInputFactory() {
+        XMLInputFactory factory = XMLInputFactory.newFactory();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        factory.setProperty(XMLInputFactory.IS_COALESCING, true);
+        return factory;
+    }
+}
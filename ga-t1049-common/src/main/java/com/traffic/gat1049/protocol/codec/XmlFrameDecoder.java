@@ -0,0 +1,157 @@
+package com.traffic.gat1049.protocol.codec;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.handler.codec.ByteToMessageDecoder;
+import io.netty.handler.codec.TooLongFrameException;
+import io.netty.util.CharsetUtil;
+
+import java.util.List;
+
+/**
+ * GA/T 1049 报文分帧解码器
+ *
+ * 以 &lt;/Message&gt; 为结束标记切分报文，直接输出 ByteBuf 切片（不复制、不转String）：
+ * 1. 每个字节只扫描一次，半包到达时从上次扫描位置继续
+ * 2. 丢弃帧之间的空白字符和UTF-8 BOM
+ * 3. 超长帧丢弃至下一个结束标记并抛出 TooLongFrameException
+ *
+ * 输出的帧由下游处理器负责释放（SimpleChannelInboundHandler 会自动释放）。
+ */
+public class XmlFrameDecoder extends ByteToMessageDecoder {
+
+    private static final byte[] END_TAG = "</Message>".getBytes(CharsetUtil.US_ASCII);
+    private static final ByteBuf XML_PROLOG = Unpooled.unreleasableBuffer(
+            Unpooled.wrappedBuffer("<?xml".getBytes(CharsetUtil.US_ASCII)));
+    private static final ByteBuf MESSAGE_TAG = Unpooled.unreleasableBuffer(
+            Unpooled.wrappedBuffer("<Message>".getBytes(CharsetUtil.US_ASCII)));
+
+    private final int maxFrameLength;
+
+    // 相对readerIndex已扫描过且未找到结束标记的字节数
+    private int scannedBytes;
+
+    // 是否正在丢弃超长帧
+    private boolean discardingTooLongFrame;
+    private long discardedBytes;
+
+    public XmlFrameDecoder(int maxFrameLength) {
+        this.maxFrameLength = maxFrameLength;
+    }
+
+    @Override
+    protected void decode(ChannelHandlerContext ctx, ByteBuf in, List<Object> out) throws Exception {
+        while (in.isReadable()) {
+            if (scannedBytes == 0 && !discardingTooLongFrame) {
+                skipLeadingNoise(in);
+                if (!in.isReadable()) {
+                    return;
+                }
+            }
+
+            int frameEnd = findEndOfFrame(in);
+            if (frameEnd < 0) {
+                if (discardingTooLongFrame) {
+                    // 保留可能跨包的结束标记前缀，其余直接丢弃
+                    int discard = Math.max(0, in.readableBytes() - (END_TAG.length - 1));
+                    in.skipBytes(discard);
+                    discardedBytes += discard;
+                    scannedBytes -= discard;
+                } else if (in.readableBytes() > maxFrameLength) {
+                    discardingTooLongFrame = true;
+                    discardedBytes = 0;
+                }
+                return;
+            }
+
+            int length = frameEnd - in.readerIndex();
+            scannedBytes = 0;
+
+            if (discardingTooLongFrame) {
+                in.skipBytes(length);
+                long total = discardedBytes + length;
+                discardingTooLongFrame = false;
+                discardedBytes = 0;
+                throw new TooLongFrameException("frame length exceeds " + maxFrameLength + ": " + total + " - discarded");
+            }
+            if (length > maxFrameLength) {
+                in.skipBytes(length);
+                throw new TooLongFrameException("frame length exceeds " + maxFrameLength + ": " + length + " - discarded");
+            }
+
+            out.add(in.retainedSlice(in.readerIndex(), length));
+            in.skipBytes(length);
+        }
+    }
+
+    /**
+     * 查找结束标记之后的位置
+     *
+     * @return 帧结束位置（不含），未找到返回-1
+     */
+    private int findEndOfFrame(ByteBuf in) {
+        int readerIndex = in.readerIndex();
+        int writerIndex = in.writerIndex();
+        int from = readerIndex + Math.max(scannedBytes, END_TAG.length - 1);
+
+        while (from < writerIndex) {
+            int gt = in.indexOf(from, writerIndex, (byte) '>');
+            if (gt < 0) {
+                break;
+            }
+            if (endsWithEndTag(in, gt)) {
+                return gt + 1;
+            }
+            from = gt + 1;
+        }
+        scannedBytes = writerIndex - readerIndex;
+        return -1;
+    }
+
+    private static boolean endsWithEndTag(ByteBuf in, int gtIndex) {
+        int start = gtIndex - (END_TAG.length - 1);
+        if (start < in.readerIndex()) {
+            return false;
+        }
+        for (int i = 0; i < END_TAG.length - 1; i++) {
+            if (in.getByte(start + i) != END_TAG[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 跳过帧之前的空白字符与UTF-8 BOM
+     */
+    private static void skipLeadingNoise(ByteBuf in) {
+        while (in.isReadable()) {
+            byte b = in.getByte(in.readerIndex());
+            if (b == ' ' || b == '\r' || b == '\n' || b == '\t') {
+                in.skipBytes(1);
+            } else if (b == (byte) 0xEF && in.readableBytes() >= 3
+                    && in.getByte(in.readerIndex() + 1) == (byte) 0xBB
+                    && in.getByte(in.readerIndex() + 2) == (byte) 0xBF) {
+                in.skipBytes(3);
+            } else {
+                return;
+            }
+        }
+    }
+
+    /**
+     * 按字节检查帧是否为合法的GA/T 1049报文：以XML声明开头并包含Message元素
+     * 与 ProtocolUtils.isValidXmlContent 的判定规则一致
+     */
+    public static boolean isValidFrame(ByteBuf frame) {
+        if (frame.readableBytes() < XML_PROLOG.readableBytes()) {
+            return false;
+        }
+        if (!ByteBufUtil.equals(frame, frame.readerIndex(), XML_PROLOG, 0, XML_PROLOG.readableBytes())) {
+            return false;
+        }
+        return ByteBufUtil.indexOf(MESSAGE_TAG, frame) >= 0;
+    }
+}
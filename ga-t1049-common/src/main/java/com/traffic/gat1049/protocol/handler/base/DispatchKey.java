@@ -0,0 +1,97 @@
+package com.traffic.gat1049.protocol.handler.base;
+
+import com.traffic.gat1049.protocol.model.core.Message;
+import com.traffic.gat1049.protocol.util.ProtocolUtils;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * 处理器分发键
+ * 由 (消息类型, 操作名称, 数据对象类型) 组成，用于在注册时建立处理器索引，
+ * 避免每条消息逐个调用处理器的 supports()
+ *
+ * 处理器声明的键中数据对象类型为null表示匹配任意数据对象（含无数据），
+ * 否则按 instanceof 语义匹配。
+ */
+public final class DispatchKey {
+
+    private final String messageType;
+    private final String operationName;
+    private final Class<?> dataType;
+
+    private DispatchKey(String messageType, String operationName, Class<?> dataType) {
+        this.messageType = messageType;
+        this.operationName = operationName;
+        this.dataType = dataType;
+    }
+
+    /**
+     * 创建处理器声明用的键集合
+     *
+     * @param messageType   消息类型，如 REQUEST / PUSH
+     * @param operationName 操作名称，如 Get / Set / Notify
+     * @param dataTypes     支持的数据对象类型，不传表示任意数据对象
+     */
+    public static Set<DispatchKey> of(String messageType, String operationName, Class<?>... dataTypes) {
+        if (dataTypes == null || dataTypes.length == 0) {
+            return Collections.singleton(new DispatchKey(messageType, operationName, null));
+        }
+        Set<DispatchKey> keys = new HashSet<>();
+        for (Class<?> dataType : dataTypes) {
+            keys.add(new DispatchKey(messageType, operationName, dataType));
+        }
+        return Collections.unmodifiableSet(keys);
+    }
+
+    /**
+     * 根据消息的首个操作生成查找键
+     */
+    public static DispatchKey fromMessage(Message message) {
+        Object data = ProtocolUtils.getOperationData(message);
+        return new DispatchKey(message.getType(), ProtocolUtils.getOperationName(message),
+                data != null ? data.getClass() : null);
+    }
+
+    /**
+     * 判断声明键是否覆盖查找键
+     */
+    public boolean matches(DispatchKey lookup) {
+        return Objects.equals(messageType, lookup.messageType)
+                && Objects.equals(operationName, lookup.operationName)
+                && (dataType == null || (lookup.dataType != null && dataType.isAssignableFrom(lookup.dataType)));
+    }
+
+    public String getMessageType() { return messageType; }
+    public String getOperationName() { return operationName; }
+    public Class<?> getDataType() { return dataType; }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        DispatchKey that = (DispatchKey) o;
+        return Objects.equals(messageType, that.messageType)
+                && Objects.equals(operationName, that.operationName)
+                && dataType == that.dataType;
+    }
+
+    @Override
+    public int hashCode() {
+        int result = messageType != null ? messageType.hashCode() : 0;
+        result = 31 * result + (operationName != null ? operationName.hashCode() : 0);
+        result = 31 * result + (dataType != null ? dataType.hashCode() : 0);
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "DispatchKey{" +
+                "messageType='" + messageType + '\'' +
+                ", operationName='" + operationName + '\'' +
+                ", dataType=" + (dataType != null ? dataType.getSimpleName() : "*") +
+                '}';
+    }
+}
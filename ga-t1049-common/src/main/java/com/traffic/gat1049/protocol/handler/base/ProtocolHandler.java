@@ -2,6 +2,8 @@ package com.traffic.gat1049.protocol.handler.base;
 import com.traffic.gat1049.exception.GatProtocolException;
 import com.traffic.gat1049.protocol.model.core.Message;
 
+import java.util.Set;
+
 /**
  * 协议处理器接口
  */
@@ -30,4 +32,15 @@ public interface ProtocolHandler {
      * @return 处理器名称
      */
     String getHandlerName();
+
+    /**
+     * 获取处理器可处理的分发键，用于注册时建立分发索引
+     * 声明的键只用于缩小候选范围，最终仍由 supports() 判定；
+     * 返回null表示无法声明，该处理器对所有消息都参与匹配
+     *
+     * @return 分发键集合
+     */
+    default Set<DispatchKey> getDispatchKeys() {
+        return null;
+    }
 }
@@ -6,9 +6,12 @@ import com.traffic.gat1049.protocol.model.core.Message;
 import com.traffic.gat1049.protocol.constants.GatConstants;
 import com.traffic.gat1049.protocol.model.command.TSCCmd;
 import com.traffic.gat1049.protocol.handler.base.AbstractProtocolHandler;
+import com.traffic.gat1049.protocol.handler.base.DispatchKey;
 import com.traffic.gat1049.protocol.util.ProtocolUtils;
 import com.traffic.gat1049.service.interfaces.ServiceFactory;
 
+import java.util.Set;
+
 /**
  * 配置参数查询处理器
  */
@@ -20,6 +23,11 @@ public class ConfigParamHandler extends AbstractProtocolHandler {
         this.serviceFactory = serviceFactory;
     }
 
+    @Override
+    public Set<DispatchKey> getDispatchKeys() {
+        return DispatchKey.of(GatConstants.MessageType.REQUEST, GatConstants.Operation.GET, TSCCmd.class);
+    }
+
     @Override
     public boolean supports(Message message) {
         if (!isQueryRequest(message)) {
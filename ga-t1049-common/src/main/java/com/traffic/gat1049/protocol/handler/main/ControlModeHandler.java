@@ -9,9 +9,12 @@ import com.traffic.gat1049.protocol.model.runtime.CrossModePlan;
 import com.traffic.gat1049.protocol.model.signal.PlanParam;
 import com.traffic.gat1049.model.enums.ControlMode;
 import com.traffic.gat1049.protocol.handler.base.AbstractProtocolHandler;
+import com.traffic.gat1049.protocol.handler.base.DispatchKey;
 import com.traffic.gat1049.protocol.util.ProtocolUtils;
 import com.traffic.gat1049.service.interfaces.ServiceFactory;
 
+import java.util.Set;
+
 /**
  * 控制方式处理器
  * 处理路口控制方式的设置
@@ -24,6 +27,11 @@ public class ControlModeHandler extends AbstractProtocolHandler {
         this.serviceFactory = serviceFactory;
     }
 
+    @Override
+    public Set<DispatchKey> getDispatchKeys() {
+        return DispatchKey.of(GatConstants.MessageType.REQUEST, GatConstants.Operation.SET, CrossModePlan.class);
+    }
+
     @Override
     public boolean supports(Message message) {
         if (!isSetRequest(message)) {
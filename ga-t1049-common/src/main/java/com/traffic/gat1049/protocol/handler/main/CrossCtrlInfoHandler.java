@@ -8,9 +8,12 @@ import com.traffic.gat1049.protocol.constants.GatConstants;
 import com.traffic.gat1049.protocol.model.command.CrossCtrlInfo;
 import com.traffic.gat1049.model.enums.ControlMode;
 import com.traffic.gat1049.protocol.handler.base.AbstractProtocolHandler;
+import com.traffic.gat1049.protocol.handler.base.DispatchKey;
 import com.traffic.gat1049.protocol.util.ProtocolUtils;
 import com.traffic.gat1049.service.interfaces.ServiceFactory;
 
+import java.util.Set;
+
 /**
  * 路口控制方式方案处理器
  * 处理路口控制方式方案的指定命令
@@ -24,6 +27,11 @@ public class CrossCtrlInfoHandler extends AbstractProtocolHandler {
         this.serviceFactory = serviceFactory;
     }
 
+    @Override
+    public Set<DispatchKey> getDispatchKeys() {
+        return DispatchKey.of(GatConstants.MessageType.REQUEST, GatConstants.Operation.SET, CrossCtrlInfo.class);
+    }
+
     @Override
     public boolean supports(Message message) {
         if (!isSetRequest(message)) {
@@ -12,6 +12,7 @@ import com.traffic.gat1049.protocol.model.runtime.VarLaneStatus;
 import com.traffic.gat1049.model.enums.LaneMovement;
 import com.traffic.gat1049.model.enums.VarLaneMode;
 import com.traffic.gat1049.protocol.handler.base.AbstractProtocolHandler;
+import com.traffic.gat1049.protocol.handler.base.DispatchKey;
 import com.traffic.gat1049.protocol.util.ProtocolUtils;
 import com.traffic.gat1049.service.interfaces.ServiceFactory;
 
@@ -19,6 +20,8 @@ import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
 
+import java.util.Set;
+
 /**
  * 可变导向车道控制处理器
  * 处理设置可变导向车道功能命令
@@ -32,6 +35,11 @@ public class CtrlVarLaneHandler extends AbstractProtocolHandler {
         this.serviceFactory = serviceFactory;
     }
 
+    @Override
+    public Set<DispatchKey> getDispatchKeys() {
+        return DispatchKey.of(GatConstants.MessageType.REQUEST, GatConstants.Operation.SET, CtrlVarLane.class);
+    }
+
     @Override
     public boolean supports(Message message) {
         if (!isSetRequest(message)) {
@@ -9,10 +9,12 @@ import com.traffic.gat1049.protocol.model.command.CrossReportCtrl;
 import com.traffic.gat1049.model.enums.ReportCommand;
 import com.traffic.gat1049.model.enums.ReportDataType;
 import com.traffic.gat1049.protocol.handler.base.AbstractProtocolHandler;
+import com.traffic.gat1049.protocol.handler.base.DispatchKey;
 import com.traffic.gat1049.protocol.util.ProtocolUtils;
 import com.traffic.gat1049.service.interfaces.ServiceFactory;
 
 import java.util.List;
+import java.util.Set;
 
 /**
  * 数据上报控制处理器
@@ -26,6 +28,11 @@ public class DataReportHandler extends AbstractProtocolHandler {
         this.serviceFactory = serviceFactory;
     }
 
+    @Override
+    public Set<DispatchKey> getDispatchKeys() {
+        return DispatchKey.of(GatConstants.MessageType.REQUEST, GatConstants.Operation.SET, CrossReportCtrl.class);
+    }
+
     @Override
     public boolean supports(Message message) {
         if (!isSetRequest(message)) {
@@ -5,6 +5,7 @@ import com.traffic.gat1049.exception.GatProtocolException;
 import com.traffic.gat1049.exception.ValidationException;
 import com.traffic.gat1049.protocol.constants.GatConstants;
 import com.traffic.gat1049.protocol.handler.base.AbstractProtocolHandler;
+import com.traffic.gat1049.protocol.handler.base.DispatchKey;
 import com.traffic.gat1049.protocol.model.command.TSCCmd;
 import com.traffic.gat1049.protocol.model.core.Message;
 import com.traffic.gat1049.protocol.model.runtime.SCDoorStatus;
@@ -14,7 +15,9 @@ import com.traffic.gat1049.protocol.builder.MessageBuilder;
 import com.traffic.gat1049.service.interfaces.DoorStatusService;
 import com.traffic.gat1049.service.interfaces.ServiceFactory;
 
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 /**
  * 信号机柜门状态处理器
@@ -30,6 +33,15 @@ public class DoorStatusHandler extends AbstractProtocolHandler {
         this.doorStatusService = serviceFactory.getDoorStatusService();
     }
 
+    @Override
+    public Set<DispatchKey> getDispatchKeys() {
+        Set<DispatchKey> keys = new HashSet<>(DispatchKey.of(
+                GatConstants.MessageType.REQUEST, GatConstants.Operation.GET, TSCCmd.class));
+        keys.addAll(DispatchKey.of(
+                GatConstants.MessageType.PUSH, GatConstants.Operation.NOTIFY, SCDoorStatus.class));
+        return keys;
+    }
+
     @Override
     public boolean supports(Message message) {
         if (!isQueryRequest(message) && !isPushData(message)) {
@@ -4,6 +4,7 @@ import com.traffic.gat1049.exception.BusinessException;
 import com.traffic.gat1049.exception.GatProtocolException;
 import com.traffic.gat1049.exception.ValidationException;
 import com.traffic.gat1049.protocol.handler.base.TokenRequiredHandler;
+import com.traffic.gat1049.protocol.handler.base.DispatchKey;
 import com.traffic.gat1049.protocol.model.core.Message;
 import com.traffic.gat1049.protocol.constants.GatConstants;
 import com.traffic.gat1049.protocol.model.command.LockFlowDirection;
@@ -13,6 +14,8 @@ import com.traffic.gat1049.protocol.util.ProtocolUtils;
 import com.traffic.gat1049.service.interfaces.ServiceFactory;
 import com.traffic.gat1049.application.session.SessionManager;
 
+import java.util.Set;
+
 /**
  * 交通流向控制命令处理器
  */
@@ -25,6 +28,12 @@ public class FlowControlHandler extends TokenRequiredHandler {
         this.serviceFactory = serviceFactory;
     }
 
+    @Override
+    public Set<DispatchKey> getDispatchKeys() {
+        return DispatchKey.of(GatConstants.MessageType.REQUEST, GatConstants.Operation.SET,
+                LockFlowDirection.class, UnlockFlowDirection.class, AdjustStage.class);
+    }
+
     @Override
     public boolean supports(Message message) {
         if (!isSetRequest(message)) {
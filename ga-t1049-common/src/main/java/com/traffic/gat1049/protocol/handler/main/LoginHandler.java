@@ -5,12 +5,15 @@ import com.traffic.gat1049.protocol.model.sdo.SdoUser;
 import com.traffic.gat1049.model.enums.SystemType;
 import com.traffic.gat1049.exception.GatProtocolException;
 import com.traffic.gat1049.protocol.handler.base.AbstractProtocolHandler;
+import com.traffic.gat1049.protocol.handler.base.DispatchKey;
 import com.traffic.gat1049.protocol.model.core.Message;
 import com.traffic.gat1049.protocol.util.ProtocolUtils;
 import com.traffic.gat1049.application.session.SessionManager;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.Set;
+
 /**
  * Login处理器 - 使用现有的SessionManager
  * 按照原有的 validateLoginRequest -> dispatchLogin 设计模式
@@ -236,6 +239,11 @@ public class LoginHandler extends AbstractProtocolHandler {
         return SystemType.UTCS;
     }
 
+    @Override
+    public Set<DispatchKey> getDispatchKeys() {
+        return DispatchKey.of(GatConstants.MessageType.REQUEST, GatConstants.Operation.LOGIN);
+    }
+
     @Override
     public boolean supports(Message message) {
         // 只处理Login操作的请求消息
@@ -11,11 +11,13 @@ import com.traffic.gat1049.protocol.model.command.SetScheduleParam;
 import com.traffic.gat1049.protocol.model.command.CenterPlan;
 import com.traffic.gat1049.protocol.model.signal.StageParam;
 import com.traffic.gat1049.protocol.handler.base.AbstractProtocolHandler;
+import com.traffic.gat1049.protocol.handler.base.DispatchKey;
 import com.traffic.gat1049.protocol.util.ProtocolUtils;
 import com.traffic.gat1049.service.interfaces.ServiceFactory;
 import com.traffic.gat1049.model.enums.OperationType;
 
 import java.util.List;
+import java.util.Set;
 
 /**
  * 配时方案控制命令处理器
@@ -33,6 +35,12 @@ public class PlanControlHandler extends AbstractProtocolHandler {
         this.serviceFactory = serviceFactory;
     }
 
+    @Override
+    public Set<DispatchKey> getDispatchKeys() {
+        return DispatchKey.of(GatConstants.MessageType.REQUEST, GatConstants.Operation.SET,
+                SetPlanParam.class, SetDayPlanParam.class, SetScheduleParam.class, CenterPlan.class);
+    }
+
     @Override
     public boolean supports(Message message) {
         if (!isSetRequest(message)) {
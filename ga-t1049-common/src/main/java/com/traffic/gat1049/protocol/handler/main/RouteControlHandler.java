@@ -10,9 +10,12 @@ import com.traffic.gat1049.protocol.model.runtime.RouteCtrlInfo;
 import com.traffic.gat1049.protocol.model.runtime.RouteSpeed;
 import com.traffic.gat1049.model.enums.RouteControlMode;
 import com.traffic.gat1049.protocol.handler.base.AbstractProtocolHandler;
+import com.traffic.gat1049.protocol.handler.base.DispatchKey;
 import com.traffic.gat1049.protocol.util.ProtocolUtils;
 import com.traffic.gat1049.service.interfaces.ServiceFactory;
 
+import java.util.Set;
+
 /**
  * 干线控制处理器
  * 处理干线控制方式和推荐车速的设置
@@ -25,6 +28,11 @@ public class RouteControlHandler extends AbstractProtocolHandler {
         this.serviceFactory = serviceFactory;
     }
 
+    @Override
+    public Set<DispatchKey> getDispatchKeys() {
+        return DispatchKey.of(GatConstants.MessageType.REQUEST, GatConstants.Operation.SET, RouteCtrlInfo.class, RouteSpeed.class);
+    }
+
     @Override
     public boolean supports(Message message) {
         if (!isSetRequest(message)) {
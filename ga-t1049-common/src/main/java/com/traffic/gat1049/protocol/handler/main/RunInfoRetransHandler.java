@@ -16,6 +16,7 @@ import java.time.format.DateTimeParseException;
 import java.util.List;
 import java.util.Set;
 import java.util.HashSet;
+import com.traffic.gat1049.protocol.handler.base.DispatchKey;
 
 /**
  * 重传运行信息处理器
@@ -46,6 +47,11 @@ public class RunInfoRetransHandler extends AbstractProtocolHandler {
         this.serviceFactory = serviceFactory;
     }
 
+    @Override
+    public Set<DispatchKey> getDispatchKeys() {
+        return DispatchKey.of(GatConstants.MessageType.REQUEST, GatConstants.Operation.SET, CrossRunInfoRetrans.class);
+    }
+
     @Override
     public boolean supports(Message message) {
         if (!isSetRequest(message)) {
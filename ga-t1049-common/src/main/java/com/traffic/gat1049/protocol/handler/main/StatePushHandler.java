@@ -11,6 +11,9 @@ import com.traffic.gat1049.protocol.handler.base.AbstractProtocolHandler;
 import com.traffic.gat1049.protocol.model.runtime.*;
 import com.traffic.gat1049.protocol.util.ProtocolUtils;
 import com.traffic.gat1049.service.interfaces.ServiceFactory;
+import com.traffic.gat1049.protocol.handler.base.DispatchKey;
+import com.traffic.gat1049.protocol.constants.GatConstants;
+import java.util.Set;
 
 /**
  * 状态推送处理器
@@ -24,6 +27,15 @@ public class StatePushHandler extends AbstractProtocolHandler {
         this.serviceFactory = serviceFactory;
     }
 
+    @Override
+    public Set<DispatchKey> getDispatchKeys() {
+        return DispatchKey.of(GatConstants.MessageType.PUSH, GatConstants.Operation.NOTIFY,
+                SysState.class, CrossState.class, SignalControllerError.class, CrossModePlan.class,
+                CrossCycle.class, CrossStage.class, CrossSignalGroupStatus.class, CrossTrafficData.class,
+                StageTrafficData.class, VarLaneStatus.class, RouteCtrlInfo.class, RouteSpeed.class,
+                PackedCrossSignalGroupStatus.class);
+    }
+
     @Override
     public boolean supports(Message message) {
         // 支持推送类型的消息
@@ -43,6 +55,7 @@ public class StatePushHandler extends AbstractProtocolHandler {
                 data instanceof CrossCycle ||
                 data instanceof CrossStage ||
                 data instanceof CrossSignalGroupStatus ||
+                data instanceof PackedCrossSignalGroupStatus ||
                 data instanceof CrossTrafficData ||
                 data instanceof StageTrafficData ||
                 data instanceof VarLaneStatus ||
@@ -83,6 +96,8 @@ public class StatePushHandler extends AbstractProtocolHandler {
             handleCrossStage((CrossStage) data);
         } else if (data instanceof CrossSignalGroupStatus) {
             handleCrossSignalGroupStatus((CrossSignalGroupStatus) data);
+        } else if (data instanceof PackedCrossSignalGroupStatus) {
+            handleCrossSignalGroupStatus((PackedCrossSignalGroupStatus) data);
         } else if (data instanceof CrossTrafficData) {
             handleCrossTrafficData((CrossTrafficData) data);
         } else if (data instanceof StageTrafficData) {
@@ -166,6 +181,16 @@ public class StatePushHandler extends AbstractProtocolHandler {
         serviceFactory.getSignalGroupService().updateCrossSignalGroupStatus(status);
     }
 
+    /**
+     * 快速解码直接得到的打包灯态，不再生成协议对象
+     */
+    private void handleCrossSignalGroupStatus(PackedCrossSignalGroupStatus status) throws BusinessException {
+        logger.debug("Received signal group status push: crossId={}, groups={}",
+                status.getCrossId(), status.size());
+
+        serviceFactory.getSignalGroupService().updateCrossSignalGroupStatus(status);
+    }
+
     private void handleCrossTrafficData(CrossTrafficData trafficData) throws BusinessException {
         logger.info("Received traffic data push: crossId={}, endTime={}, interval={}, lanes={}",
                 trafficData.getCrossId(), trafficData.getEndTime(),
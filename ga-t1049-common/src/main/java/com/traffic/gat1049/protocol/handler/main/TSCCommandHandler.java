@@ -5,6 +5,7 @@ import com.traffic.gat1049.exception.DataNotFoundException;
 import com.traffic.gat1049.exception.GatProtocolException;
 import com.traffic.gat1049.exception.ValidationException;
 import com.traffic.gat1049.protocol.handler.base.TokenRequiredHandler;
+import com.traffic.gat1049.protocol.handler.base.DispatchKey;
 import com.traffic.gat1049.protocol.model.core.Message;
 import com.traffic.gat1049.protocol.constants.GatConstants;
 import com.traffic.gat1049.protocol.model.command.TSCCmd;
@@ -13,6 +14,8 @@ import com.traffic.gat1049.protocol.util.ResultHandlingUtils;
 import com.traffic.gat1049.service.interfaces.ServiceFactory;
 import com.traffic.gat1049.application.session.SessionManager;
 
+import java.util.Set;
+
 /**
  * TSCCmd命令处理器基类
  * 处理配置参数和运行信息的查询、通知命令
@@ -26,6 +29,11 @@ public class TSCCommandHandler extends TokenRequiredHandler {
         this.serviceFactory = serviceFactory;
     }
 
+    @Override
+    public Set<DispatchKey> getDispatchKeys() {
+        return DispatchKey.of(GatConstants.MessageType.REQUEST, GatConstants.Operation.GET, TSCCmd.class);
+    }
+
     @Override
     public boolean supports(Message message) {
         if (!isQueryRequest(message)) {
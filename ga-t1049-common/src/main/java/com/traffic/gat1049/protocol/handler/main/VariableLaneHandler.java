@@ -11,9 +11,12 @@ import com.traffic.gat1049.protocol.model.runtime.VarLaneStatus;
 import com.traffic.gat1049.model.enums.LaneMovement;
 import com.traffic.gat1049.model.enums.VarLaneMode;
 import com.traffic.gat1049.protocol.handler.base.AbstractProtocolHandler;
+import com.traffic.gat1049.protocol.handler.base.DispatchKey;
 import com.traffic.gat1049.protocol.util.ProtocolUtils;
 import com.traffic.gat1049.service.interfaces.ServiceFactory;
 
+import java.util.Set;
+
 /**
  * 可变车道控制处理器
  * 处理可变车道状态的设置和控制
@@ -26,6 +29,11 @@ public class VariableLaneHandler extends AbstractProtocolHandler {
         this.serviceFactory = serviceFactory;
     }
 
+    @Override
+    public Set<DispatchKey> getDispatchKeys() {
+        return DispatchKey.of(GatConstants.MessageType.REQUEST, GatConstants.Operation.SET, VarLaneStatus.class);
+    }
+
     @Override
     public boolean supports(Message message) {
         if (!isSetRequest(message)) {
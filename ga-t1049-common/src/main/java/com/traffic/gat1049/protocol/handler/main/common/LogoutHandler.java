@@ -3,12 +3,15 @@ package com.traffic.gat1049.protocol.handler.main.common;
 import com.traffic.gat1049.exception.GatProtocolException;
 import com.traffic.gat1049.protocol.constants.GatConstants;
 import com.traffic.gat1049.protocol.handler.base.AbstractProtocolHandler;
+import com.traffic.gat1049.protocol.handler.base.DispatchKey;
 import com.traffic.gat1049.protocol.model.core.Message;
 import com.traffic.gat1049.application.session.SessionManager;
 import com.traffic.gat1049.protocol.model.sdo.SdoUser;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.Set;
+
 public class LogoutHandler extends AbstractProtocolHandler {
 
     private static final Logger logger = LoggerFactory.getLogger(LogoutHandler.class);
@@ -45,6 +48,11 @@ public class LogoutHandler extends AbstractProtocolHandler {
         }
     }
 
+    @Override
+    public Set<DispatchKey> getDispatchKeys() {
+        return DispatchKey.of(GatConstants.MessageType.REQUEST, GatConstants.Operation.LOGOUT);
+    }
+
     @Override
     public boolean supports(Message message) {
         return com.traffic.gat1049.protocol.util.ProtocolUtils.isRequest(message) &&
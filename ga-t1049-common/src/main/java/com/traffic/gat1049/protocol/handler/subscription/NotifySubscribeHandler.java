@@ -2,6 +2,7 @@ package com.traffic.gat1049.protocol.handler.subscription;
 
 import com.traffic.gat1049.exception.ValidationException;
 import com.traffic.gat1049.protocol.handler.base.TokenRequiredHandler;
+import com.traffic.gat1049.protocol.handler.base.DispatchKey;
 import com.traffic.gat1049.protocol.model.core.Message;
 import com.traffic.gat1049.protocol.model.sdo.SdoMsgEntity;
 import com.traffic.gat1049.protocol.constants.GatConstants;
@@ -12,6 +13,7 @@ import com.traffic.gat1049.application.session.SessionManager;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.Set;
 
 /**
  * 改进的Notify订阅处理器 - 使用接口委托模式
@@ -52,6 +54,11 @@ public class NotifySubscribeHandler extends TokenRequiredHandler {
         logger.info("订阅服务已注入: {}", subscriptionService.getClass().getSimpleName());
     }
 
+    @Override
+    public Set<DispatchKey> getDispatchKeys() {
+        return DispatchKey.of(GatConstants.MessageType.REQUEST, GatConstants.Operation.SUBSCRIBE);
+    }
+
     @Override
     public boolean supports(Message message) {
         // 只处理订阅请求
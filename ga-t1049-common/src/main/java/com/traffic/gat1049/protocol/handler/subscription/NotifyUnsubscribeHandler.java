@@ -2,6 +2,7 @@ package com.traffic.gat1049.protocol.handler.subscription;
 
 import com.traffic.gat1049.exception.ValidationException;
 import com.traffic.gat1049.protocol.handler.base.TokenRequiredHandler;
+import com.traffic.gat1049.protocol.handler.base.DispatchKey;
 import com.traffic.gat1049.protocol.model.core.Message;
 import com.traffic.gat1049.protocol.model.sdo.SdoMsgEntity;
 import com.traffic.gat1049.protocol.constants.GatConstants;
@@ -10,6 +11,8 @@ import com.traffic.gat1049.application.subscription.interfaces.SubscriptionServi
 import com.traffic.gat1049.application.subscription.SubscriptionResult;
 import com.traffic.gat1049.application.session.SessionManager;
 
+import java.util.Set;
+
 /**
  * 改进的Notify取消订阅处理器 - 使用接口委托模式
  * 处理器负责消息路由和基础验证，具体取消订阅逻辑委托给SubscriptionService实现
@@ -32,6 +35,11 @@ public class NotifyUnsubscribeHandler extends TokenRequiredHandler {
         logger.info("取消订阅服务已注入: {}", subscriptionService.getClass().getSimpleName());
     }
 
+    @Override
+    public Set<DispatchKey> getDispatchKeys() {
+        return DispatchKey.of(GatConstants.MessageType.REQUEST, GatConstants.Operation.UNSUBSCRIBE);
+    }
+
     @Override
     public boolean supports(Message message) {
         // 只处理取消订阅请求
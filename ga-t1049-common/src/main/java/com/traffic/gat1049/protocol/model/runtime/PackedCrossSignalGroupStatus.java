@@ -0,0 +1,231 @@
+package com.traffic.gat1049.protocol.model.runtime;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.traffic.gat1049.protocol.model.signal.SignalGroupStatus;
+import com.traffic.gat1049.protocol.util.LampStatusUtil;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 路口信号组灯色状态的紧凑表示
+ * 不属于协议报文，用于内存中保存和传递高频灯态数据：每个信号组压缩为一个 long，
+ * 整个路口只占一个 long[]，需要协议对象时再由 {@link #toCrossSignalGroupStatus()} 生成。
+ *
+ * 每个信号组的位布局：
+ *
+ * 1. 高32位：信号组序号
+ * 2. 第16~21位：灯色状态，3位字符各占2位，见 {@link LampStatusUtil#packLampStatus(String)}
+ * 3. 低16位：剩余时长（秒），0xFFFF 表示未提供
+ *
+ * 对象创建后不可修改。
+ */
+public final class PackedCrossSignalGroupStatus {
+
+    private static final int LAMP_STATUS_SHIFT = 16;
+    private static final int LAMP_STATUS_MASK = (1 << LampStatusUtil.PACKED_LAMP_STATUS_BITS) - 1;
+    private static final int REMAIN_TIME_MASK = 0xFFFF;
+    private static final int REMAIN_TIME_ABSENT = REMAIN_TIME_MASK;
+
+    @JsonProperty("crossId")
+    private final String crossId;
+
+    @JsonProperty("lampStatusTime")
+    private final String lampStatusTime;
+
+    @JsonProperty("groups")
+    private final long[] groups;
+
+    @JsonCreator
+    private PackedCrossSignalGroupStatus(@JsonProperty("crossId") String crossId,
+                                         @JsonProperty("lampStatusTime") String lampStatusTime,
+                                         @JsonProperty("groups") long[] groups) {
+        this.crossId = crossId;
+        this.lampStatusTime = lampStatusTime;
+        this.groups = groups != null ? groups : new long[0];
+    }
+
+    /**
+     * 打包路口信号组灯色状态
+     *
+     * @return 打包结果；信号组序号为空、灯色状态格式无效或剩余时长超出 0~65534 时无法打包，返回null
+     */
+    public static PackedCrossSignalGroupStatus pack(CrossSignalGroupStatus status) {
+        if (status == null) {
+            return null;
+        }
+        List<SignalGroupStatus> list = status.getSignalGroupStatusList();
+        Builder builder = new Builder(list != null ? list.size() : 0)
+                .crossId(status.getCrossId())
+                .lampStatusTime(status.getLampStatusTime());
+        if (list != null) {
+            for (SignalGroupStatus group : list) {
+                if (group == null || !builder.add(group.getSignalGroupNo(), group.getLampStatus(), group.getRemainTime())) {
+                    return null;
+                }
+            }
+        }
+        return builder.build();
+    }
+
+    /**
+     * 逐个信号组构建打包结果，供解码器不经协议对象直接打包
+     */
+    public static Builder builder() {
+        return new Builder(8);
+    }
+
+    public String getCrossId() {
+        return crossId;
+    }
+
+    public String getLampStatusTime() {
+        return lampStatusTime;
+    }
+
+    /**
+     * 返回灯态时间替换后的副本，信号组数据共用
+     */
+    public PackedCrossSignalGroupStatus withLampStatusTime(String lampStatusTime) {
+        return new PackedCrossSignalGroupStatus(crossId, lampStatusTime, groups);
+    }
+
+    /**
+     * 信号组数量
+     */
+    public int size() {
+        return groups.length;
+    }
+
+    public int getSignalGroupNo(int index) {
+        return (int) (groups[index] >>> 32);
+    }
+
+    /**
+     * 打包的灯色状态（0~63）
+     */
+    public int getPackedLampStatus(int index) {
+        return (int) (groups[index] >>> LAMP_STATUS_SHIFT) & LAMP_STATUS_MASK;
+    }
+
+    /**
+     * 3位字符的灯色状态，返回共享的常量字符串
+     */
+    public String getLampStatus(int index) {
+        return LampStatusUtil.unpackLampStatus(getPackedLampStatus(index));
+    }
+
+    /**
+     * 剩余时长（秒），未提供时返回null
+     */
+    public Integer getRemainTime(int index) {
+        int remainTime = (int) groups[index] & REMAIN_TIME_MASK;
+        return remainTime != REMAIN_TIME_ABSENT ? remainTime : null;
+    }
+
+    /**
+     * 按信号组序号查找下标
+     *
+     * @return 下标，不存在时返回-1
+     */
+    public int indexOf(int signalGroupNo) {
+        for (int i = 0; i < groups.length; i++) {
+            if (getSignalGroupNo(i) == signalGroupNo) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * 生成协议对象，每次调用返回新的对象
+     */
+    public CrossSignalGroupStatus toCrossSignalGroupStatus() {
+        CrossSignalGroupStatus status = new CrossSignalGroupStatus(crossId, lampStatusTime);
+        List<SignalGroupStatus> list = new ArrayList<>(groups.length);
+        for (int i = 0; i < groups.length; i++) {
+            list.add(toSignalGroupStatus(i));
+        }
+        status.setSignalGroupStatusList(list);
+        return status;
+    }
+
+    /**
+     * 生成单个信号组的协议对象
+     */
+    public SignalGroupStatus toSignalGroupStatus(int index) {
+        return new SignalGroupStatus(getSignalGroupNo(index), getLampStatus(index), getRemainTime(index));
+    }
+
+    private static long encode(int signalGroupNo, int lampStatus, int remainTime) {
+        return ((long) signalGroupNo << 32) | ((long) lampStatus << LAMP_STATUS_SHIFT) | remainTime;
+    }
+
+    /**
+     * 打包结果构建器，非线程安全
+     */
+    public static final class Builder {
+        private String crossId;
+        private String lampStatusTime;
+        private long[] groups;
+        private int size;
+
+        private Builder(int capacity) {
+            this.groups = new long[capacity];
+        }
+
+        public Builder crossId(String crossId) {
+            this.crossId = crossId;
+            return this;
+        }
+
+        public Builder lampStatusTime(String lampStatusTime) {
+            this.lampStatusTime = lampStatusTime;
+            return this;
+        }
+
+        /**
+         * 追加一个信号组
+         *
+         * @return 无法打包（序号为空、灯色状态格式无效或剩余时长超出范围）时返回false，构建器内容不变
+         */
+        public boolean add(Integer signalGroupNo, String lampStatus, Integer remainTime) {
+            if (signalGroupNo == null) {
+                return false;
+            }
+            int packedLampStatus = LampStatusUtil.packLampStatus(lampStatus);
+            if (packedLampStatus < 0) {
+                return false;
+            }
+            if (remainTime != null && (remainTime < 0 || remainTime >= REMAIN_TIME_ABSENT)) {
+                return false;
+            }
+            if (size == groups.length) {
+                groups = Arrays.copyOf(groups, Math.max(8, size * 2));
+            }
+            groups[size++] = encode(signalGroupNo, packedLampStatus,
+                    remainTime != null ? remainTime : REMAIN_TIME_ABSENT);
+            return true;
+        }
+
+        public PackedCrossSignalGroupStatus build() {
+            return new PackedCrossSignalGroupStatus(crossId, lampStatusTime,
+                    size == groups.length ? groups : Arrays.copyOf(groups, size));
+        }
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("PackedCrossSignalGroupStatus{crossId='")
+                .append(crossId).append("', lampStatusTime='").append(lampStatusTime).append("', groups=[");
+        for (int i = 0; i < groups.length; i++) {
+            if (i > 0) {
+                sb.append(", ");
+            }
+            sb.append(getSignalGroupNo(i)).append(':').append(getLampStatus(i)).append('/').append(getRemainTime(i));
+        }
+        return sb.append("]}").toString();
+    }
+}
@@ -6,6 +6,7 @@ import com.traffic.gat1049.exception.MessageEncodingException;
 import com.traffic.gat1049.protocol.constants.GatConstants;
 import com.traffic.gat1049.protocol.builder.MessageBuilder;
 import com.traffic.gat1049.protocol.codec.MessageCodec;
+import com.traffic.gat1049.protocol.handler.base.DispatchKey;
 import com.traffic.gat1049.protocol.handler.base.ProtocolHandler;
 import com.traffic.gat1049.protocol.model.core.Message;
 import com.traffic.gat1049.protocol.model.sdo.SdoError;
@@ -13,7 +14,11 @@ import com.traffic.gat1049.protocol.util.ProtocolUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
@@ -25,7 +30,11 @@ public class DefaultMessageProcessor implements MessageProcessor {
 
     private final MessageCodec codec;
     private final List<ProtocolHandler> handlers;
-    private String tempToken = "";
+    // 分发索引：查找键 -> 按注册顺序排列的候选处理器，注册或移除处理器后整体替换为新索引，
+    // 正在旧索引上计算的候选结果随旧索引丢弃，不会混入新索引
+    private volatile Map<DispatchKey, ProtocolHandler[]> dispatchIndex = new ConcurrentHashMap<>();
+    // 按线程记录最近一次响应的令牌，消息可能在多个业务线程中并发处理
+    private final ThreadLocal<String> tempToken = ThreadLocal.withInitial(() -> "");
 
     public DefaultMessageProcessor() throws MessageEncodingException {
         this.codec = MessageCodec.getInstance();
@@ -95,7 +104,7 @@ public class DefaultMessageProcessor implements MessageProcessor {
             // 处理消息
             Message response = handler.handleMessage(message);
             if (response != null) {
-                tempToken = response.getToken();
+                tempToken.set(response.getToken());
                 logger.debug("Message processed successfully by handler: {}", handler.getHandlerName());
             } else {
                 logger.debug("Handler {} processed message without response", handler.getHandlerName());
@@ -123,6 +132,7 @@ public class DefaultMessageProcessor implements MessageProcessor {
 
         // 添加新处理器
         handlers.add(handler);
+        dispatchIndex = new ConcurrentHashMap<>();
         logger.info("Registered protocol handler: {}", handler.getHandlerName());
     }
 
@@ -132,20 +142,26 @@ public class DefaultMessageProcessor implements MessageProcessor {
             return;
         }
 
-        handlers.removeIf(handler -> handlerName.equals(handler.getHandlerName()));
+        if (handlers.removeIf(handler -> handlerName.equals(handler.getHandlerName()))) {
+            dispatchIndex = new ConcurrentHashMap<>();
+        }
         logger.info("Removed protocol handler: {}", handlerName);
     }
 
     @Override
     public String getTempToken() {
-        return tempToken;
+        return tempToken.get();
     }
 
     /**
      * 查找合适的处理器
+     * 先按 (消息类型, 操作名称, 数据对象类型) 取出候选处理器，再按注册顺序调用 supports()，
+     * 匹配结果与逐个遍历全部处理器一致
      */
     private ProtocolHandler findHandler(Message message) {
-        for (ProtocolHandler handler : handlers) {
+        ProtocolHandler[] candidates = dispatchIndex.computeIfAbsent(
+                DispatchKey.fromMessage(message), this::resolveCandidates);
+        for (ProtocolHandler handler : candidates) {
             if (handler.supports(message)) {
                 return handler;
             }
@@ -153,6 +169,21 @@ public class DefaultMessageProcessor implements MessageProcessor {
         return null;
     }
 
+    /**
+     * 计算查找键对应的候选处理器：未声明分发键的处理器始终作为候选
+     */
+    private ProtocolHandler[] resolveCandidates(DispatchKey lookup) {
+        List<ProtocolHandler> candidates = new ArrayList<>();
+        for (ProtocolHandler handler : handlers) {
+            Set<DispatchKey> keys = handler.getDispatchKeys();
+            if (keys == null || keys.stream().anyMatch(key -> key.matches(lookup))) {
+                candidates.add(handler);
+            }
+        }
+        logger.debug("Resolved dispatch candidates for {}: {}", lookup, candidates.size());
+        return candidates.toArray(new ProtocolHandler[0]);
+    }
+
     /**
      * 创建不支持的操作响应
      */
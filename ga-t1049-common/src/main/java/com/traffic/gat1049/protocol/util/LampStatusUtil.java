@@ -156,6 +156,53 @@ public class LampStatusUtil {
         public static final String RED_YELLOW_ON = createNormalLampStatus(LampStatusValue.ON, LampStatusValue.ON, LampStatusValue.OFF);
     }
 
+    /**
+     * 打包后灯色状态的位数：3位字符每位取值0~3，各占2位
+     */
+    public static final int PACKED_LAMP_STATUS_BITS = 6;
+
+    // 打包值 -> 灯色状态字符串，解包时不分配新字符串
+    private static final String[] UNPACKED_LAMP_STATUS = new String[1 << PACKED_LAMP_STATUS_BITS];
+
+    static {
+        for (int packed = 0; packed < UNPACKED_LAMP_STATUS.length; packed++) {
+            UNPACKED_LAMP_STATUS[packed] = String.valueOf((packed >> 4) & 0x3) + ((packed >> 2) & 0x3) + (packed & 0x3);
+        }
+    }
+
+    /**
+     * 将3位字符的灯色状态打包为6位整数，自左向右每位字符依次占高、中、低2位
+     *
+     * @param lampStatus 灯色状态字符串
+     * @return 打包值（0~63），格式无效时返回-1
+     */
+    public static int packLampStatus(String lampStatus) {
+        if (lampStatus == null || lampStatus.length() != 3) {
+            return -1;
+        }
+        int packed = 0;
+        for (int i = 0; i < 3; i++) {
+            int code = lampStatus.charAt(i) - '0';
+            if (code < 0 || code > 3) {
+                return -1;
+            }
+            packed = (packed << 2) | code;
+        }
+        return packed;
+    }
+
+    /**
+     * 将打包值还原为3位字符的灯色状态
+     *
+     * @param packed 打包值（0~63）
+     */
+    public static String unpackLampStatus(int packed) {
+        if (packed < 0 || packed >= UNPACKED_LAMP_STATUS.length) {
+            throw new IllegalArgumentException("无效的灯色状态打包值: " + packed);
+        }
+        return UNPACKED_LAMP_STATUS[packed];
+    }
+
     /**
      * 验证灯色状态格式
      *
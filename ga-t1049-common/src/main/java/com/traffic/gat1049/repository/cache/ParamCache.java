@@ -0,0 +1,295 @@
+package com.traffic.gat1049.repository.cache;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * 路口静态参数读穿缓存
+ * 位于 repository.interfaces 查询之前，按 (对象类型, 路口编号, 查询变体) 缓存查询结果：
+ *
+ * 1. 容量有上限，超出时淘汰最久未访问的条目
+ * 2. 条目超过存活时间后重新查询，作为漏失效时的兜底
+ * 3. 参数保存、更新、删除及下发到设备时按路口显式失效；在事务中失效时提交后再失效一次，
+ *    避免并发查询在提交前回填旧数据
+ *
+ * 缓存保存的是查询结果的副本，命中时返回的列表和其中的实体也都是新副本，
+ * 调用方修改返回的实体不影响缓存内容，也不影响其他调用方。
+ */
+public class ParamCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(ParamCache.class);
+
+    private final boolean enabled;
+    private final int maxSize;
+    private final long ttlNanos;
+
+    // 按访问顺序排列，由 this 保护
+    private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(256, 0.75f, true);
+    // 每次失效递增，查询期间发生失效时不回填旧数据
+    private final AtomicLong generation = new AtomicLong();
+
+    // 统计数据
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+    private final LongAdder evictionCount = new LongAdder();
+    private final LongAdder expiredCount = new LongAdder();
+    private final LongAdder invalidationCount = new LongAdder();
+
+    /**
+     * @param enabled    false时每次直接查询
+     * @param maxSize    最大条目数
+     * @param ttlSeconds 条目存活时间（秒），0表示不过期
+     */
+    public ParamCache(boolean enabled, int maxSize, long ttlSeconds) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("maxSize must be positive");
+        }
+        this.enabled = enabled;
+        this.maxSize = maxSize;
+        this.ttlNanos = ttlSeconds > 0 ? TimeUnit.SECONDS.toNanos(ttlSeconds) : 0;
+    }
+
+    /**
+     * 读取路口的参数列表，未命中时调用 loader 查询并缓存
+     *
+     * @param objectType 对象类型，如 LampGroupParam
+     * @param crossId    路口编号
+     * @param variant    同一对象类型下的查询变体，如 basic / main，无变体时为null
+     * @param loader     数据库查询
+     * @param copier     复制单个实体，缓存和调用方各持有独立的实体
+     */
+    public <T> List<T> getList(String objectType, String crossId, String variant, Supplier<List<T>> loader,
+                               UnaryOperator<T> copier) {
+        if (!enabled) {
+            return loader.get();
+        }
+
+        Key key = new Key(objectType, crossId, variant);
+        List<T> cached = lookup(key);
+        if (cached != null) {
+            hitCount.increment();
+            return copyOf(cached, copier);
+        }
+
+        missCount.increment();
+        long startGeneration = generation.get();
+        List<T> loaded = loader.get();
+        if (loaded != null) {
+            store(key, copyOf(loaded, copier), startGeneration);
+        }
+        return loaded;
+    }
+
+    private static <T> List<T> copyOf(List<T> source, UnaryOperator<T> copier) {
+        List<T> copy = new ArrayList<>(source.size());
+        for (T item : source) {
+            copy.add(item != null ? copier.apply(item) : null);
+        }
+        return copy;
+    }
+
+    /**
+     * 失效路口的所有缓存参数
+     */
+    public void invalidate(String crossId) {
+        invalidate(null, crossId);
+    }
+
+    /**
+     * 失效路口指定对象类型的缓存，objectType为null时失效该路口全部类型
+     */
+    public void invalidate(String objectType, String crossId) {
+        if (!enabled || crossId == null) {
+            return;
+        }
+        remove(objectType, crossId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    remove(objectType, crossId);
+                }
+            });
+        }
+    }
+
+    private void remove(String objectType, String crossId) {
+        int removed = 0;
+        synchronized (this) {
+            generation.incrementAndGet();
+            Iterator<Key> iterator = entries.keySet().iterator();
+            while (iterator.hasNext()) {
+                Key key = iterator.next();
+                if (crossId.equals(key.crossId) && (objectType == null || objectType.equals(key.objectType))) {
+                    iterator.remove();
+                    removed++;
+                }
+            }
+        }
+        invalidationCount.increment();
+        logger.debug("参数缓存失效: objectType={}, crossId={}, removed={}",
+                objectType != null ? objectType : "*", crossId, removed);
+    }
+
+    /**
+     * 清空缓存
+     */
+    public void invalidateAll() {
+        synchronized (this) {
+            generation.incrementAndGet();
+            entries.clear();
+        }
+        invalidationCount.increment();
+        logger.info("参数缓存已清空");
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * 获取统计信息快照
+     */
+    public Stats getStats() {
+        Stats stats = new Stats();
+        stats.setEnabled(enabled);
+        stats.setSize(size());
+        stats.setMaxSize(maxSize);
+        stats.setHitCount(hitCount.sum());
+        stats.setMissCount(missCount.sum());
+        stats.setEvictionCount(evictionCount.sum());
+        stats.setExpiredCount(expiredCount.sum());
+        stats.setInvalidationCount(invalidationCount.sum());
+        return stats;
+    }
+
+    @SuppressWarnings("unchecked")
+    private synchronized <T> List<T> lookup(Key key) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (ttlNanos > 0 && System.nanoTime() - entry.loadedAt > ttlNanos) {
+            entries.remove(key);
+            expiredCount.increment();
+            return null;
+        }
+        return (List<T>) entry.value;
+    }
+
+    private synchronized void store(Key key, List<?> value, long startGeneration) {
+        if (generation.get() != startGeneration) {
+            // 查询期间参数被修改，结果可能已过时
+            return;
+        }
+        entries.put(key, new Entry(value, System.nanoTime()));
+        Iterator<Map.Entry<Key, Entry>> iterator = entries.entrySet().iterator();
+        while (entries.size() > maxSize && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+            evictionCount.increment();
+        }
+    }
+
+    private static final class Key {
+        private final String objectType;
+        private final String crossId;
+        private final String variant;
+
+        private Key(String objectType, String crossId, String variant) {
+            this.objectType = objectType;
+            this.crossId = crossId;
+            this.variant = variant;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key that = (Key) o;
+            return Objects.equals(objectType, that.objectType)
+                    && Objects.equals(crossId, that.crossId)
+                    && Objects.equals(variant, that.variant);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(objectType, crossId, variant);
+        }
+    }
+
+    private static final class Entry {
+        private final List<?> value;
+        private final long loadedAt;
+
+        private Entry(List<?> value, long loadedAt) {
+            this.value = value;
+            this.loadedAt = loadedAt;
+        }
+    }
+
+    /**
+     * 参数缓存统计信息
+     */
+    public static class Stats {
+        private boolean enabled;
+        private int size;
+        private int maxSize;
+        private long hitCount;
+        private long missCount;
+        private long evictionCount;
+        private long expiredCount;
+        private long invalidationCount;
+
+        public boolean isEnabled() { return enabled; }
+        public void setEnabled(boolean enabled) { this.enabled = enabled; }
+
+        public int getSize() { return size; }
+        public void setSize(int size) { this.size = size; }
+
+        public int getMaxSize() { return maxSize; }
+        public void setMaxSize(int maxSize) { this.maxSize = maxSize; }
+
+        public long getHitCount() { return hitCount; }
+        public void setHitCount(long hitCount) { this.hitCount = hitCount; }
+
+        public long getMissCount() { return missCount; }
+        public void setMissCount(long missCount) { this.missCount = missCount; }
+
+        public long getEvictionCount() { return evictionCount; }
+        public void setEvictionCount(long evictionCount) { this.evictionCount = evictionCount; }
+
+        public long getExpiredCount() { return expiredCount; }
+        public void setExpiredCount(long expiredCount) { this.expiredCount = expiredCount; }
+
+        public long getInvalidationCount() { return invalidationCount; }
+        public void setInvalidationCount(long invalidationCount) { this.invalidationCount = invalidationCount; }
+
+        public double getHitRate() {
+            long total = hitCount + missCount;
+            return total > 0 ? (double) hitCount / total : 0;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("ParamCache.Stats{enabled=%s, size=%d/%d, hits=%d, misses=%d, hitRate=%.2f, " +
+                            "evicted=%d, expired=%d, invalidations=%d}",
+                    enabled, size, maxSize, hitCount, missCount, getHitRate(),
+                    evictionCount, expiredCount, invalidationCount);
+        }
+    }
+}
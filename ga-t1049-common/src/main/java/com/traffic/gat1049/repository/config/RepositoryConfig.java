@@ -3,9 +3,11 @@ package com.traffic.gat1049.repository.config;
 import com.baomidou.mybatisplus.annotation.DbType;
 import com.baomidou.mybatisplus.extension.plugins.MybatisPlusInterceptor;
 import com.baomidou.mybatisplus.extension.plugins.inner.PaginationInnerInterceptor;
+import com.traffic.gat1049.repository.cache.ParamCache;
 import org.mybatis.spring.annotation.MapperScan;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
 
 /**
  * Repository配置类
@@ -23,4 +25,15 @@ public class RepositoryConfig {
         interceptor.addInnerInterceptor(new PaginationInnerInterceptor(DbType.MYSQL));
         return interceptor;
     }
+
+    /**
+     * 路口静态参数读穿缓存
+     */
+    @Bean
+    public ParamCache paramCache(Environment env) {
+        return new ParamCache(
+                env.getProperty("gat1049.param-cache.enabled", Boolean.class, true),
+                env.getProperty("gat1049.param-cache.max-size", Integer.class, 20000),
+                env.getProperty("gat1049.param-cache.ttl-seconds", Long.class, 600L));
+    }
 }
\ No newline at end of file
@@ -31,16 +31,21 @@ public class CrossCycleEntity {
     @Column(name = "start_time", nullable = false)
     private LocalDateTime startTime;
 
-    @TableField("cycle_len")
-    @Column(name = "cycle_len", nullable = false)
+    @TableField("last_cycle_len")
+    @Column(name = "last_cycle_len", nullable = false)
     private Integer cycleLen;
 
-    @TableField("plan_no")
-    @Column(name = "plan_no")
+    @TableField("adjust_flag")
+    @Column(name = "adjust_flag")
+    private Integer adjustFlag;
+
+    // 表中无对应列
+    @TableField(exist = false)
+    @Transient
     private Integer planNo;
 
-    @TableField("split_num")
-    @Column(name = "split_num")
+    @TableField(exist = false)
+    @Transient
     private Integer splitNum;
 
     @TableField(value = "created_time", fill = FieldFill.INSERT)
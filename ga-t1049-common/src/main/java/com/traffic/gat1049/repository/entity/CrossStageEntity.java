@@ -21,16 +21,24 @@ public class CrossStageEntity {
     @Column(name = "cross_id", length = 14, nullable = false)
     private String crossId;
 
-    @TableField("stage_no")
-    @Column(name = "stage_no", nullable = false)
+    @TableField("last_stage_no")
+    @Column(name = "last_stage_no")
+    private Integer lastStageNo;
+
+    @TableField("last_stage_len")
+    @Column(name = "last_stage_len")
+    private Integer lastStageLen;
+
+    @TableField("cur_stage_no")
+    @Column(name = "cur_stage_no", nullable = false)
     private Integer stageNo;
 
-    @TableField("start_time")
-    @Column(name = "start_time", nullable = false)
+    @TableField("cur_stage_start_time")
+    @Column(name = "cur_stage_start_time", nullable = false)
     private LocalDateTime startTime;
 
-    @TableField("stage_len")
-    @Column(name = "stage_len", nullable = false)
+    @TableField("cur_stage_len")
+    @Column(name = "cur_stage_len", nullable = false)
     private Integer stageLen;
 
     @TableField(value = "created_time", fill = FieldFill.INSERT)
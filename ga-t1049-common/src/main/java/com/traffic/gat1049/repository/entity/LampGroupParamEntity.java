@@ -90,4 +90,20 @@ public class LampGroupParamEntity {
         this.type = type;
         this.valid = valid;
     }
+
+    /**
+     * 复制实体，字段均为不可变类型，浅复制即可
+     */
+    public LampGroupParamEntity copy() {
+        LampGroupParamEntity copy = new LampGroupParamEntity();
+        copy.setId(id);
+        copy.setCrossId(crossId);
+        copy.setLampGroupNo(lampGroupNo);
+        copy.setDirection(direction);
+        copy.setType(type);
+        copy.setValid(valid);
+        copy.setCreatedTime(createdTime);
+        copy.setUpdatedTime(updatedTime);
+        return copy;
+    }
 }
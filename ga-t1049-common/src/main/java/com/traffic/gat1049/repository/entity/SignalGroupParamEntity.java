@@ -78,4 +78,21 @@ public class SignalGroupParamEntity {
         this.crossId = crossId;
         this.signalGroupNo = signalGroupNo;
     }
+
+    /**
+     * 复制实体，字段均为不可变类型，浅复制即可
+     */
+    public SignalGroupParamEntity copy() {
+        SignalGroupParamEntity copy = new SignalGroupParamEntity();
+        copy.setId(id);
+        copy.setCrossId(crossId);
+        copy.setSignalGroupNo(signalGroupNo);
+        copy.setName(name);
+        copy.setGreenFlashLen(greenFlashLen);
+        copy.setMaxGreen(maxGreen);
+        copy.setMinGreen(minGreen);
+        copy.setCreatedTime(createdTime);
+        copy.setUpdatedTime(updatedTime);
+        return copy;
+    }
 }
@@ -42,4 +42,19 @@ public class StageParamEntity {
     @TableField(value = "updated_time", fill = FieldFill.INSERT_UPDATE)
     @Column(name = "updated_time")
     private LocalDateTime updatedTime;
+
+    /**
+     * 复制实体，字段均为不可变类型，浅复制即可
+     */
+    public StageParamEntity copy() {
+        StageParamEntity copy = new StageParamEntity();
+        copy.setId(id);
+        copy.setCrossId(crossId);
+        copy.setStageNo(stageNo);
+        copy.setStageName(stageName);
+        copy.setAttribute(attribute);
+        copy.setCreatedTime(createdTime);
+        copy.setUpdatedTime(updatedTime);
+        return copy;
+    }
 }
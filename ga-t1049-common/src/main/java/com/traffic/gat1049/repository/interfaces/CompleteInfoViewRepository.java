@@ -19,6 +19,17 @@ public interface CompleteInfoViewRepository {
     @Select("SELECT * FROM v_protocol_sys_info_complete WHERE system_id = #{systemId}")
     Map<String, Object> findSystemCompleteInfo(@Param("systemId") String systemId);
 
+    /**
+     * 批量查询系统完整信息视图
+     */
+    @Select("<script>" +
+            "SELECT * FROM v_protocol_sys_info_complete WHERE system_id IN " +
+            "<foreach collection='systemIds' item='systemId' open='(' separator=',' close=')'>" +
+            "#{systemId}" +
+            "</foreach>" +
+            "</script>")
+    List<Map<String, Object>> findSystemCompleteInfoByIds(@Param("systemIds") List<String> systemIds);
+
     /**
      * 查询所有系统完整信息
      */
@@ -49,6 +60,17 @@ public interface CompleteInfoViewRepository {
     @Select("SELECT * FROM v_cross_param_complete WHERE cross_id = #{crossId}")
     Map<String, Object> findCrossCompleteInfo(@Param("crossId") String crossId);
 
+    /**
+     * 批量查询路口完整信息视图
+     */
+    @Select("<script>" +
+            "SELECT * FROM v_cross_param_complete WHERE cross_id IN " +
+            "<foreach collection='crossIds' item='crossId' open='(' separator=',' close=')'>" +
+            "#{crossId}" +
+            "</foreach>" +
+            "</script>")
+    List<Map<String, Object>> findCrossCompleteInfoByIds(@Param("crossIds") List<String> crossIds);
+
     /**
      * 查询信号机完整信息视图
      */
@@ -0,0 +1,26 @@
+package com.traffic.gat1049.repository.interfaces;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.traffic.gat1049.repository.entity.CrossCycleEntity;
+import org.apache.ibatis.annotations.*;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * 路口周期Repository
+ */
+@Repository
+public interface CrossCycleRepository extends BaseMapper<CrossCycleEntity> {
+
+    /**
+     * 批量插入周期数据
+     */
+    @Insert("<script>" +
+            "INSERT INTO cross_cycle (cross_id, start_time, last_cycle_len, adjust_flag) VALUES " +
+            "<foreach collection='cycles' item='cycle' separator=','>" +
+            "(#{cycle.crossId}, #{cycle.startTime}, #{cycle.cycleLen}, IFNULL(#{cycle.adjustFlag}, 0))" +
+            "</foreach>" +
+            "</script>")
+    int batchInsert(@Param("cycles") List<CrossCycleEntity> cycles);
+}
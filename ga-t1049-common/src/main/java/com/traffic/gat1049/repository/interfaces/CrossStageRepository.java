@@ -0,0 +1,26 @@
+package com.traffic.gat1049.repository.interfaces;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.traffic.gat1049.repository.entity.CrossStageEntity;
+import org.apache.ibatis.annotations.*;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * 路口阶段Repository
+ */
+@Repository
+public interface CrossStageRepository extends BaseMapper<CrossStageEntity> {
+
+    /**
+     * 批量插入阶段数据
+     */
+    @Insert("<script>" +
+            "INSERT INTO cross_stage (cross_id, last_stage_no, last_stage_len, cur_stage_no, cur_stage_start_time, cur_stage_len) VALUES " +
+            "<foreach collection='stages' item='stage' separator=','>" +
+            "(#{stage.crossId}, #{stage.lastStageNo}, #{stage.lastStageLen}, #{stage.stageNo}, #{stage.startTime}, #{stage.stageLen})" +
+            "</foreach>" +
+            "</script>")
+    int batchInsert(@Param("stages") List<CrossStageEntity> stages);
+}
@@ -53,9 +53,12 @@ public interface CrossTrafficDataRepository extends BaseMapper<CrossTrafficDataE
      * 批量插入交通数据
      */
     @Insert("<script>" +
-            "INSERT INTO cross_traffic_data (cross_id, lane_no, end_time, volume, occupancy, speed, headway, gap, queue_len) VALUES " +
+            "INSERT INTO cross_traffic_data (cross_id, end_time, interval_seconds, lane_no, volume, avg_veh_len, pcu, " +
+            "head_distance, head_time, speed, saturation, density, queue_length, max_queue_length, occupancy) VALUES " +
             "<foreach collection='dataList' item='data' separator=','>" +
-            "(#{data.crossId}, #{data.laneNo}, #{data.endTime}, #{data.volume}, #{data.occupancy}, #{data.speed}, #{data.headway}, #{data.gap}, #{data.queueLen})" +
+            "(#{data.crossId}, #{data.endTime}, #{data.intervalSeconds}, #{data.laneNo}, #{data.volume}, #{data.avgVehLen}, #{data.pcu}, " +
+            "#{data.headDistance}, #{data.headTime}, #{data.speed}, #{data.saturation}, #{data.density}, " +
+            "#{data.queueLength}, #{data.maxQueueLength}, #{data.occupancy})" +
             "</foreach>" +
             "</script>")
     int batchInsert(@Param("dataList") List<CrossTrafficDataEntity> dataList);
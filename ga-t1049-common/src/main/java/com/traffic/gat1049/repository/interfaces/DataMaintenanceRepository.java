@@ -4,11 +4,14 @@ import org.apache.ibatis.annotations.*;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 
 /**
  * 数据维护Repository
  * 用于数据清理、分区管理等维护操作
+ * 整表一次性删除的 cleanXxxBefore 方法在大表上会长时间锁表，已由 HistoryRetentionManager 的分区删除和分批删除替代
  */
 @Repository
 public interface DataMaintenanceRepository {
@@ -28,18 +31,21 @@ public interface DataMaintenanceRepository {
     /**
      * 清理指定日期之前的交通数据
      */
+    @Deprecated
     @Delete("DELETE FROM cross_traffic_data WHERE end_time < #{cutoffDate}")
     int cleanTrafficDataBefore(@Param("cutoffDate") LocalDate cutoffDate);
 
     /**
      * 清理指定日期之前的信号状态数据
      */
+    @Deprecated
     @Delete("DELETE FROM cross_signal_group_status WHERE lamp_status_time < #{cutoffDate}")
     int cleanSignalStatusBefore(@Param("cutoffDate") LocalDate cutoffDate);
 
     /**
      * 清理指定日期之前的命令日志
      */
+    @Deprecated
     @Delete("DELETE FROM control_command_log WHERE created_time < #{cutoffDate}")
     int cleanCommandLogBefore(@Param("cutoffDate") LocalDate cutoffDate);
 
@@ -52,6 +58,7 @@ public interface DataMaintenanceRepository {
     /**
      * 清理指定日期之前的路口状态（保留最新状态）
      */
+    @Deprecated
     @Delete("DELETE FROM cross_state WHERE created_time < #{cutoffDate} " +
             "AND id NOT IN (SELECT MAX(id) FROM cross_state GROUP BY cross_id)")
     int cleanCrossStateBefore(@Param("cutoffDate") LocalDate cutoffDate);
@@ -92,6 +99,90 @@ public interface DataMaintenanceRepository {
     })
     List<Object> getPartitionStatus();
 
+    /**
+     * 查询表的分区定义，表未分区时返回空列表
+     */
+    @Select("SELECT " +
+            "  partition_name AS partitionName, " +
+            "  partition_method AS partitionMethod, " +
+            "  partition_description AS partitionDescription, " +
+            "  table_rows AS tableRows " +
+            "FROM information_schema.partitions " +
+            "WHERE table_schema = DATABASE() " +
+            "AND table_name = #{tableName} " +
+            "AND partition_name IS NOT NULL " +
+            "ORDER BY partition_ordinal_position")
+    List<Map<String, Object>> listPartitions(@Param("tableName") String tableName);
+
+    /**
+     * 追加范围分区
+     */
+    @Update("ALTER TABLE ${tableName} ADD PARTITION " +
+            "(PARTITION ${partitionName} VALUES LESS THAN (${bound}))")
+    void addPartition(@Param("tableName") String tableName,
+                      @Param("partitionName") String partitionName,
+                      @Param("bound") String bound);
+
+    /**
+     * 从 MAXVALUE 分区中拆出新分区
+     */
+    @Update("ALTER TABLE ${tableName} REORGANIZE PARTITION ${maxPartitionName} INTO (" +
+            "PARTITION ${partitionName} VALUES LESS THAN (${bound}), " +
+            "PARTITION ${maxPartitionName} VALUES LESS THAN MAXVALUE)")
+    void splitMaxPartition(@Param("tableName") String tableName,
+                           @Param("maxPartitionName") String maxPartitionName,
+                           @Param("partitionName") String partitionName,
+                           @Param("bound") String bound);
+
+    /**
+     * 删除分区
+     *
+     * @param partitionNames 逗号分隔的分区名
+     */
+    @Update("ALTER TABLE ${tableName} DROP PARTITION ${partitionNames}")
+    void dropPartitions(@Param("tableName") String tableName, @Param("partitionNames") String partitionNames);
+
+    /**
+     * 主键大于 afterId 的第一行的主键
+     */
+    @Select("SELECT MIN(id) FROM ${tableName} WHERE id > #{afterId}")
+    Long selectNextId(@Param("tableName") String tableName, @Param("afterId") long afterId);
+
+    /**
+     * 指定主键的行是否早于截止时间，是返回1，否则返回0
+     */
+    @Select("SELECT COUNT(*) FROM ${tableName} WHERE id = #{id} AND ${timeColumn} < #{cutoffTime}")
+    int countExpiredById(@Param("tableName") String tableName,
+                         @Param("timeColumn") String timeColumn,
+                         @Param("id") long id,
+                         @Param("cutoffTime") LocalDateTime cutoffTime);
+
+    /**
+     * 删除主键在 (afterId, upperId] 内且早于截止时间的行，keepIds 中的行保留
+     */
+    @Delete("<script>" +
+            "DELETE FROM ${tableName} WHERE id &gt; #{afterId} AND id &lt;= #{upperId} " +
+            "AND ${timeColumn} &lt; #{cutoffTime}" +
+            "<if test='keepIds != null and keepIds.size() > 0'>" +
+            " AND id NOT IN " +
+            "<foreach collection='keepIds' item='keepId' open='(' separator=',' close=')'>" +
+            "#{keepId}" +
+            "</foreach>" +
+            "</if>" +
+            "</script>")
+    int deleteIdRangeBefore(@Param("tableName") String tableName,
+                            @Param("timeColumn") String timeColumn,
+                            @Param("afterId") long afterId,
+                            @Param("upperId") long upperId,
+                            @Param("cutoffTime") LocalDateTime cutoffTime,
+                            @Param("keepIds") List<Long> keepIds);
+
+    /**
+     * 每个路口最新一条路口状态的主键
+     */
+    @Select("SELECT MAX(id) FROM cross_state GROUP BY cross_id")
+    List<Long> selectLatestCrossStateIds();
+
     /**
      * 重建索引
      */
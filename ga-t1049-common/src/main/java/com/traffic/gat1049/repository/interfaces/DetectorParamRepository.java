@@ -6,6 +6,7 @@ import org.apache.ibatis.annotations.*;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.Map;
 
 /**
  * 检测器参数Repository
@@ -53,6 +54,30 @@ public interface DetectorParamRepository extends BaseMapper<DetectorParamEntity>
             "WHERE dp.cross_id = #{crossId} AND dpd.pedestrian_no = #{pedestrianNo} ORDER BY dp.detector_no")
     List<DetectorParamEntity> findByPedestrian(@Param("crossId") String crossId, @Param("pedestrianNo") Integer pedestrianNo);
 
+    /**
+     * 批量查询多个路口的检测器车道关联
+     */
+    @Select("<script>" +
+            "SELECT cross_id, detector_no, lane_no FROM detector_lane WHERE cross_id IN " +
+            "<foreach collection='crossIds' item='crossId' open='(' separator=',' close=')'>" +
+            "#{crossId}" +
+            "</foreach>" +
+            " ORDER BY cross_id, detector_no, lane_no" +
+            "</script>")
+    List<Map<String, Object>> findLaneAssociationsByCrossIds(@Param("crossIds") List<String> crossIds);
+
+    /**
+     * 批量查询多个路口的检测器人行横道关联
+     */
+    @Select("<script>" +
+            "SELECT cross_id, detector_no, pedestrian_no FROM detector_pedestrian WHERE cross_id IN " +
+            "<foreach collection='crossIds' item='crossId' open='(' separator=',' close=')'>" +
+            "#{crossId}" +
+            "</foreach>" +
+            " ORDER BY cross_id, detector_no, pedestrian_no" +
+            "</script>")
+    List<Map<String, Object>> findPedestrianAssociationsByCrossIds(@Param("crossIds") List<String> crossIds);
+
     /**
      * 查询感应检测器
      */
@@ -19,6 +19,18 @@ public interface SignalGroupLampGroupRepository extends BaseMapper<SignalGroupLa
     @Select("SELECT * FROM signal_group_lamp_group WHERE cross_id = #{crossId} AND signal_group_no = #{signalGroupNo} ORDER BY lamp_group_no")
     List<SignalGroupLampGroupEntity> findByCrossIdAndSignalGroupNo(@Param("crossId") String crossId, @Param("signalGroupNo") Integer signalGroupNo);
 
+    /**
+     * 批量查询多个路口的信号组灯组关联
+     */
+    @Select("<script>" +
+            "SELECT * FROM signal_group_lamp_group WHERE cross_id IN " +
+            "<foreach collection='crossIds' item='crossId' open='(' separator=',' close=')'>" +
+            "#{crossId}" +
+            "</foreach>" +
+            " ORDER BY cross_id, signal_group_no, lamp_group_no" +
+            "</script>")
+    List<SignalGroupLampGroupEntity> findByCrossIds(@Param("crossIds") List<String> crossIds);
+
     /**
      * 根据路口ID和灯组编号查询关联的信号组
      */
@@ -26,6 +26,18 @@ public interface StageSignalGroupStatusRepository extends BaseMapper<StageSignal
     @Select("SELECT * FROM stage_signal_group_status WHERE cross_id = #{crossId} ORDER BY stage_no, signal_group_no")
     List<StageSignalGroupStatusEntity> findByCrossId(@Param("crossId") String crossId);
 
+    /**
+     * 批量查询多个路口的阶段信号组状态
+     */
+    @Select("<script>" +
+            "SELECT * FROM stage_signal_group_status WHERE cross_id IN " +
+            "<foreach collection='crossIds' item='crossId' open='(' separator=',' close=')'>" +
+            "#{crossId}" +
+            "</foreach>" +
+            " ORDER BY cross_id, stage_no, signal_group_no" +
+            "</script>")
+    List<StageSignalGroupStatusEntity> findByCrossIds(@Param("crossIds") List<String> crossIds);
+
     /**
      * 根据路口ID和信号组编号查询该信号组在各阶段的状态
      */
@@ -0,0 +1,405 @@
+package com.traffic.gat1049.repository.maintenance;
+
+import com.traffic.gat1049.repository.interfaces.DataMaintenanceRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+/**
+ * 运行数据历史保留
+ * 定时清理高频运行数据表中超过保留期的数据，按表是否分区选择方式：
+ *
+ * 1. 按范围分区的表：提前创建后续分区，整分区删除过期数据。分区名 pYYYYMM 表示按月
+ *    （分区值 YEAR*100+MONTH，与存储过程 AddMonthlyPartition 一致），pYYYYMMDD 表示按天（分区值 TO_DAYS）
+ * 2. 未分区的表：沿主键分批删除，每批只锁定一段主键范围，批间休眠；
+ *    时间大致随主键递增，遇到第一条未过期的行即停止
+ *
+ * 路口状态表每个路口保留最新一条。
+ */
+@Component
+public class HistoryRetentionManager {
+
+    private static final Logger logger = LoggerFactory.getLogger(HistoryRetentionManager.class);
+
+    private static final Pattern IDENTIFIER = Pattern.compile("[A-Za-z0-9_]+");
+    private static final Pattern MONTHLY_PARTITION = Pattern.compile("p\\d{6}");
+    private static final Pattern DAILY_PARTITION = Pattern.compile("p\\d{8}");
+    private static final DateTimeFormatter MONTH_FORMATTER = DateTimeFormatter.ofPattern("yyyyMM");
+    private static final DateTimeFormatter DAY_FORMATTER = DateTimeFormatter.BASIC_ISO_DATE;
+
+    private static final String CROSS_STATE_TABLE = "cross_state";
+
+    // 表名 -> 时间列，与存储过程 CleanHistoryData 一致；sys_state 按带索引的状态时间 time 清理
+    private static final Map<String, String> DEFAULT_TABLES = new LinkedHashMap<>();
+
+    static {
+        DEFAULT_TABLES.put("cross_traffic_data", "end_time");
+        DEFAULT_TABLES.put("stage_traffic_data", "end_time");
+        DEFAULT_TABLES.put("cross_signal_group_status", "lamp_status_time");
+        DEFAULT_TABLES.put("cross_cycle", "created_time");
+        DEFAULT_TABLES.put("cross_stage", "created_time");
+        DEFAULT_TABLES.put("cross_state", "created_time");
+        DEFAULT_TABLES.put("signal_controller_error", "created_time");
+        DEFAULT_TABLES.put("control_command_log", "created_time");
+        DEFAULT_TABLES.put("sys_state", "time");
+    }
+
+    @Value("${gat1049.retention.enabled:false}")
+    private boolean enabled;
+
+    @Value("${gat1049.retention.days:90}")
+    private int retentionDays;
+
+    @Value("${gat1049.retention.interval-minutes:60}")
+    private long intervalMinutes;
+
+    @Value("${gat1049.retention.precreate-partitions:3}")
+    private int precreatePartitions;
+
+    @Value("${gat1049.retention.batch-size:5000}")
+    private int batchSize;
+
+    @Value("${gat1049.retention.batch-sleep-ms:200}")
+    private long batchSleepMillis;
+
+    @Value("${gat1049.retention.max-batches-per-run:2000}")
+    private int maxBatchesPerRun;
+
+    @Autowired
+    private DataMaintenanceRepository dataMaintenanceRepository;
+
+    @Autowired
+    private Environment environment;
+
+    private ScheduledExecutorService scheduler;
+    private volatile boolean stopping;
+
+    // 统计数据
+    private final LongAdder runCount = new LongAdder();
+    private final LongAdder createdPartitions = new LongAdder();
+    private final LongAdder droppedPartitions = new LongAdder();
+    private final LongAdder deletedRows = new LongAdder();
+    private final LongAdder deleteBatches = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private volatile String lastRunTime;
+
+    @PostConstruct
+    public void initialize() {
+        if (!enabled) {
+            logger.info("历史数据保留任务未启用");
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "history-retention");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::runQuietly, 5, intervalMinutes * 60, TimeUnit.SECONDS);
+        logger.info("历史数据保留任务已启动: retentionDays={}, intervalMinutes={}, batchSize={}",
+                retentionDays, intervalMinutes, batchSize);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        stopping = true;
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 对所有表执行一次保留处理
+     *
+     * @return 表名 -> 处理结果描述
+     */
+    public synchronized Map<String, String> runOnce() {
+        runCount.increment();
+        Map<String, String> results = new LinkedHashMap<>();
+        for (Map.Entry<String, String> entry : DEFAULT_TABLES.entrySet()) {
+            if (stopping) {
+                break;
+            }
+            String table = entry.getKey();
+            String timeColumn = environment.getProperty("gat1049.retention.tables." + table + ".time-column",
+                    entry.getValue());
+            int days = environment.getProperty("gat1049.retention.tables." + table + ".days",
+                    Integer.class, retentionDays);
+            if (days <= 0) {
+                results.put(table, "skipped");
+                continue;
+            }
+            try {
+                results.put(table, retain(table, timeColumn, LocalDate.now().minusDays(days)));
+            } catch (Exception e) {
+                failures.increment();
+                results.put(table, "failed: " + e.getMessage());
+                logger.error("历史数据保留处理失败: table={}", table, e);
+            }
+        }
+        lastRunTime = LocalDateTime.now().toString();
+        logger.info("历史数据保留处理完成: {}", results);
+        return results;
+    }
+
+    /**
+     * 获取统计信息快照
+     */
+    public Stats getStats() {
+        Stats stats = new Stats();
+        stats.setEnabled(enabled);
+        stats.setRunCount(runCount.sum());
+        stats.setCreatedPartitions(createdPartitions.sum());
+        stats.setDroppedPartitions(droppedPartitions.sum());
+        stats.setDeletedRows(deletedRows.sum());
+        stats.setDeleteBatches(deleteBatches.sum());
+        stats.setFailures(failures.sum());
+        stats.setLastRunTime(lastRunTime);
+        return stats;
+    }
+
+    private void runQuietly() {
+        try {
+            runOnce();
+        } catch (Exception e) {
+            logger.error("历史数据保留任务异常", e);
+        }
+    }
+
+    private String retain(String table, String timeColumn, LocalDate cutoffDate) throws InterruptedException {
+        if (!IDENTIFIER.matcher(table).matches() || !IDENTIFIER.matcher(timeColumn).matches()) {
+            throw new IllegalArgumentException("Invalid table or column name: " + table + "." + timeColumn);
+        }
+
+        List<Map<String, Object>> partitions = dataMaintenanceRepository.listPartitions(table);
+        if (!partitions.isEmpty()) {
+            String scheme = partitionScheme(partitions);
+            if (scheme != null) {
+                int created = createPartitions(table, partitions, scheme);
+                int dropped = dropExpiredPartitions(table, partitions, scheme, cutoffDate);
+                return "partitions created=" + created + ", dropped=" + dropped;
+            }
+            logger.warn("表{}的分区命名无法识别，改为分批删除", table);
+        }
+
+        long deleted = deleteInBatches(table, timeColumn, cutoffDate.atStartOfDay());
+        return "rows deleted=" + deleted;
+    }
+
+    /**
+     * 按分区名判断分区粒度，无法识别时返回null
+     */
+    private String partitionScheme(List<Map<String, Object>> partitions) {
+        String scheme = null;
+        for (Map<String, Object> partition : partitions) {
+            String name = partitionName(partition);
+            if (isMaxValue(partition)) {
+                continue;
+            }
+            String current = MONTHLY_PARTITION.matcher(name).matches() ? "MONTH"
+                    : DAILY_PARTITION.matcher(name).matches() ? "DAY" : null;
+            if (current == null || (scheme != null && !scheme.equals(current))) {
+                return null;
+            }
+            scheme = current;
+        }
+        return scheme;
+    }
+
+    /**
+     * 提前创建当前及后续 precreatePartitions 个周期的分区
+     */
+    private int createPartitions(String table, List<Map<String, Object>> partitions, String scheme) {
+        String maxPartition = null;
+        List<String> existing = new ArrayList<>();
+        for (Map<String, Object> partition : partitions) {
+            if (isMaxValue(partition)) {
+                maxPartition = partitionName(partition);
+            } else {
+                existing.add(partitionName(partition));
+            }
+        }
+        String lastExisting = existing.isEmpty() ? null : Collections.max(existing);
+
+        int created = 0;
+        LocalDate today = LocalDate.now();
+        for (int i = 0; i <= precreatePartitions; i++) {
+            String name;
+            String bound;
+            if ("MONTH".equals(scheme)) {
+                YearMonth month = YearMonth.from(today).plusMonths(i);
+                name = "p" + month.format(MONTH_FORMATTER);
+                bound = String.valueOf(month.getYear() * 100 + month.getMonthValue() + 1);
+            } else {
+                LocalDate day = today.plusDays(i);
+                name = "p" + day.format(DAY_FORMATTER);
+                bound = "TO_DAYS('" + day.plusDays(1) + "')";
+            }
+            // 范围分区只能在末尾追加
+            if (lastExisting != null && name.compareTo(lastExisting) <= 0) {
+                continue;
+            }
+
+            if (maxPartition != null) {
+                dataMaintenanceRepository.splitMaxPartition(table, maxPartition, name, bound);
+            } else if ("MONTH".equals(scheme) && "cross_traffic_data".equals(table)) {
+                YearMonth month = YearMonth.from(today).plusMonths(i);
+                dataMaintenanceRepository.addMonthlyPartition(month.getYear(), month.getMonthValue());
+            } else {
+                dataMaintenanceRepository.addPartition(table, name, bound);
+            }
+            lastExisting = name;
+            created++;
+            createdPartitions.increment();
+            logger.info("已创建分区: table={}, partition={}", table, name);
+        }
+        return created;
+    }
+
+    /**
+     * 删除整个周期都早于截止日期的分区
+     */
+    private int dropExpiredPartitions(String table, List<Map<String, Object>> partitions, String scheme,
+                                      LocalDate cutoffDate) {
+        List<String> expired = new ArrayList<>();
+        for (Map<String, Object> partition : partitions) {
+            if (isMaxValue(partition)) {
+                continue;
+            }
+            String name = partitionName(partition);
+            LocalDate periodEnd;
+            try {
+                periodEnd = "MONTH".equals(scheme)
+                        ? YearMonth.parse(name.substring(1), MONTH_FORMATTER).plusMonths(1).atDay(1)
+                        : LocalDate.parse(name.substring(1), DAY_FORMATTER).plusDays(1);
+            } catch (DateTimeParseException e) {
+                continue;
+            }
+            if (!periodEnd.isAfter(cutoffDate)) {
+                expired.add(name);
+            }
+        }
+        // 至少保留一个分区，范围分区表不能删除全部分区
+        if (expired.size() == partitions.size()) {
+            expired.remove(expired.size() - 1);
+        }
+        if (expired.isEmpty()) {
+            return 0;
+        }
+
+        dataMaintenanceRepository.dropPartitions(table, String.join(",", expired));
+        droppedPartitions.add(expired.size());
+        logger.info("已删除过期分区: table={}, partitions={}", table, expired);
+        return expired.size();
+    }
+
+    /**
+     * 沿主键分批删除早于截止时间的行
+     */
+    private long deleteInBatches(String table, String timeColumn, LocalDateTime cutoffTime)
+            throws InterruptedException {
+        List<Long> keepIds = CROSS_STATE_TABLE.equals(table)
+                ? dataMaintenanceRepository.selectLatestCrossStateIds() : null;
+
+        long total = 0;
+        long afterId = 0;
+        for (int batch = 0; batch < maxBatchesPerRun && !stopping; batch++) {
+            Long nextId = dataMaintenanceRepository.selectNextId(table, afterId);
+            if (nextId == null || dataMaintenanceRepository.countExpiredById(table, timeColumn, nextId, cutoffTime) == 0) {
+                break;
+            }
+
+            long upperId = nextId - 1 + batchSize;
+            int deleted = dataMaintenanceRepository.deleteIdRangeBefore(table, timeColumn,
+                    nextId - 1, upperId, cutoffTime, keepIds);
+            total += deleted;
+            deletedRows.add(deleted);
+            deleteBatches.increment();
+            afterId = upperId;
+
+            if (batchSleepMillis > 0) {
+                Thread.sleep(batchSleepMillis);
+            }
+        }
+        if (total > 0) {
+            logger.info("分批删除过期数据: table={}, cutoff={}, rows={}", table, cutoffTime, total);
+        }
+        return total;
+    }
+
+    private static String partitionName(Map<String, Object> partition) {
+        return String.valueOf(partition.get("partitionName"));
+    }
+
+    private static boolean isMaxValue(Map<String, Object> partition) {
+        return "MAXVALUE".equalsIgnoreCase(String.valueOf(partition.get("partitionDescription")));
+    }
+
+    /**
+     * 历史数据保留统计信息
+     */
+    public static class Stats {
+        private boolean enabled;
+        private long runCount;
+        private long createdPartitions;
+        private long droppedPartitions;
+        private long deletedRows;
+        private long deleteBatches;
+        private long failures;
+        private String lastRunTime;
+
+        public boolean isEnabled() { return enabled; }
+        public void setEnabled(boolean enabled) { this.enabled = enabled; }
+
+        public long getRunCount() { return runCount; }
+        public void setRunCount(long runCount) { this.runCount = runCount; }
+
+        public long getCreatedPartitions() { return createdPartitions; }
+        public void setCreatedPartitions(long createdPartitions) { this.createdPartitions = createdPartitions; }
+
+        public long getDroppedPartitions() { return droppedPartitions; }
+        public void setDroppedPartitions(long droppedPartitions) { this.droppedPartitions = droppedPartitions; }
+
+        public long getDeletedRows() { return deletedRows; }
+        public void setDeletedRows(long deletedRows) { this.deletedRows = deletedRows; }
+
+        public long getDeleteBatches() { return deleteBatches; }
+        public void setDeleteBatches(long deleteBatches) { this.deleteBatches = deleteBatches; }
+
+        public long getFailures() { return failures; }
+        public void setFailures(long failures) { this.failures = failures; }
+
+        public String getLastRunTime() { return lastRunTime; }
+        public void setLastRunTime(String lastRunTime) { this.lastRunTime = lastRunTime; }
+
+        @Override
+        public String toString() {
+            return String.format("HistoryRetentionManager.Stats{enabled=%s, runs=%d, createdPartitions=%d, droppedPartitions=%d, deletedRows=%d, batches=%d, failures=%d}",
+                    enabled, runCount, createdPartitions, droppedPartitions, deletedRows, deleteBatches, failures);
+        }
+    }
+}
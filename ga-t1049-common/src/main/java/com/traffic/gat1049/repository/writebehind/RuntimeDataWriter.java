@@ -0,0 +1,307 @@
+package com.traffic.gat1049.repository.writebehind;
+
+import com.traffic.gat1049.data.converter.impl.CrossCycleConverter;
+import com.traffic.gat1049.data.converter.impl.CrossSignalGroupStatusConverter;
+import com.traffic.gat1049.data.converter.impl.CrossStageConverter;
+import com.traffic.gat1049.data.converter.impl.CrossTrafficDataConverter;
+import com.traffic.gat1049.protocol.model.runtime.CrossCycle;
+import com.traffic.gat1049.protocol.model.runtime.CrossSignalGroupStatus;
+import com.traffic.gat1049.protocol.model.runtime.CrossStage;
+import com.traffic.gat1049.protocol.model.runtime.PackedCrossSignalGroupStatus;
+import com.traffic.gat1049.protocol.model.traffic.CrossTrafficData;
+import com.traffic.gat1049.repository.entity.CrossCycleEntity;
+import com.traffic.gat1049.repository.entity.CrossSignalGroupStatusEntity;
+import com.traffic.gat1049.repository.entity.CrossStageEntity;
+import com.traffic.gat1049.repository.entity.CrossTrafficDataEntity;
+import com.traffic.gat1049.repository.interfaces.CrossCycleRepository;
+import com.traffic.gat1049.repository.interfaces.CrossSignalGroupStatusRepository;
+import com.traffic.gat1049.repository.interfaces.CrossStageRepository;
+import com.traffic.gat1049.repository.interfaces.CrossTrafficDataRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * 运行数据写后持久化
+ * 高频推送的信号组灯态、交通流、周期、阶段数据经各自的写后缓冲批量入库，
+ * 推送处理线程只做转换和入队，不等待数据库。
+ * 信号组灯态以打包形式排队，一个路口一条记录，刷写时再展开为每个信号组一行。
+ */
+@Component
+public class RuntimeDataWriter {
+
+    private static final Logger logger = LoggerFactory.getLogger(RuntimeDataWriter.class);
+
+    @Value("${gat1049.write-behind.enabled:true}")
+    private boolean enabled;
+
+    @Value("${gat1049.write-behind.capacity:20000}")
+    private int capacity;
+
+    @Value("${gat1049.write-behind.batch-size:500}")
+    private int batchSize;
+
+    @Value("${gat1049.write-behind.flush-interval-ms:1000}")
+    private long flushIntervalMillis;
+
+    @Value("${gat1049.write-behind.overflow-policy:DROP}")
+    private WriteBehindBuffer.OverflowPolicy overflowPolicy;
+
+    @Value("${gat1049.write-behind.block-timeout-ms:200}")
+    private long blockTimeoutMillis;
+
+    @Value("${gat1049.write-behind.flush-threads:2}")
+    private int flushThreads;
+
+    @Value("${gat1049.write-behind.journal.enabled:true}")
+    private boolean journalEnabled;
+
+    @Value("${gat1049.write-behind.journal.dir:./data/write-behind}")
+    private String journalDir;
+
+    @Value("${gat1049.write-behind.journal.max-mb:256}")
+    private long journalMaxMb;
+
+    @Value("${gat1049.write-behind.journal.replay-interval-ms:10000}")
+    private long replayIntervalMillis;
+
+    @Autowired
+    private CrossSignalGroupStatusRepository signalGroupStatusRepository;
+
+    @Autowired
+    private CrossTrafficDataRepository trafficDataRepository;
+
+    @Autowired
+    private CrossCycleRepository crossCycleRepository;
+
+    @Autowired
+    private CrossStageRepository crossStageRepository;
+
+    @Autowired
+    private CrossSignalGroupStatusConverter signalGroupStatusConverter;
+
+    @Autowired
+    private CrossTrafficDataConverter trafficDataConverter;
+
+    @Autowired
+    private CrossCycleConverter crossCycleConverter;
+
+    @Autowired
+    private CrossStageConverter crossStageConverter;
+
+    private ScheduledExecutorService flushExecutor;
+    private final List<WriteBehindBuffer<?>> buffers = new ArrayList<>();
+
+    private WriteBehindBuffer<PackedCrossSignalGroupStatus> signalGroupStatusBuffer;
+    private WriteBehindBuffer<CrossTrafficDataEntity> trafficDataBuffer;
+    private WriteBehindBuffer<CrossCycleEntity> crossCycleBuffer;
+    private WriteBehindBuffer<CrossStageEntity> crossStageBuffer;
+
+    @PostConstruct
+    public void initialize() throws IOException {
+        if (!enabled) {
+            logger.info("运行数据写后持久化未启用");
+            return;
+        }
+
+        AtomicInteger threadIndex = new AtomicInteger();
+        flushExecutor = Executors.newScheduledThreadPool(Math.max(1, flushThreads), r -> {
+            Thread thread = new Thread(r, "write-behind-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        signalGroupStatusBuffer = createBuffer("cross_signal_group_status", PackedCrossSignalGroupStatus.class,
+                this::insertSignalGroupStatus);
+        trafficDataBuffer = createBuffer("cross_traffic_data", CrossTrafficDataEntity.class,
+                trafficDataRepository::batchInsert);
+        crossCycleBuffer = createBuffer("cross_cycle", CrossCycleEntity.class,
+                crossCycleRepository::batchInsert);
+        crossStageBuffer = createBuffer("cross_stage", CrossStageEntity.class,
+                crossStageRepository::batchInsert);
+
+        for (WriteBehindBuffer<?> buffer : buffers) {
+            flushExecutor.scheduleWithFixedDelay(() -> flushQuietly(buffer),
+                    flushIntervalMillis, flushIntervalMillis, TimeUnit.MILLISECONDS);
+            if (journalEnabled) {
+                flushExecutor.scheduleWithFixedDelay(buffer::replayJournal,
+                        replayIntervalMillis, replayIntervalMillis, TimeUnit.MILLISECONDS);
+            }
+        }
+
+        logger.info("运行数据写后持久化已启动: capacity={}, batchSize={}, flushIntervalMs={}, overflowPolicy={}, journal={}",
+                capacity, batchSize, flushIntervalMillis, overflowPolicy, journalEnabled ? journalDir : "disabled");
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (flushExecutor == null) {
+            return;
+        }
+        flushExecutor.shutdown();
+        try {
+            flushExecutor.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // 写出剩余数据，失败的部分进入落盘日志
+        for (WriteBehindBuffer<?> buffer : buffers) {
+            flushQuietly(buffer);
+        }
+        logger.info("运行数据写后持久化已停止: {}", getStats().values());
+    }
+
+    /**
+     * 写入路口信号组灯态
+     */
+    public boolean writeSignalGroupStatus(CrossSignalGroupStatus status) {
+        if (signalGroupStatusBuffer == null || status == null) {
+            return false;
+        }
+        PackedCrossSignalGroupStatus packed = PackedCrossSignalGroupStatus.pack(status);
+        if (packed == null) {
+            logger.warn("信号组灯态无法打包，未持久化: crossId={}", status.getCrossId());
+            return false;
+        }
+        return writeSignalGroupStatus(packed);
+    }
+
+    /**
+     * 写入路口信号组灯态（已打包）
+     */
+    public boolean writeSignalGroupStatus(PackedCrossSignalGroupStatus packed) {
+        if (signalGroupStatusBuffer == null || packed == null) {
+            return false;
+        }
+        return signalGroupStatusBuffer.offer(packed);
+    }
+
+    /**
+     * 写入路口交通流数据
+     */
+    public boolean writeTrafficData(CrossTrafficData trafficData) {
+        if (trafficDataBuffer == null || trafficData == null) {
+            return false;
+        }
+        return offer(trafficDataBuffer, trafficData,
+                d -> trafficDataConverter.toEntityList(List.of(d)));
+    }
+
+    /**
+     * 写入路口周期
+     */
+    public boolean writeCrossCycle(CrossCycle cycle) {
+        if (crossCycleBuffer == null || cycle == null) {
+            return false;
+        }
+        return offer(crossCycleBuffer, cycle, c -> List.of(crossCycleConverter.toEntity(c)));
+    }
+
+    /**
+     * 写入路口阶段
+     */
+    public boolean writeCrossStage(CrossStage stage) {
+        if (crossStageBuffer == null || stage == null) {
+            return false;
+        }
+        return offer(crossStageBuffer, stage, s -> List.of(crossStageConverter.toEntity(s)));
+    }
+
+    /**
+     * 立即写出所有缓冲
+     */
+    public void flushAll() {
+        for (WriteBehindBuffer<?> buffer : buffers) {
+            flushQuietly(buffer);
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 获取各缓冲统计信息
+     */
+    public Map<String, WriteBehindBuffer.Stats> getStats() {
+        Map<String, WriteBehindBuffer.Stats> stats = new LinkedHashMap<>();
+        for (WriteBehindBuffer<?> buffer : buffers) {
+            stats.put(buffer.getName(), buffer.getStats());
+        }
+        return stats;
+    }
+
+    private <P, E> boolean offer(WriteBehindBuffer<E> buffer, P protocol,
+                                 Function<P, List<E>> converter) {
+        List<E> entities;
+        try {
+            entities = converter.apply(protocol);
+        } catch (Exception e) {
+            logger.warn("运行数据转换失败，未持久化: buffer={}, error={}", buffer.getName(), e.getMessage());
+            return false;
+        }
+        return buffer.offerAll(entities) == entities.size();
+    }
+
+    /**
+     * 展开打包的灯态后一次插入
+     * 整批在一条语句中写入，失败时整批落盘，重放不会产生重复行
+     */
+    private void insertSignalGroupStatus(List<PackedCrossSignalGroupStatus> batch) {
+        List<CrossSignalGroupStatusEntity> rows = new ArrayList<>();
+        for (PackedCrossSignalGroupStatus packed : batch) {
+            rows.addAll(signalGroupStatusConverter.toEntityList(packed));
+        }
+        if (!rows.isEmpty()) {
+            signalGroupStatusRepository.batchInsert(rows);
+        }
+    }
+
+    private <E> WriteBehindBuffer<E> createBuffer(String name, Class<E> type, Consumer<List<E>> batchWriter)
+            throws IOException {
+        SpillJournal<E> journal = null;
+        if (journalEnabled) {
+            Path dir = Paths.get(journalDir);
+            journal = new SpillJournal<>(dir, name, type, journalMaxMb * 1024 * 1024);
+        }
+
+        WriteBehindBuffer<E> buffer = new WriteBehindBuffer<>(name, capacity, batchSize, overflowPolicy,
+                blockTimeoutMillis, batchWriter, journal, this::scheduleFlush);
+        buffers.add(buffer);
+        return buffer;
+    }
+
+    private void scheduleFlush(WriteBehindBuffer<?> buffer) {
+        try {
+            flushExecutor.execute(() -> flushQuietly(buffer));
+        } catch (Exception e) {
+            // 已关闭，由关闭流程写出
+        }
+    }
+
+    private void flushQuietly(WriteBehindBuffer<?> buffer) {
+        try {
+            buffer.flush();
+        } catch (Exception e) {
+            logger.error("写后缓冲刷写异常: buffer={}", buffer.getName(), e);
+        }
+    }
+}
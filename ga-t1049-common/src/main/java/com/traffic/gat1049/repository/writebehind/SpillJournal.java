@@ -0,0 +1,206 @@
+package com.traffic.gat1049.repository.writebehind;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * 写库失败时的落盘日志
+ * 每行一条实体JSON，数据库恢复后按批重放：
+ *
+ * 1. 写入追加到 name.journal
+ * 2. 重放时先将 name.journal 改名为 name.replaying；所属缓冲的刷写与重放持有同一把 flushLock，
+ *    重放期间不会有新的追加，重放结束后的落盘写入新的 name.journal
+ * 3. 重放中途遇到暂时性失败时，未写入的行保留在 name.replaying，下次从这里继续
+ * 4. 无法写库的数据错误记录隔离到 name.quarantine，不再重放，供人工排查
+ *
+ * 日志超过上限时不再落盘，超出部分计为丢弃。
+ */
+public class SpillJournal<E> {
+
+    private static final Logger logger = LoggerFactory.getLogger(SpillJournal.class);
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+
+    private final Class<E> type;
+    private final Path journalFile;
+    private final Path replayFile;
+    private final Path quarantineFile;
+    private final long maxBytes;
+
+    public SpillJournal(Path directory, String name, Class<E> type, long maxBytes) throws IOException {
+        Files.createDirectories(directory);
+        this.type = type;
+        this.journalFile = directory.resolve(name + ".journal");
+        this.replayFile = directory.resolve(name + ".replaying");
+        this.quarantineFile = directory.resolve(name + ".quarantine");
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * 追加一批记录
+     *
+     * @return 实际落盘的条数，日志已满或写入失败时返回0
+     */
+    public synchronized int append(List<E> items) {
+        if (items.isEmpty()) {
+            return 0;
+        }
+        if (maxBytes > 0 && sizeOf(journalFile) + sizeOf(replayFile) >= maxBytes) {
+            logger.warn("落盘日志已满，丢弃{}条记录: {}", items.size(), journalFile);
+            return 0;
+        }
+        return write(journalFile, items);
+    }
+
+    /**
+     * 隔离无法写库的记录，隔离文件不参与重放
+     *
+     * @return 实际落盘的条数，隔离文件已满或写入失败时返回0
+     */
+    public synchronized int quarantine(List<E> items) {
+        if (items.isEmpty()) {
+            return 0;
+        }
+        if (maxBytes > 0 && sizeOf(quarantineFile) >= maxBytes) {
+            logger.warn("隔离文件已满，丢弃{}条记录: {}", items.size(), quarantineFile);
+            return 0;
+        }
+        return write(quarantineFile, items);
+    }
+
+    private int write(Path file, List<E> items) {
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            for (E item : items) {
+                writer.write(OBJECT_MAPPER.writeValueAsString(item));
+                writer.newLine();
+            }
+            return items.size();
+        } catch (IOException e) {
+            logger.error("写入落盘日志失败: {}", file, e);
+            return 0;
+        }
+    }
+
+    /**
+     * 是否有待重放的记录
+     */
+    public synchronized boolean hasPending() {
+        return sizeOf(journalFile) > 0 || sizeOf(replayFile) > 0;
+    }
+
+    /**
+     * 待重放日志的字节数
+     */
+    public synchronized long getPendingBytes() {
+        return sizeOf(journalFile) + sizeOf(replayFile);
+    }
+
+    /**
+     * 按批重放日志
+     * writer 返回本批未写入的记录，非空时停止重放，这些记录与剩余记录留待下次；
+     * writer 自行隔离的记录视为已处理，不再重放
+     *
+     * @return 从日志中移除的条数
+     */
+    public synchronized int replay(int batchSize, Function<List<E>, List<E>> writer) throws IOException {
+        if (sizeOf(replayFile) == 0) {
+            if (sizeOf(journalFile) == 0) {
+                return 0;
+            }
+            Files.move(journalFile, replayFile, StandardCopyOption.REPLACE_EXISTING);
+        }
+
+        int replayed = 0;
+        boolean failed = false;
+        Path temp = replayFile.resolveSibling(replayFile.getFileName() + ".tmp");
+        try (BufferedReader reader = Files.newBufferedReader(replayFile, StandardCharsets.UTF_8)) {
+            List<String> lines = new ArrayList<>(batchSize);
+            String line;
+            while ((line = reader.readLine()) != null || !lines.isEmpty()) {
+                if (line != null) {
+                    if (!line.isBlank()) {
+                        lines.add(line);
+                    }
+                    if (lines.size() < batchSize) {
+                        continue;
+                    }
+                }
+
+                List<E> items = parse(lines);
+                List<E> unwritten = items.isEmpty() ? items : writer.apply(items);
+                replayed += items.size() - unwritten.size();
+                lines.clear();
+                if (!unwritten.isEmpty()) {
+                    logger.warn("重放落盘日志失败，剩余记录稍后重试: {}, pending={}", replayFile, unwritten.size());
+                    failed = true;
+                    // 未写入的记录和其余行转存到临时文件，替换重放文件
+                    try (BufferedWriter out = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+                        for (E pending : unwritten) {
+                            out.write(OBJECT_MAPPER.writeValueAsString(pending));
+                            out.newLine();
+                        }
+                        while ((line = reader.readLine()) != null) {
+                            out.write(line);
+                            out.newLine();
+                        }
+                    }
+                    break;
+                }
+                if (line == null) {
+                    break;
+                }
+            }
+        }
+
+        if (failed) {
+            Files.move(temp, replayFile, StandardCopyOption.REPLACE_EXISTING);
+        } else {
+            Files.deleteIfExists(replayFile);
+        }
+
+        if (replayed > 0) {
+            logger.info("重放落盘日志: file={}, count={}", replayFile.getFileName(), replayed);
+        }
+        return replayed;
+    }
+
+    private List<E> parse(List<String> lines) {
+        List<E> items = new ArrayList<>(lines.size());
+        for (String line : lines) {
+            try {
+                items.add(OBJECT_MAPPER.readValue(line, type));
+            } catch (IOException e) {
+                logger.warn("跳过无法解析的落盘记录: {}", line, e);
+            }
+        }
+        return items;
+    }
+
+    private static long sizeOf(Path file) {
+        try {
+            return Files.exists(file) ? Files.size(file) : 0;
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+}
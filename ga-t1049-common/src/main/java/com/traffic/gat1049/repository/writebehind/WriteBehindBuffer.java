@@ -0,0 +1,469 @@
+package com.traffic.gat1049.repository.writebehind;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.sql.SQLNonTransientConnectionException;
+import java.sql.SQLRecoverableException;
+import java.sql.SQLTransientException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * 单表写后缓冲
+ * 推送线程只把实体放入有界环形队列，由刷写线程按批调用多行插入：
+ *
+ * 1. 队列达到批大小时触发刷写，其余数据由定时刷写兜底
+ * 2. 队列满时按溢出策略丢弃新数据，或阻塞调用方直到超时
+ * 3. 连接中断、超时、死锁等暂时性失败的批次写入落盘日志，数据库恢复后重放
+ * 4. 约束冲突、数据格式等数据错误不重试，批次对半拆分定位出错行，出错行隔离，其余行正常写入
+ * 5. 语法错误、表或字段不存在（SQLState 42 类）是表结构问题，每一行都会失败，不拆分，整批落盘并告警，
+ *    表结构修复后随落盘日志重放
+ *
+ * 同一缓冲的刷写与重放互斥执行。
+ */
+public class WriteBehindBuffer<E> {
+
+    private static final Logger logger = LoggerFactory.getLogger(WriteBehindBuffer.class);
+
+    /**
+     * 队列满时的处理方式
+     */
+    public enum OverflowPolicy {
+        /** 丢弃新数据，推送线程不受数据库影响 */
+        DROP,
+        /** 阻塞推送线程直到队列有空位或超时，超时后丢弃 */
+        BLOCK
+    }
+
+    private final String name;
+    private final ArrayBlockingQueue<E> queue;
+    private final int batchSize;
+    private final OverflowPolicy overflowPolicy;
+    private final long blockTimeoutMillis;
+    private final Consumer<List<E>> batchWriter;
+    private final SpillJournal<E> journal;
+    private final Consumer<WriteBehindBuffer<E>> flushTrigger;
+
+    private final ReentrantLock flushLock = new ReentrantLock();
+    // 已请求异步刷写但尚未开始，避免重复提交刷写任务
+    private final AtomicBoolean flushRequested = new AtomicBoolean();
+
+    // 统计数据
+    private final LongAdder enqueuedCount = new LongAdder();
+    private final LongAdder droppedCount = new LongAdder();
+    private final LongAdder blockedCount = new LongAdder();
+    private final LongAdder flushCount = new LongAdder();
+    private final LongAdder flushedRows = new LongAdder();
+    private final LongAdder failedFlushCount = new LongAdder();
+    private final LongAdder spilledRows = new LongAdder();
+    private final LongAdder replayedRows = new LongAdder();
+    private final LongAdder quarantinedRows = new LongAdder();
+    private final LongAdder schemaErrorCount = new LongAdder();
+    private final LongAdder flushNanos = new LongAdder();
+    private final AtomicLong maxFlushNanos = new AtomicLong();
+    private final AtomicLong maxBatchSize = new AtomicLong();
+    private volatile long lastFlushNanos;
+
+    /**
+     * @param name               缓冲名称，一般为表名
+     * @param capacity           队列容量
+     * @param batchSize          单次多行插入的最大行数
+     * @param overflowPolicy     队列满时的处理方式
+     * @param blockTimeoutMillis BLOCK 策略的最长等待时间
+     * @param batchWriter        多行插入，失败时抛出异常
+     * @param journal            落盘日志，null表示写库失败直接丢弃
+     * @param flushTrigger       队列达到批大小时调用，由所有者安排异步调用 flush()
+     */
+    public WriteBehindBuffer(String name, int capacity, int batchSize, OverflowPolicy overflowPolicy,
+                             long blockTimeoutMillis, Consumer<List<E>> batchWriter,
+                             SpillJournal<E> journal, Consumer<WriteBehindBuffer<E>> flushTrigger) {
+        if (capacity <= 0 || batchSize <= 0) {
+            throw new IllegalArgumentException("capacity and batchSize must be positive");
+        }
+        this.name = name;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.batchSize = batchSize;
+        this.overflowPolicy = overflowPolicy;
+        this.blockTimeoutMillis = blockTimeoutMillis;
+        this.batchWriter = batchWriter;
+        this.journal = journal;
+        this.flushTrigger = flushTrigger;
+    }
+
+    /**
+     * 加入一条待写记录
+     *
+     * @return 是否入队，队列满被丢弃时为false
+     */
+    public boolean offer(E item) {
+        boolean accepted = queue.offer(item);
+        if (!accepted && overflowPolicy == OverflowPolicy.BLOCK) {
+            blockedCount.increment();
+            requestFlush();
+            try {
+                accepted = queue.offer(item, blockTimeoutMillis, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        if (!accepted) {
+            droppedCount.increment();
+            logger.debug("写后缓冲已满，丢弃记录: buffer={}", name);
+            return false;
+        }
+
+        enqueuedCount.increment();
+        if (queue.size() >= batchSize) {
+            requestFlush();
+        }
+        return true;
+    }
+
+    private void requestFlush() {
+        if (flushRequested.compareAndSet(false, true)) {
+            flushTrigger.accept(this);
+        }
+    }
+
+    /**
+     * 加入多条待写记录
+     *
+     * @return 入队条数
+     */
+    public int offerAll(List<E> items) {
+        int accepted = 0;
+        for (E item : items) {
+            if (offer(item)) {
+                accepted++;
+            }
+        }
+        return accepted;
+    }
+
+    /**
+     * 按批写出队列中的全部记录
+     *
+     * @return 成功写库的条数
+     */
+    public int flush() {
+        flushLock.lock();
+        try {
+            flushRequested.set(false);
+            int written = 0;
+            List<E> batch = new ArrayList<>(batchSize);
+            while (queue.drainTo(batch, batchSize) > 0) {
+                written += writeBatch(batch);
+                batch.clear();
+            }
+            return written;
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * 重放落盘日志，数据库仍不可用时保留剩余记录
+     *
+     * @return 重放成功的条数
+     */
+    public int replayJournal() {
+        if (journal == null || !journal.hasPending()) {
+            return 0;
+        }
+        flushLock.lock();
+        try {
+            int replayed = journal.replay(batchSize, batch -> writeIsolating(batch).unwritten);
+            replayedRows.add(replayed);
+            return replayed;
+        } catch (Exception e) {
+            logger.warn("重放落盘日志异常: buffer={}", name, e);
+            return 0;
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private int writeBatch(List<E> batch) {
+        long start = System.nanoTime();
+        WriteOutcome<E> outcome = writeIsolating(batch);
+        if (!outcome.unwritten.isEmpty()) {
+            failedFlushCount.increment();
+            int spilled = journal != null ? journal.append(outcome.unwritten) : 0;
+            spilledRows.add(spilled);
+            droppedCount.add(outcome.unwritten.size() - spilled);
+            logger.warn("写后缓冲写库失败: buffer={}, rows={}, spilled={}, error={}",
+                    name, outcome.unwritten.size(), spilled, outcome.error.getMessage());
+        }
+        if (outcome.written == 0) {
+            return 0;
+        }
+
+        long elapsed = System.nanoTime() - start;
+        lastFlushNanos = elapsed;
+        flushNanos.add(elapsed);
+        maxFlushNanos.accumulateAndGet(elapsed, Math::max);
+        maxBatchSize.accumulateAndGet(outcome.written, Math::max);
+        flushCount.increment();
+        flushedRows.add(outcome.written);
+        return outcome.written;
+    }
+
+    /**
+     * 写入一批记录，数据错误时对半拆分重试，直到定位出无法写入的单行并隔离
+     * 遇到暂时性失败立即停止，尚未写入的记录通过 unwritten 返回，由调用方落盘或留待重放
+     */
+    private WriteOutcome<E> writeIsolating(List<E> batch) {
+        WriteOutcome<E> outcome = new WriteOutcome<>();
+        writeIsolating(batch, outcome);
+        if (outcome.error != null && isSchemaFailure(outcome.error)) {
+            schemaErrorCount.increment();
+            logger.error("【告警】写后缓冲表结构错误，整批落盘待表结构修复后重放: buffer={}, rows={}, error={}",
+                    name, outcome.unwritten.size(), outcome.error.getMessage());
+        }
+        return outcome;
+    }
+
+    private void writeIsolating(List<E> batch, WriteOutcome<E> outcome) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        if (outcome.error != null) {
+            outcome.unwritten.addAll(batch);
+            return;
+        }
+
+        try {
+            batchWriter.accept(batch);
+            outcome.written += batch.size();
+            return;
+        } catch (Exception e) {
+            if (isTransientFailure(e) || isSchemaFailure(e)) {
+                outcome.error = e;
+                outcome.unwritten.addAll(batch);
+                return;
+            }
+            if (batch.size() == 1) {
+                quarantine(batch, e);
+                return;
+            }
+        }
+
+        int half = batch.size() / 2;
+        writeIsolating(new ArrayList<>(batch.subList(0, half)), outcome);
+        writeIsolating(new ArrayList<>(batch.subList(half, batch.size())), outcome);
+    }
+
+    private void quarantine(List<E> rows, Exception e) {
+        quarantinedRows.add(rows.size());
+        int kept = journal != null ? journal.quarantine(rows) : 0;
+        droppedCount.add(rows.size() - kept);
+        logger.error("写后缓冲记录无法写库，已隔离: buffer={}, rows={}, error={}", name, rows.size(), e.getMessage());
+    }
+
+    /**
+     * 是否为暂时性失败：连接中断、超时、死锁及无法识别的数据库错误按暂时性处理，稍后重试；
+     * 约束冲突、数据格式、语法或字段错误，以及不含数据库异常的映射错误不是暂时性失败，其中语法或字段错误另见 isSchemaFailure
+     */
+    static boolean isTransientFailure(Throwable error) {
+        boolean io = false;
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLException) {
+                return isTransientSqlFailure((SQLException) cause);
+            }
+            if (cause instanceof IOException) {
+                io = true;
+            }
+            if (cause.getCause() == cause) {
+                break;
+            }
+        }
+        return io;
+    }
+
+    /**
+     * 是否为表结构错误：语法错误、表或字段不存在（SQLState 42 类），同一语句对每一行都会失败
+     */
+    static boolean isSchemaFailure(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLException) {
+                String state = ((SQLException) cause).getSQLState();
+                return state != null && state.startsWith("42");
+            }
+            if (cause.getCause() == cause) {
+                break;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isTransientSqlFailure(SQLException e) {
+        if (e instanceof SQLTransientException || e instanceof SQLRecoverableException
+                || e instanceof SQLNonTransientConnectionException) {
+            return true;
+        }
+        String state = e.getSQLState();
+        if (state == null || state.length() < 2) {
+            return true;
+        }
+        switch (state.substring(0, 2)) {
+            case "22": // 数据异常
+            case "23": // 约束冲突
+            case "42": // 语法错误或字段不存在
+            case "21": // 列数不符
+                return false;
+            default:
+                return true;
+        }
+    }
+
+    private static final class WriteOutcome<E> {
+        int written;
+        Exception error;
+        final List<E> unwritten = new ArrayList<>();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getQueueDepth() {
+        return queue.size();
+    }
+
+    /**
+     * 获取统计信息快照
+     */
+    public Stats getStats() {
+        Stats stats = new Stats();
+        stats.setName(name);
+        stats.setQueueDepth(queue.size());
+        stats.setCapacity(queue.size() + queue.remainingCapacity());
+        stats.setOverflowPolicy(overflowPolicy.name());
+        stats.setEnqueuedCount(enqueuedCount.sum());
+        stats.setDroppedCount(droppedCount.sum());
+        stats.setBlockedCount(blockedCount.sum());
+        stats.setFlushCount(flushCount.sum());
+        stats.setFlushedRows(flushedRows.sum());
+        stats.setFailedFlushCount(failedFlushCount.sum());
+        stats.setSpilledRows(spilledRows.sum());
+        stats.setReplayedRows(replayedRows.sum());
+        stats.setQuarantinedRows(quarantinedRows.sum());
+        stats.setSchemaErrorCount(schemaErrorCount.sum());
+        stats.setJournalBytes(journal != null ? journal.getPendingBytes() : 0);
+
+        long flushes = stats.getFlushCount();
+        stats.setAvgBatchSize(flushes > 0 ? (double) stats.getFlushedRows() / flushes : 0);
+        stats.setMaxBatchSize(maxBatchSize.get());
+        stats.setAvgFlushMillis(flushes > 0 ? flushNanos.sum() / 1_000_000.0 / flushes : 0);
+        stats.setMaxFlushMillis(maxFlushNanos.get() / 1_000_000.0);
+        stats.setLastFlushMillis(lastFlushNanos / 1_000_000.0);
+        return stats;
+    }
+
+    /**
+     * 写后缓冲统计信息
+     */
+    public static class Stats {
+        private String name;
+        private int queueDepth;
+        private int capacity;
+        private String overflowPolicy;
+        private long enqueuedCount;
+        private long droppedCount;
+        private long blockedCount;
+        private long flushCount;
+        private long flushedRows;
+        private long failedFlushCount;
+        private long spilledRows;
+        private long replayedRows;
+        private long quarantinedRows;
+        private long schemaErrorCount;
+        private long journalBytes;
+        private double avgBatchSize;
+        private long maxBatchSize;
+        private double avgFlushMillis;
+        private double maxFlushMillis;
+        private double lastFlushMillis;
+
+        public String getName() { return name; }
+        public void setName(String name) { this.name = name; }
+
+        public int getQueueDepth() { return queueDepth; }
+        public void setQueueDepth(int queueDepth) { this.queueDepth = queueDepth; }
+
+        public int getCapacity() { return capacity; }
+        public void setCapacity(int capacity) { this.capacity = capacity; }
+
+        public String getOverflowPolicy() { return overflowPolicy; }
+        public void setOverflowPolicy(String overflowPolicy) { this.overflowPolicy = overflowPolicy; }
+
+        public long getEnqueuedCount() { return enqueuedCount; }
+        public void setEnqueuedCount(long enqueuedCount) { this.enqueuedCount = enqueuedCount; }
+
+        public long getDroppedCount() { return droppedCount; }
+        public void setDroppedCount(long droppedCount) { this.droppedCount = droppedCount; }
+
+        public long getBlockedCount() { return blockedCount; }
+        public void setBlockedCount(long blockedCount) { this.blockedCount = blockedCount; }
+
+        public long getFlushCount() { return flushCount; }
+        public void setFlushCount(long flushCount) { this.flushCount = flushCount; }
+
+        public long getFlushedRows() { return flushedRows; }
+        public void setFlushedRows(long flushedRows) { this.flushedRows = flushedRows; }
+
+        public long getFailedFlushCount() { return failedFlushCount; }
+        public void setFailedFlushCount(long failedFlushCount) { this.failedFlushCount = failedFlushCount; }
+
+        public long getSpilledRows() { return spilledRows; }
+        public void setSpilledRows(long spilledRows) { this.spilledRows = spilledRows; }
+
+        public long getReplayedRows() { return replayedRows; }
+        public void setReplayedRows(long replayedRows) { this.replayedRows = replayedRows; }
+
+        public long getQuarantinedRows() { return quarantinedRows; }
+        public void setQuarantinedRows(long quarantinedRows) { this.quarantinedRows = quarantinedRows; }
+
+        public long getSchemaErrorCount() { return schemaErrorCount; }
+        public void setSchemaErrorCount(long schemaErrorCount) { this.schemaErrorCount = schemaErrorCount; }
+
+        public long getJournalBytes() { return journalBytes; }
+        public void setJournalBytes(long journalBytes) { this.journalBytes = journalBytes; }
+
+        public double getAvgBatchSize() { return avgBatchSize; }
+        public void setAvgBatchSize(double avgBatchSize) { this.avgBatchSize = avgBatchSize; }
+
+        public long getMaxBatchSize() { return maxBatchSize; }
+        public void setMaxBatchSize(long maxBatchSize) { this.maxBatchSize = maxBatchSize; }
+
+        public double getAvgFlushMillis() { return avgFlushMillis; }
+        public void setAvgFlushMillis(double avgFlushMillis) { this.avgFlushMillis = avgFlushMillis; }
+
+        public double getMaxFlushMillis() { return maxFlushMillis; }
+        public void setMaxFlushMillis(double maxFlushMillis) { this.maxFlushMillis = maxFlushMillis; }
+
+        public double getLastFlushMillis() { return lastFlushMillis; }
+        public void setLastFlushMillis(double lastFlushMillis) { this.lastFlushMillis = lastFlushMillis; }
+
+        @Override
+        public String toString() {
+            return String.format("WriteBehindBuffer.Stats{name='%s', queue=%d/%d, policy=%s, enqueued=%d, dropped=%d, " +
+                            "blocked=%d, flushes=%d, rows=%d, failed=%d, spilled=%d, replayed=%d, quarantined=%d, schemaErrors=%d, journalBytes=%d, " +
+                            "avgBatch=%.1f, maxBatch=%d, avgFlushMs=%.2f, maxFlushMs=%.2f}",
+                    name, queueDepth, capacity, overflowPolicy, enqueuedCount, droppedCount, blockedCount,
+                    flushCount, flushedRows, failedFlushCount, spilledRows, replayedRows, quarantinedRows, schemaErrorCount, journalBytes,
+                    avgBatchSize, maxBatchSize, avgFlushMillis, maxFlushMillis);
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.traffic.gat1049.service.abstracts;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.traffic.gat1049.application.state.LiveStateStore;
 import com.traffic.gat1049.data.provider.impl.ComprehensiveTestDataProviderImpl;
 import com.traffic.gat1049.exception.BusinessException;
 import com.traffic.gat1049.exception.DataNotFoundException;
@@ -16,6 +17,7 @@ import com.traffic.gat1049.model.vo.CrossInfoVo;
 import com.traffic.gat1049.service.interfaces.CrossService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
@@ -38,6 +40,10 @@ public class CrossServiceImpl implements CrossService {
     // 路口状态存储
     private final Map<String, CrossState> crossStateStorage = new ConcurrentHashMap<>();
 
+    // 路口实时状态
+    @Autowired(required = false)
+    private LiveStateStore liveStateStore;
+
     private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
 
     public CrossServiceImpl() throws BusinessException {
@@ -219,6 +225,13 @@ public class CrossServiceImpl implements CrossService {
             throw new ValidationException("crossId", "路口编号不能为空");
         }
 
+        if (liveStateStore != null && liveStateStore.isEnabled()) {
+            CrossState live = liveStateStore.get(crossId, LiveStateStore.Snapshot::getCrossState);
+            if (live != null) {
+                return live;
+            }
+        }
+
         Object obj = dataPrider.getCrossStateById(crossId);
         CrossState crossState = OBJECT_MAPPER.convertValue(obj, CrossState.class);//crossStateStorage.get(crossId);
         if (crossState == null) {
@@ -243,7 +256,7 @@ public class CrossServiceImpl implements CrossService {
 //            allCrossState.add(crossState);
 //        }
 //        return allCrossState;
-        return objs.stream()
+        List<CrossState> crossStates = objs.stream()
                 .map(obj -> {
                     try {
                         return OBJECT_MAPPER.convertValue(obj, CrossState.class);
@@ -254,6 +267,10 @@ public class CrossServiceImpl implements CrossService {
                 })
                 .filter(Objects::nonNull)
                 .collect(Collectors.toList());
+        if (liveStateStore != null && liveStateStore.isEnabled()) {
+            return liveStateStore.overlay(crossStates, CrossState::getCrossId, LiveStateStore.Snapshot::getCrossState);
+        }
+        return crossStates;
     }
 
     @Override
@@ -265,12 +282,14 @@ public class CrossServiceImpl implements CrossService {
             throw new ValidationException("state", "系统状态不能为空");
         }
 
-        if (!crossStorage.containsKey(crossId)) {
-            throw new DataNotFoundException("CrossParam", crossId);
-        }
-
         CrossState crossState = new CrossState(crossId, state);
         //crossState.setStateTime(LocalDateTime.now());
+        if (liveStateStore != null && liveStateStore.isEnabled()) {
+            // 推送的路口不一定在本地参数存储中，实时状态以推送为准
+            liveStateStore.updateCrossState(crossState);
+        } else if (!crossStorage.containsKey(crossId)) {
+            throw new DataNotFoundException("CrossParam", crossId);
+        }
         crossStateStorage.put(crossId, crossState);
 
         logger.info("更新路口状态: crossId={}, state={}", crossId, state.getDescription());
@@ -9,7 +9,9 @@ import com.traffic.gat1049.exception.ValidationException;
 import com.traffic.gat1049.model.dto.PageRequestDto;
 import com.traffic.gat1049.model.enums.Direction;
 import com.traffic.gat1049.model.enums.LampGroupType;
+import com.traffic.gat1049.protocol.constants.GatConstants;
 import com.traffic.gat1049.protocol.model.intersection.LampGroupParam;
+import com.traffic.gat1049.repository.cache.ParamCache;
 import com.traffic.gat1049.repository.entity.LampGroupParamEntity;
 import com.traffic.gat1049.repository.interfaces.LampGroupRepository;
 import com.traffic.gat1049.service.interfaces.LampGroupService;
@@ -23,6 +25,7 @@ import org.springframework.transaction.annotation.Transactional;
 import java.time.LocalDateTime;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 /**
@@ -41,6 +44,9 @@ public class LampGroupServiceImpl implements LampGroupService {
     @Autowired
     private LampGroupParamConverter converter;
 
+    @Autowired(required = false)
+    private ParamCache paramCache;
+
     public LampGroupServiceImpl() throws BusinessException {
         // 初始化一些示例数据
         // initializeSampleData();
@@ -128,6 +134,8 @@ public class LampGroupServiceImpl implements LampGroupService {
                 throw new BusinessException("SAVE_FAILED", "保存信号灯组失败，数据库操作返回0");
             }
 
+            invalidateCache(lampGroup.getCrossId());
+
             // 6. 转换并返回结果
             LampGroupParam savedLampGroup = converter.toProtocol(entity);
 
@@ -169,6 +177,7 @@ public class LampGroupServiceImpl implements LampGroupService {
 
         //lampGroup.setUpdateTime(LocalDateTime.now());
         lampGroupStorage.put(key, lampGroup);
+        invalidateCache(lampGroup.getCrossId());
 
         logger.info("更新信号灯组: crossId={}, lampGroupNo={}, direction={}, type={}",
                 lampGroup.getCrossId(), lampGroup.getLampGroupNo(),
@@ -209,7 +218,8 @@ public class LampGroupServiceImpl implements LampGroupService {
         if (crossId == null || crossId.trim().isEmpty()) {
             throw new ValidationException("crossId", "路口编号不能为空");
         }
-        List<LampGroupParamEntity> entities = lampGroupRepository.findByCrossId(crossId);
+        List<LampGroupParamEntity> entities = loadCached(crossId, null,
+                () -> lampGroupRepository.findByCrossId(crossId));
         if (entities == null) {
             throw new DataNotFoundException("LampGroupParam");
         }
@@ -224,7 +234,8 @@ public class LampGroupServiceImpl implements LampGroupService {
         if(crossId == null || crossId.trim().isEmpty()){
             throw new ValidationException("crossId", "路口编号不能为空");
         }
-        List<LampGroupParamEntity> entities = lampGroupRepository.findAllBasicByCrossId(crossId);
+        List<LampGroupParamEntity> entities = loadCached(crossId, "basic",
+                () -> lampGroupRepository.findAllBasicByCrossId(crossId));
         if(entities == null){
             throw new DataNotFoundException("LampGroupParam");
         }
@@ -354,6 +365,7 @@ public class LampGroupServiceImpl implements LampGroupService {
                 .collect(Collectors.toList());
 
         keysToRemove.forEach(lampGroupStorage::remove);
+        invalidateCache(crossId);
 
         logger.info("删除路口的所有信号灯组: crossId={}, 删除数量={}", crossId, keysToRemove.size());
     }
@@ -369,6 +381,7 @@ public class LampGroupServiceImpl implements LampGroupService {
 
         String key = generateKey(crossId, lampGroupNo);
         LampGroupParam removed = lampGroupStorage.remove(key);
+        invalidateCache(crossId);
 
         if (removed == null) {
             throw new DataNotFoundException("LampGroupParam",
@@ -463,6 +476,26 @@ public class LampGroupServiceImpl implements LampGroupService {
         logger.debug("设置默认值完成: valid={}, createdTime={}",
                 entity.getValid(), entity.getCreatedTime());
     }
+    /**
+     * 经参数缓存查询路口的灯组实体，未配置缓存时直接查询
+     */
+    private List<LampGroupParamEntity> loadCached(String crossId, String variant,
+                                                  Supplier<List<LampGroupParamEntity>> loader) {
+        if (paramCache == null) {
+            return loader.get();
+        }
+        return paramCache.getList(GatConstants.ObjectName.LAMP_GROUP, crossId, variant, loader, LampGroupParamEntity::copy);
+    }
+
+    /**
+     * 失效路口的灯组参数缓存
+     */
+    private void invalidateCache(String crossId) {
+        if (paramCache != null) {
+            paramCache.invalidate(GatConstants.ObjectName.LAMP_GROUP, crossId);
+        }
+    }
+
     /**
      * 生成存储键
      */
@@ -8,9 +8,11 @@ import com.traffic.gat1049.protocol.model.core.Message;
 import com.traffic.gat1049.protocol.builder.MessageBuilder;
 import com.traffic.gat1049.exception.BusinessException;
 import com.traffic.gat1049.protocol.constants.GatConstants;
+import com.traffic.gat1049.application.subscription.SubscriptionManager;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
@@ -41,9 +43,11 @@ public class PushNotificationServiceImpl implements PushNotificationService {
     private static final DateTimeFormatter TIME_FORMATTER =
             DateTimeFormatter.ofPattern("yyyyMMddHHmmss");
 
-    // 在实际项目中，这里应该注入网络连接管理器
-    // @Autowired
-    // private NetworkConnectionManager connectionManager;
+    /**
+     * 订阅管理器，服务端在其上挂接批量推送回调，同一消息只编码一次后分发给全部订阅者
+     */
+    @Autowired(required = false)
+    private SubscriptionManager subscriptionManager;
 
     @Override
     public void pushSignalControllerError(SignalControllerError error) throws BusinessException {
@@ -168,6 +172,17 @@ public class PushNotificationServiceImpl implements PushNotificationService {
         }
     }
 
+    @Override
+    public int pushData(Object data) throws BusinessException {
+        String dataType = data != null ? data.getClass().getSimpleName() : null;
+        try {
+            return sendToAllSubscribers(createPushMessage(data), dataType);
+        } catch (Exception e) {
+            logger.error("推送数据失败: dataType={}, error={}", dataType, e.getMessage());
+            throw new BusinessException("Failed to push " + dataType + ": " + e.getMessage());
+        }
+    }
+
     @Override
     public void pushBatch(List<? extends Object> dataList, String dataType) throws BusinessException {
         if (dataList == null || dataList.isEmpty()) {
@@ -285,33 +300,45 @@ public class PushNotificationServiceImpl implements PushNotificationService {
 
     /**
      * 向所有订阅者发送消息
+     *
+     * @return 接收消息的订阅者数量
      */
-    private void sendToAllSubscribers(Message pushMessage, String dataType) {
+    private int sendToAllSubscribers(Message pushMessage, String dataType) {
         totalPushCount.incrementAndGet();
         lastPushTime = System.currentTimeMillis();
 
+        if (subscriptionManager != null) {
+            int subscribers = subscriptionManager.pushMessage(pushMessage);
+            successPushCount.addAndGet(subscribers);
+            logger.debug("向 {} 个订阅者推送 {} 数据", subscribers, dataType);
+            return subscribers;
+        }
+
         try {
             // 获取订阅了该数据类型的客户端
             List<String> subscribers = getSubscribersForDataType(dataType);
 
             if (subscribers.isEmpty()) {
                 logger.debug("没有找到订阅 {} 数据的客户端", dataType);
-                return;
+                return 0;
             }
 
             logger.debug("向 {} 个客户端推送 {} 数据", subscribers.size(), dataType);
 
             // 向每个订阅者发送消息
+            int delivered = 0;
             for (String clientId : subscribers) {
                 try {
                     sendToClient(clientId, pushMessage);
                     successPushCount.incrementAndGet();
+                    delivered++;
 
                 } catch (Exception e) {
                     failedPushCount.incrementAndGet();
                     logger.error("向客户端 {} 推送数据失败: {}", clientId, e.getMessage());
                 }
             }
+            return delivered;
 
         } catch (Exception e) {
             failedPushCount.incrementAndGet();
@@ -1,34 +1,51 @@
 package com.traffic.gat1049.service.abstracts;
 
+import com.traffic.gat1049.application.retrans.RetransmissionEngine;
+import com.traffic.gat1049.application.subscription.SubscriptionManager;
 import com.traffic.gat1049.exception.BusinessException;
 import com.traffic.gat1049.service.interfaces.PushNotificationService;
 import com.traffic.gat1049.service.interfaces.RunInfoRetransService;
 import com.traffic.gat1049.service.interfaces.TrafficDataService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import javax.annotation.PostConstruct;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * 重传运行信息服务实现
+ * 任务由 {@link RetransmissionEngine} 并行分片执行，重启后从检查点继续
  */
 @Service
 public class RunInfoRetransServiceImpl implements RunInfoRetransService {
 
     private static final Logger logger = LoggerFactory.getLogger(RunInfoRetransServiceImpl.class);
 
+    @Autowired
     private TrafficDataService trafficDataService;
 
+    @Autowired
     private PushNotificationService pushNotificationService;
 
+    @Autowired
+    private RetransmissionEngine retransmissionEngine;
+
+    @Autowired(required = false)
+    private SubscriptionManager subscriptionManager;
+
     // 任务管理
     private final Map<String, RetransTaskInfo> taskMap = new ConcurrentHashMap<>();
 
+    // 检查点中的任务只恢复一次
+    private final AtomicBoolean resumed = new AtomicBoolean();
+
     private static final DateTimeFormatter TIME_FORMATTER =
             DateTimeFormatter.ofPattern("yyyyMMddHHmmss");
 
@@ -43,10 +60,47 @@ public class RunInfoRetransServiceImpl implements RunInfoRetransService {
             "StageTrafficData"        // 阶段交通流数据
     );
 
+    /**
+     * 恢复上次未完成的重传任务
+     * 启动时还没有客户端登录订阅，推送不会送达任何订阅者，因此等到出现第一个订阅后再恢复；
+     * 没有订阅管理器时（推送不经订阅分发）立即恢复
+     */
+    @PostConstruct
+    public void resumeTasks() {
+        if (subscriptionManager == null) {
+            resumeOnce();
+            return;
+        }
+        subscriptionManager.addSubscribeListener(this::resumeOnce);
+        if (subscriptionManager.getSubscriptionCount() > 0) {
+            resumeOnce();
+        }
+    }
+
+    private void resumeOnce() {
+        if (!resumed.compareAndSet(false, true)) {
+            return;
+        }
+        for (RetransTaskInfo taskInfo : retransmissionEngine.resume(this::readChunk, this::pushRecord)) {
+            taskMap.put(taskInfo.getTaskId(), taskInfo);
+        }
+    }
+
     @Override
     public void requestRetransmission(String startTime, String endTime, String objName, List<String> crossIds)
             throws BusinessException {
 
+        if (!SUPPORTED_OBJECT_TYPES.contains(objName)) {
+            throw new BusinessException("Unsupported object type: " + objName);
+        }
+        try {
+            if (LocalDateTime.parse(startTime, TIME_FORMATTER).isAfter(LocalDateTime.parse(endTime, TIME_FORMATTER))) {
+                throw new BusinessException("Start time is after end time: " + startTime + " - " + endTime);
+            }
+        } catch (DateTimeParseException | NullPointerException e) {
+            throw new BusinessException("Invalid time range: " + startTime + " - " + endTime);
+        }
+
         // 生成任务ID
         String taskId = generateTaskId();
 
@@ -69,8 +123,8 @@ public class RunInfoRetransServiceImpl implements RunInfoRetransService {
         taskMap.put(taskId, taskInfo);
 
         try {
-            // 异步执行重传任务
-            executeRetransmissionAsync(taskInfo);
+            // 提交重传引擎异步执行
+            retransmissionEngine.submit(taskInfo, this::readChunk, this::pushRecord);
 
             logger.info("Retransmission task created successfully: taskId={}", taskId);
 
@@ -86,216 +140,38 @@ public class RunInfoRetransServiceImpl implements RunInfoRetransService {
     }
 
     /**
-     * 异步执行重传任务
-     */
-//
-    public CompletableFuture<Void> executeRetransmissionAsync(RetransTaskInfo taskInfo) {
-        return CompletableFuture.runAsync(() -> {
-            try {
-                executeRetransmission(taskInfo);
-            } catch (Exception e) {
-                logger.error("Retransmission task failed: taskId={}", taskInfo.getTaskId(), e);
-                taskInfo.setStatus(RetransTaskStatus.FAILED);
-                taskInfo.setErrorMessage(e.getMessage());
-                taskInfo.setUpdateTime(formatCurrentTime());
-            }
-        });
-    }
-
-    /**
-     * 执行重传任务
-     */
-    private void executeRetransmission(RetransTaskInfo taskInfo) {
-        String taskId = taskInfo.getTaskId();
-
-        logger.info("Starting retransmission execution: taskId={}", taskId);
-
-        // 更新任务状态为执行中
-        taskInfo.setStatus(RetransTaskStatus.RUNNING);
-        taskInfo.setUpdateTime(formatCurrentTime());
-
-        try {
-            String objName = taskInfo.getObjName();
-            String startTime = taskInfo.getStartTime();
-            String endTime = taskInfo.getEndTime();
-            List<String> crossIds = taskInfo.getCrossIds();
-
-            for (String crossId : crossIds) {
-                try {
-                    // 检查任务是否被取消
-                    if (taskInfo.getStatus() == RetransTaskStatus.CANCELLED) {
-                        logger.info("Retransmission task cancelled: taskId={}", taskId);
-                        return;
-                    }
-
-                    // 根据数据对象类型执行重传
-                    retransmitDataForCross(objName, startTime, endTime, crossId);
-
-                    // 更新完成计数
-                    taskInfo.setCompletedCount(taskInfo.getCompletedCount() + 1);
-                    taskInfo.setUpdateTime(formatCurrentTime());
-
-                    logger.debug("Completed retransmission for cross {}: progress {}/{}",
-                            crossId, taskInfo.getCompletedCount(), taskInfo.getTotalCount());
-
-                } catch (Exception e) {
-                    logger.error("Failed to retransmit data for cross {}: {}", crossId, e.getMessage());
-                    // 继续处理其他路口，不中断整个任务
-                }
-            }
-
-            // 任务完成
-            taskInfo.setStatus(RetransTaskStatus.COMPLETED);
-            taskInfo.setUpdateTime(formatCurrentTime());
-
-            logger.info("Retransmission task completed: taskId={}, totalCount={}, completedCount={}",
-                    taskId, taskInfo.getTotalCount(), taskInfo.getCompletedCount());
-
-        } catch (Exception e) {
-            logger.error("Retransmission task execution failed: taskId={}", taskId, e);
-            taskInfo.setStatus(RetransTaskStatus.FAILED);
-            taskInfo.setErrorMessage(e.getMessage());
-            taskInfo.setUpdateTime(formatCurrentTime());
-        }
-    }
-
-    /**
-     * 为指定路口重传数据
+     * 读取一个路口一个时间分片的历史数据
      */
-    private void retransmitDataForCross(String objName, String startTime, String endTime, String crossId)
+    private List<?> readChunk(String objName, String crossId, String startTime, String endTime)
             throws BusinessException {
-
-        logger.debug("Retransmitting {} data for cross {} from {} to {}", objName, crossId, startTime, endTime);
-
-        try {
-            switch (objName) {
-                case "SignalControllerError":
-                    retransmitSignalControllerErrors(crossId, startTime, endTime);
-                    break;
-                case "CrossModePlan":
-                    retransmitCrossModePlans(crossId, startTime, endTime);
-                    break;
-                case "CrossTrafficData":
-                    retransmitCrossTrafficData(crossId, startTime, endTime);
-                    break;
-                case "CrossCycle":
-                    retransmitCrossCycles(crossId, startTime, endTime);
-                    break;
-                case "CrossStage":
-                    retransmitCrossStages(crossId, startTime, endTime);
-                    break;
-                case "CrossSignalGroupStatus":
-                    retransmitSignalGroupStatus(crossId, startTime, endTime);
-                    break;
-                case "StageTrafficData":
-                    retransmitStageTrafficData(crossId, startTime, endTime);
-                    break;
-                default:
-                    throw new BusinessException("Unsupported object type: " + objName);
-            }
-        } catch (Exception e) {
-            throw new BusinessException("Failed to retransmit " + objName + " for cross " + crossId + ": " + e.getMessage());
+        switch (objName) {
+            case "SignalControllerError":
+                return trafficDataService.getSignalControllerErrors(crossId, startTime, endTime);
+            case "CrossModePlan":
+                return trafficDataService.getCrossModePlans(crossId, startTime, endTime);
+            case "CrossTrafficData":
+                return trafficDataService.getCrossTrafficData(crossId, startTime, endTime);
+            case "CrossCycle":
+                return trafficDataService.getCrossCycles(crossId, startTime, endTime);
+            case "CrossStage":
+                return trafficDataService.getCrossStages(crossId, startTime, endTime);
+            case "CrossSignalGroupStatus":
+                return trafficDataService.getSignalGroupStatus(crossId, startTime, endTime);
+            case "StageTrafficData":
+                return trafficDataService.getStageTrafficData(crossId, startTime, endTime);
+            default:
+                throw new BusinessException("Unsupported object type: " + objName);
         }
     }
 
     /**
-     * 重传信号机故障信息
+     * 推送一条历史数据
+     * 没有订阅者接收时视为发送失败，重传引擎不推进该路口的进度
      */
-    private void retransmitSignalControllerErrors(String crossId, String startTime, String endTime)
-            throws BusinessException {
-        // 从数据库查询指定时间段的故障信息
-        var errorList = trafficDataService.getSignalControllerErrors(crossId, startTime, endTime);
-
-        // 通过推送服务发送数据
-        for (var error : errorList) {
-            pushNotificationService.pushSignalControllerError(error);
+    private void pushRecord(String objName, Object record) throws BusinessException {
+        if (pushNotificationService.pushData(record) == 0) {
+            throw new BusinessException("No subscriber received retransmitted " + objName);
         }
-
-        logger.debug("Retransmitted {} signal controller errors for cross {}", errorList.size(), crossId);
-    }
-
-    /**
-     * 重传路口控制方式方案
-     */
-    private void retransmitCrossModePlans(String crossId, String startTime, String endTime)
-            throws BusinessException {
-        var modePlans = trafficDataService.getCrossModePlans(crossId, startTime, endTime);
-
-        for (var modePlan : modePlans) {
-            pushNotificationService.pushCrossModePlan(modePlan);
-        }
-
-        logger.debug("Retransmitted {} mode plans for cross {}", modePlans.size(), crossId);
-    }
-
-    /**
-     * 重传路口交通流数据
-     */
-    private void retransmitCrossTrafficData(String crossId, String startTime, String endTime)
-            throws BusinessException {
-        var trafficDataList = trafficDataService.getCrossTrafficData(crossId, startTime, endTime);
-
-        for (var trafficData : trafficDataList) {
-            pushNotificationService.pushCrossTrafficData(trafficData);
-        }
-
-        logger.debug("Retransmitted {} traffic data records for cross {}", trafficDataList.size(), crossId);
-    }
-
-    /**
-     * 重传路口周期数据
-     */
-    private void retransmitCrossCycles(String crossId, String startTime, String endTime)
-            throws BusinessException {
-        var cycles = trafficDataService.getCrossCycles(crossId, startTime, endTime);
-
-        for (var cycle : cycles) {
-            pushNotificationService.pushCrossCycle(cycle);
-        }
-
-        logger.debug("Retransmitted {} cycle records for cross {}", cycles.size(), crossId);
-    }
-
-    /**
-     * 重传路口阶段数据
-     */
-    private void retransmitCrossStages(String crossId, String startTime, String endTime)
-            throws BusinessException {
-        var stages = trafficDataService.getCrossStages(crossId, startTime, endTime);
-
-        for (var stage : stages) {
-            pushNotificationService.pushCrossStage(stage);
-        }
-
-        logger.debug("Retransmitted {} stage records for cross {}", stages.size(), crossId);
-    }
-
-    /**
-     * 重传信号组灯态数据
-     */
-    private void retransmitSignalGroupStatus(String crossId, String startTime, String endTime)
-            throws BusinessException {
-        var statusList = trafficDataService.getSignalGroupStatus(crossId, startTime, endTime);
-
-        for (var status : statusList) {
-            pushNotificationService.pushSignalGroupStatus(status);
-        }
-
-        logger.debug("Retransmitted {} signal group status records for cross {}", statusList.size(), crossId);
-    }
-
-    /**
-     * 重传阶段交通流数据
-     */
-    private void retransmitStageTrafficData(String crossId, String startTime, String endTime)
-            throws BusinessException {
-        var stageDataList = trafficDataService.getStageTrafficData(crossId, startTime, endTime);
-
-        for (var stageData : stageDataList) {
-            pushNotificationService.pushStageTrafficData(stageData);
-        }
-
-        logger.debug("Retransmitted {} stage traffic data records for cross {}", stageDataList.size(), crossId);
     }
 
     @Override
@@ -320,6 +196,7 @@ public class RunInfoRetransServiceImpl implements RunInfoRetransService {
 
         taskInfo.setStatus(RetransTaskStatus.CANCELLED);
         taskInfo.setUpdateTime(formatCurrentTime());
+        retransmissionEngine.cancel(taskId);
 
         logger.info("Retransmission task cancelled: taskId={}", taskId);
     }
@@ -1,17 +1,22 @@
 package com.traffic.gat1049.service.abstracts;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.traffic.gat1049.application.state.LiveStateStore;
 import com.traffic.gat1049.data.converter.impl.SignalGroupParamConverter;
 import com.traffic.gat1049.data.provider.impl.ComprehensiveTestDataProviderImpl;
 import com.traffic.gat1049.exception.BusinessException;
 import com.traffic.gat1049.exception.DataNotFoundException;
 import com.traffic.gat1049.exception.ValidationException;
+import com.traffic.gat1049.protocol.constants.GatConstants;
 import com.traffic.gat1049.protocol.model.signal.SignalGroupParam;
 import com.traffic.gat1049.protocol.model.runtime.CrossSignalGroupStatus;
+import com.traffic.gat1049.protocol.model.runtime.PackedCrossSignalGroupStatus;
 import com.traffic.gat1049.protocol.model.signal.SignalGroupStatus;
 import com.traffic.gat1049.protocol.util.LampStatusUtil;
+import com.traffic.gat1049.repository.cache.ParamCache;
 import com.traffic.gat1049.repository.entity.SignalGroupParamEntity;
 import com.traffic.gat1049.repository.interfaces.SignalGroupParamRepository;
+import com.traffic.gat1049.repository.writebehind.RuntimeDataWriter;
 import com.traffic.gat1049.service.interfaces.SignalGroupService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -22,6 +27,8 @@ import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 /**
@@ -43,11 +50,21 @@ public class SignalGroupServiceImpl implements SignalGroupService {
 
     @Autowired
     private SignalGroupParamConverter converter;
+
+    @Autowired(required = false)
+    private ParamCache paramCache;
+
+    @Autowired(required = false)
+    private RuntimeDataWriter runtimeDataWriter;
+
+    @Autowired(required = false)
+    private LiveStateStore liveStateStore;
     // 信号组参数存储 - 使用"crossId:signalGroupNo"作为key
     private final Map<String, SignalGroupParam> signalGroupStorage = new ConcurrentHashMap<>();
 
-    // 信号组状态存储 - 使用crossId作为key，存储整个路口的信号组状态
-    private final Map<String, CrossSignalGroupStatus> signalGroupStatusStorage = new ConcurrentHashMap<>();
+    // 信号组状态存储 - 使用crossId作为key，能打包时以打包形式保存整个路口的信号组状态，读取时再生成协议对象；
+    // 读-改-写通过 compute 原子完成，并在同一次 compute 中写入实时状态存储，保证两处顺序一致
+    private final ConcurrentHashMap<String, StoredStatus> signalGroupStatusStorage = new ConcurrentHashMap<>();
 
     private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
 
@@ -66,7 +83,8 @@ public class SignalGroupServiceImpl implements SignalGroupService {
         if (crossId == null || crossId.trim().isEmpty()) {
             throw new ValidationException("crossId", "路口编号不能为空");
         }
-        List<SignalGroupParamEntity> entities = signalGroupParamRepository.findByCrossId(crossId);
+        List<SignalGroupParamEntity> entities = loadCached(crossId, null,
+                () -> signalGroupParamRepository.findByCrossId(crossId));
         if(entities == null){
             throw new DataNotFoundException("SignalGroupParam");
         }
@@ -80,7 +98,8 @@ public class SignalGroupServiceImpl implements SignalGroupService {
         if (crossId == null || crossId.trim().isEmpty()) {
             throw new ValidationException("crossId", "路口编号不能为空");
         }
-        List<SignalGroupParamEntity> entities = signalGroupParamRepository.findMainByCrossId(crossId);
+        List<SignalGroupParamEntity> entities = loadCached(crossId, "main",
+                () -> signalGroupParamRepository.findMainByCrossId(crossId));
         if(entities == null){
             throw new DataNotFoundException("SignalGroupParam");
         }
@@ -119,6 +138,7 @@ public class SignalGroupServiceImpl implements SignalGroupService {
         }
 
         signalGroupStorage.put(key, signalGroupParam);
+        invalidateCache(signalGroupParam.getCrossId());
 
         // 初始化信号组状态
         initializeSignalGroupStatus(signalGroupParam.getCrossId(), signalGroupParam.getSignalGroupNo());
@@ -142,6 +162,7 @@ public class SignalGroupServiceImpl implements SignalGroupService {
         }
 
         signalGroupStorage.put(key, signalGroupParam);
+        invalidateCache(signalGroupParam.getCrossId());
 
         logger.info("更新信号组参数: crossId={}, signalGroupNo={}",
                 signalGroupParam.getCrossId(), signalGroupParam.getSignalGroupNo());
@@ -167,6 +188,7 @@ public class SignalGroupServiceImpl implements SignalGroupService {
 
         // 同时从路口信号组状态中移除该信号组
         removeSignalGroupFromStatus(crossId, signalGroupNo);
+        invalidateCache(crossId);
 
         logger.info("删除信号组参数: crossId={}, signalGroupNo={}", crossId, signalGroupNo);
     }
@@ -177,6 +199,13 @@ public class SignalGroupServiceImpl implements SignalGroupService {
             throw new ValidationException("crossId", "路口编号不能为空");
         }
 
+        if (liveStateStore != null && liveStateStore.isEnabled()) {
+            CrossSignalGroupStatus live = liveStateStore.get(crossId, LiveStateStore.Snapshot::getSignalGroupStatus);
+            if (live != null) {
+                return live;
+            }
+        }
+
         Object obj = dataPrider.getCrossSignalGroupStatusById(crossId);
         CrossSignalGroupStatus status = OBJECT_MAPPER.convertValue(obj, CrossSignalGroupStatus.class);
         if (status == null) {
@@ -189,7 +218,7 @@ public class SignalGroupServiceImpl implements SignalGroupService {
     @Override
     public List<CrossSignalGroupStatus> getAllCrossSignalGroupStatus() throws BusinessException {
         List<CrossSignalGroupStatus> objs = dataPrider.getAllCrossSignalGroupStatus();
-        return objs.stream()
+        List<CrossSignalGroupStatus> statuses = objs.stream()
                 .map(obj -> {
                     try {
                         return OBJECT_MAPPER.convertValue(obj, CrossSignalGroupStatus.class);
@@ -200,6 +229,11 @@ public class SignalGroupServiceImpl implements SignalGroupService {
                 })
                 .filter(Objects::nonNull)
                 .collect(Collectors.toList());
+        if (liveStateStore != null && liveStateStore.isEnabled()) {
+            return liveStateStore.overlay(statuses, CrossSignalGroupStatus::getCrossId,
+                    LiveStateStore.Snapshot::getSignalGroupStatus);
+        }
+        return statuses;
     }
 
     @Override
@@ -226,13 +260,54 @@ public class SignalGroupServiceImpl implements SignalGroupService {
         // 验证灯色状态格式
         validateSignalGroupStatusList(crossSignalGroupStatus.getSignalGroupStatusList());
 
-        signalGroupStatusStorage.put(crossId, crossSignalGroupStatus);
+        // 打包一次，本地存储、实时状态和历史入库共用
+        StoredStatus stored = StoredStatus.of(crossSignalGroupStatus);
+        signalGroupStatusStorage.compute(crossId, (key, current) -> publish(stored));
+
+        // 灯态历史异步批量入库
+        if (runtimeDataWriter != null) {
+            if (stored.packed != null) {
+                runtimeDataWriter.writeSignalGroupStatus(stored.packed);
+            } else {
+                runtimeDataWriter.writeSignalGroupStatus(crossSignalGroupStatus);
+            }
+        }
 
         logger.info("更新路口信号组状态: crossId={}, lampStatusTime={}, signalGroupCount={}",
                 crossId, crossSignalGroupStatus.getLampStatusTime(),
                 crossSignalGroupStatus.getSignalGroupStatusList().size());
     }
 
+    @Override
+    public void updateCrossSignalGroupStatus(PackedCrossSignalGroupStatus packedStatus) throws BusinessException {
+        if (packedStatus == null) {
+            throw new ValidationException("crossSignalGroupStatus", "路口信号组状态不能为空");
+        }
+        String crossId = packedStatus.getCrossId();
+        if (crossId == null || crossId.trim().isEmpty()) {
+            throw new ValidationException("crossId", "路口编号不能为空");
+        }
+        if (packedStatus.size() == 0) {
+            throw new ValidationException("signalGroupStatusList", "信号组状态列表不能为空");
+        }
+
+        // 打包时已校验灯色状态格式和剩余时长，只需补齐时间
+        PackedCrossSignalGroupStatus packed = packedStatus;
+        if (packed.getLampStatusTime() == null || packed.getLampStatusTime().trim().isEmpty()) {
+            packed = packed.withLampStatusTime(getCurrentTimeString());
+        }
+
+        StoredStatus stored = StoredStatus.of(packed);
+        signalGroupStatusStorage.compute(crossId, (key, current) -> publish(stored));
+
+        if (runtimeDataWriter != null) {
+            runtimeDataWriter.writeSignalGroupStatus(packed);
+        }
+
+        logger.info("更新路口信号组状态: crossId={}, lampStatusTime={}, signalGroupCount={}",
+                crossId, packed.getLampStatusTime(), packed.size());
+    }
+
     @Override
     public SignalGroupStatus getSignalGroupStatus(String crossId, Integer signalGroupNo) throws BusinessException {
         if (crossId == null || crossId.trim().isEmpty()) {
@@ -251,6 +326,28 @@ public class SignalGroupServiceImpl implements SignalGroupService {
                         String.format("crossId=%s, signalGroupNo=%d", crossId, signalGroupNo)));
     }
 
+    /**
+     * 经参数缓存查询路口的信号组实体，未配置缓存时直接查询
+     */
+    private List<SignalGroupParamEntity> loadCached(String crossId, String variant,
+                                                    Supplier<List<SignalGroupParamEntity>> loader) {
+        if (paramCache == null) {
+            return loader.get();
+        }
+        return paramCache.getList(GatConstants.ObjectName.SIGNAL_GROUP_PARAM, crossId, variant, loader,
+                SignalGroupParamEntity::copy);
+    }
+
+    /**
+     * 失效路口的信号组参数缓存
+     * 构造时初始化示例数据，此时缓存尚未注入
+     */
+    private void invalidateCache(String crossId) {
+        if (paramCache != null) {
+            paramCache.invalidate(GatConstants.ObjectName.SIGNAL_GROUP_PARAM, crossId);
+        }
+    }
+
     /**
      * 构建存储key
      */
@@ -350,34 +447,66 @@ public class SignalGroupServiceImpl implements SignalGroupService {
      * 初始化信号组状态
      */
     private void initializeSignalGroupStatus(String crossId, Integer signalGroupNo) {
-        CrossSignalGroupStatus crossStatus = signalGroupStatusStorage.get(crossId);
-        if (crossStatus == null) {
-            crossStatus = new CrossSignalGroupStatus(crossId, getCurrentTimeString());
-            signalGroupStatusStorage.put(crossId, crossStatus);
-        }
+        modifySignalGroupStatus(crossId, crossStatus -> {
+            if (crossStatus == null) {
+                crossStatus = new CrossSignalGroupStatus(crossId, getCurrentTimeString());
+            }
 
-        // 检查是否已存在该信号组状态
-        boolean exists = crossStatus.getSignalGroupStatusList().stream()
-                .anyMatch(status -> signalGroupNo.equals(status.getSignalGroupNo()));
+            // 检查是否已存在该信号组状态
+            boolean exists = crossStatus.getSignalGroupStatusList().stream()
+                    .anyMatch(status -> signalGroupNo.equals(status.getSignalGroupNo()));
 
-        if (!exists) {
-            // 默认设置为红灯状态，剩余时间60秒
-            SignalGroupStatus groupStatus = new SignalGroupStatus(signalGroupNo,
-                    LampStatusUtil.CommonLampStatus.RED_ON, 60);
-            crossStatus.getSignalGroupStatusList().add(groupStatus);
-        }
+            if (!exists) {
+                // 默认设置为红灯状态，剩余时间60秒
+                SignalGroupStatus groupStatus = new SignalGroupStatus(signalGroupNo,
+                        LampStatusUtil.CommonLampStatus.RED_ON, 60);
+                crossStatus.getSignalGroupStatusList().add(groupStatus);
+            }
+            return crossStatus;
+        });
     }
 
     /**
      * 从状态中移除信号组
      */
     private void removeSignalGroupFromStatus(String crossId, Integer signalGroupNo) {
-        CrossSignalGroupStatus crossStatus = signalGroupStatusStorage.get(crossId);
-        if (crossStatus != null) {
-            crossStatus.getSignalGroupStatusList().removeIf(
-                    status -> signalGroupNo.equals(status.getSignalGroupNo())
-            );
+        modifySignalGroupStatus(crossId, crossStatus -> {
+            if (crossStatus != null) {
+                crossStatus.getSignalGroupStatusList().removeIf(
+                        status -> signalGroupNo.equals(status.getSignalGroupNo())
+                );
+            }
+            return crossStatus;
+        });
+    }
+
+    /**
+     * 原子地读-改-写路口信号组状态，修改结果同时写入实时状态存储
+     *
+     * @param modifier 参数为当前状态的副本（不存在时为null），返回新状态；返回null表示不修改
+     * @return 修改后的状态，路口不存在且未创建时返回null
+     */
+    private StoredStatus modifySignalGroupStatus(String crossId,
+                                                 Function<CrossSignalGroupStatus, CrossSignalGroupStatus> modifier) {
+        return signalGroupStatusStorage.compute(crossId, (key, current) -> {
+            CrossSignalGroupStatus updated = modifier.apply(current != null ? current.toCrossSignalGroupStatus() : null);
+            return updated != null ? publish(StoredStatus.of(updated)) : current;
+        });
+    }
+
+    /**
+     * 写入实时状态存储，在 compute 中调用以保证与本地存储的更新顺序一致
+     * 构造时初始化示例数据，此时实时状态存储尚未注入
+     */
+    private StoredStatus publish(StoredStatus stored) {
+        if (liveStateStore != null && liveStateStore.isEnabled()) {
+            if (stored.packed != null) {
+                liveStateStore.updateSignalGroupStatus(stored.packed);
+            } else {
+                liveStateStore.updateSignalGroupStatus(stored.unpacked);
+            }
         }
+        return stored;
     }
 
     /**
@@ -451,7 +580,7 @@ public class SignalGroupServiceImpl implements SignalGroupService {
         }
 
         crossStatus.setSignalGroupStatusList(statusList);
-        signalGroupStatusStorage.put(crossId, crossStatus);
+        modifySignalGroupStatus(crossId, current -> crossStatus);
 
         logger.info("初始化路口信号组状态: crossId={}, 信号组数量={}", crossId, signalGroupNos.size());
     }
@@ -465,36 +594,41 @@ public class SignalGroupServiceImpl implements SignalGroupService {
             throw new ValidationException("crossId", "路口编号不能为空");
         }
 
-        CrossSignalGroupStatus crossStatus = signalGroupStatusStorage.get(crossId);
-        if (crossStatus == null) {
-            throw new DataNotFoundException("CrossSignalGroupStatus", crossId);
-        }
-
-        // 更新时间戳
-        crossStatus.setLampStatusTime(getCurrentTimeString());
-
-        // 批量更新各信号组状态
-        for (SignalGroupStatus groupStatus : crossStatus.getSignalGroupStatusList()) {
-            Integer groupNo = groupStatus.getSignalGroupNo();
+        StoredStatus updated = modifySignalGroupStatus(crossId, crossStatus -> {
+            if (crossStatus == null) {
+                return null;
+            }
 
-            // 更新灯色状态
-            if (signalGroupLampStatus.containsKey(groupNo)) {
-                String newLampStatus = signalGroupLampStatus.get(groupNo);
-                if (LampStatusUtil.isValidLampStatus(newLampStatus)) {
-                    groupStatus.setLampStatus(newLampStatus);
-                } else {
-                    logger.warn("无效的灯色状态，跳过更新: crossId={}, signalGroupNo={}, lampStatus={}",
-                            crossId, groupNo, newLampStatus);
+            // 更新时间戳
+            crossStatus.setLampStatusTime(getCurrentTimeString());
+
+            // 批量更新各信号组状态
+            for (SignalGroupStatus groupStatus : crossStatus.getSignalGroupStatusList()) {
+                Integer groupNo = groupStatus.getSignalGroupNo();
+
+                // 更新灯色状态
+                if (signalGroupLampStatus.containsKey(groupNo)) {
+                    String newLampStatus = signalGroupLampStatus.get(groupNo);
+                    if (LampStatusUtil.isValidLampStatus(newLampStatus)) {
+                        groupStatus.setLampStatus(newLampStatus);
+                    } else {
+                        logger.warn("无效的灯色状态，跳过更新: crossId={}, signalGroupNo={}, lampStatus={}",
+                                crossId, groupNo, newLampStatus);
+                    }
                 }
-            }
 
-            // 更新剩余时间
-            if (signalGroupRemainTime.containsKey(groupNo)) {
-                Integer remainTime = signalGroupRemainTime.get(groupNo);
-                if (remainTime != null && remainTime >= 0) {
-                    groupStatus.setRemainTime(remainTime);
+                // 更新剩余时间
+                if (signalGroupRemainTime.containsKey(groupNo)) {
+                    Integer remainTime = signalGroupRemainTime.get(groupNo);
+                    if (remainTime != null && remainTime >= 0) {
+                        groupStatus.setRemainTime(remainTime);
+                    }
                 }
             }
+            return crossStatus;
+        });
+        if (updated == null) {
+            throw new DataNotFoundException("CrossSignalGroupStatus", crossId);
         }
 
         logger.info("批量更新信号组状态完成: crossId={}, 更新信号组数量={}",
@@ -505,39 +639,84 @@ public class SignalGroupServiceImpl implements SignalGroupService {
      * 模拟信号灯状态循环变化（用于测试）
      */
     public void simulateSignalLightCycle(String crossId) throws BusinessException {
-        CrossSignalGroupStatus crossStatus = signalGroupStatusStorage.get(crossId);
-        if (crossStatus == null) {
+        StoredStatus updated = modifySignalGroupStatus(crossId, crossStatus -> {
+            if (crossStatus == null) {
+                return null;
+            }
+
+            crossStatus.setLampStatusTime(getCurrentTimeString());
+
+            for (SignalGroupStatus groupStatus : crossStatus.getSignalGroupStatusList()) {
+                // 简单的状态循环：红->绿->黄->红
+                String currentStatus = groupStatus.getLampStatus();
+                String newStatus;
+                int newRemainTime;
+
+                if (LampStatusUtil.CommonLampStatus.RED_ON.equals(currentStatus)) {
+                    newStatus = LampStatusUtil.CommonLampStatus.GREEN_ON;
+                    newRemainTime = 30;
+                } else if (LampStatusUtil.CommonLampStatus.GREEN_ON.equals(currentStatus)) {
+                    newStatus = LampStatusUtil.CommonLampStatus.YELLOW_ON;
+                    newRemainTime = 3;
+                } else if (LampStatusUtil.CommonLampStatus.YELLOW_ON.equals(currentStatus)) {
+                    newStatus = LampStatusUtil.CommonLampStatus.RED_ON;
+                    newRemainTime = 60;
+                } else {
+                    // 其他状态保持不变，只更新剩余时间
+                    newStatus = currentStatus;
+                    newRemainTime = Math.max(0, (groupStatus.getRemainTime() != null ? groupStatus.getRemainTime() : 60) - 1);
+                }
+
+                groupStatus.setLampStatus(newStatus);
+                groupStatus.setRemainTime(newRemainTime);
+            }
+            return crossStatus;
+        });
+        if (updated == null) {
             logger.warn("路口信号组状态不存在: {}", crossId);
             return;
         }
 
-        crossStatus.setLampStatusTime(getCurrentTimeString());
+        logger.debug("模拟信号灯状态变化: crossId={}", crossId);
+    }
+
+    /**
+     * 本地保存的路口信号组状态：能打包时只保留打包形式，否则保留原协议对象
+     */
+    private static final class StoredStatus {
+        final PackedCrossSignalGroupStatus packed;
+        final CrossSignalGroupStatus unpacked;
 
-        for (SignalGroupStatus groupStatus : crossStatus.getSignalGroupStatusList()) {
-            // 简单的状态循环：红->绿->黄->红
-            String currentStatus = groupStatus.getLampStatus();
-            String newStatus;
-            int newRemainTime;
+        private StoredStatus(PackedCrossSignalGroupStatus packed, CrossSignalGroupStatus unpacked) {
+            this.packed = packed;
+            this.unpacked = unpacked;
+        }
 
-            if (LampStatusUtil.CommonLampStatus.RED_ON.equals(currentStatus)) {
-                newStatus = LampStatusUtil.CommonLampStatus.GREEN_ON;
-                newRemainTime = 30;
-            } else if (LampStatusUtil.CommonLampStatus.GREEN_ON.equals(currentStatus)) {
-                newStatus = LampStatusUtil.CommonLampStatus.YELLOW_ON;
-                newRemainTime = 3;
-            } else if (LampStatusUtil.CommonLampStatus.YELLOW_ON.equals(currentStatus)) {
-                newStatus = LampStatusUtil.CommonLampStatus.RED_ON;
-                newRemainTime = 60;
-            } else {
-                // 其他状态保持不变，只更新剩余时间
-                newStatus = currentStatus;
-                newRemainTime = Math.max(0, (groupStatus.getRemainTime() != null ? groupStatus.getRemainTime() : 60) - 1);
-            }
+        static StoredStatus of(CrossSignalGroupStatus status) {
+            PackedCrossSignalGroupStatus packed = PackedCrossSignalGroupStatus.pack(status);
+            return packed != null ? new StoredStatus(packed, null) : new StoredStatus(null, status);
+        }
 
-            groupStatus.setLampStatus(newStatus);
-            groupStatus.setRemainTime(newRemainTime);
+        static StoredStatus of(PackedCrossSignalGroupStatus packed) {
+            return new StoredStatus(packed, null);
         }
 
-        logger.debug("模拟信号灯状态变化: crossId={}", crossId);
+        /**
+         * 生成可修改的副本，不影响已保存和已发布的状态
+         */
+        CrossSignalGroupStatus toCrossSignalGroupStatus() {
+            if (packed != null) {
+                return packed.toCrossSignalGroupStatus();
+            }
+            CrossSignalGroupStatus copy = new CrossSignalGroupStatus(unpacked.getCrossId(), unpacked.getLampStatusTime());
+            List<SignalGroupStatus> list = new ArrayList<>();
+            if (unpacked.getSignalGroupStatusList() != null) {
+                for (SignalGroupStatus status : unpacked.getSignalGroupStatusList()) {
+                    list.add(new SignalGroupStatus(status.getSignalGroupNo(), status.getLampStatus(), status.getRemainTime()));
+                }
+            }
+            copy.setSignalGroupStatusList(list);
+            return copy;
+        }
     }
-}
\ No newline at end of file
+}
@@ -1,6 +1,11 @@
 package com.traffic.gat1049.service.abstracts;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.traffic.gat1049.application.state.LiveStateStore;
+import com.traffic.gat1049.application.statistics.RollingTrafficStatistics;
+import com.traffic.gat1049.data.timeseries.AggregateResolution;
+import com.traffic.gat1049.data.timeseries.TrafficAggregate;
+import com.traffic.gat1049.data.timeseries.TrafficTimeSeriesStore;
 import com.traffic.gat1049.data.provider.impl.ComprehensiveTestDataProviderImpl;
 import com.traffic.gat1049.exception.BusinessException;
 import com.traffic.gat1049.exception.DataNotFoundException;
@@ -13,12 +18,16 @@ import com.traffic.gat1049.protocol.model.traffic.CrossTrafficData;
 import com.traffic.gat1049.protocol.model.traffic.LaneTrafficData;
 import com.traffic.gat1049.protocol.model.traffic.StageTrafficData;
 import com.traffic.gat1049.model.enums.ReportDataType;
+import com.traffic.gat1049.repository.writebehind.RuntimeDataWriter;
 import com.traffic.gat1049.service.interfaces.TrafficDataService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
@@ -47,6 +56,23 @@ public class TrafficDataServiceImpl implements TrafficDataService {
     // 数据上传控制状态
     private final Map<String, Map<String, Boolean>> dataReportStatus = new ConcurrentHashMap<>();
     private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    private static final DateTimeFormatter TIME_FORMATTER = DateTimeFormatter.ofPattern("yyyyMMddHHmmss");
+
+    // 运行数据异步批量入库
+    @Autowired(required = false)
+    private RuntimeDataWriter runtimeDataWriter;
+
+    // 路口实时状态
+    @Autowired(required = false)
+    private LiveStateStore liveStateStore;
+
+    // 车道交通流时序存储，启用后交通流数据不再保存在内存列表中
+    @Autowired(required = false)
+    private TrafficTimeSeriesStore trafficTimeSeriesStore;
+
+    // 交通流滚动统计
+    @Autowired(required = false)
+    private RollingTrafficStatistics rollingTrafficStatistics;
 
     public TrafficDataServiceImpl() throws BusinessException {
         // 初始化示例数据
@@ -82,6 +108,35 @@ public class TrafficDataServiceImpl implements TrafficDataService {
 
     @Override
     public List<TrafficStatisticsVo> getTrafficStatistics(TrafficDataQueryDto queryDto) throws BusinessException {
+        validateStatisticsQuery(queryDto);
+
+        // 转换为统计VO
+        return queryTrafficData(queryDto).stream()
+                .map(this::convertToStatisticsVo)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public List<TrafficStatisticsVo> getWindowedTrafficStatistics(TrafficDataQueryDto queryDto) throws BusinessException {
+        validateStatisticsQuery(queryDto);
+        if (rollingTrafficStatistics == null) {
+            return null;
+        }
+
+        // 查询区间在滚动统计覆盖范围内时直接读取窗口累计值
+        if (rollingTrafficStatistics.isEnabled()) {
+            List<TrafficStatisticsVo> windows = rollingTrafficStatistics.getWindowStatistics(
+                    queryDto.getCrossId(), queryDto.getStartTime(), queryDto.getEndTime(), queryDto.getLaneNos());
+            if (windows != null) {
+                return windows;
+            }
+        }
+
+        return rollingTrafficStatistics.computeWindowStatistics(
+                queryDto.getCrossId(), queryTrafficData(queryDto), queryDto.getLaneNos());
+    }
+
+    private void validateStatisticsQuery(TrafficDataQueryDto queryDto) throws BusinessException {
         if (queryDto == null) {
             throw new ValidationException("queryDto", "查询条件不能为空");
         }
@@ -89,21 +144,40 @@ public class TrafficDataServiceImpl implements TrafficDataService {
         if (queryDto.getCrossId() == null || queryDto.getCrossId().trim().isEmpty()) {
             throw new ValidationException("crossId", "路口编号不能为空");
         }
+    }
 
-        List<CrossTrafficData> dataList = crossTrafficDataStorage.get(queryDto.getCrossId());
+    /**
+     * 读取查询时间范围内的原始交通流数据
+     */
+    private List<CrossTrafficData> queryTrafficData(TrafficDataQueryDto queryDto) {
+        List<CrossTrafficData> dataList;
+        if (isTimeSeriesEnabled()) {
+            LocalDateTime endTime = queryDto.getEndTime() != null ? queryDto.getEndTime() : LocalDateTime.now();
+            LocalDateTime startTime = queryDto.getStartTime() != null
+                    ? queryDto.getStartTime() : endTime.toLocalDate().atStartOfDay();
+            dataList = trafficTimeSeriesStore.query(queryDto.getCrossId(), startTime, endTime);
+        } else {
+            dataList = crossTrafficDataStorage.get(queryDto.getCrossId());
+        }
         if (dataList == null || dataList.isEmpty()) {
             return new ArrayList<>();
         }
 
         // 根据时间范围过滤数据
-        List<CrossTrafficData> filteredData = dataList.stream()
+        return dataList.stream()
                 .filter(data -> filterByTimeRange(data, queryDto.getStartTime(), queryDto.getEndTime()))
                 .collect(Collectors.toList());
+    }
 
-        // 转换为统计VO
-        return filteredData.stream()
-                .map(this::convertToStatisticsVo)
-                .collect(Collectors.toList());
+    @Override
+    public TrafficStatisticsVo getRollingTrafficStatistics(String crossId) throws BusinessException {
+        if (crossId == null || crossId.trim().isEmpty()) {
+            throw new ValidationException("crossId", "路口编号不能为空");
+        }
+        if (rollingTrafficStatistics == null) {
+            return null;
+        }
+        return rollingTrafficStatistics.getSlidingStatistics(crossId);
     }
 
     @Override
@@ -149,7 +223,17 @@ public class TrafficDataServiceImpl implements TrafficDataService {
         validateCrossTrafficData(crossTrafficData);
 
         String crossId = crossTrafficData.getCrossId();
-        crossTrafficDataStorage.computeIfAbsent(crossId, k -> new ArrayList<>()).add(crossTrafficData);
+        if (isTimeSeriesEnabled()) {
+            trafficTimeSeriesStore.append(crossTrafficData);
+        } else {
+            crossTrafficDataStorage.computeIfAbsent(crossId, k -> new ArrayList<>()).add(crossTrafficData);
+        }
+        if (rollingTrafficStatistics != null) {
+            rollingTrafficStatistics.record(crossTrafficData);
+        }
+        if (runtimeDataWriter != null) {
+            runtimeDataWriter.writeTrafficData(crossTrafficData);
+        }
 
         logger.info("保存路口交通流数据: crossId={}, endTime={}, dataCount={}",
                 crossId, crossTrafficData.getEndTime(), crossTrafficData.getDataList().size());
@@ -176,6 +260,13 @@ public class TrafficDataServiceImpl implements TrafficDataService {
             throw new ValidationException("crossId", "路口编号不能为空");
         }
 
+        if (liveStateStore != null && liveStateStore.isEnabled()) {
+            CrossCycle live = liveStateStore.get(crossId, LiveStateStore.Snapshot::getCrossCycle);
+            if (live != null) {
+                return live;
+            }
+        }
+
         Object obj = dataProvider.getCrossCycleById(crossId);
         CrossCycle crossCycle = OBJECT_MAPPER.convertValue(obj, CrossCycle.class);
         if (crossCycle == null) {
@@ -187,7 +278,11 @@ public class TrafficDataServiceImpl implements TrafficDataService {
 
     @Override
     public List<CrossCycle> getAllCrossCycle() throws BusinessException {
-        return dataProvider.getAllCrossCycles();
+        List<CrossCycle> crossCycles = dataProvider.getAllCrossCycles();
+        if (liveStateStore != null && liveStateStore.isEnabled()) {
+            return liveStateStore.overlay(crossCycles, CrossCycle::getCrossId, LiveStateStore.Snapshot::getCrossCycle);
+        }
+        return crossCycles;
 
 //        return objs.stream()
 //                .map(obj -> {
@@ -213,6 +308,12 @@ public class TrafficDataServiceImpl implements TrafficDataService {
         }
 
         crossCycleStorage.put(crossCycle.getCrossId(), crossCycle);
+        if (liveStateStore != null && liveStateStore.isEnabled()) {
+            liveStateStore.updateCrossCycle(crossCycle);
+        }
+        if (runtimeDataWriter != null) {
+            runtimeDataWriter.writeCrossCycle(crossCycle);
+        }
 
         logger.info("更新路口周期: crossId={}, cycleLen={}",
                 crossCycle.getCrossId(), crossCycle.getLastCycleLen());
@@ -224,6 +325,13 @@ public class TrafficDataServiceImpl implements TrafficDataService {
             throw new ValidationException("crossId", "路口编号不能为空");
         }
 
+        if (liveStateStore != null && liveStateStore.isEnabled()) {
+            CrossStage live = liveStateStore.get(crossId, LiveStateStore.Snapshot::getCrossStage);
+            if (live != null) {
+                return live;
+            }
+        }
+
         Object obj = dataProvider.getCrossStageById(crossId);
         CrossStage crossStage = OBJECT_MAPPER.convertValue(obj, CrossStage.class);
 
@@ -238,7 +346,7 @@ public class TrafficDataServiceImpl implements TrafficDataService {
     public List<CrossStage> getAllCrossStage() throws BusinessException {
         List<CrossStage> objs = dataProvider.getAllCrossStages();
 
-        return objs.stream()
+        List<CrossStage> crossStages = objs.stream()
                 .map(obj -> {
                     try {
                         return OBJECT_MAPPER.convertValue(obj, CrossStage.class);
@@ -249,6 +357,10 @@ public class TrafficDataServiceImpl implements TrafficDataService {
                 })
                 .filter(Objects::nonNull)
                 .collect(Collectors.toList());
+        if (liveStateStore != null && liveStateStore.isEnabled()) {
+            return liveStateStore.overlay(crossStages, CrossStage::getCrossId, LiveStateStore.Snapshot::getCrossStage);
+        }
+        return crossStages;
     }
 
     @Override
@@ -262,6 +374,12 @@ public class TrafficDataServiceImpl implements TrafficDataService {
         }
 
         crossStageStorage.put(crossStage.getCrossId(), crossStage);
+        if (liveStateStore != null && liveStateStore.isEnabled()) {
+            liveStateStore.updateCrossStage(crossStage);
+        }
+        if (runtimeDataWriter != null) {
+            runtimeDataWriter.writeCrossStage(crossStage);
+        }
 
         logger.info("更新路口阶段: crossId={}, curStageNo={}, curStageLen={}",
                 crossStage.getCrossId(), crossStage.getCurStageNo(), crossStage.getCurStageLen());
@@ -323,6 +441,12 @@ public class TrafficDataServiceImpl implements TrafficDataService {
             cleanedCount += originalSize - dataList.size();
         }
 
+        // 时序存储按天删除
+        if (isTimeSeriesEnabled()) {
+            int deletedDays = trafficTimeSeriesStore.deleteBefore(beforeDate);
+            logger.info("清理交通流时序数据: beforeDate={}, deletedDays={}", beforeDate, deletedDays);
+        }
+
         logger.info("清理历史数据完成: beforeDate={}, cleanedCount={}", beforeDate, cleanedCount);
     }
 
@@ -338,7 +462,32 @@ public class TrafficDataServiceImpl implements TrafficDataService {
 
     @Override
     public List<CrossTrafficData> getCrossTrafficData(String crossId, String startTime, String endTime) throws BusinessException {
-        return List.of();
+        if (!isTimeSeriesEnabled()) {
+            return List.of();
+        }
+        if (crossId == null || crossId.trim().isEmpty()) {
+            throw new ValidationException("crossId", "路口编号不能为空");
+        }
+        return trafficTimeSeriesStore.query(crossId,
+                parseTime("startTime", startTime), parseTime("endTime", endTime));
+    }
+
+    @Override
+    public List<TrafficAggregate> getTrafficAggregates(String crossId, LocalDateTime startTime, LocalDateTime endTime,
+                                                       AggregateResolution resolution, Integer laneNo) throws BusinessException {
+        if (crossId == null || crossId.trim().isEmpty()) {
+            throw new ValidationException("crossId", "路口编号不能为空");
+        }
+        if (startTime == null || endTime == null) {
+            throw new ValidationException("startTime", "统计时间范围不能为空");
+        }
+        if (resolution == null) {
+            throw new ValidationException("resolution", "统计粒度不能为空");
+        }
+        if (!isTimeSeriesEnabled()) {
+            return List.of();
+        }
+        return trafficTimeSeriesStore.aggregate(crossId, startTime, endTime, resolution, laneNo);
     }
 
     @Override
@@ -420,6 +569,21 @@ public class TrafficDataServiceImpl implements TrafficDataService {
         }
     }
 
+    private boolean isTimeSeriesEnabled() {
+        return trafficTimeSeriesStore != null && trafficTimeSeriesStore.isEnabled();
+    }
+
+    private LocalDateTime parseTime(String fieldName, String time) throws BusinessException {
+        if (time == null || time.trim().isEmpty()) {
+            throw new ValidationException(fieldName, "时间不能为空");
+        }
+        try {
+            return LocalDateTime.parse(time.trim(), TIME_FORMATTER);
+        } catch (DateTimeParseException e) {
+            throw new ValidationException(fieldName, "时间格式应为yyyyMMddHHmmss: " + time);
+        }
+    }
+
     private boolean filterByTimeRange(CrossTrafficData data, LocalDateTime startTime, LocalDateTime endTime) {
         if (data.getEndTime() == null) {
             return false;
@@ -77,6 +77,16 @@ public interface PushNotificationService {
      */
     void pushBatch(java.util.List<? extends Object> dataList, String dataType) throws BusinessException;
 
+    /**
+     * 推送一个数据对象，返回实际接收的订阅者数量
+     * 需要确认送达的调用方（如历史数据重传）据此判断是否发送成功
+     *
+     * @param data 数据对象
+     * @return 接收推送的订阅者数量，没有订阅者时为0
+     * @throws BusinessException 业务异常
+     */
+    int pushData(Object data) throws BusinessException;
+
     /**
      * 检查推送服务状态
      *
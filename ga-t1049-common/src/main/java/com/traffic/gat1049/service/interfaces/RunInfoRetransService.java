@@ -76,12 +76,12 @@ public interface RunInfoRetransService {
         private String endTime;
         private String objName;
         private List<String> crossIds;
-        private RetransTaskStatus status;
+        private volatile RetransTaskStatus status;
         private String createTime;
         private String updateTime;
         private String errorMessage;
         private int totalCount;
-        private int completedCount;
+        private volatile int completedCount;
 
         // 构造函数
         public RetransTaskInfo() {}
@@ -126,6 +126,11 @@ public interface RunInfoRetransService {
         public int getCompletedCount() { return completedCount; }
         public void setCompletedCount(int completedCount) { this.completedCount = completedCount; }
 
+        /**
+         * 完成数加1，多个线程并发处理同一任务时使用
+         */
+        public synchronized int incrementCompletedCount() { return ++completedCount; }
+
         /**
          * 获取进度百分比
          */
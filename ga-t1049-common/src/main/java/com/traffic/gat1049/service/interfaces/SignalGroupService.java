@@ -3,6 +3,7 @@ package com.traffic.gat1049.service.interfaces;
 import com.traffic.gat1049.exception.BusinessException;
 import com.traffic.gat1049.protocol.model.signal.SignalGroupParam;
 import com.traffic.gat1049.protocol.model.runtime.CrossSignalGroupStatus;
+import com.traffic.gat1049.protocol.model.runtime.PackedCrossSignalGroupStatus;
 import com.traffic.gat1049.protocol.model.signal.SignalGroupStatus;
 
 import java.util.List;
@@ -99,6 +100,14 @@ public interface SignalGroupService {
      */
     void updateCrossSignalGroupStatus(CrossSignalGroupStatus crossSignalGroupStatus) throws BusinessException;
 
+    /**
+     * 更新路口信号组灯态（已打包，由推送快速解码直接得到）
+     *
+     * @param packedStatus 打包的路口信号组灯态
+     * @throws BusinessException 业务异常
+     */
+    void updateCrossSignalGroupStatus(PackedCrossSignalGroupStatus packedStatus) throws BusinessException;
+
     /**
      * 获取单个信号组的当前灯态
      *
@@ -1,5 +1,7 @@
 package com.traffic.gat1049.service.interfaces;
 
+import com.traffic.gat1049.data.timeseries.AggregateResolution;
+import com.traffic.gat1049.data.timeseries.TrafficAggregate;
 import com.traffic.gat1049.exception.BusinessException;
 import com.traffic.gat1049.model.dto.TrafficDataQueryDto;
 import com.traffic.gat1049.protocol.model.traffic.CrossTrafficData;
@@ -44,7 +46,7 @@ public interface TrafficDataService {
     CrossTrafficData getCrossTrafficData(String crossId, LocalDateTime endTime, Integer interval) throws BusinessException;
 
     /**
-     * 根据查询条件获取交通流数据
+     * 根据查询条件获取交通流数据，每次推送数据一条
      *
      * @param queryDto 查询条件
      * @return 交通统计数据列表
@@ -52,6 +54,25 @@ public interface TrafficDataService {
      */
     List<TrafficStatisticsVo> getTrafficStatistics(TrafficDataQueryDto queryDto) throws BusinessException;
 
+    /**
+     * 根据查询条件按固定统计窗口获取交通流统计，每个有数据的窗口一条
+     * 查询区间在滚动统计覆盖范围内时直接读取窗口累计值，否则由原始数据按相同窗口汇总
+     *
+     * @param queryDto 查询条件
+     * @return 交通统计数据列表，滚动统计未配置时返回null
+     * @throws BusinessException 业务异常
+     */
+    List<TrafficStatisticsVo> getWindowedTrafficStatistics(TrafficDataQueryDto queryDto) throws BusinessException;
+
+    /**
+     * 获取路口最近滑动窗口的交通流统计
+     *
+     * @param crossId 路口编号
+     * @return 交通统计数据，无数据时返回null
+     * @throws BusinessException 业务异常
+     */
+    TrafficStatisticsVo getRollingTrafficStatistics(String crossId) throws BusinessException;
+
     /**
      * 获取阶段交通流数据
      *
@@ -204,6 +225,20 @@ public interface TrafficDataService {
     List<CrossTrafficData> getCrossTrafficData(String crossId, String startTime, String endTime)
             throws BusinessException;
 
+    /**
+     * 按粒度统计指定时间段内的车道交通流数据
+     *
+     * @param crossId    路口编号
+     * @param startTime  开始时间
+     * @param endTime    结束时间
+     * @param resolution 统计粒度
+     * @param laneNo     车道序号，为null时统计路口全部车道
+     * @return 按时间桶升序的统计结果
+     * @throws BusinessException 业务异常
+     */
+    List<TrafficAggregate> getTrafficAggregates(String crossId, LocalDateTime startTime, LocalDateTime endTime,
+                                                AggregateResolution resolution, Integer laneNo) throws BusinessException;
+
     /**
      * 查询指定时间段内的路口周期数据
      *
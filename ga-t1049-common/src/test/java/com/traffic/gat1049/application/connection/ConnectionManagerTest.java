@@ -0,0 +1,56 @@
+package com.traffic.gat1049.application.connection;
+
+import com.traffic.gat1049.application.session.SessionManager;
+import org.junit.jupiter.api.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 连接状态管理器测试：Token索引随重新登录更新
+ */
+@DisplayName("连接状态管理器测试")
+class ConnectionManagerTest {
+
+    private ConnectionManager connectionManager;
+
+    @BeforeEach
+    void setUp() {
+        connectionManager = new ConnectionManager(new SessionManager());
+    }
+
+    @AfterEach
+    void tearDown() {
+        connectionManager.shutdown();
+    }
+
+    @Test
+    @DisplayName("同一连接重新登录后按新Token定位，旧Token失效")
+    void testReloginReplacesToken() {
+        connectionManager.registerConnection("client-1", "token-old");
+        connectionManager.registerConnection("client-1", "token-new");
+
+        assertEquals("token-new", connectionManager.getToken("client-1"));
+        assertEquals("client-1", connectionManager.getClientId("token-new"));
+        assertNull(connectionManager.getClientId("token-old"));
+    }
+
+    @Test
+    @DisplayName("相同Token重复注册不影响索引")
+    void testRepeatedRegistration() {
+        connectionManager.registerConnection("client-1", "token-1");
+        connectionManager.registerConnection("client-1", "token-1");
+
+        assertEquals("client-1", connectionManager.getClientId("token-1"));
+        assertEquals(1, connectionManager.getOnlineConnectionCount());
+    }
+
+    @Test
+    @DisplayName("注销连接后Token索引同时移除")
+    void testUnregisterRemovesIndex() {
+        connectionManager.registerConnection("client-1", "token-1");
+        connectionManager.unregisterConnection("client-1");
+
+        assertNull(connectionManager.getClientId("token-1"));
+        assertFalse(connectionManager.isOnline("client-1"));
+    }
+}
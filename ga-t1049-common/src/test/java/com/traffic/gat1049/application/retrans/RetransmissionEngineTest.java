@@ -0,0 +1,225 @@
+package com.traffic.gat1049.application.retrans;
+
+import com.traffic.gat1049.exception.BusinessException;
+import com.traffic.gat1049.service.interfaces.RunInfoRetransService.RetransTaskInfo;
+import com.traffic.gat1049.service.interfaces.RunInfoRetransService.RetransTaskStatus;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.lang.reflect.Field;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 重传引擎测试：检查点恢复、路口失败重试、推送失败不推进进度，以及部分失败时保留和放弃检查点
+ */
+@DisplayName("重传引擎检查点测试")
+class RetransmissionEngineTest {
+
+    private static final String OBJ_NAME = "CrossCycle";
+    private static final String TASK_ID = "RETRANS_TEST";
+
+    @TempDir
+    Path checkpointDir;
+
+    private RetransmissionEngine engine;
+
+    // 已读取的分片 "路口编号@分片起始时间"
+    private final List<String> reads = Collections.synchronizedList(new ArrayList<>());
+    private final Set<String> failingCrosses = ConcurrentHashMap.newKeySet();
+
+    @AfterEach
+    void tearDown() {
+        if (engine != null) {
+            engine.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("从检查点恢复：已完成路口跳过，未完成路口从游标之后继续")
+    void testResumeFromCheckpoint() throws Exception {
+        RetransCheckpoint checkpoint = new RetransCheckpoint();
+        checkpoint.setTaskId(TASK_ID);
+        checkpoint.setObjName(OBJ_NAME);
+        checkpoint.setStartTime("20240115080000");
+        checkpoint.setEndTime("20240115105959");
+        checkpoint.setCrossIds(new ArrayList<>(Arrays.asList("A", "B")));
+        checkpoint.getCompletedCrossIds().add("A");
+        checkpoint.getCursors().put("B", "20240115085959");
+        new RetransCheckpointStore(checkpointDir).save(checkpoint);
+
+        engine = newEngine();
+        List<RetransTaskInfo> restored = engine.resume(this::read, this::push);
+        assertEquals(1, restored.size());
+        RetransTaskInfo taskInfo = restored.get(0);
+        assertEquals(1, taskInfo.getCompletedCount());
+
+        awaitFinished(taskInfo);
+        assertEquals(RetransTaskStatus.COMPLETED, taskInfo.getStatus());
+        assertEquals(Arrays.asList("B@20240115090000", "B@20240115100000"), reads);
+        assertEquals(2, taskInfo.getCompletedCount());
+        assertFalse(Files.exists(checkpointFile()));
+    }
+
+    @Test
+    @DisplayName("路口持续失败时任务以FAILED结束并保留检查点，重启后只重试失败路口")
+    void testFailedCrossKeptInCheckpoint() throws Exception {
+        failingCrosses.add("B");
+        engine = newEngine();
+        RetransTaskInfo taskInfo = newTask("A", "B");
+        engine.submit(taskInfo, this::read, this::push);
+
+        awaitFinished(taskInfo);
+        assertEquals(RetransTaskStatus.FAILED, taskInfo.getStatus());
+        assertEquals(1, taskInfo.getCompletedCount());
+        assertEquals(3, reads.stream().filter("B@20240115080000"::equals).count());
+        assertEquals(1, engine.getStats().getFailedCrosses());
+        assertTrue(Files.exists(checkpointFile()));
+
+        // 重启后只重试失败的路口
+        engine.shutdown();
+        reads.clear();
+        failingCrosses.clear();
+        engine = newEngine();
+        List<RetransTaskInfo> restored = engine.resume(this::read, this::push);
+        assertEquals(1, restored.size());
+
+        awaitFinished(restored.get(0));
+        assertEquals(RetransTaskStatus.COMPLETED, restored.get(0).getStatus());
+        assertTrue(reads.stream().allMatch(read -> read.startsWith("B@")));
+        assertFalse(Files.exists(checkpointFile()));
+    }
+
+    @Test
+    @DisplayName("路口偶发失败时重试后完成")
+    void testTransientCrossFailureRetried() throws Exception {
+        failingCrosses.add("B");
+        engine = newEngine();
+        RetransTaskInfo taskInfo = newTask("A", "B");
+        engine.submit(taskInfo, (objName, crossId, startTime, endTime) -> {
+            try {
+                return read(objName, crossId, startTime, endTime);
+            } finally {
+                // 只失败一次
+                failingCrosses.remove(crossId);
+            }
+        }, this::push);
+
+        awaitFinished(taskInfo);
+        assertEquals(RetransTaskStatus.COMPLETED, taskInfo.getStatus());
+        assertEquals(2, taskInfo.getCompletedCount());
+        assertEquals(1, engine.getStats().getRetriedCrosses());
+        assertFalse(Files.exists(checkpointFile()));
+    }
+
+    @Test
+    @DisplayName("推送失败时不推进游标，重试从失败的分片开始")
+    void testPushFailureKeepsCursor() throws Exception {
+        engine = newEngine();
+        RetransTaskInfo taskInfo = newTask("A");
+        Set<Object> failedOnce = ConcurrentHashMap.newKeySet();
+        List<Object> pushed = Collections.synchronizedList(new ArrayList<>());
+        engine.submit(taskInfo, this::read, (objName, record) -> {
+            // 第二个分片的记录第一次推送失败
+            if (record.equals("A-20240115090000") && failedOnce.add(record)) {
+                throw new BusinessException("no subscriber");
+            }
+            pushed.add(record);
+        });
+
+        awaitFinished(taskInfo);
+        assertEquals(RetransTaskStatus.COMPLETED, taskInfo.getStatus());
+        assertEquals(Arrays.asList("A@20240115080000", "A@20240115090000", "A@20240115090000"), reads);
+        assertEquals(Arrays.asList("A-20240115080000", "A-20240115090000"), pushed);
+        assertEquals(1, engine.getStats().getFailedPushes());
+        assertEquals(1, engine.getStats().getRetriedCrosses());
+    }
+
+    @Test
+    @DisplayName("任务累计失败次数达到上限后删除检查点，不再恢复")
+    void testFailedCheckpointRetired() throws Exception {
+        failingCrosses.add("B");
+        engine = newEngine();
+        setField(engine, "maxFailedRuns", 2);
+        RetransTaskInfo taskInfo = newTask("A", "B");
+        engine.submit(taskInfo, this::read, this::push);
+        awaitFinished(taskInfo);
+        assertEquals(RetransTaskStatus.FAILED, taskInfo.getStatus());
+        assertTrue(Files.exists(checkpointFile()));
+
+        // 重启后仍失败，达到上限
+        engine.shutdown();
+        engine = newEngine();
+        setField(engine, "maxFailedRuns", 2);
+        List<RetransTaskInfo> restored = engine.resume(this::read, this::push);
+        assertEquals(1, restored.size());
+        awaitFinished(restored.get(0));
+        assertEquals(RetransTaskStatus.FAILED, restored.get(0).getStatus());
+        assertEquals(1, engine.getStats().getRetiredTasks());
+        assertFalse(Files.exists(checkpointFile()));
+
+        engine.shutdown();
+        engine = newEngine();
+        assertTrue(engine.resume(this::read, this::push).isEmpty());
+    }
+
+    private List<?> read(String objName, String crossId, String startTime, String endTime) throws BusinessException {
+        reads.add(crossId + "@" + startTime);
+        if (failingCrosses.contains(crossId)) {
+            throw new BusinessException("history read failed: " + crossId);
+        }
+        return Arrays.asList(crossId + "-" + startTime);
+    }
+
+    private void push(String objName, Object record) {
+    }
+
+    private RetransmissionEngine newEngine() throws Exception {
+        RetransmissionEngine created = new RetransmissionEngine();
+        setField(created, "taskParallelism", 1);
+        setField(created, "maxPushPerSecond", 0);
+        setField(created, "checkpointDir", checkpointDir.toString());
+        setField(created, "checkpointIntervalMillis", 0L);
+        created.initialize();
+        return created;
+    }
+
+    private static RetransTaskInfo newTask(String... crossIds) {
+        RetransTaskInfo taskInfo = new RetransTaskInfo(TASK_ID, OBJ_NAME, RetransTaskStatus.PENDING);
+        taskInfo.setStartTime("20240115080000");
+        taskInfo.setEndTime("20240115095959");
+        taskInfo.setCrossIds(new ArrayList<>(Arrays.asList(crossIds)));
+        taskInfo.setTotalCount(crossIds.length);
+        return taskInfo;
+    }
+
+    private Path checkpointFile() {
+        return checkpointDir.resolve(TASK_ID + ".checkpoint");
+    }
+
+    private static void awaitFinished(RetransTaskInfo taskInfo) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (taskInfo.getStatus() == RetransTaskStatus.RUNNING || taskInfo.getStatus() == RetransTaskStatus.PENDING) {
+            assertTrue(System.currentTimeMillis() < deadline, "重传任务未在5秒内结束");
+            Thread.sleep(10);
+        }
+    }
+
+    private static void setField(Object target, String name, Object value) throws Exception {
+        Field field = target.getClass().getDeclaredField(name);
+        field.setAccessible(true);
+        if (field.getType() == double.class) {
+            field.setDouble(target, ((Number) value).doubleValue());
+        } else {
+            field.set(target, value);
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.traffic.gat1049.application.state;
+
+import com.traffic.gat1049.model.enums.SystemState;
+import com.traffic.gat1049.protocol.model.runtime.CrossState;
+import org.junit.jupiter.api.*;
+
+import java.lang.reflect.Field;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 路口实时状态存储测试：过期快照不再返回并被清理，路口数超过上限时淘汰最久未更新的路口
+ */
+@DisplayName("路口实时状态存储测试")
+class LiveStateStoreTest {
+
+    @Test
+    @DisplayName("超过存活时间未更新的路口不再返回")
+    void testExpiredSnapshotIgnored() throws Exception {
+        LiveStateStore store = newStore(1, 100);
+        store.updateCrossState(new CrossState("C1", SystemState.ONLINE));
+        assertNotNull(store.get("C1", LiveStateStore.Snapshot::getCrossState));
+
+        Thread.sleep(1100);
+        CrossState fallback = new CrossState("C1", SystemState.OFFLINE);
+        List<CrossState> merged = store.overlay(Arrays.asList(fallback), CrossState::getCrossId,
+                LiveStateStore.Snapshot::getCrossState);
+        assertSame(fallback, merged.get(0));
+        assertNull(store.get("C1", LiveStateStore.Snapshot::getCrossState));
+        assertEquals(0, store.size());
+        assertEquals(1, store.getStats().getExpiredCount());
+    }
+
+    @Test
+    @DisplayName("定期清理移除过期路口")
+    void testRemoveExpired() throws Exception {
+        LiveStateStore store = newStore(1, 100);
+        store.updateCrossState(new CrossState("C1", SystemState.ONLINE));
+        store.updateCrossState(new CrossState("C2", SystemState.ONLINE));
+
+        Thread.sleep(1100);
+        store.updateCrossState(new CrossState("C2", SystemState.ONLINE));
+        assertEquals(1, store.removeExpired());
+        assertNull(store.getSnapshot("C1"));
+        assertNotNull(store.getSnapshot("C2"));
+    }
+
+    @Test
+    @DisplayName("路口数超过上限时淘汰最久未更新的路口")
+    void testMaxCrosses() throws Exception {
+        LiveStateStore store = newStore(0, 2);
+        store.updateCrossState(new CrossState("C1", SystemState.ONLINE));
+        Thread.sleep(5);
+        store.updateCrossState(new CrossState("C2", SystemState.ONLINE));
+        Thread.sleep(5);
+        // 更新已有路口不触发淘汰
+        store.updateCrossState(new CrossState("C1", SystemState.OFFLINE));
+        Thread.sleep(5);
+        store.updateCrossState(new CrossState("C3", SystemState.ONLINE));
+
+        assertEquals(2, store.size());
+        assertNull(store.getSnapshot("C2"));
+        assertNotNull(store.getSnapshot("C1"));
+        assertNotNull(store.getSnapshot("C3"));
+        assertEquals(1, store.getStats().getEvictionCount());
+    }
+
+    private static LiveStateStore newStore(long ttlSeconds, int maxCrosses) throws Exception {
+        LiveStateStore store = new LiveStateStore();
+        setField(store, "ttlSeconds", ttlSeconds);
+        setField(store, "maxCrosses", maxCrosses);
+        return store;
+    }
+
+    private static void setField(Object target, String name, Object value) throws Exception {
+        Field field = target.getClass().getDeclaredField(name);
+        field.setAccessible(true);
+        field.set(target, value);
+    }
+}
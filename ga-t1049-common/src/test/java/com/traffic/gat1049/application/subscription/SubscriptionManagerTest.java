@@ -0,0 +1,175 @@
+package com.traffic.gat1049.application.subscription;
+
+import com.traffic.gat1049.protocol.builder.MessageBuilder;
+import com.traffic.gat1049.protocol.model.command.TSCCmd;
+import com.traffic.gat1049.protocol.model.core.Message;
+import com.traffic.gat1049.protocol.model.runtime.CrossCycle;
+import com.traffic.gat1049.protocol.model.runtime.CrossStage;
+import com.traffic.gat1049.protocol.model.sdo.SdoMsgEntity;
+import org.junit.jupiter.api.*;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * SubscriptionManager 倒排索引测试：通配符匹配、去重、增量维护，结果与逐条比对一致
+ */
+@DisplayName("订阅管理器索引测试")
+class SubscriptionManagerTest {
+
+    private SubscriptionManager manager;
+
+    @BeforeEach
+    void setUp() {
+        manager = new SubscriptionManager();
+    }
+
+    @Test
+    @DisplayName("精确订阅与各位置通配符订阅均能匹配")
+    void testWildcardMatching() {
+        manager.subscribe("exact", new SdoMsgEntity("PUSH", "Notify", "CrossCycle"));
+        manager.subscribe("all", new SdoMsgEntity("*", "*", "*"));
+        manager.subscribe("anyOper", new SdoMsgEntity("PUSH", "*", "CrossCycle"));
+        manager.subscribe("anyObj", new SdoMsgEntity("PUSH", "Notify", "*"));
+        manager.subscribe("otherObj", new SdoMsgEntity("PUSH", "Notify", "CrossStage"));
+        manager.subscribe("otherType", new SdoMsgEntity("REQUEST", "Notify", "CrossCycle"));
+
+        assertEquals(new HashSet<>(Arrays.asList("exact", "all", "anyOper", "anyObj")),
+                manager.findSubscribers(push(cycle())));
+        assertEquals(new HashSet<>(Arrays.asList("all", "anyObj", "otherObj")),
+                manager.findSubscribers(push(new CrossStage("11010000100001", 1, 30, 2, "2025-01-01 08:00:30", 0))));
+    }
+
+    @Test
+    @DisplayName("TSCCmd 按其查询的对象名称匹配")
+    void testTscCmdObjectName() {
+        manager.subscribe("cycleQuery", new SdoMsgEntity("REQUEST", "Get", "CrossCycle"));
+        manager.subscribe("cmdQuery", new SdoMsgEntity("REQUEST", "Get", "TSCCmd"));
+
+        Message request = MessageBuilder.create().request().fromTicp().toUtcs()
+                .get(new TSCCmd("CrossCycle", "11010000100001")).build();
+        assertEquals(Collections.singleton("cycleQuery"), manager.findSubscribers(request));
+    }
+
+    @Test
+    @DisplayName("同一令牌多条订阅命中时只推送一次")
+    void testTokenPushedOnce() {
+        manager.subscribe("token-1", new SdoMsgEntity("PUSH", "Notify", "CrossCycle"));
+        manager.subscribe("token-1", new SdoMsgEntity("*", "*", "*"));
+        manager.subscribe("token-2", new SdoMsgEntity("PUSH", "*", "*"));
+
+        Map<String, AtomicInteger> pushed = new HashMap<>();
+        manager.setPushCallback((token, message) ->
+                pushed.computeIfAbsent(token, k -> new AtomicInteger()).incrementAndGet());
+
+        assertEquals(2, manager.pushMessage(push(cycle())));
+        assertEquals(1, pushed.get("token-1").get());
+        assertEquals(1, pushed.get("token-2").get());
+    }
+
+    @Test
+    @DisplayName("批量推送回调一次收到全部订阅者")
+    void testFanoutCallback() {
+        manager.subscribe("token-1", new SdoMsgEntity("PUSH", "Notify", "CrossCycle"));
+        manager.subscribe("token-2", new SdoMsgEntity("PUSH", "Notify", "*"));
+
+        List<Set<String>> batches = new ArrayList<>();
+        manager.setPushCallback((token, message) -> fail("设置批量回调后不应逐个推送"));
+        manager.setFanoutCallback((tokens, message) -> batches.add(new HashSet<>(tokens)));
+
+        assertEquals(2, manager.pushMessage(push(cycle())));
+        assertEquals(1, batches.size());
+        assertEquals(new HashSet<>(Arrays.asList("token-1", "token-2")), batches.get(0));
+    }
+
+    @Test
+    @DisplayName("取消订阅、清理订阅后索引同步更新，重复订阅不重复计数")
+    void testIndexMaintenance() {
+        SdoMsgEntity cycleSub = new SdoMsgEntity("PUSH", "Notify", "CrossCycle");
+        AtomicInteger listenerCalls = new AtomicInteger();
+        manager.addSubscribeListener(listenerCalls::incrementAndGet);
+
+        assertTrue(manager.subscribe("token-1", cycleSub));
+        assertTrue(manager.subscribe("token-1", new SdoMsgEntity("PUSH", "Notify", "CrossCycle")));
+        assertEquals(1, manager.getSubscriptionCount());
+        assertEquals(1, listenerCalls.get());
+
+        manager.subscribe("token-2", cycleSub);
+        manager.subscribe("token-2", new SdoMsgEntity("*", "*", "*"));
+
+        assertTrue(manager.unsubscribe("token-1", new SdoMsgEntity("PUSH", "Notify", "CrossCycle")));
+        assertFalse(manager.unsubscribe("token-1", cycleSub));
+        assertEquals(Collections.singleton("token-2"), manager.findSubscribers(push(cycle())));
+
+        manager.clearSubscriptions("token-2");
+        assertTrue(manager.findSubscribers(push(cycle())).isEmpty());
+        assertEquals(0, manager.getSubscriptionCount());
+    }
+
+    @Test
+    @DisplayName("随机订阅下索引结果与逐条比对一致")
+    void testMatchesLinearScan() {
+        String[] types = {"PUSH", "REQUEST", "*"};
+        String[] opers = {"Notify", "Get", "*"};
+        String[] objs = {"CrossCycle", "CrossStage", "SignalControllerError", "*"};
+        Random random = new Random(1049);
+
+        Map<String, List<SdoMsgEntity>> all = new HashMap<>();
+        for (int i = 0; i < 500; i++) {
+            String token = "token-" + random.nextInt(200);
+            SdoMsgEntity subscription = new SdoMsgEntity(types[random.nextInt(types.length)],
+                    opers[random.nextInt(opers.length)], objs[random.nextInt(objs.length)]);
+            manager.subscribe(token, subscription);
+            all.computeIfAbsent(token, k -> new ArrayList<>()).add(subscription);
+        }
+        for (int i = 0; i < 50; i++) {
+            String token = "token-" + random.nextInt(200);
+            List<SdoMsgEntity> subscriptions = all.get(token);
+            if (subscriptions != null && !subscriptions.isEmpty()) {
+                SdoMsgEntity removed = subscriptions.remove(0);
+                manager.unsubscribe(token, removed);
+                subscriptions.removeIf(s -> s.getMsgType().equals(removed.getMsgType())
+                        && s.getOperName().equals(removed.getOperName())
+                        && s.getObjName().equals(removed.getObjName()));
+            }
+        }
+
+        Message cyclePush = push(cycle());
+        Message stageRequest = MessageBuilder.create().request().fromTicp().toUtcs()
+                .get(new TSCCmd("CrossStage", "11010000100001")).build();
+        assertEquals(linearScan(all, "PUSH", "Notify", "CrossCycle"), manager.findSubscribers(cyclePush));
+        assertEquals(linearScan(all, "REQUEST", "Get", "CrossStage"), manager.findSubscribers(stageRequest));
+    }
+
+    private static Set<String> linearScan(Map<String, List<SdoMsgEntity>> all, String type, String oper, String obj) {
+        Set<String> tokens = new HashSet<>();
+        all.forEach((token, subscriptions) -> {
+            for (SdoMsgEntity s : subscriptions) {
+                if (matches(s.getMsgType(), type) && matches(s.getOperName(), oper) && matches(s.getObjName(), obj)) {
+                    tokens.add(token);
+                }
+            }
+        });
+        return tokens;
+    }
+
+    private static boolean matches(String pattern, String value) {
+        return "*".equals(pattern) || pattern.equals(value);
+    }
+
+    private static CrossCycle cycle() {
+        return new CrossCycle("11010000100001", "2025-01-01 08:00:00", 120, 1);
+    }
+
+    private static Message push(Object data) {
+        return MessageBuilder.create()
+                .push()
+                .fromUtcs()
+                .toTicp()
+                .token("token-1")
+                .notify(data)
+                .build();
+    }
+}
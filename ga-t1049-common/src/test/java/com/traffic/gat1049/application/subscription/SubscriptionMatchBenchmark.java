@@ -0,0 +1,91 @@
+package com.traffic.gat1049.application.subscription;
+
+import com.traffic.gat1049.protocol.builder.MessageBuilder;
+import com.traffic.gat1049.protocol.model.core.Message;
+import com.traffic.gat1049.protocol.model.runtime.CrossCycle;
+import com.traffic.gat1049.protocol.model.sdo.SdoMsgEntity;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 订阅匹配基准测试：倒排索引与逐个令牌遍历订阅列表对比
+ * 订阅按固定种子随机生成，约一成为通配订阅；直接运行 main 即可
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SubscriptionMatchBenchmark {
+
+    private static final String[] OBJECT_NAMES = {
+            "CrossCycle", "CrossStage", "CrossSignalGroupStatus", "CrossTrafficData",
+            "SignalControllerError", "CrossModePlan", "StageTrafficData", "VarLaneStatus"
+    };
+
+    @Param({"1000", "10000"})
+    public int subscriptionCount;
+
+    private SubscriptionManager manager;
+    private Map<String, List<SdoMsgEntity>> subscriptions;
+    private Message message;
+
+    @Setup
+    public void setUp() {
+        manager = new SubscriptionManager();
+        subscriptions = new HashMap<>();
+        Random random = new Random(1049);
+        int tokens = Math.max(1, subscriptionCount / 10);
+        for (int i = 0; i < subscriptionCount; i++) {
+            String token = "token-" + random.nextInt(tokens);
+            boolean wildcard = random.nextInt(10) == 0;
+            SdoMsgEntity subscription = new SdoMsgEntity("PUSH", "Notify",
+                    wildcard ? "*" : OBJECT_NAMES[random.nextInt(OBJECT_NAMES.length)]);
+            manager.subscribe(token, subscription);
+            subscriptions.computeIfAbsent(token, k -> new ArrayList<>()).add(subscription);
+        }
+        message = MessageBuilder.create()
+                .push()
+                .fromUtcs()
+                .toTicp()
+                .notify(new CrossCycle("11010000100001", "2025-01-01 08:00:00", 120, 1))
+                .build();
+    }
+
+    @Benchmark
+    public Set<String> indexed() {
+        return manager.findSubscribers(message);
+    }
+
+    @Benchmark
+    public Set<String> linearScan() {
+        Set<String> tokens = new LinkedHashSet<>();
+        for (Map.Entry<String, List<SdoMsgEntity>> entry : subscriptions.entrySet()) {
+            for (SdoMsgEntity subscription : entry.getValue()) {
+                if (matches(subscription.getMsgType(), "PUSH")
+                        && matches(subscription.getOperName(), "Notify")
+                        && matches(subscription.getObjName(), "CrossCycle")) {
+                    tokens.add(entry.getKey());
+                    break;
+                }
+            }
+        }
+        return tokens;
+    }
+
+    private static boolean matches(String pattern, String value) {
+        return "*".equals(pattern) || pattern.equals(value);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(SubscriptionMatchBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
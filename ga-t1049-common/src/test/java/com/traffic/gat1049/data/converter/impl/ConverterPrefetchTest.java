@@ -0,0 +1,161 @@
+package com.traffic.gat1049.data.converter.impl;
+
+import com.traffic.gat1049.protocol.model.signal.SignalGroupParam;
+import com.traffic.gat1049.protocol.model.signal.StageParam;
+import com.traffic.gat1049.repository.entity.SignalGroupLampGroupEntity;
+import com.traffic.gat1049.repository.entity.SignalGroupParamEntity;
+import com.traffic.gat1049.repository.entity.StageParamEntity;
+import com.traffic.gat1049.repository.entity.StageSignalGroupStatusEntity;
+import com.traffic.gat1049.repository.interfaces.SignalGroupLampGroupRepository;
+import com.traffic.gat1049.repository.interfaces.StageSignalGroupStatusRepository;
+import org.junit.jupiter.api.*;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 转换器关联数据预取测试：批量转换只发起分批 IN 查询，不再逐个实体查询关联表
+ */
+@DisplayName("转换器关联数据预取测试")
+class ConverterPrefetchTest {
+
+    private final List<List<String>> inQueries = new ArrayList<>();
+
+    @Test
+    @DisplayName("信号组批量转换一次 IN 查询取回灯组关联并按信号组匹配")
+    void testSignalGroupPrefetch() throws Exception {
+        List<SignalGroupLampGroupEntity> rows = Arrays.asList(
+                new SignalGroupLampGroupEntity("11010000100001", 1, 1),
+                new SignalGroupLampGroupEntity("11010000100001", 1, 2),
+                new SignalGroupLampGroupEntity("11010000100001", 2, 3),
+                new SignalGroupLampGroupEntity("11010000100002", 1, 5));
+        SignalGroupParamConverter converter = new SignalGroupParamConverter();
+        setField(converter, "signalGroupLampGroupRepository", lampGroupRepository(rows));
+
+        List<SignalGroupParam> result = converter.toProtocolList(Arrays.asList(
+                new SignalGroupParamEntity("11010000100001", 1),
+                new SignalGroupParamEntity("11010000100001", 2),
+                new SignalGroupParamEntity("11010000100002", 1),
+                new SignalGroupParamEntity("11010000100002", 2)));
+
+        assertEquals(1, inQueries.size(), "应只发起一次批量查询");
+        assertEquals(Arrays.asList("11010000100001", "11010000100002"), inQueries.get(0));
+        assertEquals(Arrays.asList(1, 2), result.get(0).getLampGroupNoList());
+        assertEquals(Arrays.asList(3), result.get(1).getLampGroupNoList());
+        assertEquals(Arrays.asList(5), result.get(2).getLampGroupNoList());
+        assertTrue(result.get(3).getLampGroupNoList().isEmpty(), "无关联的信号组不应沿用占位数据");
+    }
+
+    @Test
+    @DisplayName("阶段批量转换一次 IN 查询取回信号组状态并按阶段匹配")
+    void testStagePrefetch() throws Exception {
+        List<StageSignalGroupStatusEntity> rows = Arrays.asList(
+                stageStatus("11010000100001", 1, 1, "21"),
+                stageStatus("11010000100001", 1, 2, "11"),
+                stageStatus("11010000100001", 2, 1, "11"));
+        StageParamConverter converter = new StageParamConverter();
+        setField(converter, "stageSignalGroupStatusRepository", stageStatusRepository(rows));
+
+        List<StageParam> result = converter.toProtocolList(Arrays.asList(
+                stage("11010000100001", 1), stage("11010000100001", 2), stage("11010000100001", 3)));
+
+        assertEquals(1, inQueries.size(), "应只发起一次批量查询");
+        assertEquals(Arrays.asList(1, 2), result.get(0).getSignalGroupStatusList().stream()
+                .map(s -> s.getSignalGroupNo()).collect(Collectors.toList()));
+        assertEquals("21", result.get(0).getSignalGroupStatusList().get(0).getLampStatus());
+        assertEquals(1, result.get(1).getSignalGroupStatusList().size());
+        assertTrue(result.get(2).getSignalGroupStatusList().isEmpty());
+    }
+
+    @Test
+    @DisplayName("键去重后按每批500个分批查询")
+    void testBatchedInQueries() throws Exception {
+        SignalGroupParamConverter converter = new SignalGroupParamConverter();
+        setField(converter, "signalGroupLampGroupRepository", lampGroupRepository(new ArrayList<>()));
+
+        List<SignalGroupParamEntity> entities = new ArrayList<>();
+        for (int i = 0; i < 1200; i++) {
+            String crossId = String.format("110100001%05d", i);
+            entities.add(new SignalGroupParamEntity(crossId, 1));
+            entities.add(new SignalGroupParamEntity(crossId, 2));
+        }
+        entities.add(new SignalGroupParamEntity(null, 1));
+
+        List<SignalGroupParam> result = converter.toProtocolList(entities);
+
+        assertEquals(entities.size(), result.size());
+        assertEquals(Arrays.asList(500, 500, 200),
+                inQueries.stream().map(List::size).collect(Collectors.toList()));
+        assertFalse(inQueries.stream().anyMatch(batch -> batch.contains(null)));
+    }
+
+    @Test
+    @DisplayName("关联表不可用时沿用逐个转换的占位输出")
+    void testWithoutRepository() {
+        List<SignalGroupParam> result = new SignalGroupParamConverter().toProtocolList(Arrays.asList(
+                new SignalGroupParamEntity("11010000100001", 3)));
+        assertEquals(Arrays.asList(3), result.get(0).getLampGroupNoList());
+    }
+
+    /**
+     * 只实现批量查询的灯组关联仓库，调用其他方法（含逐个查询）直接失败
+     */
+    private SignalGroupLampGroupRepository lampGroupRepository(List<SignalGroupLampGroupEntity> rows) {
+        return (SignalGroupLampGroupRepository) Proxy.newProxyInstance(
+                ConverterPrefetchTest.class.getClassLoader(),
+                new Class<?>[]{SignalGroupLampGroupRepository.class},
+                (proxy, method, args) -> {
+                    if ("findByCrossIds".equals(method.getName())) {
+                        @SuppressWarnings("unchecked")
+                        List<String> crossIds = (List<String>) args[0];
+                        inQueries.add(crossIds);
+                        return rows.stream().filter(r -> crossIds.contains(r.getCrossId())).collect(Collectors.toList());
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    private StageSignalGroupStatusRepository stageStatusRepository(List<StageSignalGroupStatusEntity> rows) {
+        return (StageSignalGroupStatusRepository) Proxy.newProxyInstance(
+                ConverterPrefetchTest.class.getClassLoader(),
+                new Class<?>[]{StageSignalGroupStatusRepository.class},
+                (proxy, method, args) -> {
+                    if ("findByCrossIds".equals(method.getName())) {
+                        @SuppressWarnings("unchecked")
+                        List<String> crossIds = (List<String>) args[0];
+                        inQueries.add(crossIds);
+                        return rows.stream().filter(r -> crossIds.contains(r.getCrossId())).collect(Collectors.toList());
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    private static StageParamEntity stage(String crossId, int stageNo) {
+        StageParamEntity entity = new StageParamEntity();
+        entity.setCrossId(crossId);
+        entity.setStageNo(stageNo);
+        entity.setStageName("阶段" + stageNo);
+        return entity;
+    }
+
+    private static StageSignalGroupStatusEntity stageStatus(String crossId, int stageNo, int signalGroupNo, String lampStatus) {
+        StageSignalGroupStatusEntity entity = new StageSignalGroupStatusEntity();
+        entity.setCrossId(crossId);
+        entity.setStageNo(stageNo);
+        entity.setSignalGroupNo(signalGroupNo);
+        entity.setLampStatus(lampStatus);
+        return entity;
+    }
+
+    private static void setField(Object target, String name, Object value) throws Exception {
+        Field field = target.getClass().getDeclaredField(name);
+        field.setAccessible(true);
+        field.set(target, value);
+    }
+}
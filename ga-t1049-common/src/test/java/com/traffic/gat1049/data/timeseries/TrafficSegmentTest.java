@@ -0,0 +1,146 @@
+package com.traffic.gat1049.data.timeseries;
+
+import com.traffic.gat1049.protocol.model.traffic.CrossTrafficData;
+import com.traffic.gat1049.protocol.model.traffic.LaneTrafficData;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 车道交通流时序段测试：追加、压缩、重新打开后数据一致
+ */
+@DisplayName("交通流时序段测试")
+class TrafficSegmentTest {
+
+    private static final LocalDate DAY = LocalDate.of(2024, 1, 15);
+    private static final String CROSS_ID = "11010000100001";
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    @DisplayName("追加后重新打开，已提交的行全部保留")
+    void testAppendAndReopen() throws Exception {
+        Path file = tempDir.resolve("segment.seg");
+        try (TrafficSegment segment = TrafficSegment.open(file, DAY, CROSS_ID, 4)) {
+            // 跨块追加，乱序时刻
+            assertTrue(segment.append(600, 300, lanes(3, 10)));
+            assertTrue(segment.append(300, 300, lanes(3, 20)));
+            assertEquals(6, segment.getRowCount());
+        }
+
+        try (TrafficSegment reopened = TrafficSegment.open(file, DAY, CROSS_ID, 16)) {
+            assertEquals(6, reopened.getRowCount());
+            assertFalse(reopened.isSorted());
+            assertEquals(Arrays.asList(300, 300, 300), seconds(reopened, 0, 400));
+            assertEquals(11, reopened.getInt(1, TrafficSegment.COL_VOLUME));
+        }
+    }
+
+    @Test
+    @DisplayName("压缩后按时刻和车道排序，重新打开仍为有序单块")
+    void testCompactAndReopen() throws Exception {
+        Path file = tempDir.resolve("segment.seg");
+        TrafficSegment segment = TrafficSegment.open(file, DAY, CROSS_ID, 4);
+        segment.append(900, 300, lanes(2, 30));
+        segment.append(300, 300, lanes(2, 10));
+        segment.append(600, 300, lanes(2, 20));
+
+        assertEquals(6, segment.compactTo(tempDir.resolve("segment.seg.tmp")));
+        assertTrue(segment.isClosed());
+        assertFalse(segment.append(1200, 300, lanes(1, 40)));
+        assertFalse(Files.exists(tempDir.resolve("segment.seg.tmp")));
+        assertEquals(TrafficSegment.FLAG_SORTED, TrafficSegment.readFlags(file));
+        assertEquals(TrafficSegment.HEADER_SIZE + 6L * TrafficSegment.ROW_WIDTH, Files.size(file));
+
+        try (TrafficSegment reopened = TrafficSegment.open(file, DAY, CROSS_ID, 4)) {
+            assertTrue(reopened.isSorted());
+            assertEquals(Arrays.asList(300, 300, 600, 600, 900, 900), seconds(reopened, 0, 86399));
+            assertEquals(Arrays.asList(600, 600), seconds(reopened, 400, 800));
+            assertEquals(2, reopened.getInt(1, TrafficSegment.COL_LANE_NO));
+            assertEquals(21, reopened.getInt(3, TrafficSegment.COL_VOLUME));
+
+            // 压缩后收到迟到数据，取消有序标志，改为全量扫描
+            assertTrue(reopened.append(100, 300, lanes(1, 5)));
+            assertFalse(reopened.isSorted());
+            assertEquals(Arrays.asList(300, 300, 100), seconds(reopened, 0, 300));
+        }
+        assertEquals(0, TrafficSegment.readFlags(file));
+    }
+
+    @Test
+    @DisplayName("压缩空段时删除文件")
+    void testCompactEmptySegment() throws Exception {
+        Path file = tempDir.resolve("segment.seg");
+        TrafficSegment segment = TrafficSegment.open(file, DAY, CROSS_ID, 4);
+        assertEquals(0, segment.compactTo(tempDir.resolve("segment.seg.tmp")));
+        assertFalse(Files.exists(file));
+        assertEquals(-1, segment.compactTo(tempDir.resolve("segment.seg.tmp")));
+    }
+
+    @Test
+    @DisplayName("路口编号与段文件名可逆转换，特殊字符不会造成文件冲突")
+    void testSegmentFileNameRoundTrip() throws Exception {
+        for (String crossId : Arrays.asList(CROSS_ID, "1101/01", "1101_01", "路口%01", "a b")) {
+            String name = MappedTrafficTimeSeriesStore.encodeFileName(crossId);
+            assertTrue(name.matches("[A-Za-z0-9_%-]+"), name);
+            assertEquals(crossId, MappedTrafficTimeSeriesStore.decodeFileName(name));
+        }
+        assertEquals(CROSS_ID, MappedTrafficTimeSeriesStore.encodeFileName(CROSS_ID));
+        assertNotEquals(MappedTrafficTimeSeriesStore.encodeFileName("1101/01"),
+                MappedTrafficTimeSeriesStore.encodeFileName("1101_01"));
+
+        // 已结束日期的段在维护时压缩，压缩需由文件名还原路口编号
+        MappedTrafficTimeSeriesStore store = new MappedTrafficTimeSeriesStore(true, tempDir.toString(), 4, 0, 0, 60);
+        store.start();
+        LocalDateTime endTime = LocalDate.now().minusDays(1).atTime(8, 0);
+        store.append(trafficData("1101/01", endTime, 10));
+        store.append(trafficData("1101_01", endTime, 20));
+        store.runMaintenance();
+        assertEquals(2, store.getStats().getCompactedSegments());
+        store.close();
+
+        MappedTrafficTimeSeriesStore reopened = new MappedTrafficTimeSeriesStore(true, tempDir.toString(), 4, 0, 0, 60);
+        reopened.start();
+        try {
+            List<CrossTrafficData> slash = reopened.query("1101/01", endTime.minusHours(1), endTime.plusHours(1));
+            List<CrossTrafficData> underscore = reopened.query("1101_01", endTime.minusHours(1), endTime.plusHours(1));
+            assertEquals(1, slash.size());
+            assertEquals(1, underscore.size());
+            assertEquals(10, slash.get(0).getDataList().get(0).getVolume());
+            assertEquals(20, underscore.get(0).getDataList().get(0).getVolume());
+        } finally {
+            reopened.close();
+        }
+    }
+
+    private static List<LaneTrafficData> lanes(int count, int baseVolume) {
+        List<LaneTrafficData> lanes = new ArrayList<>();
+        for (int laneNo = 1; laneNo <= count; laneNo++) {
+            lanes.add(new LaneTrafficData(laneNo, baseVolume + laneNo - 1, 50));
+        }
+        return lanes;
+    }
+
+    private static CrossTrafficData trafficData(String crossId, LocalDateTime endTime, int volume) {
+        CrossTrafficData data = new CrossTrafficData(crossId, 300);
+        data.setEndTimeFromLocalDateTime(endTime);
+        data.setDataList(new ArrayList<>(Arrays.asList(new LaneTrafficData(1, volume, 50))));
+        return data;
+    }
+
+    private static List<Integer> seconds(TrafficSegment segment, int fromSecond, int toSecond) {
+        List<Integer> seconds = new ArrayList<>();
+        segment.scan(fromSecond, toSecond, row -> seconds.add(segment.getInt(row, TrafficSegment.COL_SECOND_OF_DAY)));
+        return seconds;
+    }
+}
@@ -0,0 +1,112 @@
+package com.traffic.gat1049.device.management;
+
+import com.traffic.gat1049.device.adapter.interfaces.SignalControllerAdapter;
+import com.traffic.gat1049.device.adapter.model.AdapterType;
+import com.traffic.gat1049.device.adapter.model.DeviceConnectionInfo;
+import com.traffic.gat1049.device.adapter.registry.AdapterInfo;
+import com.traffic.gat1049.device.adapter.registry.AdapterRegistry;
+import org.junit.jupiter.api.*;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Proxy;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 批量健康检查分组测试：按品牌和适配器实际探测的地址分组
+ */
+@DisplayName("批量健康检查分组测试")
+class BatchDeviceHealthCheckerTest {
+
+    private BatchDeviceHealthChecker checker;
+    private AdapterRegistry adapterRegistry;
+
+    private final Map<String, DeviceConnectionInfo> connections = new HashMap<>();
+    private final Map<String, String> brands = new HashMap<>();
+
+    @BeforeEach
+    void setUp() throws Exception {
+        adapterRegistry = new AdapterRegistry();
+        checker = new BatchDeviceHealthChecker();
+        Field field = BatchDeviceHealthChecker.class.getDeclaredField("adapterRegistry");
+        field.setAccessible(true);
+        field.set(checker, adapterRegistry);
+    }
+
+    @Test
+    @DisplayName("探测固定端口的适配器，同一服务端下不同端口的设备归为一组")
+    void testGroupByProbeAddress() {
+        adapterRegistry.register(adapter("WS", device -> device.getIpServer() + ":8080"));
+        addDevice("SC001", "WS", "10.0.0.1", "192.168.1.1", 5001);
+        addDevice("SC002", "WS", "10.0.0.1", "192.168.1.2", 5002);
+        addDevice("SC003", "WS", "10.0.0.2", "192.168.1.3", 5001);
+
+        assertEquals(new TreeSet<>(Arrays.asList("WS@10.0.0.1:8080", "WS@10.0.0.2:8080")), groupKeys());
+    }
+
+    @Test
+    @DisplayName("未注册适配器时按服务端地址加设备端口分组，品牌不同的设备不合并")
+    void testDefaultProbeAddress() {
+        addDevice("SC001", "A", "10.0.0.1", "192.168.1.1", 5001);
+        addDevice("SC002", "A", "10.0.0.1", "192.168.1.2", 5001);
+        addDevice("SC003", "A", null, "192.168.1.3", 5001);
+        addDevice("SC004", "B", "10.0.0.1", "192.168.1.4", 5001);
+
+        assertEquals(new TreeSet<>(Arrays.asList("A@10.0.0.1:5001", "A@192.168.1.3:5001", "B@10.0.0.1:5001")),
+                groupKeys());
+    }
+
+    @Test
+    @DisplayName("缺少品牌或连接信息的设备不参与分组")
+    void testUnknownDevicesSkipped() {
+        addDevice("SC001", "A", "10.0.0.1", "192.168.1.1", 5001);
+        brands.remove("SC001");
+
+        assertTrue(checker.groupDevices(Arrays.asList("SC001", "SC999"), connections, brands).isEmpty());
+    }
+
+    private Set<String> groupKeys() {
+        return new TreeSet<>(checker.groupDevices(connections.keySet(), connections, brands).keySet());
+    }
+
+    private void addDevice(String deviceId, String brand, String ipServer, String ipAddress, int port) {
+        connections.put(deviceId, DeviceConnectionInfo.builder()
+                .deviceId(deviceId)
+                .ipServer(ipServer)
+                .ipAddress(ipAddress)
+                .port(port)
+                .build());
+        brands.put(deviceId, brand);
+    }
+
+    /**
+     * 只实现分组用到的方法
+     */
+    private static SignalControllerAdapter<?> adapter(String brand,
+                                                      Function<DeviceConnectionInfo, String> probeAddress) {
+        AdapterInfo info = AdapterInfo.builder()
+                .brand(brand)
+                .adapterType(AdapterType.SIGNAL_CONTROLLER)
+                .version("1.0")
+                .build();
+        return (SignalControllerAdapter<?>) Proxy.newProxyInstance(
+                BatchDeviceHealthCheckerTest.class.getClassLoader(),
+                new Class<?>[]{SignalControllerAdapter.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "getAdapterInfo":
+                            return info;
+                        case "getProbeAddress":
+                            return probeAddress.apply((DeviceConnectionInfo) args[0]);
+                        default:
+                            throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+    }
+}
@@ -0,0 +1,119 @@
+package com.traffic.gat1049.device.management;
+
+import org.junit.jupiter.api.*;
+
+import java.lang.reflect.Field;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 设备熔断器测试：连续失败熔断、半开状态只放行一个试探请求、试探结果决定恢复或重新熔断
+ */
+@DisplayName("设备熔断器测试")
+class DeviceCircuitBreakerTest {
+
+    private static final String DEVICE = "SC001";
+
+    private DeviceCircuitBreaker breaker;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        breaker = new DeviceCircuitBreaker();
+        setField(breaker, "failureThreshold", 2);
+        setField(breaker, "openMs", 100L);
+    }
+
+    @Test
+    @DisplayName("连续失败达到阈值后熔断并拒绝请求")
+    void testTripAfterThreshold() {
+        breaker.recordFailure(DEVICE);
+        assertEquals(DeviceCircuitBreaker.State.CLOSED, breaker.getState(DEVICE));
+        assertTrue(breaker.allowRequest(DEVICE));
+
+        breaker.recordFailure(DEVICE);
+        assertEquals(DeviceCircuitBreaker.State.OPEN, breaker.getState(DEVICE));
+        assertTrue(breaker.isRejecting(DEVICE));
+        assertFalse(breaker.allowRequest(DEVICE));
+        assertEquals(1, breaker.getStats().getTrips());
+        assertEquals(1, breaker.getStats().getRejectedRequests());
+    }
+
+    @Test
+    @DisplayName("半开状态只放行一个试探请求")
+    void testHalfOpenSingleTrial() throws Exception {
+        trip();
+        Thread.sleep(150);
+        assertEquals(DeviceCircuitBreaker.State.HALF_OPEN, breaker.getState(DEVICE));
+        assertFalse(breaker.isRejecting(DEVICE));
+
+        assertTrue(breaker.allowRequest(DEVICE));
+        assertTrue(breaker.isRejecting(DEVICE));
+        assertFalse(breaker.allowRequest(DEVICE));
+        assertFalse(breaker.allowRequest(DEVICE));
+        assertEquals(1, breaker.getStats().getTrialRequests());
+    }
+
+    @Test
+    @DisplayName("试探成功后恢复")
+    void testTrialSuccessCloses() throws Exception {
+        trip();
+        Thread.sleep(150);
+        assertTrue(breaker.allowRequest(DEVICE));
+
+        breaker.recordRequestResult(DEVICE, true);
+        assertEquals(DeviceCircuitBreaker.State.CLOSED, breaker.getState(DEVICE));
+        assertTrue(breaker.allowRequest(DEVICE));
+        assertTrue(breaker.allowRequest(DEVICE));
+        assertEquals(1, breaker.getStats().getRecoveries());
+    }
+
+    @Test
+    @DisplayName("试探失败后重新熔断")
+    void testTrialFailureReopens() throws Exception {
+        trip();
+        Thread.sleep(150);
+        assertTrue(breaker.allowRequest(DEVICE));
+
+        breaker.recordRequestResult(DEVICE, false);
+        assertEquals(DeviceCircuitBreaker.State.OPEN, breaker.getState(DEVICE));
+        assertFalse(breaker.allowRequest(DEVICE));
+        assertEquals(2, breaker.getStats().getTrips());
+    }
+
+    @Test
+    @DisplayName("试探未上报结果时，超过熔断时间后允许重新试探")
+    void testTrialLeaseExpires() throws Exception {
+        trip();
+        Thread.sleep(150);
+        assertTrue(breaker.allowRequest(DEVICE));
+        assertFalse(breaker.allowRequest(DEVICE));
+
+        Thread.sleep(150);
+        assertTrue(breaker.allowRequest(DEVICE));
+        assertEquals(2, breaker.getStats().getTrialRequests());
+    }
+
+    @Test
+    @DisplayName("非试探请求的结果不影响熔断状态")
+    void testNonTrialResultIgnored() {
+        breaker.recordFailure(DEVICE);
+        breaker.recordRequestResult(DEVICE, false);
+        assertEquals(DeviceCircuitBreaker.State.CLOSED, breaker.getState(DEVICE));
+
+        trip();
+        breaker.recordRequestResult(DEVICE, true);
+        assertEquals(DeviceCircuitBreaker.State.OPEN, breaker.getState(DEVICE));
+    }
+
+    private void trip() {
+        breaker.recordFailure(DEVICE);
+        breaker.recordFailure(DEVICE);
+        assertEquals(DeviceCircuitBreaker.State.OPEN, breaker.getState(DEVICE));
+    }
+
+    private static void setField(Object target, String name, Object value) throws Exception {
+        Field field = target.getClass().getDeclaredField(name);
+        field.setAccessible(true);
+        field.set(target, value);
+    }
+}
@@ -0,0 +1,207 @@
+package com.traffic.gat1049.device.management;
+
+import org.junit.jupiter.api.*;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 设备调用调度器测试：并发许可与排队上限、同步任务的超时计时与许可释放
+ */
+@DisplayName("设备调用调度器测试")
+class DeviceIoSchedulerTest {
+
+    private DeviceIoScheduler scheduler;
+
+    @AfterEach
+    void tearDown() {
+        if (scheduler != null) {
+            scheduler.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("超出并发许可的调用排队，排队已满时拒绝")
+    void testAdmission() throws Exception {
+        scheduler = newScheduler(2, 2, 1);
+        List<CompletableFuture<String>> responses = new ArrayList<>();
+        List<CompletableFuture<String>> results = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            CompletableFuture<String> response = new CompletableFuture<>();
+            responses.add(response);
+            results.add(scheduler.submit(executor -> response, 5000));
+        }
+
+        assertEquals(2, scheduler.getStats().getInFlight());
+        assertEquals(2, scheduler.getStats().getPending());
+        ExecutionException rejected = assertThrows(ExecutionException.class, () -> results.get(4).get());
+        assertTrue(rejected.getCause() instanceof RejectedExecutionException);
+        assertEquals(1, scheduler.getStats().getRejectedCalls());
+
+        // 完成一个调用后排队的调用取得许可
+        responses.get(0).complete("ok");
+        assertEquals("ok", results.get(0).get(1, TimeUnit.SECONDS));
+        assertEquals(2, scheduler.getStats().getInFlight());
+        assertEquals(1, scheduler.getStats().getPending());
+    }
+
+    @Test
+    @DisplayName("同步任务的超时从开始执行时计算，等待阻塞线程的时间不计入")
+    void testTimeoutStartsWhenBlockingTaskRuns() throws Exception {
+        scheduler = newScheduler(10, 10, 1);
+        // 单个阻塞线程，第二个任务要等第一个执行完才开始，从提交算起已超过超时时间
+        CompletableFuture<String> first = scheduler.submit(executor ->
+                CompletableFuture.supplyAsync(() -> sleepAndReturn(150, "first"), executor), 250);
+        CompletableFuture<String> second = scheduler.submit(executor ->
+                CompletableFuture.supplyAsync(() -> sleepAndReturn(150, "second"), executor), 250);
+
+        assertEquals("first", first.get(2, TimeUnit.SECONDS));
+        assertEquals("second", second.get(2, TimeUnit.SECONDS));
+        assertEquals(0, scheduler.getStats().getTimedOutCalls());
+    }
+
+    @Test
+    @DisplayName("等待阻塞线程期间超时的任务不再执行")
+    void testExpiredBeforeStartSkipped() throws Exception {
+        scheduler = newScheduler(10, 10, 1);
+        CountDownLatch hold = new CountDownLatch(1);
+        AtomicBoolean secondRan = new AtomicBoolean();
+        CompletableFuture<Boolean> first = scheduler.submit(executor ->
+                CompletableFuture.supplyAsync(() -> await(hold), executor), 5000);
+        CompletableFuture<Boolean> second = scheduler.submit(executor ->
+                CompletableFuture.supplyAsync(() -> secondRan.getAndSet(true), executor), 100);
+
+        ExecutionException timeout = assertThrows(ExecutionException.class, () -> second.get(2, TimeUnit.SECONDS));
+        assertTrue(timeout.getCause() instanceof TimeoutException);
+
+        hold.countDown();
+        assertTrue(first.get(2, TimeUnit.SECONDS));
+        awaitInFlight(0);
+        assertFalse(secondRan.get());
+        assertEquals(1, scheduler.getStats().getExpiredBeforeStartCalls());
+    }
+
+    @Test
+    @DisplayName("同步任务超时后被中断，任务结束前不释放并发许可")
+    void testPermitHeldUntilBlockingTaskEnds() throws Exception {
+        scheduler = newScheduler(1, 10, 1);
+        CountDownLatch hold = new CountDownLatch(1);
+        AtomicBoolean interrupted = new AtomicBoolean();
+        CompletableFuture<Boolean> slow = scheduler.submit(executor -> CompletableFuture.supplyAsync(() -> {
+            // 模拟不响应中断的阻塞调用：记录中断后继续等待
+            while (true) {
+                try {
+                    return hold.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    interrupted.set(true);
+                }
+            }
+        }, executor), 100);
+        CompletableFuture<String> next = scheduler.submit(executor -> CompletableFuture.completedFuture("next"), 5000);
+
+        ExecutionException timeout = assertThrows(ExecutionException.class, () -> slow.get(2, TimeUnit.SECONDS));
+        assertTrue(timeout.getCause() instanceof TimeoutException);
+        assertTrue(interrupted.get());
+        assertFalse(next.isDone());
+        assertEquals(1, scheduler.getStats().getInFlight());
+
+        hold.countDown();
+        assertEquals("next", next.get(2, TimeUnit.SECONDS));
+        awaitInFlight(0);
+    }
+
+    @Test
+    @DisplayName("轮询使用的调用超时后，等阻塞任务结束才交付结果")
+    void testSubmitUntilReleased() throws Exception {
+        scheduler = newScheduler(10, 10, 1);
+        CountDownLatch hold = new CountDownLatch(1);
+        CompletableFuture<Boolean> polled = scheduler.submitUntilReleased(executor -> CompletableFuture.supplyAsync(() -> {
+            while (true) {
+                try {
+                    return hold.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    // 模拟不响应中断的阻塞调用
+                }
+            }
+        }, executor), 100);
+
+        Thread.sleep(300);
+        assertEquals(1, scheduler.getStats().getTimedOutCalls());
+        assertFalse(polled.isDone());
+
+        hold.countDown();
+        ExecutionException timeout = assertThrows(ExecutionException.class, () -> polled.get(2, TimeUnit.SECONDS));
+        assertTrue(timeout.getCause() instanceof TimeoutException);
+        assertEquals(0, scheduler.getStats().getInFlight());
+    }
+
+    @Test
+    @DisplayName("未配置阻塞线程数时按设备数、单次耗时和轮询周期计算")
+    void testBlockingThreadsSizedFromPollPeriod() throws Exception {
+        assertEquals(134, DeviceIoScheduler.requiredBlockingThreads(4000, 1000, 30000));
+        assertEquals(1, DeviceIoScheduler.requiredBlockingThreads(0, 1000, 30000));
+
+        scheduler = new DeviceIoScheduler();
+        setField(scheduler, "maxInFlight", 2000);
+        setField(scheduler, "maxPending", 100);
+        setField(scheduler, "blockingThreads", 0);
+        setField(scheduler, "expectedDevices", 4000);
+        setField(scheduler, "expectedLatencyMs", 1000L);
+        setField(scheduler, "statusPeriodMs", 30000L);
+        setField(scheduler, "timeoutMs", 5000L);
+        scheduler.initialize();
+        assertEquals(134, scheduler.getStats().getBlockingThreads());
+    }
+
+    private void awaitInFlight(int expected) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 2000;
+        while (scheduler.getStats().getInFlight() != expected) {
+            assertTrue(System.currentTimeMillis() < deadline, "并发许可未在2秒内释放");
+            Thread.sleep(10);
+        }
+    }
+
+    private static <T> T sleepAndReturn(long millis, T value) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return value;
+    }
+
+    private static boolean await(CountDownLatch latch) {
+        try {
+            return latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private static DeviceIoScheduler newScheduler(int maxInFlight, int maxPending, int blockingThreads) throws Exception {
+        DeviceIoScheduler created = new DeviceIoScheduler();
+        setField(created, "maxInFlight", maxInFlight);
+        setField(created, "maxPending", maxPending);
+        setField(created, "blockingThreads", blockingThreads);
+        setField(created, "timeoutMs", 5000L);
+        created.initialize();
+        return created;
+    }
+
+    private static void setField(Object target, String name, Object value) throws Exception {
+        Field field = target.getClass().getDeclaredField(name);
+        field.setAccessible(true);
+        field.set(target, value);
+    }
+}
@@ -0,0 +1,218 @@
+package com.traffic.gat1049.device.management;
+
+import org.junit.jupiter.api.*;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 设备轮询调度器测试：相位散列、未结束轮询跳过、按耗时和失败率调整间隔
+ * 时间轮由测试按刻度推进；注册时按真实时钟计算相位，起点取测试开始时刻
+ */
+@DisplayName("设备轮询调度器测试")
+class DevicePollSchedulerTest {
+
+    private static final long TICK_MS = 10;
+    private static final long PERIOD_MS = 1000;
+
+    private DevicePollScheduler scheduler;
+    private ScheduledExecutorService wheelExecutor;
+    private long start;
+    private long now;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        scheduler = new DevicePollScheduler();
+        setField(scheduler, "tickMs", TICK_MS);
+        setField(scheduler, "wheelSize", 512);
+        setField(scheduler, "refreshMs", 0L);
+        setField(scheduler, "maxIntervalMs", 10_000L);
+        setField(scheduler, "latencyFactor", 4.0);
+        wheelExecutor = Executors.newSingleThreadScheduledExecutor();
+        setField(scheduler, "wheelExecutor", wheelExecutor);
+        start = System.currentTimeMillis() / TICK_MS * TICK_MS;
+        now = start;
+        onWheel(() -> scheduler.initWheel(start));
+    }
+
+    @AfterEach
+    void tearDown() {
+        wheelExecutor.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("设备轮询时刻散列到整个周期内，编号相近的设备也不扎堆")
+    void testPhaseSpread() throws Exception {
+        List<String> devices = IntStream.rangeClosed(1, 200).mapToObj(i -> "C" + i).collect(Collectors.toList());
+        Map<String, Long> firedAt = new ConcurrentHashMap<>();
+        register(() -> devices, deviceId -> {
+            firedAt.putIfAbsent(deviceId, now);
+            return CompletableFuture.completedFuture(true);
+        });
+
+        advanceUntil(() -> firedAt.size() == 200);
+
+        // 周期分成10段，每段平均20台
+        int[] buckets = new int[10];
+        firedAt.values().forEach(time -> buckets[(int) ((time - start) % PERIOD_MS * 10 / PERIOD_MS)]++);
+        for (int count : buckets) {
+            assertTrue(count >= 8 && count <= 40, "相位分布不均: " + java.util.Arrays.toString(buckets));
+        }
+    }
+
+    @Test
+    @DisplayName("上一次轮询未结束时本轮跳过并计为超期")
+    void testOverrunSkipsDevice() throws Exception {
+        List<CompletableFuture<Boolean>> pending = new CopyOnWriteArrayList<>();
+        register(() -> List.of("C1"), deviceId -> {
+            CompletableFuture<Boolean> future = new CompletableFuture<>();
+            pending.add(future);
+            return future;
+        });
+
+        advanceUntil(() -> pending.size() == 1);
+        advanceTo(now + PERIOD_MS);
+        DevicePollScheduler.Stats stats = scheduler.getStats().get("status");
+        assertEquals(1, stats.getPolls());
+        assertEquals(1, stats.getOverruns());
+        assertEquals(1, stats.getInProgress());
+
+        pending.get(0).complete(true);
+        advanceTo(now + PERIOD_MS);
+        stats = scheduler.getStats().get("status");
+        assertEquals(2, stats.getPolls());
+        assertEquals(1, stats.getOverruns());
+    }
+
+    @Test
+    @DisplayName("设备在轮询中途移除又重新加入时不重复轮询")
+    void testReAddedDeviceNotPolledTwice() throws Exception {
+        Set<String> devices = ConcurrentHashMap.newKeySet();
+        devices.add("C1");
+        List<CompletableFuture<Boolean>> pending = new CopyOnWriteArrayList<>();
+        register(() -> new ArrayList<>(devices), deviceId -> {
+            CompletableFuture<Boolean> future = new CompletableFuture<>();
+            pending.add(future);
+            return future;
+        });
+
+        advanceUntil(() -> pending.size() == 1);
+
+        // 轮询未结束时设备下线再上线，新 PollEntry 重新按相位加入时间轮
+        devices.remove("C1");
+        advanceTo(now + TICK_MS);
+        assertNull(scheduler.getDeviceInterval("status", "C1"));
+        devices.add("C1");
+        advanceTo(now + TICK_MS);
+        assertNotNull(scheduler.getDeviceInterval("status", "C1"));
+
+        advanceTo(now + PERIOD_MS);
+        assertEquals(1, pending.size());
+        assertEquals(1, scheduler.getStats().get("status").getOverruns());
+
+        pending.get(0).complete(true);
+        advanceTo(now + PERIOD_MS);
+        assertEquals(2, pending.size());
+    }
+
+    @Test
+    @DisplayName("持续失败时间隔逐步放大，恢复后回落到基础周期")
+    void testIntervalBacksOffOnFailure() throws Exception {
+        boolean[] success = {false};
+        register(() -> List.of("C1"), deviceId -> CompletableFuture.completedFuture(success[0]));
+
+        advanceUntil(() -> scheduler.getStats().get("status").getPolls() == 1);
+        long previous = scheduler.getDeviceInterval("status", "C1");
+        assertTrue(previous > PERIOD_MS, "失败后间隔应放大: " + previous);
+        for (int i = 2; i <= 5; i++) {
+            advanceTo(now + previous + TICK_MS);
+            assertEquals(i, scheduler.getStats().get("status").getPolls());
+            long interval = scheduler.getDeviceInterval("status", "C1");
+            assertTrue(interval > previous, "第" + i + "次失败后间隔应放大: " + interval);
+            previous = interval;
+        }
+        assertTrue(previous <= 10_000L);
+        assertEquals(1, scheduler.getStats().get("status").getBackedOffDevices());
+
+        success[0] = true;
+        for (int i = 0; i < 20; i++) {
+            advanceTo(now + scheduler.getDeviceInterval("status", "C1") + TICK_MS);
+        }
+        assertTrue(scheduler.getDeviceInterval("status", "C1") < 1100);
+    }
+
+    @Test
+    @DisplayName("响应耗时超过周期时间隔不小于耗时的 latencyFactor 倍")
+    void testIntervalFollowsLatency() throws Exception {
+        register(() -> List.of("C1"), deviceId -> CompletableFuture.supplyAsync(() -> {
+            sleep(400);
+            return true;
+        }));
+
+        advanceUntil(() -> scheduler.getStats().get("status").getPolls() == 1);
+        long deadline = System.currentTimeMillis() + 5000;
+        while (scheduler.getStats().get("status").getInProgress() > 0 && System.currentTimeMillis() < deadline) {
+            sleep(10);
+        }
+
+        assertTrue(scheduler.getDeviceInterval("status", "C1") >= 1600);
+    }
+
+    private void register(java.util.function.Supplier<Collection<String>> devices,
+                          Function<String, CompletionStage<Boolean>> poller) throws Exception {
+        scheduler.register("status", PERIOD_MS, devices, poller);
+        onWheel(() -> { });
+    }
+
+    /**
+     * 按刻度推进时间轮到指定时刻
+     */
+    private void advanceTo(long target) throws Exception {
+        while (now < target) {
+            now = Math.min(now + TICK_MS, target);
+            long tickAt = now;
+            onWheel(() -> scheduler.tick(tickAt));
+        }
+    }
+
+    private void advanceUntil(java.util.function.BooleanSupplier condition) throws Exception {
+        long limit = now + 2 * PERIOD_MS;
+        while (!condition.getAsBoolean()) {
+            assertTrue(now < limit, "两个周期内条件仍未满足");
+            advanceTo(now + TICK_MS);
+        }
+    }
+
+    private void onWheel(Runnable action) throws Exception {
+        wheelExecutor.submit(action).get();
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void setField(Object target, String name, Object value) throws Exception {
+        Field field = target.getClass().getDeclaredField(name);
+        field.setAccessible(true);
+        field.set(target, value);
+    }
+}
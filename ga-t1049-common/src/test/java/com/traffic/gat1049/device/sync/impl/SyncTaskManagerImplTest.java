@@ -0,0 +1,235 @@
+package com.traffic.gat1049.device.sync.impl;
+
+import com.traffic.gat1049.device.adapter.model.SyncResult;
+import com.traffic.gat1049.device.sync.interfaces.SyncService;
+import com.traffic.gat1049.device.sync.model.SyncTaskRequest;
+import com.traffic.gat1049.device.sync.model.SyncTaskStatus;
+import com.traffic.gat1049.device.sync.model.SyncType;
+import org.junit.jupiter.api.*;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 同步任务管理器调度测试：不同信号机并行、同一信号机串行、按优先级出队、取消与超时
+ */
+@DisplayName("同步任务管理器调度测试")
+class SyncTaskManagerImplTest {
+
+    private SyncTaskManagerImpl manager;
+
+    /**
+     * 同步操作，由各测试指定
+     */
+    private volatile Function<String, SyncResult> syncAction;
+
+    @BeforeEach
+    void setUp() {
+        syncAction = controllerId -> SyncResult.success(controllerId, "ok");
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (manager != null) {
+            manager.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("不同信号机的任务并行执行")
+    void testParallelAcrossControllers() throws Exception {
+        start(4);
+        CountDownLatch allRunning = new CountDownLatch(3);
+        syncAction = controllerId -> {
+            allRunning.countDown();
+            await(allRunning);
+            return SyncResult.success(controllerId, "ok");
+        };
+
+        List<CompletableFuture<SyncResult>> futures = List.of(submit("SC001", 2), submit("SC002", 2), submit("SC003", 2));
+
+        for (CompletableFuture<SyncResult> future : futures) {
+            assertTrue(future.get(5, TimeUnit.SECONDS).isSuccess());
+        }
+    }
+
+    @Test
+    @DisplayName("同一信号机的任务串行执行")
+    void testSerialWithinController() throws Exception {
+        start(4);
+        Map<String, AtomicInteger> running = new ConcurrentHashMap<>();
+        AtomicInteger maxConcurrent = new AtomicInteger();
+        syncAction = controllerId -> {
+            AtomicInteger counter = running.computeIfAbsent(controllerId, k -> new AtomicInteger());
+            maxConcurrent.accumulateAndGet(counter.incrementAndGet(), Math::max);
+            sleep(50);
+            counter.decrementAndGet();
+            return SyncResult.success(controllerId, "ok");
+        };
+
+        List<CompletableFuture<SyncResult>> futures = new CopyOnWriteArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            futures.add(submit("SC001", 2));
+        }
+
+        for (CompletableFuture<SyncResult> future : futures) {
+            assertTrue(future.get(5, TimeUnit.SECONDS).isSuccess());
+        }
+        assertEquals(1, maxConcurrent.get());
+    }
+
+    @Test
+    @DisplayName("执行线程空闲时按优先级从高到低出队")
+    void testPriorityOrder() throws Exception {
+        start(1);
+        CountDownLatch blockerStarted = new CountDownLatch(1);
+        CountDownLatch releaseBlocker = new CountDownLatch(1);
+        List<String> executed = new CopyOnWriteArrayList<>();
+        syncAction = controllerId -> {
+            if ("BLOCKER".equals(controllerId)) {
+                blockerStarted.countDown();
+                await(releaseBlocker);
+            } else {
+                executed.add(controllerId);
+            }
+            return SyncResult.success(controllerId, "ok");
+        };
+
+        CompletableFuture<SyncResult> blocker = submit("BLOCKER", 2);
+        assertTrue(blockerStarted.await(5, TimeUnit.SECONDS));
+
+        CompletableFuture<SyncResult> low = submit("LOW", 1);
+        CompletableFuture<SyncResult> high = submit("HIGH", 5);
+        CompletableFuture<SyncResult> middle = submit("MIDDLE", 3);
+        releaseBlocker.countDown();
+
+        CompletableFuture.allOf(blocker, low, high, middle).get(10, TimeUnit.SECONDS);
+        assertEquals(List.of("HIGH", "MIDDLE", "LOW"), executed);
+    }
+
+    @Test
+    @DisplayName("排队中的任务可以取消，取消后不再执行；执行中的任务不能取消")
+    void testCancel() throws Exception {
+        start(1);
+        CountDownLatch blockerStarted = new CountDownLatch(1);
+        CountDownLatch releaseBlocker = new CountDownLatch(1);
+        List<String> executed = new CopyOnWriteArrayList<>();
+        syncAction = controllerId -> {
+            executed.add(controllerId);
+            if ("SC001".equals(controllerId)) {
+                blockerStarted.countDown();
+                await(releaseBlocker);
+            }
+            return SyncResult.success(controllerId, "ok");
+        };
+
+        String runningId = create("SC001", 2, 300);
+        CompletableFuture<SyncResult> running = manager.submitTask(runningId);
+        assertTrue(blockerStarted.await(5, TimeUnit.SECONDS));
+
+        String queuedId = create("SC002", 2, 300);
+        CompletableFuture<SyncResult> queued = manager.submitTask(queuedId);
+
+        assertFalse(manager.cancelTask(runningId));
+        assertTrue(manager.cancelTask(queuedId));
+        SyncResult cancelled = queued.get(1, TimeUnit.SECONDS);
+        assertFalse(cancelled.isSuccess());
+        assertEquals(SyncTaskStatus.CANCELLED, manager.getTaskStatus(queuedId));
+
+        releaseBlocker.countDown();
+        assertTrue(running.get(5, TimeUnit.SECONDS).isSuccess());
+        Thread.sleep(200);
+        assertEquals(List.of("SC001"), executed);
+    }
+
+    @Test
+    @DisplayName("提交后超过超时时间未结束的任务以超时结果完成")
+    void testTimeout() throws Exception {
+        start(1);
+        CountDownLatch release = new CountDownLatch(1);
+        syncAction = controllerId -> {
+            await(release);
+            return SyncResult.success(controllerId, "ok");
+        };
+
+        String taskId = create("SC001", 2, 1);
+        long start = System.nanoTime();
+        SyncResult result = manager.submitTask(taskId).get(5, TimeUnit.SECONDS);
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertFalse(result.isSuccess());
+        assertEquals("TIMEOUT", result.getErrorCode());
+        assertEquals(SyncTaskStatus.TIMEOUT, manager.getTaskStatus(taskId));
+        assertTrue(elapsedMs >= 900 && elapsedMs < 3000, "超时耗时: " + elapsedMs);
+
+        // 超时后同步操作结束，任务状态保持超时
+        release.countDown();
+        Thread.sleep(200);
+        assertEquals(SyncTaskStatus.TIMEOUT, manager.getTaskStatus(taskId));
+    }
+
+    private void start(int threads) throws Exception {
+        manager = new SyncTaskManagerImpl();
+        setField(manager, "threads", threads);
+        setField(manager, "syncService", syncService());
+        manager.initialize();
+    }
+
+    private CompletableFuture<SyncResult> submit(String controllerId, int priority) {
+        return manager.submitTask(create(controllerId, priority, 300));
+    }
+
+    private String create(String controllerId, int priority, int timeoutSeconds) {
+        return manager.createSyncTask(SyncTaskRequest.builder()
+                .controllerId(controllerId)
+                .syncType(SyncType.CONFIG_TO_DEVICE)
+                .priority(priority)
+                .timeoutSeconds(timeoutSeconds)
+                .build());
+    }
+
+    private SyncService syncService() {
+        return (SyncService) Proxy.newProxyInstance(
+                SyncTaskManagerImplTest.class.getClassLoader(),
+                new Class<?>[]{SyncService.class},
+                (proxy, method, args) -> {
+                    if ("syncConfigToDevice".equals(method.getName())) {
+                        return syncAction.apply((String) args[0]);
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void setField(Object target, String name, Object value) throws Exception {
+        Field field = target.getClass().getDeclaredField(name);
+        field.setAccessible(true);
+        field.set(target, value);
+    }
+}
@@ -0,0 +1,69 @@
+package com.traffic.gat1049.protocol.codec;
+
+import com.traffic.gat1049.protocol.builder.MessageBuilder;
+import com.traffic.gat1049.protocol.model.core.Message;
+import com.traffic.gat1049.protocol.model.runtime.CrossSignalGroupStatus;
+import com.traffic.gat1049.protocol.model.signal.SignalGroupStatus;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * MessageCodec 基准测试：池化复用与每次新建 Marshaller/Unmarshaller 的吞吐对比
+ * 多线程共享同一编解码器，模拟网络线程并发编解码；直接运行 main 即可
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+public class MessageCodecBenchmark {
+
+    @Param({"true", "false"})
+    public boolean pooled;
+
+    private MessageCodec codec;
+    private Message message;
+    private String xml;
+
+    @Setup
+    public void setUp() throws Exception {
+        codec = MessageCodec.create();
+        codec.setPooled(pooled);
+        codec.setFastPathEnabled(false);
+
+        CrossSignalGroupStatus status = new CrossSignalGroupStatus("11010000100001", "2025-01-01 08:00:00");
+        for (int i = 1; i <= 16; i++) {
+            status.getSignalGroupStatusList().add(new SignalGroupStatus(i, "21", 15));
+        }
+        message = MessageBuilder.create()
+                .push()
+                .fromUtcs()
+                .toTicp()
+                .token("token-1")
+                .notify(status)
+                .build();
+        xml = codec.encode(message);
+    }
+
+    @Benchmark
+    public String encode() throws Exception {
+        return codec.encode(message);
+    }
+
+    @Benchmark
+    public Message decode() throws Exception {
+        return codec.decode(xml);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(MessageCodecBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,127 @@
+package com.traffic.gat1049.protocol.codec;
+
+import com.traffic.gat1049.exception.MessageDecodingException;
+import com.traffic.gat1049.protocol.builder.MessageBuilder;
+import com.traffic.gat1049.protocol.model.core.Message;
+import com.traffic.gat1049.protocol.model.runtime.CrossCycle;
+import com.traffic.gat1049.protocol.model.runtime.CrossSignalGroupStatus;
+import com.traffic.gat1049.protocol.model.signal.SignalGroupStatus;
+import org.junit.jupiter.api.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * MessageCodec 池化测试：线程复用的编解码器不能串数据，配置变化后必须重建
+ */
+@DisplayName("消息编解码器池化测试")
+class MessageCodecTest {
+
+    private MessageCodec codec;
+
+    @BeforeEach
+    void setUp() {
+        codec = MessageCodec.create();
+        codec.setFastPathEnabled(false);
+    }
+
+    @Test
+    @DisplayName("多线程并发编解码结果与单线程一致")
+    void testConcurrentRoundTrip() throws Exception {
+        int threads = 8;
+        int perThread = 100;
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                int threadNo = t;
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < perThread; i++) {
+                        String crossId = String.format("110100001%05d", threadNo * perThread + i);
+                        String xml = codec.encode(signalGroupStatus(crossId, i % 4 + 1));
+                        assertTrue(xml.contains(crossId), "编码结果串到其他线程的数据");
+
+                        CrossSignalGroupStatus decoded = (CrossSignalGroupStatus)
+                                codec.decode(xml).getBody().getOperations().get(0).getData();
+                        assertEquals(crossId, decoded.getCrossId());
+                        assertEquals(i % 4 + 1, decoded.getSignalGroupStatusList().size());
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("池化与非池化编码结果一致")
+    void testPooledMatchesUnpooled() throws Exception {
+        Message message = signalGroupStatus("11010000100001", 3);
+        String pooledXml = codec.encode(message);
+
+        codec.setPooled(false);
+        assertFalse(codec.isPooled());
+        assertEquals(pooledXml, codec.encode(message));
+        assertEquals(codec.toJson(codec.decode(pooledXml)), codec.toJson(message));
+    }
+
+    @Test
+    @DisplayName("已缓存编码器后切换紧凑输出立即生效")
+    void testFormattedOutputChangeResetsPool() throws Exception {
+        Message message = MessageBuilder.create()
+                .push()
+                .fromUtcs()
+                .toTicp()
+                .token("token-1")
+                .notify(new CrossCycle("11010000100001", "2025-01-01 08:00:00", 120, 1))
+                .build();
+
+        String formatted = codec.encode(message);
+        assertTrue(formatted.contains("\n    <"), "默认应为格式化输出");
+
+        codec.setFormattedOutput(false);
+        String compact = codec.encode(message);
+        assertFalse(compact.contains("\n    <"), "切换后仍在使用旧的编码器");
+        assertTrue(compact.length() < formatted.length());
+
+        codec.setFormattedOutput(true);
+        assertEquals(formatted, codec.encode(message));
+    }
+
+    @Test
+    @DisplayName("解码失败后复用的解码器仍可正常工作")
+    void testDecodeFailureDoesNotPoisonPool() throws Exception {
+        String xml = codec.encode(signalGroupStatus("11010000100001", 2));
+
+        assertThrows(MessageDecodingException.class, () -> codec.decode("<Message><Version>"));
+
+        Message decoded = codec.decode(xml);
+        CrossSignalGroupStatus data = (CrossSignalGroupStatus) decoded.getBody().getOperations().get(0).getData();
+        assertEquals("11010000100001", data.getCrossId());
+    }
+
+    private Message signalGroupStatus(String crossId, int groups) {
+        CrossSignalGroupStatus status = new CrossSignalGroupStatus(crossId, "2025-01-01 08:00:00");
+        for (int i = 1; i <= groups; i++) {
+            status.getSignalGroupStatusList().add(new SignalGroupStatus(i, "21", 15));
+        }
+        return MessageBuilder.create()
+                .push()
+                .fromUtcs()
+                .toTicp()
+                .token("token-1")
+                .notify(status)
+                .build();
+    }
+}
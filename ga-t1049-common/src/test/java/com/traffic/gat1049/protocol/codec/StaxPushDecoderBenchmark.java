@@ -0,0 +1,79 @@
+package com.traffic.gat1049.protocol.codec;
+
+import com.traffic.gat1049.protocol.builder.MessageBuilder;
+import com.traffic.gat1049.protocol.model.core.Message;
+import com.traffic.gat1049.protocol.model.runtime.CrossSignalGroupStatus;
+import com.traffic.gat1049.protocol.model.signal.SignalGroupStatus;
+import com.traffic.gat1049.protocol.model.traffic.CrossTrafficData;
+import com.traffic.gat1049.protocol.model.traffic.LaneTrafficData;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 高频推送解码基准测试：StAX快速解码与JAXB解码对比
+ * 通过 MessageCodec 入口测量，包含快速路径判断和回退的开销；直接运行 main 即可
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class StaxPushDecoderBenchmark {
+
+    @Param({"true", "false"})
+    public boolean fastPath;
+
+    @Param({"CrossSignalGroupStatus", "CrossTrafficData"})
+    public String objectType;
+
+    private MessageCodec codec;
+    private String xml;
+
+    @Setup
+    public void setUp() throws Exception {
+        codec = MessageCodec.create();
+        codec.setFastPathEnabled(fastPath);
+        xml = codec.encode(MessageBuilder.create()
+                .push()
+                .fromUtcs()
+                .toTicp()
+                .token("token-1")
+                .notify(createData())
+                .build());
+    }
+
+    @Benchmark
+    public Message decode() throws Exception {
+        return codec.decode(xml);
+    }
+
+    private Object createData() {
+        if ("CrossTrafficData".equals(objectType)) {
+            CrossTrafficData data = new CrossTrafficData("11010000100001", 300);
+            for (int i = 1; i <= 8; i++) {
+                LaneTrafficData lane = new LaneTrafficData(i, 40 + i, 18);
+                lane.setSpeed(new BigDecimal("35.5"));
+                lane.setQueueLength(new BigDecimal("12.0"));
+                data.getDataList().add(lane);
+            }
+            return data;
+        }
+        CrossSignalGroupStatus status = new CrossSignalGroupStatus("11010000100001", "2025-01-01 08:00:00");
+        for (int i = 1; i <= 16; i++) {
+            status.getSignalGroupStatusList().add(new SignalGroupStatus(i, "21", 15));
+        }
+        return status;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(StaxPushDecoderBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
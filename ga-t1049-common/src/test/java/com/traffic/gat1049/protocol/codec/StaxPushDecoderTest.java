@@ -0,0 +1,135 @@
+package com.traffic.gat1049.protocol.codec;
+
+import com.traffic.gat1049.protocol.builder.MessageBuilder;
+import com.traffic.gat1049.protocol.model.core.Message;
+import com.traffic.gat1049.protocol.model.runtime.CrossCycle;
+import com.traffic.gat1049.protocol.model.runtime.CrossSignalGroupStatus;
+import com.traffic.gat1049.protocol.model.runtime.CrossStage;
+import com.traffic.gat1049.protocol.model.runtime.PackedCrossSignalGroupStatus;
+import com.traffic.gat1049.protocol.model.signal.SignalGroupStatus;
+import com.traffic.gat1049.protocol.model.traffic.CrossTrafficData;
+import com.traffic.gat1049.protocol.model.traffic.LaneTrafficData;
+import org.junit.jupiter.api.*;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * StaxPushDecoder 差分测试：快速解码结果必须与JAXB解码结果一致
+ */
+@DisplayName("StAX快速解码器差分测试")
+class StaxPushDecoderTest {
+
+    private MessageCodec codec;
+    private StaxPushDecoder decoder;
+
+    @BeforeEach
+    void setUp() {
+        codec = MessageCodec.create();
+        codec.setFastPathEnabled(false);
+        decoder = new StaxPushDecoder();
+    }
+
+    @Test
+    @DisplayName("CrossSignalGroupStatus 与JAXB结果一致")
+    void testCrossSignalGroupStatus() throws Exception {
+        CrossSignalGroupStatus status = new CrossSignalGroupStatus("11010000100001", "2025-01-01 08:00:00");
+        status.getSignalGroupStatusList().add(new SignalGroupStatus(1, "21", 15));
+        status.getSignalGroupStatusList().add(new SignalGroupStatus(2, "11"));
+        assertSameAsJaxb(push(status));
+    }
+
+    @Test
+    @DisplayName("打包模式下灯态直接解为打包形式，内容与JAXB结果一致")
+    void testPackedCrossSignalGroupStatus() throws Exception {
+        CrossSignalGroupStatus status = new CrossSignalGroupStatus("11010000100001", "2025-01-01 08:00:00");
+        status.getSignalGroupStatusList().add(new SignalGroupStatus(1, "211", 15));
+        status.getSignalGroupStatusList().add(new SignalGroupStatus(2, "111"));
+        String xml = codec.encode(push(status));
+
+        Message actual = new StaxPushDecoder(true).tryDecode(xml);
+        assertNotNull(actual, "快速解码不应回退");
+        Object data = actual.getBody().getOperations().get(0).getData();
+        assertTrue(data instanceof PackedCrossSignalGroupStatus);
+
+        Object expected = codec.decode(xml).getBody().getOperations().get(0).getData();
+        assertEquals(codec.toJson(expected),
+                codec.toJson(((PackedCrossSignalGroupStatus) data).toCrossSignalGroupStatus()));
+    }
+
+    @Test
+    @DisplayName("打包模式下无法打包的灯态交由JAXB处理")
+    void testUnpackableSignalGroupStatusFallsBack() throws Exception {
+        CrossSignalGroupStatus status = new CrossSignalGroupStatus("11010000100001", "2025-01-01 08:00:00");
+        status.getSignalGroupStatusList().add(new SignalGroupStatus(1, "211", 100000));
+        String xml = codec.encode(push(status));
+
+        assertNull(new StaxPushDecoder(true).tryDecode(xml));
+        assertNotNull(decoder.tryDecode(xml));
+    }
+
+    @Test
+    @DisplayName("CrossCycle 与JAXB结果一致")
+    void testCrossCycle() throws Exception {
+        assertSameAsJaxb(push(new CrossCycle("11010000100001", "2025-01-01 08:00:00", 120, 1)));
+    }
+
+    @Test
+    @DisplayName("CrossStage 与JAXB结果一致")
+    void testCrossStage() throws Exception {
+        assertSameAsJaxb(push(new CrossStage("11010000100001", 1, 30, 2, "2025-01-01 08:00:30", 0)));
+    }
+
+    @Test
+    @DisplayName("CrossTrafficData 与JAXB结果一致")
+    void testCrossTrafficData() throws Exception {
+        CrossTrafficData data = new CrossTrafficData("11010000100001", 300);
+        LaneTrafficData lane = new LaneTrafficData(1, 42, 18);
+        lane.setSpeed(new BigDecimal("35.5"));
+        lane.setQueueLength(new BigDecimal("12.0"));
+        data.getDataList().add(lane);
+        data.getDataList().add(new LaneTrafficData(2, 10, 5));
+        assertSameAsJaxb(push(data));
+    }
+
+    @Test
+    @DisplayName("紧凑输出同样一致")
+    void testCompactOutput() throws Exception {
+        codec.setFormattedOutput(false);
+        assertSameAsJaxb(push(new CrossCycle("11010000100001", "2025-01-01 08:00:00", 90, 0)));
+    }
+
+    @Test
+    @DisplayName("非高频对象交由JAXB处理")
+    void testUnsupportedObjectFallsBack() throws Exception {
+        String xml = codec.encode(MessageBuilder.createLoginRequest("user", "pwd"));
+        assertNull(decoder.tryDecode(xml));
+    }
+
+    @Test
+    @DisplayName("带命名空间的报文交由JAXB处理")
+    void testNamespacedMessageFallsBack() {
+        assertNull(decoder.tryDecode("<Message xmlns=\"urn:other\"><Version>2.0</Version></Message>"));
+    }
+
+    private Message push(Object data) {
+        return MessageBuilder.create()
+                .push()
+                .fromUtcs()
+                .toTicp()
+                .token("token-1")
+                .notify(data)
+                .build();
+    }
+
+    private void assertSameAsJaxb(Message original) throws Exception {
+        String xml = codec.encode(original);
+
+        Message expected = codec.decode(xml);
+        Message actual = decoder.tryDecode(xml);
+
+        assertNotNull(actual, "快速解码不应回退");
+        assertEquals(codec.toJson(expected), codec.toJson(actual));
+    }
+}
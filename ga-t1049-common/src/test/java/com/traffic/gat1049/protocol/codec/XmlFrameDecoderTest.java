@@ -0,0 +1,142 @@
+package com.traffic.gat1049.protocol.codec;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.handler.codec.TooLongFrameException;
+import io.netty.util.CharsetUtil;
+import org.junit.jupiter.api.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * XmlFrameDecoder 分帧测试：半包、粘包、超长帧
+ */
+@DisplayName("XML报文分帧解码器测试")
+class XmlFrameDecoderTest {
+
+    private static final String FRAME_1 = frame("1");
+    private static final String FRAME_2 = frame("2");
+
+    private EmbeddedChannel channel;
+
+    @BeforeEach
+    void setUp() {
+        channel = new EmbeddedChannel(new XmlFrameDecoder(1024));
+    }
+
+    @AfterEach
+    void tearDown() {
+        channel.finishAndReleaseAll();
+    }
+
+    @Test
+    @DisplayName("一个缓冲区内多个报文逐个切出，帧间空白与BOM被丢弃")
+    void testMultipleFramesInOneBuffer() {
+        ByteBuf in = Unpooled.buffer();
+        in.writeBytes(FRAME_1.getBytes(CharsetUtil.UTF_8));
+        in.writeBytes("\r\n  ".getBytes(CharsetUtil.US_ASCII));
+        in.writeBytes(new byte[]{(byte) 0xEF, (byte) 0xBB, (byte) 0xBF});
+        in.writeBytes(FRAME_2.getBytes(CharsetUtil.UTF_8));
+        in.writeBytes("\n".getBytes(CharsetUtil.US_ASCII));
+        channel.writeInbound(in);
+
+        assertEquals(FRAME_1, readFrame());
+        assertEquals(FRAME_2, readFrame());
+        assertNull(channel.readInbound());
+    }
+
+    @Test
+    @DisplayName("逐字节到达的报文（含被拆开的结束标记）拼成完整一帧")
+    void testFragmentedFrame() {
+        byte[] bytes = (FRAME_1 + FRAME_2).getBytes(CharsetUtil.UTF_8);
+        for (int i = 0; i < bytes.length; i++) {
+            channel.writeInbound(Unpooled.wrappedBuffer(bytes, i, 1));
+            if (i < FRAME_1.length() - 1) {
+                assertNull(channel.readInbound(), "结束标记到达前不应输出");
+            }
+        }
+
+        assertEquals(FRAME_1, readFrame());
+        assertEquals(FRAME_2, readFrame());
+        assertNull(channel.readInbound());
+    }
+
+    @Test
+    @DisplayName("按块到达的报文在结束标记处切分，剩余部分留待下一帧")
+    void testChunkBoundaryInsideEndTag() {
+        String data = FRAME_1 + FRAME_2;
+        int split = FRAME_1.length() - 4;
+        channel.writeInbound(Unpooled.copiedBuffer(data.substring(0, split), CharsetUtil.UTF_8));
+        assertNull(channel.readInbound());
+
+        channel.writeInbound(Unpooled.copiedBuffer(data.substring(split, FRAME_1.length() + 10), CharsetUtil.UTF_8));
+        assertEquals(FRAME_1, readFrame());
+        assertNull(channel.readInbound());
+
+        channel.writeInbound(Unpooled.copiedBuffer(data.substring(FRAME_1.length() + 10), CharsetUtil.UTF_8));
+        assertEquals(FRAME_2, readFrame());
+    }
+
+    @Test
+    @DisplayName("跨包的超长帧丢弃至结束标记，之后的报文正常解码")
+    void testTooLongFrameAcrossBuffers() {
+        String filler = repeat('x', 600);
+        channel.writeInbound(Unpooled.copiedBuffer("<?xml version=\"1.0\"?><Message>" + filler, CharsetUtil.UTF_8));
+        channel.writeInbound(Unpooled.copiedBuffer(filler, CharsetUtil.UTF_8));
+        // 丢弃期间结束标记被拆在两个包中
+        channel.writeInbound(Unpooled.copiedBuffer(filler + "</Mess", CharsetUtil.UTF_8));
+        assertNull(channel.readInbound());
+
+        assertThrows(TooLongFrameException.class,
+                () -> channel.writeInbound(Unpooled.copiedBuffer("age>", CharsetUtil.UTF_8)));
+        assertNull(channel.readInbound());
+
+        channel.writeInbound(Unpooled.copiedBuffer(FRAME_1, CharsetUtil.UTF_8));
+        assertEquals(FRAME_1, readFrame());
+    }
+
+    @Test
+    @DisplayName("单包内的超长帧被丢弃")
+    void testTooLongFrameInOneBuffer() {
+        String tooLong = "<?xml version=\"1.0\"?><Message>" + repeat('x', 1100) + "</Message>";
+        assertThrows(TooLongFrameException.class,
+                () -> channel.writeInbound(Unpooled.copiedBuffer(tooLong, CharsetUtil.UTF_8)));
+        assertNull(channel.readInbound());
+
+        channel.writeInbound(Unpooled.copiedBuffer(FRAME_2, CharsetUtil.UTF_8));
+        assertEquals(FRAME_2, readFrame());
+    }
+
+    @Test
+    @DisplayName("帧合法性判定与XML声明、Message元素规则一致")
+    void testIsValidFrame() {
+        assertTrue(XmlFrameDecoder.isValidFrame(Unpooled.copiedBuffer(FRAME_1, CharsetUtil.UTF_8)));
+        assertFalse(XmlFrameDecoder.isValidFrame(Unpooled.copiedBuffer("<Message></Message>", CharsetUtil.UTF_8)));
+        assertFalse(XmlFrameDecoder.isValidFrame(Unpooled.copiedBuffer("<?xml version=\"1.0\"?><Other/>", CharsetUtil.UTF_8)));
+        assertFalse(XmlFrameDecoder.isValidFrame(Unpooled.copiedBuffer("<?x", CharsetUtil.UTF_8)));
+    }
+
+    private String readFrame() {
+        ByteBuf frame = channel.readInbound();
+        assertNotNull(frame, "应输出一帧");
+        try {
+            return frame.toString(CharsetUtil.UTF_8);
+        } finally {
+            frame.release();
+        }
+    }
+
+    private static String frame(String seq) {
+        return "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<Message>\n    <Version>2.0</Version>\n"
+                + "    <Seq>" + seq + "</Seq>\n    <Type>REQUEST</Type>\n</Message>";
+    }
+
+    private static String repeat(char c, int count) {
+        StringBuilder sb = new StringBuilder(count);
+        for (int i = 0; i < count; i++) {
+            sb.append(c);
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,199 @@
+package com.traffic.gat1049.protocol.processor;
+
+import com.traffic.gat1049.protocol.builder.MessageBuilder;
+import com.traffic.gat1049.protocol.constants.GatConstants;
+import com.traffic.gat1049.protocol.handler.base.DispatchKey;
+import com.traffic.gat1049.protocol.handler.base.ProtocolHandler;
+import com.traffic.gat1049.protocol.model.core.Message;
+import com.traffic.gat1049.protocol.model.runtime.CrossCycle;
+import com.traffic.gat1049.protocol.model.runtime.CrossStage;
+import com.traffic.gat1049.protocol.model.system.SysInfo;
+import org.junit.jupiter.api.*;
+
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * DefaultMessageProcessor 分发测试：索引只缩小候选范围，匹配结果与逐个遍历一致
+ */
+@DisplayName("消息处理器分发索引测试")
+class DefaultMessageProcessorTest {
+
+    private DefaultMessageProcessor processor;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        processor = new DefaultMessageProcessor();
+    }
+
+    @Test
+    @DisplayName("只有分发键匹配的处理器参与 supports() 判定")
+    void testOnlyMatchingCandidatesConsulted() throws Exception {
+        FakeHandler cycle = new FakeHandler("cycle",
+                DispatchKey.of(GatConstants.MessageType.PUSH, GatConstants.Operation.NOTIFY, CrossCycle.class));
+        FakeHandler stage = new FakeHandler("stage",
+                DispatchKey.of(GatConstants.MessageType.PUSH, GatConstants.Operation.NOTIFY, CrossStage.class));
+        processor.registerHandler(cycle);
+        processor.registerHandler(stage);
+
+        processor.processMessage(push(new CrossStage("11010000100001", 1, 30, 2, "2025-01-01 08:00:30", 0)));
+
+        assertEquals(0, cycle.supportsCalls.get());
+        assertEquals(1, stage.supportsCalls.get());
+        assertEquals(1, stage.handled.get());
+    }
+
+    @Test
+    @DisplayName("未声明分发键的处理器对所有消息参与匹配，并保持注册顺序")
+    void testUndeclaredHandlerKeepsRegistrationOrder() throws Exception {
+        FakeHandler common = new FakeHandler("common", null);
+        FakeHandler cycle = new FakeHandler("cycle",
+                DispatchKey.of(GatConstants.MessageType.PUSH, GatConstants.Operation.NOTIFY, CrossCycle.class));
+        processor.registerHandler(common);
+        processor.registerHandler(cycle);
+
+        // 先注册的通用处理器不支持时交给后面的处理器
+        common.accepts = message -> false;
+        processor.processMessage(push(cycle()));
+        assertEquals(1, common.supportsCalls.get());
+        assertEquals(1, cycle.handled.get());
+
+        // 通用处理器支持时按注册顺序优先
+        common.accepts = message -> true;
+        processor.processMessage(push(cycle()));
+        assertEquals(1, common.handled.get());
+        assertEquals(1, cycle.handled.get());
+    }
+
+    @Test
+    @DisplayName("数据对象类型按 instanceof 匹配，无数据只匹配未限定类型的键")
+    void testDataTypeMatching() throws Exception {
+        FakeHandler anyObject = new FakeHandler("anyObject",
+                DispatchKey.of(GatConstants.MessageType.REQUEST, GatConstants.Operation.GET, Object.class));
+        FakeHandler anyData = new FakeHandler("anyData",
+                DispatchKey.of(GatConstants.MessageType.REQUEST, GatConstants.Operation.GET));
+        processor.registerHandler(anyObject);
+        processor.registerHandler(anyData);
+
+        processor.processMessage(MessageBuilder.create().request().fromTicp().toUtcs().get(new SysInfo()).build());
+        assertEquals(1, anyObject.handled.get());
+
+        processor.processMessage(MessageBuilder.create().request().fromTicp().toUtcs().get(null).build());
+        assertEquals(1, anyObject.supportsCalls.get());
+        assertEquals(1, anyData.handled.get());
+    }
+
+    @Test
+    @DisplayName("没有候选处理器时不响应")
+    void testNoCandidate() throws Exception {
+        FakeHandler cycle = new FakeHandler("cycle",
+                DispatchKey.of(GatConstants.MessageType.PUSH, GatConstants.Operation.NOTIFY, CrossCycle.class));
+        processor.registerHandler(cycle);
+
+        assertNull(processor.processMessage(MessageBuilder.createLoginRequest("user", "pwd")));
+        assertEquals(0, cycle.supportsCalls.get());
+    }
+
+    @Test
+    @DisplayName("注册、替换和移除处理器后索引重新计算")
+    void testIndexRebuiltAfterRegistration() throws Exception {
+        Set<DispatchKey> keys = DispatchKey.of(GatConstants.MessageType.PUSH, GatConstants.Operation.NOTIFY, CrossCycle.class);
+        FakeHandler first = new FakeHandler("cycle", keys);
+        processor.registerHandler(first);
+        processor.processMessage(push(cycle()));
+        assertEquals(1, first.handled.get());
+
+        // 同名处理器替换旧实例
+        FakeHandler replacement = new FakeHandler("cycle", keys);
+        processor.registerHandler(replacement);
+        processor.processMessage(push(cycle()));
+        assertEquals(1, first.handled.get());
+        assertEquals(1, replacement.handled.get());
+        assertEquals(1, processor.getHandlerCount());
+
+        // 已缓存过该查找键后新增的处理器同样生效
+        FakeHandler later = new FakeHandler("later", null);
+        processor.registerHandler(later);
+        replacement.accepts = message -> false;
+        processor.processMessage(push(cycle()));
+        assertEquals(1, later.handled.get());
+
+        processor.removeHandler("later");
+        assertNull(processor.processMessage(push(cycle())));
+        assertEquals(1, later.handled.get());
+    }
+
+    @Test
+    @DisplayName("响应令牌按线程记录")
+    void testTempTokenPerThread() throws Exception {
+        FakeHandler cycle = new FakeHandler("cycle",
+                DispatchKey.of(GatConstants.MessageType.PUSH, GatConstants.Operation.NOTIFY, CrossCycle.class));
+        cycle.response = MessageBuilder.create().response().fromUtcs().toTicp().token("token-main").build();
+        processor.registerHandler(cycle);
+
+        processor.processMessage(push(cycle()));
+        assertEquals("token-main", processor.getTempToken());
+
+        String[] otherThreadToken = new String[1];
+        Thread thread = new Thread(() -> otherThreadToken[0] = processor.getTempToken());
+        thread.start();
+        thread.join();
+        assertEquals("", otherThreadToken[0]);
+    }
+
+    private static CrossCycle cycle() {
+        return new CrossCycle("11010000100001", "2025-01-01 08:00:00", 120, 1);
+    }
+
+    private static Message push(Object data) {
+        return MessageBuilder.create()
+                .push()
+                .fromUtcs()
+                .toTicp()
+                .token("token-1")
+                .notify(data)
+                .build();
+    }
+
+    /**
+     * 记录调用次数的处理器，supports() 默认全部接受
+     */
+    private static class FakeHandler implements ProtocolHandler {
+        private final String name;
+        private final Set<DispatchKey> keys;
+        private final AtomicInteger supportsCalls = new AtomicInteger();
+        private final AtomicInteger handled = new AtomicInteger();
+        private volatile Predicate<Message> accepts = message -> true;
+        private volatile Message response;
+
+        FakeHandler(String name, Set<DispatchKey> keys) {
+            this.name = name;
+            this.keys = keys;
+        }
+
+        @Override
+        public Message handleMessage(Message message) {
+            handled.incrementAndGet();
+            return response;
+        }
+
+        @Override
+        public boolean supports(Message message) {
+            supportsCalls.incrementAndGet();
+            return accepts.test(message);
+        }
+
+        @Override
+        public String getHandlerName() {
+            return name;
+        }
+
+        @Override
+        public Set<DispatchKey> getDispatchKeys() {
+            return keys;
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.traffic.gat1049.protocol.processor;
+
+import com.traffic.gat1049.protocol.builder.MessageBuilder;
+import com.traffic.gat1049.protocol.constants.GatConstants;
+import com.traffic.gat1049.protocol.handler.base.DispatchKey;
+import com.traffic.gat1049.protocol.handler.base.ProtocolHandler;
+import com.traffic.gat1049.protocol.model.core.Message;
+import com.traffic.gat1049.protocol.model.runtime.CrossCycle;
+import com.traffic.gat1049.protocol.util.ProtocolUtils;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 消息分发基准测试：分发索引与逐个调用 supports() 的线性遍历对比
+ * 目标处理器最后注册，线性遍历为最坏情况；直接运行 main 即可
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MessageDispatchBenchmark {
+
+    @Param({"10", "40"})
+    public int handlerCount;
+
+    private DefaultMessageProcessor processor;
+    private List<ProtocolHandler> handlers;
+    private Message message;
+
+    @Setup
+    public void setUp() throws Exception {
+        processor = new DefaultMessageProcessor();
+        handlers = new ArrayList<>();
+        for (int i = 0; i < handlerCount; i++) {
+            OperationHandler handler = new OperationHandler("Op" + i);
+            handlers.add(handler);
+            processor.registerHandler(handler);
+        }
+        message = MessageBuilder.create()
+                .push()
+                .fromUtcs()
+                .toTicp()
+                .operation("Op" + (handlerCount - 1), new CrossCycle("11010000100001", "2025-01-01 08:00:00", 120, 1))
+                .build();
+    }
+
+    @Benchmark
+    public Message indexed() throws Exception {
+        return processor.processMessage(message);
+    }
+
+    @Benchmark
+    public ProtocolHandler linearScan() {
+        for (ProtocolHandler handler : handlers) {
+            if (handler.supports(message)) {
+                return handler;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 按操作名称匹配的处理器，supports() 与声明的分发键一致
+     */
+    private static class OperationHandler implements ProtocolHandler {
+        private final String operationName;
+
+        OperationHandler(String operationName) {
+            this.operationName = operationName;
+        }
+
+        @Override
+        public Message handleMessage(Message message) {
+            return null;
+        }
+
+        @Override
+        public boolean supports(Message message) {
+            return GatConstants.MessageType.PUSH.equals(message.getType())
+                    && operationName.equals(ProtocolUtils.getOperationName(message));
+        }
+
+        @Override
+        public String getHandlerName() {
+            return operationName;
+        }
+
+        @Override
+        public Set<DispatchKey> getDispatchKeys() {
+            return DispatchKey.of(GatConstants.MessageType.PUSH, operationName);
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(MessageDispatchBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
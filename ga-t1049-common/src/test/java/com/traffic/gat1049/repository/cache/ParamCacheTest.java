@@ -0,0 +1,90 @@
+package com.traffic.gat1049.repository.cache;
+
+import com.traffic.gat1049.repository.entity.LampGroupParamEntity;
+import org.junit.jupiter.api.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 参数缓存测试：命中与失效，返回的实体与缓存内容相互独立
+ */
+@DisplayName("参数缓存测试")
+class ParamCacheTest {
+
+    private static final String TYPE = "LampGroupParam";
+    private static final String CROSS = "11010000100001";
+
+    private ParamCache cache;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void setUp() {
+        cache = new ParamCache(true, 100, 0);
+        loads = new AtomicInteger();
+    }
+
+    @Test
+    @DisplayName("命中时不再查询，失效后重新查询")
+    void testHitAndInvalidate() {
+        get();
+        get();
+        assertEquals(1, loads.get());
+        assertEquals(1, cache.getStats().getHitCount());
+
+        cache.invalidate(TYPE, CROSS);
+        get();
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    @DisplayName("修改命中返回的实体不影响缓存和其他调用方")
+    void testHitReturnsCopies() {
+        get();
+        List<LampGroupParamEntity> first = get();
+        first.get(0).setDirection("S");
+        first.add(new LampGroupParamEntity());
+
+        List<LampGroupParamEntity> second = get();
+        assertEquals(1, second.size());
+        assertEquals("N", second.get(0).getDirection());
+        assertNotSame(first.get(0), second.get(0));
+    }
+
+    @Test
+    @DisplayName("修改未命中时查询返回的实体不影响缓存")
+    void testMissResultNotShared() {
+        List<LampGroupParamEntity> loaded = get();
+        loaded.get(0).setDirection("S");
+
+        assertEquals("N", get().get(0).getDirection());
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    @DisplayName("查询结果为null时不缓存")
+    void testNullNotCached() {
+        assertNull(cache.getList(TYPE, CROSS, null, () -> {
+            loads.incrementAndGet();
+            return null;
+        }, LampGroupParamEntity::copy));
+        get();
+        assertEquals(2, loads.get());
+    }
+
+    private List<LampGroupParamEntity> get() {
+        return cache.getList(TYPE, CROSS, null, () -> {
+            loads.incrementAndGet();
+            LampGroupParamEntity entity = new LampGroupParamEntity();
+            entity.setCrossId(CROSS);
+            entity.setLampGroupNo(1);
+            entity.setDirection("N");
+            List<LampGroupParamEntity> result = new ArrayList<>();
+            result.add(entity);
+            return result;
+        }, LampGroupParamEntity::copy);
+    }
+}
@@ -0,0 +1,178 @@
+package com.traffic.gat1049.repository.writebehind;
+
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLIntegrityConstraintViolationException;
+import java.sql.SQLSyntaxErrorException;
+import java.sql.SQLTransientConnectionException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * WriteBehindBuffer 落盘与重放测试：暂时性失败落盘重放，数据错误隔离，不阻塞后续记录
+ */
+@DisplayName("写后缓冲落盘重放测试")
+class WriteBehindBufferTest {
+
+    @TempDir
+    Path journalDir;
+
+    private FakeTable table;
+    private SpillJournal<Row> journal;
+    private WriteBehindBuffer<Row> buffer;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        table = new FakeTable();
+        journal = new SpillJournal<>(journalDir, "test", Row.class, 0);
+        buffer = new WriteBehindBuffer<>("test", 1000, 8, WriteBehindBuffer.OverflowPolicy.DROP, 0,
+                table::insert, journal, b -> { });
+    }
+
+    @Test
+    @DisplayName("数据错误的行被隔离，同批其余行正常写入")
+    void testPoisonRowQuarantinedOnFlush() throws Exception {
+        buffer.offerAll(rows(0, 20));
+        table.poison.add(5);
+        table.poison.add(13);
+
+        assertEquals(18, buffer.flush());
+        assertEquals(18, table.rows.size());
+        assertFalse(table.rows.contains(5));
+        assertFalse(journal.hasPending());
+        assertEquals(2, buffer.getStats().getQuarantinedRows());
+        assertEquals(2, Files.readAllLines(journalDir.resolve("test.quarantine")).size());
+    }
+
+    @Test
+    @DisplayName("暂时性失败落盘，数据库恢复后重放并跳过数据错误的行")
+    void testReplaySkipsPoisonBatch() {
+        table.down = true;
+        buffer.offerAll(rows(0, 20));
+        assertEquals(0, buffer.flush());
+        assertTrue(journal.hasPending());
+        assertEquals(20, buffer.getStats().getSpilledRows());
+
+        // 数据库恢复，但其中一行违反外键约束
+        table.down = false;
+        table.poison.add(3);
+        assertEquals(20, buffer.replayJournal());
+        assertFalse(journal.hasPending());
+        assertEquals(19, table.rows.size());
+        assertEquals(1, buffer.getStats().getQuarantinedRows());
+
+        // 隔离的行不再参与后续重放
+        assertEquals(0, buffer.replayJournal());
+    }
+
+    @Test
+    @DisplayName("重放中途暂时性失败时保留未写入记录，下次继续且不重复写入")
+    void testReplayResumesAfterTransientFailure() {
+        table.down = true;
+        buffer.offerAll(rows(0, 20));
+        buffer.flush();
+
+        table.down = false;
+        table.failAfter = 8;
+        assertEquals(8, buffer.replayJournal());
+        assertTrue(journal.hasPending());
+
+        table.failAfter = -1;
+        assertEquals(12, buffer.replayJournal());
+        assertFalse(journal.hasPending());
+        assertEquals(IntStream.range(0, 20).boxed().collect(Collectors.toList()), table.rows);
+    }
+
+    @Test
+    @DisplayName("表结构错误不拆分，整批落盘，表结构修复后重放")
+    void testSchemaErrorSpillsWholeBatch() {
+        table.schemaBroken = true;
+        buffer.offerAll(rows(0, 20));
+
+        assertEquals(0, buffer.flush());
+        // 每批只尝试一次，不对半拆分
+        assertEquals(3, table.attempts);
+        assertEquals(0, buffer.getStats().getQuarantinedRows());
+        assertEquals(20, buffer.getStats().getSpilledRows());
+        assertEquals(3, buffer.getStats().getSchemaErrorCount());
+
+        // 表结构未修复时重放同样整批保留
+        assertEquals(0, buffer.replayJournal());
+        assertTrue(journal.hasPending());
+
+        table.schemaBroken = false;
+        assertEquals(20, buffer.replayJournal());
+        assertFalse(journal.hasPending());
+        assertEquals(20, table.rows.size());
+    }
+
+    @Test
+    @DisplayName("失败分类：连接类异常为暂时性，约束与字段错误为数据错误")
+    void testFailureClassification() {
+        assertTrue(WriteBehindBuffer.isTransientFailure(
+                new RuntimeException(new SQLTransientConnectionException("connection lost", "08S01"))));
+        assertFalse(WriteBehindBuffer.isTransientFailure(
+                new RuntimeException(new SQLIntegrityConstraintViolationException("fk", "23000"))));
+        assertFalse(WriteBehindBuffer.isTransientFailure(
+                new RuntimeException(new SQLSyntaxErrorException("Unknown column 'cycle_len'", "42S22"))));
+        assertFalse(WriteBehindBuffer.isTransientFailure(new IllegalStateException("no getter for property")));
+        assertTrue(WriteBehindBuffer.isSchemaFailure(
+                new RuntimeException(new SQLSyntaxErrorException("Unknown column 'cycle_len'", "42S22"))));
+        assertFalse(WriteBehindBuffer.isSchemaFailure(
+                new RuntimeException(new SQLIntegrityConstraintViolationException("fk", "23000"))));
+    }
+
+    private static List<Row> rows(int from, int to) {
+        return IntStream.range(from, to).mapToObj(Row::new).collect(Collectors.toList());
+    }
+
+    /**
+     * 模拟数据表：整批写入或整批失败
+     */
+    private static class FakeTable {
+        final List<Integer> rows = new ArrayList<>();
+        final List<Integer> poison = new ArrayList<>();
+        boolean down;
+        boolean schemaBroken;
+        int failAfter = -1;
+        int attempts;
+
+        void insert(List<Row> batch) {
+            attempts++;
+            if (schemaBroken) {
+                throw new RuntimeException(new SQLSyntaxErrorException("Unknown column 'cycle_len'", "42S22"));
+            }
+            if (down || (failAfter >= 0 && rows.size() >= failAfter)) {
+                throw new RuntimeException(new SQLTransientConnectionException("connection lost", "08S01"));
+            }
+            for (Row row : batch) {
+                if (poison.contains(row.getId())) {
+                    throw new RuntimeException(new SQLIntegrityConstraintViolationException(
+                            "Cannot add or update a child row: a foreign key constraint fails", "23000"));
+                }
+            }
+            batch.forEach(row -> rows.add(row.getId()));
+        }
+    }
+
+    public static class Row {
+        private int id;
+
+        public Row() {
+        }
+
+        Row(int id) {
+            this.id = id;
+        }
+
+        public int getId() { return id; }
+        public void setId(int id) { this.id = id; }
+    }
+}
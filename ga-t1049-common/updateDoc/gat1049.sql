@@ -1517,7 +1517,8 @@ WHERE TABLE_SCHEMA = DATABASE()
                      'cross_cycle',
                      'cross_stage',
                      'signal_controller_error',
-                     'control_command_log'
+                     'control_command_log',
+                     'sys_state'
     );
 DECLARE
 CONTINUE HANDLER FOR NOT FOUND SET done = TRUE;
@@ -1541,6 +1542,8 @@ WHEN 'stage_traffic_data' THEN
                 SET v_sql = CONCAT('DELETE FROM ', v_table_name, ' WHERE end_time < ''', @cleanup_date, '''');
 WHEN 'cross_signal_group_status' THEN
                 SET v_sql = CONCAT('DELETE FROM ', v_table_name, ' WHERE lamp_status_time < ''', @cleanup_date, '''');
+WHEN 'sys_state' THEN
+                SET v_sql = CONCAT('DELETE FROM ', v_table_name, ' WHERE time < ''', @cleanup_date, '''');
 ELSE
                 SET v_sql = CONCAT('DELETE FROM ', v_table_name, ' WHERE created_time < ''', @cleanup_date, '''');
 END
@@ -1,11 +1,13 @@
 package com.traffic.client.config;
 
 import com.traffic.client.network.client.GatTcpClient;
+import com.traffic.client.network.client.GatTcpClientPool;
 import com.traffic.client.service.ClientCommandService;
 import com.traffic.client.service.ClientDemoService;
 import com.traffic.client.service.ClientMessageHandler;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -23,9 +25,13 @@ public class ClientConfig {
 
     private static final Logger logger = LoggerFactory.getLogger(ClientConfig.class);
 
+    @Value("${tcp.client.pool.enabled:false}")
+    private boolean poolEnabled;
+
     @Bean
     public CommandLineRunner clientRunner(
             GatTcpClient client,
+            GatTcpClientPool clientPool,
             ClientMessageHandler messageHandler,
             ClientDemoService demoService,
             ClientCommandService commandService) {
@@ -42,6 +48,12 @@ public class ClientConfig {
                 logger.warn("初始连接失败，等待自动重连: {}", e.getMessage());
             }
 
+            // 启用连接池时建立多个会话，推送按路口分布到各连接
+            if (poolEnabled) {
+                clientPool.addListener("gat1049", messageHandler::handleMessage);
+                clientPool.start();
+            }
+
             // 2. 启动智能业务监控器（支持中断恢复）
             startSmartBusinessMonitor(client, messageHandler, demoService, commandService);
         };
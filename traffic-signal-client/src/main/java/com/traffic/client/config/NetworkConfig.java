@@ -1,12 +1,16 @@
 package com.traffic.client.config;
 
 import com.traffic.client.network.client.GatTcpClient;
+import com.traffic.client.network.client.GatTcpClientPool;
 import com.traffic.gat1049.protocol.processor.MessageProcessor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.DependsOn;
 import org.springframework.core.env.Environment;
 
+import java.util.Arrays;
+import java.util.List;
+
 /**
  * 客户端网络连接配置
  */
@@ -24,4 +28,24 @@ public class NetworkConfig {
 
         return new GatTcpClient(host, port, clientId, messageProcessor, username, password);
     }
+
+    /**
+     * 多连接客户端池，tcp.client.pool.enabled 为 true 时由启动流程连接
+     * 未配置 endpoints 时使用 server-host:server-port
+     */
+    @Bean(destroyMethod = "shutdown")
+    public GatTcpClientPool gatTcpClientPool(Environment env, MessageProcessor messageProcessor) throws Exception {
+        String host = env.getProperty("tcp.client.server-host", "localhost");
+        int port = env.getProperty("tcp.client.server-port", Integer.class, 9999);
+        String endpoints = env.getProperty("tcp.client.pool.endpoints", host + ":" + port);
+        int connectionsPerEndpoint = env.getProperty("tcp.client.pool.connections-per-endpoint", Integer.class, 2);
+        int eventLoopThreads = env.getProperty("tcp.client.pool.event-loop-threads", Integer.class, 0);
+        String clientId = env.getProperty("client.cross-id", "110100001");
+        String username = env.getProperty("client.username", "sdsb");
+        String password = env.getProperty("client.password", "sdsb");
+
+        List<String> endpointList = Arrays.asList(endpoints.split(","));
+        return new GatTcpClientPool(endpointList, connectionsPerEndpoint, eventLoopThreads,
+                clientId, messageProcessor, username, password);
+    }
 }
@@ -1,27 +1,38 @@
 package com.traffic.client.network.client;
 import com.traffic.gat1049.protocol.constants.GatConstants;
 import com.traffic.gat1049.protocol.builder.MessageBuilder;
+import com.traffic.gat1049.exception.MessageDecodingException;
 import com.traffic.gat1049.protocol.codec.MessageCodec;
+import com.traffic.gat1049.protocol.codec.XmlFrameDecoder;
+import com.traffic.gat1049.protocol.model.command.TSCCmd;
 import com.traffic.gat1049.protocol.model.core.Message;
 import com.traffic.gat1049.protocol.model.sdo.SdoUser;
 import com.traffic.gat1049.protocol.processor.MessageProcessor;
 import io.netty.bootstrap.Bootstrap;
 import io.netty.buffer.ByteBuf;
-import io.netty.buffer.Unpooled;
+import io.netty.buffer.ByteBufInputStream;
+import io.netty.buffer.ByteBufOutputStream;
 import io.netty.channel.*;
 import io.netty.channel.nio.NioEventLoopGroup;
 import io.netty.channel.socket.SocketChannel;
 import io.netty.channel.socket.nio.NioSocketChannel;
-import io.netty.handler.codec.DelimiterBasedFrameDecoder;
-import io.netty.handler.codec.string.StringDecoder;
 import io.netty.handler.codec.string.StringEncoder;
 import io.netty.handler.timeout.IdleStateHandler;
 import io.netty.util.CharsetUtil;
+import io.netty.util.HashedWheelTimer;
+import io.netty.util.Timeout;
+import io.netty.util.concurrent.DefaultThreadFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntConsumer;
 
 /**
  * GA/T 1049.2 TCP客户端
@@ -39,14 +50,46 @@ public class GatTcpClient {
     private final MessageProcessor messageProcessor;
 
     private EventLoopGroup workerGroup;
+    // 外部共享的线程组（连接池场景），由所有者负责关闭
+    private boolean sharedWorkerGroup = false;
     private Channel channel;
     private Bootstrap bootstrap;
     private volatile boolean connected = false;
     private final AtomicLong sequenceGenerator = new AtomicLong(0);
 
-    // 用于同步请求响应
+    // 用于请求响应匹配：Seq -> 等待响应的Future，同一连接可同时有多个请求在途
     private final ConcurrentHashMap<String, CompletableFuture<Message>> pendingRequests = new ConcurrentHashMap<>();
 
+    // 请求超时定时器，所有客户端实例共享，不为每个请求占用线程
+    private static final HashedWheelTimer REQUEST_TIMER = new HashedWheelTimer(
+            new DefaultThreadFactory("GatTcpClient-RequestTimer", true), 10, TimeUnit.MILLISECONDS);
+
+    /**
+     * 按路口批量查询时默认查询的对象
+     */
+    public static final List<String> CROSS_QUERY_OBJECTS = Collections.unmodifiableList(Arrays.asList(
+            GatConstants.ObjectName.CROSS_PARAM,
+            GatConstants.ObjectName.LAMP_GROUP,
+            GatConstants.ObjectName.DETECTOR_PARAM,
+            GatConstants.ObjectName.LANE_PARAM,
+            GatConstants.ObjectName.PEDESTRIAN_PARAM,
+            GatConstants.ObjectName.SIGNAL_GROUP_PARAM,
+            GatConstants.ObjectName.STAGE_PARAM,
+            GatConstants.ObjectName.PLAN_PARAM,
+            GatConstants.ObjectName.DAY_PLAN_PARAM,
+            GatConstants.ObjectName.SCHEDULE_PARAM,
+            GatConstants.ObjectName.CROSS_STATE,
+            GatConstants.ObjectName.CROSS_MODE_PLAN,
+            GatConstants.ObjectName.CROSS_CYCLE,
+            GatConstants.ObjectName.CROSS_STAGE,
+            GatConstants.ObjectName.CROSS_SIGNAL_GROUP_STATUS
+    ));
+
+    /**
+     * 批量查询默认的在途请求上限
+     */
+    public static final int DEFAULT_MAX_IN_FLIGHT = 256;
+
     // 重连控制
     private ScheduledExecutorService reconnectExecutor;
     private ScheduledFuture<?> reconnectTask;
@@ -55,6 +98,11 @@ public class GatTcpClient {
     private static final long RECONNECT_DELAY = 10000; // 10秒
     private String username;
     private String password;
+    // 本连接的会话令牌，未设置时沿用全局的 tocken；连接断开时清除，重新登录后再设置
+    private volatile String token;
+    // 连接（含重连）成功后自动登录
+    private volatile boolean autoLogin = false;
+    private static final long AUTO_LOGIN_TIMEOUT_SECONDS = 10;
     // 添加重连状态控制
     private volatile ReconnectState reconnectState = ReconnectState.IDLE;
     private final Object reconnectLock = new Object();
@@ -93,7 +141,10 @@ public class GatTcpClient {
             return;
         }
 
-        workerGroup = new NioEventLoopGroup();
+        if (workerGroup == null || !sharedWorkerGroup) {
+            workerGroup = new NioEventLoopGroup();
+            sharedWorkerGroup = false;
+        }
 
         bootstrap = new Bootstrap();
         bootstrap.group(workerGroup)
@@ -113,15 +164,10 @@ public class GatTcpClient {
 
                         // 添加长度字段编码器
                         //pipeline.addLast("frameEncoder", new LengthFieldPrepender(4));
-                        ByteBuf delimiter = Unpooled.copiedBuffer("</Message>".getBytes(CharsetUtil.UTF_8));
+                        // 按 </Message> 分帧，直接输出ByteBuf，不经过StringDecoder
                         pipeline.addLast("frameDecoder",
-                                new DelimiterBasedFrameDecoder(
-                                        GatConstants.Network.MAX_MESSAGE_SIZE,
-                                        false,  // stripDelimiter = false，保留分隔符（关键修改）
-                                        delimiter
-                                ));
-                        // 字符串编解码器
-                        pipeline.addLast("decoder", new StringDecoder(CharsetUtil.UTF_8));
+                                new XmlFrameDecoder(GatConstants.Network.MAX_MESSAGE_SIZE));
+                        // 字符串编码器
                         pipeline.addLast("encoder", new StringEncoder(CharsetUtil.UTF_8));
 
                         // 心跳处理
@@ -181,6 +227,10 @@ public class GatTcpClient {
             logger.info("Successfully connected to GA/T 1049.2 server at {}:{} (attempt {})",
                     host, port, reconnectAttempts);
 
+            if (autoLogin) {
+                login(AUTO_LOGIN_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            }
+
         } catch (Exception e) {
             logger.error("Failed to connect to server at {}:{} (attempt {}): {}",
                     host, port, reconnectAttempts, e.getMessage());
@@ -222,8 +272,8 @@ public class GatTcpClient {
                 channel.close().sync();
             }
 
-            // 关闭线程组
-            if (workerGroup != null) {
+            // 关闭线程组，共享的线程组由所有者关闭
+            if (workerGroup != null && !sharedWorkerGroup) {
                 workerGroup.shutdownGracefully();
             }
 
@@ -319,6 +369,25 @@ public class GatTcpClient {
             logger.error("Failed to send login request", e);
         }
     }
+    /**
+     * 登录并保存本连接的会话令牌
+     *
+     * @return 登录响应，类型不是RESPONSE时令牌保持不变
+     */
+    public CompletableFuture<Message> login(long timeout, TimeUnit unit) {
+        Message loginRequest = MessageBuilder.createLoginRequest(username, password);
+        return sendRequestAsync(loginRequest, timeout, unit).whenComplete((response, error) -> {
+            if (error != null) {
+                logger.error("Login to {}:{} failed: {}", host, port, error.getMessage());
+            } else if ("RESPONSE".equals(response.getType())) {
+                token = response.getToken();
+                logger.info("Logged in to {}:{}, clientId={}", host, port, clientId);
+            } else {
+                logger.error("Login to {}:{} rejected: type={}", host, port, response.getType());
+            }
+        });
+    }
+
     /**
      * 发送消息
      */
@@ -336,32 +405,165 @@ public class GatTcpClient {
      * 发送请求并等待响应
      */
     public Message sendRequest(Message request, long timeout, TimeUnit unit) throws Exception {
-        if (!connected) {
-            throw new Exception("Not connected to server");
+        try {
+            return sendRequestAsync(request, timeout, unit).get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof Exception) {
+                throw (Exception) cause;
+            }
+            throw e;
         }
+    }
+
+    /**
+     * 异步发送请求
+     * 不阻塞调用线程，同一连接可同时有多个请求在途，响应按Seq匹配
+     *
+     * @return 响应Future，超时以 TimeoutException 异常完成
+     */
+    public CompletableFuture<Message> sendRequestAsync(Message request, long timeout, TimeUnit unit) {
+        return sendRequestAsync(request, timeout, unit, true);
+    }
 
-        String seq = request.getSeq();//request.generateSequence();
+    private CompletableFuture<Message> sendRequestAsync(Message request, long timeout, TimeUnit unit, boolean flush) {
         CompletableFuture<Message> future = new CompletableFuture<>();
-        pendingRequests.put(seq, future);
+        Channel ch = channel;
+        if (!connected || ch == null || !ch.isActive()) {
+            future.completeExceptionally(new Exception("Not connected to server"));
+            return future;
+        }
+
+        String seq = request.getSeq();
+        if (pendingRequests.putIfAbsent(seq, future) != null) {
+            future.completeExceptionally(new Exception("Duplicate request seq: " + seq));
+            return future;
+        }
 
+        Timeout timeoutTask = REQUEST_TIMER.newTimeout(t -> {
+            if (pendingRequests.remove(seq, future)) {
+                future.completeExceptionally(new TimeoutException("Request timeout: " + seq));
+            }
+        }, timeout, unit);
+        future.whenComplete((response, error) -> timeoutTask.cancel());
+
+        ByteBuf out = ch.alloc().buffer();
         try {
-            sendMessage(request);
-            return future.get(timeout, unit);
-        } catch (TimeoutException e) {
-            pendingRequests.remove(seq);
-            throw new Exception("Request timeout: " + seq);
+            codec.encode(request, new ByteBufOutputStream(out));
         } catch (Exception e) {
-            pendingRequests.remove(seq);
-            throw e;
+            out.release();
+            pendingRequests.remove(seq, future);
+            future.completeExceptionally(e);
+            return future;
+        }
+
+        ChannelFuture writeFuture = flush ? ch.writeAndFlush(out) : ch.write(out);
+        writeFuture.addListener(f -> {
+            if (!f.isSuccess() && pendingRequests.remove(seq, future)) {
+                future.completeExceptionally(f.cause());
+            }
+        });
+        logger.debug("Sent request: seq={}, type={}", seq, request.getType());
+        return future;
+    }
+
+    /**
+     * 批量查询多个路口的全部TSCCmd对象
+     *
+     * @param crossIds 路口编号列表
+     * @param timeout  单个请求超时时间
+     * @param unit     时间单位
+     * @return 全部请求完成后的查询结果，顺序与 路口×对象 的提交顺序一致
+     */
+    public CompletableFuture<List<QueryResult>> queryCrossObjectsAsync(List<String> crossIds, long timeout, TimeUnit unit) {
+        List<TSCCmd> commands = new ArrayList<>(crossIds.size() * CROSS_QUERY_OBJECTS.size());
+        for (String crossId : crossIds) {
+            for (String objName : CROSS_QUERY_OBJECTS) {
+                commands.add(new TSCCmd(objName, crossId));
+            }
+        }
+        return queryAsync(commands, DEFAULT_MAX_IN_FLIGHT, timeout, unit);
+    }
+
+    /**
+     * 流水线方式批量发送TSCCmd查询
+     * 最多 maxInFlight 个请求同时在途，每完成一个再补发一个，连续写出的请求合并flush
+     */
+    public CompletableFuture<List<QueryResult>> queryAsync(List<TSCCmd> commands, int maxInFlight,
+                                                           long timeout, TimeUnit unit) {
+        int total = commands.size();
+        QueryResult[] results = new QueryResult[total];
+        CompletableFuture<List<QueryResult>> all = new CompletableFuture<>();
+        if (total == 0) {
+            all.complete(Collections.emptyList());
+            return all;
+        }
+        if (!isConnected()) {
+            all.completeExceptionally(new Exception("Not connected to server"));
+            return all;
+        }
+
+        AtomicInteger nextIndex = new AtomicInteger();
+        AtomicInteger remaining = new AtomicInteger(total);
+        // 待补发的请求数；同一时刻只有一个线程在循环补发，请求同步完成时只累加计数，不递归调用
+        AtomicInteger issueRequests = new AtomicInteger();
+        Runnable[] issueOne = new Runnable[1];
+        IntConsumer issue = count -> {
+            if (issueRequests.getAndAdd(count) != 0) {
+                return;
+            }
+            int missed = count;
+            do {
+                for (int i = 0; i < missed; i++) {
+                    issueOne[0].run();
+                }
+                flushChannel();
+                missed = issueRequests.addAndGet(-missed);
+            } while (missed != 0);
+        };
+        issueOne[0] = () -> {
+            int index = nextIndex.getAndIncrement();
+            if (index >= total) {
+                return;
+            }
+            TSCCmd command = commands.get(index);
+            Message request = MessageBuilder.createQueryRequest(getToken(), command, username);
+            sendRequestAsync(request, timeout, unit, false).whenComplete((response, error) -> {
+                results[index] = new QueryResult(command, response, error);
+                if (remaining.decrementAndGet() == 0) {
+                    all.complete(Arrays.asList(results));
+                } else {
+                    issue.accept(1);
+                }
+            });
+        };
+
+        int window = Math.min(Math.max(maxInFlight, 1), total);
+        issue.accept(window);
+        logger.info("Pipelined {} TSCCmd queries (window={})", total, window);
+        return all;
+    }
+
+    private void flushChannel() {
+        Channel ch = channel;
+        if (ch != null) {
+            ch.flush();
         }
     }
 
+    /**
+     * 当前在途请求数
+     */
+    public int getPendingRequestCount() {
+        return pendingRequests.size();
+    }
+
     /**
      * 发送心跳
      */
     private void sendHeartbeat() {
         try {
-            Message heartbeat = MessageBuilder.createHeartbeatMessage(tocken, this.username);
+            Message heartbeat = MessageBuilder.createHeartbeatMessage(getToken(), this.username);
             sendMessage(heartbeat);
 
             logger.debug("Heartbeat sent");
@@ -394,6 +596,56 @@ public class GatTcpClient {
     public String getUsername(){ return username; }
     public String getPassword(){ return password; }
     public String getHost() { return host; }
+    public int getPort() { return port; }
+    public String getClientId() { return clientId; }
+
+    /**
+     * 获取本连接使用的会话令牌
+     */
+    public String getToken() {
+        String current = token;
+        return current != null ? current : tocken;
+    }
+
+    public void setToken(String token) { this.token = token; }
+
+    /**
+     * 本连接是否已登录，只看本连接的会话令牌，不沿用全局的 tocken
+     */
+    public boolean isLoggedIn() {
+        return token != null;
+    }
+
+    /**
+     * 重连是否已停止（主动断开或重连次数用尽），停止后连接不会再自行恢复
+     */
+    public boolean isReconnectStopped() {
+        synchronized (reconnectLock) {
+            return reconnectState == ReconnectState.STOPPED;
+        }
+    }
+
+    /**
+     * 断开连接并释放重连线程，之后本实例不再使用
+     */
+    public void close() {
+        stopReconnect();
+        disconnect();
+        reconnectExecutor.shutdownNow();
+    }
+
+    /**
+     * 设置连接（含重连）成功后是否自动登录，需在 connect() 之前设置
+     */
+    public void setAutoLogin(boolean autoLogin) { this.autoLogin = autoLogin; }
+
+    /**
+     * 使用外部共享的线程组，需在 connect() 之前设置；断开连接时不关闭该线程组
+     */
+    public void setEventLoopGroup(EventLoopGroup eventLoopGroup) {
+        this.workerGroup = eventLoopGroup;
+        this.sharedWorkerGroup = eventLoopGroup != null;
+    }
 
     /**
      * 完全重写的重连逻辑
@@ -463,7 +715,7 @@ public class GatTcpClient {
     /**
      * 客户端通道处理器
      */
-    private class GatClientHandler extends SimpleChannelInboundHandler<String> {
+    private class GatClientHandler extends SimpleChannelInboundHandler<ByteBuf> {
 
         @Override
         public void channelActive(ChannelHandlerContext ctx) {
@@ -481,6 +733,15 @@ public class GatTcpClient {
         public void channelInactive(ChannelHandlerContext ctx) {
             logger.info("Channel inactive");
             connected = false;
+            // 会话随连接失效，重连后重新登录取得新令牌
+            token = null;
+
+            // 连接断开后在途请求不会再有响应，立即失败
+            pendingRequests.forEach((seq, future) -> {
+                if (pendingRequests.remove(seq, future)) {
+                    future.completeExceptionally(new Exception("Connection lost"));
+                }
+            });
 
             // 只有在没有关闭且允许重连时才触发重连
             if (!workerGroup.isShuttingDown()) {
@@ -497,11 +758,13 @@ public class GatTcpClient {
         }
 
         @Override
-        protected void channelRead0(ChannelHandlerContext ctx, String msg) {
-            logger.debug("Received message: {}", msg);
+        protected void channelRead0(ChannelHandlerContext ctx, ByteBuf frame) {
+            if (logger.isDebugEnabled()) {
+                logger.debug("Received message: {}", frame.toString(CharsetUtil.UTF_8));
+            }
 
             try {
-                Message message = codec.decode(msg);
+                Message message = codec.decode(new ByteBufInputStream(frame.duplicate()));
 
                 // 检查是否是响应消息
                 if ("RESPONSE".equals(message.getType()) || "ERROR".equals(message.getType())) {
@@ -512,12 +775,24 @@ public class GatTcpClient {
                 }
 
                 if("REQUEST".equals(message.getType())){
-                    String response = messageProcessor.processMessage(msg);
-
-                    // 发送响应
-                    if (response != null && !response.trim().isEmpty()) {
-                        ctx.writeAndFlush(response);
-                        logger.debug("发送响应: {}", response);
+                    if (!XmlFrameDecoder.isValidFrame(frame)) {
+                        throw new MessageDecodingException("Invalid XML content format");
+                    }
+                    Message response = messageProcessor.processMessage(message);
+
+                    // 发送响应，直接编码到ByteBuf
+                    if (response != null) {
+                        ByteBuf out = ctx.alloc().buffer();
+                        try {
+                            codec.encode(response, new ByteBufOutputStream(out));
+                        } catch (Exception e) {
+                            out.release();
+                            throw e;
+                        }
+                        if (logger.isDebugEnabled()) {
+                            logger.debug("发送响应: {}", out.toString(CharsetUtil.UTF_8));
+                        }
+                        ctx.writeAndFlush(out);
                     }
                 }
                 // 交给响应处理器处理
@@ -582,6 +857,29 @@ public class GatTcpClient {
         }
     }
 
+    /**
+     * 批量查询结果
+     */
+    public static class QueryResult {
+        private final TSCCmd command;
+        private final Message response;
+        private final Throwable error;
+
+        public QueryResult(TSCCmd command, Message response, Throwable error) {
+            this.command = command;
+            this.response = response;
+            this.error = error;
+        }
+
+        public TSCCmd getCommand() { return command; }
+        public Message getResponse() { return response; }
+        public Throwable getError() { return error; }
+
+        public boolean isSuccess() {
+            return error == null && response != null && GatConstants.MessageType.RESPONSE.equals(response.getType());
+        }
+    }
+
     /**
      * 消息监听器接口
      */
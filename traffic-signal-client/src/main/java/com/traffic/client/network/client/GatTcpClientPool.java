@@ -0,0 +1,343 @@
+package com.traffic.client.network.client;
+
+import com.traffic.gat1049.protocol.model.core.Message;
+import com.traffic.gat1049.protocol.processor.MessageProcessor;
+import com.traffic.gat1049.protocol.util.ProtocolUtils;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.util.concurrent.DefaultThreadFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * GA/T 1049.2 客户端连接池
+ * 向一个或多个服务端建立多个已登录的会话，所有连接共享同一个事件循环线程组：
+ *
+ * 1. 按路口编号哈希选择连接，同一路口的消息始终经同一连接发送，保证推送顺序
+ * 2. 选中的连接断开或尚未登录时顺延到环上下一个可用连接，断开的连接由自身的重连机制恢复并自动重新登录
+ * 3. 每个连接使用各自的会话令牌
+ * 4. 重连已停止（重连次数用尽）的连接定期替换为新连接，保持池的容量
+ */
+public class GatTcpClientPool {
+
+    private static final Logger logger = LoggerFactory.getLogger(GatTcpClientPool.class);
+
+    // 数据对象类型 -> getCrossId 方法，无此方法的类型缓存为空
+    private static final Map<Class<?>, Optional<Method>> CROSS_ID_GETTERS = new ConcurrentHashMap<>();
+
+    // 检查并替换重连已停止的连接的间隔
+    private static final long REPLACE_CHECK_SECONDS = 30;
+
+    private final List<GatTcpClient> members;
+    private final EventLoopGroup eventLoopGroup;
+    private final MessageProcessor messageProcessor;
+    private final String username;
+    private final String password;
+    // 已注册的消息监听器，替换连接时注册到新连接上
+    private final Map<String, GatTcpClient.MessageListener> listeners = new ConcurrentHashMap<>();
+    private ScheduledExecutorService replaceExecutor;
+    private volatile boolean started = false;
+
+    // 统计数据
+    private final LongAdder routedCount = new LongAdder();
+    private final LongAdder failoverCount = new LongAdder();
+    private final LongAdder unavailableCount = new LongAdder();
+    private final LongAdder replacedCount = new LongAdder();
+
+    /**
+     * @param endpoints              服务端地址列表，格式 host:port
+     * @param connectionsPerEndpoint 每个服务端的连接数
+     * @param eventLoopThreads       共享线程组的线程数，0表示使用Netty默认值
+     * @param clientIdPrefix         连接标识前缀，用于生成请求序列号
+     */
+    public GatTcpClientPool(List<String> endpoints, int connectionsPerEndpoint, int eventLoopThreads,
+                            String clientIdPrefix, MessageProcessor messageProcessor,
+                            String username, String password) throws Exception {
+        if (endpoints == null || endpoints.isEmpty()) {
+            throw new IllegalArgumentException("Endpoints cannot be empty");
+        }
+        if (connectionsPerEndpoint <= 0) {
+            throw new IllegalArgumentException("connectionsPerEndpoint must be positive");
+        }
+
+        this.eventLoopGroup = new NioEventLoopGroup(eventLoopThreads,
+                new DefaultThreadFactory("GatTcpClientPool", true));
+        this.messageProcessor = messageProcessor;
+        this.username = username;
+        this.password = password;
+
+        List<GatTcpClient> clients = new ArrayList<>();
+        for (String endpoint : endpoints) {
+            String[] hostPort = parseEndpoint(endpoint);
+            for (int i = 0; i < connectionsPerEndpoint; i++) {
+                clients.add(newMember(hostPort[0], Integer.parseInt(hostPort[1]), clientIdPrefix + "-" + clients.size()));
+            }
+        }
+        this.members = new CopyOnWriteArrayList<>(clients);
+    }
+
+    private GatTcpClient newMember(String host, int port, String clientId) throws Exception {
+        GatTcpClient client = new GatTcpClient(host, port, clientId, messageProcessor, username, password);
+        client.setEventLoopGroup(eventLoopGroup);
+        client.setAutoLogin(true);
+        listeners.forEach((name, listener) -> client.getResponseHandler().addListener(name, listener));
+        return client;
+    }
+
+    /**
+     * 启动所有连接，连接失败的成员由各自的重连机制继续尝试
+     */
+    public synchronized void start() {
+        if (started) {
+            return;
+        }
+        started = true;
+        for (GatTcpClient client : members) {
+            try {
+                client.connect();
+            } catch (Exception e) {
+                logger.warn("Pool member {} failed to connect to {}:{}: {}",
+                        client.getClientId(), client.getHost(), client.getPort(), e.getMessage());
+            }
+        }
+        replaceExecutor = Executors.newSingleThreadScheduledExecutor(
+                new DefaultThreadFactory("GatTcpClientPool-Replace", true));
+        replaceExecutor.scheduleWithFixedDelay(this::replaceStoppedMembers,
+                REPLACE_CHECK_SECONDS, REPLACE_CHECK_SECONDS, TimeUnit.SECONDS);
+        logger.info("GatTcpClientPool started: members={}, connected={}", members.size(), getConnectedCount());
+    }
+
+    /**
+     * 将重连已停止的连接替换为新连接，新连接保持原有位置，路口到连接的映射不变
+     */
+    synchronized void replaceStoppedMembers() {
+        if (!started) {
+            return;
+        }
+        for (int i = 0; i < members.size(); i++) {
+            GatTcpClient stopped = members.get(i);
+            if (!stopped.isReconnectStopped()) {
+                continue;
+            }
+            try {
+                GatTcpClient replacement = newMember(stopped.getHost(), stopped.getPort(), stopped.getClientId());
+                stopped.close();
+                members.set(i, replacement);
+                replacedCount.increment();
+                logger.warn("Replacing pool member {} whose reconnect stopped ({}:{})",
+                        stopped.getClientId(), stopped.getHost(), stopped.getPort());
+                replacement.connect();
+            } catch (Exception e) {
+                logger.error("Failed to replace pool member {}: {}", stopped.getClientId(), e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * 关闭所有连接及共享线程组
+     */
+    public synchronized void shutdown() {
+        if (started) {
+            started = false;
+            replaceExecutor.shutdownNow();
+            for (GatTcpClient client : members) {
+                client.stopReconnect();
+                client.disconnect();
+            }
+        }
+        eventLoopGroup.shutdownGracefully();
+        logger.info("GatTcpClientPool shutdown");
+    }
+
+    /**
+     * 按路口编号选择连接
+     * 首选连接不可用时沿环顺延，同一路口在首选连接恢复后回到首选连接
+     *
+     * @param crossId 路口编号，null时使用第一个可用连接
+     * @return 可用连接，全部断开时返回null
+     */
+    public GatTcpClient select(String crossId) {
+        int size = members.size();
+        int preferred = crossId != null ? Math.floorMod(crossId.hashCode(), size) : 0;
+        for (int i = 0; i < size; i++) {
+            GatTcpClient client = members.get((preferred + i) % size);
+            if (client.isConnected() && client.isLoggedIn()) {
+                if (i > 0) {
+                    failoverCount.increment();
+                }
+                routedCount.increment();
+                return client;
+            }
+        }
+        unavailableCount.increment();
+        return null;
+    }
+
+    /**
+     * 经路口对应的连接发送消息，消息令牌替换为该连接的会话令牌
+     */
+    public void sendMessage(String crossId, Message message) throws Exception {
+        GatTcpClient client = select(crossId);
+        if (client == null) {
+            throw new Exception("No connected member in client pool");
+        }
+        message.setToken(client.getToken());
+        client.sendMessage(message);
+    }
+
+    /**
+     * 按消息数据对象中的路口编号选择连接并发送
+     */
+    public void sendMessage(Message message) throws Exception {
+        sendMessage(getShardKey(message), message);
+    }
+
+    /**
+     * 经路口对应的连接异步发送请求
+     */
+    public CompletableFuture<Message> sendRequestAsync(String crossId, Message request, long timeout, TimeUnit unit) {
+        GatTcpClient client = select(crossId);
+        if (client == null) {
+            CompletableFuture<Message> failed = new CompletableFuture<>();
+            failed.completeExceptionally(new Exception("No connected member in client pool"));
+            return failed;
+        }
+        request.setToken(client.getToken());
+        return client.sendRequestAsync(request, timeout, unit);
+    }
+
+    /**
+     * 为所有连接注册消息监听器
+     */
+    public void addListener(String name, GatTcpClient.MessageListener listener) {
+        listeners.put(name, listener);
+        for (GatTcpClient client : members) {
+            client.getResponseHandler().addListener(name, listener);
+        }
+    }
+
+    /**
+     * 获取消息的分片键：首个操作数据对象的路口编号，无路口编号时返回null
+     */
+    public static String getShardKey(Message message) {
+        Object data = ProtocolUtils.getOperationData(message);
+        if (data == null) {
+            return null;
+        }
+        if (data instanceof List) {
+            List<?> list = (List<?>) data;
+            if (list.isEmpty()) {
+                return null;
+            }
+            data = list.get(0);
+        }
+        Optional<Method> getter = CROSS_ID_GETTERS.computeIfAbsent(data.getClass(), type -> {
+            try {
+                Method method = type.getMethod("getCrossId");
+                return method.getReturnType() == String.class ? Optional.of(method) : Optional.empty();
+            } catch (NoSuchMethodException e) {
+                return Optional.empty();
+            }
+        });
+        if (!getter.isPresent()) {
+            return null;
+        }
+        try {
+            return (String) getter.get().invoke(data);
+        } catch (Exception e) {
+            logger.debug("Failed to read crossId from {}", data.getClass().getSimpleName(), e);
+            return null;
+        }
+    }
+
+    public List<GatTcpClient> getMembers() {
+        return Collections.unmodifiableList(members);
+    }
+
+    public int getConnectedCount() {
+        int count = 0;
+        for (GatTcpClient client : members) {
+            if (client.isConnected()) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    public boolean isStarted() {
+        return started;
+    }
+
+    /**
+     * 获取统计信息快照
+     */
+    public Stats getStats() {
+        Stats stats = new Stats();
+        stats.setMemberCount(members.size());
+        stats.setConnectedCount(getConnectedCount());
+        stats.setRoutedCount(routedCount.sum());
+        stats.setFailoverCount(failoverCount.sum());
+        stats.setUnavailableCount(unavailableCount.sum());
+        stats.setReplacedCount(replacedCount.sum());
+        return stats;
+    }
+
+    private static String[] parseEndpoint(String endpoint) {
+        String trimmed = endpoint.trim();
+        int index = trimmed.lastIndexOf(':');
+        if (index <= 0 || index == trimmed.length() - 1) {
+            throw new IllegalArgumentException("Invalid endpoint, expected host:port: " + endpoint);
+        }
+        return new String[]{trimmed.substring(0, index), trimmed.substring(index + 1)};
+    }
+
+    /**
+     * 连接池统计信息
+     */
+    public static class Stats {
+        private int memberCount;
+        private int connectedCount;
+        private long routedCount;
+        private long failoverCount;
+        private long unavailableCount;
+        private long replacedCount;
+
+        public int getMemberCount() { return memberCount; }
+        public void setMemberCount(int memberCount) { this.memberCount = memberCount; }
+
+        public int getConnectedCount() { return connectedCount; }
+        public void setConnectedCount(int connectedCount) { this.connectedCount = connectedCount; }
+
+        public long getRoutedCount() { return routedCount; }
+        public void setRoutedCount(long routedCount) { this.routedCount = routedCount; }
+
+        public long getFailoverCount() { return failoverCount; }
+        public void setFailoverCount(long failoverCount) { this.failoverCount = failoverCount; }
+
+        public long getUnavailableCount() { return unavailableCount; }
+        public void setUnavailableCount(long unavailableCount) { this.unavailableCount = unavailableCount; }
+
+        public long getReplacedCount() { return replacedCount; }
+        public void setReplacedCount(long replacedCount) { this.replacedCount = replacedCount; }
+
+        @Override
+        public String toString() {
+            return String.format("GatTcpClientPool.Stats{members=%d, connected=%d, routed=%d, failover=%d, unavailable=%d, replaced=%d}",
+                    memberCount, connectedCount, routedCount, failoverCount, unavailableCount, replacedCount);
+        }
+    }
+}
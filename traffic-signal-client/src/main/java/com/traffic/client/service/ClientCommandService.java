@@ -13,8 +13,11 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import java.util.Arrays;
+import java.util.List;
 import java.util.Scanner;
 import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
 /**
  * 客户端交互式命令服务
@@ -115,6 +118,10 @@ public class ClientCommandService {
                 queryCrossState(client, scanner);
                 break;
 
+            case "crossquery":
+                queryCrossObjects(client, scanner);
+                break;
+
             default:
                 System.out.println("未知命令: " + command);
                 System.out.println("输入 'help' 查看可用命令");
@@ -138,6 +145,7 @@ public class ClientCommandService {
         System.out.println("GA/T 1049.2 交通信号控制:");
         System.out.println("  sysinfo        - 查询系统信息");
         System.out.println("  crossstate     - 查询路口状态");
+        System.out.println("  crossquery     - 批量查询路口全部参数与状态");
         System.out.println("==========================================");
     }
 
@@ -398,4 +406,29 @@ public class ClientCommandService {
         System.out.println("查询路口状态: " + crossId);
         // 原有实现
     }
+
+    private void queryCrossObjects(GatTcpClient client, Scanner scanner) throws Exception {
+        System.out.print("输入路口编号（逗号分隔）: ");
+        List<String> crossIds = Arrays.stream(scanner.nextLine().trim().split(","))
+                .map(String::trim)
+                .filter(id -> !id.isEmpty())
+                .collect(Collectors.toList());
+        if (crossIds.isEmpty()) {
+            System.out.println("未输入路口编号");
+            return;
+        }
+
+        long start = System.currentTimeMillis();
+        List<GatTcpClient.QueryResult> results = client.queryCrossObjectsAsync(crossIds, 10, TimeUnit.SECONDS).get();
+        long success = results.stream().filter(GatTcpClient.QueryResult::isSuccess).count();
+
+        System.out.println("批量查询完成: 路口=" + crossIds.size() + ", 请求=" + results.size() +
+                ", 成功=" + success + ", 失败=" + (results.size() - success) +
+                ", 耗时=" + (System.currentTimeMillis() - start) + "ms");
+        results.stream()
+                .filter(result -> !result.isSuccess())
+                .forEach(result -> System.out.println("  失败: " + result.getCommand().getId() + "/" +
+                        result.getCommand().getObjName() + " - " +
+                        (result.getError() != null ? result.getError().getMessage() : result.getResponse().getType())));
+    }
 }
@@ -1,6 +1,7 @@
 package com.traffic.client.service;
 
 import com.traffic.client.network.client.GatTcpClient;
+import com.traffic.client.network.client.GatTcpClientPool;
 import com.traffic.gat1049.exception.BusinessException;
 import com.traffic.gat1049.model.enums.ControlMode;
 import com.traffic.gat1049.model.enums.ControllerErrorType;
@@ -53,6 +54,8 @@ public class ClientDataPushService {
 
     // 注入的GatTcpClient实例
     private final GatTcpClient gatTcpClient;
+    // 多连接客户端池，启动后推送按路口经池内连接发送
+    private final GatTcpClientPool gatTcpClientPool;
     private final DefaultServiceFactory serviceFactory;
 
     // 模拟数据生成器
@@ -61,8 +64,10 @@ public class ClientDataPushService {
     private final String controllerId = "SC001"; // 模拟信号机ID
 
     // 构造函数注入 GatTcpClient
-    public ClientDataPushService(GatTcpClient gatTcpClient, DefaultServiceFactory serviceFactory) {
+    public ClientDataPushService(GatTcpClient gatTcpClient, GatTcpClientPool gatTcpClientPool,
+                                 DefaultServiceFactory serviceFactory) {
         this.gatTcpClient = gatTcpClient;
+        this.gatTcpClientPool = gatTcpClientPool;
         this.serviceFactory = serviceFactory;
     }
 
@@ -482,8 +487,12 @@ public class ClientDataPushService {
      */
     private void sendPushMessage(String serverId, Message pushMessage) {
         try {
-            // 使用注入的GatTcpClient发送消息
-            if (gatTcpClient != null) {
+            if (gatTcpClientPool != null && gatTcpClientPool.isStarted()) {
+                // 同一路口的推送始终经同一连接发送，保持顺序
+                gatTcpClientPool.sendMessage(pushMessage);
+                logger.debug("经连接池发送推送消息到服务端: serverId={}, seq={}", serverId, pushMessage.getSeq());
+            } else if (gatTcpClient != null) {
+                // 使用注入的GatTcpClient发送消息
                 gatTcpClient.sendMessage(pushMessage);
                 logger.debug("发送推送消息到服务端: serverId={}, seq={}, dataType={}",
                         serverId, pushMessage.getSeq(),
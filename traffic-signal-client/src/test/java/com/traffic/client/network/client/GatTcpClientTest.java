@@ -0,0 +1,216 @@
+package com.traffic.client.network.client;
+
+import com.traffic.gat1049.protocol.builder.MessageBuilder;
+import com.traffic.gat1049.protocol.codec.MessageCodec;
+import com.traffic.gat1049.protocol.codec.XmlFrameDecoder;
+import com.traffic.gat1049.protocol.constants.GatConstants;
+import com.traffic.gat1049.protocol.model.command.TSCCmd;
+import com.traffic.gat1049.protocol.model.core.Message;
+import io.netty.bootstrap.ServerBootstrap;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufInputStream;
+import io.netty.channel.*;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.SocketChannel;
+import io.netty.channel.socket.nio.NioServerSocketChannel;
+import io.netty.handler.codec.string.StringEncoder;
+import io.netty.util.CharsetUtil;
+import org.junit.jupiter.api.*;
+
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * GatTcpClient 流水线请求测试：按Seq匹配乱序响应、超时、断线、批量查询窗口
+ * 使用本机回环的桩服务端
+ */
+@DisplayName("TCP客户端流水线请求测试")
+class GatTcpClientTest {
+
+    private EventLoopGroup group;
+    private Channel serverChannel;
+    private GatTcpClient client;
+    private StubServerHandler server;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        group = new NioEventLoopGroup(2);
+        server = new StubServerHandler();
+        serverChannel = new ServerBootstrap()
+                .group(group)
+                .channel(NioServerSocketChannel.class)
+                .childHandler(new ChannelInitializer<SocketChannel>() {
+                    @Override
+                    protected void initChannel(SocketChannel ch) {
+                        ch.pipeline().addLast(new XmlFrameDecoder(GatConstants.Network.MAX_MESSAGE_SIZE));
+                        ch.pipeline().addLast(new StringEncoder(CharsetUtil.UTF_8));
+                        ch.pipeline().addLast(server);
+                    }
+                })
+                .bind("127.0.0.1", 0).sync().channel();
+
+        int port = ((InetSocketAddress) serverChannel.localAddress()).getPort();
+        client = new GatTcpClient("127.0.0.1", port, "test-client", null);
+        client.setEventLoopGroup(group);
+        client.connect();
+        assertTrue(client.isConnected());
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        client.close();
+        serverChannel.close().sync();
+        group.shutdownGracefully(0, 1, TimeUnit.SECONDS).sync();
+    }
+
+    @Test
+    @DisplayName("同一连接多个请求在途，乱序响应按Seq匹配")
+    void testOutOfOrderResponsesMatchedBySeq() throws Exception {
+        int count = 20;
+        server.replyInReverseBatchesOf = count;
+
+        List<Message> requests = new ArrayList<>();
+        List<CompletableFuture<Message>> futures = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Message request = query("1101000010000" + (i % 10));
+            requests.add(request);
+            futures.add(client.sendRequestAsync(request, 10, TimeUnit.SECONDS));
+        }
+
+        for (int i = 0; i < count; i++) {
+            Message response = futures.get(i).get(10, TimeUnit.SECONDS);
+            assertEquals(requests.get(i).getSeq(), response.getSeq());
+            assertEquals(GatConstants.MessageType.RESPONSE, response.getType());
+        }
+        assertEquals(0, client.getPendingRequestCount());
+    }
+
+    @Test
+    @DisplayName("无响应的请求按超时失败并移出在途表")
+    void testTimeout() throws Exception {
+        server.ignore = true;
+
+        CompletableFuture<Message> future = client.sendRequestAsync(query("11010000100001"), 100, TimeUnit.MILLISECONDS);
+        ExecutionException e = assertThrows(ExecutionException.class, () -> future.get(5, TimeUnit.SECONDS));
+        assertTrue(e.getCause() instanceof TimeoutException);
+        assertEquals(0, client.getPendingRequestCount());
+
+        assertThrows(TimeoutException.class,
+                () -> client.sendRequest(query("11010000100001"), 100, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    @DisplayName("连接断开时在途请求立即失败")
+    void testPendingFailOnDisconnect() throws Exception {
+        server.ignore = true;
+        server.closeAfter = 3;
+
+        List<CompletableFuture<Message>> futures = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            futures.add(client.sendRequestAsync(query("11010000100001"), 30, TimeUnit.SECONDS));
+        }
+
+        for (CompletableFuture<Message> future : futures) {
+            ExecutionException e = assertThrows(ExecutionException.class, () -> future.get(5, TimeUnit.SECONDS));
+            assertEquals("Connection lost", e.getCause().getMessage());
+        }
+        assertEquals(0, client.getPendingRequestCount());
+    }
+
+    @Test
+    @DisplayName("批量查询的在途请求数不超过窗口，结果顺序与提交顺序一致")
+    void testQueryWindow() throws Exception {
+        List<TSCCmd> commands = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            commands.add(new TSCCmd(GatConstants.ObjectName.CROSS_CYCLE, String.format("110100001%05d", i)));
+        }
+        server.pendingProbe = client::getPendingRequestCount;
+
+        List<GatTcpClient.QueryResult> results = client.queryAsync(commands, 4, 10, TimeUnit.SECONDS)
+                .get(30, TimeUnit.SECONDS);
+
+        assertEquals(commands.size(), results.size());
+        for (int i = 0; i < commands.size(); i++) {
+            assertSame(commands.get(i), results.get(i).getCommand());
+            assertTrue(results.get(i).isSuccess(), "第" + i + "个查询失败: " + results.get(i).getError());
+        }
+        assertEquals(commands.size(), server.received.get());
+        assertTrue(server.maxPending.get() <= 4, "在途请求数超过窗口: " + server.maxPending.get());
+    }
+
+    @Test
+    @DisplayName("断线后剩余请求同步失败时循环补发，不递归导致栈溢出")
+    void testSynchronousFailuresDoNotRecurse() throws Exception {
+        server.ignore = true;
+        server.closeAfter = 1;
+
+        List<TSCCmd> commands = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            commands.add(new TSCCmd(GatConstants.ObjectName.CROSS_STATE, "11010000100001"));
+        }
+
+        List<GatTcpClient.QueryResult> results = client.queryAsync(commands, 1, 30, TimeUnit.SECONDS)
+                .get(30, TimeUnit.SECONDS);
+
+        assertEquals(commands.size(), results.size());
+        assertEquals("Connection lost", results.get(0).getError().getMessage());
+        for (int i = 1; i < results.size(); i++) {
+            assertFalse(results.get(i).isSuccess());
+            assertEquals("Not connected to server", results.get(i).getError().getMessage());
+        }
+    }
+
+    private Message query(String crossId) {
+        return MessageBuilder.createQueryRequest("token-1", new TSCCmd(GatConstants.ObjectName.CROSS_CYCLE, crossId), "user");
+    }
+
+    /**
+     * 桩服务端：默认逐条应答，可配置批量逆序应答、不应答或收到若干请求后断开
+     */
+    @ChannelHandler.Sharable
+    private static class StubServerHandler extends SimpleChannelInboundHandler<ByteBuf> {
+        private final MessageCodec codec = MessageCodec.create();
+        private final List<Message> held = Collections.synchronizedList(new ArrayList<>());
+        private final AtomicInteger received = new AtomicInteger();
+        private final AtomicInteger maxPending = new AtomicInteger();
+        private volatile int replyInReverseBatchesOf = 1;
+        private volatile boolean ignore;
+        private volatile int closeAfter;
+        private volatile Callable<Integer> pendingProbe;
+
+        @Override
+        protected void channelRead0(ChannelHandlerContext ctx, ByteBuf frame) throws Exception {
+            Message request = codec.decode(new ByteBufInputStream(frame.duplicate()));
+            int count = received.incrementAndGet();
+            if (pendingProbe != null) {
+                maxPending.accumulateAndGet(pendingProbe.call(), Math::max);
+            }
+            if (closeAfter > 0 && count >= closeAfter) {
+                ctx.close();
+                return;
+            }
+            if (ignore) {
+                return;
+            }
+
+            held.add(request);
+            if (held.size() < replyInReverseBatchesOf) {
+                return;
+            }
+            List<Message> batch = new ArrayList<>(held);
+            held.clear();
+            Collections.reverse(batch);
+            for (Message message : batch) {
+                Object data = message.getBody().getOperations().get(0).getData();
+                ctx.write(codec.encode(MessageBuilder.createSuccessResponse(message, data)));
+            }
+            ctx.flush();
+        }
+    }
+}
@@ -4,11 +4,13 @@ import com.traffic.gat1049.application.HandlerRegistry;
 import com.traffic.gat1049.application.session.SessionManager;
 import com.traffic.gat1049.application.subscription.SubscriptionManager;
 import com.traffic.gat1049.exception.MessageEncodingException;
+import com.traffic.gat1049.protocol.codec.MessageCodec;
 import com.traffic.gat1049.protocol.processor.MessageProcessor;
 import com.traffic.gat1049.service.abstracts.DefaultServiceFactory;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.DependsOn;
+import org.springframework.core.env.Environment;
 
 /**
  * 消息处理相关Bean配置
@@ -17,6 +19,16 @@ import org.springframework.context.annotation.DependsOn;
 @DependsOn("applicationConfig")
 public class MessageProcessingConfig {
 
+    @Bean
+    public MessageCodec messageCodec(Environment env) {
+        MessageCodec codec = MessageCodec.getInstance();
+        codec.setPooled(env.getProperty("gat1049.codec.pooled", Boolean.class, true));
+        codec.setFormattedOutput(env.getProperty("gat1049.codec.formatted-output", Boolean.class, true));
+        codec.setFastPathEnabled(env.getProperty("gat1049.codec.fast-path", Boolean.class, true));
+        codec.setPackSignalGroupStatus(env.getProperty("gat1049.codec.pack-signal-group-status", Boolean.class, true));
+        return codec;
+    }
+
     @Bean
     public HandlerRegistry handlerRegistry(
             DefaultServiceFactory serviceFactory,
@@ -5,6 +5,7 @@ import com.traffic.gat1049.application.session.SessionManager;
 import com.traffic.gat1049.application.subscription.SubscriptionManager;
 import com.traffic.gat1049.protocol.processor.MessageProcessor;
 import com.traffic.server.debug.UpdatedServerDebugConsole;
+import com.traffic.server.network.client.ServerToClientSender;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.boot.CommandLineRunner;
@@ -12,6 +13,9 @@ import org.springframework.context.ApplicationContext;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.util.HashMap;
+import java.util.Map;
+
 /**
  * 服务器启动和运行时配置
  */
@@ -26,6 +30,7 @@ public class ServerConfig {
             SubscriptionManager subscriptionManager,
             ConnectionManager connectionManager,
             MessageProcessor messageProcessor,
+            ServerToClientSender clientSender,
             ApplicationContext applicationContext) {
 
         return args -> {
@@ -37,6 +42,20 @@ public class ServerConfig {
                 // 实际的消息推送逻辑
             });
 
+            // 批量推送：同一消息只编码一次，按订阅令牌找到连接后分发
+            subscriptionManager.setFanoutCallback((tokens, message) -> {
+                Map<String, String> clientTokens = new HashMap<>();
+                for (String token : tokens) {
+                    String clientId = connectionManager.getClientId(token);
+                    if (clientId != null) {
+                        clientTokens.put(clientId, token);
+                    }
+                }
+                if (!clientTokens.isEmpty()) {
+                    clientSender.pushToClients(message, clientTokens);
+                }
+            });
+
             logger.info("GA/T 1049.2交通信号控制系统服务端启动完成");
             logger.info("TCP端口: 9999");
             logger.info("HTTP端口: 8080");
@@ -1,15 +1,33 @@
 package com.traffic.server.network;
 
 import com.traffic.gat1049.application.connection.ConnectionManager;
+import com.traffic.gat1049.application.retrans.RetransmissionEngine;
 import com.traffic.gat1049.protocol.processor.MessageProcessor;
 import com.traffic.gat1049.application.session.SessionManager;
+import com.traffic.gat1049.application.state.LiveStateStore;
+import com.traffic.gat1049.application.statistics.RollingTrafficStatistics;
 import com.traffic.gat1049.application.subscription.SubscriptionManager;
+import com.traffic.gat1049.data.timeseries.TrafficTimeSeriesStore;
+import com.traffic.gat1049.device.management.BatchDeviceHealthChecker;
+import com.traffic.gat1049.device.management.DeviceCircuitBreaker;
+import com.traffic.gat1049.device.management.DeviceIoScheduler;
+import com.traffic.gat1049.device.management.DevicePollScheduler;
+import com.traffic.gat1049.repository.cache.ParamCache;
+import com.traffic.gat1049.repository.maintenance.HistoryRetentionManager;
+import com.traffic.gat1049.repository.writebehind.RuntimeDataWriter;
+import com.traffic.server.network.client.ServerToClientSender;
+import com.traffic.server.network.server.GatTcpServer;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import javax.annotation.PostConstruct;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
 
 /**
  * GA/T 1049管理REST API
@@ -31,6 +49,55 @@ public class Gat1049ManagementController {
     @Autowired
     private MessageProcessor messageProcessor;
 
+    @Autowired
+    private GatTcpServer gatTcpServer;
+
+    @Autowired
+    private ServerToClientSender clientSender;
+
+    @Autowired(required = false)
+    private ParamCache paramCache;
+
+    @Autowired(required = false)
+    private RuntimeDataWriter runtimeDataWriter;
+
+    @Autowired(required = false)
+    private LiveStateStore liveStateStore;
+
+    @Autowired(required = false)
+    private TrafficTimeSeriesStore trafficTimeSeriesStore;
+
+    @Autowired(required = false)
+    private RollingTrafficStatistics rollingTrafficStatistics;
+
+    @Autowired(required = false)
+    private RetransmissionEngine retransmissionEngine;
+
+    @Autowired(required = false)
+    private HistoryRetentionManager historyRetentionManager;
+
+    @Autowired(required = false)
+    private DeviceIoScheduler deviceIoScheduler;
+
+    @Autowired(required = false)
+    private DevicePollScheduler devicePollScheduler;
+
+    @Autowired(required = false)
+    private BatchDeviceHealthChecker batchDeviceHealthChecker;
+
+    @Autowired(required = false)
+    private DeviceCircuitBreaker deviceCircuitBreaker;
+
+    /**
+     * 统计项名称 -> 统计提供者，按注册顺序输出
+     */
+    private final Map<String, Supplier<Map<String, Object>>> statsProviders = new LinkedHashMap<>();
+
+    /**
+     * 原有 /{name}-stats 路径 -> 统计提供者，保持各路径原来的返回结构
+     */
+    private final Map<String, Supplier<Map<String, Object>>> legacyStatsProviders = new HashMap<>();
+
     /**
      * 获取系统状态
      */
@@ -79,6 +146,107 @@ public class Gat1049ManagementController {
         return ResponseEntity.ok(result);
     }
 
+    /**
+     * 获取全部组件统计，按统计项名称分组
+     */
+    @GetMapping("/stats")
+    public ResponseEntity<Map<String, Object>> getAllStats() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        statsProviders.forEach((name, provider) -> result.put(name, provider.get()));
+
+        return ResponseEntity.ok(result);
+    }
+
+    /**
+     * 获取单个组件统计，名称见 {@link #registerStatsProviders()}，如 device-io、write-behind
+     */
+    @GetMapping("/stats/{name}")
+    public ResponseEntity<Map<String, Object>> getStats(@PathVariable String name) {
+        Supplier<Map<String, Object>> provider = statsProviders.get(name);
+        if (provider == null) {
+            return ResponseEntity.notFound().build();
+        }
+
+        return ResponseEntity.ok(provider.get());
+    }
+
+    /**
+     * 按原有路径获取单个组件统计，如 /business-stats、/outbound-stats、/device-health-stats
+     * 返回结构与合并到 /stats 之前一致，已有的监控和脚本无需修改
+     */
+    @GetMapping("/{name}-stats")
+    public ResponseEntity<Map<String, Object>> getLegacyStats(@PathVariable String name) {
+        Supplier<Map<String, Object>> provider = legacyStatsProviders.get(name);
+        if (provider == null) {
+            return ResponseEntity.notFound().build();
+        }
+
+        return ResponseEntity.ok(provider.get());
+    }
+
+    /**
+     * 注册各组件的统计项，未装配的组件返回 enabled=false
+     */
+    @PostConstruct
+    public void registerStatsProviders() {
+        registerStats("business", gatTcpServer, server -> server.getBusinessStats() != null, GatTcpServer::getBusinessStats);
+        registerStats("outbound", clientSender, sender -> true, ServerToClientSender::getOutboundStats);
+        registerStats("param-cache", paramCache, cache -> true, ParamCache::getStats);
+        registerStats("write-behind", runtimeDataWriter, RuntimeDataWriter::isEnabled, RuntimeDataWriter::getStats);
+        registerStats("live-state", liveStateStore, LiveStateStore::isEnabled, LiveStateStore::getStats);
+        registerStats("timeseries", trafficTimeSeriesStore, TrafficTimeSeriesStore::isEnabled, TrafficTimeSeriesStore::getStats);
+        registerStats("rolling", rollingTrafficStatistics, RollingTrafficStatistics::isEnabled, RollingTrafficStatistics::getStats);
+        registerStats("retrans", retransmissionEngine, engine -> true, RetransmissionEngine::getStats);
+        registerStats("retention", historyRetentionManager, HistoryRetentionManager::isEnabled, HistoryRetentionManager::getStats);
+        registerStats("device-io", deviceIoScheduler, scheduler -> true, DeviceIoScheduler::getStats);
+        registerStats("device-poll", devicePollScheduler, scheduler -> true, DevicePollScheduler::getStats);
+        registerStats("device-health", batchDeviceHealthChecker, checker -> true, BatchDeviceHealthChecker::getStats);
+        registerStats("device-circuit-breaker", deviceCircuitBreaker, breaker -> true, DeviceCircuitBreaker::getStats);
+        registerLegacyStatsProviders();
+    }
+
+    /**
+     * 原有路径中返回 {enabled, stats} 的沿用统计项，其余按原结构单独生成
+     */
+    private void registerLegacyStatsProviders() {
+        for (String name : new String[]{"business", "live-state", "timeseries", "rolling", "retrans",
+                "retention", "device-io", "device-poll"}) {
+            legacyStatsProviders.put(name, statsProviders.get(name));
+        }
+        legacyStatsProviders.put("outbound", () -> {
+            Map<String, Object> result = new HashMap<>();
+            result.put("clients", clientSender.getOutboundStats());
+            return result;
+        });
+        legacyStatsProviders.put("param-cache", () -> {
+            Map<String, Object> result = new HashMap<>();
+            result.put("paramCache", paramCache != null ? paramCache.getStats() : null);
+            return result;
+        });
+        legacyStatsProviders.put("write-behind", () -> {
+            Map<String, Object> result = new HashMap<>();
+            result.put("enabled", runtimeDataWriter != null && runtimeDataWriter.isEnabled());
+            result.put("buffers", runtimeDataWriter != null ? runtimeDataWriter.getStats() : null);
+            return result;
+        });
+        legacyStatsProviders.put("device-health", () -> {
+            Map<String, Object> result = new HashMap<>();
+            result.put("enabled", batchDeviceHealthChecker != null);
+            result.put("stats", batchDeviceHealthChecker != null ? batchDeviceHealthChecker.getStats() : null);
+            result.put("circuitBreaker", deviceCircuitBreaker != null ? deviceCircuitBreaker.getStats() : null);
+            return result;
+        });
+    }
+
+    private <C> void registerStats(String name, C component, Predicate<C> enabled, Function<C, ?> stats) {
+        statsProviders.put(name, () -> {
+            Map<String, Object> result = new HashMap<>();
+            result.put("enabled", component != null && enabled.test(component));
+            result.put("stats", component != null ? stats.apply(component) : null);
+            return result;
+        });
+    }
+
     /**
      * 健康检查
      */
@@ -0,0 +1,125 @@
+package com.traffic.server.network;
+
+import com.traffic.gat1049.data.timeseries.AggregateResolution;
+import com.traffic.gat1049.exception.BusinessException;
+import com.traffic.gat1049.exception.ValidationException;
+import com.traffic.gat1049.model.dto.TrafficDataQueryDto;
+import com.traffic.gat1049.service.interfaces.TrafficDataService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 交通流统计查询REST API
+ * 提供滚动窗口统计和时序降采样结果的查询，时间格式与协议一致（yyyyMMddHHmmss）
+ */
+@RestController
+@RequestMapping("/api/gat1049/traffic")
+public class TrafficStatisticsController {
+
+    private static final Logger logger = LoggerFactory.getLogger(TrafficStatisticsController.class);
+
+    private static final DateTimeFormatter TIME_FORMATTER = DateTimeFormatter.ofPattern("yyyyMMddHHmmss");
+
+    @Autowired
+    private TrafficDataService trafficDataService;
+
+    /**
+     * 获取路口最近滑动窗口的交通流统计
+     * GET /api/gat1049/traffic/{crossId}/rolling
+     */
+    @GetMapping("/{crossId}/rolling")
+    public ResponseEntity<Map<String, Object>> getRollingStatistics(@PathVariable String crossId) {
+        return respond(() -> trafficDataService.getRollingTrafficStatistics(crossId));
+    }
+
+    /**
+     * 按固定统计窗口获取交通流统计，每个有数据的窗口一条
+     * GET /api/gat1049/traffic/{crossId}/windows?startTime=20250101080000&endTime=20250101090000&laneNos=1,2
+     */
+    @GetMapping("/{crossId}/windows")
+    public ResponseEntity<Map<String, Object>> getWindowedStatistics(
+            @PathVariable String crossId,
+            @RequestParam(required = false) String startTime,
+            @RequestParam(required = false) String endTime,
+            @RequestParam(required = false) List<Integer> laneNos) {
+        return respond(() -> {
+            TrafficDataQueryDto queryDto = new TrafficDataQueryDto();
+            queryDto.setCrossId(crossId);
+            queryDto.setStartTime(parseTime("startTime", startTime));
+            queryDto.setEndTime(parseTime("endTime", endTime));
+            queryDto.setLaneNos(laneNos);
+            return trafficDataService.getWindowedTrafficStatistics(queryDto);
+        });
+    }
+
+    /**
+     * 按粒度统计指定时间段内的车道交通流数据
+     * GET /api/gat1049/traffic/{crossId}/aggregates?startTime=20250101000000&endTime=20250102000000&resolution=HOUR&laneNo=1
+     */
+    @GetMapping("/{crossId}/aggregates")
+    public ResponseEntity<Map<String, Object>> getAggregates(
+            @PathVariable String crossId,
+            @RequestParam String startTime,
+            @RequestParam String endTime,
+            @RequestParam(defaultValue = "FIVE_MINUTES") String resolution,
+            @RequestParam(required = false) Integer laneNo) {
+        return respond(() -> trafficDataService.getTrafficAggregates(crossId,
+                parseTime("startTime", startTime), parseTime("endTime", endTime),
+                parseResolution(resolution), laneNo));
+    }
+
+    private ResponseEntity<Map<String, Object>> respond(Query query) {
+        Map<String, Object> result = new HashMap<>();
+        try {
+            result.put("success", true);
+            result.put("data", query.execute());
+        } catch (BusinessException e) {
+            result.put("success", false);
+            result.put("error", e.getMessage());
+        } catch (Exception e) {
+            logger.error("交通流统计查询失败", e);
+            result.put("success", false);
+            result.put("error", e.getMessage());
+        }
+        result.put("timestamp", System.currentTimeMillis());
+
+        return ResponseEntity.ok(result);
+    }
+
+    private static LocalDateTime parseTime(String fieldName, String time) throws BusinessException {
+        if (time == null || time.trim().isEmpty()) {
+            return null;
+        }
+        try {
+            return LocalDateTime.parse(time.trim(), TIME_FORMATTER);
+        } catch (DateTimeParseException e) {
+            throw new ValidationException(fieldName, "时间格式应为yyyyMMddHHmmss: " + time);
+        }
+    }
+
+    private static AggregateResolution parseResolution(String resolution) throws BusinessException {
+        try {
+            return AggregateResolution.valueOf(resolution.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new ValidationException("resolution", "统计粒度应为FIVE_MINUTES、FIFTEEN_MINUTES或HOUR: " + resolution);
+        }
+    }
+
+    /**
+     * 统计查询
+     */
+    @FunctionalInterface
+    private interface Query {
+        Object execute() throws BusinessException;
+    }
+}
@@ -0,0 +1,282 @@
+package com.traffic.server.network.client;
+
+import io.netty.channel.Channel;
+import io.netty.util.ReferenceCountUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 客户端通道写出器
+ * 为每个客户端维护出站队列，替代逐条 writeAndFlush：
+ *
+ * 1. 写请求先入队，每个事件循环周期排空一次队列，批量 write 后只 flush 一次
+ * 2. 通道不可写（超过高水位）时暂停写出，恢复可写（低于低水位）后继续，出站缓冲不会无限增长
+ * 3. 队列超过上限时丢弃新消息；带合并键的状态类消息只保留最新值
+ */
+public class ClientChannelWriter {
+
+    private static final Logger logger = LoggerFactory.getLogger(ClientChannelWriter.class);
+
+    private final String clientId;
+    private final Channel channel;
+    private final int maxQueued;
+
+    // 队列及合并索引由 this 保护
+    private final ArrayDeque<Pending> queue = new ArrayDeque<>();
+    private final Map<String, Pending> latestByKey = new HashMap<>();
+
+    private final AtomicBoolean drainScheduled = new AtomicBoolean();
+    // 关闭标记在 this 锁内修改，保证关闭后不会再有消息入队
+    private volatile boolean closed;
+
+    // 统计数据
+    private final LongAdder enqueuedCount = new LongAdder();
+    private final LongAdder writtenCount = new LongAdder();
+    private final LongAdder droppedCount = new LongAdder();
+    private final LongAdder coalescedCount = new LongAdder();
+    private final LongAdder flushCount = new LongAdder();
+    private final LongAdder unwritableCount = new LongAdder();
+
+    public ClientChannelWriter(String clientId, Channel channel, int maxQueued) {
+        this.clientId = clientId;
+        this.channel = channel;
+        this.maxQueued = maxQueued;
+    }
+
+    /**
+     * 提交写出请求，可在任意线程调用
+     * 无论是否写出，msg的引用都由本方法负责释放
+     *
+     * @param msg         待写出的报文（String 或 ByteBuf）
+     * @param coalesceKey 合并键，非null时队列中同键的旧消息被替换为本消息
+     * @return 写出结果，被丢弃或被新值替换时为false
+     */
+    public CompletableFuture<Boolean> write(Object msg, String coalesceKey) {
+        CompletableFuture<Boolean> future = new CompletableFuture<>();
+        if (closed || !channel.isActive()) {
+            ReferenceCountUtil.release(msg);
+            future.complete(false);
+            return future;
+        }
+
+        Pending replaced = null;
+        boolean dropped = false;
+        boolean rejected = false;
+        synchronized (this) {
+            Pending existing = coalesceKey != null ? latestByKey.get(coalesceKey) : null;
+            if (closed) {
+                rejected = true;
+            } else if (existing != null) {
+                // 保留原队列位置，只替换内容
+                replaced = new Pending(existing.msg, null, existing.future);
+                existing.msg = msg;
+                existing.future = future;
+            } else if (queue.size() >= maxQueued) {
+                dropped = true;
+            } else {
+                Pending pending = new Pending(msg, coalesceKey, future);
+                queue.offer(pending);
+                if (coalesceKey != null) {
+                    latestByKey.put(coalesceKey, pending);
+                }
+            }
+        }
+
+        if (rejected) {
+            ReferenceCountUtil.release(msg);
+            future.complete(false);
+            return future;
+        }
+        if (replaced != null) {
+            coalescedCount.increment();
+            ReferenceCountUtil.release(replaced.msg);
+            replaced.future.complete(false);
+        } else if (dropped) {
+            droppedCount.increment();
+            ReferenceCountUtil.release(msg);
+            future.complete(false);
+            logger.debug("客户端出站队列已满，丢弃消息: clientId={}, maxQueued={}", clientId, maxQueued);
+            return future;
+        }
+
+        enqueuedCount.increment();
+        scheduleDrain();
+        return future;
+    }
+
+    /**
+     * 通道可写状态变化时调用
+     */
+    public void onWritabilityChanged() {
+        if (channel.isWritable()) {
+            scheduleDrain();
+        } else {
+            unwritableCount.increment();
+        }
+    }
+
+    /**
+     * 关闭写出器，释放队列中未写出的消息
+     */
+    public void close() {
+        ArrayDeque<Pending> remaining;
+        synchronized (this) {
+            closed = true;
+            remaining = new ArrayDeque<>(queue);
+            queue.clear();
+            latestByKey.clear();
+        }
+        for (Pending pending : remaining) {
+            ReferenceCountUtil.release(pending.msg);
+            pending.future.complete(false);
+        }
+        if (!remaining.isEmpty()) {
+            droppedCount.add(remaining.size());
+            logger.info("客户端关闭，丢弃未写出消息: clientId={}, count={}", clientId, remaining.size());
+        }
+    }
+
+    /**
+     * 当前排队的消息数
+     */
+    public synchronized int getQueueDepth() {
+        return queue.size();
+    }
+
+    /**
+     * 获取统计信息快照
+     */
+    public Stats getStats() {
+        Stats stats = new Stats();
+        stats.setClientId(clientId);
+        stats.setQueueDepth(getQueueDepth());
+        stats.setWritable(channel.isWritable());
+        stats.setEnqueuedCount(enqueuedCount.sum());
+        stats.setWrittenCount(writtenCount.sum());
+        stats.setDroppedCount(droppedCount.sum());
+        stats.setCoalescedCount(coalescedCount.sum());
+        stats.setFlushCount(flushCount.sum());
+        stats.setUnwritableCount(unwritableCount.sum());
+        return stats;
+    }
+
+    private void scheduleDrain() {
+        if (drainScheduled.compareAndSet(false, true)) {
+            try {
+                channel.eventLoop().execute(this::drain);
+            } catch (Exception e) {
+                drainScheduled.set(false);
+                logger.warn("调度出站写出失败: clientId={}", clientId, e);
+                close();
+            }
+        }
+    }
+
+    /**
+     * 在事件循环线程中排空队列：可写时逐条 write，最后统一 flush
+     */
+    private void drain() {
+        drainScheduled.set(false);
+        if (closed) {
+            return;
+        }
+
+        int written = 0;
+        while (channel.isWritable()) {
+            Pending pending;
+            synchronized (this) {
+                pending = queue.poll();
+                if (pending == null) {
+                    break;
+                }
+                if (pending.key != null) {
+                    latestByKey.remove(pending.key);
+                }
+            }
+
+            CompletableFuture<Boolean> future = pending.future;
+            channel.write(pending.msg).addListener(f -> {
+                if (!f.isSuccess()) {
+                    logger.error("消息发送失败到客户端: {}", clientId, f.cause());
+                }
+                future.complete(f.isSuccess());
+            });
+            written++;
+        }
+
+        if (written > 0) {
+            channel.flush();
+            writtenCount.add(written);
+            flushCount.increment();
+        }
+    }
+
+    private static final class Pending {
+        private Object msg;
+        private final String key;
+        private CompletableFuture<Boolean> future;
+
+        private Pending(Object msg, String key, CompletableFuture<Boolean> future) {
+            this.msg = msg;
+            this.key = key;
+            this.future = future;
+        }
+    }
+
+    /**
+     * 客户端出站统计信息
+     */
+    public static class Stats {
+        private String clientId;
+        private int queueDepth;
+        private boolean writable;
+        private long enqueuedCount;
+        private long writtenCount;
+        private long droppedCount;
+        private long coalescedCount;
+        private long flushCount;
+        private long unwritableCount;
+
+        public String getClientId() { return clientId; }
+        public void setClientId(String clientId) { this.clientId = clientId; }
+
+        public int getQueueDepth() { return queueDepth; }
+        public void setQueueDepth(int queueDepth) { this.queueDepth = queueDepth; }
+
+        public boolean isWritable() { return writable; }
+        public void setWritable(boolean writable) { this.writable = writable; }
+
+        public long getEnqueuedCount() { return enqueuedCount; }
+        public void setEnqueuedCount(long enqueuedCount) { this.enqueuedCount = enqueuedCount; }
+
+        public long getWrittenCount() { return writtenCount; }
+        public void setWrittenCount(long writtenCount) { this.writtenCount = writtenCount; }
+
+        public long getDroppedCount() { return droppedCount; }
+        public void setDroppedCount(long droppedCount) { this.droppedCount = droppedCount; }
+
+        public long getCoalescedCount() { return coalescedCount; }
+        public void setCoalescedCount(long coalescedCount) { this.coalescedCount = coalescedCount; }
+
+        public long getFlushCount() { return flushCount; }
+        public void setFlushCount(long flushCount) { this.flushCount = flushCount; }
+
+        public long getUnwritableCount() { return unwritableCount; }
+        public void setUnwritableCount(long unwritableCount) { this.unwritableCount = unwritableCount; }
+
+        @Override
+        public String toString() {
+            return String.format("ClientChannelWriter.Stats{clientId='%s', queueDepth=%d, writable=%s, enqueued=%d, " +
+                            "written=%d, dropped=%d, coalesced=%d, flushes=%d, unwritable=%d}",
+                    clientId, queueDepth, writable, enqueuedCount, writtenCount, droppedCount,
+                    coalescedCount, flushCount, unwritableCount);
+        }
+    }
+}
@@ -1,13 +1,32 @@
 package com.traffic.server.network.client;
 
+import com.traffic.gat1049.protocol.codec.MessageCodec;
+import com.traffic.gat1049.protocol.codec.SharedPushFrame;
+import com.traffic.gat1049.protocol.model.core.Message;
+import com.traffic.gat1049.protocol.model.runtime.CrossModePlan;
+import com.traffic.gat1049.protocol.model.runtime.CrossSignalGroupStatus;
+import com.traffic.gat1049.protocol.model.runtime.CrossState;
+import com.traffic.gat1049.protocol.util.ProtocolUtils;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.ByteBufUtil;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelHandlerContext;
+import io.netty.util.ReferenceCountUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import javax.annotation.PostConstruct;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
 
 /**
  * 服务端到客户端消息发送器
@@ -24,6 +43,29 @@ public class ServerToClientSender {
     // 客户端连接状态 clientId -> 连接状态
     private final ConcurrentHashMap<String, Boolean> clientStatus = new ConcurrentHashMap<>();
 
+    // 客户端出站写出器 clientId -> 写出器
+    private final ConcurrentHashMap<String, ClientChannelWriter> clientWriters = new ConcurrentHashMap<>();
+
+    /**
+     * 单个客户端出站队列上限，超过后丢弃新消息
+     */
+    @Value("${tcp.server.outbound.max-queued-per-client:10000}")
+    private int maxQueuedPerClient = 10000;
+
+    /**
+     * 只保留最新值的推送对象，队列中同一路口的旧值会被新值替换
+     */
+    @Value("${tcp.server.outbound.latest-only-objects:CrossSignalGroupStatus,CrossState,CrossModePlan}")
+    private String[] latestOnlyObjectNames = {"CrossSignalGroupStatus", "CrossState", "CrossModePlan"};
+
+    private Set<String> latestOnlyObjects = Collections.emptySet();
+
+    @PostConstruct
+    public void init() {
+        latestOnlyObjects = new HashSet<>(Arrays.asList(latestOnlyObjectNames));
+        logger.info("客户端出站配置: maxQueuedPerClient={}, latestOnlyObjects={}", maxQueuedPerClient, latestOnlyObjects);
+    }
+
     /**
      * 注册客户端连接
      * @param clientId 客户端ID
@@ -32,12 +74,20 @@ public class ServerToClientSender {
     public void registerClient(String clientId, Channel channel) {
         clientChannels.put(clientId, channel);
         clientStatus.put(clientId, true);
+        ClientChannelWriter writer = new ClientChannelWriter(clientId, channel, maxQueuedPerClient);
+        ClientChannelWriter previous = clientWriters.put(clientId, writer);
+        if (previous != null) {
+            previous.close();
+        }
 
         // 监听连接关闭事件
         channel.closeFuture().addListener(future -> {
             logger.info("客户端连接关闭: {}", clientId);
-            clientChannels.remove(clientId);
+            clientChannels.remove(clientId, channel);
             clientStatus.remove(clientId);
+            if (clientWriters.remove(clientId, writer)) {
+                writer.close();
+            }
         });
 
         logger.info("注册客户端连接: {} -> {}", clientId, channel.remoteAddress());
@@ -59,6 +109,10 @@ public class ServerToClientSender {
     public void unregisterClient(String clientId) {
         Channel channel = clientChannels.remove(clientId);
         clientStatus.remove(clientId);
+        ClientChannelWriter writer = clientWriters.remove(clientId);
+        if (writer != null) {
+            writer.close();
+        }
 
         if (channel != null && channel.isActive()) {
             channel.close();
@@ -80,32 +134,134 @@ public class ServerToClientSender {
             return CompletableFuture.completedFuture(false);
         }
 
-        try {
-            // 确保消息以 </Message> 结尾（MessageCodec通常已经保证了这一点）
-            if (!xmlMessage.trim().endsWith("</Message>")) {
-                logger.warn("Message doesn't end with </Message>, this may cause parsing issues: clientId={}", clientId);
-            }
+        // 确保消息以 </Message> 结尾（MessageCodec通常已经保证了这一点）
+        if (!xmlMessage.trim().endsWith("</Message>")) {
+            logger.warn("Message doesn't end with </Message>, this may cause parsing issues: clientId={}", clientId);
+        }
+
+        return write(clientId, xmlMessage, null);
+    }
+
+    /**
+     * 发送已编码的报文到指定客户端
+     * 无论成功与否，frame的引用都由本方法负责释放
+     * @param clientId 客户端ID
+     * @param frame 已编码的报文
+     * @return 发送结果的Future
+     */
+    public CompletableFuture<Boolean> sendToClient(String clientId, ByteBuf frame) {
+        return sendToClient(clientId, frame, null);
+    }
+
+    /**
+     * 发送已编码的报文到指定客户端
+     * @param clientId 客户端ID
+     * @param frame 已编码的报文，引用由本方法负责释放
+     * @param coalesceKey 合并键，非null时出站队列中同键的未写出报文被本报文替换
+     * @return 发送结果的Future，被丢弃或被替换时为false
+     */
+    public CompletableFuture<Boolean> sendToClient(String clientId, ByteBuf frame, String coalesceKey) {
+        Channel channel = clientChannels.get(clientId);
+        if (channel == null || !channel.isActive()) {
+            logger.warn("客户端连接不可用: {}", clientId);
+            ReferenceCountUtil.release(frame);
+            return CompletableFuture.completedFuture(false);
+        }
 
-            CompletableFuture<Boolean> future = new CompletableFuture<>();
+        return write(clientId, frame, coalesceKey);
+    }
+
+    private CompletableFuture<Boolean> write(String clientId, Object msg, String coalesceKey) {
+        ClientChannelWriter writer = clientWriters.get(clientId);
+        if (writer == null) {
+            logger.warn("客户端写出器不存在: {}", clientId);
+            ReferenceCountUtil.release(msg);
+            return CompletableFuture.completedFuture(false);
+        }
 
-            channel.writeAndFlush(xmlMessage).addListener(channelFuture -> {
-                if (channelFuture.isSuccess()) {
+        try {
+            return writer.write(msg, coalesceKey).whenComplete((success, throwable) -> {
+                if (Boolean.TRUE.equals(success)) {
                     logger.debug("消息发送成功到客户端: {}", clientId);
-                    future.complete(true);
-                } else {
-                    logger.error("消息发送失败到客户端: {}", clientId, channelFuture.cause());
-                    future.complete(false);
                 }
             });
-
-            return future;
-
         } catch (Exception e) {
             logger.error("发送消息时发生异常: clientId={}", clientId, e);
             return CompletableFuture.completedFuture(false);
         }
     }
 
+    /**
+     * 通道可写状态变化通知，由通道处理器调用
+     * @param clientId 客户端ID
+     */
+    public void onWritabilityChanged(String clientId) {
+        ClientChannelWriter writer = clientWriters.get(clientId);
+        if (writer != null) {
+            writer.onWritabilityChanged();
+        }
+    }
+
+    /**
+     * 计算推送消息的合并键
+     * 只保留最新值的对象按 对象名+路口 合并，其他对象不合并
+     */
+    private String coalesceKey(Message message) {
+        Object data = ProtocolUtils.getOperationData(message);
+        if (data == null || !latestOnlyObjects.contains(data.getClass().getSimpleName())) {
+            return null;
+        }
+        String crossId = null;
+        if (data instanceof CrossSignalGroupStatus) {
+            crossId = ((CrossSignalGroupStatus) data).getCrossId();
+        } else if (data instanceof CrossState) {
+            crossId = ((CrossState) data).getCrossId();
+        } else if (data instanceof CrossModePlan) {
+            crossId = ((CrossModePlan) data).getCrossId();
+        }
+        return data.getClass().getSimpleName() + ":" + (crossId != null ? crossId : "");
+    }
+
+    /**
+     * 推送消息到多个客户端
+     * 消息只编码一次，每个客户端只替换报文头中的Token和Seq（每个接收方生成独立的序号），其余内容共享同一份编码结果
+     * @param message 推送消息
+     * @param clientTokens clientId -> 该客户端的Token（null表示沿用消息中的Token）
+     * @return 发送结果统计
+     */
+    public CompletableFuture<BroadcastResult> pushToClients(Message message, Map<String, String> clientTokens) {
+        if (clientTokens.isEmpty()) {
+            BroadcastResult result = new BroadcastResult();
+            return CompletableFuture.completedFuture(result);
+        }
+
+        SharedPushFrame frame;
+        try {
+            frame = SharedPushFrame.encode(MessageCodec.getInstance(), message, ByteBufAllocator.DEFAULT);
+        } catch (Exception e) {
+            logger.error("推送消息编码失败: seq={}", message.getSeq(), e);
+            BroadcastResult result = new BroadcastResult();
+            result.setTotalClients(clientTokens.size());
+            clientTokens.keySet().forEach(clientId -> {
+                result.incrementFailed();
+                result.addFailedClient(clientId);
+            });
+            return CompletableFuture.completedFuture(result);
+        }
+
+        String coalesceKey = coalesceKey(message);
+        try {
+            return fanOut(clientTokens.keySet(), coalesceKey, clientId -> {
+                Channel channel = clientChannels.get(clientId);
+                ByteBufAllocator alloc = channel != null ? channel.alloc() : ByteBufAllocator.DEFAULT;
+                return frame.forRecipient(alloc, clientTokens.get(clientId), Message.generateSequence());
+            });
+        } finally {
+            // 各客户端报文持有自己的引用，此处释放共享编码结果
+            frame.release();
+        }
+    }
+
     /**
      * 广播消息到所有客户端
      * @param message 消息内容
@@ -124,24 +280,40 @@ public class ServerToClientSender {
             return future;
         }
 
-        result.setTotalClients(clientChannels.size());
+        // 只转换一次字节，各客户端共享同一ByteBuf
+        ByteBuf encoded = ByteBufUtil.writeUtf8(ByteBufAllocator.DEFAULT, message);
+        try {
+            return fanOut(clientChannels.keySet(), null, clientId -> encoded.retainedDuplicate());
+        } finally {
+            encoded.release();
+        }
+    }
+
+    /**
+     * 向一组客户端发送报文并汇总结果
+     * @param clientIds 客户端ID集合
+     * @param coalesceKey 合并键，可为null
+     * @param frameFactory 为每个客户端生成报文引用
+     */
+    private CompletableFuture<BroadcastResult> fanOut(java.util.Collection<String> clientIds, String coalesceKey,
+                                                      Function<String, ByteBuf> frameFactory) {
+        CompletableFuture<BroadcastResult> future = new CompletableFuture<>();
+        BroadcastResult result = new BroadcastResult();
+        result.setTotalClients(clientIds.size());
 
         // 异步发送到所有客户端
         CompletableFuture<Void> allSends = CompletableFuture.allOf(
-                clientChannels.entrySet().stream()
-                        .map(entry -> {
-                            String clientId = entry.getKey();
-                            return sendToClient(clientId, message)
-                                    .thenAccept(success -> {
-                                        if (success) {
-                                            result.incrementSuccess();
-                                            result.addSuccessClient(clientId);
-                                        } else {
-                                            result.incrementFailed();
-                                            result.addFailedClient(clientId);
-                                        }
-                                    });
-                        })
+                clientIds.stream()
+                        .map(clientId -> sendToClient(clientId, frameFactory.apply(clientId), coalesceKey)
+                                .thenAccept(success -> {
+                                    if (success) {
+                                        result.incrementSuccess();
+                                        result.addSuccessClient(clientId);
+                                    } else {
+                                        result.incrementFailed();
+                                        result.addFailedClient(clientId);
+                                    }
+                                }))
                         .toArray(CompletableFuture[]::new)
         );
 
@@ -190,6 +362,16 @@ public class ServerToClientSender {
                 .collect(java.util.stream.Collectors.toSet());
     }
 
+    /**
+     * 获取所有客户端的出站统计信息
+     * @return 出站统计信息列表
+     */
+    public java.util.List<ClientChannelWriter.Stats> getOutboundStats() {
+        return clientWriters.values().stream()
+                .map(ClientChannelWriter::getStats)
+                .collect(java.util.stream.Collectors.toList());
+    }
+
     /**
      * 获取客户端连接信息
      * @param clientId 客户端ID
@@ -206,6 +388,7 @@ public class ServerToClientSender {
         info.setRemoteAddress(channel.remoteAddress().toString());
         info.setActive(channel.isActive());
         info.setConnectTime(System.currentTimeMillis()); // 简化实现
+        fillOutboundInfo(info, clientWriters.get(clientId));
 
         return info;
     }
@@ -225,12 +408,22 @@ public class ServerToClientSender {
                     info.setRemoteAddress(channel.remoteAddress().toString());
                     info.setActive(channel.isActive());
                     info.setConnectTime(System.currentTimeMillis());
+                    fillOutboundInfo(info, clientWriters.get(clientId));
 
                     return info;
                 })
                 .collect(java.util.stream.Collectors.toList());
     }
 
+    private void fillOutboundInfo(ClientConnectionInfo info, ClientChannelWriter writer) {
+        if (writer != null) {
+            ClientChannelWriter.Stats stats = writer.getStats();
+            info.setQueueDepth(stats.getQueueDepth());
+            info.setDroppedCount(stats.getDroppedCount());
+            info.setCoalescedCount(stats.getCoalescedCount());
+        }
+    }
+
     /**
      * 清理所有连接
      */
@@ -243,6 +436,8 @@ public class ServerToClientSender {
             }
         });
 
+        clientWriters.values().forEach(ClientChannelWriter::close);
+        clientWriters.clear();
         clientChannels.clear();
         clientStatus.clear();
 
@@ -271,8 +466,8 @@ public class ServerToClientSender {
         public java.util.List<String> getSuccessClients() { return successClients; }
         public java.util.List<String> getFailedClients() { return failedClients; }
 
-        public void incrementSuccess() { this.successCount++; }
-        public void incrementFailed() { this.failedCount++; }
+        public synchronized void incrementSuccess() { this.successCount++; }
+        public synchronized void incrementFailed() { this.failedCount++; }
 
         public void addSuccessClient(String clientId) { successClients.add(clientId); }
         public void addFailedClient(String clientId) { failedClients.add(clientId); }
@@ -290,6 +485,9 @@ public class ServerToClientSender {
         private String remoteAddress;
         private boolean active;
         private long connectTime;
+        private int queueDepth;
+        private long droppedCount;
+        private long coalescedCount;
 
         public String getClientId() { return clientId; }
         public void setClientId(String clientId) { this.clientId = clientId; }
@@ -303,10 +501,20 @@ public class ServerToClientSender {
         public long getConnectTime() { return connectTime; }
         public void setConnectTime(long connectTime) { this.connectTime = connectTime; }
 
+        public int getQueueDepth() { return queueDepth; }
+        public void setQueueDepth(int queueDepth) { this.queueDepth = queueDepth; }
+
+        public long getDroppedCount() { return droppedCount; }
+        public void setDroppedCount(long droppedCount) { this.droppedCount = droppedCount; }
+
+        public long getCoalescedCount() { return coalescedCount; }
+        public void setCoalescedCount(long coalescedCount) { this.coalescedCount = coalescedCount; }
+
         @Override
         public String toString() {
-            return String.format("ClientConnectionInfo{clientId='%s', remoteAddress='%s', active=%s, connectTime=%d}",
-                    clientId, remoteAddress, active, connectTime);
+            return String.format("ClientConnectionInfo{clientId='%s', remoteAddress='%s', active=%s, connectTime=%d, " +
+                            "queueDepth=%d, dropped=%d, coalesced=%d}",
+                    clientId, remoteAddress, active, connectTime, queueDepth, droppedCount, coalescedCount);
         }
     }
 }
\ No newline at end of file
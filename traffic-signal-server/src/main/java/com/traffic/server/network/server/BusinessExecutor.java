@@ -0,0 +1,297 @@
+package com.traffic.server.network.server;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 业务处理执行器
+ * 将消息处理（含数据库查询）从Netty事件循环中移出，在独立线程池中执行
+ *
+ * 1. 同一通道的消息串行执行，保证响应顺序与请求顺序一致
+ * 2. 单通道与全局待处理数量均有上限，超限由调用方拒绝
+ * 3. 统计排队等待时间与处理时间
+ */
+public class BusinessExecutor {
+
+    private static final Logger logger = LoggerFactory.getLogger(BusinessExecutor.class);
+
+    /**
+     * 单个通道连续处理的最大消息数，超过后让出线程，避免个别通道长期占用
+     */
+    private static final int MAX_DRAIN_BATCH = 32;
+
+    private final ThreadPoolExecutor pool;
+    private final int maxPendingPerChannel;
+    private final int maxPendingTotal;
+    private final AtomicInteger pendingTotal = new AtomicInteger();
+
+    // 统计数据
+    private final LongAdder submittedCount = new LongAdder();
+    private final LongAdder rejectedCount = new LongAdder();
+    private final LongAdder completedCount = new LongAdder();
+    private final LongAdder failedCount = new LongAdder();
+    private final LongAdder totalQueueWaitNanos = new LongAdder();
+    private final LongAdder totalHandleNanos = new LongAdder();
+    private final AtomicLong maxQueueWaitNanos = new AtomicLong();
+    private final AtomicLong maxHandleNanos = new AtomicLong();
+
+    public BusinessExecutor(int threads, int maxPendingPerChannel, int maxPendingTotal) {
+        this.maxPendingPerChannel = maxPendingPerChannel;
+        this.maxPendingTotal = maxPendingTotal;
+        // 通道排队由计数器限流，线程池队列中每个通道最多一个排空任务
+        this.pool = new ThreadPoolExecutor(threads, threads, 60L, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), new BusinessThreadFactory());
+        logger.info("业务执行器已创建: threads={}, maxPendingPerChannel={}, maxPendingTotal={}",
+                threads, maxPendingPerChannel, maxPendingTotal);
+    }
+
+    /**
+     * 为通道创建串行队列
+     */
+    public ChannelQueue newChannelQueue() {
+        return new ChannelQueue();
+    }
+
+    /**
+     * 关闭执行器，等待已提交的任务完成
+     */
+    public void shutdown(long timeout, TimeUnit unit) {
+        pool.shutdown();
+        try {
+            if (!pool.awaitTermination(timeout, unit)) {
+                pool.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            pool.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        logger.info("业务执行器已关闭: {}", getStats());
+    }
+
+    /**
+     * 获取统计信息快照
+     */
+    public Stats getStats() {
+        Stats stats = new Stats();
+        stats.setActiveThreads(pool.getActiveCount());
+        stats.setPoolSize(pool.getPoolSize());
+        stats.setPendingTotal(pendingTotal.get());
+        stats.setSubmittedCount(submittedCount.sum());
+        stats.setRejectedCount(rejectedCount.sum());
+        stats.setCompletedCount(completedCount.sum());
+        stats.setFailedCount(failedCount.sum());
+        long completed = stats.getCompletedCount() + stats.getFailedCount();
+        stats.setAvgQueueWaitMicros(completed > 0 ? totalQueueWaitNanos.sum() / completed / 1000 : 0);
+        stats.setAvgHandleMicros(completed > 0 ? totalHandleNanos.sum() / completed / 1000 : 0);
+        stats.setMaxQueueWaitMicros(maxQueueWaitNanos.get() / 1000);
+        stats.setMaxHandleMicros(maxHandleNanos.get() / 1000);
+        return stats;
+    }
+
+    private void record(long queueWaitNanos, long handleNanos, boolean success) {
+        totalQueueWaitNanos.add(queueWaitNanos);
+        totalHandleNanos.add(handleNanos);
+        maxQueueWaitNanos.accumulateAndGet(queueWaitNanos, Math::max);
+        maxHandleNanos.accumulateAndGet(handleNanos, Math::max);
+        if (success) {
+            completedCount.increment();
+        } else {
+            failedCount.increment();
+        }
+    }
+
+    /**
+     * 通道串行队列
+     * 提交只发生在通道所属的事件循环线程上，排空在业务线程池中进行，同一时刻最多一个线程在排空
+     */
+    public final class ChannelQueue {
+
+        private final Queue<Task> tasks = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger pending = new AtomicInteger();
+
+        private ChannelQueue() {
+        }
+
+        /**
+         * 提交任务
+         *
+         * @return false表示队列已满，任务被拒绝
+         */
+        public boolean submit(Runnable runnable) {
+            if (pending.get() >= maxPendingPerChannel) {
+                rejectedCount.increment();
+                return false;
+            }
+            if (pendingTotal.incrementAndGet() > maxPendingTotal) {
+                pendingTotal.decrementAndGet();
+                rejectedCount.increment();
+                return false;
+            }
+
+            submittedCount.increment();
+            tasks.offer(new Task(runnable, System.nanoTime()));
+            if (pending.getAndIncrement() == 0) {
+                schedule();
+            }
+            return true;
+        }
+
+        /**
+         * 提交队列满时的拒绝响应，排在该通道已接收消息的响应之后发出
+         * 不受全局上限约束，单通道最多再超出 maxPendingPerChannel 个，防止持续过载时无限堆积
+         *
+         * @return false表示超出的拒绝响应也已达上限，调用方应直接丢弃
+         */
+        public boolean submitRejection(Runnable runnable) {
+            if (pending.get() >= maxPendingPerChannel * 2) {
+                return false;
+            }
+
+            pendingTotal.incrementAndGet();
+            tasks.offer(new Task(runnable, System.nanoTime()));
+            if (pending.getAndIncrement() == 0) {
+                schedule();
+            }
+            return true;
+        }
+
+        /**
+         * 当前通道待处理的消息数
+         */
+        public int getPending() {
+            return pending.get();
+        }
+
+        private void schedule() {
+            try {
+                pool.execute(this::drain);
+            } catch (RejectedExecutionException e) {
+                logger.warn("业务执行器已关闭，丢弃通道待处理消息: {}", pending.get());
+                int dropped = pending.getAndSet(0);
+                pendingTotal.addAndGet(-dropped);
+                tasks.clear();
+            }
+        }
+
+        private void drain() {
+            int processed = 0;
+            while (true) {
+                Task task = tasks.poll();
+                if (task != null) {
+                    task.run();
+                }
+                pendingTotal.decrementAndGet();
+                if (pending.decrementAndGet() == 0) {
+                    return;
+                }
+                if (++processed >= MAX_DRAIN_BATCH) {
+                    schedule();
+                    return;
+                }
+            }
+        }
+    }
+
+    private final class Task {
+        private final Runnable runnable;
+        private final long enqueueNanos;
+
+        private Task(Runnable runnable, long enqueueNanos) {
+            this.runnable = runnable;
+            this.enqueueNanos = enqueueNanos;
+        }
+
+        private void run() {
+            long start = System.nanoTime();
+            boolean success = false;
+            try {
+                runnable.run();
+                success = true;
+            } catch (Throwable t) {
+                logger.error("业务任务执行异常", t);
+            } finally {
+                record(start - enqueueNanos, System.nanoTime() - start, success);
+            }
+        }
+    }
+
+    private static final class BusinessThreadFactory implements ThreadFactory {
+        private final AtomicInteger counter = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable r) {
+            Thread thread = new Thread(r, "gat-business-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+
+    /**
+     * 业务执行器统计信息
+     */
+    public static class Stats {
+        private int activeThreads;
+        private int poolSize;
+        private int pendingTotal;
+        private long submittedCount;
+        private long rejectedCount;
+        private long completedCount;
+        private long failedCount;
+        private long avgQueueWaitMicros;
+        private long avgHandleMicros;
+        private long maxQueueWaitMicros;
+        private long maxHandleMicros;
+
+        public int getActiveThreads() { return activeThreads; }
+        public void setActiveThreads(int activeThreads) { this.activeThreads = activeThreads; }
+
+        public int getPoolSize() { return poolSize; }
+        public void setPoolSize(int poolSize) { this.poolSize = poolSize; }
+
+        public int getPendingTotal() { return pendingTotal; }
+        public void setPendingTotal(int pendingTotal) { this.pendingTotal = pendingTotal; }
+
+        public long getSubmittedCount() { return submittedCount; }
+        public void setSubmittedCount(long submittedCount) { this.submittedCount = submittedCount; }
+
+        public long getRejectedCount() { return rejectedCount; }
+        public void setRejectedCount(long rejectedCount) { this.rejectedCount = rejectedCount; }
+
+        public long getCompletedCount() { return completedCount; }
+        public void setCompletedCount(long completedCount) { this.completedCount = completedCount; }
+
+        public long getFailedCount() { return failedCount; }
+        public void setFailedCount(long failedCount) { this.failedCount = failedCount; }
+
+        public long getAvgQueueWaitMicros() { return avgQueueWaitMicros; }
+        public void setAvgQueueWaitMicros(long avgQueueWaitMicros) { this.avgQueueWaitMicros = avgQueueWaitMicros; }
+
+        public long getAvgHandleMicros() { return avgHandleMicros; }
+        public void setAvgHandleMicros(long avgHandleMicros) { this.avgHandleMicros = avgHandleMicros; }
+
+        public long getMaxQueueWaitMicros() { return maxQueueWaitMicros; }
+        public void setMaxQueueWaitMicros(long maxQueueWaitMicros) { this.maxQueueWaitMicros = maxQueueWaitMicros; }
+
+        public long getMaxHandleMicros() { return maxHandleMicros; }
+        public void setMaxHandleMicros(long maxHandleMicros) { this.maxHandleMicros = maxHandleMicros; }
+
+        @Override
+        public String toString() {
+            return String.format("BusinessExecutor.Stats{pending=%d, submitted=%d, rejected=%d, completed=%d, failed=%d, " +
+                            "avgQueueWait=%dus, avgHandle=%dus, maxQueueWait=%dus, maxHandle=%dus}",
+                    pendingTotal, submittedCount, rejectedCount, completedCount, failedCount,
+                    avgQueueWaitMicros, avgHandleMicros, maxQueueWaitMicros, maxHandleMicros);
+        }
+    }
+}
@@ -2,21 +2,22 @@ package com.traffic.server.network.server;
 
 import com.traffic.gat1049.application.connection.ConnectionManager;
 import com.traffic.gat1049.application.session.SessionManager;
+import com.traffic.gat1049.protocol.builder.MessageBuilder;
+import com.traffic.gat1049.exception.MessageDecodingException;
+import com.traffic.gat1049.protocol.codec.MessageCodec;
+import com.traffic.gat1049.protocol.codec.XmlFrameDecoder;
 import com.traffic.gat1049.protocol.constants.GatConstants;
 import com.traffic.gat1049.protocol.model.core.Message;
 import com.traffic.gat1049.protocol.processor.MessageProcessor;
 import com.traffic.server.network.client.ServerToClientSender;
 import io.netty.bootstrap.ServerBootstrap;
 import io.netty.buffer.ByteBuf;
-import io.netty.buffer.Unpooled;
+import io.netty.buffer.ByteBufInputStream;
+import io.netty.buffer.ByteBufOutputStream;
 import io.netty.channel.*;
 import io.netty.channel.nio.NioEventLoopGroup;
 import io.netty.channel.socket.SocketChannel;
 import io.netty.channel.socket.nio.NioServerSocketChannel;
-import io.netty.handler.codec.DelimiterBasedFrameDecoder;
-import io.netty.handler.codec.LengthFieldBasedFrameDecoder;
-import io.netty.handler.codec.LengthFieldPrepender;
-import io.netty.handler.codec.string.StringDecoder;
 import io.netty.handler.codec.string.StringEncoder;
 import io.netty.handler.timeout.IdleStateHandler;
 import io.netty.util.CharsetUtil;
@@ -49,6 +50,30 @@ public class GatTcpServer {
     @Value("${tcp.server.worker-threads:4}")
     private int workerThreads;
 
+    /**
+     * 业务处理模式：pool - 独立业务线程池；inline - 直接在事件循环线程中处理
+     */
+    @Value("${tcp.server.business.mode:pool}")
+    private String businessMode;
+
+    @Value("${tcp.server.business.threads:16}")
+    private int businessThreads;
+
+    @Value("${tcp.server.business.max-pending-per-channel:256}")
+    private int maxPendingPerChannel;
+
+    @Value("${tcp.server.business.max-pending-total:10000}")
+    private int maxPendingTotal;
+
+    /**
+     * 出站缓冲水位：超过高水位通道变为不可写，低于低水位恢复
+     */
+    @Value("${tcp.server.outbound.low-water-mark:262144}")
+    private int lowWaterMark;
+
+    @Value("${tcp.server.outbound.high-water-mark:1048576}")
+    private int highWaterMark;
+
     @Autowired
     private MessageProcessor messageProcessor;
 
@@ -61,11 +86,15 @@ public class GatTcpServer {
     private EventLoopGroup bossGroup;
     private EventLoopGroup workerGroup;
     private Channel serverChannel;
+    private BusinessExecutor businessExecutor;
 
     @PostConstruct
     public void start() throws Exception {
         bossGroup = new NioEventLoopGroup(bossThreads);
         workerGroup = new NioEventLoopGroup(workerThreads);
+        if (!"inline".equalsIgnoreCase(businessMode)) {
+            businessExecutor = new BusinessExecutor(businessThreads, maxPendingPerChannel, maxPendingTotal);
+        }
 
         ServerBootstrap bootstrap = new ServerBootstrap();
         bootstrap.group(bossGroup, workerGroup)
@@ -74,6 +103,7 @@ public class GatTcpServer {
                 .option(ChannelOption.SO_REUSEADDR, true)
                 .childOption(ChannelOption.SO_KEEPALIVE, true)
                 .childOption(ChannelOption.TCP_NODELAY, true)
+                .childOption(ChannelOption.WRITE_BUFFER_WATER_MARK, new WriteBufferWaterMark(lowWaterMark, highWaterMark))
                 .childHandler(new ChannelInitializer<SocketChannel>() {
                     @Override
                     protected void initChannel(SocketChannel ch) {
@@ -88,16 +118,11 @@ public class GatTcpServer {
 //                        // 添加长度字段编码器
 //                        pipeline.addLast("frameEncoder", new LengthFieldPrepender(4));
 
-                        ByteBuf delimiter = Unpooled.copiedBuffer("</Message>".getBytes(CharsetUtil.UTF_8));
+                        // 按 </Message> 分帧，直接输出ByteBuf，不经过StringDecoder
                         pipeline.addLast("frameDecoder",
-                                new DelimiterBasedFrameDecoder(
-                                        GatConstants.Network.MAX_MESSAGE_SIZE,
-                                        false,  // stripDelimiter = false，保留分隔符（关键修改）
-                                        delimiter
-                                ));
-
-                        // 字符串编解码器
-                        pipeline.addLast("decoder", new StringDecoder(CharsetUtil.UTF_8));
+                                new XmlFrameDecoder(GatConstants.Network.MAX_MESSAGE_SIZE));
+
+                        // 字符串编码器：兼容其他组件直接写出String报文
                         pipeline.addLast("encoder", new StringEncoder(CharsetUtil.UTF_8));
 
                         // 空闲状态处理器
@@ -107,7 +132,8 @@ public class GatTcpServer {
                                         0, 0, TimeUnit.SECONDS));
 
                         // 业务处理器 - 传入 clientSender
-                        pipeline.addLast("handler", new GatServerHandler(messageProcessor, clientSender, connectionManager));
+                        pipeline.addLast("handler", new GatServerHandler(messageProcessor, clientSender, connectionManager,
+                                businessExecutor != null ? businessExecutor.newChannelQueue() : null));
                     }
                 });
 
@@ -134,26 +160,40 @@ public class GatTcpServer {
             if (bossGroup != null) {
                 bossGroup.shutdownGracefully();
             }
+            if (businessExecutor != null) {
+                businessExecutor.shutdown(5, TimeUnit.SECONDS);
+            }
         }
 
         logger.info("GA/T 1049 TCP服务器已关闭");
     }
 
+    /**
+     * 获取业务执行器统计信息，inline模式下返回null
+     */
+    public BusinessExecutor.Stats getBusinessStats() {
+        return businessExecutor != null ? businessExecutor.getStats() : null;
+    }
+
     /**
      * 服务器通道处理器
      */
-    private static class GatServerHandler extends SimpleChannelInboundHandler<String> {
+    private static class GatServerHandler extends SimpleChannelInboundHandler<ByteBuf> {
 
         private static final Logger logger = LoggerFactory.getLogger(GatServerHandler.class);
+        private final MessageCodec codec = MessageCodec.getInstance();
         private final MessageProcessor messageProcessor;
         private final ServerToClientSender clientSender; // 新增
         private final ConnectionManager connectionManager;
+        private final BusinessExecutor.ChannelQueue channelQueue; // 为null时在事件循环中直接处理
         private String clientId; // 新增
 
-        public GatServerHandler(MessageProcessor messageProcessor, ServerToClientSender clientSender, ConnectionManager connectionManager) {
+        public GatServerHandler(MessageProcessor messageProcessor, ServerToClientSender clientSender,
+                                ConnectionManager connectionManager, BusinessExecutor.ChannelQueue channelQueue) {
             this.messageProcessor = messageProcessor;
             this.clientSender = clientSender;
             this.connectionManager = connectionManager;
+            this.channelQueue = channelQueue;
         }
 
         @Override
@@ -171,6 +211,14 @@ public class GatTcpServer {
             }
         }
 
+        @Override
+        public void channelWritabilityChanged(ChannelHandlerContext ctx) throws Exception {
+            if (clientSender != null && clientId != null) {
+                clientSender.onWritabilityChanged(clientId);
+            }
+            super.channelWritabilityChanged(ctx);
+        }
+
         @Override
         public void channelInactive(ChannelHandlerContext ctx) {
             String clientAddress = ctx.channel().remoteAddress().toString();
@@ -185,25 +233,67 @@ public class GatTcpServer {
         }
 
         @Override
-        protected void channelRead0(ChannelHandlerContext ctx, String msg) {
-            logger.debug("收到消息: {}", msg);
+        protected void channelRead0(ChannelHandlerContext ctx, ByteBuf frame) {
+            if (logger.isDebugEnabled()) {
+                logger.debug("收到消息: {}", frame.toString(CharsetUtil.UTF_8));
+            }
+
+            if (channelQueue == null) {
+                handleFrame(ctx, frame);
+                return;
+            }
+
+            // 帧在业务线程中解码，需延长引用计数至处理完成
+            frame.retain();
+            boolean accepted = channelQueue.submit(() -> {
+                try {
+                    handleFrame(ctx, frame);
+                } finally {
+                    frame.release();
+                }
+            });
+            if (!accepted) {
+                String busyResponse;
+                try {
+                    logger.warn("业务队列已满，拒绝消息: client={}, pending={}", clientId, channelQueue.getPending());
+                    busyResponse = createBusyResponse(frame.toString(CharsetUtil.UTF_8));
+                } finally {
+                    frame.release();
+                }
+                // 繁忙响应同样经通道串行队列发出，不越过之前请求的响应
+                if (!channelQueue.submitRejection(() -> ctx.writeAndFlush(busyResponse))) {
+                    logger.debug("拒绝响应已达上限，丢弃消息: client={}", clientId);
+                }
+            }
+        }
+
+        /**
+         * 解码并处理单帧消息，写回响应，同一通道内按接收顺序串行执行
+         */
+        private void handleFrame(ChannelHandlerContext ctx, ByteBuf frame) {
+            if (!ctx.channel().isActive()) {
+                logger.debug("通道已关闭，跳过消息处理: {}", clientId);
+                return;
+            }
 
             try {
+                if (!XmlFrameDecoder.isValidFrame(frame)) {
+                    throw new MessageDecodingException("Invalid XML content format");
+                }
+
+                // 直接从ByteBuf解码，不生成中间String
+                Message request = codec.decode(new ByteBufInputStream(frame.duplicate()));
+
                 // 处理消息
-                String response = messageProcessor.processMessage(msg);
+                Message response = messageProcessor.processMessage(request);
 
                 // 发送响应
-                if (response != null && !response.trim().isEmpty()) {
-                    // 确保响应消息以 </Message> 结尾（MessageCodec通常已经保证了这一点）
-                    if (!response.trim().endsWith("</Message>")) {
-                        logger.warn("Response doesn't end with </Message>, this may cause parsing issues");
-                    }
+                if (response != null) {
+                    writeMessage(ctx, response);
 
-                    ctx.writeAndFlush(response);
-                    logger.debug("发送响应: {}", response);
-
-                    if(messageProcessor.getTempToken().isEmpty() == false) {
-                        connectionManager.registerConnection(ctx.channel().id().asShortText(), messageProcessor.getTempToken());
+                    String token = response.getToken();
+                    if (token != null && !token.isEmpty()) {
+                        connectionManager.registerConnection(ctx.channel().id().asShortText(), token);
                     }
                 }
 
@@ -216,6 +306,24 @@ public class GatTcpServer {
             }
         }
 
+        /**
+         * 将响应直接编码到ByteBuf并发送
+         */
+        private void writeMessage(ChannelHandlerContext ctx, Message response) throws Exception {
+            ByteBuf out = ctx.alloc().buffer();
+            try {
+                codec.encode(response, new ByteBufOutputStream(out));
+            } catch (Exception e) {
+                out.release();
+                throw e;
+            }
+
+            if (logger.isDebugEnabled()) {
+                logger.debug("发送响应: {}", out.toString(CharsetUtil.UTF_8));
+            }
+            ctx.writeAndFlush(out);
+        }
+
         @Override
         public void userEventTriggered(ChannelHandlerContext ctx, Object evt) throws Exception {
             if (evt instanceof io.netty.handler.timeout.IdleStateEvent) {
@@ -232,6 +340,38 @@ public class GatTcpServer {
             ctx.close();
         }
 
+        /**
+         * 创建服务端繁忙的SDO_Error响应，沿用请求的Seq和Token
+         */
+        private String createBusyResponse(String request) {
+            try {
+                String seq = extractElement(request, "Seq");
+                Message error = MessageBuilder.createErrorResponse(
+                        seq.isEmpty() ? Message.generateSequence() : seq,
+                        extractElement(request, "Token"),
+                        GatConstants.ErrorCode.SDE_FAILURE,
+                        "服务端繁忙，请稍后重试");
+                return MessageCodec.getInstance().encode(error);
+            } catch (Exception e) {
+                logger.error("创建繁忙响应失败", e);
+                return createErrorResponse("服务端繁忙，请稍后重试");
+            }
+        }
+
+        /**
+         * 从原始报文中截取简单元素的文本，不做完整解析
+         */
+        private static String extractElement(String xml, String name) {
+            String open = "<" + name + ">";
+            int start = xml.indexOf(open);
+            if (start < 0) {
+                return "";
+            }
+            start += open.length();
+            int end = xml.indexOf("</" + name + ">", start);
+            return end > start ? xml.substring(start, end).trim() : "";
+        }
+
         private String createErrorResponse(String errorMessage) {
             return "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n" +
                     "<Message>\n" +
@@ -1,6 +1,8 @@
 package com.traffic.server.service;
 
 import com.traffic.gat1049.application.connection.ConnectionManager;
+import com.traffic.gat1049.application.state.LiveStateStore;
+import com.traffic.gat1049.application.statistics.RollingTrafficStatistics;
 import com.traffic.gat1049.protocol.builder.MessageBuilder;
 import com.traffic.gat1049.protocol.model.core.Message;
 import com.traffic.gat1049.protocol.model.sdo.SdoMsgEntity;
@@ -49,6 +51,12 @@ public class EnhancedServerSubscriptionService {
     @Autowired
     private ConnectionManager connectionManager;
 
+    @Autowired(required = false)
+    private LiveStateStore liveStateStore;
+
+    @Autowired(required = false)
+    private RollingTrafficStatistics rollingTrafficStatistics;
+
     @PostConstruct
     public void initialize() {
         // 注册默认的数据处理器
@@ -321,26 +329,46 @@ public class EnhancedServerSubscriptionService {
     private void handleCrossState(CrossState crossState, Message message) {
         logger.info("✓ 处理路口状态推送: crossId={}, state={}",
                 crossState.getCrossId(), crossState.getValue());
+        if (liveStateStore != null && liveStateStore.isEnabled()) {
+            liveStateStore.updateCrossState(crossState);
+        }
     }
 
     private void handleCrossCycle(CrossCycle cycle, Message message) {
         logger.debug("✓ 处理路口周期推送: crossId={}, cycleLen={}",
                 cycle.getCrossId(), cycle.getLastCycleLen());
+        if (liveStateStore != null && liveStateStore.isEnabled()) {
+            liveStateStore.updateCrossCycle(cycle);
+        }
     }
 
     private void handleCrossStage(CrossStage stage, Message message) {
         logger.debug("✓ 处理路口阶段推送: crossId={}, stageNo={}",
                 stage.getCrossId(), stage.getCurStageNo());
+        if (liveStateStore != null && liveStateStore.isEnabled()) {
+            liveStateStore.updateCrossStage(stage);
+        }
     }
 
     private void handleSignalGroupStatus(CrossSignalGroupStatus status, Message message) {
         logger.debug("✓ 处理信号组状态推送: crossId={}, groups={}",
                 status.getCrossId(), status.getSignalGroupStatusList().size());
+        PackedCrossSignalGroupStatus packed = PackedCrossSignalGroupStatus.pack(status);
+        if (packed == null) {
+            logger.warn("信号组状态格式无效，未保存: crossId={}", status.getCrossId());
+            return;
+        }
+        if (liveStateStore != null && liveStateStore.isEnabled()) {
+            liveStateStore.updateSignalGroupStatus(packed);
+        }
     }
 
     private void handleTrafficData(CrossTrafficData trafficData, Message message) {
         logger.info("✓ 处理交通流数据推送: crossId={}, lanes={}",
                 trafficData.getCrossId(), trafficData.getDataList().size());
+        if (rollingTrafficStatistics != null) {
+            rollingTrafficStatistics.record(trafficData);
+        }
     }
 
     private void handleSignalControllerError(SignalControllerError error, Message message) {
@@ -0,0 +1,139 @@
+package com.traffic.server.network.client;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.util.CharsetUtil;
+import org.junit.jupiter.api.*;
+
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * ClientChannelWriter 测试：批量写出合并flush、状态消息合并、队列上限与不可写暂停
+ * 使用 EmbeddedChannel，事件循环任务在 runPendingTasks() 时执行
+ */
+@DisplayName("客户端通道写出器测试")
+class ClientChannelWriterTest {
+
+    private EmbeddedChannel channel;
+    private ClientChannelWriter writer;
+
+    @BeforeEach
+    void setUp() {
+        channel = new EmbeddedChannel();
+        writer = new ClientChannelWriter("client-1", channel, 3);
+    }
+
+    @AfterEach
+    void tearDown() {
+        channel.finishAndReleaseAll();
+    }
+
+    @Test
+    @DisplayName("同一事件循环周期内的多条消息批量写出，只flush一次")
+    void testBatchedFlush() {
+        CompletableFuture<Boolean> first = writer.write("m1", null);
+        CompletableFuture<Boolean> second = writer.write("m2", null);
+        CompletableFuture<Boolean> third = writer.write("m3", null);
+        assertNull(channel.readOutbound(), "排空前不应写出");
+        assertEquals(3, writer.getQueueDepth());
+
+        channel.runPendingTasks();
+
+        assertEquals("m1", channel.readOutbound());
+        assertEquals("m2", channel.readOutbound());
+        assertEquals("m3", channel.readOutbound());
+        assertTrue(first.join() && second.join() && third.join());
+        assertEquals(1, writer.getStats().getFlushCount());
+        assertEquals(3, writer.getStats().getWrittenCount());
+        assertEquals(0, writer.getQueueDepth());
+    }
+
+    @Test
+    @DisplayName("同合并键的消息只保留最新值，并保持原队列位置")
+    void testCoalescing() {
+        CompletableFuture<Boolean> stale = writer.write("status-1", "CrossCycle:1");
+        CompletableFuture<Boolean> other = writer.write("alarm", null);
+        CompletableFuture<Boolean> latest = writer.write("status-2", "CrossCycle:1");
+
+        assertFalse(stale.join(), "被替换的消息应返回false");
+        assertEquals(2, writer.getQueueDepth());
+
+        channel.runPendingTasks();
+
+        assertEquals("status-2", channel.readOutbound());
+        assertEquals("alarm", channel.readOutbound());
+        assertNull(channel.readOutbound());
+        assertTrue(other.join());
+        assertTrue(latest.join());
+        assertEquals(1, writer.getStats().getCoalescedCount());
+
+        // 写出后同键的新消息重新入队
+        writer.write("status-3", "CrossCycle:1");
+        channel.runPendingTasks();
+        assertEquals("status-3", channel.readOutbound());
+    }
+
+    @Test
+    @DisplayName("队列满时丢弃新消息并释放引用，合并键消息仍可替换")
+    void testQueueLimit() {
+        writer.write("m1", null);
+        writer.write("m2", "key");
+        writer.write("m3", null);
+
+        ByteBuf overflow = Unpooled.copiedBuffer("m4", CharsetUtil.UTF_8);
+        assertFalse(writer.write(overflow, null).join());
+        assertEquals(0, overflow.refCnt(), "丢弃的消息应被释放");
+        assertEquals(1, writer.getStats().getDroppedCount());
+
+        assertFalse(writer.write("m2-new", "key").isDone(), "替换不占用队列容量");
+        assertEquals(3, writer.getQueueDepth());
+    }
+
+    @Test
+    @DisplayName("通道不可写时暂停写出，恢复可写后继续")
+    void testBackpressure() {
+        channel.unsafe().outboundBuffer().setUserDefinedWritability(1, false);
+        assertFalse(channel.isWritable());
+
+        CompletableFuture<Boolean> future = writer.write("m1", null);
+        writer.write("m2", null);
+        channel.runPendingTasks();
+
+        assertNull(channel.readOutbound(), "不可写时不应写出");
+        assertEquals(2, writer.getQueueDepth());
+        assertFalse(future.isDone());
+
+        writer.onWritabilityChanged();
+        assertEquals(1, writer.getStats().getUnwritableCount());
+
+        channel.unsafe().outboundBuffer().setUserDefinedWritability(1, true);
+        writer.onWritabilityChanged();
+        channel.runPendingTasks();
+
+        assertEquals("m1", channel.readOutbound());
+        assertEquals("m2", channel.readOutbound());
+        assertTrue(future.join());
+    }
+
+    @Test
+    @DisplayName("关闭后释放排队消息，之后的写入直接拒绝")
+    void testClose() {
+        ByteBuf queued = Unpooled.copiedBuffer("m1", CharsetUtil.UTF_8);
+        CompletableFuture<Boolean> future = writer.write(queued, null);
+
+        writer.close();
+        assertFalse(future.join());
+        assertEquals(0, queued.refCnt());
+        assertEquals(0, writer.getQueueDepth());
+
+        ByteBuf late = Unpooled.copiedBuffer("m2", CharsetUtil.UTF_8);
+        assertFalse(writer.write(late, null).join());
+        assertEquals(0, late.refCnt());
+
+        channel.runPendingTasks();
+        assertNull(channel.readOutbound());
+    }
+}
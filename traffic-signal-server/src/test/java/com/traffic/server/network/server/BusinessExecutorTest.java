@@ -0,0 +1,161 @@
+package com.traffic.server.network.server;
+
+import org.junit.jupiter.api.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * BusinessExecutor 测试：通道内串行有序、通道间并行、排队上限
+ */
+@DisplayName("业务执行器测试")
+class BusinessExecutorTest {
+
+    private BusinessExecutor executor;
+
+    @AfterEach
+    void tearDown() {
+        if (executor != null) {
+            executor.shutdown(5, TimeUnit.SECONDS);
+        }
+    }
+
+    @Test
+    @DisplayName("同一通道的消息按提交顺序执行，跨越排空批次也不乱序")
+    void testPerChannelOrder() throws Exception {
+        executor = new BusinessExecutor(4, 1000, 10000);
+        int channels = 4;
+        int perChannel = 200;
+
+        List<List<Integer>> results = new ArrayList<>();
+        CountDownLatch done = new CountDownLatch(channels * perChannel);
+        for (int c = 0; c < channels; c++) {
+            List<Integer> executed = Collections.synchronizedList(new ArrayList<>());
+            results.add(executed);
+            BusinessExecutor.ChannelQueue queue = executor.newChannelQueue();
+            for (int i = 0; i < perChannel; i++) {
+                int seq = i;
+                assertTrue(queue.submit(() -> {
+                    executed.add(seq);
+                    done.countDown();
+                }));
+            }
+        }
+
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        for (List<Integer> executed : results) {
+            assertEquals(perChannel, executed.size());
+            for (int i = 0; i < perChannel; i++) {
+                assertEquals(i, executed.get(i).intValue());
+            }
+        }
+        assertEquals(channels * perChannel, executor.getStats().getCompletedCount());
+        assertEquals(0, executor.getStats().getPendingTotal());
+    }
+
+    @Test
+    @DisplayName("慢通道不阻塞其他通道")
+    void testChannelsRunInParallel() throws Exception {
+        executor = new BusinessExecutor(2, 10, 100);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch fastDone = new CountDownLatch(1);
+
+        BusinessExecutor.ChannelQueue slow = executor.newChannelQueue();
+        BusinessExecutor.ChannelQueue fast = executor.newChannelQueue();
+        slow.submit(() -> await(release));
+        fast.submit(fastDone::countDown);
+
+        assertTrue(fastDone.await(5, TimeUnit.SECONDS), "其他通道被慢通道阻塞");
+        release.countDown();
+    }
+
+    @Test
+    @DisplayName("单通道排队达到上限后拒绝，拒绝响应最多再排同样数量")
+    void testPerChannelLimit() throws Exception {
+        executor = new BusinessExecutor(2, 4, 100);
+        CountDownLatch release = new CountDownLatch(1);
+        BusinessExecutor.ChannelQueue queue = executor.newChannelQueue();
+
+        // 第一条阻塞在执行中，仍计入待处理
+        assertTrue(queue.submit(() -> await(release)));
+        for (int i = 0; i < 3; i++) {
+            assertTrue(queue.submit(() -> { }));
+        }
+        assertFalse(queue.submit(() -> { }));
+        assertEquals(4, queue.getPending());
+        assertEquals(1, executor.getStats().getRejectedCount());
+
+        for (int i = 0; i < 4; i++) {
+            assertTrue(queue.submitRejection(() -> { }));
+        }
+        assertFalse(queue.submitRejection(() -> { }));
+
+        // 其他通道不受影响
+        assertTrue(executor.newChannelQueue().submit(() -> { }));
+
+        release.countDown();
+        waitUntilIdle();
+        assertEquals(0, queue.getPending());
+        assertTrue(queue.submit(() -> { }));
+    }
+
+    @Test
+    @DisplayName("全局排队达到上限后所有通道均拒绝")
+    void testGlobalLimit() throws Exception {
+        executor = new BusinessExecutor(1, 10, 3);
+        CountDownLatch release = new CountDownLatch(1);
+
+        BusinessExecutor.ChannelQueue first = executor.newChannelQueue();
+        BusinessExecutor.ChannelQueue second = executor.newChannelQueue();
+        assertTrue(first.submit(() -> await(release)));
+        assertTrue(first.submit(() -> { }));
+        assertTrue(second.submit(() -> { }));
+        assertFalse(second.submit(() -> { }));
+        assertFalse(executor.newChannelQueue().submit(() -> { }));
+        assertEquals(3, executor.getStats().getPendingTotal());
+
+        release.countDown();
+        waitUntilIdle();
+        assertEquals(3, executor.getStats().getCompletedCount());
+        assertEquals(2, executor.getStats().getRejectedCount());
+    }
+
+    @Test
+    @DisplayName("任务异常不影响同通道后续消息")
+    void testFailureDoesNotStopQueue() throws Exception {
+        executor = new BusinessExecutor(2, 10, 100);
+        CountDownLatch done = new CountDownLatch(1);
+        BusinessExecutor.ChannelQueue queue = executor.newChannelQueue();
+
+        queue.submit(() -> {
+            throw new IllegalStateException("处理失败");
+        });
+        queue.submit(done::countDown);
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        waitUntilIdle();
+        assertEquals(1, executor.getStats().getFailedCount());
+        assertEquals(1, executor.getStats().getCompletedCount());
+    }
+
+    private void waitUntilIdle() throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (executor.getStats().getPendingTotal() > 0) {
+            assertTrue(System.currentTimeMillis() < deadline, "等待任务完成超时");
+            Thread.sleep(10);
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}